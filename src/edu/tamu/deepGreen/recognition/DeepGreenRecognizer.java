@@ -3,6 +3,7 @@
  * 
  * Revision History:<br>
  * Mar 25, 2009 awolin - File created Code reviewed
+ * Oct 18, 2026 - Implemented multi-object recognize()
  * 
  * <p>
  * 
@@ -43,16 +44,25 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.regex.PatternSyntaxException;
 
 import javax.xml.parsers.ParserConfigurationException;
 
 import org.apache.log4j.Logger;
 import org.ladder.core.config.LadderConfig;
+import org.ladder.core.config.WorkerPool;
 import org.ladder.core.logging.LadderLogger;
 import org.ladder.core.sketch.Alias;
 import org.ladder.core.sketch.IAlias;
@@ -73,6 +83,7 @@ import org.ladder.recognition.SimpleSketchRecognitionManager;
 import org.ladder.recognition.constraint.domains.DomainDefinition;
 import org.ladder.recognition.constraint.domains.io.DomainDefinitionInputDOM;
 import org.ladder.recognition.prior.ISymbolPrior;
+import org.ladder.recognition.recognizer.OverTimeCheckHelper;
 import org.ladder.recognition.recognizer.OverTimeException;
 import org.xml.sax.SAXException;
 
@@ -164,6 +175,19 @@ public class DeepGreenRecognizer implements IDeepGreenRecognizer {
 	 */
 	private ScaleInformation m_scaleInformation;
 	
+	/**
+	 * Groups strokes into candidate symbols for {@link #recognize()} and
+	 * {@link #recognize(List)}.
+	 */
+	private StrokeGrouper m_grouper = new StrokeGrouper();
+	
+	/**
+	 * Recognition managers not currently in use by a worker. Each group of
+	 * strokes is recognized by its own manager so that the groups cannot see
+	 * each other&#39;s shapes.
+	 */
+	private BlockingQueue<RecognitionManager> m_idleRecognizers = new LinkedBlockingQueue<RecognitionManager>();
+	
 	
 	/**
 	 * Construct a new DeepGreenRecognizer. The recognizer uses the default COA
@@ -1378,8 +1402,26 @@ public class DeepGreenRecognizer implements IDeepGreenRecognizer {
 	 */
 	public Set<IDeepGreenNBest> recognize() throws OverTimeException {
 		
-		throw new UnsupportedOperationException(
-		        "The method has not yet been implemented. Use recognizeSingleObject().");
+		Set<IDeepGreenNBest> dgNBests = recognizeGroups(getUnlockedStrokes());
+		
+		// Update the interpretations member to reflect any changes. As in
+		// recognizeSingleObject(), we cannot use addInterpretation and
+		// removeInterpretation since those both change the shapes within
+		// CALVIN.
+		List<IDeepGreenInterpretation> unlockedInterpretations = getUnlockedInterpretations();
+		
+		for (IDeepGreenInterpretation oldInterpretation : unlockedInterpretations) {
+			m_interpretations.remove(oldInterpretation);
+		}
+		
+		for (IDeepGreenNBest dgNBest : dgNBests) {
+			for (IDeepGreenInterpretation newInterpretation : dgNBest
+			        .getNBestList()) {
+				m_interpretations.add(newInterpretation);
+			}
+		}
+		
+		return dgNBests;
 	}
 	
 
@@ -1393,11 +1435,245 @@ public class DeepGreenRecognizer implements IDeepGreenRecognizer {
 	public Set<IDeepGreenNBest> recognize(List<IStroke> strokes)
 	        throws OverTimeException, NullPointerException {
 		
-		throw new UnsupportedOperationException(
-		        "The method has not yet been implemented. Use recognizeSingleObject(List).");
+		if (strokes == null) {
+			throw new NullPointerException(
+			        "List of strokes to recognize is null.");
+		}
+		
+		return recognizeGroups(strokes);
+	}
+	
+
+	/**
+	 * Partitions the strokes into groups using the {@link StrokeGrouper}, and
+	 * then recognizes every group as a single object. The groups are
+	 * recognized concurrently, with all of them sharing {@code m_maxTime}.
+	 * Groups that produce no interpretations are left out of the returned
+	 * set.
+	 * 
+	 * @param strokes
+	 *            original (unscaled) strokes to recognize.
+	 * @return an n-best list for each group of strokes, in the order the
+	 *         groups were drawn.
+	 * 
+	 * @throws OverTimeException
+	 *             if recognizing all the groups takes longer than {@code
+	 *             m_maxTime}.
+	 */
+	private Set<IDeepGreenNBest> recognizeGroups(List<IStroke> strokes)
+	        throws OverTimeException {
+		
+		final long startTime = System.currentTimeMillis();
+		
+		// Group in pixels, since that is what the recognizers see. The scaled
+		// strokes keep the IDs of the originals, so map back through those.
+		List<IStroke> scaledStrokes = new ArrayList<IStroke>();
+		Map<UUID, IStroke> origStrokes = new HashMap<UUID, IStroke>();
+		for (IStroke stroke : strokes) {
+			scaledStrokes
+			        .add(m_scaleInformation.scaleStrokeIntoPixels(stroke));
+			origStrokes.put(stroke.getID(), stroke);
+		}
+		
+		List<List<IStroke>> scaledGroups = m_grouper.group(scaledStrokes);
+		List<List<IStroke>> origGroups = new ArrayList<List<IStroke>>();
+		for (List<IStroke> scaledGroup : scaledGroups) {
+			List<IStroke> origGroup = new ArrayList<IStroke>();
+			for (IStroke scaledStroke : scaledGroup) {
+				origGroup.add(origStrokes.get(scaledStroke.getID()));
+			}
+			origGroups.add(origGroup);
+		}
+		
+		log.debug("Recognizing " + strokes.size() + " strokes in "
+		          + scaledGroups.size() + " groups");
+		
+		List<IDeepGreenNBest> dgNBests = new ArrayList<IDeepGreenNBest>();
+		
+		// Not worth handing off to the workers
+		if (WorkerPool.runInline(scaledGroups.size())) {
+			for (int i = 0; i < scaledGroups.size(); i++) {
+				dgNBests.add(recognizeGroup(scaledGroups.get(i), origGroups
+				        .get(i), OverTimeCheckHelper.timeRemaining(startTime,
+				        m_maxTime)));
+			}
+		}
+		else {
+			List<Future<IDeepGreenNBest>> futures = new ArrayList<Future<IDeepGreenNBest>>();
+			for (int i = 0; i < scaledGroups.size(); i++) {
+				final List<IStroke> scaledGroup = scaledGroups.get(i);
+				final List<IStroke> origGroup = origGroups.get(i);
+				
+				futures.add(WorkerPool
+				        .submit(new Callable<IDeepGreenNBest>() {
+					        
+					        public IDeepGreenNBest call()
+					                throws OverTimeException {
+						        return recognizeGroup(scaledGroup, origGroup,
+						                OverTimeCheckHelper.timeRemaining(
+						                        startTime, m_maxTime));
+					        }
+				        }));
+			}
+			
+			// Collect in submission order so the results are deterministic
+			try {
+				for (Future<IDeepGreenNBest> future : futures) {
+					long remaining = OverTimeCheckHelper.timeRemaining(
+					        startTime, m_maxTime);
+					dgNBests.add(future.get(Math.max(remaining, 0),
+					        TimeUnit.MILLISECONDS));
+				}
+			}
+			catch (TimeoutException te) {
+				cancelAll(futures);
+				log.info("Ran out of time recognizing groups at "
+				         + (System.currentTimeMillis() - startTime)
+				         + " ms. Exceeded the allotted " + m_maxTime + " ms.");
+				throw new OverTimeException(OverTimeException.DEFAULT_MESSAGE,
+				        te);
+			}
+			catch (InterruptedException ie) {
+				cancelAll(futures);
+				Thread.currentThread().interrupt();
+				throw new OverTimeException(
+				        "Interrupted while recognizing groups", ie);
+			}
+			catch (ExecutionException ee) {
+				cancelAll(futures);
+				Throwable cause = ee.getCause();
+				if (cause instanceof OverTimeException) {
+					throw (OverTimeException) cause;
+				}
+				if (cause instanceof RuntimeException) {
+					throw (RuntimeException) cause;
+				}
+				if (cause instanceof Error) {
+					throw (Error) cause;
+				}
+				throw new RuntimeException(cause);
+			}
+		}
+		
+		Set<IDeepGreenNBest> nonEmptyNBests = new LinkedHashSet<IDeepGreenNBest>();
+		for (IDeepGreenNBest dgNBest : dgNBests) {
+			if (!dgNBest.getNBestList().isEmpty()) {
+				nonEmptyNBests.add(dgNBest);
+			}
+		}
+		
+		return nonEmptyNBests;
+	}
+	
+
+	/**
+	 * Recognizes a group of strokes as a single object, using a recognition
+	 * manager that no other thread is using.
+	 * 
+	 * @param scaledStrokes
+	 *            strokes to recognize, scaled into pixels.
+	 * @param origStrokes
+	 *            original strokes to map the interpretations back to.
+	 * @param maxTime
+	 *            maximum time the recognition may take.
+	 * @return n-best list for the group of strokes, which is empty if nothing
+	 *         was recognized.
+	 * 
+	 * @throws OverTimeException
+	 *             if the recognition takes longer than {@code maxTime}.
+	 */
+	private IDeepGreenNBest recognizeGroup(List<IStroke> scaledStrokes,
+	        List<IStroke> origStrokes, long maxTime) throws OverTimeException {
+		
+		if (maxTime <= 0) {
+			throw new OverTimeException(OverTimeException.DEFAULT_MESSAGE);
+		}
+		
+		RecognitionManager localRecognizer = m_idleRecognizers.poll();
+		if (localRecognizer == null) {
+			localRecognizer = new RecognitionManager(m_domain);
+		}
+		
+		try {
+			localRecognizer.clear();
+			localRecognizer.setScaleInformation(m_scaleInformation);
+			for (IStroke stroke : scaledStrokes) {
+				localRecognizer.addStroke(stroke);
+			}
+			
+			List<IRecognitionResult> recResults = localRecognizer
+			        .recognizeTimed(maxTime);
+			
+			return convertFirstResultToNBest(recResults, origStrokes);
+		}
+		finally {
+			localRecognizer.clear();
+			m_idleRecognizers.offer(localRecognizer);
+		}
+	}
+	
+
+	/**
+	 * Converts the first of the results from a recognition manager into an
+	 * {@link IDeepGreenNBest}. Conversion errors indicate problems on our
+	 * end, such as poor SIDCs in the domain description, so they are logged
+	 * rather than passed up.
+	 * 
+	 * @param recResults
+	 *            results from the recognition manager.
+	 * @param origStrokes
+	 *            list of original strokes to map back to.
+	 * @return n-best list for the first result, or an empty n-best list if
+	 *         there are no results.
+	 */
+	private IDeepGreenNBest convertFirstResultToNBest(
+	        List<IRecognitionResult> recResults, List<IStroke> origStrokes) {
+		
+		// Construct an empty n-best list
+		IDeepGreenNBest dgNBest = new DeepGreenNBest();
+		
+		if (recResults != null && !recResults.isEmpty()) {
+			
+			// Convert to a DeepGreen format
+			try {
+				dgNBest = convertRecognitionResultToNBest(recResults.get(0),
+				        origStrokes);
+			}
+			// None of these exceptions should be passed up since they indicate
+			// issues on TAMUs end directly, such as poor SIDCs being
+			// initialized in the domain description.
+			catch (PatternSyntaxException pse) {
+				pse.printStackTrace();
+				log.error(pse.getMessage(), pse);
+			}
+			catch (IllegalArgumentException iae) {
+				iae.printStackTrace();
+				log.error(iae.getMessage(), iae);
+			}
+			catch (NullPointerException npe) {
+				npe.printStackTrace();
+				log.error(npe.getMessage(), npe);
+			}
+		}
+		
+		return dgNBest;
 	}
 	
 
+	/**
+	 * Cancel all the futures that have not finished yet.
+	 * 
+	 * @param futures
+	 *            futures to cancel.
+	 */
+	private static void cancelAll(List<Future<IDeepGreenNBest>> futures) {
+		for (Future<IDeepGreenNBest> future : futures) {
+			future.cancel(false);
+		}
+	}
+	
+
+
 	/*
 	 * (non-Javadoc)
 	 * 
@@ -1478,44 +1754,7 @@ public class DeepGreenRecognizer implements IDeepGreenRecognizer {
 			        .get(i)));
 		}
 		
-		// Create a new recognizer (wrapped in a recognition manager)
-		RecognitionManager localRecognizer = new RecognitionManager(m_domain);
-		localRecognizer.setScaleInformation(m_scaleInformation);
-		for (IStroke stroke : scaledStrokes) {
-			localRecognizer.addStroke(stroke);
-		}
-		
-		List<IRecognitionResult> recResults = localRecognizer
-		        .recognizeTimed(m_maxTime);
-		
-		// Construct an empty n-best list
-		IDeepGreenNBest dgNBest = new DeepGreenNBest();
-		
-		if (recResults != null && !recResults.isEmpty()) {
-			
-			// Convert to a DeepGreen format
-			try {
-				dgNBest = convertRecognitionResultToNBest(recResults.get(0),
-				        strokes);
-			}
-			// None of these exceptions should be passed up since they indicate
-			// issues on TAMUs end directly, such as poor SIDCs being
-			// initialized in the domain description.
-			catch (PatternSyntaxException pse) {
-				pse.printStackTrace();
-				log.error(pse.getMessage(), pse);
-			}
-			catch (IllegalArgumentException iae) {
-				iae.printStackTrace();
-				log.error(iae.getMessage(), iae);
-			}
-			catch (NullPointerException npe) {
-				npe.printStackTrace();
-				log.error(npe.getMessage(), npe);
-			}
-		}
-		
-		return dgNBest;
+		return recognizeGroup(scaledStrokes, strokes, m_maxTime);
 	}
 	
 
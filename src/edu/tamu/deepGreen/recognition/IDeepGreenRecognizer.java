@@ -456,12 +456,11 @@ public interface IDeepGreenRecognizer {
 	
 
 	/**
-	 * CURRENTLY UNIMPLEMENTED.
-	 * <p>
 	 * Returns a set of {@link IDeepGreenNBest} interpretations for the current
-	 * strokes in the low-level stroke pool. Groups the strokes according to a
-	 * single grouping algorithm, and then runs {@link #recognizeSingleObject()}
-	 * on each cluster.
+	 * unlocked strokes in the low-level stroke pool. Groups the strokes
+	 * according to a single grouping algorithm, and then recognizes each
+	 * cluster as a single object. Clusters are recognized concurrently, and
+	 * all of them share the one maximum time set with {@link #setMaxTime(long)}.
 	 * <p>
 	 * We do not provide alternate grouping interpretations, and we assume that
 	 * our grouping is correct. Also, different n-best lists will have unique
@@ -491,11 +490,11 @@ public interface IDeepGreenRecognizer {
 	
 
 	/**
-	 * CURRENTLY UNIMPLEMENTED.
-	 * <p>
 	 * Returns a set of {@link IDeepGreenNBest} interpretations for given list
 	 * of strokes. Groups the strokes according to a single grouping algorithm,
-	 * and then runs {@link #recognizeSingleObject()} on each cluster.
+	 * and then runs {@link #recognizeSingleObject(List)} on each cluster.
+	 * Clusters are recognized concurrently, and all of them share the one
+	 * maximum time set with {@link #setMaxTime(long)}.
 	 * <p>
 	 * We do not provide alternate grouping interpretations, and we assume that
 	 * our grouping is correct. Also, different n-best lists will have unique
@@ -0,0 +1,404 @@
+/**
+ * StrokeGrouper.java
+ * 
+ * Revision History:<br>
+ * Oct 18, 2026 - File created
+ * 
+ * <p>
+ * 
+ * <pre>
+ * This work is released under the BSD License:
+ * (C) 2008 Sketch Recognition Lab, Texas A&amp;M University (hereafter SRL @ TAMU)
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the Sketch Recognition Lab, Texas A&amp;M University 
+ *       nor the names of its contributors may be used to endorse or promote 
+ *       products derived from this software without specific prior written 
+ *       permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY SRL @ TAMU ``AS IS'' AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL SRL @ TAMU BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ * </pre>
+ */
+package edu.tamu.deepGreen.recognition;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.ladder.core.sketch.BoundingBox;
+import org.ladder.core.sketch.IStroke;
+
+/**
+ * Partitions a list of strokes into groups, where each group is a candidate
+ * symbol that can be handed to its own recognizer. Two strokes end up in the
+ * same group if either
+ * <ul>
+ * <li>they were drawn one right after the other (the pause between them is at
+ * most {@link #getMaxTimeGap()}) and their bounding boxes are close, or</li>
+ * <li>the bounding box of one lies almost entirely within the bounding box of
+ * a closed stroke, such as text or a modifier written inside a unit frame,
+ * regardless of when the two were drawn.</li>
+ * </ul>
+ * Grouping is transitive, so a group is a connected component of these pairs.
+ * Strokes should be in pixels, since the distance thresholds are.
+ */
+public class StrokeGrouper {
+	
+	/**
+	 * Default smallest gap, in pixels, that two strokes drawn one after the
+	 * other may have between their bounding boxes and still be grouped.
+	 */
+	public static final double S_DEFAULT_MIN_SPATIAL_GAP = 15.0;
+	
+	/**
+	 * Default allowed gap between two strokes, as a fraction of the smaller
+	 * bounding box diagonal. Used when larger than the minimum gap.
+	 */
+	public static final double S_DEFAULT_SPATIAL_GAP_RATIO = 0.25;
+	
+	/**
+	 * Default longest pause, in ms, between two strokes drawn one after the
+	 * other that are still part of the same symbol.
+	 */
+	public static final long S_DEFAULT_MAX_TIME_GAP = 1500;
+	
+	/**
+	 * Fraction of a bounding box that must be inside a closed stroke's
+	 * bounding box for the two to be grouped.
+	 */
+	private static final double S_CONTAINMENT_RATIO = 0.8;
+	
+	/**
+	 * A stroke is closed if its endpoints are closer than this fraction of its
+	 * bounding box diagonal.
+	 */
+	private static final double S_CLOSED_RATIO = 0.2;
+	
+	/**
+	 * Smallest allowed gap between strokes drawn one after the other, in
+	 * pixels
+	 */
+	private double m_minSpatialGap = S_DEFAULT_MIN_SPATIAL_GAP;
+	
+	/**
+	 * Allowed gap as a fraction of the smaller bounding box diagonal
+	 */
+	private double m_spatialGapRatio = S_DEFAULT_SPATIAL_GAP_RATIO;
+	
+	/**
+	 * Longest pause between strokes drawn one after the other, in ms
+	 */
+	private long m_maxTimeGap = S_DEFAULT_MAX_TIME_GAP;
+	
+	
+	/**
+	 * Create a grouper with the default thresholds.
+	 */
+	public StrokeGrouper() {
+		// Nothing to do
+	}
+	
+
+	/**
+	 * Create a grouper with the given thresholds.
+	 * 
+	 * @param minSpatialGap
+	 *            smallest gap, in pixels, allowed between the bounding boxes
+	 *            of strokes drawn one after the other.
+	 * @param spatialGapRatio
+	 *            allowed gap as a fraction of the smaller bounding box
+	 *            diagonal, used when larger than {@code minSpatialGap}.
+	 * @param maxTimeGap
+	 *            longest pause, in ms, between strokes drawn one after the
+	 *            other.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             if any of the thresholds are negative.
+	 */
+	public StrokeGrouper(double minSpatialGap, double spatialGapRatio,
+	        long maxTimeGap) throws IllegalArgumentException {
+		
+		if (minSpatialGap < 0 || spatialGapRatio < 0 || maxTimeGap < 0) {
+			throw new IllegalArgumentException(
+			        "Grouping thresholds must be non-negative.");
+		}
+		
+		m_minSpatialGap = minSpatialGap;
+		m_spatialGapRatio = spatialGapRatio;
+		m_maxTimeGap = maxTimeGap;
+	}
+	
+
+	/**
+	 * Get the smallest gap allowed between strokes drawn one after the other.
+	 * 
+	 * @return the gap, in pixels.
+	 */
+	public double getMinSpatialGap() {
+		return m_minSpatialGap;
+	}
+	
+
+	/**
+	 * Get the allowed gap as a fraction of the smaller bounding box diagonal.
+	 * 
+	 * @return the ratio.
+	 */
+	public double getSpatialGapRatio() {
+		return m_spatialGapRatio;
+	}
+	
+
+	/**
+	 * Get the longest pause between strokes drawn one after the other.
+	 * 
+	 * @return the pause, in ms.
+	 */
+	public long getMaxTimeGap() {
+		return m_maxTimeGap;
+	}
+	
+
+	/**
+	 * Partition the strokes into groups. Every stroke is in exactly one group.
+	 * The groups are ordered by when their first stroke was drawn, and the
+	 * strokes in each group keep their order from {@code strokes}.
+	 * 
+	 * @param strokes
+	 *            strokes to group.
+	 * @return the groups of strokes, empty if there are no strokes.
+	 * 
+	 * @throws NullPointerException
+	 *             if {@code strokes} is {@code null}.
+	 */
+	public List<List<IStroke>> group(List<IStroke> strokes)
+	        throws NullPointerException {
+		
+		if (strokes == null) {
+			throw new NullPointerException("List of strokes to group is null.");
+		}
+		
+		// Nothing to group, so nothing for the recognizers to split up
+		if (strokes.isEmpty()) {
+			return new ArrayList<List<IStroke>>();
+		}
+		
+		final int n = strokes.size();
+		final BoundingBox[] boxes = new BoundingBox[n];
+		final long[] startTimes = new long[n];
+		final boolean[] closed = new boolean[n];
+		
+		for (int i = 0; i < n; i++) {
+			IStroke stroke = strokes.get(i);
+			boxes[i] = stroke.getBoundingBox();
+			startTimes[i] = stroke.getFirstPoint().getTime();
+			double endpointDistance = stroke.getFirstPoint().distance(
+			        stroke.getLastPoint());
+			closed[i] = endpointDistance <= S_CLOSED_RATIO
+			                                * boxes[i].getDiagonalLength();
+		}
+		
+		int[] parent = new int[n];
+		for (int i = 0; i < n; i++) {
+			parent[i] = i;
+		}
+		
+		// Temporal pass: only strokes adjacent in drawing order can be joined
+		Integer[] byTime = sortedIndices(n, new Comparator<Integer>() {
+			
+			public int compare(Integer i, Integer j) {
+				return startTimes[i] < startTimes[j] ? -1
+				        : (startTimes[i] == startTimes[j] ? 0 : 1);
+			}
+		});
+		for (int k = 1; k < n; k++) {
+			int prev = byTime[k - 1];
+			int curr = byTime[k];
+			long pause = startTimes[curr]
+			             - strokes.get(prev).getLastPoint().getTime();
+			
+			if (pause <= m_maxTimeGap
+			    && gap(boxes[prev], boxes[curr]) <= allowedGap(boxes[prev],
+			            boxes[curr])) {
+				union(parent, prev, curr);
+			}
+		}
+		
+		// Spatial pass: sweep over the strokes in x order, and only compare
+		// strokes whose x extents overlap
+		Integer[] byMinX = sortedIndices(n, new Comparator<Integer>() {
+			
+			public int compare(Integer i, Integer j) {
+				return Double.compare(boxes[i].getMinX(), boxes[j].getMinX());
+			}
+		});
+		for (int a = 0; a < n; a++) {
+			int i = byMinX[a];
+			for (int b = a + 1; b < n; b++) {
+				int j = byMinX[b];
+				if (boxes[j].getMinX() > boxes[i].getMaxX()) {
+					break;
+				}
+				
+				if ((closed[i] && containedIn(boxes[j], boxes[i]))
+				    || (closed[j] && containedIn(boxes[i], boxes[j]))) {
+					union(parent, i, j);
+				}
+			}
+		}
+		
+		// Collect the components, ordered by their first stroke in time
+		Map<Integer, List<IStroke>> components = new LinkedHashMap<Integer, List<IStroke>>();
+		for (int k = 0; k < n; k++) {
+			components.put(find(parent, byTime[k]), null);
+		}
+		for (int i = 0; i < n; i++) {
+			int root = find(parent, i);
+			List<IStroke> group = components.get(root);
+			if (group == null) {
+				group = new ArrayList<IStroke>();
+				components.put(root, group);
+			}
+			group.add(strokes.get(i));
+		}
+		
+		return new ArrayList<List<IStroke>>(components.values());
+	}
+	
+
+	/**
+	 * Get the gap allowed between two bounding boxes.
+	 * 
+	 * @param box1
+	 *            first bounding box.
+	 * @param box2
+	 *            second bounding box.
+	 * @return the allowed gap, in pixels.
+	 */
+	private double allowedGap(BoundingBox box1, BoundingBox box2) {
+		return Math.max(m_minSpatialGap, m_spatialGapRatio
+		                                 * Math.min(box1.getDiagonalLength(),
+		                                         box2.getDiagonalLength()));
+	}
+	
+
+	/**
+	 * Check whether most of the inner bounding box lies within the outer one.
+	 * Both boxes are padded by a pixel so that horizontal and vertical lines
+	 * have an area.
+	 * 
+	 * @param inner
+	 *            bounding box that might be inside.
+	 * @param outer
+	 *            bounding box that might contain {@code inner}.
+	 * @return true if at least {@link #S_CONTAINMENT_RATIO} of {@code inner}
+	 *         is within {@code outer}.
+	 */
+	private static boolean containedIn(BoundingBox inner, BoundingBox outer) {
+		BoundingBox paddedInner = inner.expand(1.0);
+		BoundingBox paddedOuter = outer.expand(1.0);
+		
+		if (paddedInner.getArea() >= paddedOuter.getArea()) {
+			return false;
+		}
+		
+		return paddedInner.getPercentContained(paddedOuter) >= S_CONTAINMENT_RATIO;
+	}
+	
+
+	/**
+	 * Get the gap between two bounding boxes, or 0 if they overlap.
+	 * 
+	 * @param box1
+	 *            first bounding box.
+	 * @param box2
+	 *            second bounding box.
+	 * @return the distance between the closest points of the boxes.
+	 */
+	private static double gap(BoundingBox box1, BoundingBox box2) {
+		double dx = Math.max(0.0, Math.max(box1.getMinX() - box2.getMaxX(),
+		        box2.getMinX() - box1.getMaxX()));
+		double dy = Math.max(0.0, Math.max(box1.getMinY() - box2.getMaxY(),
+		        box2.getMinY() - box1.getMaxY()));
+		
+		return Math.sqrt(dx * dx + dy * dy);
+	}
+	
+
+	/**
+	 * Get the indices 0 to n-1 sorted with the given comparator.
+	 * 
+	 * @param n
+	 *            number of indices.
+	 * @param comparator
+	 *            order to sort in.
+	 * @return the sorted indices.
+	 */
+	private static Integer[] sortedIndices(int n,
+	        Comparator<Integer> comparator) {
+		Integer[] indices = new Integer[n];
+		for (int i = 0; i < n; i++) {
+			indices[i] = i;
+		}
+		Arrays.sort(indices, comparator);
+		
+		return indices;
+	}
+	
+
+	/**
+	 * Find the root of a stroke's component, compressing the path on the way.
+	 * 
+	 * @param parent
+	 *            parent links of the components.
+	 * @param i
+	 *            stroke index.
+	 * @return index of the root stroke.
+	 */
+	private static int find(int[] parent, int i) {
+		while (parent[i] != i) {
+			parent[i] = parent[parent[i]];
+			i = parent[i];
+		}
+		
+		return i;
+	}
+	
+
+	/**
+	 * Join the components of two strokes.
+	 * 
+	 * @param parent
+	 *            parent links of the components.
+	 * @param i
+	 *            first stroke index.
+	 * @param j
+	 *            second stroke index.
+	 */
+	private static void union(int[] parent, int i, int j) {
+		int rootI = find(parent, i);
+		int rootJ = find(parent, j);
+		
+		if (rootI != rootJ) {
+			parent[Math.max(rootI, rootJ)] = Math.min(rootI, rootJ);
+		}
+	}
+}
@@ -3,6 +3,7 @@
  * 
  * Revision History:<br>
  * Mar 25, 2009 awolin - File created Code reviewed
+ * Oct 18, 2026 - Test shaft intersections with SegmentIntersection
  * 
  * <p>
  * 
@@ -61,6 +62,7 @@ import org.ladder.core.sketch.Point;
 import org.ladder.core.sketch.Shape;
 import org.ladder.core.sketch.Stroke;
 import org.ladder.core.sketch.comparators.ShapeTimeComparator;
+import org.ladder.math.SegmentIntersection;
 import org.ladder.math.UnivariateGaussianDistribution;
 import org.ladder.recognition.IRecognitionResult;
 import org.ladder.recognition.RecognitionResult;
@@ -728,7 +730,7 @@ public class HighLevelArrowRecognizer extends AbstractArrowRecognizer {
 	 */
 	private boolean intersects(IStroke stroke1, IStroke stroke2) {
 		
-		return intersects(stroke1.getPoints(), stroke2.getPoints());
+		return SegmentIntersection.intersects(stroke1, stroke2);
 	}
 	
 
@@ -744,16 +746,7 @@ public class HighLevelArrowRecognizer extends AbstractArrowRecognizer {
 	 */
 	private boolean intersects(List<IPoint> stroke1, List<IPoint> stroke2) {
 		
-		for (int i = 0; i < stroke1.size() - 1; i++) {
-			for (int j = 0; j < stroke2.size() - 1; j++) {
-				if (isIntersection(stroke1.get(i), stroke1.get(i + 1), stroke2
-				        .get(j), stroke2.get(j + 1))) {
-					return true;
-				}
-			}
-		}
-		
-		return false;
+		return SegmentIntersection.intersects(stroke1, stroke2);
 	}
 	
 
@@ -797,59 +790,6 @@ public class HighLevelArrowRecognizer extends AbstractArrowRecognizer {
 	}
 	
 
-	/**
-	 * http://www.mema.ucl.ac.be/~wu/FSA2716/Exercise1.htm.
-	 * 
-	 * @param pt1
-	 *            first point, first stroke, A.
-	 * @param pt2
-	 *            second point, first stroke, B.
-	 * @param pt3
-	 *            first point, second stroke, C.
-	 * @param pt4
-	 *            second point, second stroke, D.
-	 * @return {@code true} if {@code AB} and {@code CD} intersect, {@code
-	 *         false} otherwise.
-	 */
-	private boolean isIntersection(IPoint pt1, IPoint pt2, IPoint pt3,
-	        IPoint pt4) {
-		// A
-		double Ax = pt1.getX();
-		double Ay = pt1.getY();
-		
-		// B
-		double Bx = pt2.getX();
-		double By = pt2.getY();
-		
-		// C
-		double Cx = pt3.getX();
-		double Cy = pt3.getY();
-		
-		// D
-		double Dx = pt4.getX();
-		double Dy = pt4.getY();
-		
-		double denom = (((Bx - Ax) * (Dy - Cy)) - ((By - Ay) * (Dx - Cx)));
-		
-		// AB and CD are parallel
-		if (denom == 0.0)
-			return false;
-		
-		double numR = (((Ay - Cy) * (Dx - Cx)) - ((Ax - Cx) * (Dy - Cy)));
-		double r = numR / denom;
-		
-		double numS = (((Ay - Cy) * (Bx - Ax)) - ((Ax - Cx) * (By - Ay)));
-		double s = numS / denom;
-		
-		// An intersection exists
-		if (r >= 0.0 && r <= 1.0 && s >= 0.0 && s <= 1.0) {
-			return true;
-		}
-		
-		return false;
-	}
-	
-
 	/**
 	 * Merge all the given strokes together into one large stroke.
 	 * 
@@ -6,95 +6,212 @@
  */
 package hhreco.classification;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import org.ladder.core.config.WorkerPool;
 
 /**
- * This K-nearest neighbor classifier compares a test example with every
- * example in the training set by computing the normalized Euclidean distance.
+ * This K-nearest neighbor classifier finds the k examples in the
+ * training set nearest to a test example by the normalized Euclidean
+ * distance.  Each category normalizes by its own means and standard
+ * deviations.<p>
+ *
+ * The examples of each category are kept in a KD-tree over the raw
+ * feature values.  The means cancel out of the normalized distance
+ * and the standard deviations only weight each feature, so the tree
+ * stays valid as the standard deviations change and new examples can
+ * be added without rebuilding it.  The search keeps the k best
+ * examples seen so far in a bounded heap and skips any part of a tree
+ * that cannot beat the worst of them.<p>
+ *
+ * The classifier is incremental: training again with the same
+ * training set only adds the examples that were added to the set
+ * since the last call, which is what HHRecognizer.addAndRetrain
+ * does.
  *
  * @author Heloise Hse (hwawen@eecs.berkeley.edu)
  */
 public class KNNClassifier implements TrainableClassifier {
+    /**
+     * The default number of neighbors returned by classify.
+     */
+    public static final int DEFAULT_K = 5;
+
     private ArrayList _categories = new ArrayList();
     private int _numFeatures = 0;
 
     /**
-     * Classify the given example by testing it against each example
-     * in the training set.
+     * The number of neighbors returned by classify.
+     */
+    private int _k = DEFAULT_K;
+
+    /**
+     * The training set last trained on, so that training with it
+     * again only adds the new examples.
+     */
+    private TrainingSet _trainedSet = null;
+
+    /**
+     * Create a classifier that returns the DEFAULT_K nearest
+     * examples.
+     */
+    public KNNClassifier(){}
+
+    /**
+     * Create a classifier that returns the k nearest examples.
+     */
+    public KNNClassifier(int k){
+        setK(k);
+    }
+
+    /**
+     * Set the number of neighbors returned by classify.
+     */
+    public void setK(int k){
+        if(k < 1){
+            throw new IllegalArgumentException("k must be at least 1: " + k);
+        }
+        _k = k;
+    }
+
+    /**
+     * Return the number of neighbors returned by classify.
+     */
+    public int getK(){
+        return _k;
+    }
+
+    /**
+     * Classify the given example by finding the k nearest examples
+     * in the training set.  The classification holds the type of
+     * each of them and its distance to the given example, nearest
+     * first; ties go to the category trained first and then to the
+     * example added first.
      */
     public Classification classify(FeatureSet s) throws ClassifierException {
         if(s.getFeatureCount() != _numFeatures){
             throw new ClassifierException("Incorrect number of features: "+s.getFeatureCount()+", should be "+ _numFeatures);
         }
-        ArrayList pairs = new ArrayList();
-        for(Iterator iter = _categories.iterator(); iter.hasNext();){
-            Category cat = (Category)iter.next();
-            double[] normVals = cat.normalize(s.getFeatures());
-            for(int i=0; i<cat.getExampleCount(); i++){
-                double[] refVals = cat.getExample(i);
-                double dist = distance(normVals, refVals);
-                pairs.add(new Pair(cat.getType(),dist));
-            }
-        }
-        String[] types = new String[pairs.size()];
-        double[] values = new double[pairs.size()];
-        int i=0;
-        for(Iterator iter=pairs.iterator(); iter.hasNext();){
-            Pair p = (Pair)iter.next();
-            types[i]=p.type;
-            values[i]=p.value;
-            i++;
-        }
-        return new Classification(types, values);
+        Neighbors best = new Neighbors(_k);
+        double[] vals = s.getFeatures();
+        for(int c=0; c<_categories.size(); c++){
+            ((Category)_categories.get(c)).search(vals, c, best);
+        }
+        if(best.size() == 0){
+            throw new ClassifierException("No training examples");
+        }
+        return best.toClassification(_categories);
     }
 
     /**
-     * A simple data structure to temporarily store classification
-     * results.
+     * Classify each of the given examples, spread over the shared
+     * {@link WorkerPool}.  The classifications are in the same order
+     * as the examples.
      */
-    private static class Pair {
-        String type;
-        double value;
+    public Classification[] classify(FeatureSet[] s) throws ClassifierException {
+        final FeatureSet[] examples = s;
+        final Classification[] res = new Classification[examples.length];
+        if(WorkerPool.runInline(examples.length)){
+            for(int i=0; i<examples.length; i++){
+                res[i] = classify(examples[i]);
+            }
+            return res;
+        }
 
-        public Pair(String t, double v){
-            type=t;
-            value=v;
+        List<Callable<Object>> tasks = new ArrayList<Callable<Object>>(examples.length);
+        for(int i=0; i<examples.length; i++){
+            final int index = i;
+            tasks.add(new Callable<Object>(){
+                public Object call() throws ClassifierException {
+                    res[index] = classify(examples[index]);
+                    return null;
+                }
+            });
         }
+        try{
+            WorkerPool.invokeAll(tasks);
+        }
+        catch(WorkerPool.TaskException ex){
+            if(ex.getCause() instanceof ClassifierException){
+                throw (ClassifierException)ex.getCause();
+            }
+            throw ex;
+        }
+        return res;
     }
-    
+
     /**
      * Train the classifier with a given training set.  This method
      * will throw a ClassifierException if the training set is not
      * self consisistent, i.e. the feature sets that it contains do
      * not have the same number of features in them.
      *
-     * Any previously training data, if any, will be removed upon the
-     * call of this method.
+     * If this is the training set the classifier was last trained
+     * with, only the examples added to it since then are added to the
+     * classifier.  Otherwise any previously training data will be
+     * removed upon the call of this method.
      */
     public void train(TrainingSet s, int numFeatures) throws ClassifierException {
-        clear();
-        _numFeatures = numFeatures;
+        if(s != _trainedSet || numFeatures != _numFeatures){
+            clear();
+            _trainedSet = s;
+            _numFeatures = numFeatures;
+        }
+
+        HashMap<String, Category> byType = new HashMap<String, Category>();
+        for(Iterator iter = _categories.iterator(); iter.hasNext();){
+            Category cg = (Category)iter.next();
+            byType.put(cg.getType(), cg);
+        }
+
+        HashSet<String> types = new HashSet<String>();
         for(Iterator iter = s.types(); iter.hasNext();){
             String type = (String)iter.next();
-            int num = s.positiveExampleCount(type);
-            FeatureSet[] examples = new FeatureSet[num];
-            int k=0;
+            types.add(type);
+            Category cg = byType.get(type);
+            if(cg == null || s.positiveExampleCount(type) < cg.getExampleCount()){
+                // New type, or examples were taken away: start over
+                if(cg != null){
+                    _categories.remove(cg);
+                }
+                cg = new Category(type, numFeatures);
+                _categories.add(cg);
+            }
+            int skip = cg.getExampleCount();
             for(Iterator e = s.positiveExamples(type); e.hasNext();){
-                examples[k++] = (FeatureSet)e.next();
+                FeatureSet fs = (FeatureSet)e.next();
+                if(skip > 0){
+                    skip--;
+                    continue;
+                }
+                if(fs.getFeatureCount() != numFeatures){
+                    throw new ClassifierException("Incorrect number of features for type "+type+": "+fs.getFeatureCount()+", should be "+numFeatures);
+                }
+                cg.add(fs.getFeatures());
+            }
+        }
+
+        // Drop the types that were removed from the training set
+        for(Iterator iter = _categories.iterator(); iter.hasNext();){
+            if(!types.contains(((Category)iter.next()).getType())){
+                iter.remove();
             }
-            DataRep dr = new DataRep(examples, numFeatures);
-            Category cg = new Category(type, dr, examples);
-            _categories.add(cg);
         }
     }
-    
+
     /**
      * Return whether this classifier is incremental, i.e. whether new
      * data can be added to the existing training set (A) without
      * reprocessing the examples in A.
      */
     public boolean isIncremental() {
-        return false;
+        return true;
     }
 
     /**
@@ -103,18 +220,133 @@ public class KNNClassifier implements TrainableClassifier {
     public void clear() {
         _categories.clear();
         _numFeatures=0;
+        _trainedSet=null;
     }
 
     /**
-     * Compute the Euclidean distance of the two vectors.
+     * The k nearest examples found so far, kept in a heap with the
+     * worst of them on top.
      */
-    private static double distance(double[] vals, double[] ref){
-        int sum=0;
-        for(int i=0; i<vals.length; i++){
-            double diff = vals[i]-ref[i];
-            sum += diff*diff;
+    private static class Neighbors {
+        /** Squared distance of each example. */
+        private double[] _dists;
+        /** Category of each example. */
+        private int[] _cats;
+        /** Index of each example in its category. */
+        private int[] _indices;
+        /** The number of examples held. */
+        private int _size = 0;
+
+        /** Create an empty set holding at most k examples. */
+        public Neighbors(int k){
+            _dists = new double[k];
+            _cats = new int[k];
+            _indices = new int[k];
+        }
+
+        /** Return the number of examples held. */
+        public int size(){
+            return _size;
+        }
+
+        /**
+         * Return the squared distance an example has to beat to get
+         * in, infinite until k examples are held.
+         */
+        public double bound(){
+            return _size < _dists.length ? Double.POSITIVE_INFINITY : _dists[0];
+        }
+
+        /** Offer an example, keeping it if it is among the k best. */
+        public void offer(double dist, int cat, int index){
+            if(_size < _dists.length){
+                int i = _size++;
+                set(i, dist, cat, index);
+                // sift up
+                while(i > 0){
+                    int parent = (i-1)/2;
+                    if(!worse(i, parent)){
+                        break;
+                    }
+                    swap(i, parent);
+                    i = parent;
+                }
+                return;
+            }
+            if(!(dist < _dists[0]) && !(dist == _dists[0] && (cat < _cats[0] || (cat == _cats[0] && index < _indices[0])))){
+                return;
+            }
+            set(0, dist, cat, index);
+            // sift down
+            int i = 0;
+            while(true){
+                int worst = i;
+                int left = 2*i+1;
+                int right = left+1;
+                if(left < _size && worse(left, worst)){
+                    worst = left;
+                }
+                if(right < _size && worse(right, worst)){
+                    worst = right;
+                }
+                if(worst == i){
+                    break;
+                }
+                swap(i, worst);
+                i = worst;
+            }
+        }
+
+        /**
+         * Return the examples as a classification, nearest first,
+         * with their distances.
+         */
+        public Classification toClassification(List categories){
+            Integer[] order = new Integer[_size];
+            for(int i=0; i<_size; i++){
+                order[i] = new Integer(i);
+            }
+            Arrays.sort(order, new Comparator<Integer>(){
+                public int compare(Integer o1, Integer o2){
+                    int i1 = o1.intValue();
+                    int i2 = o2.intValue();
+                    return worse(i1, i2) ? 1 : (worse(i2, i1) ? -1 : 0);
+                }
+            });
+            String[] types = new String[_size];
+            double[] values = new double[_size];
+            for(int i=0; i<_size; i++){
+                int j = order[i].intValue();
+                types[i] = ((Category)categories.get(_cats[j])).getType();
+                values[i] = Math.sqrt(_dists[j]);
+            }
+            return new Classification(types, values);
+        }
+
+        /** Is held example i worse than held example j? */
+        private boolean worse(int i, int j){
+            if(_dists[i] != _dists[j]){
+                return _dists[i] > _dists[j];
+            }
+            if(_cats[i] != _cats[j]){
+                return _cats[i] > _cats[j];
+            }
+            return _indices[i] > _indices[j];
+        }
+
+        private void set(int i, double dist, int cat, int index){
+            _dists[i] = dist;
+            _cats[i] = cat;
+            _indices[i] = index;
+        }
+
+        private void swap(int i, int j){
+            double dist = _dists[i];
+            int cat = _cats[i];
+            int index = _indices[i];
+            set(i, _dists[j], _cats[j], _indices[j]);
+            set(j, dist, cat, index);
         }
-        return Math.sqrt(sum);
     }
 
     /**
@@ -124,42 +356,59 @@ public class KNNClassifier implements TrainableClassifier {
      * Object Orientated language.
      */
     private static class Category {
+        /** Leaves split once they hold more examples than this. */
+        private static final int LEAF_SIZE = 16;
+
         /** The name of the category. */
         private String _type;
-        /** The data representation of this category. */
-        private DataRep _dataRep;
-        /** Normalized feature values for each example. */
-        private double[][] _examples;
-        /** The number of examples for this category. */
-        private int _numExamples;
-
-        /** Create a catetory with the given 'type' name, data
-         * representation, and examples. Normalize the example
-         * features. */
-        public Category(String type, DataRep dataRep, FeatureSet[] examples){
-            _type = type;
-            _dataRep = dataRep;
-            _examples = new double[examples.length][];
-            _numExamples = examples.length;
+        /** Raw feature values for each example, in the order added. */
+        private ArrayList _examples = new ArrayList();
+        /** Running mean of each feature. */
+        private double[] _means;
+        /** Running sum of squared differences from the mean of each feature. */
+        private double[] _m2;
+        /**
+         * Weight of each feature in the squared distance, one over
+         * its variance, or 0 for features that do not vary.
+         */
+        private double[] _weights;
+        /** Root of the KD-tree over the examples. */
+        private Node _root = new Node();
 
-            for(int i=0; i<examples.length; i++){
-                double[] vals = examples[i].getFeatures();
-                _examples[i] = normalize(vals);
-            }
+        /** Create an empty catetory with the given 'type' name. */
+        public Category(String type, int numFeatures){
+            _type = type;
+            _means = new double[numFeatures];
+            _m2 = new double[numFeatures];
+            _weights = new double[numFeatures];
         }
 
         /**
-         * Normalize the feature values by subtracting the means and
-         * dividing by the standard deviations.
+         * Add an example, updating the means and standard deviations
+         * and putting it in the tree.
          */
-        public double[] normalize(double[] ex){
-            double[] means = _dataRep.getMeans();
-            double[] stds = _dataRep.getStds();
-            double[] normVals = new double[ex.length];
+        public void add(double[] vals){
+            double[] ex = (double[])vals.clone();
+            int index = _examples.size();
+            _examples.add(ex);
+            int n = index+1;
             for(int i=0; i<ex.length; i++){
-                normVals[i] = (ex[i]-means[i])/stds[i];
+                double delta = ex[i]-_means[i];
+                _means[i] += delta/n;
+                _m2[i] += delta*(ex[i]-_means[i]);
+                _weights[i] = _m2[i] > 0 ? n/_m2[i] : 0;
             }
-            return normVals;
+            _root.add(index, this);
+        }
+
+        /**
+         * Offer the examples of this category to 'best', skipping
+         * parts of the tree that cannot beat what it already holds.
+         * This is the same as normalizing 'vals' and each example by
+         * the means and standard deviations and comparing them.
+         */
+        public void search(double[] vals, int cat, Neighbors best){
+            _root.search(vals, cat, best, this);
         }
 
         /** Return the name of this category. */
@@ -167,19 +416,154 @@ public class KNNClassifier implements TrainableClassifier {
             return _type;
         }
 
-        /** Return the data representation. */
-        public DataRep getDataRep() {
-            return _dataRep;
-        }
-
         /** Return the i'th example. */
         public double[] getExample(int i){
-            return _examples[i];
+            return (double[])_examples.get(i);
         }
 
         /** Return the number of examples in this category. */
         public int getExampleCount() {
-            return _numExamples;
+            return _examples.size();
+        }
+
+        /**
+         * Return the squared normalized distance between the values
+         * and an example, stopping once it passes 'bound'.
+         */
+        private double distance(double[] vals, double[] ex, double bound){
+            double sum=0;
+            for(int i=0; i<vals.length; i++){
+                double diff = vals[i]-ex[i];
+                sum += diff*diff*_weights[i];
+                if(sum > bound){
+                    return sum;
+                }
+            }
+            return sum;
+        }
+    }
+
+    /**
+     * A node of a category's KD-tree.  A leaf holds the indices of
+     * its examples; an inner node sends examples with a value below
+     * 'split' in feature 'dim' left and the rest right.
+     */
+    private static class Node {
+        /** Indices of the examples in a leaf, or null for an inner node. */
+        private int[] _indices = new int[4];
+        /** The number of examples in a leaf. */
+        private int _count = 0;
+        /** How many examples a leaf can hold before trying to split. */
+        private int _capacity = Category.LEAF_SIZE;
+        /** The feature an inner node splits on. */
+        private int _dim;
+        /** The value an inner node splits at. */
+        private double _split;
+        private Node _left;
+        private Node _right;
+
+        /** Add example 'index' of the category to this subtree. */
+        public void add(int index, Category cat){
+            Node node = this;
+            while(node._indices == null){
+                node = cat.getExample(index)[node._dim] < node._split ? node._left : node._right;
+            }
+            node.addToLeaf(index);
+            if(node._count > node._capacity && !node.split(cat)){
+                // All the examples are the same in every feature
+                // that varies, so wait for more before trying again
+                node._capacity *= 2;
+            }
+        }
+
+        /**
+         * Split a leaf on the feature its examples spread out the most
+         * in, relative to the category's standard deviations.  Return
+         * whether it could be split.
+         */
+        private boolean split(Category cat){
+            int bestDim = -1;
+            double bestSpread = 0;
+            for(int d=0; d<cat._weights.length; d++){
+                if(cat._weights[d] <= 0){
+                    continue;
+                }
+                double min = Double.POSITIVE_INFINITY;
+                double max = Double.NEGATIVE_INFINITY;
+                for(int i=0; i<_count; i++){
+                    double v = cat.getExample(_indices[i])[d];
+                    min = Math.min(min, v);
+                    max = Math.max(max, v);
+                }
+                double spread = (max-min)*(max-min)*cat._weights[d];
+                if(spread > bestSpread){
+                    bestSpread = spread;
+                    bestDim = d;
+                }
+            }
+            if(bestDim < 0){
+                return false;
+            }
+
+            // Split at the distinct value nearest the median
+            double[] vals = new double[_count];
+            for(int i=0; i<_count; i++){
+                vals[i] = cat.getExample(_indices[i])[bestDim];
+            }
+            Arrays.sort(vals);
+            int mid = _count/2;
+            int p = -1;
+            for(int i=1; i<_count; i++){
+                if(vals[i-1] < vals[i] && (p < 0 || Math.abs(i-mid) < Math.abs(p-mid))){
+                    p = i;
+                }
+            }
+            if(p < 0){
+                return false;
+            }
+
+            _dim = bestDim;
+            _split = vals[p];
+            _left = new Node();
+            _right = new Node();
+            int[] indices = _indices;
+            int count = _count;
+            _indices = null;
+            _count = 0;
+            for(int i=0; i<count; i++){
+                Node child = cat.getExample(indices[i])[_dim] < _split ? _left : _right;
+                child.addToLeaf(indices[i]);
+            }
+            return true;
+        }
+
+        /** Add an index to a leaf without trying to split it. */
+        private void addToLeaf(int index){
+            if(_count == _indices.length){
+                int[] indices = new int[_count*2];
+                System.arraycopy(_indices, 0, indices, 0, _count);
+                _indices = indices;
+            }
+            _indices[_count++] = index;
+        }
+
+        /** Offer the examples in this subtree to 'best'. */
+        public void search(double[] vals, int catIndex, Neighbors best, Category cat){
+            if(_indices != null){
+                for(int i=0; i<_count; i++){
+                    double dist = cat.distance(vals, cat.getExample(_indices[i]), best.bound());
+                    best.offer(dist, catIndex, _indices[i]);
+                }
+                return;
+            }
+            double diff = vals[_dim]-_split;
+            Node near = diff < 0 ? _left : _right;
+            Node far = diff < 0 ? _right : _left;
+            near.search(vals, catIndex, best, cat);
+            // Every example on the far side is at least this far away
+            if(!(diff*diff*cat._weights[_dim] > best.bound())){
+                far.search(vals, catIndex, best, cat);
+            }
         }
     }
 }
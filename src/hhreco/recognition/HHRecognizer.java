@@ -140,42 +140,89 @@ public class HHRecognizer implements MultiStrokeRecognizer {
     /**
      * Extract features from the examples in the 'model' and add them
      * to the training set, 'set'.  Return the number of features
-     * extracted for an example.
+     * extracted for an example.  The features of all the examples
+     * are extracted together so they can be computed in parallel.
      */
     private int createTrainingSet(MSTrainingModel model, TrainingSet set){
-        int numFeatures = -1;
-        boolean isFirst=true;
+        ArrayList types = new ArrayList();
+        ArrayList examples = new ArrayList();
         for(Iterator iter = model.types(); iter.hasNext();){
             String type = (String)iter.next();
             for(Iterator iter2 = model.positiveExamples(type); iter2.hasNext();){
-                TimedStroke[] strokes = (TimedStroke[])iter2.next();
-                FeatureSet f = extractFeatures(_extractors,strokes);
-                if(isFirst){
-                    isFirst=false;
-                    numFeatures = f.getFeatureCount();
-                }
-                else if(numFeatures != f.getFeatureCount()){
-                    throw new RuntimeException("Unequal feature numbers: " + numFeatures+" vs. "+ f.getFeatureCount());
-                }
-                set.addPositiveExample(type, f);
+                types.add(type);
+                examples.add(iter2.next());
+            }
+        }
+        FeatureSet[] features = extractFeatures(_extractors,
+                (TimedStroke[][])examples.toArray(new TimedStroke[examples.size()][]));
+
+        int numFeatures = -1;
+        boolean isFirst=true;
+        for(int i=0; i<features.length; i++){
+            FeatureSet f = features[i];
+            if(isFirst){
+                isFirst=false;
+                numFeatures = f.getFeatureCount();
+            }
+            else if(numFeatures != f.getFeatureCount()){
+                throw new RuntimeException("Unequal feature numbers: " + numFeatures+" vs. "+ f.getFeatureCount());
             }
+            set.addPositiveExample((String)types.get(i), f);
         }
         return numFeatures;
     }
 
 
+    /**
+     * Extract features from each of the given shapes.  Zernike
+     * moments are computed for all the shapes in parallel; other
+     * extractors are applied one shape at a time.
+     */
+    public static FeatureSet[] extractFeatures(FeatureExtractor[] extractors, TimedStroke[][] shapes){
+        double[][][] vals = new double[extractors.length][][];
+        for(int i=0; i<extractors.length; i++){
+            if(extractors[i] instanceof ZernikeFE){
+                vals[i] = ((ZernikeFE)extractors[i]).applyAll(shapes);
+            }
+            else{
+                vals[i] = new double[shapes.length][];
+                for(int j=0; j<shapes.length; j++){
+                    vals[i][j] = extractors[i].apply(shapes[j]);
+                }
+            }
+        }
+
+        FeatureSet[] res = new FeatureSet[shapes.length];
+        for(int j=0; j<shapes.length; j++){
+            double[][] shapeVals = new double[extractors.length][];
+            for(int i=0; i<extractors.length; i++){
+                shapeVals[i] = vals[i][j];
+            }
+            res[j] = concatenate(shapeVals);
+        }
+        return res;
+    }
+
     /**
      * Extract features from the given set of strokes.
      */
     public static FeatureSet extractFeatures(FeatureExtractor[] extractors, TimedStroke[] strokes){
         double[][] vals = new double[extractors.length][];
-        int numFeatures=0;
         for(int i=0; i<extractors.length; i++){
             vals[i] = extractors[i].apply(strokes);
-            numFeatures+=vals[i].length;
         }
+        return concatenate(vals);
+    }
 
-        //concatenate the features
+    /**
+     * Concatenate the values from each feature extractor into one
+     * feature set.
+     */
+    private static FeatureSet concatenate(double[][] vals){
+        int numFeatures=0;
+        for(int i=0; i<vals.length; i++){
+            numFeatures+=vals[i].length;
+        }
         double[] res = new double[numFeatures];
         int j=0;
         for(int i=0; i<vals.length; i++){
@@ -6,7 +6,11 @@
  */
 package hhreco.recognition;
 
-import hhreco.toolbox.Util;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import org.ladder.core.config.WorkerPool;
 
 /**
  * Compute Zernike moments of the specified order [1].  This is a
@@ -22,6 +26,11 @@ import hhreco.toolbox.Util;
  * desired, one can call zer_mom directly to obtain these moment
  * values.<p>
  *
+ * The basis functions for each order are worked out once (see
+ * ZernikeMoments.Table) and all the moments of a shape are found in
+ * a single pass over its points.  applyAll() extracts the features
+ * of many shapes in parallel.<p>
+ *
  * [1] 'A. Khotanzad and Y.H. Hong' "Invariant image recognition by
  * Zernike Moments", IEEE trans. on Pattern Analysis and Machine
  * Intelligence, vol.12, no.5, pp.489-487, May 1990.
@@ -100,30 +109,70 @@ public class ZernikeFE implements FeatureExtractor {
      * magnitudes of the moments.
      */
     public static double[] zernikeMoments(TimedStroke[] s, int order) {
-        int nstrokes=s.length;
-        double xvector[][]=new double[nstrokes][];
-        double yvector[][]=new double[nstrokes][];
-        int npoints[]=new int[nstrokes];
-        Util.strokesToArrays(s, xvector, yvector, npoints);
+        return zernikeMoments(s, ZernikeMoments.Table.forOrder(order));
+    }
+
+    /**
+     * Compute the Zernike moments of each shape and return their
+     * magnitudes, in the same order as the shapes.  The shapes are
+     * spread over the shared {@link WorkerPool}.
+     */
+    public double[][] applyAll(TimedStroke[][] shapes) {
+        final ZernikeMoments.Table table = ZernikeMoments.Table.forOrder(_order);
+        final double[][] res = new double[shapes.length][];
+        if(WorkerPool.runInline(shapes.length)){
+            for(int i=0; i<shapes.length; i++){
+                res[i] = zernikeMoments(shapes[i], table);
+            }
+            return res;
+        }
+
+        List<Callable<Object>> tasks = new ArrayList<Callable<Object>>(shapes.length);
+        for(int i=0; i<shapes.length; i++){
+            final int index = i;
+            final TimedStroke[] shape = shapes[i];
+            tasks.add(new Callable<Object>(){
+                public Object call(){
+                    res[index] = zernikeMoments(shape, table);
+                    return null;
+                }
+            });
+        }
+        WorkerPool.invokeAll(tasks);
+        return res;
+    }
+
+    /**
+     * Compute Zernike moments with the given table and return the
+     * magnitudes of the moments, except for m00 and m11.  All the
+     * moments are found in one pass over the points.
+     */
+    private static double[] zernikeMoments(TimedStroke[] s, ZernikeMoments.Table table) {
         int numOrigPoints=0;
-        for(int i=0; i<nstrokes; i++){
-            numOrigPoints+=npoints[i];
+        for(int i=0; i<s.length; i++){
+            numOrigPoints+=s[i].getVertexCount();
         }
+        //pack orignal points into one array
         double[] origx = new double[numOrigPoints];
-        double[] origy = new double[numOrigPoints];        
+        double[] origy = new double[numOrigPoints];
         int origcur=0;
-        for(int i=0; i<nstrokes; i++){
-            //pack orignal points into one array
-            System.arraycopy(xvector[i],0,origx,origcur,npoints[i]);
-            System.arraycopy(yvector[i],0,origy,origcur,npoints[i]);
-            origcur+=npoints[i];
+        for(int i=0; i<s.length; i++){
+            for(int j=0; j<s[i].getVertexCount(); j++){
+                origx[origcur]=s[i].getX(j);
+                origy[origcur]=s[i].getY(j);
+                origcur++;
+            }
         }
-        ZernikeMoments.Complex[] vals = ZernikeMoments.zer_mmts(order, origx, origy, numOrigPoints);
+        double[] box = ZernikeMoments.bounds(origx, origy, numOrigPoints);
+        double[] re = new double[table.getMomentCount()];
+        double[] im = new double[table.getMomentCount()];
+        table.moments(origx, origy, numOrigPoints, box[0], box[1], box[2], box[3], re, im);
         //remove the first two elements, they are m00 and m11
-        double[] mag = new double[vals.length-2];
-        for(int i=0; i<vals.length-2; i++){
-            mag[i]=vals[i+2].getMagnitude();
+        double[] mag = new double[re.length-2];
+        for(int i=0; i<mag.length; i++){
+            mag[i]=Math.sqrt(re[i+2]*re[i+2] + im[i+2]*im[i+2]);
         }
         return mag;
     }
+
 }
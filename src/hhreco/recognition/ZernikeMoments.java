@@ -6,7 +6,8 @@
  */
 package hhreco.recognition;
 
-import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * This class provides a set of methods for computing Zernike moments.
@@ -233,21 +234,13 @@ public class ZernikeMoments {
 	 */
 	public static Complex[] zer_mmts(int order, double[] xvals, double[] yvals,
 	        int npoints, double ww, double hh, double cx, double cy) {
-		ArrayList list = new ArrayList(order);
-		int ct = 0;
-		for (int n = 0; n <= order; n++) {
-			for (int m = 0; m <= n; m++) {
-				if ((n - Math.abs(m)) % 2 == 0) {
-					Complex v = zer_mom(xvals, yvals, npoints, ww, hh, cx, cy,
-					        n, m);
-					list.add(ct, v);
-					ct++;
-				}
-			}
-		}
-		Complex[] mmts = new Complex[ct];
-		for (int i = 0; i < ct; i++) {
-			mmts[i] = (Complex) list.get(i);
+		Table table = Table.forOrder(order);
+		double[] re = new double[table.getMomentCount()];
+		double[] im = new double[table.getMomentCount()];
+		table.moments(xvals, yvals, npoints, ww, hh, cx, cy, re, im);
+		Complex[] mmts = new Complex[re.length];
+		for (int i = 0; i < mmts.length; i++) {
+			mmts[i] = new Complex(re[i], im[i]);
 		}
 		return mmts;
 	}
@@ -255,6 +248,18 @@ public class ZernikeMoments {
 
 	public static Complex[] zer_mmts(int order, double[] xvals, double[] yvals,
 	        int npoints) {
+		double[] box = bounds(xvals, yvals, npoints);
+		return zer_mmts(order, xvals, yvals, npoints, box[0], box[1], box[2],
+		        box[3]);
+	}
+	
+
+	/**
+	 * Return the width, height and center (cx, cy) of the box around the
+	 * points, in that order, the same way zer_mom(double[] xvals, double[]
+	 * yvals, int npoints, int n, int m) finds them.
+	 */
+	static double[] bounds(double[] xvals, double[] yvals, int npoints) {
 		double xmin = Double.MAX_VALUE;
 		double ymin = Double.MAX_VALUE;
 		double xmax = Double.MIN_VALUE;
@@ -269,7 +274,180 @@ public class ZernikeMoments {
 		double hh = ymax - ymin;// height
 		double cx = xmin + ww / 2;
 		double cy = ymin + hh / 2;
-		return zer_mmts(order, xvals, yvals, npoints, ww, hh, cx, cy);
+		return new double[] { ww, hh, cx, cy };
+	}
+	
+	/**
+	 * The Zernike basis functions up to an order, worked out once so that all
+	 * the moments of a shape can be found in a single pass over its points.
+	 * <p>
+	 * Since n-|m| is even, each term of V(n,m,x,y) is a whole power of
+	 * (x*x+y*y) times (x+iy)^m, so the basis needs no powers, square roots,
+	 * angles, sines or cosines. For each point the powers of (x*x+y*y) and of
+	 * (x+iy) are built up by multiplying, and each moment is then a short sum
+	 * over a table of coefficients. The results match zer_mom up to rounding.
+	 */
+	public static class Table {
+		
+		/**
+		 * Tables already built, by order
+		 */
+		private static final Map _tables = new HashMap();
+		
+		/**
+		 * The highest order of moment.
+		 */
+		private final int _order;
+		
+		/**
+		 * Order n of each moment, in the order of zer_mmts.
+		 */
+		private final int[] _n;
+		
+		/**
+		 * Repetition m of each moment, in the order of zer_mmts.
+		 */
+		private final int[] _m;
+		
+		/**
+		 * Coefficient of each power of (x*x+y*y) in the radial part of each
+		 * moment, lowest power first, with (n+1)/pi folded in.
+		 */
+		private final double[][] _coefs;
+		
+		
+		/**
+		 * Build the table of moments up to the specified order.
+		 */
+		public Table(int order) {
+			if (order < 0) {
+				throw new IllegalArgumentException("Table: order=" + order);
+			}
+			_order = order;
+			int ct = 0;
+			for (int n = 0; n <= order; n++) {
+				ct += n / 2 + 1;
+			}
+			_n = new int[ct];
+			_m = new int[ct];
+			_coefs = new double[ct][];
+			
+			int j = 0;
+			for (int n = 0; n <= order; n++) {
+				for (int m = n % 2; m <= n; m += 2) {
+					_n[j] = n;
+					_m[j] = m;
+					// R(n,m) = Sum_s (-1)^s (n-s)! / (s! ((n+m)/2-s)!
+					// ((n-m)/2-s)!) r^(n-2s), and r^(n-2s) = r^m (r^2)^k
+					// with k = (n-m)/2-s
+					int half = (n - m) / 2;
+					_coefs[j] = new double[half + 1];
+					for (int s = 0; s <= half; s++) {
+						double c = factorial(n - s)
+						           / (factorial(s) * factorial((n + m) / 2 - s) * factorial(half - s));
+						if (s % 2 != 0) {
+							c = -c;
+						}
+						_coefs[j][half - s] = c * (n + 1) / Math.PI;
+					}
+					j++;
+				}
+			}
+		}
+		
+
+		/**
+		 * Return the table for the specified order, building it the first
+		 * time it is asked for.
+		 */
+		public static Table forOrder(int order) {
+			synchronized (_tables) {
+				Integer key = new Integer(order);
+				Table table = (Table) _tables.get(key);
+				if (table == null) {
+					table = new Table(order);
+					_tables.put(key, table);
+				}
+				return table;
+			}
+		}
+		
+
+		/** Return the highest order of moment. */
+		public int getOrder() {
+			return _order;
+		}
+		
+
+		/**
+		 * Return the number of moments, (0,0)(1,1)(2,0)(2,2)(3,1)(3,3) and so
+		 * on up to the order.
+		 */
+		public int getMomentCount() {
+			return _n.length;
+		}
+		
+
+		/**
+		 * Compute all the moments A(n,m) of the shape, in the order of
+		 * zer_mmts, putting the real parts in 're' and the imaginary parts
+		 * in 'im'. The arguments are the same as zer_mom.
+		 */
+		public void moments(double[] xvals, double[] yvals, int npoints,
+		        double ww, double hh, double cx, double cy, double[] re,
+		        double[] im) {
+			int count = _n.length;
+			for (int j = 0; j < count; j++) {
+				re[j] = 0;
+				im[j] = 0;
+			}
+			
+			double i_scale = Math.sqrt(2) * (ww / 2);
+			double j_scale = Math.sqrt(2) * (hh / 2);
+			double[] r2pow = new double[_order / 2 + 1];
+			double[] zre = new double[_order + 1];
+			double[] zim = new double[_order + 1];
+			r2pow[0] = 1;
+			zre[0] = 1;
+			
+			for (int i = 0; i < npoints; i++) {
+				double x = (xvals[i] - cx) / i_scale;
+				double y = (yvals[i] - cy) / j_scale;
+				double r2 = x * x + y * y;
+				if (!(r2 <= 1.0)) {
+					// we ignore (x,y) not in the unit circle
+					continue;
+				}
+				for (int k = 1; k < r2pow.length; k++) {
+					r2pow[k] = r2pow[k - 1] * r2;
+				}
+				for (int m = 1; m <= _order; m++) {
+					zre[m] = zre[m - 1] * x - zim[m - 1] * y;
+					zim[m] = zre[m - 1] * y + zim[m - 1] * x;
+				}
+				for (int j = 0; j < count; j++) {
+					double[] c = _coefs[j];
+					double r = 0;
+					for (int k = 0; k < c.length; k++) {
+						r += c[k] * r2pow[k];
+					}
+					re[j] += r * zre[_m[j]];
+					im[j] += r * zim[_m[j]];
+				}
+			}
+		}
+		
+
+		/**
+		 * Return n! as a double, exact for the orders used here.
+		 */
+		private static double factorial(int n) {
+			double f = 1;
+			for (int i = 2; i <= n; i++) {
+				f *= i;
+			}
+			return f;
+		}
 	}
 	
 	/**
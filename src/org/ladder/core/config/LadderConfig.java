@@ -109,6 +109,29 @@ public class LadderConfig {
 	 */
 	public static final String MODEL_CONFIG_DEFAULT_VALUE = "model";
 	
+	/**
+	 * Key for the property that states how many worker threads recognizers
+	 * may use
+	 */
+	public static final String RECOGNITION_THREADS_KEY = "recognitionThreads";
+	
+	/**
+	 * Number of recognition worker threads. 0 means one per available
+	 * processor.
+	 */
+	public static final String RECOGNITION_THREADS_DEFAULT_VALUE = "0";
+	
+	/**
+	 * Key for the property that states whether models should be loaded in the
+	 * background when recognition starts up
+	 */
+	public static final String WARM_UP_MODELS_KEY = "warmUpModels";
+	
+	/**
+	 * Models are loaded when first needed by default
+	 */
+	public static final String WARM_UP_MODELS_DEFAULT_VALUE = "false";
+	
 	/**
 	 * Properties object to hold our properties. Statically initialize this to
 	 * the default properties
@@ -130,6 +153,9 @@ public class LadderConfig {
 		        .setProperty(DOMAIN_DESC_LOC_KEY, DOMAIN_DESC_LOC_DEFAULT_VALUE);
 		defaults.setProperty(SHAPE_DESC_LOC_KEY, SHAPE_DESC_LOC_DEFAULT_VALUE);
 		defaults.setProperty(MODEL_CONFIG_KEY, MODEL_CONFIG_DEFAULT_VALUE);
+		defaults.setProperty(RECOGNITION_THREADS_KEY,
+		        RECOGNITION_THREADS_DEFAULT_VALUE);
+		defaults.setProperty(WARM_UP_MODELS_KEY, WARM_UP_MODELS_DEFAULT_VALUE);
 		
 		m_properties = new Properties(defaults);
 	}
@@ -203,6 +229,44 @@ public class LadderConfig {
 	}
 	
 
+	/**
+	 * Get the number of worker threads recognizers may use, from the
+	 * {@link #RECOGNITION_THREADS_KEY} property. If the property is not a
+	 * positive number, use one thread per available processor.
+	 * 
+	 * @return The number of recognition worker threads, at least 1
+	 */
+	public static int getNumRecognitionThreads() {
+		int numThreads = 0;
+		String prop = getProperty(RECOGNITION_THREADS_KEY);
+		if (prop != null) {
+			try {
+				numThreads = Integer.parseInt(prop.trim());
+			}
+			catch (NumberFormatException e) {
+				System.err.println("Bad value for " + RECOGNITION_THREADS_KEY
+				                   + ": " + prop);
+			}
+		}
+		if (numThreads <= 0) {
+			numThreads = Runtime.getRuntime().availableProcessors();
+		}
+		return numThreads;
+	}
+	
+
+	/**
+	 * Should models be loaded in the background when recognition starts up,
+	 * from the {@link #WARM_UP_MODELS_KEY} property?
+	 * 
+	 * @return True if models should be warmed up
+	 */
+	public static boolean isWarmUpModels() {
+		String prop = getProperty(WARM_UP_MODELS_KEY);
+		return prop != null && Boolean.parseBoolean(prop.trim());
+	}
+	
+
 	/**
 	 * Set the given property into this properties object. If the properties map
 	 * is not initialized, this method initializes it to the defaults and then
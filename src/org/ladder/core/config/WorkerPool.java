@@ -0,0 +1,306 @@
+/**
+ * WorkerPool.java
+ * 
+ * Revision History:<br>
+ * Oct 18, 2026 - File created
+ * 
+ * <p>
+ * 
+ * <pre>
+ * This work is released under the BSD License:
+ * (C) 2008 Sketch Recognition Lab, Texas A&amp;M University (hereafter SRL @ TAMU)
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the Sketch Recognition Lab, Texas A&amp;M University 
+ *       nor the names of its contributors may be used to endorse or promote 
+ *       products derived from this software without specific prior written 
+ *       permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY SRL @ TAMU ``AS IS'' AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL SRL @ TAMU BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ * </pre>
+ */
+package org.ladder.core.config;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The one pool of worker threads that recognizers, trainers and segmenters
+ * hand parallel work to. The pool has {@link LadderConfig#getNumRecognitionThreads()}
+ * threads, created as they are needed and let go when idle.
+ * <p>
+ * Work handed to the pool from one of its own threads is run right away in
+ * that thread. Parallel code calling other parallel code (Paleo inside stroke
+ * grouping, for example) then uses the same N threads instead of N times N,
+ * and a worker can never sit waiting on tasks queued behind it.
+ */
+public class WorkerPool {
+	
+	/**
+	 * How long idle worker threads hang around before going away, in seconds
+	 */
+	private static final long S_WORKER_KEEP_ALIVE = 60;
+	
+	/**
+	 * Numbers the worker threads
+	 */
+	private static final AtomicInteger S_THREAD_COUNTER = new AtomicInteger();
+	
+	/**
+	 * The worker threads, created the first time they are needed
+	 */
+	private static ThreadPoolExecutor S_POOL = null;
+	
+	
+	/**
+	 * Thrown by {@link #invokeAll(List)} when a task throws a checked
+	 * exception. The checked exception is the cause.
+	 */
+	public static class TaskException extends RuntimeException {
+		
+		/**
+		 * Serial ID
+		 */
+		private static final long serialVersionUID = 3871590473126582294L;
+		
+		
+		/**
+		 * @param cause
+		 *            The checked exception a task threw
+		 */
+		public TaskException(Throwable cause) {
+			super(cause);
+		}
+	}
+	
+	
+	/**
+	 * Worker threads are marked with this class so work handed to the pool
+	 * from inside the pool can be spotted
+	 */
+	private static class WorkerThread extends Thread {
+		
+		/**
+		 * @param r
+		 *            What the thread runs
+		 */
+		public WorkerThread(Runnable r) {
+			super(r, "Worker-" + S_THREAD_COUNTER.incrementAndGet());
+			setDaemon(true);
+		}
+	}
+	
+	
+	/**
+	 * Static only
+	 */
+	private WorkerPool() {
+		// Nothing to do
+	}
+	
+
+	/**
+	 * @return The number of worker threads, at least 1
+	 */
+	public static int getNumThreads() {
+		return getPool().getMaximumPoolSize();
+	}
+	
+
+	/**
+	 * @return True if the calling thread is one of the worker threads
+	 */
+	public static boolean isWorkerThread() {
+		return Thread.currentThread() instanceof WorkerThread;
+	}
+	
+
+	/**
+	 * Should this many tasks just be run in the calling thread? They should if
+	 * there is only one, if there is only one worker thread, or if the caller
+	 * is already a worker.
+	 * 
+	 * @param numTasks
+	 *            Number of tasks the caller has
+	 * @return True if the tasks should be run in the calling thread
+	 */
+	public static boolean runInline(int numTasks) {
+		return numTasks <= 1 || isWorkerThread() || getNumThreads() <= 1;
+	}
+	
+
+	/**
+	 * Start a task on the worker threads. If the caller is a worker thread, the
+	 * task is run before this returns.
+	 * 
+	 * @param <T>
+	 *            Type the task returns
+	 * @param task
+	 *            Task to run
+	 * @return The task's future
+	 */
+	public static <T> Future<T> submit(Callable<T> task) {
+		if (isWorkerThread()) {
+			FutureTask<T> future = new FutureTask<T>(task);
+			future.run();
+			return future;
+		}
+		
+		return getPool().submit(task);
+	}
+	
+
+	/**
+	 * Run all the tasks and wait for them to finish, on the worker threads
+	 * unless {@link #runInline(int)} says otherwise. If a task throws, the
+	 * tasks not yet started are cancelled and the exception is rethrown as is
+	 * if it is unchecked, or as a {@link TaskException} if it is checked.
+	 * 
+	 * @param <T>
+	 *            Type the tasks return
+	 * @param tasks
+	 *            Tasks to run
+	 * @return What each task returned, in the same order as the tasks
+	 */
+	public static <T> List<T> invokeAll(List<? extends Callable<T>> tasks) {
+		List<T> results = new ArrayList<T>(tasks.size());
+		
+		if (runInline(tasks.size())) {
+			for (Callable<T> task : tasks) {
+				try {
+					results.add(task.call());
+				}
+				catch (RuntimeException e) {
+					throw e;
+				}
+				catch (Exception e) {
+					throw new TaskException(e);
+				}
+			}
+			return results;
+		}
+		
+		List<Future<T>> futures = new ArrayList<Future<T>>(tasks.size());
+		try {
+			for (Callable<T> task : tasks) {
+				futures.add(getPool().submit(task));
+			}
+			for (Future<T> future : futures) {
+				results.add(getResult(future));
+			}
+		}
+		finally {
+			for (Future<T> future : futures) {
+				future.cancel(false);
+			}
+		}
+		
+		return results;
+	}
+	
+
+	/**
+	 * Wait for a future and get its result, rethrowing what the task threw
+	 * the same way {@link #invokeAll(List)} does
+	 * 
+	 * @param <T>
+	 *            Type the task returns
+	 * @param future
+	 *            Future of the task
+	 * @return What the task returned
+	 */
+	public static <T> T getResult(Future<T> future) {
+		try {
+			return future.get();
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new CancellationException(
+			        "Interrupted while waiting for workers");
+		}
+		catch (ExecutionException e) {
+			throw unwrap(e);
+		}
+	}
+	
+
+	/**
+	 * Get the exception to rethrow for what a task threw
+	 * 
+	 * @param e
+	 *            Exception from a task's future
+	 * @return The task's exception if it is a runtime exception, or a
+	 *         {@link TaskException} around it if it is checked
+	 * @throws Error
+	 *             If the task threw an error
+	 */
+	public static RuntimeException unwrap(ExecutionException e) {
+		Throwable cause = e.getCause();
+		if (cause instanceof RuntimeException) {
+			return (RuntimeException) cause;
+		}
+		if (cause instanceof Error) {
+			throw (Error) cause;
+		}
+		return new TaskException(cause);
+	}
+	
+
+	/**
+	 * The worker threads, sized by
+	 * {@link LadderConfig#getNumRecognitionThreads()}. The size follows the
+	 * configuration if it changes.
+	 * 
+	 * @return The worker threads
+	 */
+	private static synchronized ThreadPoolExecutor getPool() {
+		int numThreads = LadderConfig.getNumRecognitionThreads();
+		
+		if (S_POOL == null) {
+			S_POOL = new ThreadPoolExecutor(numThreads, numThreads,
+			        S_WORKER_KEEP_ALIVE, TimeUnit.SECONDS,
+			        new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+				        
+				        public Thread newThread(Runnable r) {
+					        return new WorkerThread(r);
+				        }
+			        });
+			S_POOL.allowCoreThreadTimeOut(true);
+		}
+		else if (numThreads > S_POOL.getMaximumPoolSize()) {
+			S_POOL.setMaximumPoolSize(numThreads);
+			S_POOL.setCorePoolSize(numThreads);
+		}
+		else if (numThreads < S_POOL.getMaximumPoolSize()) {
+			S_POOL.setCorePoolSize(numThreads);
+			S_POOL.setMaximumPoolSize(numThreads);
+		}
+		
+		return S_POOL;
+	}
+}
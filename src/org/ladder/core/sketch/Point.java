@@ -6,6 +6,7 @@
  * (5/23/08) jbjohns - comments, this() in constructors and reuse of constructor
  * logic, object clone and equals <br>
  * (5/26/08) bpaulson - added setters to point <br>
+ * (10/18/26) - UUIDs are only created when asked for <br>
  * 
  * <p>
  * 
@@ -40,6 +41,8 @@
  */
 package org.ladder.core.sketch;
 
+import java.io.IOException;
+import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.util.HashMap;
 import java.util.Iterator;
@@ -69,9 +72,10 @@ public class Point implements IPoint, Serializable {
 	private long m_time;
 	
 	/**
-	 * Unique ID of the point.
+	 * Unique ID of the point. Created the first time it is asked for, since
+	 * most points never need one and random UUIDs are expensive to make.
 	 */
-	private UUID m_id = UUID.randomUUID();
+	private UUID m_id = null;
 	
 	/**
 	 * Pressure used when point was created.
@@ -167,9 +171,11 @@ public class Point implements IPoint, Serializable {
 		setY(point.getY());
 		setTime(point.getTime());
 		
-		// Copy the ID
+		// Copy the ID. UUIDs are immutable, so the instance can be shared. The
+		// copy gets the ID now, so later changes to the other point's ID do
+		// not reach it.
 		if (point.getID() != null) {
-			setID(UUID.fromString(point.getID().toString()));
+			setID(point.getID());
 		}
 	}
 	
@@ -280,7 +286,16 @@ public class Point implements IPoint, Serializable {
 	 * @return ID of the point.
 	 */
 	public UUID getID() {
-		return m_id;
+		UUID id = m_id;
+		if (id == null) {
+			synchronized (this) {
+				if (m_id == null) {
+					m_id = UUID.randomUUID();
+				}
+				id = m_id;
+			}
+		}
+		return id;
 	}
 	
 
@@ -401,7 +416,7 @@ public class Point implements IPoint, Serializable {
 	 * @param id
 	 *            ID of the point.
 	 */
-	public void setID(UUID id) {
+	public synchronized void setID(UUID id) {
 		m_id = id;
 	}
 	
@@ -556,7 +571,7 @@ public class Point implements IPoint, Serializable {
 			}
 			else {
 				Point p = (Point) obj;
-				ret = m_id.equals(p.getID()) && getX() == p.getX()
+				ret = getID().equals(p.getID()) && getX() == p.getX()
 				      && getY() == p.getY() && getTime() == p.getTime();
 			}
 		}
@@ -602,6 +617,21 @@ public class Point implements IPoint, Serializable {
 	}
 	
 
+	/**
+	 * Make sure the ID exists before the point is written, so the point read
+	 * back has the same ID.
+	 * 
+	 * @param out
+	 *            stream to write to.
+	 * @throws IOException
+	 *             if the point cannot be written.
+	 */
+	private void writeObject(ObjectOutputStream out) throws IOException {
+		getID();
+		out.defaultWriteObject();
+	}
+	
+
 	/*
 	 * (non-Javadoc)
 	 * 
@@ -53,6 +53,7 @@ import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * "Simple" concrete shape, parameterized to hold specific types of
@@ -68,12 +69,13 @@ public class Shape implements IShape, IDrawingAttributes, IBeautifiable {
 	 * of something that uses shapes and relies on the order shapes are
 	 * presented.
 	 */
-	private static int S_COUNTER = 0;
+	private static final AtomicInteger S_COUNTER = new AtomicInteger();
 	
 	/**
-	 * The ID for this given shape.
+	 * The ID for this given shape. Shapes may be created on several threads at
+	 * once (eg. parallel Paleo), so the counter is atomic.
 	 */
-	private int m_counterID = S_COUNTER++;
+	private int m_counterID = S_COUNTER.getAndIncrement();
 	
 	/**
 	 * A List of the IStrokes (generic) in the Shape
@@ -1088,7 +1090,20 @@ public class Shape implements IShape, IDrawingAttributes, IBeautifiable {
 		return this.m_counterID - ((Shape) shape).m_counterID;
 		// return this.getID().compareTo(shape.getID());
 	}
-	
+
+
+	/**
+	 * Give this shape the next counter ID, so it sorts after every shape
+	 * created or renumbered before it. Shapes created on several threads at
+	 * once get their IDs in whatever order the threads run, so callers that
+	 * merge such shapes renumber them in a fixed order to keep later sorting
+	 * repeatable. Do not call this while the shape is held in a sorted
+	 * collection, since its place in the collection would go stale.
+	 */
+	public void renumber() {
+		m_counterID = S_COUNTER.getAndIncrement();
+	}
+
 
 	/*
 	 * (non-Javadoc)
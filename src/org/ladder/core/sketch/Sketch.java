@@ -443,12 +443,22 @@ public class Sketch implements ISketch {
 		
 		ArrayList<IPoint> pointList = new ArrayList<IPoint>();
 		
+		// Equal points always have the same time, so only points with the same
+		// time need to be checked for duplicates
+		Map<Long, List<IPoint>> pointsByTime = new HashMap<Long, List<IPoint>>();
+		
 		for (IStroke s : m_strokes) {
 			List<IPoint> points = s.getPoints();
 			
-			// NOTE: If this is slow, use HashMaps
 			for (IPoint p : points) {
-				if (!pointList.contains(p)) {
+				List<IPoint> sameTime = pointsByTime.get(p.getTime());
+				if (sameTime == null) {
+					sameTime = new ArrayList<IPoint>(1);
+					pointsByTime.put(p.getTime(), sameTime);
+				}
+				
+				if (!sameTime.contains(p)) {
+					sameTime.add(p);
 					pointList.add(p);
 				}
 			}
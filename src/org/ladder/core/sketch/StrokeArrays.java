@@ -0,0 +1,295 @@
+/**
+ * StrokeArrays.java
+ * 
+ * Revision History:<br>
+ * Oct 18, 2026 - File created
+ * 
+ * <p>
+ * 
+ * <pre>
+ * This work is released under the BSD License:
+ * (C) 2008 Sketch Recognition Lab, Texas A&amp;M University (hereafter SRL @ TAMU)
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the Sketch Recognition Lab, Texas A&amp;M University 
+ *       nor the names of its contributors may be used to endorse or promote 
+ *       products derived from this software without specific prior written 
+ *       permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY SRL @ TAMU ``AS IS'' AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL SRL @ TAMU BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ * </pre>
+ */
+package org.ladder.core.sketch;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A compact, read-only view of the points of a stroke as parallel arrays of x,
+ * y, and time values, with optional pressure. Feature computations can walk
+ * these arrays directly instead of going through a list of point objects.
+ * <p>
+ * The arrays are shared, not copied, so callers must not modify them.
+ * 
+ * @see StrokeArrays#StrokeArrays(IStroke)
+ */
+public class StrokeArrays {
+	
+	/**
+	 * X values of the points
+	 */
+	private double[] m_x;
+	
+	/**
+	 * Y values of the points
+	 */
+	private double[] m_y;
+	
+	/**
+	 * Time values of the points
+	 */
+	private long[] m_time;
+	
+	/**
+	 * Pressure values of the points, null if not every point has a pressure
+	 */
+	private double[] m_pressure;
+	
+	
+	/**
+	 * Copy the values out of the points of the given stroke.
+	 * 
+	 * @param stroke
+	 *            stroke to read.
+	 */
+	public StrokeArrays(IStroke stroke) {
+		this(stroke.getPoints());
+	}
+	
+
+	/**
+	 * Copy the values out of the given points. Pressure values are kept only if
+	 * every point is a {@link Point} with a pressure.
+	 * 
+	 * @param points
+	 *            points to read.
+	 */
+	public StrokeArrays(List<IPoint> points) {
+		int n = points.size();
+		m_x = new double[n];
+		m_y = new double[n];
+		m_time = new long[n];
+		m_pressure = new double[n];
+		
+		for (int i = 0; i < n; i++) {
+			IPoint p = points.get(i);
+			m_x[i] = p.getX();
+			m_y[i] = p.getY();
+			m_time[i] = p.getTime();
+			
+			if (m_pressure != null) {
+				Double pressure = (p instanceof Point) ? ((Point) p)
+				        .getPressure() : null;
+				if (pressure != null) {
+					m_pressure[i] = pressure.doubleValue();
+				}
+				else {
+					m_pressure = null;
+				}
+			}
+		}
+	}
+	
+
+	/**
+	 * Wrap the given arrays, which must all have the same length.
+	 * 
+	 * @param x
+	 *            x values.
+	 * @param y
+	 *            y values.
+	 * @param time
+	 *            time values.
+	 * @param pressure
+	 *            pressure values, may be null.
+	 */
+	public StrokeArrays(double[] x, double[] y, long[] time, double[] pressure) {
+		if (x.length != y.length || x.length != time.length
+		    || (pressure != null && pressure.length != x.length)) {
+			throw new IllegalArgumentException(
+			        "All arrays must have the same length");
+		}
+		m_x = x;
+		m_y = y;
+		m_time = time;
+		m_pressure = pressure;
+	}
+	
+
+	/**
+	 * Get the number of points
+	 * 
+	 * @return number of points.
+	 */
+	public int size() {
+		return m_x.length;
+	}
+	
+
+	/**
+	 * Get the x values. Do not modify the array.
+	 * 
+	 * @return x values of the points.
+	 */
+	public double[] getX() {
+		return m_x;
+	}
+	
+
+	/**
+	 * Get the y values. Do not modify the array.
+	 * 
+	 * @return y values of the points.
+	 */
+	public double[] getY() {
+		return m_y;
+	}
+	
+
+	/**
+	 * Get the time values. Do not modify the array.
+	 * 
+	 * @return time values of the points.
+	 */
+	public long[] getTime() {
+		return m_time;
+	}
+	
+
+	/**
+	 * Get the pressure values. Do not modify the array.
+	 * 
+	 * @return pressure values of the points, or null if there are none.
+	 */
+	public double[] getPressure() {
+		return m_pressure;
+	}
+	
+
+	/**
+	 * Check whether the points have pressure values
+	 * 
+	 * @return true if {@link #getPressure()} is not null.
+	 */
+	public boolean hasPressure() {
+		return m_pressure != null;
+	}
+	
+
+	/**
+	 * Get the distance between two of the points
+	 * 
+	 * @param i
+	 *            index of the first point.
+	 * @param j
+	 *            index of the second point.
+	 * @return Euclidean distance between the points.
+	 */
+	public double distance(int i, int j) {
+		double dx = m_x[i] - m_x[j];
+		double dy = m_y[i] - m_y[j];
+		return Math.sqrt(dx * dx + dy * dy);
+	}
+	
+
+	/**
+	 * Get the distance from one of the points to the given location. This is
+	 * the same as {@link Point#distance(double, double)} on that point.
+	 * 
+	 * @param i
+	 *            index of the point.
+	 * @param x
+	 *            x value of the location.
+	 * @param y
+	 *            y value of the location.
+	 * @return Euclidean distance between the point and the location.
+	 */
+	public double distance(int i, double x, double y) {
+		return Math.sqrt((x - m_x[i]) * (x - m_x[i]) + (y - m_y[i])
+		                 * (y - m_y[i]));
+	}
+	
+
+	/**
+	 * Get a view of the points at the given indices, in the given order.
+	 * 
+	 * @param indices
+	 *            indices of the points to keep.
+	 * @return a new view holding only those points.
+	 */
+	public StrokeArrays select(int[] indices) {
+		double[] x = new double[indices.length];
+		double[] y = new double[indices.length];
+		long[] time = new long[indices.length];
+		double[] pressure = (m_pressure != null) ? new double[indices.length]
+		        : null;
+		
+		for (int i = 0; i < indices.length; i++) {
+			x[i] = m_x[indices[i]];
+			y[i] = m_y[indices[i]];
+			time[i] = m_time[indices[i]];
+			if (pressure != null) {
+				pressure[i] = m_pressure[indices[i]];
+			}
+		}
+		
+		return new StrokeArrays(x, y, time, pressure);
+	}
+	
+
+	/**
+	 * Build a new point for the value at the given index. The point gets its
+	 * own ID; it is not one of the points the view was made from.
+	 * 
+	 * @param i
+	 *            index of the point.
+	 * @return a new point.
+	 */
+	public IPoint getPoint(int i) {
+		Point p = new Point(m_x[i], m_y[i], m_time[i]);
+		if (m_pressure != null) {
+			p.setPressure(m_pressure[i]);
+		}
+		return p;
+	}
+	
+
+	/**
+	 * Build new points for all the values
+	 * 
+	 * @return a list of new points.
+	 * @see #getPoint(int)
+	 */
+	public List<IPoint> toPoints() {
+		List<IPoint> points = new ArrayList<IPoint>(size());
+		for (int i = 0; i < size(); i++) {
+			points.add(getPoint(i));
+		}
+		return points;
+	}
+}
@@ -36,19 +36,22 @@
  */
 package org.ladder.io;
 
+import java.io.BufferedInputStream;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 
 import org.ladder.core.sketch.ISketch;
 import org.ladder.io.dg.DOMInputDG;
-import org.ladder.io.srl.DOMInputSRL;
+import org.ladder.io.srl.StreamInputSRL;
 import org.ladder.io.xaml.DOMInputXAML;
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
 import org.xml.sax.SAXException;
 
 /**
@@ -61,11 +64,6 @@ import org.xml.sax.SAXException;
  */
 public class DOMInput implements IInput {
 
-	/**
-	 * DOM document
-	 */
-	private Document m_dom;
-
 	/**
 	 * ISketch from the XML
 	 */
@@ -100,7 +98,7 @@ public class DOMInput implements IInput {
 		// Switch the type of parser to use
 		switch (fileType) {
 		case SRL:
-			DOMInputSRL inputFull = new DOMInputSRL();
+			StreamInputSRL inputFull = new StreamInputSRL();
 			m_sketch = inputFull.parseDocument(file);
 			break;
 
@@ -139,34 +137,55 @@ public class DOMInput implements IInput {
 			return SketchFileType.XAML;
 		}
 
-		DocumentBuilderFactory dbf = DocumentBuilderFactory.newInstance();
+		String rootName;
+		String type;
+		String uuid;
 
-		// Using factory get an instance of document builder
-		DocumentBuilder db = dbf.newDocumentBuilder();
-
-		// Parse using builder to get DOM representation of the XML file
-		m_dom = db.parse(file);
-
-		// Get the root (sketch) element
-		Element sketchRoot = m_dom.getDocumentElement();
+		// Only the root (sketch) element is needed, so stop reading the file
+		// once we have it
+		InputStream in = new BufferedInputStream(new FileInputStream(file));
+		try {
+			XMLInputFactory factory = XMLInputFactory.newInstance();
+			factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE,
+					Boolean.FALSE);
+			XMLStreamReader reader = factory.createXMLStreamReader(file
+					.toURI().toString(), in);
+
+			try {
+				while (reader.next() != XMLStreamConstants.START_ELEMENT) {
+					// Skip the prolog
+				}
+
+				rootName = reader.getLocalName();
+				type = reader.getAttributeValue(null, "type");
+				uuid = reader.getAttributeValue(null, "id");
+			}
+			finally {
+				reader.close();
+			}
+		}
+		catch (XMLStreamException e) {
+			throw new SAXException(e);
+		}
+		finally {
+			in.close();
+		}
 
 		SketchFileType fileType;
 
 		// TODO - integrate this better. This is for DG files
-		if (sketchRoot.getNodeName().equals("urn:Stroke")) {
+		if (rootName.equals("urn:Stroke")) {
 			return SketchFileType.DG;
 		}
 
 		// Get the file type in the sketch
 		try {
-			fileType = SketchFileType.valueOf(sketchRoot.getAttribute("type"));
+			fileType = SketchFileType.valueOf(type == null ? "" : type);
 		} catch (IllegalArgumentException iae) {
 
 			// If the document is in an older format and does not have the type
 			// stored
-			String uuid = sketchRoot.getAttribute("id");
-
-			if (uuid.equals("")) {
+			if (uuid == null || uuid.equals("")) {
 				fileType = null;
 			} else {
 				fileType = SketchFileType.SRL;
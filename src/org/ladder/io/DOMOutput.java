@@ -44,7 +44,7 @@ import javax.xml.parsers.ParserConfigurationException;
 
 import org.ladder.core.sketch.ISketch;
 import org.ladder.core.sketch.Sketch;
-import org.ladder.io.srl.DOMOutputSRL;
+import org.ladder.io.srl.StreamOutputSRL;
 
 /**
  * Output a sketch to an XML file. This file outputs the sketch in a known
@@ -106,7 +106,7 @@ public class DOMOutput implements IOutput {
 		// Output the files
 		switch (outputFileType) {
 			case SRL:
-				DOMOutputSRL outputFull = new DOMOutputSRL();
+				StreamOutputSRL outputFull = new StreamOutputSRL();
 				outputFull.toFile(sketch, file);
 				break;
 			
@@ -0,0 +1,738 @@
+/**
+ * StreamInputSRL.java
+ * 
+ * Revision History:<br>
+ * Oct 18, 2026 - File created
+ * 
+ * <p>
+ * 
+ * <pre>
+ * This work is released under the BSD License:
+ * (C) 2008 Sketch Recognition Lab, Texas A&amp;M University (hereafter SRL @ TAMU)
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the Sketch Recognition Lab, Texas A&amp;M University 
+ *       nor the names of its contributors may be used to endorse or promote 
+ *       products derived from this software without specific prior written 
+ *       permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY SRL @ TAMU ``AS IS'' AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL SRL @ TAMU BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ * </pre>
+ */
+
+package org.ladder.io.srl;
+
+import java.awt.Color;
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.ladder.core.sketch.Alias;
+import org.ladder.core.sketch.Author;
+import org.ladder.core.sketch.IPoint;
+import org.ladder.core.sketch.ISegmentation;
+import org.ladder.core.sketch.IShape;
+import org.ladder.core.sketch.IStroke;
+import org.ladder.core.sketch.Pen;
+import org.ladder.core.sketch.Point;
+import org.ladder.core.sketch.Segmentation;
+import org.ladder.core.sketch.Shape;
+import org.ladder.core.sketch.Sketch;
+import org.ladder.core.sketch.Speech;
+import org.ladder.core.sketch.Stroke;
+import org.ladder.io.IInput;
+import org.xml.sax.SAXException;
+
+/**
+ * Reads a sketch in SRL format in a single pass over the file, building the
+ * points, strokes, segmentations and shapes as their elements are read
+ * instead of loading the whole document into a DOM first. Elements are
+ * interpreted the same way {@link DOMInputSRL} interprets them.
+ * <p>
+ * Since there is only one pass, an element can only refer to elements that
+ * come before it in the file, which is the order {@link DOMOutputSRL} and
+ * {@link StreamOutputSRL} write them in: authors, pens, speech, points,
+ * strokes, segmentations, then shapes. Shapes may still refer to subshapes
+ * further down.
+ */
+public class StreamInputSRL implements IInput {
+
+	/**
+	 * Sketch object to add input data to
+	 */
+	private Sketch m_sketch;
+
+	/**
+	 * Map from an author's ID string to the author object
+	 */
+	private Map<String, Author> m_authorMap;
+
+	/**
+	 * Map from a pen's ID string to the pen object
+	 */
+	private Map<String, Pen> m_penMap;
+
+	/**
+	 * Map from a point ID string to the point object
+	 */
+	private Map<String, Point> m_pointMap;
+
+	/**
+	 * Map from a stroke's ID string to the stroke object
+	 */
+	private Map<String, Stroke> m_strokeMap;
+
+	/**
+	 * Map from a segmentation's ID string to the segmentation object
+	 */
+	private Map<String, Segmentation> m_segMap;
+
+	/**
+	 * Map from an shape's ID string to the shape object
+	 */
+	private Map<String, Shape> m_shapeMap;
+
+	/**
+	 * Empty Constructor
+	 */
+	public StreamInputSRL() {
+		// Do nothing
+	}
+
+	/**
+	 * Takes in an XML file and parses the file into a Sketch object
+	 * 
+	 * @param file
+	 *            Input file to parse
+	 * @return Sketch created from the input file
+	 * @throws ParserConfigurationException
+	 * @throws SAXException
+	 *             if the file is not well formed XML
+	 * @throws IOException
+	 */
+	public Sketch parseDocument(File file) throws ParserConfigurationException,
+			SAXException, IOException {
+
+		m_sketch = null;
+		m_authorMap = new HashMap<String, Author>();
+		m_penMap = new HashMap<String, Pen>();
+		m_pointMap = new HashMap<String, Point>();
+		m_strokeMap = new HashMap<String, Stroke>();
+		m_segMap = new HashMap<String, Segmentation>();
+		m_shapeMap = new HashMap<String, Shape>();
+
+		InputStream in = new BufferedInputStream(new FileInputStream(file));
+		try {
+			XMLStreamReader reader = createReader(file, in);
+			try {
+				parseSketch(file, reader);
+			}
+			finally {
+				reader.close();
+			}
+		}
+		catch (XMLStreamException e) {
+			throw new SAXException(e);
+		}
+		finally {
+			in.close();
+
+			// The maps are only needed while reading
+			m_authorMap = null;
+			m_penMap = null;
+			m_pointMap = null;
+			m_strokeMap = null;
+			m_segMap = null;
+			m_shapeMap = null;
+		}
+
+		return m_sketch;
+	}
+
+	/**
+	 * Create a stream reader over the given input. Namespace processing is
+	 * turned off so element and attribute names are read as they are written,
+	 * as they are by the DOM parsers.
+	 * 
+	 * @param file
+	 *            File the input comes from
+	 * @param in
+	 *            Input to read
+	 * @return Stream reader over the input
+	 * @throws XMLStreamException
+	 */
+	private XMLStreamReader createReader(File file, InputStream in)
+			throws XMLStreamException {
+
+		XMLInputFactory factory = XMLInputFactory.newInstance();
+		factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, Boolean.FALSE);
+
+		return factory.createXMLStreamReader(file.toURI().toString(), in);
+	}
+
+	/**
+	 * Read the document, starting with the sketch root element. The first
+	 * speech element is the only one used.
+	 * 
+	 * @param file
+	 *            File we're parsing
+	 * @param reader
+	 *            Reader over the file
+	 */
+	private void parseSketch(File file, XMLStreamReader reader)
+			throws XMLStreamException {
+
+		boolean haveSpeech = false;
+
+		while (reader.hasNext()) {
+			if (reader.next() != XMLStreamConstants.START_ELEMENT) {
+				continue;
+			}
+
+			String name = reader.getLocalName();
+
+			if (m_sketch == null) {
+				parseSketchElement(reader);
+			}
+			else if (name.equals("author")) {
+				parseAuthorElement(reader);
+			}
+			else if (name.equals("pen")) {
+				parsePenElement(reader);
+			}
+			else if (name.equals("speech")) {
+				if (!haveSpeech) {
+					parseSpeechElement(reader, file);
+					haveSpeech = true;
+				}
+			}
+			else if (name.equals("point")) {
+				parsePointElement(reader);
+			}
+			else if (name.equals("stroke")) {
+				parseStrokeElement(reader);
+			}
+			else if (name.equals("segmentation")) {
+				parseSegmentationElement(reader);
+			}
+			else if (name.equals("shape")) {
+				parseShapeElement(reader);
+			}
+		}
+	}
+
+	/**
+	 * Parse the sketch root element. Creates a new sketch member element for
+	 * this class and sets the attributes from those found in the input file.
+	 * 
+	 * @param reader
+	 *            Reader positioned at the start of the sketch element
+	 */
+	private void parseSketchElement(XMLStreamReader reader) {
+
+		m_sketch = new Sketch();
+
+		for (int i = 0; i < reader.getAttributeCount(); i++) {
+			String name = getAttributeName(reader, i);
+			String value = reader.getAttributeValue(i);
+
+			if (name.equals("id")) {
+				m_sketch.setID(UUID.fromString(value));
+			}
+			else if (name.equals("study")) {
+				m_sketch.setStudy(value);
+			}
+			else if (name.equals("domain")) {
+				m_sketch.setDomain(value);
+			}
+			else if (name.equals("units")) {
+				m_sketch.setUnits(Enum.valueOf(Sketch.SpaceUnits.class, value));
+			}
+			else if (name.equals("type")) {
+				// Do nothing; we don't need to store the type here since we
+				// check for the sketch type in DOMInput
+			}
+			else {
+				m_sketch.setAttribute(name, value);
+			}
+		}
+	}
+
+	/**
+	 * Parse an individual author element. Adds the authors to the main sketch
+	 * object as well as a global map from author IDs to author objects.
+	 * 
+	 * @param reader
+	 *            Reader positioned at the start of an author element
+	 */
+	private void parseAuthorElement(XMLStreamReader reader) {
+
+		Author author = new Author();
+
+		author.setID(UUID.fromString(getAttribute(reader, "id")));
+		String x = getAttribute(reader, "dpi_x");
+		if (!x.isEmpty())
+			author.setDpiX(Double.valueOf(x));
+		String y = getAttribute(reader, "dpi_y");
+		if (!y.isEmpty())
+			author.setDpiY(Double.valueOf(y));
+		String desc = getAttribute(reader, "desc");
+		if (!desc.isEmpty())
+			author.setDescription(desc);
+
+		m_authorMap.put(author.getID().toString(), author);
+		m_sketch.addAuthor(author);
+	}
+
+	/**
+	 * Parse an individual pen element. Adds the pens to the main sketch object
+	 * as well as a global map from pen IDs to pen objects.
+	 * 
+	 * @param reader
+	 *            Reader positioned at the start of a pen element
+	 */
+	private void parsePenElement(XMLStreamReader reader) {
+
+		Pen pen = new Pen();
+
+		pen.setID(UUID.fromString(getAttribute(reader, "id")));
+		pen.setPenID(getAttribute(reader, "penID"));
+		pen.setBrand(getAttribute(reader, "brand"));
+		pen.setDescription(getAttribute(reader, "desc"));
+
+		m_penMap.put(pen.getID().toString(), pen);
+		m_sketch.addPen(pen);
+	}
+
+	/**
+	 * Parse an individual speech element. Adds the speech element to the
+	 * sketch.
+	 * 
+	 * @param reader
+	 *            Reader positioned at the start of a speech element
+	 * @param file
+	 *            File we're parsing
+	 */
+	private void parseSpeechElement(XMLStreamReader reader, File file) {
+
+		Speech s = new Speech();
+		s.setID(UUID.fromString(getAttribute(reader, "id")));
+		s.setDescription(getAttribute(reader, "desc"));
+
+		String path = getAttribute(reader, "path");
+		if (new File(path).exists()) {
+			s.setPath(path);
+		}
+		else if (new File(file.getParent() + "\\" + path).exists()) {
+			s.setPath(file.getParent() + "\\" + path);
+		}
+
+		// Times of 0 are not written out
+		String startTime = getAttribute(reader, "startTime");
+		if (!startTime.isEmpty()) {
+			s.setStartTime(Long.valueOf(startTime).longValue());
+		}
+		String stopTime = getAttribute(reader, "stopTime");
+		if (!stopTime.isEmpty()) {
+			s.setStopTime(Long.valueOf(stopTime).longValue());
+		}
+
+		m_sketch.setSpeech(s);
+	}
+
+	/**
+	 * Parse an individual point element into the map from point IDs to point
+	 * objects. Points are only added to the sketch through the strokes and
+	 * aliases that refer to them.
+	 * 
+	 * @param reader
+	 *            Reader positioned at the start of a point element
+	 */
+	private void parsePointElement(XMLStreamReader reader) {
+
+		double x = 0;
+		double y = 0;
+		long time = 0;
+		double pressure = 0;
+		double tiltX = 0;
+		double tiltY = 0;
+		UUID id = null;
+		Map<String, String> ptAttributes = null;
+
+		for (int i = 0; i < reader.getAttributeCount(); i++) {
+			String name = getAttributeName(reader, i);
+			String value = reader.getAttributeValue(i);
+
+			if (name.equals("id")) {
+				id = UUID.fromString(value);
+			}
+			else if (name.equals("x")) {
+				x = Double.valueOf(value);
+			}
+			else if (name.equals("y")) {
+				y = Double.valueOf(value);
+			}
+			else if (name.equals("time")) {
+				time = Long.valueOf(value);
+			}
+			else if (name.equals("pressure")) {
+				pressure = Double.valueOf(value);
+			}
+			else if (name.equals("tilt_x")) {
+				tiltX = Double.valueOf(value);
+			}
+			else if (name.equals("tilt_y")) {
+				tiltY = Double.valueOf(value);
+			}
+			else {
+				if (ptAttributes == null) {
+					ptAttributes = new HashMap<String, String>();
+				}
+				ptAttributes.put(name, value);
+			}
+		}
+
+		Point point = new Point(x, y, time);
+		point.setID(id);
+		point.setPressure(pressure);
+		point.setTiltX(tiltX);
+		point.setTiltY(tiltY);
+
+		if (ptAttributes != null) {
+			for (String key : ptAttributes.keySet()) {
+				point.setAttribute(key, ptAttributes.get(key));
+			}
+		}
+
+		m_pointMap.put(point.getID().toString(), point);
+	}
+
+	/**
+	 * Parse an individual stroke element and its point and segmentation
+	 * arguments. Adds the stroke to the main sketch object and to the map
+	 * from stroke IDs to stroke objects.
+	 * 
+	 * @param reader
+	 *            Reader positioned at the start of a stroke element
+	 */
+	private void parseStrokeElement(XMLStreamReader reader)
+			throws XMLStreamException {
+
+		String id = getAttribute(reader, "id");
+		Stroke stroke = new Stroke();
+		m_strokeMap.put(id, stroke);
+
+		for (int i = 0; i < reader.getAttributeCount(); i++) {
+			String name = getAttributeName(reader, i);
+			String value = reader.getAttributeValue(i);
+
+			if (name.equals("id")) {
+				stroke.setID(UUID.fromString(id));
+			}
+			else if (name.equals("label")) {
+				stroke.setLabel(value);
+			}
+			else if (name.equals("parent")) {
+				stroke.setParent(m_strokeMap.get(value));
+			}
+			else if (name.equals("author")) {
+				stroke.setAuthor(m_authorMap.get(value));
+			}
+			else if (name.equals("pen")) {
+				stroke.setPen(m_penMap.get(value));
+			}
+			else if (name.equals("color")) {
+				stroke.setColor(new Color(Integer.valueOf(value)));
+			}
+			else if (name.equals("visible")) {
+				stroke.setVisible(Boolean.parseBoolean(value));
+			}
+			else {
+				stroke.setAttribute(name, value);
+			}
+		}
+
+		List<IPoint> strokePoints = new ArrayList<IPoint>();
+		List<ISegmentation> strokeSegmentations = new ArrayList<ISegmentation>();
+
+		while (nextArg(reader)) {
+			String type = getAttribute(reader, "type");
+			String argID = reader.getElementText();
+
+			if (type.equals("point")) {
+				Point pt = m_pointMap.get(argID);
+				if (pt != null) {
+					strokePoints.add(pt);
+				}
+			}
+			else if (type.equals("segmentation")) {
+				strokeSegmentations.add(getSegmentation(argID));
+			}
+		}
+
+		stroke.setPoints(strokePoints);
+		stroke.setSegmentations(strokeSegmentations);
+
+		m_sketch.addStroke(stroke);
+	}
+
+	/**
+	 * Parse an individual segmentation element and its stroke arguments.
+	 * 
+	 * @param reader
+	 *            Reader positioned at the start of a segmentation element
+	 */
+	private void parseSegmentationElement(XMLStreamReader reader)
+			throws XMLStreamException {
+
+		Segmentation seg = getSegmentation(getAttribute(reader, "id"));
+
+		for (int i = 0; i < reader.getAttributeCount(); i++) {
+			String name = getAttributeName(reader, i);
+			String value = reader.getAttributeValue(i);
+
+			if (name.equals("id")) {
+				// Should already be set
+			}
+			else if (name.equals("label")) {
+				seg.setLabel(value);
+			}
+			else if (name.equals("confidence")) {
+				seg.setConfidence(Double.parseDouble(value));
+			}
+			else if (name.equals("segmenterName")) {
+				seg.setSegmenterName(value);
+			}
+			else {
+				seg.setAttribute(name, value);
+			}
+		}
+
+		List<IStroke> segStrokes = new ArrayList<IStroke>();
+
+		while (nextArg(reader)) {
+			String type = getAttribute(reader, "type");
+			String argID = reader.getElementText();
+
+			if (type.equals("stroke")) {
+				segStrokes.add(m_strokeMap.get(argID));
+			}
+		}
+
+		seg.setSegmentedStrokes(segStrokes);
+	}
+
+	/**
+	 * Parse an individual shape element and its stroke, subshape and alias
+	 * arguments. Adds the shape to the main sketch object.
+	 * 
+	 * @param reader
+	 *            Reader positioned at the start of a shape element
+	 */
+	private void parseShapeElement(XMLStreamReader reader)
+			throws XMLStreamException {
+
+		Shape shape = getShape(getAttribute(reader, "id"));
+
+		for (int i = 0; i < reader.getAttributeCount(); i++) {
+			String name = getAttributeName(reader, i);
+			String value = reader.getAttributeValue(i);
+
+			if (name.equals("id")) {
+				// Should already be set
+			}
+			else if (name.equals("label")) {
+				shape.setLabel(value);
+			}
+			else if (name.equals("description")) {
+				shape.setDescription(value);
+			}
+			else if (name.equals("confidence")) {
+				shape.setConfidence(Double.parseDouble(value));
+			}
+			else if (name.equals("recognizer")) {
+				shape.setRecognizer(value);
+			}
+			else if (name.equals("orientation")) {
+				shape.setOrientation(Double.parseDouble(value));
+			}
+			else if (name.equals("color")) {
+				shape.setColor(new Color(Integer.valueOf(value)));
+			}
+			else if (name.equals("visible")) {
+				shape.setVisible(Boolean.parseBoolean(value));
+			}
+			else {
+				shape.setAttribute(name, value);
+			}
+		}
+
+		List<IStroke> shapeStrokes = new ArrayList<IStroke>();
+		List<IShape> shapeSubShapes = new ArrayList<IShape>();
+
+		while (nextArg(reader)) {
+			String type = getAttribute(reader, "type");
+			String alias = getAttribute(reader, "alias");
+			String argID = reader.getElementText();
+
+			if (!type.isEmpty()) {
+				if (type.equals("stroke")) {
+					shapeStrokes.add(m_strokeMap.get(argID));
+				}
+				else if (type.equals("shape")) {
+					shapeSubShapes.add(getShape(argID));
+				}
+			}
+			else if (!alias.isEmpty()) {
+				shape.addAlias(new Alias(alias, m_pointMap.get(argID)));
+			}
+		}
+
+		shape.setStrokes(shapeStrokes);
+		shape.setSubShapes(shapeSubShapes);
+
+		m_sketch.addShape(shape);
+	}
+
+	/**
+	 * Get the segmentation with the given ID, creating it if it has not been
+	 * seen yet
+	 * 
+	 * @param id
+	 *            ID of the segmentation
+	 * @return Segmentation with the ID
+	 */
+	private Segmentation getSegmentation(String id) {
+
+		Segmentation seg = m_segMap.get(id);
+
+		if (seg == null) {
+			seg = new Segmentation();
+			seg.setID(UUID.fromString(id));
+			m_segMap.put(id, seg);
+		}
+
+		return seg;
+	}
+
+	/**
+	 * Get the shape with the given ID, creating it if it has not been seen yet
+	 * 
+	 * @param id
+	 *            ID of the shape
+	 * @return Shape with the ID
+	 */
+	private Shape getShape(String id) {
+
+		Shape shape = m_shapeMap.get(id);
+
+		if (shape == null) {
+			shape = new Shape();
+			shape.setID(UUID.fromString(id));
+			m_shapeMap.put(id, shape);
+		}
+
+		return shape;
+	}
+
+	/**
+	 * Move to the next arg element inside the current element, at any depth.
+	 * 
+	 * @param reader
+	 *            Reader inside the element whose arguments are being read
+	 * @return True if the reader is at the start of an arg element, false if
+	 *         it has reached the end of the element
+	 * @throws XMLStreamException
+	 */
+	private boolean nextArg(XMLStreamReader reader) throws XMLStreamException {
+
+		int depth = 0;
+
+		while (reader.hasNext()) {
+			int event = reader.next();
+
+			if (event == XMLStreamConstants.START_ELEMENT) {
+				if (reader.getLocalName().equals("arg")) {
+					return true;
+				}
+				depth++;
+			}
+			else if (event == XMLStreamConstants.END_ELEMENT) {
+				if (depth == 0) {
+					return false;
+				}
+				depth--;
+			}
+		}
+
+		return false;
+	}
+
+	/**
+	 * Get the value of an attribute of the current element, or the empty
+	 * string if it is not there, like
+	 * {@link org.w3c.dom.Element#getAttribute(String)}
+	 * 
+	 * @param reader
+	 *            Reader positioned at the start of an element
+	 * @param name
+	 *            Name of the attribute
+	 * @return Value of the attribute
+	 */
+	private String getAttribute(XMLStreamReader reader, String name) {
+
+		String value = reader.getAttributeValue(null, name);
+
+		return value == null ? "" : value;
+	}
+
+	/**
+	 * Get the name of an attribute of the current element as it is written,
+	 * including any prefix
+	 * 
+	 * @param reader
+	 *            Reader positioned at the start of an element
+	 * @param index
+	 *            Index of the attribute
+	 * @return Name of the attribute
+	 */
+	private String getAttributeName(XMLStreamReader reader, int index) {
+
+		String prefix = reader.getAttributePrefix(index);
+		String name = reader.getAttributeLocalName(index);
+
+		if (prefix != null && !prefix.isEmpty()) {
+			return prefix + ":" + name;
+		}
+
+		return name;
+	}
+}
@@ -0,0 +1,586 @@
+/**
+ * StreamOutputSRL.java
+ * 
+ * Revision History:<br>
+ * Oct 18, 2026 - File created
+ * 
+ * <p>
+ * 
+ * <pre>
+ * This work is released under the BSD License:
+ * (C) 2008 Sketch Recognition Lab, Texas A&amp;M University (hereafter SRL @ TAMU)
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the Sketch Recognition Lab, Texas A&amp;M University 
+ *       nor the names of its contributors may be used to endorse or promote 
+ *       products derived from this software without specific prior written 
+ *       permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY SRL @ TAMU ``AS IS'' AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL SRL @ TAMU BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ * </pre>
+ */
+
+package org.ladder.io.srl;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.UUID;
+
+import javax.xml.parsers.ParserConfigurationException;
+
+import org.apache.xml.serialize.Method;
+import org.apache.xml.serialize.OutputFormat;
+import org.apache.xml.serialize.XMLSerializer;
+import org.ladder.core.sketch.Author;
+import org.ladder.core.sketch.IAlias;
+import org.ladder.core.sketch.IPoint;
+import org.ladder.core.sketch.ISegmentation;
+import org.ladder.core.sketch.IShape;
+import org.ladder.core.sketch.ISketch;
+import org.ladder.core.sketch.IStroke;
+import org.ladder.core.sketch.Pen;
+import org.ladder.core.sketch.Point;
+import org.ladder.core.sketch.Segmentation;
+import org.ladder.core.sketch.Shape;
+import org.ladder.core.sketch.Sketch;
+import org.ladder.core.sketch.Speech;
+import org.ladder.core.sketch.Stroke;
+import org.ladder.io.IOutput;
+import org.xml.sax.SAXException;
+import org.xml.sax.helpers.AttributesImpl;
+
+/**
+ * Writes a sketch in SRL format one element at a time, without building a DOM
+ * of the whole sketch first. The elements are handed to the same Xerces
+ * serializer {@link DOMOutputSRL} uses, with their attributes in the order a
+ * DOM would keep them, so the file written is byte for byte the same as the
+ * one {@link DOMOutputSRL} writes for the same sketch.
+ */
+@SuppressWarnings("deprecation")
+public class StreamOutputSRL implements IOutput {
+
+	/**
+	 * Contains the sketch information to output
+	 */
+	private Sketch m_sketch;
+
+	/**
+	 * Serializer the elements are written to
+	 */
+	private XMLSerializer m_serializer;
+
+	/**
+	 * Constructor
+	 */
+	public StreamOutputSRL() {
+		// Nothing to do
+	}
+
+	/**
+	 * Write the sketch to the given file name.
+	 * 
+	 * @see #toFile(Sketch, File)
+	 * 
+	 * @param sketch
+	 *            Sketch to create the output for
+	 * @param fileName
+	 *            String name of the file
+	 */
+	public void toFile(Sketch sketch, String fileName)
+			throws ParserConfigurationException, FileNotFoundException,
+			IOException {
+		toFile(sketch, new File(fileName));
+	}
+
+	/**
+	 * Write the sketch to the given file. Elements are serialized as they are
+	 * created, so only the element being written is held in memory.
+	 * 
+	 * @param sketch
+	 *            Sketch to create the output for
+	 * @param file
+	 *            File to output to
+	 */
+	public void toFile(Sketch sketch, File file)
+			throws ParserConfigurationException, FileNotFoundException,
+			IOException {
+
+		m_sketch = sketch;
+
+		OutputStream out = new BufferedOutputStream(new FileOutputStream(file));
+		try {
+			// Same format DOMOutputSRL gets from its document
+			OutputFormat format = new OutputFormat(Method.XML, "UTF-8", true);
+			m_serializer = new XMLSerializer(out, format);
+
+			writeSketch();
+		}
+		catch (SAXException e) {
+			throw new IOException("Could not write sketch: " + e.getMessage(),
+					e);
+		}
+		finally {
+			m_serializer = null;
+			out.close();
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.ladder.io.IOutput#toFile(org.ladder.core.sketch.ISketch,
+	 * java.io.File)
+	 */
+	public void toFile(ISketch sketch, File file)
+			throws ParserConfigurationException, FileNotFoundException,
+			IOException {
+		this.toFile((Sketch) sketch, file);
+	}
+
+	/**
+	 * Write the sketch element and everything in it
+	 */
+	private void writeSketch() throws SAXException {
+
+		SortedMap<String, String> attributes = new TreeMap<String, String>();
+
+		// Type of the sketch
+		attributes.put("type", "SRL");
+
+		// Required attributes of a sketch
+		attributes.put("id", m_sketch.getID().toString());
+
+		// Optional attributes
+		if (m_sketch.getStudy() != null) {
+			attributes.put("study", m_sketch.getStudy());
+		}
+		if (m_sketch.getDomain() != null) {
+			attributes.put("domain", m_sketch.getDomain());
+		}
+		if (m_sketch.getUnits() != null) {
+			attributes.put("units", m_sketch.getUnits().toString());
+		}
+
+		// Miscellaneous attributes
+		putAll(attributes, m_sketch.getAttributes());
+
+		m_serializer.startDocument();
+		startElement("sketch", attributes);
+
+		writeAuthorElements();
+		writePenElements();
+		writeSpeechElement();
+		writePointElements();
+		writeStrokeElements();
+		writeSegmentationElements();
+		writeShapeElements();
+
+		endElement("sketch");
+		m_serializer.endDocument();
+	}
+
+	/**
+	 * Write the authors of the sketch
+	 */
+	private void writeAuthorElements() throws SAXException {
+
+		for (Author a : m_sketch.getAuthors()) {
+			SortedMap<String, String> attributes = new TreeMap<String, String>();
+
+			if (a.getID() != null) {
+				attributes.put("id", a.getID().toString());
+			}
+			if (a.getDpiX() != null) {
+				attributes.put("dpi_x", a.getDpiX().toString());
+			}
+			if (a.getDpiY() != null) {
+				attributes.put("dpi_y", a.getDpiY().toString());
+			}
+			if (a.getDescription() != null) {
+				attributes.put("desc", a.getDescription());
+			}
+
+			startElement("author", attributes);
+			endElement("author");
+		}
+	}
+
+	/**
+	 * Write the pens of the sketch
+	 */
+	private void writePenElements() throws SAXException {
+
+		for (Pen p : m_sketch.getPens()) {
+			SortedMap<String, String> attributes = new TreeMap<String, String>();
+
+			// Required attributes
+			attributes.put("id", p.getID().toString());
+
+			// Optional attributes
+			if (p.getPenID() != null) {
+				attributes.put("penID", p.getPenID());
+			}
+			if (p.getBrand() != null) {
+				attributes.put("brand", p.getBrand());
+			}
+			if (p.getDescription() != null) {
+				attributes.put("desc", p.getDescription());
+			}
+
+			startElement("pen", attributes);
+			endElement("pen");
+		}
+	}
+
+	/**
+	 * Write the speech of the sketch, if there is any
+	 */
+	private void writeSpeechElement() throws SAXException {
+
+		Speech s = m_sketch.getSpeech();
+		if (s != null) {
+			SortedMap<String, String> attributes = new TreeMap<String, String>();
+
+			// Required attributes
+			attributes.put("id", s.getID().toString());
+
+			// Optional attributes
+			if (s.getPath() != null) {
+				attributes.put("path", s.getPath());
+			}
+			if (s.getDescription() != null) {
+				attributes.put("desc", s.getDescription());
+			}
+			if (s.getStartTime() != 0) {
+				attributes.put("startTime", String.valueOf(s.getStartTime()));
+			}
+			if (s.getStopTime() != 0) {
+				attributes.put("stopTime", String.valueOf(s.getStopTime()));
+			}
+
+			startElement("speech", attributes);
+			endElement("speech");
+		}
+	}
+
+	/**
+	 * Write the points of the strokes, sorted temporally, followed by any alias
+	 * points that are not in a stroke.
+	 */
+	private void writePointElements() throws SAXException {
+
+		// Temporary point mapping
+		Map<UUID, IPoint> pointMap = new HashMap<UUID, IPoint>();
+
+		for (IPoint pt : m_sketch.getPoints()) {
+			writePointElement(pt);
+			pointMap.put(pt.getID(), pt);
+		}
+
+		// Alias points are written once for each alias, as DOMOutputSRL does
+		for (IShape sh : m_sketch.getShapes()) {
+			for (IAlias alias : sh.getAliases()) {
+				if (!pointMap.containsKey(alias.getPoint().getID())) {
+					writePointElement(alias.getPoint());
+				}
+			}
+		}
+	}
+
+	/**
+	 * Write a single point.
+	 * 
+	 * @param point
+	 *            point to write.
+	 */
+	private void writePointElement(IPoint point) throws SAXException {
+
+		SortedMap<String, String> attributes = new TreeMap<String, String>();
+
+		// Required attributes
+		attributes.put("id", point.getID().toString());
+		attributes.put("x", Double.toString(point.getX()));
+		attributes.put("y", Double.toString(point.getY()));
+		attributes.put("time", Long.toString(point.getTime()));
+
+		// Optional attributes
+		if (point instanceof Point) {
+			Point p = (Point) point;
+
+			if (p.getPressure() != null) {
+				attributes.put("pressure", Double.toString(p.getPressure()));
+			}
+			if (p.getTiltX() != null) {
+				attributes.put("tilt_x", Double.toString(p.getTiltX()));
+			}
+			if (p.getTiltY() != null) {
+				attributes.put("tilt_y", Double.toString(p.getTiltY()));
+			}
+
+			// Miscellaneous attributes
+			putAll(attributes, p.getAttributes());
+		}
+
+		startElement("point", attributes);
+		endElement("point");
+	}
+
+	/**
+	 * Write the strokes of the sketch, sorted by time.
+	 */
+	private void writeStrokeElements() throws SAXException {
+
+		// DOMOutputSRL sorts the sketch's own list, so we do too
+		java.util.Collections.sort(m_sketch.getStrokes());
+
+		for (IStroke st : m_sketch.getStrokes()) {
+			SortedMap<String, String> attributes = new TreeMap<String, String>();
+
+			// Required attributes
+			attributes.put("id", st.getID().toString());
+
+			// Optional attributes
+			if (st instanceof Stroke) {
+				Stroke s = (Stroke) st;
+
+				if (s.getLabel() != null) {
+					attributes.put("label", s.getLabel());
+				}
+				if (s.getParent() != null) {
+					attributes.put("parent", s.getParent().getID().toString());
+				}
+				if (s.getAuthor() != null) {
+					attributes.put("author", s.getAuthor().getID().toString());
+				}
+				if (s.getPen() != null) {
+					attributes.put("pen", s.getPen().getID().toString());
+				}
+				if (s.getColor() != null) {
+					attributes.put("color", Integer.toString(s.getColor()
+							.getRGB()));
+				}
+				if (s.isVisible() != null) {
+					attributes.put("visible", s.isVisible().toString());
+				}
+
+				// Miscellaneous attributes
+				putAll(attributes, s.getAttributes());
+			}
+
+			startElement("stroke", attributes);
+
+			for (IPoint pt : st.getPoints()) {
+				writeArgElement("type", "point", pt.getID());
+			}
+			for (ISegmentation seg : st.getSegmentations()) {
+				writeArgElement("type", "segmentation", seg.getID());
+			}
+
+			endElement("stroke");
+		}
+	}
+
+	/**
+	 * Write the segmentations of the strokes in the sketch.
+	 */
+	private void writeSegmentationElements() throws SAXException {
+
+		// Collected the same way DOMOutputSRL does so they come out in the same
+		// order
+		Map<String, Segmentation> segMap = new HashMap<String, Segmentation>();
+
+		for (IStroke st : m_sketch.getStrokes()) {
+			for (ISegmentation seg : st.getSegmentations()) {
+				String id = seg.getID().toString();
+				if (!segMap.containsKey(id))
+					segMap.put(id, (Segmentation) seg);
+			}
+		}
+
+		for (Segmentation seg : segMap.values()) {
+			SortedMap<String, String> attributes = new TreeMap<String, String>();
+
+			// Required attributes
+			attributes.put("id", seg.getID().toString());
+
+			// Optional attributes
+			if (seg.getLabel() != null) {
+				attributes.put("label", seg.getLabel());
+			}
+			if (seg.getConfidence() != null) {
+				attributes.put("confidence", seg.getConfidence().toString());
+			}
+			if (seg.getSegmenterName() != null) {
+				attributes.put("segmenterName", seg.getSegmenterName());
+			}
+
+			// Miscellaneous attributes
+			putAll(attributes, seg.getAttributes());
+
+			startElement("segmentation", attributes);
+
+			for (IStroke st : seg.getSegmentedStrokes()) {
+				writeArgElement("type", "stroke", st.getID());
+			}
+
+			endElement("segmentation");
+		}
+	}
+
+	/**
+	 * Write the shapes of the sketch.
+	 */
+	private void writeShapeElements() throws SAXException {
+
+		for (IShape sh : m_sketch.getShapes()) {
+			SortedMap<String, String> attributes = new TreeMap<String, String>();
+
+			// Required attributes
+			attributes.put("id", sh.getID().toString());
+
+			// Optional attributes
+			if (sh.getLabel() != null)
+				attributes.put("label", sh.getLabel());
+
+			if (sh.getDescription() != null)
+				attributes.put("description", sh.getDescription());
+
+			if (sh instanceof Shape) {
+				Shape s = (Shape) sh;
+
+				if (s.getConfidence() != null) {
+					attributes.put("confidence", Double.toString(s
+							.getConfidence()));
+				}
+				if (s.getRecognizer() != null) {
+					attributes.put("recognizer", s.getRecognizer());
+				}
+				if (s.getOrientation() != null) {
+					attributes.put("orientation", Double.toString(s
+							.getOrientation()));
+				}
+				if (s.getColor() != null) {
+					attributes.put("color", Integer.toString(s.getColor()
+							.getRGB()));
+				}
+				if (s.isVisible() != null) {
+					attributes.put("visible", Boolean.toString(s.isVisible()));
+				}
+
+				// Miscellaneous attributes
+				putAll(attributes, s.getAttributes());
+			}
+
+			startElement("shape", attributes);
+
+			for (IStroke st : sh.getStrokes()) {
+				writeArgElement("type", "stroke", st.getID());
+			}
+			for (IShape subShape : sh.getSubShapes()) {
+				writeArgElement("type", "shape", subShape.getID());
+			}
+			for (IAlias al : sh.getAliases()) {
+				writeArgElement("alias", al.getName(), al.getPoint().getID());
+			}
+
+			endElement("shape");
+		}
+	}
+
+	/**
+	 * Write an arg element with a single attribute and an ID as its text.
+	 * 
+	 * @param name
+	 *            name of the attribute
+	 * @param value
+	 *            value of the attribute
+	 * @param id
+	 *            ID the argument refers to
+	 */
+	private void writeArgElement(String name, String value, UUID id)
+			throws SAXException {
+
+		SortedMap<String, String> attributes = new TreeMap<String, String>();
+		attributes.put(name, value);
+
+		startElement("arg", attributes);
+
+		char[] text = id.toString().toCharArray();
+		m_serializer.characters(text, 0, text.length);
+
+		endElement("arg");
+	}
+
+	/**
+	 * Copy the miscellaneous attributes of an object into the attributes of
+	 * its element. Like {@link org.w3c.dom.Element#setAttribute(String, String)}
+	 * , these replace any attribute already there with the same name.
+	 * 
+	 * @param attributes
+	 *            attributes of the element
+	 * @param misc
+	 *            miscellaneous attributes, may be null
+	 */
+	private void putAll(SortedMap<String, String> attributes,
+			Map<String, String> misc) {
+		if (misc != null) {
+			for (String key : misc.keySet()) {
+				attributes.put(key, misc.get(key));
+			}
+		}
+	}
+
+	/**
+	 * Start an element. The attributes are written in name order, which is the
+	 * order a DOM element keeps them in.
+	 * 
+	 * @param name
+	 *            name of the element
+	 * @param attributes
+	 *            attributes of the element
+	 */
+	private void startElement(String name, SortedMap<String, String> attributes)
+			throws SAXException {
+
+		AttributesImpl attrs = new AttributesImpl();
+		for (Map.Entry<String, String> attribute : attributes.entrySet()) {
+			attrs.addAttribute("", attribute.getKey(), attribute.getKey(),
+					"CDATA", attribute.getValue());
+		}
+
+		m_serializer.startElement("", name, name, attrs);
+	}
+
+	/**
+	 * End an element.
+	 * 
+	 * @param name
+	 *            name of the element
+	 */
+	private void endElement(String name) throws SAXException {
+		m_serializer.endElement("", name, name);
+	}
+}
@@ -0,0 +1,557 @@
+/**
+ * KMeans.java
+ * 
+ * Revision History:<br>
+ * Oct 18, 2026 - File created
+ * 
+ * <p>
+ * 
+ * <pre>
+ * This work is released under the BSD License:
+ * (C) 2008 Sketch Recognition Lab, Texas A&amp;M University (hereafter SRL @ TAMU)
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the Sketch Recognition Lab, Texas A&amp;M University 
+ *       nor the names of its contributors may be used to endorse or promote 
+ *       products derived from this software without specific prior written 
+ *       permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY SRL @ TAMU ``AS IS'' AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL SRL @ TAMU BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ * </pre>
+ */
+package org.ladder.math;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+
+import org.apache.log4j.Logger;
+import org.ladder.core.config.WorkerPool;
+import org.ladder.core.logging.LadderLogger;
+
+/**
+ * K-means clustering of primitive {@code double[]} vectors, used to train
+ * codebooks. Centers are seeded with k-means++: each new seed is picked with
+ * probability proportional to its distance from the nearest seed so far.
+ * Centers are then refined with full-batch (Lloyd) iterations, or with
+ * mini-batch updates when a batch size is set.
+ * <p>
+ * Points are assigned to their nearest center in fixed-size chunks on the
+ * shared {@link WorkerPool}.
+ * The partial sums of the chunks are added up in chunk order and all random
+ * choices come from one seeded generator, so the same data and seed always
+ * give the same centers, however many threads there are.
+ * <p>
+ * Centers are the mean of their points, whatever the distance. The distance
+ * only decides which center a point belongs to.
+ */
+public class KMeans {
+	
+	/**
+	 * Distance between two vectors
+	 */
+	public interface IDistance {
+		
+		/**
+		 * Get the distance between two vectors of the same length
+		 * 
+		 * @param a
+		 *            First vector
+		 * @param b
+		 *            Second vector
+		 * @return Distance between the vectors, never negative
+		 */
+		public double distance(double[] a, double[] b);
+	}
+	
+	/**
+	 * Squared Euclidean distance, which makes this plain k-means
+	 */
+	public static final IDistance S_SQUARED_EUCLIDEAN = new IDistance() {
+		
+		public double distance(double[] a, double[] b) {
+			double dist = 0;
+			for (int i = 0; i < a.length; i++) {
+				double diff = a[i] - b[i];
+				dist += diff * diff;
+			}
+			return dist;
+		}
+	};
+	
+	/**
+	 * Default most iterations to run
+	 */
+	public static final int S_DEFAULT_MAX_ITERATIONS = 100;
+	
+	/**
+	 * Logger for this class
+	 */
+	private static final Logger log = LadderLogger.getLogger(KMeans.class);
+	
+	/**
+	 * Number of points assigned by one task. Fixed so that the sums are added
+	 * up the same way however many threads there are.
+	 */
+	private static final int S_CHUNK_SIZE = 512;
+	
+	/**
+	 * Number of clusters to find
+	 */
+	private int m_k;
+	
+	/**
+	 * Distance used to assign points to centers
+	 */
+	private IDistance m_distance;
+	
+	/**
+	 * Seed for the random choices
+	 */
+	private long m_seed = 0;
+	
+	/**
+	 * Most iterations to run
+	 */
+	private int m_maxIterations = S_DEFAULT_MAX_ITERATIONS;
+	
+	/**
+	 * Number of points in each mini-batch, or 0 to use every point in every
+	 * iteration
+	 */
+	private int m_batchSize = 0;
+	
+	/**
+	 * Center of each point after the last call to {@link #cluster(List)}
+	 */
+	private int[] m_assignments = new int[0];
+	
+	
+	/**
+	 * Create a clusterer
+	 * 
+	 * @param k
+	 *            Number of clusters to find
+	 * @param distance
+	 *            Distance used to assign points to centers
+	 */
+	public KMeans(int k, IDistance distance) {
+		if (k < 1) {
+			throw new IllegalArgumentException("Need at least one cluster, got "
+			                                   + k);
+		}
+		m_k = k;
+		m_distance = distance;
+	}
+	
+
+	/**
+	 * Set the seed for the random choices. The default is 0.
+	 * 
+	 * @param seed
+	 *            Seed for the random choices
+	 */
+	public void setSeed(long seed) {
+		m_seed = seed;
+	}
+	
+
+	/**
+	 * Set the most iterations to run
+	 * 
+	 * @param maxIterations
+	 *            Most iterations to run
+	 */
+	public void setMaxIterations(int maxIterations) {
+		m_maxIterations = maxIterations;
+	}
+	
+
+	/**
+	 * Set the number of points in each mini-batch. With 0, the default, or a
+	 * size at least the number of points, every point is used in every
+	 * iteration.
+	 * 
+	 * @param batchSize
+	 *            Number of points in each mini-batch
+	 */
+	public void setBatchSize(int batchSize) {
+		m_batchSize = batchSize;
+	}
+	
+
+	/**
+	 * Get the index of the center each point was assigned to by the last call
+	 * to {@link #cluster(List)}
+	 * 
+	 * @return Center index of each point
+	 */
+	public int[] getAssignments() {
+		return m_assignments;
+	}
+	
+
+	/**
+	 * Cluster the points. Fewer than k centers are returned when there are
+	 * fewer than k distinct points.
+	 * 
+	 * @param points
+	 *            Points to cluster, all the same length. Not changed.
+	 * @return The cluster centers
+	 */
+	public double[][] cluster(List<double[]> points) {
+		
+		final double[][] data = points.toArray(new double[points.size()][]);
+		int numPoints = data.length;
+		m_assignments = new int[numPoints];
+		if (numPoints == 0) {
+			return new double[0][];
+		}
+		
+		Random rand = new Random(m_seed);
+		
+		long start = System.currentTimeMillis();
+		double[][] centers = seed(data, rand);
+		log.debug("Seeded " + centers.length + " centers from " + numPoints
+		          + " points in " + (System.currentTimeMillis() - start)
+		          + " ms");
+		
+		int iterations;
+		if (m_batchSize > 0 && m_batchSize < numPoints) {
+			iterations = miniBatch(data, centers, rand);
+			assign(data, centers, m_assignments, false);
+		}
+		else {
+			iterations = lloyd(data, centers);
+		}
+		
+		log.debug("Clustered " + numPoints + " points into " + centers.length
+		          + " centers in " + iterations + " iterations, "
+		          + (System.currentTimeMillis() - start) + " ms");
+		
+		return centers;
+	}
+	
+
+	/**
+	 * Pick the initial centers with k-means++
+	 * 
+	 * @param data
+	 *            Points to cluster
+	 * @param rand
+	 *            Source of the random choices
+	 * @return Initial centers
+	 */
+	private double[][] seed(final double[][] data, Random rand) {
+		
+		int numPoints = data.length;
+		List<double[]> seeds = new ArrayList<double[]>();
+		final double[] nearest = new double[numPoints];
+		Arrays.fill(nearest, Double.POSITIVE_INFINITY);
+		
+		int next = rand.nextInt(numPoints);
+		while (true) {
+			final double[] seed = data[next].clone();
+			seeds.add(seed);
+			if (seeds.size() >= m_k) {
+				break;
+			}
+			
+			// Distance from each point to its nearest seed
+			runChunks(numPoints, new ChunkTask() {
+				
+				public void run(int from, int to, int chunk) {
+					for (int i = from; i < to; i++) {
+						double dist = m_distance.distance(data[i], seed);
+						if (dist < nearest[i]) {
+							nearest[i] = dist;
+						}
+					}
+				}
+			});
+			
+			double total = 0;
+			for (int i = 0; i < numPoints; i++) {
+				total += nearest[i];
+			}
+			
+			// Every point is already a seed
+			if (!(total > 0)) {
+				break;
+			}
+			
+			double target = rand.nextDouble() * total;
+			next = -1;
+			for (int i = 0; i < numPoints; i++) {
+				if (nearest[i] > 0) {
+					next = i;
+					target -= nearest[i];
+					if (target < 0) {
+						break;
+					}
+				}
+			}
+		}
+		
+		return seeds.toArray(new double[seeds.size()][]);
+	}
+	
+
+	/**
+	 * Refine the centers with full-batch iterations until no point changes
+	 * cluster
+	 * 
+	 * @param data
+	 *            Points to cluster
+	 * @param centers
+	 *            Centers to refine, updated in place
+	 * @return Number of iterations run
+	 */
+	private int lloyd(double[][] data, double[][] centers) {
+		
+		Arrays.fill(m_assignments, -1);
+		
+		int iteration = 0;
+		while (iteration < m_maxIterations) {
+			iteration++;
+			
+			Sums sums = assign(data, centers, m_assignments, true);
+			
+			for (int c = 0; c < centers.length; c++) {
+				// Empty clusters keep their old center
+				if (sums.m_counts[c] > 0) {
+					for (int d = 0; d < centers[c].length; d++) {
+						centers[c][d] = sums.m_sums[c][d] / sums.m_counts[c];
+					}
+				}
+			}
+			
+			if (sums.m_changed == 0) {
+				break;
+			}
+		}
+		
+		return iteration;
+	}
+	
+
+	/**
+	 * Refine the centers with mini-batch updates, where each center moves
+	 * toward its points by one over the number of points it has seen
+	 * 
+	 * @param data
+	 *            Points to cluster
+	 * @param centers
+	 *            Centers to refine, updated in place
+	 * @param rand
+	 *            Source of the random choices
+	 * @return Number of iterations run
+	 */
+	private int miniBatch(double[][] data, double[][] centers, Random rand) {
+		
+		double[][] batch = new double[m_batchSize][];
+		int[] batchAssignments = new int[m_batchSize];
+		long[] seen = new long[centers.length];
+		
+		for (int iteration = 0; iteration < m_maxIterations; iteration++) {
+			for (int b = 0; b < m_batchSize; b++) {
+				batch[b] = data[rand.nextInt(data.length)];
+			}
+			
+			assign(batch, centers, batchAssignments, false);
+			
+			for (int b = 0; b < m_batchSize; b++) {
+				int c = batchAssignments[b];
+				seen[c]++;
+				double rate = 1.0 / seen[c];
+				for (int d = 0; d < centers[c].length; d++) {
+					centers[c][d] += rate * (batch[b][d] - centers[c][d]);
+				}
+			}
+		}
+		
+		return m_maxIterations;
+	}
+	
+
+	/**
+	 * Assign each point to its nearest center
+	 * 
+	 * @param data
+	 *            Points to assign
+	 * @param centers
+	 *            Centers to assign to
+	 * @param assignments
+	 *            Center of each point, updated in place
+	 * @param sum
+	 *            Whether to add up the points of each center
+	 * @return Sums and counts of the points of each center, and how many
+	 *         points changed center
+	 */
+	private Sums assign(final double[][] data, final double[][] centers,
+	        final int[] assignments, final boolean sum) {
+		
+		int numChunks = (data.length + S_CHUNK_SIZE - 1) / S_CHUNK_SIZE;
+		final Sums[] chunkSums = new Sums[numChunks];
+		
+		runChunks(data.length, new ChunkTask() {
+			
+			public void run(int from, int to, int chunk) {
+				Sums sums = new Sums(centers.length, sum ? centers[0].length
+				        : 0);
+				
+				for (int i = from; i < to; i++) {
+					int best = 0;
+					double bestDist = m_distance.distance(data[i], centers[0]);
+					for (int c = 1; c < centers.length; c++) {
+						double dist = m_distance.distance(data[i], centers[c]);
+						if (dist < bestDist) {
+							best = c;
+							bestDist = dist;
+						}
+					}
+					
+					if (assignments[i] != best) {
+						assignments[i] = best;
+						sums.m_changed++;
+					}
+					
+					if (sum) {
+						sums.m_counts[best]++;
+						for (int d = 0; d < data[i].length; d++) {
+							sums.m_sums[best][d] += data[i][d];
+						}
+					}
+				}
+				
+				chunkSums[chunk] = sums;
+			}
+		});
+		
+		// Added up in chunk order so the result never depends on timing
+		Sums total = new Sums(centers.length, sum ? centers[0].length : 0);
+		for (Sums sums : chunkSums) {
+			total.m_changed += sums.m_changed;
+			if (sum) {
+				for (int c = 0; c < centers.length; c++) {
+					total.m_counts[c] += sums.m_counts[c];
+					for (int d = 0; d < total.m_sums[c].length; d++) {
+						total.m_sums[c][d] += sums.m_sums[c][d];
+					}
+				}
+			}
+		}
+		
+		return total;
+	}
+	
+
+	/**
+	 * Run a task over fixed-size chunks of the indices, on the worker threads
+	 * when there is more than one chunk and more than one thread
+	 * 
+	 * @param numIndices
+	 *            Number of indices to cover
+	 * @param task
+	 *            Task to run on each chunk
+	 */
+	private static void runChunks(int numIndices, final ChunkTask task) {
+		
+		int numChunks = (numIndices + S_CHUNK_SIZE - 1) / S_CHUNK_SIZE;
+		
+		if (WorkerPool.runInline(numChunks)) {
+			for (int chunk = 0; chunk < numChunks; chunk++) {
+				task.run(chunk * S_CHUNK_SIZE, Math.min(numIndices,
+				        (chunk + 1) * S_CHUNK_SIZE), chunk);
+			}
+			return;
+		}
+		
+		List<Callable<Object>> tasks = new ArrayList<Callable<Object>>();
+		for (int chunk = 0; chunk < numChunks; chunk++) {
+			final int from = chunk * S_CHUNK_SIZE;
+			final int to = Math.min(numIndices, from + S_CHUNK_SIZE);
+			final int index = chunk;
+			tasks.add(new Callable<Object>() {
+				
+				public Object call() {
+					task.run(from, to, index);
+					return null;
+				}
+			});
+		}
+		
+		WorkerPool.invokeAll(tasks);
+	}
+	
+
+	/**
+	 * Work done on one chunk of indices
+	 */
+	private interface ChunkTask {
+		
+		/**
+		 * Do the work for the indices in the chunk
+		 * 
+		 * @param from
+		 *            First index in the chunk
+		 * @param to
+		 *            One past the last index in the chunk
+		 * @param chunk
+		 *            Index of the chunk
+		 */
+		public void run(int from, int to, int chunk);
+	}
+	
+	/**
+	 * Points added up by center
+	 */
+	private static class Sums {
+		
+		/**
+		 * Sum of the points of each center
+		 */
+		private double[][] m_sums;
+		
+		/**
+		 * Number of points of each center
+		 */
+		private int[] m_counts;
+		
+		/**
+		 * Number of points that changed center
+		 */
+		private int m_changed = 0;
+		
+		
+		/**
+		 * Create empty sums
+		 * 
+		 * @param numCenters
+		 *            Number of centers
+		 * @param dimensions
+		 *            Length of the points, or 0 to only count changes
+		 */
+		public Sums(int numCenters, int dimensions) {
+			m_sums = new double[numCenters][dimensions];
+			m_counts = new int[numCenters];
+		}
+	}
+}
@@ -0,0 +1,804 @@
+/**
+ * SegmentIntersection.java
+ * 
+ * Revision History:<br>
+ * Oct 18, 2026 - File created
+ * 
+ * <p>
+ * 
+ * <pre>
+ * This work is released under the BSD License:
+ * (C) 2008 Sketch Recognition Lab, Texas A&amp;M University (hereafter SRL @ TAMU)
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the Sketch Recognition Lab, Texas A&amp;M University 
+ *       nor the names of its contributors may be used to endorse or promote 
+ *       products derived from this software without specific prior written 
+ *       permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY SRL @ TAMU ``AS IS'' AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL SRL @ TAMU BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ * </pre>
+ */
+package org.ladder.math;
+
+import java.awt.geom.Line2D;
+import java.awt.geom.Rectangle2D;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import org.ladder.core.sketch.BoundingBox;
+import org.ladder.core.sketch.IPoint;
+import org.ladder.core.sketch.IStroke;
+
+/**
+ * Intersection and proximity tests between polylines and strokes. Segments
+ * are swept left to right by their smallest x value, and only pairs whose
+ * bounding boxes overlap are tested, so the cost follows the number of
+ * segments that are near each other instead of every pair. Stroke-level
+ * tests first check the stroke's cached {@link BoundingBox}.
+ * <p>
+ * Two segments intersect when they cross or touch. Parallel segments,
+ * including overlapping collinear ones and segments of zero length, never
+ * intersect.
+ */
+public class SegmentIntersection {
+	
+	/**
+	 * Amount bounding boxes are grown by before testing them for overlap, so
+	 * that rounding in the box corners never prunes segments that touch
+	 */
+	private static final double S_BOUNDS_SLACK = 1e-6;
+	
+	/**
+	 * Up to this many segment pairs are simply tested one by one, since
+	 * sorting would cost more than it saves
+	 */
+	private static final int S_MAX_BRUTE_FORCE_PAIRS = 64;
+	
+	
+	/**
+	 * Static methods only
+	 */
+	private SegmentIntersection() {
+		// Do nothing
+	}
+	
+
+	/**
+	 * Check whether segment AB intersects segment CD, see
+	 * http://www.mema.ucl.ac.be/~wu/FSA2716/Exercise1.htm
+	 * 
+	 * @param ax
+	 *            x-coordinate of A
+	 * @param ay
+	 *            y-coordinate of A
+	 * @param bx
+	 *            x-coordinate of B
+	 * @param by
+	 *            y-coordinate of B
+	 * @param cx
+	 *            x-coordinate of C
+	 * @param cy
+	 *            y-coordinate of C
+	 * @param dx
+	 *            x-coordinate of D
+	 * @param dy
+	 *            y-coordinate of D
+	 * @return True if the segments cross or touch, false otherwise
+	 */
+	public static boolean segmentsIntersect(double ax, double ay, double bx,
+	        double by, double cx, double cy, double dx, double dy) {
+		
+		double denom = ((bx - ax) * (dy - cy)) - ((by - ay) * (dx - cx));
+		
+		// AB and CD are parallel
+		if (denom == 0.0) {
+			return false;
+		}
+		
+		double r = (((ay - cy) * (dx - cx)) - ((ax - cx) * (dy - cy))) / denom;
+		double s = (((ay - cy) * (bx - ax)) - ((ax - cx) * (by - ay))) / denom;
+		
+		return r >= 0.0 && r <= 1.0 && s >= 0.0 && s <= 1.0;
+	}
+	
+
+	/**
+	 * Check whether two strokes intersect
+	 * 
+	 * @param stroke1
+	 *            First stroke
+	 * @param stroke2
+	 *            Second stroke
+	 * @return True if any segment of one stroke intersects a segment of the
+	 *         other
+	 */
+	public static boolean intersects(IStroke stroke1, IStroke stroke2) {
+		
+		if (stroke1.getNumPoints() < 2 || stroke2.getNumPoints() < 2) {
+			return false;
+		}
+		
+		if (!overlaps(stroke1.getBoundingBox(), stroke2.getBoundingBox(), 0.0)) {
+			return false;
+		}
+		
+		return intersects(new Polyline(stroke1.getPoints()), new Polyline(
+		        stroke2.getPoints()));
+	}
+	
+
+	/**
+	 * Check whether two polylines intersect
+	 * 
+	 * @param points1
+	 *            Points of the first polyline
+	 * @param points2
+	 *            Points of the second polyline
+	 * @return True if any segment of one polyline intersects a segment of the
+	 *         other
+	 */
+	public static boolean intersects(List<IPoint> points1, List<IPoint> points2) {
+		return intersects(new Polyline(points1), new Polyline(points2));
+	}
+	
+
+	/**
+	 * Check whether a stroke intersects any of the other strokes
+	 * 
+	 * @param stroke
+	 *            Stroke to test
+	 * @param others
+	 *            Strokes to test against
+	 * @return True if the stroke intersects at least one of the others
+	 */
+	public static boolean intersectsAny(IStroke stroke,
+	        Collection<? extends IStroke> others) {
+		
+		if (stroke.getNumPoints() < 2) {
+			return false;
+		}
+		
+		BoundingBox bounds = stroke.getBoundingBox();
+		Polyline polyline = null;
+		
+		for (IStroke other : others) {
+			if (other.getNumPoints() < 2
+			    || !overlaps(bounds, other.getBoundingBox(), 0.0)) {
+				continue;
+			}
+			
+			if (polyline == null) {
+				polyline = new Polyline(stroke.getPoints());
+			}
+			
+			if (intersects(polyline, new Polyline(other.getPoints()))) {
+				return true;
+			}
+		}
+		
+		return false;
+	}
+	
+
+	/**
+	 * Find every pair of strokes in the list that intersect. Strokes are swept
+	 * by their bounding boxes, so only strokes whose boxes overlap have their
+	 * segments tested.
+	 * 
+	 * @param strokes
+	 *            Strokes to test
+	 * @return Index pairs {i, j}, with i &lt; j, of the strokes that intersect,
+	 *         in ascending order
+	 */
+	public static List<int[]> intersectingPairs(List<? extends IStroke> strokes) {
+		
+		List<int[]> pairs = new ArrayList<int[]>();
+		
+		final BoundingBox[] bounds = new BoundingBox[strokes.size()];
+		Polyline[] polylines = new Polyline[strokes.size()];
+		List<Integer> order = new ArrayList<Integer>();
+		for (int i = 0; i < strokes.size(); i++) {
+			if (strokes.get(i).getNumPoints() >= 2) {
+				bounds[i] = strokes.get(i).getBoundingBox();
+				order.add(i);
+			}
+		}
+		
+		Collections.sort(order, new Comparator<Integer>() {
+			
+			public int compare(Integer i1, Integer i2) {
+				return Double.compare(bounds[i1].getMinX(), bounds[i2]
+				        .getMinX());
+			}
+		});
+		
+		int[] active = new int[order.size()];
+		int numActive = 0;
+		
+		for (int i : order) {
+			
+			double sweepX = bounds[i].getMinX() - S_BOUNDS_SLACK;
+			int kept = 0;
+			for (int a = 0; a < numActive; a++) {
+				int j = active[a];
+				if (bounds[j].getMaxX() >= sweepX) {
+					active[kept++] = j;
+					
+					if (overlaps(bounds[i], bounds[j], 0.0)) {
+						if (polylines[i] == null) {
+							polylines[i] = new Polyline(strokes.get(i)
+							        .getPoints());
+						}
+						if (polylines[j] == null) {
+							polylines[j] = new Polyline(strokes.get(j)
+							        .getPoints());
+						}
+						
+						if (intersects(polylines[i], polylines[j])) {
+							pairs.add(new int[] { Math.min(i, j),
+							        Math.max(i, j) });
+						}
+					}
+				}
+			}
+			numActive = kept;
+			active[numActive++] = i;
+		}
+		
+		Collections.sort(pairs, new Comparator<int[]>() {
+			
+			public int compare(int[] p1, int[] p2) {
+				if (p1[0] != p2[0]) {
+					return p1[0] < p2[0] ? -1 : 1;
+				}
+				return p1[1] < p2[1] ? -1 : (p1[1] == p2[1] ? 0 : 1);
+			}
+		});
+		
+		return pairs;
+	}
+	
+
+	/**
+	 * Count the number of times a polyline intersects itself. Each pair of
+	 * segments that intersect is counted once. Segments next to each other
+	 * always share a point and are not counted.
+	 * 
+	 * @param points
+	 *            Points of the polyline
+	 * @return Number of intersecting pairs of non-adjacent segments
+	 */
+	public static int countSelfIntersections(List<IPoint> points) {
+		
+		Polyline polyline = new Polyline(points);
+		int numSegments = polyline.getNumSegments();
+		int[] order = polyline.getSweepOrder();
+		
+		int[] active = new int[numSegments];
+		int numActive = 0;
+		int count = 0;
+		
+		for (int o = 0; o < numSegments; o++) {
+			int s = order[o];
+			
+			double sweepX = polyline.m_minX[s] - S_BOUNDS_SLACK;
+			int kept = 0;
+			for (int a = 0; a < numActive; a++) {
+				int t = active[a];
+				if (polyline.m_maxX[t] >= sweepX) {
+					active[kept++] = t;
+					
+					if (Math.abs(s - t) > 1
+					    && polyline.overlapsY(s, polyline, t)
+					    && polyline.intersects(s, polyline, t)) {
+						count++;
+					}
+				}
+			}
+			numActive = kept;
+			active[numActive++] = s;
+		}
+		
+		return count;
+	}
+	
+
+	/**
+	 * Check whether any point of one stroke is closer than the given distance
+	 * to any point of the other stroke
+	 * 
+	 * @param stroke1
+	 *            First stroke
+	 * @param stroke2
+	 *            Second stroke
+	 * @param distance
+	 *            Distance the points must be closer than
+	 * @return True if a pair of points is closer than the distance
+	 */
+	public static boolean withinDistance(IStroke stroke1, IStroke stroke2,
+	        double distance) {
+		
+		if (stroke1.getNumPoints() == 0 || stroke2.getNumPoints() == 0) {
+			return false;
+		}
+		
+		if (!overlaps(stroke1.getBoundingBox(), stroke2.getBoundingBox(),
+		        distance)) {
+			return false;
+		}
+		
+		return withinDistance(stroke1.getPoints(), new PointSet(stroke2
+		        .getPoints()), distance);
+	}
+	
+
+	/**
+	 * Check whether any point of a stroke is closer than the given distance to
+	 * any point of the other strokes
+	 * 
+	 * @param stroke
+	 *            Stroke to test
+	 * @param others
+	 *            Strokes to test against
+	 * @param distance
+	 *            Distance the points must be closer than
+	 * @return True if a point of the stroke is closer than the distance to a
+	 *         point of one of the others
+	 */
+	public static boolean anyWithinDistance(IStroke stroke,
+	        Collection<? extends IStroke> others, double distance) {
+		
+		if (stroke.getNumPoints() == 0) {
+			return false;
+		}
+		
+		BoundingBox bounds = stroke.getBoundingBox();
+		PointSet pointSet = null;
+		
+		for (IStroke other : others) {
+			if (other.getNumPoints() == 0
+			    || !overlaps(bounds, other.getBoundingBox(), distance)) {
+				continue;
+			}
+			
+			if (pointSet == null) {
+				pointSet = new PointSet(stroke.getPoints());
+			}
+			
+			if (withinDistance(other.getPoints(), pointSet, distance)) {
+				return true;
+			}
+		}
+		
+		return false;
+	}
+	
+
+	/**
+	 * Check whether a segment could intersect anything inside the given
+	 * bounds. Used to skip scanning every segment of a stroke against a line
+	 * that is nowhere near it.
+	 * 
+	 * @param bounds
+	 *            Bounds of the segments to test
+	 * @param line
+	 *            Segment to test
+	 * @return False if the segment is certainly outside the bounds, true
+	 *         otherwise
+	 */
+	public static boolean mayIntersect(Rectangle2D bounds, Line2D line) {
+		
+		double minX = bounds.getMinX() - S_BOUNDS_SLACK;
+		double maxX = bounds.getMaxX() + S_BOUNDS_SLACK;
+		double minY = bounds.getMinY() - S_BOUNDS_SLACK;
+		double maxY = bounds.getMaxY() + S_BOUNDS_SLACK;
+		
+		// Written so that NaN coordinates never prune
+		if ((line.getX1() < minX && line.getX2() < minX)
+		    || (line.getX1() > maxX && line.getX2() > maxX)
+		    || (line.getY1() < minY && line.getY2() < minY)
+		    || (line.getY1() > maxY && line.getY2() > maxY)) {
+			return false;
+		}
+		
+		return true;
+	}
+	
+
+	/**
+	 * Check whether two polylines intersect
+	 * 
+	 * @param polyline1
+	 *            First polyline
+	 * @param polyline2
+	 *            Second polyline
+	 * @return True if any segment of one polyline intersects a segment of the
+	 *         other
+	 */
+	private static boolean intersects(Polyline polyline1, Polyline polyline2) {
+		
+		int numSegments1 = polyline1.getNumSegments();
+		int numSegments2 = polyline2.getNumSegments();
+		
+		if (numSegments1 == 0 || numSegments2 == 0) {
+			return false;
+		}
+		
+		if ((long) numSegments1 * numSegments2 <= S_MAX_BRUTE_FORCE_PAIRS) {
+			for (int i = 0; i < numSegments1; i++) {
+				for (int j = 0; j < numSegments2; j++) {
+					if (polyline1.intersects(i, polyline2, j)) {
+						return true;
+					}
+				}
+			}
+			return false;
+		}
+		
+		int[] order1 = polyline1.getSweepOrder();
+		int[] order2 = polyline2.getSweepOrder();
+		int[] active1 = new int[numSegments1];
+		int[] active2 = new int[numSegments2];
+		int numActive1 = 0;
+		int numActive2 = 0;
+		int next1 = 0;
+		int next2 = 0;
+		
+		while (next1 < numSegments1 || next2 < numSegments2) {
+			
+			// Take whichever segment starts further left
+			boolean takeFirst = next2 >= numSegments2;
+			if (!takeFirst && next1 < numSegments1) {
+				takeFirst = polyline1.m_minX[order1[next1]] <= polyline2.m_minX[order2[next2]];
+			}
+			
+			if (takeFirst) {
+				
+				int s = order1[next1++];
+				numActive2 = sweep(polyline1, s, polyline2, active2,
+				        numActive2);
+				if (numActive2 < 0) {
+					return true;
+				}
+				active1[numActive1++] = s;
+			}
+			else {
+				int s = order2[next2++];
+				numActive1 = sweep(polyline2, s, polyline1, active1,
+				        numActive1);
+				if (numActive1 < 0) {
+					return true;
+				}
+				active2[numActive2++] = s;
+			}
+		}
+		
+		return false;
+	}
+	
+
+	/**
+	 * Test a segment against the active segments of the other polyline,
+	 * dropping the ones that end left of where the segment starts
+	 * 
+	 * @param polyline
+	 *            Polyline of the segment
+	 * @param s
+	 *            Index of the segment
+	 * @param other
+	 *            The other polyline
+	 * @param active
+	 *            Active segments of the other polyline, compacted in place
+	 * @param numActive
+	 *            Number of active segments
+	 * @return Number of active segments left, or -1 if the segment intersects
+	 *         one of them
+	 */
+	private static int sweep(Polyline polyline, int s, Polyline other,
+	        int[] active, int numActive) {
+		
+		double sweepX = polyline.m_minX[s] - S_BOUNDS_SLACK;
+		int kept = 0;
+		
+		for (int a = 0; a < numActive; a++) {
+			int t = active[a];
+			if (other.m_maxX[t] >= sweepX) {
+				if (polyline.overlapsY(s, other, t)
+				    && polyline.intersects(s, other, t)) {
+					return -1;
+				}
+				active[kept++] = t;
+			}
+		}
+		
+		return kept;
+	}
+	
+
+	/**
+	 * Check whether any of the points is closer than the given distance to a
+	 * point in the set
+	 * 
+	 * @param points
+	 *            Points to test
+	 * @param pointSet
+	 *            Points to test against
+	 * @param distance
+	 *            Distance the points must be closer than
+	 * @return True if a pair of points is closer than the distance
+	 */
+	private static boolean withinDistance(List<IPoint> points,
+	        PointSet pointSet, double distance) {
+		
+		for (IPoint p : points) {
+			if (pointSet.hasPointWithin(p, distance)) {
+				return true;
+			}
+		}
+		
+		return false;
+	}
+	
+
+	/**
+	 * Check whether two bounding boxes, each grown by the given margin plus
+	 * some slack, overlap
+	 * 
+	 * @param bounds1
+	 *            First bounding box
+	 * @param bounds2
+	 *            Second bounding box
+	 * @param margin
+	 *            Amount to grow the boxes by
+	 * @return True if the grown boxes overlap
+	 */
+	private static boolean overlaps(BoundingBox bounds1, BoundingBox bounds2,
+	        double margin) {
+		
+		double slack = margin + S_BOUNDS_SLACK;
+		
+		return bounds1.getMinX() <= bounds2.getMaxX() + slack
+		       && bounds2.getMinX() <= bounds1.getMaxX() + slack
+		       && bounds1.getMinY() <= bounds2.getMaxY() + slack
+		       && bounds2.getMinY() <= bounds1.getMaxY() + slack;
+	}
+	
+	/**
+	 * Segments of a polyline with their bounds, in flat arrays
+	 */
+	private static class Polyline {
+		
+		/**
+		 * x-coordinates of the points
+		 */
+		private double[] m_x;
+		
+		/**
+		 * y-coordinates of the points
+		 */
+		private double[] m_y;
+		
+		/**
+		 * Smallest x value of each segment
+		 */
+		private double[] m_minX;
+		
+		/**
+		 * Largest x value of each segment
+		 */
+		private double[] m_maxX;
+		
+		/**
+		 * Smallest y value of each segment
+		 */
+		private double[] m_minY;
+		
+		/**
+		 * Largest y value of each segment
+		 */
+		private double[] m_maxY;
+		
+		
+		/**
+		 * Create the segments between consecutive points
+		 * 
+		 * @param points
+		 *            Points of the polyline
+		 */
+		public Polyline(List<IPoint> points) {
+			
+			int numPoints = points.size();
+			m_x = new double[numPoints];
+			m_y = new double[numPoints];
+			for (int i = 0; i < numPoints; i++) {
+				IPoint p = points.get(i);
+				m_x[i] = p.getX();
+				m_y[i] = p.getY();
+			}
+			
+			int numSegments = Math.max(0, numPoints - 1);
+			m_minX = new double[numSegments];
+			m_maxX = new double[numSegments];
+			m_minY = new double[numSegments];
+			m_maxY = new double[numSegments];
+			for (int i = 0; i < numSegments; i++) {
+				m_minX[i] = Math.min(m_x[i], m_x[i + 1]);
+				m_maxX[i] = Math.max(m_x[i], m_x[i + 1]);
+				m_minY[i] = Math.min(m_y[i], m_y[i + 1]);
+				m_maxY[i] = Math.max(m_y[i], m_y[i + 1]);
+			}
+		}
+		
+
+		/**
+		 * Get the number of segments
+		 * 
+		 * @return Number of segments
+		 */
+		public int getNumSegments() {
+			return m_minX.length;
+		}
+		
+
+		/**
+		 * Get the segment indices sorted by their smallest x value
+		 * 
+		 * @return Segment indices in sweep order
+		 */
+		public int[] getSweepOrder() {
+			
+			Integer[] order = new Integer[getNumSegments()];
+			for (int i = 0; i < order.length; i++) {
+				order[i] = i;
+			}
+			
+			Arrays.sort(order, new Comparator<Integer>() {
+				
+				public int compare(Integer i1, Integer i2) {
+					return Double.compare(m_minX[i1], m_minX[i2]);
+				}
+			});
+			
+			int[] sweepOrder = new int[order.length];
+			for (int i = 0; i < order.length; i++) {
+				sweepOrder[i] = order[i];
+			}
+			
+			return sweepOrder;
+		}
+		
+
+		/**
+		 * Check whether the y ranges of two segments overlap
+		 * 
+		 * @param s
+		 *            Segment of this polyline
+		 * @param other
+		 *            Polyline of the other segment
+		 * @param t
+		 *            Segment of the other polyline
+		 * @return True if the y ranges overlap
+		 */
+		public boolean overlapsY(int s, Polyline other, int t) {
+			return m_minY[s] <= other.m_maxY[t] + S_BOUNDS_SLACK
+			       && other.m_minY[t] <= m_maxY[s] + S_BOUNDS_SLACK;
+		}
+		
+
+		/**
+		 * Check whether two segments intersect
+		 * 
+		 * @param s
+		 *            Segment of this polyline
+		 * @param other
+		 *            Polyline of the other segment
+		 * @param t
+		 *            Segment of the other polyline
+		 * @return True if the segments intersect
+		 */
+		public boolean intersects(int s, Polyline other, int t) {
+			return segmentsIntersect(m_x[s], m_y[s], m_x[s + 1], m_y[s + 1],
+			        other.m_x[t], other.m_y[t], other.m_x[t + 1],
+			        other.m_y[t + 1]);
+		}
+	}
+	
+	/**
+	 * Points sorted by x value, for finding points near another point
+	 */
+	private static class PointSet {
+		
+		/**
+		 * The points, sorted by x value
+		 */
+		private IPoint[] m_points;
+		
+		/**
+		 * x value of each sorted point
+		 */
+		private double[] m_x;
+		
+		
+		/**
+		 * Sort the points by x value
+		 * 
+		 * @param points
+		 *            Points in the set
+		 */
+		public PointSet(List<IPoint> points) {
+			
+			m_points = points.toArray(new IPoint[points.size()]);
+			Arrays.sort(m_points, new Comparator<IPoint>() {
+				
+				public int compare(IPoint p1, IPoint p2) {
+					return Double.compare(p1.getX(), p2.getX());
+				}
+			});
+			
+			m_x = new double[m_points.length];
+			for (int i = 0; i < m_points.length; i++) {
+				m_x[i] = m_points[i].getX();
+			}
+		}
+		
+
+		/**
+		 * Check whether any point in the set is closer than the given distance
+		 * to the point
+		 * 
+		 * @param p
+		 *            Point to test
+		 * @param distance
+		 *            Distance the points must be closer than
+		 * @return True if a point in the set is closer than the distance
+		 */
+		public boolean hasPointWithin(IPoint p, double distance) {
+			
+			double reach = distance + S_BOUNDS_SLACK;
+			
+			// First point that could be close enough
+			int lo = 0;
+			int hi = m_x.length;
+			double fromX = p.getX() - reach;
+			while (lo < hi) {
+				int mid = (lo + hi) >>> 1;
+				if (m_x[mid] < fromX) {
+					lo = mid + 1;
+				}
+				else {
+					hi = mid;
+				}
+			}
+			
+			double toX = p.getX() + reach;
+			for (int i = lo; i < m_x.length && m_x[i] <= toX; i++) {
+				if (Math.abs(m_points[i].getY() - p.getY()) <= reach
+				    && p.distance(m_points[i]) < distance) {
+					return true;
+				}
+			}
+			
+			return false;
+		}
+	}
+}
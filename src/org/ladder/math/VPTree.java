@@ -0,0 +1,604 @@
+/**
+ * VPTree.java
+ * 
+ * Revision History:<br>
+ * Oct 18, 2026 - File created
+ * 
+ * <p>
+ * 
+ * <pre>
+ * This work is released under the BSD License:
+ * (C) 2008 Sketch Recognition Lab, Texas A&amp;M University (hereafter SRL @ TAMU)
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the Sketch Recognition Lab, Texas A&amp;M University 
+ *       nor the names of its contributors may be used to endorse or promote 
+ *       products derived from this software without specific prior written 
+ *       permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY SRL @ TAMU ``AS IS'' AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL SRL @ TAMU BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ * </pre>
+ */
+package org.ladder.math;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Vantage point tree over primitive {@code double[]} vectors, for finding
+ * nearest neighbors without comparing against every vector.
+ * <p>
+ * Each node picks a vantage point and splits the rest of its points in half
+ * by their distance to it. Small nodes are leaves that are scanned directly,
+ * and distances computed in leaves may stop early once they can no longer
+ * matter. Whole nodes are skipped when the triangle inequality shows none of
+ * their points can be close enough.
+ * <p>
+ * Distances are squared metrics: the square root of the distance must obey
+ * the triangle inequality. Squared Euclidean distance, the chi-squared
+ * distance between histograms and one minus the cosine similarity all
+ * qualify. Distances are always computed as
+ * {@code distance(indexedPoint, query, limit)}, so the values reported are
+ * exactly those the distance gives for that argument order. A small slack is
+ * allowed when pruning so rounding never loses a point.
+ */
+public class VPTree {
+	
+	/**
+	 * Squared metric between two vectors
+	 */
+	public interface IDistance {
+		
+		/**
+		 * Get the distance between two vectors of the same length. Once the
+		 * distance is known to be more than the limit the computation may
+		 * stop and return any value more than the limit.
+		 * 
+		 * @param point
+		 *            Vector in the tree
+		 * @param query
+		 *            Vector being looked up
+		 * @param limit
+		 *            Distances over this limit do not need to be exact
+		 * @return Distance between the vectors, never negative
+		 */
+		public double distance(double[] point, double[] query, double limit);
+	}
+	
+	/**
+	 * Receives the points found by a search
+	 */
+	public interface IVisitor {
+		
+		/**
+		 * Called for each point found
+		 * 
+		 * @param index
+		 *            Position of the point in the list the tree was built from
+		 * @param distance
+		 *            Distance from the point to the query
+		 */
+		public void visit(int index, double distance);
+	}
+	
+	/**
+	 * Squared Euclidean distance, stopping once the limit is passed
+	 */
+	public static final IDistance S_SQUARED_EUCLIDEAN = new IDistance() {
+		
+		public double distance(double[] point, double[] query, double limit) {
+			double dist = 0;
+			for (int i = 0; i < point.length; i++) {
+				double diff = point[i] - query[i];
+				dist += diff * diff;
+				if (dist > limit) {
+					return dist;
+				}
+			}
+			return dist;
+		}
+	};
+	
+	/**
+	 * Nodes with this many points or fewer are scanned directly
+	 */
+	private static final int S_LEAF_SIZE = 8;
+	
+	/**
+	 * Relative slack allowed on the triangle inequality when pruning, to
+	 * cover rounding
+	 */
+	private static final double S_SLACK = 1e-9;
+	
+	/**
+	 * Distance between points
+	 */
+	private IDistance m_distance;
+	
+	/**
+	 * Points, in tree order. Each node covers a range of positions and its
+	 * vantage point is the first position in the range.
+	 */
+	private double[][] m_points;
+	
+	/**
+	 * Position of each point in the list the tree was built from, in tree
+	 * order
+	 */
+	private int[] m_indices;
+	
+	/**
+	 * Largest metric distance from the vantage point of a node to a point in
+	 * its inner half, by node position
+	 */
+	private double[] m_inner;
+	
+	/**
+	 * Smallest metric distance from the vantage point of a node to a point
+	 * in its outer half, by node position
+	 */
+	private double[] m_outer;
+	
+	/**
+	 * Largest metric distance from the vantage point of a node to any of its
+	 * points, by node position
+	 */
+	private double[] m_cover;
+	
+	
+	/**
+	 * Build a tree over the points. The points are not copied and must not
+	 * change while the tree is in use.
+	 * 
+	 * @param points
+	 *            Points to index
+	 * @param distance
+	 *            Distance between points
+	 */
+	public VPTree(List<double[]> points, IDistance distance) {
+		m_distance = distance;
+		
+		int n = points.size();
+		m_points = new double[n][];
+		m_indices = new int[n];
+		for (int i = 0; i < n; i++) {
+			m_points[i] = points.get(i);
+			m_indices[i] = i;
+		}
+		
+		m_inner = new double[n];
+		m_outer = new double[n];
+		m_cover = new double[n];
+		build(0, n, new double[n]);
+	}
+	
+
+	/**
+	 * Get the number of points in the tree
+	 * 
+	 * @return Number of points
+	 */
+	public int size() {
+		return m_points.length;
+	}
+	
+
+	/**
+	 * Find the point nearest to the query. Ties go to the point that came
+	 * first in the list the tree was built from.
+	 * 
+	 * @param query
+	 *            Vector to look up
+	 * @return Position of the nearest point in the list the tree was built
+	 *         from, or -1 if the tree is empty or no distance is finite
+	 */
+	public int nearest(double[] query) {
+		Nearest best = new Nearest();
+		nearest(0, m_points.length, query, best);
+		return best.m_index;
+	}
+	
+
+	/**
+	 * Find the distance from each point in the tree to the nearest of the
+	 * queries. This is the reverse of a nearest neighbor search: every point
+	 * gets a value, and a whole node is skipped for a query when it cannot
+	 * get closer to any of its points than their nearest query so far.
+	 * 
+	 * @param queries
+	 *            Vectors to look up
+	 * @param nearest
+	 *            Array to fill, at least as long as the tree is big, or null
+	 *            to make a new one. What it holds going in is ignored.
+	 * @return Distance from each point, by its position in the list the tree
+	 *         was built from, to its nearest query. Points with no query get
+	 *         positive infinity.
+	 */
+	public double[] nearestDistances(List<double[]> queries, double[] nearest) {
+		int n = m_points.length;
+		if (nearest == null) {
+			nearest = new double[n];
+		}
+		Arrays.fill(nearest, 0, n, Double.POSITIVE_INFINITY);
+		
+		// Largest nearest distance within each node
+		double[] nodeMax = new double[n];
+		Arrays.fill(nodeMax, Double.POSITIVE_INFINITY);
+		
+		if (n == 0) {
+			return nearest;
+		}
+		for (double[] query : queries) {
+			nearestDistances(0, n, query, nearest, nodeMax);
+		}
+		return nearest;
+	}
+	
+
+	/**
+	 * Visit every point within a distance of the query, in no particular
+	 * order
+	 * 
+	 * @param query
+	 *            Vector to look up
+	 * @param limit
+	 *            Points at this distance or closer are visited
+	 * @param visitor
+	 *            Receives the points found
+	 */
+	public void forEachWithin(double[] query, double limit, IVisitor visitor) {
+		forEachWithin(0, m_points.length, query, limit, visitor);
+	}
+	
+
+	/**
+	 * Build the node covering a range of positions
+	 * 
+	 * @param from
+	 *            First position of the node
+	 * @param to
+	 *            One past the last position of the node
+	 * @param dist
+	 *            Scratch space for distances to the vantage point, by
+	 *            position
+	 */
+	private void build(int from, int to, final double[] dist) {
+		if (to - from <= S_LEAF_SIZE) {
+			return;
+		}
+		
+		double[] vantage = m_points[from];
+		Integer[] order = new Integer[to - from - 1];
+		for (int i = from + 1; i < to; i++) {
+			dist[i] = metric(m_distance.distance(m_points[i], vantage,
+			        Double.POSITIVE_INFINITY));
+			order[i - from - 1] = i;
+		}
+		
+		// Sort by distance, breaking ties by position so the tree is the
+		// same every time
+		Arrays.sort(order, new Comparator<Integer>() {
+			
+			public int compare(Integer i1, Integer i2) {
+				int cmp = Double.compare(dist[i1], dist[i2]);
+				return cmp != 0 ? cmp : i1.compareTo(i2);
+			}
+		});
+		
+		double[][] points = new double[order.length][];
+		int[] indices = new int[order.length];
+		double[] sorted = new double[order.length];
+		for (int i = 0; i < order.length; i++) {
+			points[i] = m_points[order[i]];
+			indices[i] = m_indices[order[i]];
+			sorted[i] = dist[order[i]];
+		}
+		System.arraycopy(points, 0, m_points, from + 1, order.length);
+		System.arraycopy(indices, 0, m_indices, from + 1, order.length);
+		
+		int mid = from + 1 + order.length / 2;
+		m_inner[from] = sorted[mid - from - 2];
+		m_outer[from] = sorted[mid - from - 1];
+		m_cover[from] = sorted[order.length - 1];
+		
+		build(from + 1, mid, dist);
+		build(mid, to, dist);
+	}
+	
+
+	/**
+	 * Search a node for the nearest point
+	 * 
+	 * @param from
+	 *            First position of the node
+	 * @param to
+	 *            One past the last position of the node
+	 * @param query
+	 *            Vector to look up
+	 * @param best
+	 *            Nearest point so far
+	 */
+	private void nearest(int from, int to, double[] query, Nearest best) {
+		if (to - from <= S_LEAF_SIZE) {
+			for (int i = from; i < to; i++) {
+				best.offer(m_indices[i], m_distance.distance(m_points[i],
+				        query, best.m_distance));
+			}
+			return;
+		}
+		
+		double limit = vantageLimit(from, best.m_distance, best.m_distance);
+		double d = m_distance.distance(m_points[from], query, limit);
+		best.offer(m_indices[from], d);
+		
+		double dv = metric(d);
+		boolean exact = !(d > limit);
+		int mid = from + 1 + (to - from - 1) / 2;
+		if (dv > (m_inner[from] + m_outer[from]) / 2) {
+			if (!outsideCannotReach(from, dv, exact, best.m_distance)) {
+				nearest(mid, to, query, best);
+			}
+			if (!insideCannotReach(from, dv, best.m_distance)) {
+				nearest(from + 1, mid, query, best);
+			}
+		}
+		else {
+			if (!insideCannotReach(from, dv, best.m_distance)) {
+				nearest(from + 1, mid, query, best);
+			}
+			if (!outsideCannotReach(from, dv, exact, best.m_distance)) {
+				nearest(mid, to, query, best);
+			}
+		}
+	}
+	
+
+	/**
+	 * Bring the nearest distances of the points in a node up to date with a
+	 * query
+	 * 
+	 * @param from
+	 *            First position of the node
+	 * @param to
+	 *            One past the last position of the node
+	 * @param query
+	 *            Vector to look up
+	 * @param nearest
+	 *            Nearest distance of each point, by index
+	 * @param nodeMax
+	 *            Largest nearest distance within each node, by position
+	 */
+	private void nearestDistances(int from, int to, double[] query,
+	        double[] nearest, double[] nodeMax) {
+		if (to - from <= S_LEAF_SIZE) {
+			double max = 0;
+			for (int i = from; i < to; i++) {
+				int index = m_indices[i];
+				double d = m_distance.distance(m_points[i], query,
+				        nearest[index]);
+				if (d < nearest[index]) {
+					nearest[index] = d;
+				}
+				max = Math.max(max, nearest[index]);
+			}
+			nodeMax[from] = max;
+			return;
+		}
+		
+		int index = m_indices[from];
+		int mid = from + 1 + (to - from - 1) / 2;
+		double limit = Math.max(nearest[index], vantageLimit(from,
+		        nodeMax[from + 1], nodeMax[mid]));
+		double d = m_distance.distance(m_points[from], query, limit);
+		if (d < nearest[index]) {
+			nearest[index] = d;
+		}
+		
+		double dv = metric(d);
+		boolean exact = !(d > limit);
+		if (!insideCannotReach(from, dv, nodeMax[from + 1])) {
+			nearestDistances(from + 1, mid, query, nearest, nodeMax);
+		}
+		if (!outsideCannotReach(from, dv, exact, nodeMax[mid])) {
+			nearestDistances(mid, to, query, nearest, nodeMax);
+		}
+		nodeMax[from] = Math.max(nearest[index], Math.max(nodeMax[from + 1],
+		        nodeMax[mid]));
+	}
+	
+
+	/**
+	 * Visit the points in a node within a distance of the query
+	 * 
+	 * @param from
+	 *            First position of the node
+	 * @param to
+	 *            One past the last position of the node
+	 * @param query
+	 *            Vector to look up
+	 * @param limit
+	 *            Points at this distance or closer are visited
+	 * @param visitor
+	 *            Receives the points found
+	 */
+	private void forEachWithin(int from, int to, double[] query,
+	        double limit, IVisitor visitor) {
+		if (to - from <= S_LEAF_SIZE) {
+			for (int i = from; i < to; i++) {
+				double d = m_distance.distance(m_points[i], query, limit);
+				if (d <= limit) {
+					visitor.visit(m_indices[i], d);
+				}
+			}
+			return;
+		}
+		
+		double vantageLimit = vantageLimit(from, limit, limit);
+		double d = m_distance.distance(m_points[from], query, vantageLimit);
+		if (d <= limit) {
+			visitor.visit(m_indices[from], d);
+		}
+		
+		double dv = metric(d);
+		boolean exact = !(d > vantageLimit);
+		int mid = from + 1 + (to - from - 1) / 2;
+		if (!insideCannotReach(from, dv, limit)) {
+			forEachWithin(from + 1, mid, query, limit, visitor);
+		}
+		if (!outsideCannotReach(from, dv, exact, limit)) {
+			forEachWithin(mid, to, query, limit, visitor);
+		}
+	}
+	
+
+	/**
+	 * Get how far the distance to the vantage point of a node needs to be
+	 * worked out. Past this both halves of the node are out of reach on the
+	 * lower bound alone, so the exact distance does not matter.
+	 * 
+	 * @param node
+	 *            Position of the node
+	 * @param innerLimit
+	 *            Distance (not metric distance) to beat in the inner half
+	 * @param outerLimit
+	 *            Distance (not metric distance) to beat in the outer half
+	 * @return Limit for the distance to the vantage point
+	 */
+	private double vantageLimit(int node, double innerLimit, double outerLimit) {
+		double reach = Math.max(m_inner[node] + slack(metric(innerLimit)),
+		        m_cover[node] + slack(metric(outerLimit)));
+		return reach * reach;
+	}
+	
+
+	/**
+	 * Can no point in the inner half of a node be within a distance of the
+	 * query?
+	 * 
+	 * @param node
+	 *            Position of the node
+	 * @param dv
+	 *            Metric distance from the query to the vantage point
+	 * @param limit
+	 *            Distance (not metric distance) to beat
+	 * @return True if the inner half can be skipped
+	 */
+	private boolean insideCannotReach(int node, double dv, double limit) {
+		return cannotReach(dv - m_inner[node], metric(limit));
+	}
+	
+
+	/**
+	 * Can no point in the outer half of a node be within a distance of the
+	 * query?
+	 * 
+	 * @param node
+	 *            Position of the node
+	 * @param dv
+	 *            Metric distance from the query to the vantage point, or a
+	 *            lower bound on it if not exact
+	 * @param exact
+	 *            Is dv the exact metric distance?
+	 * @param limit
+	 *            Distance (not metric distance) to beat
+	 * @return True if the outer half can be skipped
+	 */
+	private boolean outsideCannotReach(int node, double dv, boolean exact,
+	        double limit) {
+		double lowerBound = dv - m_cover[node];
+		if (exact) {
+			lowerBound = Math.max(m_outer[node] - dv, lowerBound);
+		}
+		return cannotReach(lowerBound, metric(limit));
+	}
+	
+
+	/**
+	 * Is a lower bound on the metric distance clearly past the limit? False
+	 * whenever either value is not a number, so nothing is skipped on bad
+	 * data.
+	 * 
+	 * @param lowerBound
+	 *            Lower bound on the metric distance to any point in a node
+	 * @param metricLimit
+	 *            Metric distance to beat
+	 * @return True if the node can be skipped
+	 */
+	private static boolean cannotReach(double lowerBound, double metricLimit) {
+		return lowerBound > slack(metricLimit);
+	}
+	
+
+	/**
+	 * Widen a metric distance by the slack allowed for rounding
+	 * 
+	 * @param metricDistance
+	 *            Metric distance
+	 * @return The metric distance plus the slack
+	 */
+	private static double slack(double metricDistance) {
+		return metricDistance * (1 + S_SLACK) + S_SLACK;
+	}
+	
+
+	/**
+	 * Get the metric distance for a distance
+	 * 
+	 * @param distance
+	 *            Distance
+	 * @return Its square root, treating rounding below zero as zero
+	 */
+	private static double metric(double distance) {
+		return Math.sqrt(Math.max(distance, 0));
+	}
+	
+	/**
+	 * Nearest point found so far
+	 */
+	private static class Nearest {
+		
+		/**
+		 * Index of the point, or -1 if there is none yet
+		 */
+		private int m_index = -1;
+		
+		/**
+		 * Distance to the point
+		 */
+		private double m_distance = Double.POSITIVE_INFINITY;
+		
+		
+		/**
+		 * Keep a point if it is nearer than the best so far, or as near and
+		 * earlier in the list
+		 * 
+		 * @param index
+		 *            Index of the point
+		 * @param distance
+		 *            Distance to the point
+		 */
+		public void offer(int index, double distance) {
+			if (distance < m_distance
+			    || (distance == m_distance && index < m_index)) {
+				m_index = index;
+				m_distance = distance;
+			}
+		}
+	}
+}
@@ -142,6 +142,20 @@ public class QuadraticClassifier extends Classifier implements
 	}
 	
 
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.ladder.patternrec.classifiers.core.Classifier#clone()
+	 */
+	@Override
+	public QuadraticClassifier clone() {
+		QuadraticClassifier copy = (QuadraticClassifier) super.clone();
+		copy.m_det = new CList();
+		copy.m_inv = new ArrayList<Matrix>();
+		return copy;
+	}
+	
+
 	/*
 	 * (non-Javadoc)
 	 * 
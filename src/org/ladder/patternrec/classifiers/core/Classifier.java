@@ -44,7 +44,7 @@ import java.util.List;
  * 
  * @author bpaulson
  */
-public abstract class Classifier {
+public abstract class Classifier implements Cloneable {
 	
 	/**
 	 * Function used to train the classifier
@@ -96,6 +96,28 @@ public abstract class Classifier {
 	}
 	
 
+	/**
+	 * Make an untrained copy of the classifier with the same settings. Copies
+	 * can be trained on different data at the same time, so subclasses that
+	 * fill in objects during {@link #train()} rather than replacing them must
+	 * give the copy its own.
+	 * 
+	 * @return untrained copy of the classifier
+	 */
+	@Override
+	public Classifier clone() {
+		try {
+			Classifier copy = (Classifier) super.clone();
+			copy.m_train = null;
+			copy.m_numFeatures = -1;
+			return copy;
+		}
+		catch (CloneNotSupportedException e) {
+			throw new InternalError(e.toString());
+		}
+	}
+	
+
 	/**
 	 * String description of classifier
 	 * 
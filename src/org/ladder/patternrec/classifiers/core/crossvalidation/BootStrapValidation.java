@@ -37,19 +37,13 @@
  */
 package org.ladder.patternrec.classifiers.core.crossvalidation;
 
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Random;
 
-import org.ladder.patternrec.classifiers.core.CList;
-import org.ladder.patternrec.classifiers.core.CResult;
 import org.ladder.patternrec.classifiers.core.Classifiable;
 import org.ladder.patternrec.classifiers.core.Classifier;
 import org.ladder.patternrec.classifiers.core.DataSet;
 import org.ladder.patternrec.classifiers.core.ExampleSet;
 
-import Jama.Matrix;
-
 /**
  * Bootstrap cross-validation technique
  * 
@@ -94,100 +88,60 @@ public class BootStrapValidation extends CrossValidation {
 	 * 
 	 * @see
 	 * org.ladder.patternrec.classifiers.core.crossvalidation.CrossValidation
-	 * #run()
+	 * #prepareFolds()
 	 */
 	@Override
-	public void run() {
-		m_acc.clear();
-		m_perClassAcc.clear();
-		m_confusion = new Matrix(m_data.size(), m_data.size());
-		for (int i = 0; i < m_data.size(); i++)
-			m_perClassAcc.add(0.0);
-		for (int i = 0; i < m_folds; i++) {
-			m_acc.add(DoTest());
-		}
-		for (int i = 0; i < m_data.size(); i++) {
-			m_perClassAcc.set(i, m_perClassAcc.get(i) / m_folds);
-			;
-			double sum = 0.0;
-			for (int j = 0; j < m_data.size(); j++) {
-				sum += m_confusion.get(i, j);
-				m_confusion.set(i, j, m_confusion.get(i, j) / m_folds);
-			}
-			
-			// normalize confusion matrix
-			for (int j = 0; j < m_data.size(); j++)
-				m_confusion.set(i, j, m_confusion.get(i, j) / sum);
-		}
+	protected int prepareFolds() {
+		return m_folds;
 	}
 	
 
 	/**
 	 * Perform one round of bootstrapping
 	 * 
-	 * @return accuracy of the round
+	 * @param fold
+	 *            index of the round
+	 * @param random
+	 *            random source for the round
+	 * @param classifier
+	 *            untrained copy of the classifier for the round
+	 * @return results of the round
 	 */
-	private double DoTest() {
+	@Override
+	protected FoldResult doFold(int fold, Random random, Classifier classifier) {
 		DataSet train = new DataSet();
 		DataSet test = new DataSet();
-		double numTested = 0.0;
-		double numCorrect = 0.0;
-		Random random = new Random();
-		List<Integer> rand = new ArrayList<Integer>();
-		CList numClassTested = new CList();
-		CList numClassCorrect = new CList();
-		int numTrain = (int) (m_pctChoose * m_data.getNumExamples());
-		for (int i = 0; i < m_data.size(); i++) {
-			numClassTested.add(0.0);
-			numClassCorrect.add(0.0);
-		}
+		int numExamples = m_data.getNumExamples();
+		int numTrain = (int) (m_pctChoose * numExamples);
+		boolean[] chosen = new boolean[numExamples];
 		
 		boolean badSplit = true;
 		while (badSplit) {
-			rand.clear();
 			train.removeAll();
 			test.removeAll();
-			for (int i = 0; i < numTrain; i++)
-				rand.add(random.nextInt(m_data.getNumExamples()));
+			for (int i = 0; i < numExamples; i++)
+				chosen[i] = false;
 			
 			for (int i = 0; i < m_data.size(); i++) {
 				train.add(new ExampleSet());
 				test.add(new ExampleSet());
 			}
 			
-			for (int i = 0; i < rand.size(); i++) {
-				int curr = rand.get(i);
-				Classifiable c = null;
-				boolean done = false;
-				for (int j = 0; j < m_data.size() && !done; j++) {
-					if (curr < m_data.get(j).size()) {
-						done = true;
-						c = m_data.get(j, curr);
-					}
-					else
-						curr -= m_data.get(j).size();
-				}
+			for (int i = 0; i < numTrain; i++) {
+				int curr = random.nextInt(numExamples);
+				Classifiable c = getExample(curr);
 				train.get(c.getClassNum()).add(c);
+				chosen[curr] = true;
 			}
-			for (int i = 0; i < m_data.getNumExamples(); i++) {
-				if (!rand.contains((Integer) i)) {
-					int curr = i;
-					Classifiable c = null;
-					boolean done = false;
-					for (int j = 0; j < m_data.size() && !done; j++) {
-						if (curr < m_data.get(j).size()) {
-							done = true;
-							c = m_data.get(j, curr);
-						}
-						else
-							curr -= m_data.get(j).size();
-					}
+			for (int i = 0; i < numExamples; i++) {
+				if (!chosen[i]) {
+					Classifiable c = getExample(i);
 					test.get(c.getClassNum()).add(c);
 				}
 			}
 			
 			try {
-				m_classifier.setTrainData(train);
+				classifier.setTrainData(train);
 				badSplit = false;
 			}
 			catch (Exception e) {
@@ -196,33 +150,10 @@ public class BootStrapValidation extends CrossValidation {
 		}
 		
 		// train classifier
-		m_classifier.train();
+		classifier.train();
 		
 		// perform test
-		for (int i = 0; i < test.size(); i++) {
-			for (Classifiable c : test.get(i)) {
-				List<CResult> results = m_classifier.classify(c);
-				m_confusion.set(c.getClassNum(), results.get(0)
-				        .getClassChosen(), m_confusion.get(c.getClassNum(),
-				        results.get(0).getClassChosen()) + 1.0);
-				if (results.get(0).getClassChosen() == c.getClassNum()) {
-					numClassCorrect.set(c.getClassNum(), numClassCorrect.get(c
-					        .getClassNum()) + 1.0);
-					numCorrect++;
-				}
-				numClassTested.set(c.getClassNum(), numClassTested.get(c
-				        .getClassNum()) + 1.0);
-				numTested++;
-			}
-		}
-		
-		for (int i = 0; i < m_data.size(); i++) {
-			m_perClassAcc.set(i, m_perClassAcc.get(i)
-			                     + (numClassCorrect.get(i) / numClassTested
-			                             .get(i)));
-		}
-		
-		return numCorrect / numTested;
+		return test(classifier, test);
 	}
 	
 
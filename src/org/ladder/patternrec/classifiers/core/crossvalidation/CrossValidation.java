@@ -37,14 +37,26 @@
  */
 package org.ladder.patternrec.classifiers.core.crossvalidation;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+
+import org.ladder.core.config.WorkerPool;
 import org.ladder.patternrec.classifiers.core.CList;
+import org.ladder.patternrec.classifiers.core.CResult;
+import org.ladder.patternrec.classifiers.core.Classifiable;
 import org.ladder.patternrec.classifiers.core.Classifier;
 import org.ladder.patternrec.classifiers.core.DataSet;
+import org.ladder.patternrec.classifiers.core.ExampleSet;
 
 import Jama.Matrix;
 
 /**
- * Cross validation class for performing cross validation tests
+ * Cross validation class for performing cross validation tests. Each fold is
+ * trained and tested on its own copy of the classifier with its own random
+ * source, so the folds run at the same time on the cross validation threads
+ * and a run can be repeated exactly by setting the same seed.
  * 
  * @author bpaulson
  */
@@ -76,6 +88,21 @@ public abstract class CrossValidation implements Comparable<CrossValidation> {
 	 */
 	protected Matrix m_confusion;
 	
+	/**
+	 * Seed for the random sources of the folds
+	 */
+	protected long m_seed = new Random().nextLong();
+	
+	/**
+	 * Listeners told as each fold finishes
+	 */
+	private List<IFoldListener> m_listeners = new ArrayList<IFoldListener>();
+	
+	/**
+	 * Number of folds finished so far in the current run
+	 */
+	private int m_numFinished;
+	
 	
 	/**
 	 * Get the classifier used for cross validation
@@ -108,6 +135,55 @@ public abstract class CrossValidation implements Comparable<CrossValidation> {
 	}
 	
 
+	/**
+	 * Get the seed the random source of each fold is drawn from. Unless it is
+	 * set, each cross validation picks its own.
+	 * 
+	 * @return seed
+	 */
+	public long getSeed() {
+		return m_seed;
+	}
+	
+
+	/**
+	 * Set the seed the random source of each fold is drawn from, so that a run
+	 * picks the same folds as an earlier one
+	 * 
+	 * @param seed
+	 *            seed
+	 */
+	public void setSeed(long seed) {
+		m_seed = seed;
+	}
+	
+
+	/**
+	 * Add a listener to be told as each fold finishes
+	 * 
+	 * @param listener
+	 *            listener to add
+	 */
+	public void addFoldListener(IFoldListener listener) {
+		synchronized (m_listeners) {
+			m_listeners.add(listener);
+		}
+	}
+	
+
+	/**
+	 * Remove a listener added with {@link #addFoldListener(IFoldListener)}
+	 * 
+	 * @param listener
+	 *            listener to remove
+	 */
+	public void removeFoldListener(IFoldListener listener) {
+		synchronized (m_listeners) {
+			m_listeners.remove(listener);
+		}
+	}
+	
+
 	/**
 	 * Get the average accuracy across all folds
 	 * 
@@ -142,7 +218,9 @@ public abstract class CrossValidation implements Comparable<CrossValidation> {
 	
 
 	/**
-	 * Get the confusion matrix
+	 * Get the confusion matrix, averaged over the folds. Row i is the
+	 * fraction of the tested examples of class i that were classified as each
+	 * class, so each row sums to 1.
 	 * 
 	 * @return confusion matrix
 	 */
@@ -152,9 +230,200 @@ public abstract class CrossValidation implements Comparable<CrossValidation> {
 	
 
 	/**
-	 * Function used to perform cross validation tests
+	 * Function used to perform cross validation tests. The folds are run on
+	 * the cross validation threads and their results are added up in fold
+	 * order once they have all finished. The classifier given to the cross
+	 * validation is only copied, never trained.
+	 */
+	public void run() {
+		m_acc.clear();
+		m_perClassAcc.clear();
+		m_confusion = new Matrix(m_data.size(), m_data.size());
+		for (int i = 0; i < m_data.size(); i++)
+			m_perClassAcc.add(0.0);
+		
+		// compute features now so the folds only ever read the shared examples
+		for (ExampleSet s : m_data.getAllSets())
+			s.calculateFeatureVectors();
+		
+		int numFolds = prepareFolds();
+		FoldResult[] results = runFolds(numFolds);
+		for (int i = 0; i < numFolds; i++)
+			if (results[i] != null)
+				addFold(i, results[i]);
+		
+		for (int i = 0; i < m_data.size(); i++) {
+			m_perClassAcc.set(i, m_perClassAcc.get(i) / numFolds);
+			double sum = 0.0;
+			for (int j = 0; j < m_data.size(); j++) {
+				m_confusion.set(i, j, m_confusion.get(i, j) / numFolds);
+				sum += m_confusion.get(i, j);
+			}
+			
+			// normalize confusion matrix
+			for (int j = 0; j < m_data.size(); j++)
+				m_confusion.set(i, j, m_confusion.get(i, j) / sum);
+		}
+	}
+	
+
+	/**
+	 * Get ready to run the folds
+	 * 
+	 * @return number of folds to run
 	 */
-	public abstract void run();
+	protected abstract int prepareFolds();
+	
+
+	/**
+	 * Train and test a single fold. Folds run at the same time, so this must
+	 * not change anything the folds share, including the examples in the data
+	 * set.
+	 * 
+	 * @param fold
+	 *            index of the fold
+	 * @param random
+	 *            random source for the fold
+	 * @param classifier
+	 *            untrained copy of the classifier for the fold
+	 * @return results of testing the fold
+	 * @throws Exception
+	 *             if the classifier could not be trained
+	 */
+	protected abstract FoldResult doFold(int fold, Random random,
+	        Classifier classifier) throws Exception;
+	
+
+	/**
+	 * Add the results of a fold to the totals. Called in fold order once all
+	 * the folds have finished.
+	 * 
+	 * @param fold
+	 *            index of the fold
+	 * @param result
+	 *            results of testing the fold
+	 */
+	protected void addFold(int fold, FoldResult result) {
+		m_acc.add(result.getAccuracy());
+		m_confusion.plusEquals(result.getConfusion());
+		for (int i = 0; i < m_data.size(); i++)
+			m_perClassAcc.set(i, m_perClassAcc.get(i)
+			                     + result.getClassAccuracy(i));
+	}
+	
+
+	/**
+	 * Classify each example in a test set with a trained classifier
+	 * 
+	 * @param classifier
+	 *            trained classifier
+	 * @param test
+	 *            test set
+	 * @return results of the test
+	 */
+	protected FoldResult test(Classifier classifier, DataSet test) {
+		FoldResult result = new FoldResult(m_data.size());
+		for (int i = 0; i < test.size(); i++) {
+			for (Classifiable c : test.get(i)) {
+				List<CResult> results = classifier.classify(c);
+				result.add(c.getClassNum(), results.get(0).getClassChosen());
+			}
+		}
+		return result;
+	}
+	
+
+	/**
+	 * Get an example by its position in the whole data set, counting through
+	 * each example set in turn
+	 * 
+	 * @param index
+	 *            position of the example
+	 * @return example
+	 */
+	protected Classifiable getExample(int index) {
+		for (int j = 0; j < m_data.size(); j++) {
+			if (index < m_data.get(j).size())
+				return m_data.get(j, index);
+			index -= m_data.get(j).size();
+		}
+		return null;
+	}
+	
+
+	/**
+	 * Run each fold on the cross validation threads
+	 * 
+	 * @param numFolds
+	 *            number of folds
+	 * @return results of each fold, null for folds that could not be run
+	 */
+	private FoldResult[] runFolds(final int numFolds) {
+		final FoldResult[] results = new FoldResult[numFolds];
+		final Random[] randoms = new Random[numFolds];
+		final Classifier[] classifiers = new Classifier[numFolds];
+		Random seeds = new Random(m_seed);
+		for (int i = 0; i < numFolds; i++) {
+			randoms[i] = new Random(seeds.nextLong());
+			classifiers[i] = m_classifier.clone();
+		}
+		m_numFinished = 0;
+		
+		if (WorkerPool.runInline(numFolds)) {
+			for (int i = 0; i < numFolds; i++)
+				results[i] = runFold(i, numFolds, randoms[i], classifiers[i]);
+			return results;
+		}
+		
+		List<Callable<Object>> tasks = new ArrayList<Callable<Object>>(
+		        numFolds);
+		for (int i = 0; i < numFolds; i++) {
+			final int fold = i;
+			tasks.add(new Callable<Object>() {
+				
+				public Object call() {
+					results[fold] = runFold(fold, numFolds, randoms[fold],
+					        classifiers[fold]);
+					return null;
+				}
+			});
+		}
+		WorkerPool.invokeAll(tasks);
+		return results;
+	}
+	
+
+	/**
+	 * Run a single fold and tell the listeners it finished
+	 * 
+	 * @param fold
+	 *            index of the fold
+	 * @param numFolds
+	 *            number of folds
+	 * @param random
+	 *            random source for the fold
+	 * @param classifier
+	 *            untrained copy of the classifier for the fold
+	 * @return results of the fold, or null if it could not be run
+	 */
+	private FoldResult runFold(int fold, int numFolds, Random random,
+	        Classifier classifier) {
+		FoldResult result = null;
+		try {
+			result = doFold(fold, random, classifier);
+		}
+		catch (Exception e) {
+			e.printStackTrace();
+		}
+		
+		double acc = (result == null) ? Double.NaN : result.getAccuracy();
+		synchronized (m_listeners) {
+			m_numFinished++;
+			for (IFoldListener listener : m_listeners)
+				listener.foldFinished(this, fold, acc, m_numFinished, numFolds);
+		}
+		return result;
+	}
 	
 
 	/**
@@ -179,4 +448,101 @@ public abstract class CrossValidation implements Comparable<CrossValidation> {
 		else
 			return 1;
 	}
+	
+	/**
+	 * Results of testing a single fold
+	 */
+	protected static class FoldResult {
+		
+		/**
+		 * Counts of each actual class (row) being chosen as each class
+		 * (column)
+		 */
+		private Matrix m_confusion;
+		
+		/**
+		 * Number of examples of each class classified correctly
+		 */
+		private double[] m_numClassCorrect;
+		
+		/**
+		 * Number of examples of each class tested
+		 */
+		private double[] m_numClassTested;
+		
+		/**
+		 * Number of examples classified correctly
+		 */
+		private double m_numCorrect = 0.0;
+		
+		/**
+		 * Number of examples tested
+		 */
+		private double m_numTested = 0.0;
+		
+		
+		/**
+		 * Constructor for fold results
+		 * 
+		 * @param numClasses
+		 *            number of classes
+		 */
+		public FoldResult(int numClasses) {
+			m_confusion = new Matrix(numClasses, numClasses);
+			m_numClassCorrect = new double[numClasses];
+			m_numClassTested = new double[numClasses];
+		}
+		
+
+		/**
+		 * Count a classified example
+		 * 
+		 * @param actual
+		 *            class the example is from
+		 * @param chosen
+		 *            class the classifier chose
+		 */
+		public void add(int actual, int chosen) {
+			m_confusion.set(actual, chosen, m_confusion.get(actual, chosen) + 1.0);
+			if (chosen == actual) {
+				m_numClassCorrect[actual]++;
+				m_numCorrect++;
+			}
+			m_numClassTested[actual]++;
+			m_numTested++;
+		}
+		
+
+		/**
+		 * Get the counts of each actual class (row) being chosen as each class
+		 * (column)
+		 * 
+		 * @return confusion counts
+		 */
+		public Matrix getConfusion() {
+			return m_confusion;
+		}
+		
+
+		/**
+		 * Get the accuracy over all the examples tested
+		 * 
+		 * @return accuracy
+		 */
+		public double getAccuracy() {
+			return m_numCorrect / m_numTested;
+		}
+		
+
+		/**
+		 * Get the accuracy over the examples of a single class
+		 * 
+		 * @param classNum
+		 *            class number
+		 * @return accuracy for the class
+		 */
+		public double getClassAccuracy(int classNum) {
+			return m_numClassCorrect[classNum] / m_numClassTested[classNum];
+		}
+	}
 }
@@ -39,16 +39,13 @@ package org.ladder.patternrec.classifiers.core.crossvalidation;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
 
 import org.ladder.patternrec.classifiers.core.CList;
-import org.ladder.patternrec.classifiers.core.CResult;
-import org.ladder.patternrec.classifiers.core.Classifiable;
 import org.ladder.patternrec.classifiers.core.Classifier;
 import org.ladder.patternrec.classifiers.core.DataSet;
 import org.ladder.patternrec.classifiers.core.ExampleSet;
 
-import Jama.Matrix;
-
 /**
  * Allows one to perform leave-one-out validation based on users (gives idea
  * about a user-independent system)
@@ -62,6 +59,11 @@ public class LeaveOneOutUserValidation extends CrossValidation {
 	 */
 	protected List<CList> m_perUserPerClass = new ArrayList<CList>();
 	
+	/**
+	 * Data set of the examples from each user
+	 */
+	private List<DataSet> m_userSets = new ArrayList<DataSet>();
+	
 	
 	/**
 	 * Constructor for leave-one-out (user-based) validation
@@ -92,119 +94,82 @@ public class LeaveOneOutUserValidation extends CrossValidation {
 	 * 
 	 * @see
 	 * org.ladder.patternrec.classifiers.core.crossvalidation.CrossValidation
-	 * #run()
+	 * #prepareFolds()
 	 */
 	@Override
-	public void run() {
-		m_acc.clear();
-		m_perClassAcc.clear();
+	protected int prepareFolds() {
 		m_perUserPerClass.clear();
-		m_confusion = new Matrix(m_data.size(), m_data.size());
-		for (int i = 0; i < m_data.size(); i++)
-			m_perClassAcc.add(0.0);
-		List<DataSet> userSets = new ArrayList<DataSet>();
+		m_userSets.clear();
 		for (int i = 0; i < m_data.getUserNumbers().size(); i++) {
 			m_perUserPerClass.add(new CList());
 			for (int j = 0; j < m_data.size(); j++)
 				m_perUserPerClass.get(i).add(0.0);
-			userSets.add(new DataSet());
+			m_userSets.add(new DataSet());
 		}
 		for (int i = 0; i < m_data.size(); i++) {
 			for (int j = 0; j < m_data.getUserNumbers().size(); j++)
-				userSets.get(j).add(new ExampleSet());
+				m_userSets.get(j).add(new ExampleSet());
 			for (int j = 0; j < m_data.get(i).size(); j++) {
 				int index = m_data.getUserNumbers().indexOf(
 				        m_data.get(i, j).getUserNum());
-				userSets.get(index).get(i).add(m_data.get(i, j));
-				userSets.get(index).get(i).setLabel(m_data.get(i).getLabel());
-			}
-		}
-		for (int i = 0; i < userSets.size(); i++) {
-			try {
-				m_acc.add(DoTest(i, userSets));
-			}
-			catch (Exception e) {
-				e.printStackTrace();
-			}
-		}
-		for (int i = 0; i < m_data.size(); i++) {
-			m_perClassAcc.set(i, m_perClassAcc.get(i) / userSets.size());
-			double sum = 0.0;
-			for (int j = 0; j < m_data.size(); j++) {
-				m_confusion.set(i, j, m_confusion.get(i, j) / userSets.size());
-				sum += m_confusion.get(i, j);
+				m_userSets.get(index).get(i).add(m_data.get(i, j));
+				m_userSets.get(index).get(i).setLabel(m_data.get(i).getLabel());
 			}
-			
-			// normalize confusion matrix
-			for (int j = 0; j < m_data.size(); j++)
-				m_confusion.set(i, j, m_confusion.get(i, j) / sum);
 		}
+		return m_userSets.size();
 	}
 	
 
 	/**
-	 * Perform a single iteration
+	 * Perform a single iteration, testing on one user after training on the
+	 * rest
 	 * 
 	 * @param num
-	 *            round number
-	 * @param userSets
-	 *            list of datasets (per user)
-	 * @return accuracy of test
+	 *            index of the user to test on
+	 * @param random
+	 *            random source for the iteration (unused)
+	 * @param classifier
+	 *            untrained copy of the classifier for the iteration
+	 * @return results of the iteration
 	 * @throws Exception
 	 */
-	private double DoTest(int num, List<DataSet> userSets) throws Exception {
+	@Override
+	protected FoldResult doFold(int num, Random random, Classifier classifier)
+	        throws Exception {
 		DataSet train = new DataSet();
-		double numTested = 0.0;
-		double numCorrect = 0.0;
-		CList numClassTested = new CList();
-		CList numClassCorrect = new CList();
 		for (int i = 0; i < m_data.size(); i++) {
-			numClassTested.add(0.0);
-			numClassCorrect.add(0.0);
-		}
-		for (int i = 0; i < userSets.size(); i++) {
-			if (i != num)
-				train.add((DataSet) userSets.get(i).clone());
+			ExampleSet set = new ExampleSet();
+			set.setLabel(m_data.get(i).getLabel());
+			
+			// add the set while it is empty so the data set does not renumber
+			// examples the other iterations are reading
+			train.add(set);
+			for (int j = 0; j < m_userSets.size(); j++)
+				if (j != num)
+					set.add(m_userSets.get(j).get(i));
 		}
-		m_classifier.setTrainData(train);
-		m_classifier.train();
+		classifier.setTrainData(train);
+		classifier.train();
 		
 		// perform test
-		for (int i = 0; i < userSets.get(num).size(); i++) {
-			for (Classifiable c : userSets.get(num).get(i)) {
-				List<CResult> results = m_classifier.classify(c);
-				m_confusion.set(c.getClassNum(), results.get(0)
-				        .getClassChosen(), m_confusion.get(c.getClassNum(),
-				        results.get(0).getClassChosen()) + 1.0);
-				if (results.get(0).getClassChosen() == c.getClassNum()) {
-					m_perUserPerClass.get(num)
-					        .set(
-					                c.getClassNum(),
-					                m_perUserPerClass.get(num).get(
-					                        c.getClassNum()) + 1.0);
-					numClassCorrect.set(c.getClassNum(), numClassCorrect.get(c
-					        .getClassNum()) + 1.0);
-					numClassCorrect.set(c.getClassNum(), numClassCorrect.get(c
-					        .getClassNum()) + 1.0);
-					numCorrect++;
-				}
-				numClassTested.set(c.getClassNum(), numClassTested.get(c
-				        .getClassNum()) + 1.0);
-				numTested++;
-			}
-		}
-		
-		for (int i = 0; i < m_data.size(); i++) {
-			m_perUserPerClass.get(num).set(
-			        i,
-			        m_perUserPerClass.get(num).get(i)
-			                / userSets.get(num).get(i).size());
-			m_perClassAcc.set(i, m_perClassAcc.get(i)
-			                     + (numClassCorrect.get(i) / numClassTested
-			                             .get(i)));
-		}
-		
-		return numCorrect / numTested;
+		return test(classifier, m_userSets.get(num));
+	}
+	
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * org.ladder.patternrec.classifiers.core.crossvalidation.CrossValidation
+	 * #addFold(int,
+	 * org.ladder.patternrec.classifiers.core.crossvalidation.CrossValidation
+	 * .FoldResult)
+	 */
+	@Override
+	protected void addFold(int fold, FoldResult result) {
+		super.addFold(fold, result);
+		for (int i = 0; i < m_data.size(); i++)
+			m_perUserPerClass.get(fold).set(i, result.getClassAccuracy(i));
 	}
 	
 
@@ -38,17 +38,14 @@
 package org.ladder.patternrec.classifiers.core.crossvalidation;
 
 import java.util.List;
+import java.util.Random;
 
-import org.ladder.patternrec.classifiers.core.CList;
-import org.ladder.patternrec.classifiers.core.CResult;
 import org.ladder.patternrec.classifiers.core.Classifiable;
 import org.ladder.patternrec.classifiers.core.Classifier;
 import org.ladder.patternrec.classifiers.core.DataSet;
 import org.ladder.patternrec.classifiers.core.ExampleSet;
 import org.ladder.patternrec.classifiers.core.helper.MathHelper;
 
-import Jama.Matrix;
-
 /**
  * Random subsampling cross validation strategy
  * 
@@ -103,55 +100,31 @@ public class RandomSubSampling extends CrossValidation {
 	 * 
 	 * @see
 	 * org.ladder.patternrec.classifiers.core.crossvalidation.CrossValidation
-	 * #run()
+	 * #prepareFolds()
 	 */
 	@Override
-	public void run() {
-		m_acc.clear();
-		m_perClassAcc.clear();
-		m_confusion = new Matrix(m_data.size(), m_data.size());
-		for (int i = 0; i < m_data.size(); i++)
-			m_perClassAcc.add(0.0);
-		for (int i = 0; i < m_folds; i++) {
-			try {
-				m_acc.add(DoTest());
-			}
-			catch (Exception e) {
-				e.printStackTrace();
-			}
-		}
-		for (int i = 0; i < m_data.size(); i++) {
-			m_perClassAcc.set(i, m_perClassAcc.get(i) / m_folds);
-			double sum = 0.0;
-			for (int j = 0; j < m_data.size(); j++) {
-				m_confusion.set(i, j, m_confusion.get(i, j) / m_folds);
-				sum += m_confusion.get(i, j);
-			}
-			
-			// normalize confusion matrix
-			for (int j = 0; j < m_data.size(); j++)
-				m_confusion.set(i, j, m_confusion.get(i, j) / sum);
-		}
+	protected int prepareFolds() {
+		return m_folds;
 	}
 	
 
 	/**
 	 * Performs a single testing round
 	 * 
-	 * @return accuracy of round
+	 * @param fold
+	 *            index of the round
+	 * @param random
+	 *            random source for the round
+	 * @param classifier
+	 *            untrained copy of the classifier for the round
+	 * @return results of the round
 	 * @throws Exception
 	 */
-	private double DoTest() throws Exception {
+	@Override
+	protected FoldResult doFold(int fold, Random random, Classifier classifier)
+	        throws Exception {
 		DataSet train = new DataSet();
 		DataSet test = new DataSet();
-		double numTested = 0.0;
-		double numCorrect = 0.0;
-		CList numClassTested = new CList();
-		CList numClassCorrect = new CList();
-		for (int i = 0; i < m_data.size(); i++) {
-			numClassTested.add(0.0);
-			numClassCorrect.add(0.0);
-		}
 		
 		// split data
 		if (!m_fullRandom) {
@@ -159,7 +132,12 @@ public class RandomSubSampling extends CrossValidation {
 				ExampleSet trn = new ExampleSet();
 				ExampleSet tst = new ExampleSet();
 				
-				List<Integer> perm = MathHelper.randomPerm(s.size());
+				// add the sets while they are empty so the data set does not
+				// renumber examples the other rounds are reading
+				train.add(trn);
+				test.add(tst);
+				
+				List<Integer> perm = MathHelper.randomPerm(s.size(), random);
 				int trainIndex = (int) (s.size() * m_pctTrain);
 				for (int i = 0; i < s.size(); i++) {
 					if (i < trainIndex) {
@@ -169,11 +147,8 @@ public class RandomSubSampling extends CrossValidation {
 						tst.add(s.get(perm.get(i)));
 					}
 				}
-				
-				train.add(trn);
-				test.add(tst);
 			}
-			m_classifier.setTrainData(train);
+			classifier.setTrainData(train);
 		}
 		else {
 			boolean badSplit = true;
@@ -186,27 +161,17 @@ public class RandomSubSampling extends CrossValidation {
 				}
 				
 				List<Integer> perm = MathHelper.randomPerm(m_data
-				        .getNumExamples());
+				        .getNumExamples(), random);
 				int trainIndex = (int) (m_data.getNumExamples() * m_pctTrain);
 				for (int i = 0; i < perm.size(); i++) {
-					int curr = perm.get(i);
-					Classifiable c = null;
-					boolean done = false;
-					for (int j = 0; j < m_data.size() && !done; j++) {
-						if (curr < m_data.get(j).size()) {
-							done = true;
-							c = m_data.get(j).get(curr);
-						}
-						else
-							curr -= m_data.get(j).size();
-					}
+					Classifiable c = getExample(perm.get(i));
 					if (i < trainIndex)
 						train.get(c.getClassNum()).add(c);
 					else
 						test.get(c.getClassNum()).add(c);
 				}
 				try {
-					m_classifier.setTrainData(train);
+					classifier.setTrainData(train);
 					badSplit = false;
 				}
 				catch (Exception e) {
@@ -216,33 +181,10 @@ public class RandomSubSampling extends CrossValidation {
 		}
 		
 		// train classifier
-		m_classifier.train();
+		classifier.train();
 		
 		// perform test
-		for (int i = 0; i < test.size(); i++) {
-			for (Classifiable c : test.get(i)) {
-				List<CResult> results = m_classifier.classify(c);
-				m_confusion.set(c.getClassNum(), results.get(0)
-				        .getClassChosen(), m_confusion.get(c.getClassNum(),
-				        results.get(0).getClassChosen()) + 1.0);
-				if (results.get(0).getClassChosen() == c.getClassNum()) {
-					numClassCorrect.set(c.getClassNum(), numClassCorrect.get(c
-					        .getClassNum()) + 1.0);
-					numCorrect++;
-				}
-				numClassTested.set(c.getClassNum(), numClassTested.get(c
-				        .getClassNum()) + 1.0);
-				numTested++;
-			}
-		}
-		
-		for (int i = 0; i < m_data.size(); i++) {
-			m_perClassAcc.set(i, m_perClassAcc.get(i)
-			                     + (numClassCorrect.get(i) / numClassTested
-			                             .get(i)));
-		}
-		
-		return numCorrect / numTested;
+		return test(classifier, test);
 	}
 	
 
@@ -56,10 +56,24 @@ public class MathHelper {
 	 * @return list of permuted integers
 	 */
 	public static List<Integer> randomPerm(int size) {
+		return randomPerm(size, new Random());
+	}
+	
+
+	/**
+	 * Get a random list of permuted integers, drawn from the given random
+	 * source so the permutation can be repeated
+	 * 
+	 * @param size
+	 *            size of permutation list to generate
+	 * @param rand
+	 *            random source to draw the permutation from
+	 * @return list of permuted integers
+	 */
+	public static List<Integer> randomPerm(int size, Random rand) {
 		List<Integer> perm = new ArrayList<Integer>();
 		for (int i = 0; i < size; i++)
 			perm.add(i);
-		Random rand = new Random();
 		for (int i = perm.size() - 1; i > 0; i--) {
 			int swapIndex = rand.nextInt(i + 1);
 			if (swapIndex != i) {
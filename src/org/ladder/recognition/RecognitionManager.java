@@ -48,6 +48,7 @@ import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.LinkedBlockingQueue;
 
 import org.apache.log4j.Logger;
+import org.ladder.core.config.LadderConfig;
 import org.ladder.core.logging.LadderLogger;
 import org.ladder.core.sketch.IShape;
 import org.ladder.core.sketch.IStroke;
@@ -61,8 +62,9 @@ import org.ladder.recognition.grouping.PostMidLevelGrouper;
 import org.ladder.recognition.grouping.PrePaleoGrouper;
 import org.ladder.recognition.handwriting.HandwritingRecognizer;
 import org.ladder.recognition.paleo.PaleoConfig;
-import org.ladder.recognition.paleo.PaleoSketchRecognizer;
+import org.ladder.recognition.paleo.ParallelPaleoRecognizer;
 import org.ladder.recognition.paleo.multistroke.DashRecognizer;
+import org.ladder.recognition.paleo.paleoNN.PaleoNNRecognizer;
 import org.ladder.recognition.recognizer.OverTimeCheckHelper;
 import org.ladder.recognition.recognizer.OverTimeException;
 
@@ -93,9 +95,9 @@ public class RecognitionManager implements IRecognitionManager {
 	        .getLogger(RecognitionManager.class);
 	
 	/**
-	 * Low-level recognizer.
+	 * Low-level recognizer, runs Paleo on many strokes at once.
 	 */
-	private PaleoSketchRecognizer m_paleo;
+	private ParallelPaleoRecognizer m_paleo;
 	
 	/**
 	 * High-level recognizer.
@@ -154,8 +156,13 @@ public class RecognitionManager implements IRecognitionManager {
 	 */
 	public RecognitionManager(DomainDefinition domain) {
 		
+		if (LadderConfig.isWarmUpModels()) {
+			HandwritingRecognizer.warmUpModels();
+			PaleoNNRecognizer.warmUpModel();
+		}
+		
 		m_strokeQueue = new LinkedBlockingQueue<IStroke>();
-		m_paleo = new PaleoSketchRecognizer(PaleoConfig.deepGreenConfig());
+		m_paleo = new ParallelPaleoRecognizer(PaleoConfig.deepGreenConfig());
 		m_domain = domain;
 		m_hwr = new HandwritingRecognizer();
 		m_calvin = new CALVIN(m_domain, m_hwr);
@@ -322,21 +329,28 @@ public class RecognitionManager implements IRecognitionManager {
 		// /////////////////////////////
 		stepStartTime = System.currentTimeMillis();
 		// log.info("Paleo start");
+		List<IStroke> paleoStrokes = new ArrayList<IStroke>();
 		for (IStroke stroke : nonHandwritingStrokes) {
 			if (stroke != null && stroke.getNumPoints() > 0) {
-				
-				// Get the primitives for this stroke
-				m_paleo.submitForRecognition(stroke);
-				IRecognitionResult paleoResults = m_paleo.recognize();
-				
-				checkMaxTime(startTime, "Paleo");
-				
-				IShape bestPaleoShape = paleoResults.getBestShape();
-				shapesToCalvin.add(bestPaleoShape);
-				
-				checkMaxTime(startTime, "Paleo");
+				paleoStrokes.add(stroke);
 			}
 		}
+		
+		// Get the primitives for each stroke. Strokes are independent, so they
+		// are fit in parallel, and the results come back in stroke order.
+		long paleoMaxTime = -1;
+		if (m_maxTime > 0) {
+			paleoMaxTime = Math.max(0, OverTimeCheckHelper.timeRemaining(
+			        startTime, m_maxTime));
+		}
+		List<IRecognitionResult> paleoResults = m_paleo.recognizeTimed(
+		        paleoStrokes, paleoMaxTime);
+		checkMaxTime(startTime, "Paleo");
+		
+		for (IRecognitionResult paleoResult : paleoResults) {
+			IShape bestPaleoShape = paleoResult.getBestShape();
+			shapesToCalvin.add(bestPaleoShape);
+		}
 		log.info("Paleo time = " + (System.currentTimeMillis() - stepStartTime)
 		         + ", starting dashed lines");
 		
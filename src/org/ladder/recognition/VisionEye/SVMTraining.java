@@ -18,15 +18,23 @@ import libsvm.svm_node;
 import libsvm.svm_parameter;
 import libsvm.svm_problem;
 
+import org.apache.log4j.Logger;
+import org.ladder.core.logging.LadderLogger;
 import org.ladder.core.sketch.IShape;
 import org.ladder.core.sketch.ISketch;
 import org.ladder.core.sketch.Sketch;
 import org.ladder.io.DOMInput;
 import org.ladder.io.UnknownSketchFileTypeException;
+import org.ladder.recognition.recognizer.SVMGridSearch;
 import org.xml.sax.SAXException;
 
 public class SVMTraining extends JFrame{
 	
+	/**
+	 * Logger for this class
+	 */
+	private static final Logger log = LadderLogger.getLogger(SVMTraining.class);
+	
 	/**
 	 * SVM Parameters
 	 */
@@ -40,6 +48,13 @@ public class SVMTraining extends JFrame{
 	
 	private final static double EPS = .1;
 
+	/**
+	 * C and GAMMA are searched over GRID_STEPS powers of GRID_FACTOR either side of their defaults
+	 */
+	private final static double GRID_FACTOR = 4;
+	
+	private final static int GRID_STEPS = 2;
+
 	private static JFileChooser m_chooser = new JFileChooser();
 	
 	public SVMTraining(){//List<VisionEye> clusters){
@@ -98,10 +113,7 @@ public class SVMTraining extends JFrame{
 			cb = VisionEyeCodebook.loadFromFile(m_chooser.getSelectedFile().getAbsolutePath());
 		}
 		
-		List<double[]> codes = new ArrayList<double[]>();
-		for(List<VisionEye> singleFeatures : features){
-			codes.add(cb.lookup(singleFeatures));
-		}
+		List<double[]> codes = cb.lookupAll(features);
 		
 		List<String> classNames = new ArrayList<String>();
 		for(String s : classes){
@@ -140,7 +152,7 @@ public class SVMTraining extends JFrame{
 				prob.x = matchArray;
 				prob.y = classNumberArray;
 				System.out.println("Training svm");
-				svm_model model = svm.svm_train(prob, getParams());
+				svm_model model = svm.svm_train(prob, searchParams(prob));
 	//			try {
 	//				svm.svm_save_model("VisionEye.svm", model);
 	//			} catch (IOException e) {
@@ -171,6 +183,23 @@ public class SVMTraining extends JFrame{
 		return nodes;
 	}
 	
+	/**
+	 * Pick C and GAMMA by a cross-validated grid search on the training part
+	 * of one leave-one-out fold only, so the left out example never
+	 * influences the parameters it is tested with
+	 * 
+	 * @param prob
+	 *            Training part of the fold
+	 * @return Parameters to train the fold's svm with
+	 */
+	private svm_parameter searchParams(svm_problem prob) {
+		SVMGridSearch search = new SVMGridSearch(SVMGridSearch.around(C, GRID_FACTOR, GRID_STEPS),
+				SVMGridSearch.around(GAMMA, GRID_FACTOR, GRID_STEPS));
+		svm_parameter params = search.search(prob, getParams());
+		log.debug("Using C = "+params.C+", GAMMA = "+params.gamma);
+		return params;
+	}
+	
 	private svm_parameter getParams() {
 		// Setting training parameters (to be fiddled with later...)
 		svm_parameter param = new svm_parameter();
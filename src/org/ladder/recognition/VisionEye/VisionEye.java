@@ -68,122 +68,14 @@ public class VisionEye {
 		return subsampled;
 	}
 	
+	/**
+	 * Cluster the eyes into at most {@link #clusters} codewords with k-means
+	 * @param eyes The eyes to cluster
+	 * @return The codewords, each the average of its eyes
+	 * @see VisionEyeCodebook#train(List, int, long)
+	 */
 	public static List<VisionEye> cluster(List<VisionEye> eyes){
-		System.out.println("Clustering");
-		int ct=0;
-		List<VisionEye> myData = new ArrayList<VisionEye>();
-		myData.addAll(eyes);
-		ArrayList<Cluster> m_clusters = new ArrayList<Cluster>();
-		ArrayList<VisionEye> m_centers = new ArrayList<VisionEye>();
-		double[] avg = new double[eyes.get(0).getPixels().length];
-		for(VisionEye ve : eyes){
-			for(int i=0;i<avg.length;i++)
-				avg[i]+=ve.getPixels()[i];
-		}
-		for(int i=0;i<avg.length;i++)
-			avg[i]/=eyes.size();
-		VisionEye avgEye = new VisionEye(avg);
-		Cluster avgCluster = new Cluster(avgEye);
-		ArrayList<VisionEye> avgEyes = new ArrayList<VisionEye>();
-		for(VisionEye ve :eyes){
-			if(avgEye.distanceTo(ve)<threshold/2){
-				avgCluster.add(ve);
-				avgEyes.add(ve);
-			}
-		}
-		myData.removeAll(avgEyes);
-		System.out.println("Within 1/2 "+avgEyes.size());
-		do{
-			DistanceWidth minDist = new DistanceWidth(Double.POSITIVE_INFINITY,Double.NEGATIVE_INFINITY);
-			VisionEye current = null;
-			for(VisionEye other : myData){
-				DistanceWidth dw = avgCluster.distanceTo(other);
-				if(dw.getDistance()<minDist.getDistance()){
-					current=other;
-					minDist = dw;
-					//System.out.println("Distance "+minDist);
-				}
-			}
-			double width=minDist.getWidth();
-			if(current==null) break;
-			avgCluster.add(current);
-//			width=avgCluster.getWidth();
-//			for(VisionEye other : cluster.getMembers())
-//				if(width<other.distanceTo(current))
-//					width=other.distanceTo(current);
-			if(minDist.getWidth()>threshold){
-				avgCluster.remove(current);
-				break;
-			}
-			else
-				myData.remove(current);
-			System.out.println("Width "+minDist.getWidth()+" Cluster size "+avgCluster.size());
-		}while(myData.size()>1);
-
-		for(int i=0;i<clusters;i++){
-			Cluster addCluster = new Cluster(null);
-			System.out.println("Points left to cluster: " + myData.size());
-			for(VisionEye curCenter : myData){
-				//System.out.println(ct++);
-				ArrayList<VisionEye> temp = new ArrayList<VisionEye>(myData);
-				Cluster cluster = new Cluster(curCenter);
-				cluster.add(curCenter);
-//				List<VisionEye> inside = new ArrayList<VisionEye>();
-//				for(VisionEye otherPoint : temp){
-//					if(!curCenter.equals(otherPoint)&&cluster.distanceTo(otherPoint)<threshold/8){
-//						inside.add(otherPoint);
-//					}
-//				}
-//				System.out.println("Inside size: "+inside.size());
-//				temp.removeAll(inside);
-//				for(VisionEye b : inside)
-//					cluster.add(b);
-				double width;
-				do{
-					DistanceWidth minDist = new DistanceWidth(Double.POSITIVE_INFINITY,Double.NEGATIVE_INFINITY);
-//					double minDist = Double.POSITIVE_INFINITY;
-					VisionEye current = null;
-					for(VisionEye other : temp){
-						DistanceWidth dw = cluster.distanceTo(other);
-						if(!curCenter.equals(other)&&dw.getDistance()<minDist.getDistance()){
-							current=other;
-							minDist = cluster.distanceTo(other);
-							//System.out.println("Distance "+minDist);
-						}
-					}
-					width=minDist.getWidth();
-					if(current==null) break;
-					cluster.add(current);
-//					width=cluster.getWidth();
-//					for(VisionEye other : cluster.getMembers())
-//						if(width<other.distanceTo(current))
-//							width=other.distanceTo(current);
-					if(minDist.getWidth()>threshold){
-						cluster.remove(current);
-					}
-					else
-						temp.remove(current);
-					System.out.println("Width "+minDist.getWidth()+" Cluster size "+cluster.size());
-				}while(width<threshold&&temp.size()>1);
-				temp.addAll(cluster.getMembers());
-				System.out.println("Found "+cluster.size()+" Max before "+addCluster.size());
-				if(cluster.size()>addCluster.size())
-					addCluster=cluster;
-			}
-			if(addCluster.size()>0){
-				m_clusters.add(addCluster);
-				m_centers.add(addCluster.getCenter());
-				myData.removeAll(addCluster.getMembers());
-				System.out.println("Cluster "+m_clusters.size());
-			}
-			else
-				break;
-		}	
-		
-		ArrayList<VisionEye> centers = new ArrayList<VisionEye>();
-		for(Cluster c : m_clusters)
-			centers.add(c.computeAverage());
-		return centers;
+		return VisionEyeCodebook.train(eyes, clusters, 0).m_codewords;
 	}
 	
 	private void addStrokes(List<IStroke> strokes){
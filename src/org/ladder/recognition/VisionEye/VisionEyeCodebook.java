@@ -1,32 +1,172 @@
 package org.ladder.recognition.VisionEye;
 
 import java.io.BufferedReader;
+import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileReader;
+import java.io.FileWriter;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.StringTokenizer;
+import java.util.concurrent.Callable;
+
+import org.ladder.core.config.WorkerPool;
+import org.ladder.math.KMeans;
+import org.ladder.math.VPTree;
 
 public class VisionEyeCodebook {
 
+	/**
+	 * One minus the cosine similarity of two pixel vectors, the same as {@link VisionEye#distanceTo(VisionEye)}
+	 */
+	private static final KMeans.IDistance COSINE_DISTANCE = new KMeans.IDistance(){
+		public double distance(double[] my, double[] other){
+			double dist = 0;
+			double myMag = 0;
+			double otherMag = 0;
+			for(int i=0;i<my.length;i++)
+				myMag+=my[i]*my[i];
+			myMag = Math.sqrt(myMag);
+			for(int i=0;i<my.length;i++)
+				otherMag+=other[i]*other[i];
+			otherMag = Math.sqrt(otherMag);
+			for(int i=0;i<my.length;i++)
+				dist+=my[i]/myMag*other[i]/otherMag;
+			return 1-dist;
+		}
+	};
+
+	/**
+	 * {@link #COSINE_DISTANCE} for the codeword index
+	 */
+	private static final VPTree.IDistance INDEX_DISTANCE = new VPTree.IDistance(){
+		public double distance(double[] codeword, double[] eye, double limit){
+			return COSINE_DISTANCE.distance(codeword, eye);
+		}
+	};
+
+	/**
+	 * Eyes only count towards codewords they are more similar than this to
+	 */
+	private static final double MIN_SIMILAIRITY = .66;
+
+	/**
+	 * Extra distance searched past 1-MIN_SIMILAIRITY, so rounding never loses a codeword
+	 */
+	private static final double SEARCH_SLACK = 1e-9;
+
 	List<VisionEye> m_codewords;
+
+	/**
+	 * Index over the codeword pixels
+	 */
+	private VPTree m_index;
 	
 	public VisionEyeCodebook(List<VisionEye> codewords){
 		m_codewords=codewords;
+		List<double[]> pixels = new ArrayList<double[]>(codewords.size());
+		for(VisionEye codeword : codewords)
+			pixels.add(codeword.getPixels());
+		m_index = new VPTree(pixels, INDEX_DISTANCE);
 	}
 	
+	/**
+	 * Add up the similairity of the eyes to each codeword, counting only eyes more similar than
+	 * {@link #MIN_SIMILAIRITY}.  Only codewords the index can't rule out are compared to each eye.
+	 * @param eyes The eyes to look up
+	 * @return The total similairity for each codeword
+	 */
 	public double[] lookup(List<VisionEye> eyes){
-		double[] codewordSimilairities = new double[m_codewords.size()];
-		for(VisionEye ve : eyes)
-			for(int i=0;i<m_codewords.size();i++){
-				double similairity = m_codewords.get(i).similairity(ve);
-				if(similairity>.66)
-					codewordSimilairities[i]+=similairity;
+		final double[] codewordSimilairities = new double[m_codewords.size()];
+		VPTree.IVisitor add = new VPTree.IVisitor(){
+			public void visit(int index, double distance){
+				// The same as similairity(), which is 1-distanceTo()
+				double similairity = 1-distance;
+				if(similairity>MIN_SIMILAIRITY)
+					codewordSimilairities[index]+=similairity;
 			}
+		};
+		for(VisionEye ve : eyes)
+			m_index.forEachWithin(ve.getPixels(), 1-MIN_SIMILAIRITY+SEARCH_SLACK, add);
 		return codewordSimilairities;
 	}
 
+	/**
+	 * Look up many groups of eyes at once, spread over the recognition threads
+	 * @param groups The groups of eyes to look up
+	 * @return The total similairity for each codeword, one array per group in the same order
+	 */
+	public List<double[]> lookupAll(List<List<VisionEye>> groups){
+		final double[][] similairities = new double[groups.size()][];
+
+		if(WorkerPool.runInline(groups.size())){
+			for(int i=0;i<similairities.length;i++)
+				similairities[i]=lookup(groups.get(i));
+		}
+		else{
+			List<Callable<Object>> tasks = new ArrayList<Callable<Object>>();
+			for(int i=0;i<similairities.length;i++){
+				final int group = i;
+				final List<VisionEye> eyes = groups.get(i);
+				tasks.add(new Callable<Object>(){
+					public Object call(){
+						similairities[group]=lookup(eyes);
+						return null;
+					}
+				});
+			}
+			WorkerPool.invokeAll(tasks);
+		}
+
+		List<double[]> result = new ArrayList<double[]>(similairities.length);
+		for(double[] similairity : similairities)
+			result.add(similairity);
+		return result;
+	}
+
+	/**
+	 * Train a codebook by clustering the eyes with k-means, seeded with k-means++.
+	 * Eyes are assigned to codewords by {@link VisionEye#distanceTo(VisionEye)} and
+	 * each codeword is the average of its eyes.  The same eyes and seed always give the same codebook.
+	 * @param eyes The eyes to cluster
+	 * @param numCodewords The number of codewords to find
+	 * @param seed Seed for choosing the initial codewords
+	 * @return The trained codebook
+	 */
+	public static VisionEyeCodebook train(List<VisionEye> eyes, int numCodewords, long seed){
+		List<double[]> pixels = new ArrayList<double[]>(eyes.size());
+		for(VisionEye ve : eyes)
+			pixels.add(ve.getPixels());
+		KMeans kMeans = new KMeans(numCodewords, COSINE_DISTANCE);
+		kMeans.setSeed(seed);
+		List<VisionEye> codewords = new ArrayList<VisionEye>();
+		for(double[] center : kMeans.cluster(pixels))
+			codewords.add(new VisionEye(center));
+		return new VisionEyeCodebook(codewords);
+	}
+	
+	/**
+	 * Write the codebook in the format read by {@link #loadFromFile(String)}
+	 * @param codebookFileName The file to write
+	 * @throws IOException If the file can't be written
+	 */
+	public void toFile(String codebookFileName) throws IOException{
+		BufferedWriter bw = new BufferedWriter(new FileWriter(new File(codebookFileName)));
+		try{
+			for(VisionEye ve : m_codewords){
+				StringBuilder line = new StringBuilder();
+				for(double d : ve.getPixels())
+					line.append(d).append(' ');
+				bw.write(line.toString().trim());
+				bw.newLine();
+			}
+		}
+		finally{
+			bw.close();
+		}
+	}
+
 	public static VisionEyeCodebook loadFromFile(String codebookFileName) {
 		List<VisionEye> centers = new ArrayList<VisionEye>();
 		try {
@@ -5,6 +5,7 @@ import java.io.File;
 import java.io.FileReader;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import libsvm.svm;
@@ -19,6 +20,8 @@ import org.ladder.core.sketch.IStroke;
 import org.ladder.core.sketch.Shape;
 import org.ladder.recognition.IRecognitionResult;
 import org.ladder.recognition.RecognitionResult;
+import org.ladder.recognition.recognizer.IModelLoader;
+import org.ladder.recognition.recognizer.ModelRegistry;
 import org.ladder.recognition.recognizer.OverTimeCheckHelper;
 import org.ladder.recognition.recognizer.OverTimeException;
 import org.ladder.recognition.recognizer.VisionRecognizer;
@@ -62,33 +65,63 @@ public class VisionEyeRecognizer extends VisionRecognizer {
 	public VisionEyeRecognizer(String codebookFileName, String classFileName,
 	        String svmFileName) {
 		this();
+		
+		// the files are loaded once and shared by every recognizer
 		try {
-			m_model = svm.svm_load_model(svmFileName);
+			m_model = ModelRegistry.getSVMModel(svmFileName);
 		}
 		catch (IOException e) {
 			// TODO Auto-generated catch block
 			e.printStackTrace();
 		}
 		m_classes = loadClasses(classFileName);
-		m_codebook = VisionEyeCodebook.loadFromFile(codebookFileName);
+		m_codebook = loadCodebook(codebookFileName);
 	}
 	
 
 	public VisionEyeRecognizer(File codebookFile, File classFile, File svmFile) {
-		this();
+		this(codebookFile.getPath(), classFile.getPath(), svmFile.getPath());
+	}
+	
+
+	private List<String> loadClasses(final String classFileName) {
 		try {
-			m_model = svm.svm_load_model(svmFile.getPath());
+			return ModelRegistry.getModel("visionEyeClasses:" + classFileName,
+			        new IModelLoader<List<String>>() {
+				        
+				        public List<String> load() throws Exception {
+					        return Collections
+					                .unmodifiableList(readClasses(classFileName));
+				        }
+			        });
+		}
+		catch (IOException e) {
+			e.printStackTrace();
+			return new ArrayList<String>();
+		}
+	}
+	
+
+	private VisionEyeCodebook loadCodebook(final String codebookFileName) {
+		try {
+			return ModelRegistry.getModel("visionEyeCodebook:"
+			                              + codebookFileName,
+			        new IModelLoader<VisionEyeCodebook>() {
+				        
+				        public VisionEyeCodebook load() throws Exception {
+					        return VisionEyeCodebook
+					                .loadFromFile(codebookFileName);
+				        }
+			        });
 		}
 		catch (IOException e) {
-			// TODO Auto-generated catch block
 			e.printStackTrace();
+			return new VisionEyeCodebook(new ArrayList<VisionEye>());
 		}
-		m_classes = loadClasses(classFile.getPath());
-		m_codebook = VisionEyeCodebook.loadFromFile(codebookFile.getPath());
 	}
 	
 
-	private List<String> loadClasses(String classFileName) {
+	private static List<String> readClasses(String classFileName) {
 		List<String> classes = new ArrayList<String>();
 		try {
 			BufferedReader bw = new BufferedReader(new FileReader(new File(
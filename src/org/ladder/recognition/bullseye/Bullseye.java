@@ -170,6 +170,7 @@ public class Bullseye {
 			}
 			for(int i=0;i<m_histogram.length;i++)
 				m_histogram[i]/=tot;
+			addedPoints = false;
 		}
 		return m_histogram;
 	}
@@ -2,9 +2,13 @@ package org.ladder.recognition.bullseye;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Callable;
 
 import libsvm.svm_node;
 
+import org.ladder.core.config.WorkerPool;
+import org.ladder.math.VPTree;
+
 /**
  * The codebook for the BullseyeRecognizer, based on Oltman's thesis.  Basically, a list of Bullseyes that are codewords
  * and the look up function
@@ -13,24 +17,58 @@ import libsvm.svm_node;
  */
 public class BullseyeCodebook {
 
+	/**
+	 * The same distance as {@link Bullseye#compareTo(Bullseye)}, but stops adding once it passes the limit
+	 */
+	private static final VPTree.IDistance CHI_SQUARED = new VPTree.IDistance(){
+		public double distance(double[] codeWord, double[] in, double limit){
+			double diff=0;
+			for(int i=0;i<in.length;i++){
+				if(codeWord[i]+in[i]>0){
+					diff+=Math.pow(codeWord[i]-in[i],2)/(codeWord[i]+in[i]);
+					if(diff>limit)
+						return diff;
+				}
+			}
+			return diff;
+		}
+	};
+
 	/**
 	 * The Bullseyes used as code words in the code book
 	 */
 	private List<Bullseye> codeWords;
-	
+
+	/**
+	 * Index over the code word histograms
+	 */
+	private VPTree index;
+
 	/**
 	 * Create an empty codebook
 	 */
 	public BullseyeCodebook(){
 		codeWords = new ArrayList<Bullseye>();
+		buildIndex();
 	}
-	
+
 	/**
 	 * Create a codebook from a list of Bulleyes
 	 * @param words List of Bullseyes to use as codewords
 	 */
 	public BullseyeCodebook(List<Bullseye> words){
 		codeWords = new ArrayList<Bullseye>(words);
+		buildIndex();
+	}
+
+	/**
+	 * Build the index over the code word histograms
+	 */
+	private void buildIndex(){
+		List<double[]> histograms = new ArrayList<double[]>(codeWords.size());
+		for(Bullseye codeWord : codeWords)
+			histograms.add(codeWord.getHistogram());
+		index = new VPTree(histograms, CHI_SQUARED);
 	}
 
 	/**
@@ -39,23 +77,66 @@ public class BullseyeCodebook {
 	 * @return List of svm_nodes to pass to the svm prediction model
 	 */
 	public svm_node[] lookUpVector(List<Bullseye> input){
-		svm_node[] vector = new svm_node[codeWords.size()];
-		int index=0;
-		for(Bullseye codeWord : codeWords){
-			double value=Double.POSITIVE_INFINITY;
-			for(Bullseye in: input)
-				if(codeWord.compareTo(in)<value)
-					value=codeWord.compareTo(in);
-			vector[index]=new svm_node();
-			vector[index].index=index;
-			vector[index].value=value;
-			//System.out.print(value+" ");
-			index++;
+		return lookUpVector(input, null);
+	}
+
+	/**
+	 * Determines how closely the input Bullseyes match the codewords, reusing a vector from an earlier look up.
+	 * The value for each codeword is its distance to the closest input Bullseye.
+	 * @param input List of Bullseyes to lookup
+	 * @param vector Vector to fill, or null (or the wrong size) to make a new one
+	 * @return List of svm_nodes to pass to the svm prediction model
+	 */
+	public svm_node[] lookUpVector(List<Bullseye> input, svm_node[] vector){
+		List<double[]> histograms = new ArrayList<double[]>(input.size());
+		for(Bullseye in : input)
+			histograms.add(in.getHistogram());
+		double[] values = index.nearestDistances(histograms, null);
+
+		if(vector==null||vector.length!=codeWords.size())
+			vector = new svm_node[codeWords.size()];
+		for(int i=0;i<vector.length;i++){
+			if(vector[i]==null)
+				vector[i]=new svm_node();
+			vector[i].index=i;
+			vector[i].value=values[i];
 		}
-		//System.out.println();
 		return vector;
 	}
 
+	/**
+	 * Look up many groups of Bullseyes at once, spread over the recognition threads
+	 * @param inputs The groups of Bullseyes to look up
+	 * @return The vector for each group, in the same order
+	 */
+	public List<svm_node[]> lookUpVectors(List<List<Bullseye>> inputs){
+		final svm_node[][] vectors = new svm_node[inputs.size()][];
+
+		if(WorkerPool.runInline(inputs.size())){
+			for(int i=0;i<vectors.length;i++)
+				vectors[i]=lookUpVector(inputs.get(i));
+		}
+		else{
+			List<Callable<Object>> tasks = new ArrayList<Callable<Object>>();
+			for(int i=0;i<vectors.length;i++){
+				final int group = i;
+				final List<Bullseye> input = inputs.get(i);
+				tasks.add(new Callable<Object>(){
+					public Object call(){
+						vectors[group]=lookUpVector(input);
+						return null;
+					}
+				});
+			}
+			WorkerPool.invokeAll(tasks);
+		}
+
+		List<svm_node[]> result = new ArrayList<svm_node[]>(vectors.length);
+		for(svm_node[] vector : vectors)
+			result.add(vector);
+		return result;
+	}
+
 	@Override
 	public String toString(){
 		String s = codeWords.size()+"\n";
@@ -3,7 +3,6 @@ package org.ladder.recognition.bullseye;
 import java.io.BufferedReader;
 import java.io.BufferedWriter;
 import java.io.File;
-import java.io.FileNotFoundException;
 import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
@@ -16,6 +15,8 @@ import libsvm.svm_node;
 import libsvm.svm_parameter;
 import libsvm.svm_problem;
 
+import org.apache.log4j.Logger;
+import org.ladder.core.logging.LadderLogger;
 import org.ladder.core.sketch.IShape;
 import org.ladder.core.sketch.ISketch;
 import org.ladder.core.sketch.IStroke;
@@ -24,7 +25,10 @@ import org.ladder.io.DOMInput;
 import org.ladder.recognition.IRecognitionResult;
 import org.ladder.recognition.RecognitionResult;
 import org.ladder.recognition.recognizer.HighLevelRecognizer;
+import org.ladder.recognition.recognizer.IModelLoader;
+import org.ladder.recognition.recognizer.ModelRegistry;
 import org.ladder.recognition.recognizer.OverTimeException;
+import org.ladder.recognition.recognizer.SVMGridSearch;
 
 /**
  * An implementation of Oltman's Bullseye recognizer.
@@ -34,6 +38,12 @@ import org.ladder.recognition.recognizer.OverTimeException;
  */
 public class BullseyeRecognizer extends HighLevelRecognizer {
 	
+	/**
+	 * Logger for this class
+	 */
+	private static final Logger log = LadderLogger
+	        .getLogger(BullseyeRecognizer.class);
+	
 	/**
 	 * SVM Parameters
 	 */
@@ -47,6 +57,25 @@ public class BullseyeRecognizer extends HighLevelRecognizer {
 	
 	private final static double EPS = .001;
 	
+	/**
+	 * C and GAMMA are searched over GRID_STEPS powers of GRID_FACTOR either
+	 * side of their defaults
+	 */
+	private final static double GRID_FACTOR = 4;
+	
+	private final static int GRID_STEPS = 2;
+	
+	/**
+	 * Codebook parameters
+	 */
+	private final static int CODEBOOK_SIZE = 200;
+	
+	/**
+	 * Seed for the codebook centers and the cross-validation folds, so
+	 * training is repeatable
+	 */
+	private final static long TRAINING_SEED = 0;
+	
 	/**
 	 * Recognition Results, one per shape group
 	 */
@@ -67,6 +96,11 @@ public class BullseyeRecognizer extends HighLevelRecognizer {
 	 */
 	private svm_model model;
 	
+	/**
+	 * Vector reused by each call to {@link #classify(List)}
+	 */
+	private svm_node[] matchVector;
+	
 	
 	/**
 	 * Create an empty BullseyeRecognizer
@@ -87,31 +121,22 @@ public class BullseyeRecognizer extends HighLevelRecognizer {
 		results = new ArrayList<IRecognitionResult>();
 		classes = new ArrayList<String>();
 		try {
-			BufferedReader bfr = new BufferedReader(
-			        new FileReader(codebookFile));
-			int numCodeWords = Integer.parseInt(bfr.readLine());
-			List<Bullseye> bullseyes = new ArrayList<Bullseye>();
-			for (int i = 0; i < numCodeWords; i++) {
-				String s = bfr.readLine();
-				String[] vals = s.split(" ");
-				double[] bins = new double[vals.length];
-				for (int j = 0; j < vals.length; j++)
-					bins[j] = Double.parseDouble(vals[j]);
-				bullseyes.add(new Bullseye(bins));
-			}
-			codebook = new BullseyeCodebook(bullseyes);
-			model = svm.svm_load_model(svmFile.getCanonicalPath());
+			// the files are loaded once and shared by every recognizer
+			final String codebookPath = codebookFile.getCanonicalPath();
+			CodebookFile loaded = ModelRegistry.getModel("bullseye:"
+			                                             + codebookPath,
+			        new IModelLoader<CodebookFile>() {
+				        
+				        public CodebookFile load() throws Exception {
+					        return new CodebookFile(codebookPath);
+				        }
+			        });
+			codebook = loaded.m_codebook;
+			model = ModelRegistry.getSVMModel(svmFile.getCanonicalPath());
 			int numClasses = svm.svm_get_nr_class(model);
 			for (int i = 0; i < numClasses; i++)
-				classes.add(bfr.readLine());
-		}
-		catch (FileNotFoundException e) {
-			// TODO Auto-generated catch block
-			e.printStackTrace();
-		}
-		catch (NumberFormatException e) {
-			// TODO Auto-generated catch block
-			e.printStackTrace();
+				classes.add(i < loaded.m_lines.size() ? loaded.m_lines.get(i)
+				        : null);
 		}
 		catch (IOException e) {
 			// TODO Auto-generated catch block
@@ -344,16 +369,16 @@ public class BullseyeRecognizer extends HighLevelRecognizer {
 			System.out.println("Number of bullseyes " + bullseyes.size());
 		}
 		
-		Clusterer.QTClusterer c = new Clusterer.QTClusterer(bullseyes, 200, .4);
+		Clusterer.KMeansClusterer c = new Clusterer.KMeansClusterer(bullseyes,
+		        CODEBOOK_SIZE, TRAINING_SEED);
 		codebook = new BullseyeCodebook(c.getCenters());
 		
 		ArrayList<Double> classNumber = new ArrayList<Double>();
-		ArrayList<svm_node[]> matchVectors = new ArrayList<svm_node[]>();
 		for (int i = 0; i < labels.size(); i++) {
 			classNumber.add(new Double(classes.indexOf(labels.get(i))));
 			System.out.println(labels.get(i) + classNumber.get(i));
-			matchVectors.add(codebook.lookUpVector(shapeBullseyes.get(i)));
 		}
+		List<svm_node[]> matchVectors = codebook.lookUpVectors(shapeBullseyes);
 		double[] classNumberArray = new double[classNumber.size()];
 		svm_node[][] matchArray = new svm_node[classNumber.size()][];
 		for (int i = 0; i < classNumberArray.length; i++) {
@@ -366,7 +391,26 @@ public class BullseyeRecognizer extends HighLevelRecognizer {
 		prob.x = matchArray;
 		prob.y = classNumberArray;
 		System.out.println("Training svm");
-		model = svm.svm_train(prob, getParams());
+		model = trainModel(prob);
+	}
+	
+
+	/**
+	 * Train the svm, with C and GAMMA picked by a cross-validated grid search
+	 * around their defaults
+	 * 
+	 * @param prob
+	 *            The training problem
+	 * @return The trained svm
+	 */
+	private static svm_model trainModel(svm_problem prob) {
+		SVMGridSearch search = new SVMGridSearch(SVMGridSearch.around(C,
+		        GRID_FACTOR, GRID_STEPS), SVMGridSearch.around(GAMMA,
+		        GRID_FACTOR, GRID_STEPS));
+		search.setSeed(TRAINING_SEED);
+		svm_parameter param = search.search(prob, getParams());
+		log.debug("Using C = " + param.C + ", GAMMA = " + param.gamma);
+		return svm.svm_train(prob, param);
 	}
 	
 
@@ -399,14 +443,40 @@ public class BullseyeRecognizer extends HighLevelRecognizer {
 	 */
 	public double[] classify(List<IShape> shapes) {
 		IShape allStrokes = getAllStrokes(shapes);
-		svm_node[] matchVector = codebook.lookUpVector(BullseyeConversions
-		        .getBullseyes(allStrokes));
+		matchVector = codebook.lookUpVector(BullseyeConversions
+		        .getBullseyes(allStrokes), matchVector);
 		double[] probs = new double[svm.svm_get_nr_class(model)];
 		svm.svm_predict_probability(model, matchVector, probs);
 		return probs;
 	}
 	
 
+	/**
+	 * Get the probabilities of each shape class for many shape groups. The
+	 * codebook look ups, which are most of the work, run in parallel.
+	 * 
+	 * @param shapeGroups
+	 *            The shape groups to classify
+	 * @return The probabilities of each classification, one array per shape
+	 *         group in the same order
+	 */
+	public List<double[]> classifyAll(List<List<IShape>> shapeGroups) {
+		List<List<Bullseye>> groupBullseyes = new ArrayList<List<Bullseye>>();
+		for (List<IShape> shapes : shapeGroups) {
+			groupBullseyes.add(BullseyeConversions
+			        .getBullseyes(getAllStrokes(shapes)));
+		}
+		
+		List<double[]> allProbs = new ArrayList<double[]>();
+		for (svm_node[] vector : codebook.lookUpVectors(groupBullseyes)) {
+			double[] probs = new double[svm.svm_get_nr_class(model)];
+			svm.svm_predict_probability(model, vector, probs);
+			allProbs.add(probs);
+		}
+		return allProbs;
+	}
+	
+
 	/**
 	 * Creates a single shape containing all the strokes in each shape in shapes
 	 * and thier subshapes
@@ -532,12 +602,11 @@ public class BullseyeRecognizer extends HighLevelRecognizer {
 		}
 		
 		ArrayList<Double> classNumber = new ArrayList<Double>();
-		ArrayList<svm_node[]> matchVectors = new ArrayList<svm_node[]>();
 		for (int i = 0; i < labels.size(); i++) {
 			classNumber.add(new Double(classes.indexOf(labels.get(i))));
 			System.out.println(labels.get(i) + classNumber.get(i));
-			matchVectors.add(codebook.lookUpVector(shapeBullseyes.get(i)));
 		}
+		List<svm_node[]> matchVectors = codebook.lookUpVectors(shapeBullseyes);
 		double[] classNumberArray = new double[classNumber.size()];
 		svm_node[][] matchArray = new svm_node[classNumber.size()][];
 		for (int i = 0; i < classNumberArray.length; i++) {
@@ -550,7 +619,62 @@ public class BullseyeRecognizer extends HighLevelRecognizer {
 		prob.x = matchArray;
 		prob.y = classNumberArray;
 		System.out.println("Training svm");
-		model = svm.svm_train(prob, getParams());
+		model = trainModel(prob);
+		
+	}
+	
+
+	/**
+	 * A codebook file: the number of code words, one code word per line, and
+	 * then one class name per line
+	 */
+	private static class CodebookFile {
+		
+		/**
+		 * The code book
+		 */
+		private final BullseyeCodebook m_codebook;
+		
+		/**
+		 * The lines after the code words, which name the classes
+		 */
+		private final List<String> m_lines = new ArrayList<String>();
+		
 		
+		/**
+		 * Read a codebook file
+		 * 
+		 * @param fileName
+		 *            The codebook file
+		 * @throws IOException
+		 *             If the file cannot be read
+		 * @throws NumberFormatException
+		 *             If the file is not a codebook file
+		 */
+		public CodebookFile(String fileName) throws IOException {
+			BufferedReader bfr = new BufferedReader(new FileReader(fileName));
+			try {
+				int numCodeWords = Integer.parseInt(bfr.readLine());
+				List<Bullseye> bullseyes = new ArrayList<Bullseye>();
+				for (int i = 0; i < numCodeWords; i++) {
+					String s = bfr.readLine();
+					String[] vals = s.split(" ");
+					double[] bins = new double[vals.length];
+					for (int j = 0; j < vals.length; j++)
+						bins[j] = Double.parseDouble(vals[j]);
+					bullseyes.add(new Bullseye(bins));
+				}
+				m_codebook = new BullseyeCodebook(bullseyes);
+				
+				String line = bfr.readLine();
+				while (line != null) {
+					m_lines.add(line);
+					line = bfr.readLine();
+				}
+			}
+			finally {
+				bfr.close();
+			}
+		}
 	}
 }
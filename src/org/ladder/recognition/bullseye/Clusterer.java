@@ -4,6 +4,8 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 
+import org.ladder.math.KMeans;
+
 /**
  * Clusterer for the BullseyeRecognizer.
  * @author pcorey
@@ -185,4 +187,65 @@ public abstract class Clusterer {
 			return m_clusters;
 		}
 	}
+	
+	/**
+	 * A k-means clusterer, seeded with k-means++, over the Bullseye histograms.
+	 * Points are assigned to centers by the same chi-squared distance as 
+	 * {@link Bullseye#compareTo(Bullseye)}, and each center is the average
+	 * histogram of its members.  The same data and seed always give the same clusters.
+	 * @see KMeans
+	 *
+	 */
+	public static class KMeansClusterer extends Clusterer{
+		
+		/**
+		 * Chi-squared distance between two histograms, the same as {@link Bullseye#compareTo(Bullseye)}
+		 */
+		public static final KMeans.IDistance CHI_SQUARED = new KMeans.IDistance(){
+			public double distance(double[] a, double[] b){
+				double diff=0;
+				for(int i=0;i<b.length;i++){
+					if(a[i]+b[i]>0)
+						diff+=Math.pow(a[i]-b[i],2)/(a[i]+b[i]);
+				}
+				return diff;
+			}
+		};
+		
+		/**
+		 * Cluster the data into at most numberClusters clusters
+		 * @param data The data to cluster
+		 * @param numberClusters The number of clusters to find
+		 * @param seed Seed for choosing the initial centers
+		 */
+		public KMeansClusterer(List<Bullseye> data,int numberClusters, long seed){
+			super();
+			List<double[]> histograms = new ArrayList<double[]>(data.size());
+			for(Bullseye b : data)
+				histograms.add(b.getHistogram());
+			KMeans kMeans = new KMeans(numberClusters, CHI_SQUARED);
+			kMeans.setSeed(seed);
+			double[][] centers = kMeans.cluster(histograms);
+			int[] assignments = kMeans.getAssignments();
+			List<Cluster> clusters = new ArrayList<Cluster>();
+			for(double[] center : centers)
+				clusters.add(new Cluster(new Bullseye(center)));
+			for(int i=0;i<assignments.length;i++)
+				clusters.get(assignments[i]).add(data.get(i));
+			for(Cluster cluster : clusters){
+				if(cluster.size()>0){
+					m_clusters.add(cluster);
+					m_centers.add(cluster.getCenter());
+				}
+			}
+		}
+		
+		public List<Bullseye> getCenters(){
+			return m_centers;
+		}
+		
+		public List<Cluster> getClusters(){
+			return m_clusters;
+		}
+	}
 }
@@ -3,6 +3,7 @@
  * 
  * Revision History:<br>
  * Sep 17, 2008 rgraham - File created
+ * Oct 18, 2026 - Sweep stroke points instead of splitting strokes in half
  * 
  * <p>
  * 
@@ -37,12 +38,11 @@
  */
 package org.ladder.recognition.collision;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Collection;
 
 import org.ladder.core.sketch.IPoint;
 import org.ladder.core.sketch.IStroke;
-import org.ladder.core.sketch.Stroke;
+import org.ladder.math.SegmentIntersection;
 
 public class CollisionDetection {
 	
@@ -56,78 +56,20 @@ public class CollisionDetection {
 	}
 	
 	public static boolean detectCollision(IStroke s, IPoint p) {
-		if (s.getNumPoints() == 1) {
-			return detectCollision(s.getPoint(0), p);			
-		} else if (s.getNumPoints() > 0) {
-			List<IPoint> firstHalf = new ArrayList<IPoint>();
-			List<IPoint> secondHalf = new ArrayList<IPoint>();
-			List<IPoint> tmp = s.getPoints();
-			
-			for (int i = 0; i < tmp.size(); i++) {
-				if (i < (tmp.size()/2)) {
-					firstHalf.add(tmp.get(i));
-				} else {
-					secondHalf.add(tmp.get(i));
-				}
+		for (IPoint q : s.getPoints()) {
+			if (detectCollision(q, p)) {
+				return true;
 			}
-			
-			
-			IStroke firstS1 = new Stroke(firstHalf);
-			IStroke lastS1 = new Stroke(secondHalf);
-			
-			return detectCollision(firstS1, p) || detectCollision(lastS1, p);
-		} else {
-			return false;
 		}
+		return false;
 	}
 	
 	public static boolean detectCollision(IStroke s1, IStroke s2) {
-		if (s1.getNumPoints() == 1 && s2.getNumPoints() == 1) {
-			return detectCollision(s1.getPoint(0), s2.getPoint(0));			
-		} else if (s1.getNumPoints() == 1 && s2.getNumPoints() > 1) {
-			return detectCollision(s2, s1.getFirstPoint());
-		} else if (s1.getNumPoints() > 1 && s2.getNumPoints() == 1) {
-			return detectCollision(s1, s2.getFirstPoint());
-		} else if (s1.getNumPoints() > 1 && s2.getNumPoints() > 1) {
-			List<IPoint> s1_firstHalf = new ArrayList<IPoint>();
-			List<IPoint> s1_secondHalf = new ArrayList<IPoint>();
-			List<IPoint> s1_tmp = s1.getPoints();
-			
-			for (int i = 0; i < s1_tmp.size(); i++) {
-				if (i < (s1_tmp.size()/2)) {
-					s1_firstHalf.add(s1_tmp.get(i));
-				} else {
-					s1_secondHalf.add(s1_tmp.get(i));
-				}
-			}
-			
-			
-			IStroke firstS1 = new Stroke(s1_firstHalf);
-			IStroke lastS1 = new Stroke(s1_secondHalf);
-			
-			List<IPoint> s2_firstHalf = new ArrayList<IPoint>();
-			List<IPoint> s2_secondHalf = new ArrayList<IPoint>();
-			List<IPoint> s2_tmp = s2.getPoints();
-			
-			for (int i = 0; i < s2_tmp.size(); i++) {
-				if (i < (s2_tmp.size()/2)) {
-					s2_firstHalf.add(s2_tmp.get(i));
-				} else {
-					s2_secondHalf.add(s2_tmp.get(i));
-				}
-			}
-			
-			
-			IStroke firstS2 = new Stroke(s2_firstHalf);
-			IStroke lastS2 = new Stroke(s2_secondHalf);
-			
-			return detectCollision(firstS1, firstS2) || 
-				   detectCollision(lastS1, firstS2) || 
-				   detectCollision(lastS1, lastS2) || 
-				   detectCollision(firstS1, lastS2);
-		} else {
-			return false;
-		}
+		return SegmentIntersection.withinDistance(s1, s2, POINT_THRESHOLD);
+	}
+	
+	public static boolean detectCollision(IStroke s, Collection<? extends IStroke> others) {
+		return SegmentIntersection.anyWithinDistance(s, others, POINT_THRESHOLD);
 	}
 
 }
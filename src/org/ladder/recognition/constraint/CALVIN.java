@@ -3,6 +3,8 @@
  * 
  * Revision History:<br>
  * Sep 3, 2008 srl - File created
+ * Oct 18, 2026 - Remember failed shape builds between recognition passes
+ * Oct 18, 2026 - Share constraint confidences between shape builds
  * 
  * <p>
  * 
@@ -38,6 +40,8 @@
 package org.ladder.recognition.constraint;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -48,6 +52,7 @@ import java.util.UUID;
 import org.apache.log4j.Logger;
 import org.ladder.core.logging.LadderLogger;
 import org.ladder.core.sketch.Alias;
+import org.ladder.core.sketch.BoundingBox;
 import org.ladder.core.sketch.IPoint;
 import org.ladder.core.sketch.IShape;
 import org.ladder.core.sketch.IStroke;
@@ -55,13 +60,17 @@ import org.ladder.core.sketch.IsAConstants;
 import org.ladder.core.sketch.Point;
 import org.ladder.core.sketch.Shape;
 import org.ladder.core.sketch.Stroke;
+import org.ladder.datastructures.IgnoreCaseStringSet;
 import org.ladder.recognition.DebugShapeSet;
 import org.ladder.recognition.IRecognitionResult;
 import org.ladder.recognition.RecognitionManager;
 import org.ladder.recognition.RecognitionResult;
 import org.ladder.recognition.constraint.builders.BuiltShape;
+import org.ladder.recognition.constraint.builders.ConstraintCache;
+import org.ladder.recognition.constraint.builders.ShapeBuildFailureException;
 import org.ladder.recognition.constraint.builders.ShapeBuilder;
 import org.ladder.recognition.constraint.builders.ShapeBuilderTracy;
+import org.ladder.recognition.constraint.builders.ShapeBuilderTreeSearch;
 import org.ladder.recognition.constraint.constrainable.ConstrainablePoint;
 import org.ladder.recognition.constraint.domains.AliasDefinition;
 import org.ladder.recognition.constraint.domains.ComponentDefinition;
@@ -156,6 +165,44 @@ public class CALVIN extends HighLevelRecognizer { // implements Runnable {
 	 */
 	private HandwritingRecognizer m_hwr;
 	
+	/**
+	 * Shape definitions that failed to build, mapped to the candidate shapes
+	 * they failed on. The shape builder only looks at the shapes in the pool
+	 * whose labels or isA attributes are component types of the definition,
+	 * so a definition does not need to be built again until those candidates
+	 * change.
+	 * <p>
+	 * Only failures are remembered, and the key is every candidate in the
+	 * whole pool. A new shape of a component type therefore sends the
+	 * definition back to the builder, which searches the whole pool again, no
+	 * matter how far the new shape is from the rest. This saves the builds
+	 * that cannot have changed, but the cost of a build that does run still
+	 * grows with the pool.
+	 */
+	private Map<ShapeDefinition, List<IShape>> m_failedBuilds = new HashMap<ShapeDefinition, List<IShape>>();
+	
+	/**
+	 * Whether failed shape builds are remembered between recognition passes
+	 */
+	private boolean m_incremental = true;
+	
+	/**
+	 * Whether shapes are built with {@link ShapeBuilderTreeSearch} instead of
+	 * {@link ShapeBuilderTracy}
+	 */
+	private boolean m_treeSearch = false;
+	
+	/**
+	 * Number of builds skipped because they were known to fail, since the
+	 * last time the shapes were cleared
+	 */
+	private int m_numBuildsSkipped = 0;
+	
+	/**
+	 * Number of builds run, since the last time the shapes were cleared
+	 */
+	private int m_numBuildsRun = 0;
+	
 	/**
 	 * Echelons for convenience
 	 */
@@ -257,10 +304,11 @@ public class CALVIN extends HighLevelRecognizer { // implements Runnable {
 		}
 		
 		// Text does not hold it's subshapes, and thus we have to search
-		// through all of the shapes individually
+		// through the shapes individually. Only shapes that overlap a stroke
+		// can hold it.
 		if (shape.getSubShapes().size() == 0) {
 			for (IStroke substroke : shape.getStrokes()) {
-				for (IShape poolitem : levelPool.getAllShapes()) {
+				for (IShape poolitem : getShapesNear(levelPool, substroke)) {
 					if (poolitem.equals(shape)) {
 						continue;
 					}
@@ -279,6 +327,24 @@ public class CALVIN extends HighLevelRecognizer { // implements Runnable {
 	}
 	
 
+	/**
+	 * Get the shapes in the pool that could hold the given stroke: those whose
+	 * bounding boxes overlap it, or every shape if the stroke has no points.
+	 * 
+	 * @param pool
+	 *            pool to look in
+	 * @param stroke
+	 *            stroke the shapes may hold
+	 * @return a copy of the shapes near the stroke
+	 */
+	private static SortedSet<IShape> getShapesNear(ShapePool pool,
+	        IStroke stroke) {
+		BoundingBox box = stroke.getBoundingBox();
+		return (box == null) ? pool.getAllShapes() : pool
+		        .getShapesInRange(box);
+	}
+	
+
 	/**
 	 * Add an {@link IShape} to our high-level pool, wrapping it in an
 	 * {@link IRecognitionResult} with a single shape in the n-best list.
@@ -311,11 +377,46 @@ public class CALVIN extends HighLevelRecognizer { // implements Runnable {
 	        throws OverTimeException {
 		// System.out.println(m_lowLevelPool.getAllShapes());
 		
+		// Skip definitions that already failed on exactly these candidates
+		List<IShape> candidates = null;
+		if (m_incremental) {
+			candidates = getBuildCandidates(shapeDef, pool);
+			if (isKnownFailure(shapeDef, candidates)) {
+				return null;
+			}
+		}
+		
+		return buildShape(shapeDef, pool, candidates);
+	}
+	
+
+	/**
+	 * Build the shape definition from the parts in the pool, remembering the
+	 * candidates if the build fails.
+	 * 
+	 * @param shapeDef
+	 *            the shape def to build.
+	 * @param pool
+	 *            low-level pool.
+	 * @param candidates
+	 *            the shapes in the pool the builder will consider, or
+	 *            {@code null} if failed builds are not remembered.
+	 * @return the built shape, with subshapes and label set.
+	 * 
+	 * @throws OverTimeException
+	 *             if building the shape runs out of time.
+	 */
+	private IShape buildShape(ShapeDefinition shapeDef, SortedSet<IShape> pool,
+	        List<IShape> candidates) throws OverTimeException {
+		
+		m_numBuildsRun++;
+		
 		// TODO fix the SortedSet to List conversion hack -josh
 		ArrayList<IShape> allShapes = new ArrayList<IShape>();
 		allShapes.addAll(pool);
 		
-		ShapeBuilderTracy builder = new ShapeBuilderTracy();
+		// Both builders share the pool's constraint cache
+		ConstraintCache constraintCache = m_lowLevelPool.getConstraintCache();
 		
 		// Start time for profiling
 		long builderStartTime = System.currentTimeMillis();
@@ -324,8 +425,28 @@ public class CALVIN extends HighLevelRecognizer { // implements Runnable {
 		overTimeCheck();
 		
 		// Build the shape. This can pass along an OverTimeException.
-		BuiltShape shape = builder.recognize(allShapes, shapeDef, OverTimeCheckHelper
-		        .timeRemaining(m_startTime, m_maxTime));
+		long timeRemaining = OverTimeCheckHelper.timeRemaining(m_startTime,
+		        m_maxTime);
+		BuiltShape shape = null;
+		if (m_treeSearch) {
+			ShapeBuilderTreeSearch builder = new ShapeBuilderTreeSearch();
+			builder.setConstraintCache(constraintCache);
+			try {
+				shape = builder.buildShapeTimed(allShapes, shapeDef,
+				        timeRemaining);
+			}
+			catch (ShapeBuildFailureException sbfe) {
+				shape = null;
+			}
+		}
+		else {
+			ShapeBuilderTracy builder = new ShapeBuilderTracy();
+			builder.setConstraintCache(constraintCache);
+			shape = builder.recognize(allShapes, shapeDef, timeRemaining);
+			if (builder.isFailed()) {
+				shape = null;
+			}
+		}
 		
 		// Check that we have not gone over time
 		overTimeCheck();
@@ -334,15 +455,17 @@ public class CALVIN extends HighLevelRecognizer { // implements Runnable {
 		long builderTime = System.currentTimeMillis() - builderStartTime;
 		S_RUN_TIME_LOGGER.addRunTime(shapeDef.getName(), builderTime);
 		
-		if (builder.isFailed()) {
+		if (shape == null) {
+			if (candidates != null) {
+				m_failedBuilds.put(shapeDef, candidates);
+			}
 			return null;
 		}
 		
-		if (shape != null) {
-			// System.out.println(shapeDef.getName()+"");
-			constructAliases(shape, shapeDef, shape.getComponents());
-			copyIsA(shape, shapeDef);
-		}
+		// System.out.println(shapeDef.getName()+"");
+		constructAliases(shape, shapeDef, shape.getComponents());
+		copyIsA(shape, shapeDef);
+		m_failedBuilds.remove(shapeDef);
 		
 		// builder.addBuildShapeEventListeners(listeners);
 		// builder.setDebugShape(m_debugShape);
@@ -372,6 +495,8 @@ public class CALVIN extends HighLevelRecognizer { // implements Runnable {
 		log.debug("Clear the low-level shape pool");
 		
 		m_lowLevelPool.clear();
+		m_lowLevelPool.getConstraintCache().resetStatistics();
+		clearFailedBuilds();
 	}
 	
 
@@ -383,7 +508,162 @@ public class CALVIN extends HighLevelRecognizer { // implements Runnable {
 		log.debug("Clear the low- and high-level shape pools");
 		
 		m_lowLevelPool.clear();
+		m_lowLevelPool.getConstraintCache().resetStatistics();
 		m_highLevelShapes.clear();
+		clearFailedBuilds();
+	}
+	
+
+	/**
+	 * Forget every failed shape build, so that all shape definitions are built
+	 * again on the next recognition pass.
+	 */
+	public void clearFailedBuilds() {
+		m_failedBuilds.clear();
+		m_numBuildsSkipped = 0;
+		m_numBuildsRun = 0;
+	}
+	
+
+	/**
+	 * Forget the failed shape builds whose candidates include any of the
+	 * given shapes.
+	 * 
+	 * @param shapes
+	 *            shapes that are no longer valid.
+	 */
+	private void forgetFailedBuilds(Collection<IShape> shapes) {
+		if (shapes.isEmpty()) {
+			return;
+		}
+		
+		List<ShapeDefinition> toForget = new ArrayList<ShapeDefinition>();
+		for (Map.Entry<ShapeDefinition, List<IShape>> failed : m_failedBuilds
+		        .entrySet()) {
+			for (IShape candidate : failed.getValue()) {
+				if (shapes.contains(candidate)) {
+					toForget.add(failed.getKey());
+					break;
+				}
+			}
+		}
+		
+		for (ShapeDefinition shapeDef : toForget) {
+			m_failedBuilds.remove(shapeDef);
+		}
+	}
+	
+
+	/**
+	 * Get the shapes from the pool that the shape builder would consider for
+	 * the given shape definition, in pool order. A shape is a candidate if its
+	 * label, or one of its isA attributes, is the shape type of one of the
+	 * definition&#39;s components, ignoring case, which is how
+	 * {@link ShapeBuilderTreeSearch} matches shapes to components.
+	 * 
+	 * @param shapeDef
+	 *            shape definition to build.
+	 * @param pool
+	 *            pool the shape is built from.
+	 * @return the candidate shapes.
+	 */
+	private static List<IShape> getBuildCandidates(ShapeDefinition shapeDef,
+	        SortedSet<IShape> pool) {
+		
+		IgnoreCaseStringSet componentTypes = new IgnoreCaseStringSet();
+		componentTypes.addAll(shapeDef.getShapeTypesOfComponents());
+		
+		List<String> isATypes = new ArrayList<String>();
+		for (String isA : IsAConstants.getConstantsSet()) {
+			if (componentTypes.contains(isA)) {
+				isATypes.add(isA);
+			}
+		}
+		
+		List<IShape> candidates = new ArrayList<IShape>();
+		for (IShape shape : pool) {
+			if (isBuildCandidate(shape, componentTypes, isATypes)) {
+				candidates.add(shape);
+			}
+		}
+		
+		return candidates;
+	}
+	
+
+	/**
+	 * Check whether the shape builder would consider the shape for a
+	 * component of one of the given types.
+	 * 
+	 * @param shape
+	 *            shape in the pool.
+	 * @param componentTypes
+	 *            shape types of the components, ignoring case.
+	 * @param isATypes
+	 *            the isA constants that are component types.
+	 * @return true if the shape is a candidate.
+	 */
+	private static boolean isBuildCandidate(IShape shape,
+	        IgnoreCaseStringSet componentTypes, List<String> isATypes) {
+		if (shape.getLabel() != null
+		    && componentTypes.contains(shape.getLabel())) {
+			return true;
+		}
+		
+		for (String isA : isATypes) {
+			if (shape.hasAttribute(isA)) {
+				return true;
+			}
+		}
+		
+		return false;
+	}
+	
+
+	/**
+	 * Check whether the shape definition already failed to build on exactly
+	 * these candidates, counting the build as skipped if so.
+	 * 
+	 * @param shapeDef
+	 *            shape definition to build.
+	 * @param candidates
+	 *            the shapes the builder would consider.
+	 * @return true if the build can be skipped.
+	 */
+	private boolean isKnownFailure(ShapeDefinition shapeDef,
+	        List<IShape> candidates) {
+		if (sameShapes(m_failedBuilds.get(shapeDef), candidates)) {
+			m_numBuildsSkipped++;
+			return true;
+		}
+		
+		return false;
+	}
+	
+
+	/**
+	 * Check whether two lists hold the very same shape instances, in the same
+	 * order.
+	 * 
+	 * @param shapes1
+	 *            first list, may be {@code null}.
+	 * @param shapes2
+	 *            second list.
+	 * @return true if the lists hold the same instances.
+	 */
+	private static boolean sameShapes(List<IShape> shapes1,
+	        List<IShape> shapes2) {
+		if (shapes1 == null || shapes1.size() != shapes2.size()) {
+			return false;
+		}
+		
+		for (int i = 0; i < shapes1.size(); i++) {
+			if (shapes1.get(i) != shapes2.get(i)) {
+				return false;
+			}
+		}
+		
+		return true;
 	}
 	
 
@@ -917,6 +1197,93 @@ public class CALVIN extends HighLevelRecognizer { // implements Runnable {
 	}
 	
 
+	/**
+	 * Check whether shapes are built with {@link ShapeBuilderTreeSearch}.
+	 * 
+	 * @return true if shapes are built with {@link ShapeBuilderTreeSearch};
+	 *         false if they are built with {@link ShapeBuilderTracy}.
+	 */
+	public boolean isTreeSearch() {
+		return m_treeSearch;
+	}
+	
+
+	/**
+	 * Set whether shapes are built with {@link ShapeBuilderTreeSearch} instead
+	 * of {@link ShapeBuilderTracy}. Either way the builder uses the low-level
+	 * pool&#39;s constraint cache.
+	 * 
+	 * @param treeSearch
+	 *            true to build shapes with {@link ShapeBuilderTreeSearch}.
+	 */
+	public void setTreeSearch(boolean treeSearch) {
+		m_treeSearch = treeSearch;
+		clearFailedBuilds();
+	}
+	
+
+	/**
+	 * Check whether failed shape builds are remembered between recognition
+	 * passes.
+	 * 
+	 * @return true if a shape definition is only built again once the
+	 *         candidate shapes it failed on have changed.
+	 */
+	public boolean isIncremental() {
+		return m_incremental;
+	}
+	
+
+	/**
+	 * Set whether failed shape builds are remembered between recognition
+	 * passes. Turning this off forgets every failed build, and every shape
+	 * definition is then built on every pass.
+	 * 
+	 * @param incremental
+	 *            true to remember failed builds.
+	 */
+	public void setIncremental(boolean incremental) {
+		m_incremental = incremental;
+		if (!incremental) {
+			clearFailedBuilds();
+		}
+	}
+	
+
+	/**
+	 * Get the number of shape builds skipped because the shape definition was
+	 * known to fail on the same candidates, since the shapes were last
+	 * cleared.
+	 * 
+	 * @return the number of builds skipped.
+	 */
+	public int getNumBuildsSkipped() {
+		return m_numBuildsSkipped;
+	}
+	
+
+	/**
+	 * Get the cache of constraint confidences shared by the shape pool and the
+	 * shape builders. Its hit and miss counts are since the shapes were last
+	 * cleared.
+	 * 
+	 * @return the constraint confidence cache.
+	 */
+	public ConstraintCache getConstraintCache() {
+		return m_lowLevelPool.getConstraintCache();
+	}
+	
+
+	/**
+	 * Get the number of shape builds run since the shapes were last cleared.
+	 * 
+	 * @return the number of builds run.
+	 */
+	public int getNumBuildsRun() {
+		return m_numBuildsRun;
+	}
+	
+
 	/**
 	 * Checks whether the current recognition time has exceeded the maximum
 	 * allowed time.
@@ -1059,11 +1426,10 @@ public class CALVIN extends HighLevelRecognizer { // implements Runnable {
 		for (IRecognitionResult recResult : m_highLevelShapes) {
 			for (IShape shape : recResult.getNBestList()) {
 				
-				// Use a temporary list to avoid concurrent modifications
-				List<IShape> lowLevelClone = new ArrayList<IShape>();
-				lowLevelClone.addAll(m_lowLevelPool.getAllShapes());
-				
-				for (IShape lowLevelShape : lowLevelClone) {
+				// Only the shapes near this one can overlap it. The query
+				// returns a copy, so removing from the pool is safe.
+				for (IShape lowLevelShape : m_lowLevelPool
+				        .getShapesInRange(shape.getBoundingBox())) {
 					if (shape.getBoundingBox().distance(
 					        (lowLevelShape.getBoundingBox())) == 0) {
 						m_lowLevelPool.removeShape(lowLevelShape);
@@ -1072,6 +1438,10 @@ public class CALVIN extends HighLevelRecognizer { // implements Runnable {
 			}
 		}
 		
+		if (log.isDebugEnabled()) {
+			log.debug(m_lowLevelPool.getConstraintCache());
+		}
+		
 		return cloneHighLevelPool();
 	}
 	
@@ -1090,6 +1460,7 @@ public class CALVIN extends HighLevelRecognizer { // implements Runnable {
 		
 		// Remove from low level pool
 		m_lowLevelPool.removeShape(shape);
+		forgetFailedBuilds(Collections.singletonList(shape));
 		
 		// Remove recognition results using that shape
 		ArrayList<IRecognitionResult> resultsToRemove = new ArrayList<IRecognitionResult>();
@@ -1138,6 +1509,7 @@ public class CALVIN extends HighLevelRecognizer { // implements Runnable {
 		
 		// Remove from low level pool
 		m_lowLevelPool.removeShape(shape);
+		forgetFailedBuilds(Collections.singletonList(shape));
 		
 		// Remove recognition results using that shape
 		ArrayList<IRecognitionResult> resultsToRemove = new ArrayList<IRecognitionResult>();
@@ -1182,9 +1554,10 @@ public class CALVIN extends HighLevelRecognizer { // implements Runnable {
 	 */
 	public void removeStroke(IStroke stroke) {
 		
-		// Remove low- and mid-level shapes
+		// Remove low- and mid-level shapes. Only shapes that overlap the
+		// stroke can hold it.
 		List<IShape> lowLevelShapesToRemove = new ArrayList<IShape>();
-		for (IShape lowLevelShape : m_lowLevelPool.getAllShapes()) {
+		for (IShape lowLevelShape : getShapesNear(m_lowLevelPool, stroke)) {
 			if (lowLevelShape.containsStrokeRecursive(stroke)) {
 				lowLevelShapesToRemove.add(lowLevelShape);
 			}
@@ -1193,6 +1566,7 @@ public class CALVIN extends HighLevelRecognizer { // implements Runnable {
 		for (IShape toRemove : lowLevelShapesToRemove) {
 			m_lowLevelPool.removeShape(toRemove);
 		}
+		forgetFailedBuilds(lowLevelShapesToRemove);
 		
 		// Remove high-level shapes
 		List<IRecognitionResult> highLevelShapesToRemove = new ArrayList<IRecognitionResult>();
@@ -1613,9 +1987,9 @@ public class CALVIN extends HighLevelRecognizer { // implements Runnable {
 		IShape redRei = null;
 		IShape uniqueID = null;
 		
-		PostMidLevelGrouper pmlg = new PostMidLevelGrouper(m_lowLevelPool
-		        .getAllShapes(), false, m_hwr, OverTimeCheckHelper.timeRemaining(
-		        m_startTime, m_maxTime));
+		PostMidLevelGrouper pmlg = new PostMidLevelGrouper(m_lowLevelPool,
+		        false, m_hwr, OverTimeCheckHelper.timeRemaining(m_startTime,
+		                m_maxTime));
 		
 		IShape biggestShape = pmlg.getLargestShape();
 		
@@ -3,6 +3,8 @@
  * 
  * Revision History:<br>
  * Sep 3, 2008 srl - File created
+ * Oct 18, 2026 - Key on shape IDs, sub-parts and constraint, invalidate
+ *                on shape removal, count hits and misses
  * 
  * <p>
  * 
@@ -37,71 +39,482 @@
  */
 package org.ladder.recognition.constraint.builders;
 
+import java.util.Arrays;
 import java.util.HashMap;
-import java.util.List;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
 
 import org.ladder.core.sketch.IShape;
-import org.ladder.recognition.constraint.IConstrainable;
 import org.ladder.recognition.constraint.IConstraint;
+import org.ladder.recognition.constraint.constrainable.ConstrainableFactory;
+import org.ladder.recognition.constraint.domains.ComponentSubPart;
 
+/**
+ * Memo table of constraint confidences for one recognition session. A
+ * confidence is stored under the constraint's name and threshold, the IDs of
+ * the shapes passed to the constraint, the sub-part taken of each shape, and
+ * how the shapes were turned into
+ * {@link org.ladder.recognition.constraint.IConstrainable}s, so the same
+ * constraint solved on the same shapes by different shape definitions,
+ * permutations, or recognition passes is only solved once.
+ * <p>
+ * Entries for a shape are dropped when the shape is removed with
+ * {@link #removeShape(IShape)}. Users that build their constrainables with
+ * {@link ConstrainableFactory} share entries under
+ * {@link #FACTORY_CONSTRAINABLES}. Users that build them some other way pass
+ * their own kind, so they never see confidences solved on different
+ * constrainables.
+ * <p>
+ * The cache is synchronized, so it can be shared between threads. Lookups
+ * reuse a probe key under the lock and do not allocate.
+ */
 public final class ConstraintCache {
-
-	private Map<IShape, ShapeConstraintCache> cache = new HashMap<IShape, ShapeConstraintCache>();
-	private int get = 0;
-	private int set = 0;
 	
+	/**
+	 * Kind of the constrainables built by {@link ConstrainableFactory}
+	 */
+	public static final String FACTORY_CONSTRAINABLES = "ConstrainableFactory";
+	
+	/**
+	 * Confidences, by constraint and arguments
+	 */
+	private final Map<Key, Double> m_confidences = new HashMap<Key, Double>();
+	
+	/**
+	 * The keys each shape appears in, so the shape's entries can be dropped
+	 * when it is removed
+	 */
+	private final Map<UUID, Set<Key>> m_keysByShape = new HashMap<UUID, Set<Key>>();
+	
+	/**
+	 * Number of lookups that found a confidence
+	 */
+	private long m_hits = 0;
+	
+	/**
+	 * Number of lookups that did not find a confidence
+	 */
+	private long m_misses = 0;
+	
+	/**
+	 * Reusable lookup keys, indexed by number of parameters
+	 */
+	private Key[] m_probes = new Key[0];
+	
+	/**
+	 * Argument array for unary lookups, so they don't allocate either
+	 */
+	private final IShape[] m_unaryShapes = new IShape[1];
+	
+	/**
+	 * Sub-part array for unary lookups, always the whole shape
+	 */
+	private final ComponentSubPart[] m_unarySubParts = new ComponentSubPart[1];
+	
+	
+	/**
+	 * Create an empty cache
+	 */
 	public ConstraintCache() {
-		
+		// nothing to do
 	}
 	
-	public void put(IShape s1, IShape s2, String c, double conf) {
-		ShapeConstraintCache scc;
-		if (cache.containsKey(s1)) {
-			scc = new ShapeConstraintCache();
-			cache.put(s1, scc);
-			scc.addConstraint(s2, c, conf);
-			set++;
-		}
+
+	/**
+	 * Get the confidence of a unary constraint on a whole shape, solved on the
+	 * constrainable built by {@link ConstrainableFactory}
+	 * 
+	 * @param constraint
+	 *            The constraint
+	 * @param shape
+	 *            The shape the constraint was solved on
+	 * @return The confidence, or null if it has not been stored
+	 */
+	public synchronized Double get(IConstraint constraint, IShape shape) {
+		m_unaryShapes[0] = shape;
+		Double confidence = get(FACTORY_CONSTRAINABLES, constraint,
+		        m_unaryShapes, m_unarySubParts);
+		m_unaryShapes[0] = null;
+		return confidence;
 	}
 	
-	public void put(IShape s1, String c, double conf) {
-		ShapeConstraintCache scc;
-		if (!cache.containsKey(s1)) {
-			scc = new ShapeConstraintCache();
-			cache.put(s1, scc);
-			scc.addConstraint(c, conf);
-			set++;
+
+	/**
+	 * Get the confidence of a constraint, solved on constrainables built by
+	 * {@link ConstrainableFactory}
+	 * 
+	 * @param constraint
+	 *            The constraint
+	 * @param shapes
+	 *            The shapes the constraint was solved on, in parameter order
+	 * @param subParts
+	 *            The sub-part of each shape that was used, or null for the
+	 *            whole shape
+	 * @return The confidence, or null if it has not been stored
+	 */
+	public Double get(IConstraint constraint, IShape[] shapes,
+	        ComponentSubPart[] subParts) {
+		return get(FACTORY_CONSTRAINABLES, constraint, shapes, subParts);
+	}
+	
+
+	/**
+	 * Get the confidence of a constraint
+	 * 
+	 * @param kind
+	 *            How the shapes were turned into constrainables
+	 * @param constraint
+	 *            The constraint
+	 * @param shapes
+	 *            The shapes the constraint was solved on, in parameter order
+	 * @param subParts
+	 *            The sub-part of each shape that was used, or null for the
+	 *            whole shape
+	 * @return The confidence, or null if it has not been stored
+	 */
+	public synchronized Double get(String kind, IConstraint constraint,
+	        IShape[] shapes, ComponentSubPart[] subParts) {
+		Double confidence = m_confidences.get(probe(kind, constraint, shapes,
+		        subParts));
+		if (confidence == null) {
+			m_misses++;
 		}
+		else {
+			m_hits++;
+		}
+		return confidence;
+	}
+	
+
+	/**
+	 * Store the confidence of a unary constraint on a whole shape, solved on
+	 * the constrainable built by {@link ConstrainableFactory}
+	 * 
+	 * @param constraint
+	 *            The constraint
+	 * @param shape
+	 *            The shape the constraint was solved on
+	 * @param confidence
+	 *            The confidence of the constraint
+	 */
+	public void put(IConstraint constraint, IShape shape, double confidence) {
+		put(constraint, new IShape[] { shape },
+		        new ComponentSubPart[] { null }, confidence);
+	}
+	
+
+	/**
+	 * Store the confidence of a constraint, solved on constrainables built by
+	 * {@link ConstrainableFactory}
+	 * 
+	 * @param constraint
+	 *            The constraint
+	 * @param shapes
+	 *            The shapes the constraint was solved on, in parameter order
+	 * @param subParts
+	 *            The sub-part of each shape that was used, or null for the
+	 *            whole shape
+	 * @param confidence
+	 *            The confidence of the constraint
+	 */
+	public void put(IConstraint constraint, IShape[] shapes,
+	        ComponentSubPart[] subParts, double confidence) {
+		put(FACTORY_CONSTRAINABLES, constraint, shapes, subParts, confidence);
 	}
 	
-	public double get(IShape s1, String c) {
-		if (cache.containsKey(s1)) {
-			if (cache.get(s1).contains(c)) {
-				get++;
-				return cache.get(s1).getConstraint(c);
+
+	/**
+	 * Store the confidence of a constraint
+	 * 
+	 * @param kind
+	 *            How the shapes were turned into constrainables
+	 * @param constraint
+	 *            The constraint
+	 * @param shapes
+	 *            The shapes the constraint was solved on, in parameter order
+	 * @param subParts
+	 *            The sub-part of each shape that was used, or null for the
+	 *            whole shape
+	 * @param confidence
+	 *            The confidence of the constraint
+	 */
+	public synchronized void put(String kind, IConstraint constraint,
+	        IShape[] shapes, ComponentSubPart[] subParts, double confidence) {
+		Key key = probe(kind, constraint, shapes, subParts).copy();
+		m_confidences.put(key, confidence);
+		
+		for (UUID id : key.m_shapeIDs) {
+			Set<Key> keys = m_keysByShape.get(id);
+			if (keys == null) {
+				keys = new HashSet<Key>();
+				m_keysByShape.put(id, keys);
 			}
+			keys.add(key);
 		}
-		return -1;
 	}
 	
-	public double get(IShape s1, IShape s2, String c) {
+
+	/**
+	 * Drop every confidence the shape was used in
+	 * 
+	 * @param shape
+	 *            The shape that has been removed
+	 */
+	public synchronized void removeShape(IShape shape) {
+		Set<Key> keys = m_keysByShape.remove(shape.getID());
+		if (keys == null) {
+			return;
+		}
 		
-		if (cache.containsKey(s1)) {
-			if (cache.get(s1).contains(s2, c)) {
-				get++;
-				return cache.get(s1).getConstraint(s2, c);
+		for (Key key : keys) {
+			m_confidences.remove(key);
+			for (UUID id : key.m_shapeIDs) {
+				Set<Key> otherKeys = m_keysByShape.get(id);
+				if (otherKeys != null) {
+					otherKeys.remove(key);
+					if (otherKeys.isEmpty()) {
+						m_keysByShape.remove(id);
+					}
+				}
 			}
 		}
-		return -1;
 	}
 	
-	public void clear() {
-		cache.clear();
+
+	/**
+	 * Drop every confidence. The hit and miss counts are kept.
+	 */
+	public synchronized void clear() {
+		m_confidences.clear();
+		m_keysByShape.clear();
+	}
+	
+
+	/**
+	 * Set the hit and miss counts back to 0
+	 */
+	public synchronized void resetStatistics() {
+		m_hits = 0;
+		m_misses = 0;
+	}
+	
+
+	/**
+	 * @return The number of confidences stored
+	 */
+	public synchronized int size() {
+		return m_confidences.size();
+	}
+	
+
+	/**
+	 * @return The number of lookups that found a confidence
+	 */
+	public synchronized long getHits() {
+		return m_hits;
+	}
+	
+
+	/**
+	 * @return The number of lookups that did not find a confidence
+	 */
+	public synchronized long getMisses() {
+		return m_misses;
 	}
 	
-	public void printGetsAndSets() {
-		System.out.println("Gets: " + get + " sets: " + set);
+
+	/**
+	 * @return The fraction of lookups that found a confidence, 0 if there
+	 *         have been no lookups
+	 */
+	public synchronized double getHitRate() {
+		long lookups = m_hits + m_misses;
+		return (lookups == 0) ? 0 : (double) m_hits / lookups;
 	}
+	
 
+	/**
+	 * Fill the probe key for the number of shapes with the constraint and its
+	 * arguments. Must be called holding the lock, and the probe must not be
+	 * stored.
+	 * 
+	 * @param kind
+	 *            How the shapes were turned into constrainables
+	 * @param constraint
+	 *            The constraint
+	 * @param shapes
+	 *            The shapes, in parameter order
+	 * @param subParts
+	 *            The sub-part of each shape, or null for the whole shape
+	 * @return The probe key
+	 */
+	private Key probe(String kind, IConstraint constraint, IShape[] shapes,
+	        ComponentSubPart[] subParts) {
+		if (shapes.length != subParts.length) {
+			throw new IllegalArgumentException(
+			        "Need one sub-part for each shape");
+		}
+		
+		if (shapes.length >= m_probes.length) {
+			Key[] probes = new Key[shapes.length + 1];
+			System.arraycopy(m_probes, 0, probes, 0, m_probes.length);
+			m_probes = probes;
+		}
+		Key probe = m_probes[shapes.length];
+		if (probe == null) {
+			probe = new Key(shapes.length);
+			m_probes[shapes.length] = probe;
+		}
+		
+		probe.set(kind, constraint, shapes, subParts);
+		return probe;
+	}
+	
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public synchronized String toString() {
+		return "Constraint cache: " + m_confidences.size() + " entries, "
+		       + m_hits + " hits, " + m_misses + " misses";
+	}
+	
+	/**
+	 * Identifies one solved constraint: its name and threshold, the shapes and
+	 * sub-parts it was solved on, and the kind of constrainables built from
+	 * them. Keys are only changed while they
+	 * are probes; a key is never changed once it is in a map.
+	 */
+	private static final class Key {
+		
+		/**
+		 * How the shapes were turned into constrainables
+		 */
+		private String m_kind;
+		
+		/**
+		 * Name of the constraint
+		 */
+		private String m_name;
+		
+		/**
+		 * Threshold of the constraint
+		 */
+		private double m_threshold;
+		
+		/**
+		 * IDs of the shapes, in parameter order
+		 */
+		private final UUID[] m_shapeIDs;
+		
+		/**
+		 * Sub-part of each shape, null for the whole shape
+		 */
+		private final ComponentSubPart[] m_subParts;
+		
+		/**
+		 * Hash code, computed once
+		 */
+		private int m_hashCode;
+		
+		
+		/**
+		 * Create an empty key for the given number of shapes
+		 * 
+		 * @param numShapes
+		 *            Number of shapes the constraint takes
+		 */
+		public Key(int numShapes) {
+			m_shapeIDs = new UUID[numShapes];
+			m_subParts = new ComponentSubPart[numShapes];
+		}
+		
+
+		/**
+		 * Make this the key for the constraint solved on the given shapes
+		 * 
+		 * @param kind
+		 *            How the shapes were turned into constrainables
+		 * @param constraint
+		 *            The constraint
+		 * @param shapes
+		 *            The shapes, in parameter order
+		 * @param subParts
+		 *            The sub-part of each shape, or null for the whole shape
+		 */
+		public void set(String kind, IConstraint constraint, IShape[] shapes,
+		        ComponentSubPart[] subParts) {
+			m_kind = kind;
+			m_name = constraint.getName();
+			m_threshold = constraint.getThreshold();
+			for (int i = 0; i < shapes.length; i++) {
+				m_shapeIDs[i] = shapes[i].getID();
+				m_subParts[i] = subParts[i];
+			}
+			
+			long thresholdBits = Double.doubleToLongBits(m_threshold);
+			int hash = m_kind.hashCode();
+			hash = 31 * hash + m_name.hashCode();
+			hash = 31 * hash + (int) (thresholdBits ^ (thresholdBits >>> 32));
+			hash = 31 * hash + Arrays.hashCode(m_shapeIDs);
+			hash = 31 * hash + Arrays.hashCode(m_subParts);
+			m_hashCode = hash;
+		}
+		
+
+		/**
+		 * @return A key equal to this one that does not share its arrays
+		 */
+		public Key copy() {
+			Key key = new Key(m_shapeIDs.length);
+			key.m_kind = m_kind;
+			key.m_name = m_name;
+			key.m_threshold = m_threshold;
+			System.arraycopy(m_shapeIDs, 0, key.m_shapeIDs, 0,
+			        m_shapeIDs.length);
+			System.arraycopy(m_subParts, 0, key.m_subParts, 0,
+			        m_subParts.length);
+			key.m_hashCode = m_hashCode;
+			return key;
+		}
+		
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see java.lang.Object#hashCode()
+		 */
+		@Override
+		public int hashCode() {
+			return m_hashCode;
+		}
+		
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see java.lang.Object#equals(java.lang.Object)
+		 */
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof Key)) {
+				return false;
+			}
+			Key other = (Key) obj;
+			return m_hashCode == other.m_hashCode
+			       && m_kind.equals(other.m_kind)
+			       && m_name.equals(other.m_name)
+			       && Double.compare(m_threshold, other.m_threshold) == 0
+			       && Arrays.equals(m_shapeIDs, other.m_shapeIDs)
+			       && Arrays.equals(m_subParts, other.m_subParts);
+		}
+	}
 }
@@ -9,9 +9,7 @@ import org.apache.log4j.Logger;
 import org.ladder.core.logging.LadderLogger;
 import org.ladder.core.sketch.BoundingBox;
 import org.ladder.core.sketch.IShape;
-import org.ladder.core.sketch.Shape;
 import org.ladder.recognition.DebugShapeSet;
-import org.ladder.recognition.constraint.ConstraintFactory;
 import org.ladder.recognition.constraint.IConstrainable;
 import org.ladder.recognition.constraint.IConstraint;
 import org.ladder.recognition.constraint.constrainable.ConstrainableLine;
@@ -19,9 +17,9 @@ import org.ladder.recognition.constraint.constrainable.ConstrainablePoint;
 import org.ladder.recognition.constraint.constrainable.ConstrainableShape;
 import org.ladder.recognition.constraint.domains.ComponentDefinition;
 import org.ladder.recognition.constraint.domains.ComponentSubPart;
-import org.ladder.recognition.constraint.domains.ConstraintDefinition;
 import org.ladder.recognition.constraint.domains.ConstraintParameter;
 import org.ladder.recognition.constraint.domains.ShapeDefinition;
+import org.ladder.recognition.constraint.domains.compiler.ShapeEvaluationPlan;
 import org.ladder.recognition.recognizer.OverTimeCheckHelper;
 import org.ladder.recognition.recognizer.OverTimeException;
 
@@ -37,6 +35,22 @@ public class ShapeBuilderTracy {
 	
 	private DebugShapeSet m_debugShapeSet = new DebugShapeSet();
 	
+	/**
+	 * Cache of constraint confidences, shared with the shape pool. Null means
+	 * confidences are not cached.
+	 */
+	private ConstraintCache m_constraintCache;
+	
+	/**
+	 * Evaluator for the shape definition being built
+	 */
+	private ShapePlanEvaluator m_evaluator;
+	
+	/**
+	 * Candidate in each component slot of the combination being scored
+	 */
+	private IShape[] m_assignment;
+	
 	
 	/**
 	 * @return the debugShape
@@ -56,6 +70,27 @@ public class ShapeBuilderTracy {
 	}
 	
 
+	/**
+	 * @return The cache constraint confidences are kept in, or null if they
+	 *         are not cached
+	 */
+	public ConstraintCache getConstraintCache() {
+		return m_constraintCache;
+	}
+	
+
+	/**
+	 * Set the cache to look up and store constraint confidences in. The cache
+	 * must be cleared of shapes that change or go away.
+	 * 
+	 * @param constraintCache
+	 *            The cache to use, or null to not cache confidences
+	 */
+	public void setConstraintCache(ConstraintCache constraintCache) {
+		m_constraintCache = constraintCache;
+	}
+	
+
 	public boolean isFailed() {
 		return m_failed;
 	}
@@ -266,157 +301,60 @@ public class ShapeBuilderTracy {
 
 	/**
 	 * Compute the confidence that the constraints in the shape def hold for the
-	 * given combination of candidates fitting into the given slots.
+	 * given combination of candidates fitting into the given slots. Constraints
+	 * that take a component past the end of the combination are skipped.
 	 * 
 	 * @param shapeDef
 	 *            Shape definition to build
-	 * @param slotNames
-	 *            Names of the components in the shape definition
+	 * @param evaluator
+	 *            Evaluator for the shape definition
+	 * @param combination
+	 *            Index of the candidate that goes in each slot
 	 * @param candidates
 	 *            The candidates we can use to build this shape
 	 * @return confidence the constraints hold for this shape def
 	 * @throws OverTimeException
 	 *             if recognition takes too long
-	 * @throws InstantiationException
-	 *             if error instantiating constraint
-	 * @throws IllegalAccessException
-	 *             if error instantiating constraint
-	 * @throws ClassNotFoundException
-	 *             if error instantiating constraint
 	 */
 	private double computeConstraintConfidence(ShapeDefinition shapeDef,
-	        ArrayList<Integer> combination,
-	        ArrayList<ComponentDefinition> slotNames,
-	        ArrayList<IShape> candidates) throws OverTimeException,
-	        InstantiationException, IllegalAccessException,
-	        ClassNotFoundException {
+	        ShapePlanEvaluator evaluator, ArrayList<Integer> combination,
+	        ArrayList<IShape> candidates) throws OverTimeException {
 		
 		int items = 0;
 		double confidence = 0;
 		
 		// COMBINATION tells us what order we're considering the SHAPES in
-		ArrayList<IShape> componentOrderingForTemplate = new ArrayList<IShape>();
-		for (Integer i : combination) {
-			componentOrderingForTemplate.add(candidates.get(i));
+		for (int slot = 0; slot < combination.size(); slot++) {
+			m_assignment[slot] = candidates.get(combination.get(slot));
 		}
 		
 		// for each constraint in this shape definition
-		for (ConstraintDefinition constraintDef : shapeDef
-		        .getConstraintDefinitions()) {
+		ShapeEvaluationPlan plan = evaluator.getPlan();
+		for (int c = 0; c < plan.getNumConstraints(); c++) {
 			
 			// Check if we've gone over time
 			OverTimeCheckHelper.overTimeCheck(m_startTime, m_maxTime, log);
 			
-			try {
-				IConstraint constraint = ConstraintFactory
-				        .getConstraint(constraintDef);
-				
-				List<IConstrainable> testShapes = new ArrayList<IConstrainable>();
-				List<IConstrainable> superTestShapes = new ArrayList<IConstrainable>();
-				
-				// for each parameter in this constraint
-				for (ConstraintParameter constraintParam : constraintDef
-				        .getParameters()) {
-					
-					// Check if we've gone over time
-					OverTimeCheckHelper.overTimeCheck(m_startTime, m_maxTime, log);
-					
-					// the text we're looking for in a ContainsText constraint
-					// ("AA")
-					String textString = null;
-					// name of the component that goes in this parameter of this
-					// constraint
-					String shapeName = constraintParam.getComponent();
-					
-					// if this is a ContainsText constraint and this is the
-					// SECOND parameter (param 1) in that constraint, set the
-					// text string name of this parameter's component.
-					// example:
-					// <constraint name="ContainsText">
-					// <param component="mainText" /> -- param # 0
-					// <param component="AA" /> -- param # 1
-					// </constraint>
-					// The textString will be "AA"
-					if (constraint.getName().equals("ContainsText")) {
-						if (constraintDef.getParameters().indexOf(
-						        constraintParam) == 1) {
-							textString = shapeName;
-						}
-					}
-					
-					// The Name of the component (ellipse1) used in this
-					// parameter of the constraint, get the component
-					// definition (index to it) in the set of component
-					// defnitions
-					int componentIndex = 0;
-					for (ComponentDefinition slot : shapeDef
-					        .getComponentDefinitions()) {
-						if (slot.getName().equals(shapeName)) {
-							break;
-						}
-						componentIndex++;
-					}
-					
-					// No containsText constraints
-					if (textString == null) {
-						
-						IShape s1 = componentOrderingForTemplate
-						        .get(componentIndex);
-						
-						IConstrainable superTestShape = buildSubShape(s1);
-						IConstrainable testShape = superTestShape;
-						if (constraintParam.containsSubPart()) {
-							testShape = buildParameterizedIConstrainable(
-							        superTestShape, constraintParam);
-						}
-						testShapes.add(testShape);
-						// superTestShapes.add(superTestShape);
-					}
-					else {
-						IShape s1 = new Shape();
-						s1.setLabel(textString);
-						IConstrainable superTestShape = buildSubShape(s1);
-						IConstrainable testShape = superTestShape;
-						testShapes.add(testShape);
-					}
-				}
-				testShapes.addAll(superTestShapes);
-				
-				double constraintConfidence = constraint.solve(testShapes);
-				if (constraint.getName().equals("ContainsText")) {
-					
-					// System.out.println("constraint confidence = " +
-					// constraintConfidence);
-					
-				}// else {
-				// System.out.println("b: " + shapeDef.getName() + " " +
-				// constraint.getName() + " constraintConfidence = " +
-				// constraintConfidence + " " +
-				// (!constraint.isClearlyFalse(constraintConfidence)));
-				// System.out.print("c: ");
-				// for(IConstrainable s : testShapes){
-				// System.out.print("  " + s.getShapeType() + ": " +
-				// s.getBoundingBox());
-				// }System.out.println("");
-				; // if(constraintConfidence <= 0){
-				// return 0;
-				// }
-				
-				if (constraint.isClearlyFalse(constraintConfidence)) {
-					return -1;
-				}
-				if (log.isDebugEnabled()
-				    && m_debugShapeSet.isDebugShape(shapeDef)) {
-					log.debug(constraint.getName() + " confidence "
-					          + constraintConfidence);
-				}
-				confidence += constraintConfidence;
-				items++;
-			}
-			catch (IndexOutOfBoundsException e) {
-				// e.printStackTrace();
+			// skip constraints on components that aren't in the combination
+			// (yet), or aren't in the shape at all
+			if (!plan.isResolved(c)
+			    || plan.getReadyDepth(c) > combination.size()) {
+				continue;
 			}
 			
+			// the text of a ContainsText constraint is handled by the plan
+			double constraintConfidence = evaluator.solve(c, m_assignment);
+			
+			IConstraint constraint = evaluator.getConstraint(c);
+			if (constraint.isClearlyFalse(constraintConfidence)) {
+				return -1;
+			}
+			if (log.isDebugEnabled() && m_debugShapeSet.isDebugShape(shapeDef)) {
+				log.debug(constraint.getName() + " confidence "
+				          + constraintConfidence);
+			}
+			confidence += constraintConfidence;
+			items++;
 		}
 		if (log.isDebugEnabled() && m_debugShapeSet.isDebugShape(shapeDef)) {
 			log.debug(shapeDef.getName() + " confidence before " + confidence);
@@ -441,6 +379,10 @@ public class ShapeBuilderTracy {
 	        InstantiationException, IllegalAccessException,
 	        ClassNotFoundException {
 		
+		// the constraints are the same for every combination, so only
+		// instantiate them once
+		ShapePlanEvaluator evaluator = getEvaluator(shapeDef);
+		
 		BuiltShape builtShape;
 		double highestConfidence = -1;
 		ArrayList<ArrayList<Integer>> bestCombinations = new ArrayList<ArrayList<Integer>>();
@@ -450,7 +392,7 @@ public class ShapeBuilderTracy {
 			OverTimeCheckHelper.overTimeCheck(m_startTime, m_maxTime, log);
 			
 			double confidence = computeConstraintConfidence(shapeDef,
-			        combination, slotNames, candidates);
+			        evaluator, combination, candidates);
 			if (confidence < 0) {
 				continue;
 			}
@@ -513,9 +455,28 @@ public class ShapeBuilderTracy {
 	public static IConstrainable buildParameterizedIConstrainable(
 	        IConstrainable constrainable, ConstraintParameter c)
 	        throws IllegalArgumentException {
+		return buildParameterizedIConstrainable(constrainable, c
+		        .getComponentSubPart());
+	}
+	
+
+	/**
+	 * This method accepts an IConstrainable and builds the IConstrainable for
+	 * the given sub-part of it
+	 * 
+	 * @param constrainable
+	 *            An IConstrainable that is to be transformed into an
+	 *            IConstrainable based on a ComponentSubPart
+	 * @param csp
+	 *            A ComponentSubPart that gets used for grabbing the right piece
+	 *            of an IConstraiable
+	 * @return IConstrainable
+	 */
+	public static IConstrainable buildParameterizedIConstrainable(
+	        IConstrainable constrainable, ComponentSubPart csp)
+	        throws IllegalArgumentException {
 		IConstrainable parameterized;
 		
-		ComponentSubPart csp = c.getComponentSubPart();
 		if (constrainable instanceof ConstrainableLine) {
 			parameterized = getLineSubPart((ConstrainableLine) constrainable,
 			        csp);
@@ -821,8 +782,8 @@ public class ShapeBuilderTracy {
 		// return combinations;
 		ArrayList<Integer> combination = new ArrayList<Integer>();
 		// combination.add(confidence);
-		double confidence = computeConstraintConfidence(shapeDef, combination,
-		        slotNames, candidates);
+		double confidence = computeConstraintConfidence(shapeDef,
+		        getEvaluator(shapeDef), combination, candidates);
 		if (confidence >= 0) {
 			combinations.add(combination);
 		}
@@ -834,6 +795,56 @@ public class ShapeBuilderTracy {
 	}
 	
 
+	/**
+	 * Get the evaluator for the shape definition's compiled plan, making it
+	 * the first time it's needed. Constrainables are built the same way as
+	 * {@link #buildSubShape(IShape)} and
+	 * {@link #buildParameterizedIConstrainable(IConstrainable, ComponentSubPart)}
+	 * , so their confidences are cached under their own kind.
+	 * 
+	 * @param shapeDef
+	 *            Shape definition to build
+	 * @return The evaluator for the shape definition
+	 * @throws InstantiationException
+	 *             if error instantiating constraint
+	 * @throws IllegalAccessException
+	 *             if error instantiating constraint
+	 * @throws ClassNotFoundException
+	 *             if error instantiating constraint
+	 */
+	private ShapePlanEvaluator getEvaluator(ShapeDefinition shapeDef)
+	        throws InstantiationException, IllegalAccessException,
+	        ClassNotFoundException {
+		ShapeEvaluationPlan plan = ShapeEvaluationPlan.forShape(shapeDef);
+		if (m_evaluator == null || m_evaluator.getPlan() != plan) {
+			m_evaluator = new ShapePlanEvaluator(plan) {
+				
+				@Override
+				protected String getConstrainableKind() {
+					return ShapeBuilderTracy.class.getName();
+				}
+				
+
+				@Override
+				protected IConstrainable buildConstrainable(IShape shape) {
+					return buildSubShape(shape);
+				}
+				
+
+				@Override
+				protected IConstrainable buildSubPart(
+				        IConstrainable constrainable, ComponentSubPart subPart) {
+					return buildParameterizedIConstrainable(constrainable,
+					        subPart);
+				}
+			};
+			m_assignment = new IShape[plan.getNumComponents()];
+		}
+		m_evaluator.setConstraintCache(m_constraintCache);
+		return m_evaluator;
+	}
+	
+
 	private ArrayList<ComponentDefinition> computeSlotArray(
 	        ShapeDefinition shapeDef) {
 		
@@ -3,6 +3,10 @@
  * 
  * Revision History:<br>
  * Mar 16, 2009 jbjohns - File created
+ * Oct 18, 2026 - Branch-and-bound search over the component slots
+ * Oct 18, 2026 - Reuse constraint instances, memoize confidences in a
+ *                ConstraintCache
+ * Oct 18, 2026 - Score constraints with the shape's compiled evaluation plan
  * 
  * <p>
  * 
@@ -37,8 +41,10 @@
 package org.ladder.recognition.constraint.builders;
 
 import java.util.ArrayList;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.apache.log4j.Logger;
@@ -48,19 +54,26 @@ import org.ladder.core.sketch.IsAConstants;
 import org.ladder.datastructures.CountMap;
 import org.ladder.datastructures.IgnoreCaseStringSet;
 import org.ladder.recognition.DebugShapeSet;
-import org.ladder.recognition.constraint.ConstraintFactory;
-import org.ladder.recognition.constraint.IConstrainable;
-import org.ladder.recognition.constraint.IConstraint;
 import org.ladder.recognition.constraint.confidence.AndConstraint;
-import org.ladder.recognition.constraint.constrainable.ConstrainableFactory;
 import org.ladder.recognition.constraint.domains.ComponentDefinition;
-import org.ladder.recognition.constraint.domains.ConstraintDefinition;
-import org.ladder.recognition.constraint.domains.ConstraintParameter;
 import org.ladder.recognition.constraint.domains.ShapeDefinition;
+import org.ladder.recognition.constraint.domains.compiler.ShapeEvaluationPlan;
 import org.ladder.recognition.recognizer.OverTimeCheckHelper;
 import org.ladder.recognition.recognizer.OverTimeException;
 
 /**
+ * Build shapes by searching the assignments of pool shapes to the component
+ * slots of a shape definition. By default the search is branch-and-bound:
+ * constraints are scored as soon as all the components they take as
+ * parameters have been assigned, and any partial assignment whose best
+ * reachable confidence cannot beat the best shape built so far is cut. The
+ * exhaustive search over all permutations can be turned back on with
+ * {@link #setUseBranchAndBound(boolean)}; both return the same best shape.
+ * <p>
+ * Constraint confidences are looked up in, and stored to, the
+ * {@link ConstraintCache} set with {@link #setConstraintCache(ConstraintCache)},
+ * so constraints already solved on the same shapes are not solved again.
+ * <p>
  * This class is not thread safe and should be externally synchronized.
  * 
  * @author jbjohns
@@ -78,6 +91,21 @@ public class ShapeBuilderTreeSearch implements IShapeBuilder {
 	 */
 	private static final int S_UNTIMED_MAX_TIME = -1;
 	
+	/**
+	 * Slack used when comparing a partial assignment's upper bound against the
+	 * best confidence so far. The bound and the final confidence add the same
+	 * values in a different order, so they can differ by rounding error. We
+	 * only cut a subtree when it is clearly worse than the best shape.
+	 */
+	private static final double S_BOUND_TOLERANCE = 1e-9;
+	
+	/**
+	 * Upper bound on the confidence of a single constraint. All the
+	 * confidence constraints are half-Gaussian densities or sigmoids, so none
+	 * of them can exceed this.
+	 */
+	private static final double S_MAX_CONSTRAINT_CONFIDENCE = 1.0;
+	
 	/**
 	 * The time that recognition started.
 	 */
@@ -93,6 +121,40 @@ public class ShapeBuilderTreeSearch implements IShapeBuilder {
 	 */
 	private DebugShapeSet m_debugShapeSet;
 	
+	/**
+	 * Use branch-and-bound to search the assignments (true), or enumerate
+	 * every permutation (false)?
+	 */
+	private boolean m_useBranchAndBound = true;
+	
+	/**
+	 * Number of nodes (partial or complete assignments) expanded by the last
+	 * call to build a shape.
+	 */
+	private long m_numNodesExpanded;
+	
+	/**
+	 * Number of nodes cut by the bound in the last call to build a shape.
+	 */
+	private long m_numNodesPruned;
+	
+	/**
+	 * Cache of constraint confidences, shared with whoever else works on the
+	 * same shapes. Null means confidences are not cached.
+	 */
+	private ConstraintCache m_constraintCache;
+	
+	/**
+	 * Evaluator for each shape definition we've built, following the shape's
+	 * {@link ShapeEvaluationPlan}
+	 */
+	private final Map<ShapeDefinition, ShapePlanEvaluator> m_evaluators = new IdentityHashMap<ShapeDefinition, ShapePlanEvaluator>();
+	
+	/**
+	 * Evaluator for the shape definition being built
+	 */
+	private ShapePlanEvaluator m_evaluator;
+	
 	
 	/**
 	 * Default constructor.
@@ -137,6 +199,64 @@ public class ShapeBuilderTreeSearch implements IShapeBuilder {
 	}
 	
 
+	/**
+	 * @return true if shapes are built with the branch-and-bound search, false
+	 *         if every permutation is enumerated
+	 */
+	public boolean isUseBranchAndBound() {
+		return m_useBranchAndBound;
+	}
+	
+
+	/**
+	 * @param useBranchAndBound
+	 *            true to build shapes with the branch-and-bound search, false
+	 *            to enumerate every permutation of the pool
+	 */
+	public void setUseBranchAndBound(boolean useBranchAndBound) {
+		m_useBranchAndBound = useBranchAndBound;
+	}
+	
+
+	/**
+	 * @return The cache constraint confidences are kept in, or null if they
+	 *         are not cached
+	 */
+	public ConstraintCache getConstraintCache() {
+		return m_constraintCache;
+	}
+	
+
+	/**
+	 * Set the cache to look up and store constraint confidences in. The cache
+	 * must be cleared of shapes that change or go away.
+	 * 
+	 * @param constraintCache
+	 *            The cache to use, or null to not cache confidences
+	 */
+	public void setConstraintCache(ConstraintCache constraintCache) {
+		m_constraintCache = constraintCache;
+	}
+	
+
+	/**
+	 * @return The number of search nodes (partial or complete assignments of
+	 *         shapes to components) expanded by the last build
+	 */
+	public long getNumNodesExpanded() {
+		return m_numNodesExpanded;
+	}
+	
+
+	/**
+	 * @return The number of search nodes cut off by the bound in the last
+	 *         build. Always 0 for the exhaustive search.
+	 */
+	public long getNumNodesPruned() {
+		return m_numNodesPruned;
+	}
+	
+
 	/*
 	 * (non-Javadoc)
 	 * 
@@ -173,8 +293,11 @@ public class ShapeBuilderTreeSearch implements IShapeBuilder {
 	        ShapeDefinition shapeDef, long maxTime)
 	        throws ShapeBuildFailureException, OverTimeException {
 		
-		m_maxTime = maxTime;
+		// negative means no time limit (see IShapeBuilder)
+		m_maxTime = (maxTime < 0) ? Long.MAX_VALUE : maxTime;
 		m_startTime = System.currentTimeMillis();
+		m_numNodesExpanded = 0;
+		m_numNodesPruned = 0;
 		OverTimeCheckHelper.overTimeCheck(m_startTime, m_maxTime, log);
 		
 		BuiltShape builtShape = null;
@@ -204,7 +327,19 @@ public class ShapeBuilderTreeSearch implements IShapeBuilder {
 		
 		// see if we can build the shape with what's not been pruned from the
 		// pool.
-		builtShape = buildShapeTreeSearch(clonedPool, shapeDef);
+		m_evaluator = getEvaluator(shapeDef);
+		try {
+			builtShape = buildShapeTreeSearch(clonedPool, shapeDef);
+		}
+		finally {
+			// the constrainables are only good for this pool
+			m_evaluator.clearConstrainables();
+			if (log.isDebugEnabled()) {
+				log.debug(shapeDef.getName() + ": expanded "
+				          + m_numNodesExpanded + " nodes, pruned "
+				          + m_numNodesPruned);
+			}
+		}
 		putShapeDefinitionIntoBuiltShape(shapeDef, builtShape);
 		
 		return builtShape;
@@ -417,8 +552,9 @@ public class ShapeBuilderTreeSearch implements IShapeBuilder {
 	
 
 	/**
-	 * Use a tree search algorithm to brute-force all possible combinations and
-	 * build the shape. If a shape cannot be built, throw
+	 * Use a tree search algorithm to search all possible combinations and
+	 * build the shape, either with branch-and-bound or by brute force (see
+	 * {@link #isUseBranchAndBound()}). If a shape cannot be built, throw
 	 * {@link ShapeBuildFailureException}.
 	 * <p>
 	 * If the pool or shape def are null, throw a {@link NullPointerException}.
@@ -449,8 +585,15 @@ public class ShapeBuilderTreeSearch implements IShapeBuilder {
 			        .build();
 		}
 		
-		BuiltShape builtShape = permuteAndBuild(pool, new ArrayList<IShape>(),
-		        shapeDef);
+		BuiltShape builtShape = null;
+		if (m_useBranchAndBound) {
+			builtShape = new BranchAndBoundSearch(pool, shapeDef, m_evaluator)
+			        .search();
+		}
+		else {
+			builtShape = permuteAndBuild(pool, new ArrayList<IShape>(),
+			        shapeDef);
+		}
 		
 		if (builtShape == null) {
 			throw new ShapeBuildFailureException.Builder().withShapeName(
@@ -463,7 +606,8 @@ public class ShapeBuilderTreeSearch implements IShapeBuilder {
 
 	/**
 	 * Recursive method to search through all possible permutations of the pool
-	 * and find the best shape.
+	 * and find the best shape. This is the exhaustive search, used when
+	 * branch-and-bound is turned off.
 	 * 
 	 * @param unusedShapeList
 	 *            The shapes that have not been used in the current permutation
@@ -484,6 +628,7 @@ public class ShapeBuilderTreeSearch implements IShapeBuilder {
 	        throws ShapeBuildFailureException, OverTimeException {
 		
 		OverTimeCheckHelper.overTimeCheck(m_startTime, m_maxTime, log);
+		m_numNodesExpanded++;
 		
 		if (unusedShapeList == null) {
 			throw new NullPointerException("Unused shape list is nul");
@@ -539,9 +684,6 @@ public class ShapeBuilderTreeSearch implements IShapeBuilder {
 				continue;
 			}
 			
-			// TODO check constraints so far and cut out if too low of a
-			// confidence?
-			
 			List<IShape> newUnused = new ArrayList<IShape>();
 			for (int j = 0; j < unusedShapeList.size(); j++) {
 				if (i != j) {
@@ -626,72 +768,92 @@ public class ShapeBuilderTreeSearch implements IShapeBuilder {
 		
 		BuiltShape builtShape = new BuiltShape();
 		
+		// average the constraint confidences, the same as AndConstraint
 		double shapeConfidence = 0;
-		List<IConstraint> constraints = new ArrayList<IConstraint>();
+		IShape[] assignment = shapes.toArray(new IShape[shapes.size()]);
+		int numConstraints = m_evaluator.getPlan().getNumConstraints();
 		
-		for (ConstraintDefinition constraintDef : shapeDef
-		        .getConstraintDefinitions()) {
+		for (int c = 0; c < numConstraints; c++) {
 			
 			if (log.isDebugEnabled() && m_debugShapeSet.isDebugShape(shapeDef)) {
-				log.debug("Considering constraint [[" + constraintDef.toString()+"]]");
+				log.debug("Considering constraint [["
+				          + shapeDef.getConstraintDefinitions().get(c)
+				                  .toString() + "]]");
 			}
 			
 			OverTimeCheckHelper.overTimeCheck(m_startTime, m_maxTime, log);
 			
-			// parameters are how the constraint is defined
-			List<ConstraintParameter> constraintParams = constraintDef
-			        .getParameters();
-			// args are the shapes we're passing into the constraint as defined
-			// by the parameters
-			List<IConstrainable> constraintArgs = new ArrayList<IConstrainable>();
-			for (ConstraintParameter param : constraintParams) {
-				String componentName = param.getComponent();
-				int componentIndex = shapeDef.getComponentIndex(componentName);
-				IShape componentShape = shapes.get(componentIndex);
-				
-				IConstrainable constrainable = ConstrainableFactory
-				        .buildConstrainable(componentShape);
-				if (param.containsSubPart()) {
-					constrainable = ConstrainableFactory
-					        .getConstrainableSubPart(constrainable, param
-					                .getComponentSubPart());
-				}
-				constraintArgs.add(constrainable);
-			}
-			
-			try {
-				IConstraint constraint = ConstraintFactory
-				        .getConstraint(constraintDef);
-				constraint.setParameters(constraintArgs);
-				constraints.add(constraint);
-			}
-			catch (InstantiationException e) {
-				String msg = "Cannot put together constraint";
-				log.error(msg, e);
-				throw new ShapeBuildFailureException.Builder().withMessage(msg)
-				        .withShapeName(shapeDef.getName()).withCause(e).build();
-			}
-			catch (IllegalAccessException e) {
-				String msg = "Cannot put together constraint";
-				log.error(msg, e);
-				throw new ShapeBuildFailureException.Builder().withMessage(msg)
-				        .withShapeName(shapeDef.getName()).withCause(e).build();
-			}
-			catch (ClassNotFoundException e) {
-				String msg = "Cannot put together constraint";
-				log.error(msg, e);
-				throw new ShapeBuildFailureException.Builder().withMessage(msg)
-				        .withShapeName(shapeDef.getName()).withCause(e).build();
-			}
+			shapeConfidence += m_evaluator.solve(c, assignment);
 		}
 		
-		shapeConfidence = AndConstraint.solve(constraints);
+		if (numConstraints > 0) {
+			shapeConfidence /= numConstraints;
+		}
 		builtShape.setConfidence(shapeConfidence);
 		
 		return builtShape;
 	}
 	
 
+	/**
+	 * Get the evaluator for the shape definition, making it the first time
+	 * the definition is seen or when its plan has been remade. Reflection
+	 * problems instantiating the constraints, and constraint parameters that
+	 * are not components of the shape, are wrapped in a
+	 * {@link ShapeBuildFailureException}.
+	 * 
+	 * @param shapeDef
+	 *            The shape definition to build
+	 * @return The evaluator for the shape definition
+	 * @throws ShapeBuildFailureException
+	 *             If the shape's constraints cannot be put together
+	 */
+	private ShapePlanEvaluator getEvaluator(ShapeDefinition shapeDef)
+	        throws ShapeBuildFailureException {
+		ShapeEvaluationPlan plan = null;
+		try {
+			plan = ShapeEvaluationPlan.forShape(shapeDef);
+		}
+		catch (InstantiationException e) {
+			String msg = "Cannot put together constraint";
+			log.error(msg, e);
+			throw new ShapeBuildFailureException.Builder().withMessage(msg)
+			        .withShapeName(shapeDef.getName()).withCause(e).build();
+		}
+		catch (IllegalAccessException e) {
+			String msg = "Cannot put together constraint";
+			log.error(msg, e);
+			throw new ShapeBuildFailureException.Builder().withMessage(msg)
+			        .withShapeName(shapeDef.getName()).withCause(e).build();
+		}
+		catch (ClassNotFoundException e) {
+			String msg = "Cannot put together constraint";
+			log.error(msg, e);
+			throw new ShapeBuildFailureException.Builder().withMessage(msg)
+			        .withShapeName(shapeDef.getName()).withCause(e).build();
+		}
+		
+		ShapePlanEvaluator evaluator = m_evaluators.get(shapeDef);
+		if (evaluator == null || evaluator.getPlan() != plan) {
+			for (int c = 0; c < plan.getNumConstraints(); c++) {
+				if (!plan.isResolved(c)) {
+					throw new ShapeBuildFailureException.Builder()
+					        .withMessage(
+					                "Constraint takes a component the shape does not have: "
+					                        + shapeDef.getConstraintDefinitions()
+					                                .get(c)).withShapeName(
+					                shapeDef.getName()).build();
+				}
+			}
+			evaluator = new ShapePlanEvaluator(plan);
+			m_evaluators.put(shapeDef, evaluator);
+		}
+		
+		evaluator.setConstraintCache(m_constraintCache);
+		return evaluator;
+	}
+	
+
 	/**
 	 * Given that you've built a shape from the shape definition, copy the shape
 	 * definition's attributes and properties into the built shape. This
@@ -771,4 +933,271 @@ public class ShapeBuilderTreeSearch implements IShapeBuilder {
 		
 		return hasType;
 	}
+	
+
+	/**
+	 * One branch-and-bound search for the best assignment of pool shapes to
+	 * the component slots of a shape definition.
+	 * <p>
+	 * Components are assigned in the order they appear in the shape
+	 * definition, and shapes are tried in pool order, which is the same order
+	 * the exhaustive search visits permutations in. Each constraint is scored
+	 * at the depth where the last of its parameter components is assigned. The
+	 * confidence of a shape is the average of its constraint confidences (see
+	 * {@link AndConstraint#solve(List)}), so the most any partial assignment
+	 * can reach is the sum of the constraints scored so far plus
+	 * {@link #S_MAX_CONSTRAINT_CONFIDENCE} for each constraint not yet scored,
+	 * over the number of constraints. A subtree is cut when this bound is
+	 * below the best complete assignment found so far. Ties keep the first
+	 * assignment found, just like the exhaustive search, so the same best shape
+	 * is returned.
+	 */
+	private class BranchAndBoundSearch {
+		
+		/**
+		 * The pool of candidate shapes
+		 */
+		private final List<IShape> m_pool;
+		
+		/**
+		 * The shape definition we're building
+		 */
+		private final ShapeDefinition m_shapeDef;
+		
+		/**
+		 * Component definitions, in slot order
+		 */
+		private final List<ComponentDefinition> m_components;
+		
+		/**
+		 * Scores the constraints, in the order they're averaged
+		 */
+		private final ShapePlanEvaluator m_evaluator;
+		
+		/**
+		 * Number of constraints in the shape definition
+		 */
+		private final int m_numConstraints;
+		
+		/**
+		 * For each depth (number of assigned components), the constraints that
+		 * become fully bound when that many components are assigned
+		 */
+		private final int[][] m_constraintsAtDepth;
+		
+		/**
+		 * For each depth, the most confidence the constraints that are still
+		 * unscored at that depth can add
+		 */
+		private final double[] m_remainingBound;
+		
+		/**
+		 * Shape assigned to each component slot
+		 */
+		private final IShape[] m_assignment;
+		
+		/**
+		 * Which pool shapes are in the current assignment
+		 */
+		private final boolean[] m_used;
+		
+		/**
+		 * Confidence of each constraint under the current assignment. Only
+		 * valid for constraints that are fully bound.
+		 */
+		private final double[] m_confidences;
+		
+		/**
+		 * Best complete assignment so far, null if none
+		 */
+		private IShape[] m_bestAssignment;
+		
+		/**
+		 * Confidence of {@link #m_bestAssignment}
+		 */
+		private double m_bestConfidence;
+		
+		
+		/**
+		 * Set up the search, grouping the constraints by the depth at which
+		 * the plan says they can be scored.
+		 * 
+		 * @param pool
+		 *            The pool of candidate shapes
+		 * @param shapeDef
+		 *            The shape definition to build
+		 * @param evaluator
+		 *            Evaluator for the shape definition
+		 */
+		public BranchAndBoundSearch(List<IShape> pool,
+		        ShapeDefinition shapeDef, ShapePlanEvaluator evaluator) {
+			if (shapeDef.getNumComponents() <= 0) {
+				throw new IllegalArgumentException("Must have > 0 components!");
+			}
+			
+			m_pool = pool;
+			m_shapeDef = shapeDef;
+			m_components = shapeDef.getComponentDefinitions();
+			m_evaluator = evaluator;
+			
+			ShapeEvaluationPlan plan = evaluator.getPlan();
+			int numComponents = m_components.size();
+			m_numConstraints = plan.getNumConstraints();
+			
+			int[] numAtDepth = new int[numComponents + 1];
+			for (int c = 0; c < m_numConstraints; c++) {
+				numAtDepth[plan.getReadyDepth(c)]++;
+			}
+			m_constraintsAtDepth = new int[numComponents + 1][];
+			for (int d = 0; d <= numComponents; d++) {
+				m_constraintsAtDepth[d] = new int[numAtDepth[d]];
+				numAtDepth[d] = 0;
+			}
+			for (int c = 0; c < m_numConstraints; c++) {
+				int d = plan.getReadyDepth(c);
+				m_constraintsAtDepth[d][numAtDepth[d]++] = c;
+			}
+			
+			m_remainingBound = new double[numComponents + 1];
+			for (int d = numComponents - 1; d >= 0; d--) {
+				m_remainingBound[d] = m_remainingBound[d + 1]
+				                      + m_constraintsAtDepth[d + 1].length
+				                      * S_MAX_CONSTRAINT_CONFIDENCE;
+			}
+			
+			m_assignment = new IShape[numComponents];
+			m_used = new boolean[pool.size()];
+			m_confidences = new double[m_numConstraints];
+			m_bestAssignment = null;
+			m_bestConfidence = Double.NEGATIVE_INFINITY;
+		}
+		
+
+		/**
+		 * Run the search.
+		 * 
+		 * @return The best shape that can be built, or null if no assignment
+		 *         of the pool fills every component
+		 * @throws OverTimeException
+		 *             If building goes over time
+		 */
+		public BuiltShape search() throws OverTimeException {
+			expand(0, 0);
+			
+			if (m_bestAssignment == null) {
+				return null;
+			}
+			
+			BuiltShape builtShape = new BuiltShape();
+			builtShape.setConfidence(m_bestConfidence);
+			for (int i = 0; i < m_bestAssignment.length; i++) {
+				builtShape.setComponent(m_components.get(i).getName(),
+				        m_bestAssignment[i]);
+			}
+			return builtShape;
+		}
+		
+
+		/**
+		 * Expand the node with the first depth components assigned
+		 * 
+		 * @param depth
+		 *            Number of components assigned so far
+		 * @param scoredSum
+		 *            Sum of the confidences of the constraints scored so far
+		 * @throws OverTimeException
+		 *             If building goes over time
+		 */
+		private void expand(int depth, double scoredSum)
+		        throws OverTimeException {
+			OverTimeCheckHelper.overTimeCheck(m_startTime, m_maxTime, log);
+			m_numNodesExpanded++;
+			
+			if (depth == m_assignment.length) {
+				double confidence = confidenceOfAssignment();
+				if (m_bestAssignment == null || confidence > m_bestConfidence) {
+					m_bestConfidence = confidence;
+					m_bestAssignment = m_assignment.clone();
+				}
+				return;
+			}
+			
+			ComponentDefinition component = m_components.get(depth);
+			int[] newlyBound = m_constraintsAtDepth[depth + 1];
+			
+			for (int i = 0; i < m_pool.size(); i++) {
+				if (m_used[i]) {
+					continue;
+				}
+				IShape shape = m_pool.get(i);
+				if (!shapeHasComponentsType(shape, component)) {
+					continue;
+				}
+				
+				m_assignment[depth] = shape;
+				
+				double sum = scoredSum;
+				for (int c : newlyBound) {
+					m_confidences[c] = m_evaluator.solve(c, m_assignment);
+					sum += m_confidences[c];
+				}
+				
+				double bound = upperBound(sum, depth + 1);
+				if (m_bestAssignment != null
+				    && bound + S_BOUND_TOLERANCE < m_bestConfidence) {
+					m_numNodesPruned++;
+					if (log.isDebugEnabled()
+					    && m_debugShapeSet.isDebugShape(m_shapeDef)) {
+						log.debug("Cutting " + shape.getLabel() + " in "
+						          + component.getName() + ", bound " + bound
+						          + " < best " + m_bestConfidence);
+					}
+					continue;
+				}
+				
+				m_used[i] = true;
+				expand(depth + 1, sum);
+				m_used[i] = false;
+			}
+			
+			m_assignment[depth] = null;
+		}
+		
+
+		/**
+		 * The most confidence any completion of the current assignment can
+		 * have
+		 * 
+		 * @param scoredSum
+		 *            Sum of the confidences of the constraints scored so far
+		 * @param depth
+		 *            Number of components assigned
+		 * @return Upper bound on the confidence
+		 */
+		private double upperBound(double scoredSum, int depth) {
+			if (m_numConstraints == 0) {
+				return 0;
+			}
+			return (scoredSum + m_remainingBound[depth]) / m_numConstraints;
+		}
+		
+
+		/**
+		 * Average the constraint confidences of a complete assignment, in the
+		 * same order as {@link AndConstraint#solve(List)}, so the value is
+		 * exactly what the exhaustive search computes.
+		 * 
+		 * @return The confidence of the current, complete assignment
+		 */
+		private double confidenceOfAssignment() {
+			double conf = 0;
+			if (m_confidences.length > 0) {
+				for (double c : m_confidences) {
+					conf += c;
+				}
+				conf /= m_confidences.length;
+			}
+			return conf;
+		}
+	}
 }
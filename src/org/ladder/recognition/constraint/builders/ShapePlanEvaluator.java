@@ -0,0 +1,346 @@
+/**
+ * ShapePlanEvaluator.java
+ * 
+ * Revision History:<br>
+ * Oct 18, 2026 - File created
+ * 
+ * <p>
+ * 
+ * <pre>
+ * This work is released under the BSD License:
+ * (C) 2008 Sketch Recognition Lab, Texas A&amp;M University (hereafter SRL @ TAMU)
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the Sketch Recognition Lab, Texas A&amp;M University 
+ *       nor the names of its contributors may be used to endorse or promote 
+ *       products derived from this software without specific prior written 
+ *       permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY SRL @ TAMU ``AS IS'' AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL SRL @ TAMU BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ * </pre>
+ */
+package org.ladder.recognition.constraint.builders;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.ladder.core.sketch.IShape;
+import org.ladder.core.sketch.Shape;
+import org.ladder.recognition.constraint.IConstrainable;
+import org.ladder.recognition.constraint.IConstraint;
+import org.ladder.recognition.constraint.constrainable.ConstrainableFactory;
+import org.ladder.recognition.constraint.domains.ComponentSubPart;
+import org.ladder.recognition.constraint.domains.compiler.ShapeEvaluationPlan;
+
+/**
+ * Scores the constraints of a shape definition on assignments of shapes to
+ * its component slots, following a {@link ShapeEvaluationPlan}. Everything
+ * that does not depend on the assignment is set up once: the constraint
+ * instances, the argument arrays and lists handed to them, and the
+ * constrainables for literal parameters. The constrainable for each shape and
+ * sub-part is built the first time it is needed and kept until
+ * {@link #clearConstrainables()}, so scoring the same shapes again only
+ * solves the constraints.
+ * <p>
+ * Subclasses can change how shapes are turned into constrainables by
+ * overriding {@link #buildConstrainable(IShape)} and
+ * {@link #buildSubPart(IConstrainable, ComponentSubPart)}. They must then
+ * also override {@link #getConstrainableKind()}, so their confidences are
+ * kept apart in a shared {@link ConstraintCache}.
+ * <p>
+ * This class is not thread safe. Each builder keeps its own evaluators.
+ */
+public class ShapePlanEvaluator {
+	
+	/**
+	 * Number of entries kept for each shape: the whole shape, and each
+	 * sub-part
+	 */
+	private static final int S_NUM_PARTS = ComponentSubPart.values().length + 1;
+	
+	/**
+	 * The plan being followed
+	 */
+	private final ShapeEvaluationPlan m_plan;
+	
+	/**
+	 * This evaluator's instance of each constraint
+	 */
+	private final IConstraint[] m_constraints;
+	
+	/**
+	 * Shape in each parameter of each constraint, filled for each solve
+	 */
+	private final IShape[][] m_args;
+	
+	/**
+	 * Sub-part of each parameter of each constraint, for the cache
+	 */
+	private final ComponentSubPart[][] m_subParts;
+	
+	/**
+	 * Constrainable for each literal parameter, null for component parameters
+	 */
+	private final IConstrainable[][] m_literals;
+	
+	/**
+	 * Constrainables passed to each constraint, filled for each solve
+	 */
+	private final List<List<IConstrainable>> m_constrainableArgs;
+	
+	/**
+	 * Can each constraint's confidence be cached? Constraints with literal
+	 * parameters have no shapes to cache the confidence under.
+	 */
+	private final boolean[] m_cacheable;
+	
+	/**
+	 * Constrainables built for each shape, indexed by sub-part ordinal + 1,
+	 * with the whole shape at 0
+	 */
+	private final Map<IShape, IConstrainable[]> m_constrainables = new IdentityHashMap<IShape, IConstrainable[]>();
+	
+	/**
+	 * Cache of constraint confidences, null to not cache
+	 */
+	private ConstraintCache m_constraintCache = null;
+	
+	
+	/**
+	 * Set up to score the constraints of the plan
+	 * 
+	 * @param plan
+	 *            The plan for the shape definition
+	 */
+	public ShapePlanEvaluator(ShapeEvaluationPlan plan) {
+		m_plan = plan;
+		
+		int numConstraints = plan.getNumConstraints();
+		m_constraints = new IConstraint[numConstraints];
+		m_args = new IShape[numConstraints][];
+		m_subParts = new ComponentSubPart[numConstraints][];
+		m_literals = new IConstrainable[numConstraints][];
+		m_constrainableArgs = new ArrayList<List<IConstrainable>>(
+		        numConstraints);
+		m_cacheable = new boolean[numConstraints];
+		
+		for (int c = 0; c < numConstraints; c++) {
+			int numParams = plan.getNumParameters(c);
+			m_constraints[c] = plan.newConstraint(c);
+			m_args[c] = new IShape[numParams];
+			m_subParts[c] = new ComponentSubPart[numParams];
+			m_literals[c] = new IConstrainable[numParams];
+			m_constrainableArgs.add(new ArrayList<IConstrainable>(numParams));
+			m_cacheable[c] = plan.hasOnlyComponents(c);
+			
+			for (int p = 0; p < numParams; p++) {
+				m_subParts[c][p] = plan.getSubPart(c, p);
+			}
+		}
+	}
+	
+
+	/**
+	 * @return The plan being followed
+	 */
+	public ShapeEvaluationPlan getPlan() {
+		return m_plan;
+	}
+	
+
+	/**
+	 * @param c
+	 *            Index of the constraint
+	 * @return This evaluator's instance of the constraint
+	 */
+	public IConstraint getConstraint(int c) {
+		return m_constraints[c];
+	}
+	
+
+	/**
+	 * @return The cache of constraint confidences, or null if confidences are
+	 *         not cached
+	 */
+	public ConstraintCache getConstraintCache() {
+		return m_constraintCache;
+	}
+	
+
+	/**
+	 * Set the cache to look constraint confidences up in and store them to
+	 * 
+	 * @param constraintCache
+	 *            The cache, or null to not cache
+	 */
+	public void setConstraintCache(ConstraintCache constraintCache) {
+		m_constraintCache = constraintCache;
+	}
+	
+
+	/**
+	 * Score one constraint on an assignment of shapes to component slots. The
+	 * slots the constraint takes must be filled and the constraint must be
+	 * resolved, see {@link ShapeEvaluationPlan#isResolved(int)}.
+	 * 
+	 * @param c
+	 *            Index of the constraint
+	 * @param assignment
+	 *            Shape in each component slot
+	 * @return The confidence of the constraint
+	 */
+	public double solve(int c, IShape[] assignment) {
+		IConstraint constraint = m_constraints[c];
+		IShape[] args = m_args[c];
+		ComponentSubPart[] subParts = m_subParts[c];
+		
+		boolean cacheable = m_cacheable[c] && m_constraintCache != null;
+		if (cacheable) {
+			for (int p = 0; p < args.length; p++) {
+				args[p] = assignment[m_plan.getSlot(c, p)];
+			}
+			Double cached = m_constraintCache.get(getConstrainableKind(),
+			        constraint, args, subParts);
+			if (cached != null) {
+				return cached.doubleValue();
+			}
+		}
+		
+		List<IConstrainable> constrainableArgs = m_constrainableArgs.get(c);
+		constrainableArgs.clear();
+		for (int p = 0; p < args.length; p++) {
+			int slot = m_plan.getSlot(c, p);
+			if (slot == ShapeEvaluationPlan.LITERAL_SLOT) {
+				constrainableArgs.add(getLiteral(c, p));
+			}
+			else {
+				args[p] = assignment[slot];
+				constrainableArgs.add(getConstrainable(args[p], subParts[p]));
+			}
+		}
+		double confidence = constraint.solve(constrainableArgs);
+		
+		if (cacheable) {
+			m_constraintCache.put(getConstrainableKind(), constraint, args,
+			        subParts, confidence);
+		}
+		return confidence;
+	}
+	
+
+	/**
+	 * Forget the constrainables built for shapes. Call this when the shapes
+	 * being assigned may have changed, or to let them be garbage collected.
+	 */
+	public void clearConstrainables() {
+		m_constrainables.clear();
+	}
+	
+
+	/**
+	 * Name for the way this evaluator turns shapes into constrainables, used
+	 * to key its entries in the {@link ConstraintCache}
+	 * 
+	 * @return {@link ConstraintCache#FACTORY_CONSTRAINABLES}
+	 */
+	protected String getConstrainableKind() {
+		return ConstraintCache.FACTORY_CONSTRAINABLES;
+	}
+	
+
+	/**
+	 * Turn a shape into a constrainable
+	 * 
+	 * @param shape
+	 *            The shape
+	 * @return The constrainable for the whole shape
+	 */
+	protected IConstrainable buildConstrainable(IShape shape) {
+		return ConstrainableFactory.buildConstrainable(shape);
+	}
+	
+
+	/**
+	 * Get a sub-part of a constrainable
+	 * 
+	 * @param constrainable
+	 *            The constrainable for the whole shape
+	 * @param subPart
+	 *            The sub-part to get
+	 * @return The constrainable for the sub-part
+	 */
+	protected IConstrainable buildSubPart(IConstrainable constrainable,
+	        ComponentSubPart subPart) {
+		return ConstrainableFactory.getConstrainableSubPart(constrainable,
+		        subPart);
+	}
+	
+
+	/**
+	 * Get the constrainable for a shape or one of its sub-parts, building it
+	 * the first time it's asked for
+	 * 
+	 * @param shape
+	 *            The shape
+	 * @param subPart
+	 *            The sub-part, or null for the whole shape
+	 * @return The constrainable
+	 */
+	private IConstrainable getConstrainable(IShape shape,
+	        ComponentSubPart subPart) {
+		IConstrainable[] parts = m_constrainables.get(shape);
+		if (parts == null) {
+			parts = new IConstrainable[S_NUM_PARTS];
+			m_constrainables.put(shape, parts);
+		}
+		if (parts[0] == null) {
+			parts[0] = buildConstrainable(shape);
+		}
+		if (subPart == null) {
+			return parts[0];
+		}
+		
+		int part = subPart.ordinal() + 1;
+		if (parts[part] == null) {
+			parts[part] = buildSubPart(parts[0], subPart);
+		}
+		return parts[part];
+	}
+	
+
+	/**
+	 * Get the constrainable for a literal parameter, a made-up shape labeled
+	 * with the literal text
+	 * 
+	 * @param c
+	 *            Index of the constraint
+	 * @param p
+	 *            Index of the parameter
+	 * @return The constrainable
+	 */
+	private IConstrainable getLiteral(int c, int p) {
+		if (m_literals[c][p] == null) {
+			IShape literal = new Shape();
+			literal.setLabel(m_plan.getLiteral(c, p));
+			m_literals[c][p] = buildConstrainable(literal);
+		}
+		return m_literals[c][p];
+	}
+}
@@ -6,6 +6,8 @@
  * July 31, 2008 : jbjohns : solveHalfGaussian to private, and added new
  * solveConfidence <br>
  * 2008 Sept 15 jbjohns -- Negations, save parameters, num reqd parameters <br>
+ * 2026 Oct 18 -- Only build debug messages when debug is on, solving is on
+ * the shape builders' hot path <br>
  * 
  * 
  * <p>
@@ -270,8 +272,10 @@ public abstract class AbstractConfidenceConstraint implements IConstraint {
 	 * @return The value of this constraint
 	 */
 	private double solveHalfGaussian(double val, double threshold) {
-		log.debug("value : " + val);
-		log.debug("threshold : " + threshold);
+		if (log.isDebugEnabled()) {
+			log.debug("value : " + val);
+			log.debug("threshold : " + threshold);
+		}
 		
 		if (threshold == 0) {
 			log.error("Threshold is set to 0, resulting in divide by 0");
@@ -284,14 +288,20 @@ public abstract class AbstractConfidenceConstraint implements IConstraint {
 		
 		if (val < 0) {
 			val *= -1;
-			log.debug("val not negative: " + val);
+			if (log.isDebugEnabled()) {
+				log.debug("val not negative: " + val);
+			}
 		}
 		
 		double normalizedVal = val / threshold;
-		log.debug("normalized value = val / threshold = " + normalizedVal);
+		if (log.isDebugEnabled()) {
+			log.debug("normalized value = val / threshold = " + normalizedVal);
+		}
 		double halfGauss = 2 * UnivariateGaussianDistribution
 		        .probabilityDensity(normalizedVal, GAUSS_MEAN, GAUSS_STD);
-		log.debug("half gauss = " + halfGauss);
+		if (log.isDebugEnabled()) {
+			log.debug("half gauss = " + halfGauss);
+		}
 		return halfGauss;
 	}
 	
@@ -317,8 +327,10 @@ public abstract class AbstractConfidenceConstraint implements IConstraint {
 	 *         threshold
 	 */
 	private double solveSigmoid(double val, double threshold) {
-		log.debug("value : " + val);
-		log.debug("threshold : " + threshold);
+		if (log.isDebugEnabled()) {
+			log.debug("value : " + val);
+			log.debug("threshold : " + threshold);
+		}
 		
 		if (threshold == 0) {
 			log.error("given threshold is 0, returning 0 confidence");
@@ -326,10 +338,14 @@ public abstract class AbstractConfidenceConstraint implements IConstraint {
 		}
 		
 		double normalizedVal = val / Math.abs(threshold);
-		log.debug("Normalized value : " + normalizedVal);
+		if (log.isDebugEnabled()) {
+			log.debug("Normalized value : " + normalizedVal);
+		}
 		
 		double sigmoid = Sigmoid.sigmoid(normalizedVal);
-		log.debug("Sigmoid(value) : " + sigmoid);
+		if (log.isDebugEnabled()) {
+			log.debug("Sigmoid(value) : " + sigmoid);
+		}
 		return sigmoid;
 	}
 	
@@ -361,26 +377,34 @@ public abstract class AbstractConfidenceConstraint implements IConstraint {
 	 * @return The confidence
 	 */
 	protected final double solveConfidence(double val, double threshold) {
-		log.debug("val = " + val);
-		log.debug("threshold = " + threshold);
+		if (log.isDebugEnabled()) {
+			log.debug("val = " + val);
+			log.debug("threshold = " + threshold);
+		}
 		
 		double conf = 0;
 		
 		// scaledVal is the scaled value only if isScaleParameters() returns
 		// true, else it's just the original value
-		log.debug("sigmoidal? " + (this instanceof SigmoidalConstraint));
+		if (log.isDebugEnabled()) {
+			log.debug("sigmoidal? " + (this instanceof SigmoidalConstraint));
+		}
 		if (this instanceof SigmoidalConstraint) {
 			conf = solveSigmoid(val, threshold);
 		}
 		else {
 			conf = solveHalfGaussian(val, threshold);
 		}
-		log.debug("conf = " + conf);
+		if (log.isDebugEnabled()) {
+			log.debug("conf = " + conf);
+			log.debug("is negated? " + isNegated());
+		}
 		
-		log.debug("is negated? " + isNegated());
 		if (isNegated()) {
 			conf = getMaxConfidence() - conf;
-			log.debug("new conf (max-conf) = " + conf);
+			if (log.isDebugEnabled()) {
+				log.debug("new conf (max-conf) = " + conf);
+			}
 		}
 		return conf;
 	}
@@ -479,7 +503,9 @@ public abstract class AbstractConfidenceConstraint implements IConstraint {
 			                                   + getNumRequiredParameters());
 		}
 		
-		log.debug("Setting parameters to " + params);
+		if (log.isDebugEnabled()) {
+			log.debug("Setting parameters to " + params);
+		}
 		m_parameters = params;
 	}
 	
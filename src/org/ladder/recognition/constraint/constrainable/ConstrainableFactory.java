@@ -110,8 +110,10 @@ public class ConstrainableFactory {
 			constrainable = new ConstrainableShape(shape);
 		}
 		
-		log.debug("Built " + constrainable + " from " + shape + " with parent "
-		          + constrainable.getParentShape());
+		if (log.isDebugEnabled()) {
+			log.debug("Built " + constrainable + " from " + shape
+			          + " with parent " + constrainable.getParentShape());
+		}
 		
 		return constrainable;
 	}
@@ -3,6 +3,7 @@
  * 
  * Revision History:<br>
  * Aug 18, 2008 jbjohns - File created
+ * Oct 18, 2026 - Holds the compiled evaluation plan for the shape
  * 
  * <p>
  * 
@@ -46,6 +47,8 @@ import java.util.SortedSet;
 import java.util.TreeMap;
 import java.util.TreeSet;
 
+import org.ladder.recognition.constraint.domains.compiler.ShapeEvaluationPlan;
+
 /**
  * This class holds information about a shape definition. If you had a rectangle
  * shape in your domain, the information describing it would go here.
@@ -158,6 +161,12 @@ public class ShapeDefinition implements Comparable<ShapeDefinition> {
 	 */
 	private Map<String, String> m_attributeMap;
 	
+	/**
+	 * Compiled plan for scoring this shape's constraints, null until the shape
+	 * is compiled or first built
+	 */
+	private ShapeEvaluationPlan m_evaluationPlan;
+	
 	
 	/**
 	 * Construct a shape definition with the name set to the empty string and
@@ -683,4 +692,27 @@ public class ShapeDefinition implements Comparable<ShapeDefinition> {
 	public Set<ConstraintDefinition> getConstraintsByConstraintName(String name) {
 		return m_constraintsByName.get(name);
 	}
+	
+
+	/**
+	 * Get the plan for scoring this shape's constraints, made when the domain
+	 * is compiled.
+	 * 
+	 * @return The evaluation plan, or null if the shape has not been compiled
+	 * @see ShapeEvaluationPlan#forShape(ShapeDefinition)
+	 */
+	public ShapeEvaluationPlan getEvaluationPlan() {
+		return m_evaluationPlan;
+	}
+	
+
+	/**
+	 * Set the plan for scoring this shape's constraints.
+	 * 
+	 * @param evaluationPlan
+	 *            The evaluation plan
+	 */
+	public void setEvaluationPlan(ShapeEvaluationPlan evaluationPlan) {
+		m_evaluationPlan = evaluationPlan;
+	}
 }
@@ -3,6 +3,7 @@
  * 
  * Revision History:<br>
  * Oct 30, 2008 bpaulson - File created
+ * Oct 18, 2026 - Attach the evaluation plan to the compiled definition
  * 
  * <p>
  * 
@@ -183,6 +184,11 @@ public class ShapeDefinitionCompiler {
 			}
 		}
 		
+		// resolve component slots and constraints once, so the shape builders
+		// don't have to for every candidate
+		m_compiledShapeDef.setEvaluationPlan(new ShapeEvaluationPlan(
+		        m_compiledShapeDef));
+		
 		return m_compiledShapeDef;
 	}
 	
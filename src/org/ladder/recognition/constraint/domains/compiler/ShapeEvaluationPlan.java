@@ -0,0 +1,367 @@
+/**
+ * ShapeEvaluationPlan.java
+ * 
+ * Revision History:<br>
+ * Oct 18, 2026 - File created
+ * 
+ * <p>
+ * 
+ * <pre>
+ * This work is released under the BSD License:
+ * (C) 2008 Sketch Recognition Lab, Texas A&amp;M University (hereafter SRL @ TAMU)
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the Sketch Recognition Lab, Texas A&amp;M University 
+ *       nor the names of its contributors may be used to endorse or promote 
+ *       products derived from this software without specific prior written 
+ *       permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY SRL @ TAMU ``AS IS'' AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL SRL @ TAMU BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ * </pre>
+ */
+package org.ladder.recognition.constraint.domains.compiler;
+
+import java.util.List;
+
+import org.ladder.recognition.constraint.ConstraintFactory;
+import org.ladder.recognition.constraint.IConstraint;
+import org.ladder.recognition.constraint.domains.ComponentSubPart;
+import org.ladder.recognition.constraint.domains.ConstraintDefinition;
+import org.ladder.recognition.constraint.domains.ConstraintParameter;
+import org.ladder.recognition.constraint.domains.ShapeDefinition;
+
+/**
+ * Immutable plan for scoring the constraints of a {@link ShapeDefinition}.
+ * Everything the shape builders used to look up by name for every candidate
+ * assignment is resolved once, when the plan is made: the component slot each
+ * constraint parameter takes its shape from, the {@link ComponentSubPart} of
+ * that shape, the constraint itself, and the component depth at which all of
+ * a constraint's parameters are assigned.
+ * <p>
+ * The second parameter of a ContainsText constraint is not a component but
+ * the text to look for. The plan gives it the slot {@link #LITERAL_SLOT} and
+ * keeps the text, see {@link #getLiteral(int, int)}. A parameter naming a
+ * component the shape definition does not have gets {@link #UNRESOLVED_SLOT}.
+ * <p>
+ * Constraint objects hold their parameters while they solve, so the plan does
+ * not hand out its own; {@link #newConstraint(int)} makes a new one for each
+ * user without going through reflection.
+ * 
+ * @see DomainDefinitionCompiler
+ */
+public final class ShapeEvaluationPlan {
+	
+	/**
+	 * Slot of a parameter that is literal text, not a component
+	 */
+	public static final int LITERAL_SLOT = -1;
+	
+	/**
+	 * Slot of a parameter whose component is not in the shape definition
+	 */
+	public static final int UNRESOLVED_SLOT = -2;
+	
+	/**
+	 * Name of the constraint whose second parameter is literal text
+	 */
+	private static final String S_CONTAINS_TEXT = "ContainsText";
+	
+	/**
+	 * Name of the shape definition the plan is for
+	 */
+	private final String m_shapeName;
+	
+	/**
+	 * Number of components in the shape definition
+	 */
+	private final int m_numComponents;
+	
+	/**
+	 * Constraint instance for each constraint, with its threshold set from the
+	 * definition. Only used to make new instances.
+	 */
+	private final IConstraint[] m_prototypes;
+	
+	/**
+	 * Component slot of each parameter of each constraint
+	 */
+	private final int[][] m_slots;
+	
+	/**
+	 * Sub-part of each parameter of each constraint, null for the whole
+	 * component
+	 */
+	private final ComponentSubPart[][] m_subParts;
+	
+	/**
+	 * Literal text of each parameter of each constraint, null for component
+	 * parameters
+	 */
+	private final String[][] m_literals;
+	
+	/**
+	 * Number of leading components that must be assigned before each
+	 * constraint can be scored
+	 */
+	private final int[] m_readyDepths;
+	
+	/**
+	 * Are all the parameters of each constraint resolved?
+	 */
+	private final boolean[] m_resolved;
+	
+	
+	/**
+	 * Make the plan for the given shape definition.
+	 * 
+	 * @param shapeDef
+	 *            The shape definition
+	 * @throws InstantiationException
+	 *             If a constraint cannot be instantiated
+	 * @throws IllegalAccessException
+	 *             If a constraint cannot be instantiated
+	 * @throws ClassNotFoundException
+	 *             If there is no constraint with a definition's name
+	 */
+	public ShapeEvaluationPlan(ShapeDefinition shapeDef)
+	        throws InstantiationException, IllegalAccessException,
+	        ClassNotFoundException {
+		m_shapeName = shapeDef.getName();
+		m_numComponents = shapeDef.getNumComponents();
+		
+		List<ConstraintDefinition> constraintDefs = shapeDef
+		        .getConstraintDefinitions();
+		int numConstraints = constraintDefs.size();
+		m_prototypes = new IConstraint[numConstraints];
+		m_slots = new int[numConstraints][];
+		m_subParts = new ComponentSubPart[numConstraints][];
+		m_literals = new String[numConstraints][];
+		m_readyDepths = new int[numConstraints];
+		m_resolved = new boolean[numConstraints];
+		
+		for (int c = 0; c < numConstraints; c++) {
+			ConstraintDefinition constraintDef = constraintDefs.get(c);
+			IConstraint constraint = ConstraintFactory
+			        .getConstraint(constraintDef);
+			if (constraint == null) {
+				throw new ClassNotFoundException("Unknown constraint: "
+				                                 + constraintDef.getName());
+			}
+			m_prototypes[c] = constraint;
+			
+			List<ConstraintParameter> params = constraintDef.getParameters();
+			m_slots[c] = new int[params.size()];
+			m_subParts[c] = new ComponentSubPart[params.size()];
+			m_literals[c] = new String[params.size()];
+			m_resolved[c] = true;
+			// a constraint is scored as soon as its last component is
+			// assigned, but never before the first component
+			int readyDepth = 1;
+			
+			for (int p = 0; p < params.size(); p++) {
+				ConstraintParameter param = params.get(p);
+				
+				if (p == 1 && constraint.getName().equals(S_CONTAINS_TEXT)) {
+					m_slots[c][p] = LITERAL_SLOT;
+					m_literals[c][p] = param.getComponent();
+					continue;
+				}
+				
+				int slot = shapeDef.getComponentIndex(param.getComponent());
+				if (slot < 0) {
+					m_slots[c][p] = UNRESOLVED_SLOT;
+					m_resolved[c] = false;
+					continue;
+				}
+				
+				m_slots[c][p] = slot;
+				if (param.containsSubPart()) {
+					m_subParts[c][p] = param.getComponentSubPart();
+				}
+				readyDepth = Math.max(readyDepth, slot + 1);
+			}
+			
+			m_readyDepths[c] = readyDepth;
+		}
+	}
+	
+
+	/**
+	 * Get the plan for the shape definition, making it if the shape
+	 * definition does not have one yet or has changed since it was made.
+	 * 
+	 * @param shapeDef
+	 *            The shape definition
+	 * @return The plan for the shape definition
+	 * @throws InstantiationException
+	 *             If a constraint cannot be instantiated
+	 * @throws IllegalAccessException
+	 *             If a constraint cannot be instantiated
+	 * @throws ClassNotFoundException
+	 *             If there is no constraint with a definition's name
+	 */
+	public static ShapeEvaluationPlan forShape(ShapeDefinition shapeDef)
+	        throws InstantiationException, IllegalAccessException,
+	        ClassNotFoundException {
+		ShapeEvaluationPlan plan = shapeDef.getEvaluationPlan();
+		if (plan == null || !plan.isPlanFor(shapeDef)) {
+			plan = new ShapeEvaluationPlan(shapeDef);
+			shapeDef.setEvaluationPlan(plan);
+		}
+		return plan;
+	}
+	
+
+	/**
+	 * Does this plan still match the shape definition? Shape definitions can
+	 * have components and constraints added after the plan is made.
+	 * 
+	 * @param shapeDef
+	 *            The shape definition
+	 * @return True if the plan has the same components and constraints
+	 */
+	public boolean isPlanFor(ShapeDefinition shapeDef) {
+		return m_numComponents == shapeDef.getNumComponents()
+		       && m_prototypes.length == shapeDef.getConstraintDefinitions()
+		               .size();
+	}
+	
+
+	/**
+	 * @return The name of the shape definition the plan is for
+	 */
+	public String getShapeName() {
+		return m_shapeName;
+	}
+	
+
+	/**
+	 * @return The number of components in the shape definition
+	 */
+	public int getNumComponents() {
+		return m_numComponents;
+	}
+	
+
+	/**
+	 * @return The number of constraints in the shape definition
+	 */
+	public int getNumConstraints() {
+		return m_prototypes.length;
+	}
+	
+
+	/**
+	 * Make a new instance of a constraint, with its threshold set from the
+	 * constraint definition
+	 * 
+	 * @param c
+	 *            Index of the constraint
+	 * @return A new constraint object
+	 */
+	public IConstraint newConstraint(int c) {
+		IConstraint constraint = m_prototypes[c].newInstance();
+		constraint.setThreshold(m_prototypes[c].getThreshold());
+		return constraint;
+	}
+	
+
+	/**
+	 * @param c
+	 *            Index of the constraint
+	 * @return The number of parameters the constraint takes
+	 */
+	public int getNumParameters(int c) {
+		return m_slots[c].length;
+	}
+	
+
+	/**
+	 * @param c
+	 *            Index of the constraint
+	 * @param p
+	 *            Index of the parameter
+	 * @return The component slot the parameter takes its shape from,
+	 *         {@link #LITERAL_SLOT}, or {@link #UNRESOLVED_SLOT}
+	 */
+	public int getSlot(int c, int p) {
+		return m_slots[c][p];
+	}
+	
+
+	/**
+	 * @param c
+	 *            Index of the constraint
+	 * @param p
+	 *            Index of the parameter
+	 * @return The sub-part of the component to use, or null for the whole
+	 *         component
+	 */
+	public ComponentSubPart getSubPart(int c, int p) {
+		return m_subParts[c][p];
+	}
+	
+
+	/**
+	 * @param c
+	 *            Index of the constraint
+	 * @param p
+	 *            Index of the parameter
+	 * @return The literal text of the parameter, or null if it is a component
+	 */
+	public String getLiteral(int c, int p) {
+		return m_literals[c][p];
+	}
+	
+
+	/**
+	 * @param c
+	 *            Index of the constraint
+	 * @return The number of leading components that must be assigned before
+	 *         the constraint can be scored
+	 */
+	public int getReadyDepth(int c) {
+		return m_readyDepths[c];
+	}
+	
+
+	/**
+	 * @param c
+	 *            Index of the constraint
+	 * @return True if every parameter of the constraint is a component of the
+	 *         shape definition or literal text
+	 */
+	public boolean isResolved(int c) {
+		return m_resolved[c];
+	}
+	
+
+	/**
+	 * @param c
+	 *            Index of the constraint
+	 * @return True if no parameter of the constraint is literal text
+	 */
+	public boolean hasOnlyComponents(int c) {
+		for (int slot : m_slots[c]) {
+			if (slot == LITERAL_SLOT) {
+				return false;
+			}
+		}
+		return true;
+	}
+}
@@ -3,6 +3,8 @@
  * 
  * Revision History:<br>
  * Aug 21, 2008 srl - File created
+ * Oct 18, 2026 - Index shapes by location for range and nearest queries
+ * Oct 18, 2026 - Constraint confidence cache shared with the shape builders
  * 
  * <p>
  * 
@@ -39,6 +41,7 @@ package org.ladder.recognition.constraint.filters;
 
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.SortedSet;
@@ -46,9 +49,11 @@ import java.util.TreeSet;
 
 import org.apache.log4j.Logger;
 import org.ladder.core.logging.LadderLogger;
+import org.ladder.core.sketch.BoundingBox;
 import org.ladder.core.sketch.IShape;
 import org.ladder.recognition.constraint.ConstraintFactory;
 import org.ladder.recognition.constraint.IConstraint;
+import org.ladder.recognition.constraint.builders.ConstraintCache;
 import org.ladder.recognition.constraint.domains.ComponentDefinition;
 import org.ladder.recognition.constraint.domains.ConstraintDefinition;
 import org.ladder.recognition.constraint.domains.DomainDefinition;
@@ -91,11 +96,24 @@ public class ShapePool {
 	 */
 	private Map<String, ShapeTypeFilter> m_shapeTypePools;
 	
+	/**
+	 * Index of all the shapes by location. This can be used to get the shapes
+	 * near, or inside, a region without looking at every shape.
+	 */
+	private SpatialShapeFilter m_spatialFilter;
+	
 	/**
 	 * The domain definition that the shape pool will hold shapes for
 	 */
 	private DomainDefinition m_domainDefinition;
 	
+	/**
+	 * Confidences of the constraints solved on the shapes in this pool, by the
+	 * constraint filters and by anything building shapes from the pool.
+	 * Entries for a shape are dropped when it leaves the pool.
+	 */
+	private ConstraintCache m_constraintCache;
+	
 	
 	/**
 	 * Cannot use the default constructor outside of this class
@@ -113,6 +131,10 @@ public class ShapePool {
 		// .synchronizedMap(new HashMap<String,
 		// SortedSet<UnaryConstraintFilter>>());
 		m_constraintPools = new HashMap<String, SortedSet<UnaryConstraintFilter>>();
+		
+		m_spatialFilter = new SpatialShapeFilter();
+		
+		m_constraintCache = new ConstraintCache();
 	}
 	
 
@@ -194,6 +216,7 @@ public class ShapePool {
 						// a pool with the constraint/threshold is not in the
 						// set of pools for this constraint, so add it in
 						if (!poolSet.contains(targetPool)) {
+							targetPool.setConstraintCache(m_constraintCache);
 							poolSet.add(targetPool);
 						}
 						// else pool for constraint with name/threshold exists,
@@ -258,6 +281,8 @@ public class ShapePool {
 			typeFilter.addShape(shape);
 		}
 		// }
+		
+		m_spatialFilter.addShape(shape);
 	}
 	
 
@@ -288,6 +313,10 @@ public class ShapePool {
 			typeFilter.removeShape(shape);
 		}
 		// }
+		
+		m_spatialFilter.removeShape(shape);
+		
+		m_constraintCache.removeShape(shape);
 	}
 	
 
@@ -309,6 +338,10 @@ public class ShapePool {
 		for (ShapeTypeFilter typeFilter : m_shapeTypePools.values()) {
 			typeFilter.clear();
 		}
+		
+		m_spatialFilter.clear();
+		
+		m_constraintCache.clear();
 	}
 	
 
@@ -412,6 +445,60 @@ public class ShapePool {
 	}
 	
 
+	/**
+	 * Get the shapes in the pool whose bounding boxes touch or overlap the
+	 * given region. Only the shapes stored near the region are examined.
+	 * 
+	 * @param region
+	 *            The region to look in
+	 * @return Set of shapes that touch the region
+	 */
+	public SortedSet<IShape> getShapesInRange(BoundingBox region) {
+		return m_spatialFilter.getShapesInRange(region);
+	}
+	
+
+	/**
+	 * Get the shapes in the pool whose bounding boxes lie entirely inside the
+	 * given region.
+	 * 
+	 * @param region
+	 *            The region to look in
+	 * @return Set of shapes contained in the region
+	 */
+	public SortedSet<IShape> getShapesContainedIn(BoundingBox region) {
+		return m_spatialFilter.getShapesContainedIn(region);
+	}
+	
+
+	/**
+	 * Get the k shapes in the pool whose bounding boxes are closest to the
+	 * given region, nearest first. Shapes that overlap the region are at
+	 * distance 0.
+	 * 
+	 * @param region
+	 *            The region to measure from
+	 * @param k
+	 *            The number of shapes wanted
+	 * @return Up to k shapes, ordered by distance from the region
+	 */
+	public List<IShape> getNearestShapes(BoundingBox region, int k) {
+		return m_spatialFilter.getNearestShapes(region, k);
+	}
+	
+
+	/**
+	 * Get the cache of constraint confidences for the shapes in this pool.
+	 * Shape builders working on this pool's shapes should use it, so
+	 * confidences are shared between builds and recognition passes.
+	 * 
+	 * @return The constraint confidence cache
+	 */
+	public ConstraintCache getConstraintCache() {
+		return m_constraintCache;
+	}
+	
+
 	/**
 	 * The number of shapes, total, in the pool.
 	 * 
@@ -0,0 +1,561 @@
+/**
+ * SpatialShapeFilter.java
+ * 
+ * Revision History:<br>
+ * Oct 18, 2026 - File created
+ * 
+ * <p>
+ * 
+ * <pre>
+ * This work is released under the BSD License:
+ * (C) 2008 Sketch Recognition Lab, Texas A&amp;M University (hereafter SRL @ TAMU)
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the Sketch Recognition Lab, Texas A&amp;M University 
+ *       nor the names of its contributors may be used to endorse or promote 
+ *       products derived from this software without specific prior written 
+ *       permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY SRL @ TAMU ``AS IS'' AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL SRL @ TAMU BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ * </pre>
+ */
+package org.ladder.recognition.constraint.filters;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+import org.ladder.core.sketch.BoundingBox;
+import org.ladder.core.sketch.IShape;
+
+/**
+ * Filter that accepts every shape with a bounding box and indexes the shapes by
+ * location, so that the shapes near a region can be found without looking at
+ * every shape in the pool. Shapes are kept in a uniform grid of square cells;
+ * a shape is stored in every cell its bounding box overlaps.
+ * <p>
+ * The bounding box of a shape is read once, when the shape is added. If a
+ * shape's strokes change while it is in the filter, remove it and add it
+ * again.
+ */
+public class SpatialShapeFilter implements IShapeFilter {
+	
+	/**
+	 * Default width and height of a grid cell, in sketch coordinates
+	 */
+	public static final double S_DEFAULT_CELL_SIZE = 64.0;
+	
+	/**
+	 * Width and height of a grid cell
+	 */
+	private double m_cellSize;
+	
+	/**
+	 * Map from the key of a cell to the shapes whose bounding boxes overlap
+	 * that cell
+	 */
+	private Map<Long, List<IShape>> m_cells;
+	
+	/**
+	 * The bounding box of each shape in the filter, as it was when the shape
+	 * was added
+	 */
+	private Map<IShape, BoundingBox> m_boxes;
+	
+	/**
+	 * Cell range that covers every shape added since the filter was last
+	 * cleared: min x, min y, max x, max y
+	 */
+	private int[] m_extent;
+	
+	
+	/**
+	 * Create a spatial filter with the default cell size
+	 */
+	public SpatialShapeFilter() {
+		this(S_DEFAULT_CELL_SIZE);
+	}
+	
+
+	/**
+	 * Create a spatial filter with the given cell size. Cells about the size of
+	 * a typical primitive work best.
+	 * 
+	 * @param cellSize
+	 *            width and height of a grid cell, must be positive.
+	 */
+	public SpatialShapeFilter(double cellSize) {
+		if (!(cellSize > 0)) {
+			throw new IllegalArgumentException("Cell size must be positive: "
+			                                   + cellSize);
+		}
+		m_cellSize = cellSize;
+		m_cells = new HashMap<Long, List<IShape>>();
+		m_boxes = new HashMap<IShape, BoundingBox>();
+	}
+	
+
+	/**
+	 * Get the width and height of a grid cell
+	 * 
+	 * @return the cell size
+	 */
+	public double getCellSize() {
+		return m_cellSize;
+	}
+	
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * org.ladder.recognition.constraint.filters.IShapeFilter#acceptShape(org
+	 * .ladder.core.sketch.IShape)
+	 */
+	public boolean acceptShape(IShape shape) {
+		return shape.getBoundingBox() != null;
+	}
+	
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * org.ladder.recognition.constraint.filters.IShapeFilter#addShape(org.ladder
+	 * .core.sketch.IShape)
+	 */
+	public void addShape(IShape shape) {
+		if (!acceptShape(shape) || m_boxes.containsKey(shape)) {
+			return;
+		}
+		
+		BoundingBox box = shape.getBoundingBox();
+		m_boxes.put(shape, box);
+		
+		int[] range = getCellRange(box);
+		for (int x = range[0]; x <= range[2]; x++) {
+			for (int y = range[1]; y <= range[3]; y++) {
+				Long key = cellKey(x, y);
+				List<IShape> cell = m_cells.get(key);
+				if (cell == null) {
+					cell = new ArrayList<IShape>(4);
+					m_cells.put(key, cell);
+				}
+				cell.add(shape);
+			}
+		}
+		
+		if (m_extent == null) {
+			m_extent = range;
+		}
+		else {
+			m_extent[0] = Math.min(m_extent[0], range[0]);
+			m_extent[1] = Math.min(m_extent[1], range[1]);
+			m_extent[2] = Math.max(m_extent[2], range[2]);
+			m_extent[3] = Math.max(m_extent[3], range[3]);
+		}
+	}
+	
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * org.ladder.recognition.constraint.filters.IShapeFilter#removeShape(org
+	 * .ladder.core.sketch.IShape)
+	 */
+	public void removeShape(IShape shape) {
+		BoundingBox box = m_boxes.remove(shape);
+		if (box == null) {
+			return;
+		}
+		
+		int[] range = getCellRange(box);
+		for (int x = range[0]; x <= range[2]; x++) {
+			for (int y = range[1]; y <= range[3]; y++) {
+				Long key = cellKey(x, y);
+				List<IShape> cell = m_cells.get(key);
+				if (cell != null) {
+					cell.remove(shape);
+					if (cell.isEmpty()) {
+						m_cells.remove(key);
+					}
+				}
+			}
+		}
+	}
+	
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.ladder.recognition.constraint.filters.IShapeFilter#clear()
+	 */
+	public void clear() {
+		m_cells.clear();
+		m_boxes.clear();
+		m_extent = null;
+	}
+	
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.ladder.recognition.constraint.filters.IShapeFilter#size()
+	 */
+	public int size() {
+		return m_boxes.size();
+	}
+	
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.ladder.recognition.constraint.filters.IShapeFilter#getShapes()
+	 */
+	public SortedSet<IShape> getShapes() {
+		return new TreeSet<IShape>(m_boxes.keySet());
+	}
+	
+
+	/**
+	 * Get the shapes whose bounding boxes touch or overlap the given region.
+	 * 
+	 * @param region
+	 *            the region to look in.
+	 * @return the shapes that touch the region.
+	 */
+	public SortedSet<IShape> getShapesInRange(BoundingBox region) {
+		SortedSet<IShape> shapes = new TreeSet<IShape>();
+		for (IShape shape : getCandidates(region)) {
+			if (overlaps(m_boxes.get(shape), region)) {
+				shapes.add(shape);
+			}
+		}
+		return shapes;
+	}
+	
+
+	/**
+	 * Get the shapes whose bounding boxes lie entirely within the given region.
+	 * 
+	 * @param region
+	 *            the region to look in.
+	 * @return the shapes contained in the region.
+	 */
+	public SortedSet<IShape> getShapesContainedIn(BoundingBox region) {
+		SortedSet<IShape> shapes = new TreeSet<IShape>();
+		for (IShape shape : getCandidates(region)) {
+			if (isContained(m_boxes.get(shape), region)) {
+				shapes.add(shape);
+			}
+		}
+		return shapes;
+	}
+	
+
+	/**
+	 * Get the {@code k} shapes whose bounding boxes are closest to the given
+	 * region. Distance is the gap between the two boxes, so every shape that
+	 * overlaps the region is at distance 0. Ties are broken by shape order.
+	 * <p>
+	 * The search only looks at occupied parts of the grid, so a region larger
+	 * than every shape, or far away from all of them, costs no more than
+	 * measuring every shape.
+	 * 
+	 * @param region
+	 *            the region to measure from.
+	 * @param k
+	 *            the number of shapes wanted.
+	 * @return up to {@code k} shapes, nearest first.
+	 */
+	public List<IShape> getNearestShapes(BoundingBox region, int k) {
+		List<IShape> nearest = new ArrayList<IShape>();
+		if (k <= 0 || m_boxes.isEmpty()) {
+			return nearest;
+		}
+		
+		final Map<IShape, Double> distances = new HashMap<IShape, Double>();
+		int[] range = getCellRange(region);
+		
+		// Rings that lie wholly outside the occupied cells hold nothing, so
+		// start at the first ring that reaches them
+		long first = Math.max(Math.max((long) m_extent[0] - range[2],
+		        (long) range[0] - m_extent[2]), Math.max((long) m_extent[1]
+		                                                 - range[3],
+		        (long) range[1] - m_extent[3]));
+		long numVisited = 0;
+		
+		// Look at rings of cells around the region, moving out. A shape not
+		// seen by ring r is more than r cells away from the region, so once
+		// we have k shapes at least that close we can stop.
+		for (long r = Math.max(0, first);; r++) {
+			long minX = range[0] - r;
+			long minY = range[1] - r;
+			long maxX = range[2] + r;
+			long maxY = range[3] + r;
+			
+			// only visit the part of the ring inside the occupied cells
+			long fromY = Math.max(minY, m_extent[1]);
+			long toY = Math.min(maxY, m_extent[3]);
+			long fromX = Math.max(minX, m_extent[0]);
+			long toX = (fromY <= toY) ? Math.min(maxX, m_extent[2]) : fromX - 1;
+			for (long x = fromX; x <= toX; x++) {
+				if (r == 0 || x == minX || x == maxX) {
+					for (long y = fromY; y <= toY; y++) {
+						measureCell((int) x, (int) y, region, distances);
+						numVisited++;
+					}
+				}
+				else {
+					// inside columns only have their top and bottom cells on
+					// the ring
+					if (minY == fromY) {
+						measureCell((int) x, (int) minY, region, distances);
+						numVisited++;
+					}
+					if (maxY == toY) {
+						measureCell((int) x, (int) maxY, region, distances);
+						numVisited++;
+					}
+				}
+			}
+			
+			boolean coversAll = minX <= m_extent[0] && minY <= m_extent[1]
+			                    && maxX >= m_extent[2] && maxY >= m_extent[3];
+			if (coversAll || countWithin(distances, r * m_cellSize) >= k) {
+				break;
+			}
+			
+			// Past this many cells, measuring every shape is cheaper
+			if (numVisited > m_cells.size()) {
+				for (Map.Entry<IShape, BoundingBox> entry : m_boxes.entrySet()) {
+					if (!distances.containsKey(entry.getKey())) {
+						distances.put(entry.getKey(), gap(entry.getValue(),
+						        region));
+					}
+				}
+				break;
+			}
+		}
+		
+		nearest.addAll(distances.keySet());
+		Collections.sort(nearest, new Comparator<IShape>() {
+			
+			public int compare(IShape s1, IShape s2) {
+				int cmp = distances.get(s1).compareTo(distances.get(s2));
+				return (cmp != 0) ? cmp : s1.compareTo(s2);
+			}
+		});
+		
+		if (nearest.size() > k) {
+			nearest = new ArrayList<IShape>(nearest.subList(0, k));
+		}
+		return nearest;
+	}
+	
+
+	/**
+	 * Measure the distance from the region to each shape in a cell that has
+	 * not been measured yet
+	 * 
+	 * @param x
+	 *            cell column.
+	 * @param y
+	 *            cell row.
+	 * @param region
+	 *            the region to measure from.
+	 * @param distances
+	 *            map from shape to distance, added to.
+	 */
+	private void measureCell(int x, int y, BoundingBox region,
+	        Map<IShape, Double> distances) {
+		List<IShape> cell = m_cells.get(cellKey(x, y));
+		if (cell == null) {
+			return;
+		}
+		for (IShape shape : cell) {
+			if (!distances.containsKey(shape)) {
+				distances.put(shape, gap(m_boxes.get(shape), region));
+			}
+		}
+	}
+	
+
+	/**
+	 * Get the shapes stored in the cells that the region overlaps. This is a
+	 * superset of the shapes that touch the region. If the region spans more
+	 * cells than are occupied, every shape is returned instead.
+	 * 
+	 * @param region
+	 *            the region to look in.
+	 * @return the candidate shapes, without duplicates.
+	 */
+	private List<IShape> getCandidates(BoundingBox region) {
+		if (m_boxes.isEmpty()) {
+			return new ArrayList<IShape>();
+		}
+		
+		int[] range = getCellRange(region);
+		long numCells = ((long) range[2] - range[0] + 1)
+		                * ((long) range[3] - range[1] + 1);
+		if (numCells >= m_cells.size()) {
+			return new ArrayList<IShape>(m_boxes.keySet());
+		}
+		
+		List<IShape> candidates = new ArrayList<IShape>();
+		Map<IShape, Boolean> seen = new HashMap<IShape, Boolean>();
+		for (int x = range[0]; x <= range[2]; x++) {
+			for (int y = range[1]; y <= range[3]; y++) {
+				List<IShape> cell = m_cells.get(cellKey(x, y));
+				if (cell == null) {
+					continue;
+				}
+				for (IShape shape : cell) {
+					if (seen.put(shape, Boolean.TRUE) == null) {
+						candidates.add(shape);
+					}
+				}
+			}
+		}
+		return candidates;
+	}
+	
+
+	/**
+	 * Get the range of cells a bounding box overlaps: min x, min y, max x, max
+	 * y, all inclusive.
+	 * 
+	 * @param box
+	 *            the bounding box.
+	 * @return the cell range.
+	 */
+	private int[] getCellRange(BoundingBox box) {
+		return new int[] { cellIndex(box.getMinX()), cellIndex(box.getMinY()),
+		        cellIndex(box.getMaxX()), cellIndex(box.getMaxY()) };
+	}
+	
+
+	/**
+	 * Get the index of the cell that holds the given coordinate
+	 * 
+	 * @param coord
+	 *            x or y coordinate.
+	 * @return the cell index.
+	 */
+	private int cellIndex(double coord) {
+		return (int) Math.floor(coord / m_cellSize);
+	}
+	
+
+	/**
+	 * Pack the indices of a cell into a single map key
+	 * 
+	 * @param x
+	 *            cell column.
+	 * @param y
+	 *            cell row.
+	 * @return the key for the cell.
+	 */
+	private static Long cellKey(int x, int y) {
+		return Long.valueOf(((long) x << 32) | (y & 0xffffffffL));
+	}
+	
+
+	/**
+	 * Count the distances that are no more than the given bound
+	 * 
+	 * @param distances
+	 *            map from shape to distance.
+	 * @param bound
+	 *            the largest distance to count.
+	 * @return the number of distances within the bound.
+	 */
+	private static int countWithin(Map<IShape, Double> distances,
+	        double bound) {
+		int count = 0;
+		for (Double distance : distances.values()) {
+			if (distance.doubleValue() <= bound) {
+				count++;
+			}
+		}
+		return count;
+	}
+	
+
+	/**
+	 * Check whether two boxes touch or overlap. Unlike
+	 * {@link BoundingBox#intersects(java.awt.geom.Rectangle2D)}, this holds for
+	 * boxes with zero width or height, such as those of horizontal lines.
+	 * 
+	 * @param box1
+	 *            first box.
+	 * @param box2
+	 *            second box.
+	 * @return true if the boxes touch or overlap.
+	 */
+	private static boolean overlaps(BoundingBox box1, BoundingBox box2) {
+		return box1.getMinX() <= box2.getMaxX()
+		       && box2.getMinX() <= box1.getMaxX()
+		       && box1.getMinY() <= box2.getMaxY()
+		       && box2.getMinY() <= box1.getMaxY();
+	}
+	
+
+	/**
+	 * Check whether the inner box lies entirely within the outer box, edges
+	 * included
+	 * 
+	 * @param inner
+	 *            the box that may be contained.
+	 * @param outer
+	 *            the containing box.
+	 * @return true if inner is inside outer.
+	 */
+	private static boolean isContained(BoundingBox inner, BoundingBox outer) {
+		return inner.getMinX() >= outer.getMinX()
+		       && inner.getMaxX() <= outer.getMaxX()
+		       && inner.getMinY() >= outer.getMinY()
+		       && inner.getMaxY() <= outer.getMaxY();
+	}
+	
+
+	/**
+	 * Get the Euclidean gap between two boxes, 0 if they touch or overlap
+	 * 
+	 * @param box1
+	 *            first box.
+	 * @param box2
+	 *            second box.
+	 * @return the distance between the closest points of the boxes.
+	 */
+	private static double gap(BoundingBox box1, BoundingBox box2) {
+		double dx = Math.max(box1.getMinX() - box2.getMaxX(), box2.getMinX()
+		                                                       - box1.getMaxX());
+		double dy = Math.max(box1.getMinY() - box2.getMaxY(), box2.getMinY()
+		                                                       - box1.getMaxY());
+		dx = Math.max(0, dx);
+		dy = Math.max(0, dy);
+		return Math.sqrt(dx * dx + dy * dy);
+	}
+}
@@ -3,6 +3,7 @@
  * 
  * Revision History:<br>
  * Aug 21, 2008 srl - File created
+ * Oct 18, 2026 - Look up confidences in a ConstraintCache
  * 
  * <p>
  * 
@@ -43,6 +44,7 @@ import java.util.List;
 import org.ladder.core.sketch.IShape;
 import org.ladder.recognition.constraint.IConstrainable;
 import org.ladder.recognition.constraint.IConstraint;
+import org.ladder.recognition.constraint.builders.ConstraintCache;
 import org.ladder.recognition.constraint.confidence.UnaryConstraint;
 import org.ladder.recognition.constraint.constrainable.ConstrainableFactory;
 
@@ -71,6 +73,11 @@ public class UnaryConstraintFilter extends AbstractShapeFilter implements
 	 */
 	private IConstraint m_constraint;
 	
+	/**
+	 * Cache of constraint confidences, or null to always solve the constraint
+	 */
+	private ConstraintCache m_constraintCache;
+	
 	
 	/**
 	 * Construct a filter that uses the given constraint and the
@@ -115,6 +122,26 @@ public class UnaryConstraintFilter extends AbstractShapeFilter implements
 	}
 	
 
+	/**
+	 * @return The cache constraint confidences are kept in, or null if they
+	 *         are not cached
+	 */
+	public ConstraintCache getConstraintCache() {
+		return m_constraintCache;
+	}
+	
+
+	/**
+	 * Set the cache to look up and store confidences of the constraint in
+	 * 
+	 * @param constraintCache
+	 *            The cache to use, or null to not cache confidences
+	 */
+	public void setConstraintCache(ConstraintCache constraintCache) {
+		m_constraintCache = constraintCache;
+	}
+	
+
 	/**
 	 * Get the threshold set for solving this constraint
 	 * 
@@ -219,10 +246,24 @@ public class UnaryConstraintFilter extends AbstractShapeFilter implements
 			return false;
 		}
 		
-		List<IConstrainable> constraintParms = new ArrayList<IConstrainable>();
-		constraintParms.add(ConstrainableFactory.buildConstrainable(shape));
+		Double cached = null;
+		if (m_constraintCache != null) {
+			cached = m_constraintCache.get(m_constraint, shape);
+		}
 		
-		double constraintConfidence = m_constraint.solve(constraintParms);
+		double constraintConfidence;
+		if (cached != null) {
+			constraintConfidence = cached.doubleValue();
+		}
+		else {
+			List<IConstrainable> constraintParms = new ArrayList<IConstrainable>();
+			constraintParms.add(ConstrainableFactory.buildConstrainable(shape));
+			
+			constraintConfidence = m_constraint.solve(constraintParms);
+			if (m_constraintCache != null) {
+				m_constraintCache.put(m_constraint, shape, constraintConfidence);
+			}
+		}
 		boolean accept = constraintConfidence >= m_cutoffThreshold; 
 		
 		return accept;
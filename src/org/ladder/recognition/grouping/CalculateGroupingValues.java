@@ -30,12 +30,7 @@ public class CalculateGroupingValues {
 	}
 	
 	public static Boolean checkIntersection(IStroke stroke, IShape shape) {
-		for(IStroke shapeStroke: shape.getStrokes()) {
-			if(CollisionDetection.detectCollision(shapeStroke, stroke))
-				return true;
-		}
-		
-		return false;
+		return CollisionDetection.detectCollision(stroke, shape.getStrokes());
 		
 	}
 	
@@ -15,6 +15,7 @@ import org.ladder.core.sketch.IPoint;
 import org.ladder.core.sketch.IShape;
 import org.ladder.core.sketch.IStroke;
 import org.ladder.core.sketch.IsAConstants;
+import org.ladder.recognition.constraint.filters.ShapePool;
 import org.ladder.recognition.handwriting.HWRType;
 import org.ladder.recognition.handwriting.HandwritingRecognizer;
 import org.ladder.recognition.paleo.Fit;
@@ -84,6 +85,12 @@ public class PostMidLevelGrouper {
 	 */
 	private List<IShape> m_inputShapes;
 	
+	/**
+	 * Pool the input shapes came from, used to find the shapes near the
+	 * largest one without looking at all of them. May be null.
+	 */
+	private ShapePool m_pool;
+	
 	
 	/**
 	 * Constructor
@@ -127,6 +134,32 @@ public class PostMidLevelGrouper {
 	}
 	
 
+	/**
+	 * Constructor
+	 * 
+	 * @param pool
+	 *            pool holding the shapes to group, whose spatial index is used
+	 *            to find the shapes inside the largest one
+	 * @param requireLargestClosed
+	 *            flag denoting if largest shape to use for grouping should also
+	 *            be a closed shape
+	 */
+	public PostMidLevelGrouper(ShapePool pool, boolean requireLargestClosed,
+	        HandwritingRecognizer hwr, long maxTime) throws OverTimeException {
+		
+		// Store start time
+		long startTime = System.currentTimeMillis();
+		
+		m_inputShapes = new ArrayList<IShape>(pool.getAllShapes());
+		m_pool = pool;
+		m_hwr = hwr;
+		
+		doGrouping(requireLargestClosed, OverTimeCheckHelper.timeRemaining(startTime,
+		        maxTime));
+		extractInsideHandwriting(OverTimeCheckHelper.timeRemaining(startTime, maxTime));
+	}
+	
+
 	/**
 	 * Used by recognizeOutsideText(IShape, List<IShape>, HandwritingRecognizer)
 	 * 
@@ -396,16 +429,27 @@ public class PostMidLevelGrouper {
 			return;
 		}
 		
+		// Only shapes that overlap the largest shape can have their center
+		// in it
+		Set<IShape> nearLargest = null;
+		if (m_pool != null) {
+			nearLargest = m_pool.getShapesInRange(largest.getBoundingBox());
+		}
+		
 		for (IShape s : m_inputShapes) {
 			if (s == largest) {
 				continue;
 			}
 			
+			boolean centerInLargest = (nearLargest == null || nearLargest
+			        .contains(s))
+			                          && largest.getBoundingBox().contains(
+			                                  s.getBoundingBox().getCenterX(),
+			                                  s.getBoundingBox().getCenterY());
+			
 			// ABOVE shapes
 			// if this shape is NOT in the largest shape
-			if (!largest.getBoundingBox().contains(
-			        s.getBoundingBox().getCenterX(),
-			        s.getBoundingBox().getCenterY())
+			if (!centerInLargest
 			    // AND center is above the largest
 			    && largest.getBoundingBox().getCenterY() > s.getBoundingBox()
 			            .getCenterY()
@@ -427,9 +471,7 @@ public class PostMidLevelGrouper {
 			}
 			// INSIDE or BELOW
 			// IS in the center
-			else if (largest.getBoundingBox().contains(
-			        s.getBoundingBox().getCenterX(),
-			        s.getBoundingBox().getCenterY())
+			else if (centerInLargest
 			// OR bottom of largest is ABOVE shape's center
 			) {
 				
@@ -174,6 +174,14 @@ public class AllPossibleGroupings {
 		return groupings;
 	}
 
+	/**
+	 * Every way of splitting the strokes, in order, into shapes. There are
+	 * 2^(n-1) of them for n strokes.
+	 * 
+	 * @deprecated {@link TextSegmenter} finds the best groupings without
+	 *             listing them all
+	 */
+	@Deprecated
 	public static List<List<IShape>> getCombinatorialGroupings(
 			List<IStroke> strokes) {
 		List<List<IShape>> groups = groupStartingAt(strokes, 0,
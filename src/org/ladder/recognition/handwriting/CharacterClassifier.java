@@ -0,0 +1,258 @@
+/**
+ * CharacterClassifier.java
+ * 
+ * Revision History:<br>
+ * Oct 18, 2026 - File created
+ * 
+ * <p>
+ * 
+ * <pre>
+ * This work is released under the BSD License:
+ * (C) 2008 Sketch Recognition Lab, Texas A&amp;M University (hereafter SRL @ TAMU)
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the Sketch Recognition Lab, Texas A&amp;M University 
+ *       nor the names of its contributors may be used to endorse or promote 
+ *       products derived from this software without specific prior written 
+ *       permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY SRL @ TAMU ``AS IS'' AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL SRL @ TAMU BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ * </pre>
+ */
+package org.ladder.recognition.handwriting;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.log4j.Logger;
+import org.ladder.core.logging.LadderLogger;
+import org.ladder.core.sketch.BoundingBox;
+import org.ladder.core.sketch.ISketch;
+import org.ladder.core.sketch.IStroke;
+import org.ladder.core.sketch.Sketch;
+import org.ladder.recognition.recognizer.OverTimeCheckHelper;
+import org.ladder.recognition.recognizer.OverTimeException;
+
+import weka.classifiers.functions.MultilayerPerceptron;
+import weka.core.Attribute;
+import weka.core.Instance;
+import weka.core.Instances;
+
+/**
+ * Classifies one group of strokes as a character with a Weka MLP. The MLP
+ * keeps the values of its last forward pass in its nodes, and the pixel
+ * buffer is reused from character to character, so a classifier must only be
+ * used by one thread at a time. To classify on several threads, give each
+ * thread its own classifier over its own copy of the model (see
+ * {@link #serializeModel(MultilayerPerceptron)} and
+ * {@link #CharacterClassifier(byte[], Attribute, Instances, int)}).
+ */
+class CharacterClassifier {
+	
+	/**
+	 * Logger for this class
+	 */
+	private static final Logger log = LadderLogger
+	        .getLogger(CharacterClassifier.class);
+	
+	/**
+	 * The MLP used by this classifier
+	 */
+	private final MultilayerPerceptron m_mlp;
+	
+	/**
+	 * The class attribute, used to name the outputs of the MLP
+	 */
+	private final Attribute m_targetAttribute;
+	
+	/**
+	 * Header of the data set the instances are built in
+	 */
+	private final Instances m_dataSet;
+	
+	/**
+	 * Attribute holding the number of strokes in the character
+	 */
+	private final Attribute m_strokeCountAttribute;
+	
+	/**
+	 * Attribute holding the height/width ratio of the character
+	 */
+	private final Attribute m_bbRatioAttribute;
+	
+	/**
+	 * Number of pixels on a side of the pixel map, minus one
+	 */
+	private final int m_pixelCount;
+	
+	/**
+	 * Pixel buffer reused for every character
+	 */
+	private final int[][] m_pixels;
+	
+	
+	/**
+	 * Create a classifier that uses the given MLP. The MLP must not be used by
+	 * anyone else while this classifier is in use.
+	 * 
+	 * @param mlp
+	 *            The MLP to classify with
+	 * @param targetAttribute
+	 *            Class attribute naming the outputs of the MLP
+	 * @param dataSet
+	 *            Data set the MLP was trained on, only the header is used
+	 * @param pixelCount
+	 *            Number of pixels on a side of the pixel map, minus one
+	 */
+	public CharacterClassifier(MultilayerPerceptron mlp,
+	        Attribute targetAttribute, Instances dataSet, int pixelCount) {
+		m_mlp = mlp;
+		m_targetAttribute = targetAttribute;
+		m_dataSet = new Instances(dataSet, 0);
+		m_strokeCountAttribute = m_dataSet.attribute("StrokeCount");
+		m_bbRatioAttribute = m_dataSet.attribute("BoundingBoxRatio");
+		m_pixelCount = pixelCount;
+		m_pixels = new int[pixelCount + 1][pixelCount + 1];
+	}
+	
+
+	/**
+	 * Create a classifier over a private copy of a model, made from the bytes
+	 * of {@link #serializeModel(MultilayerPerceptron)}.
+	 * 
+	 * @param modelBytes
+	 *            The serialized MLP
+	 * @param targetAttribute
+	 *            Class attribute naming the outputs of the MLP
+	 * @param dataSet
+	 *            Data set the MLP was trained on, only the header is used
+	 * @param pixelCount
+	 *            Number of pixels on a side of the pixel map, minus one
+	 * @throws IOException
+	 *             If the model cannot be read back
+	 * @throws ClassNotFoundException
+	 *             If the model cannot be read back
+	 */
+	public CharacterClassifier(byte[] modelBytes, Attribute targetAttribute,
+	        Instances dataSet, int pixelCount) throws IOException,
+	        ClassNotFoundException {
+		this(deserializeModel(modelBytes), targetAttribute, dataSet,
+		        pixelCount);
+	}
+	
+
+	/**
+	 * Classify a group of strokes as a single character.
+	 * 
+	 * @param strokes
+	 *            Strokes of the character
+	 * @param startTime
+	 *            Time recognition started at
+	 * @param maxTime
+	 *            Max time we have to recognize in
+	 * @return The character, with a confidence for every class of the MLP
+	 * @throws OverTimeException
+	 *             If we run out of time
+	 */
+	public Character classify(List<IStroke> strokes, long startTime,
+	        long maxTime) throws OverTimeException {
+		
+		ISketch holderSketch = new Sketch();
+		holderSketch.setStrokes(strokes);
+		
+		Instance characterInstance = StrokePixelator.getInstance(holderSketch,
+		        m_pixelCount, m_dataSet, m_pixels);
+		
+		BoundingBox bb = holderSketch.getBoundingBox();
+		characterInstance.setValue(m_strokeCountAttribute, strokes.size());
+		characterInstance.setValue(m_bbRatioAttribute, bb.height / bb.width);
+		
+		double[] distribution;
+		try {
+			distribution = m_mlp.distributionForInstance(characterInstance);
+		}
+		catch (Exception e) {
+			log.error(e);
+			throw new IllegalStateException(
+			        "Could not classify character with the MLP", e);
+		}
+		
+		List<ResultConfidencePairing> rcp = new ArrayList<ResultConfidencePairing>(
+		        distribution.length);
+		for (int i = 0; i < distribution.length; i++) {
+			rcp.add(new ResultConfidencePairing(m_targetAttribute.value(i),
+			        distribution[i]));
+			OverTimeCheckHelper.overTimeCheck(startTime, maxTime, log);
+		}
+		
+		return new Character(rcp, strokes);
+	}
+	
+
+	/**
+	 * Serialize a model so private copies of it can be made.
+	 * 
+	 * @param mlp
+	 *            The model to serialize
+	 * @return The serialized model
+	 * @throws IOException
+	 *             If the model cannot be serialized
+	 */
+	public static byte[] serializeModel(MultilayerPerceptron mlp)
+	        throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		ObjectOutputStream out = new ObjectOutputStream(bytes);
+		try {
+			out.writeObject(mlp);
+		}
+		finally {
+			out.close();
+		}
+		return bytes.toByteArray();
+	}
+	
+
+	/**
+	 * Read a model back from the bytes of
+	 * {@link #serializeModel(MultilayerPerceptron)}
+	 * 
+	 * @param modelBytes
+	 *            The serialized model
+	 * @return A new copy of the model
+	 * @throws IOException
+	 *             If the model cannot be read
+	 * @throws ClassNotFoundException
+	 *             If the model cannot be read
+	 */
+	private static MultilayerPerceptron deserializeModel(byte[] modelBytes)
+	        throws IOException, ClassNotFoundException {
+		ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(
+		        modelBytes));
+		try {
+			return (MultilayerPerceptron) in.readObject();
+		}
+		finally {
+			in.close();
+		}
+	}
+}
@@ -320,6 +320,46 @@ public class HandwritingInterpretations {
 		}
 	}
 
+	/**
+	 * Submit every segmentation the segmenter allows, with the same result as
+	 * passing each one's characters to {@link #submitCharacters(CharacterGroup)},
+	 * but without listing them all
+	 * 
+	 * @param segmenter
+	 *            Segmenter with the characters of each span set
+	 */
+	public void submitSegmentations(TextSegmenter segmenter) {
+		int numLengths = 0;
+		for (int n = 1; n <= segmenter.getMaxCharacters(); n++) {
+			if (segmenter.hasSegmentation(n)) {
+				numLengths++;
+			}
+		}
+		
+		// nothing to segment, or too much
+		if (numLengths == 0) {
+			submitCharacters(new CharacterGroup());
+			return;
+		}
+		
+		for (String word : m_dictionary) {
+			String simpleWord = simplifyWord(word);
+			double newconf = segmenter.getWordConfidence(simpleWord);
+			
+			// a group of a different length scores the word 0
+			boolean otherLength = numLengths > (segmenter
+			        .hasSegmentation(simpleWord.length()) ? 1 : 0);
+			if (otherLength && newconf < 0) {
+				newconf = 0;
+			}
+			
+			Double d = characterRecognitionMap.get(word);
+			if (d == null || d < newconf) {
+				characterRecognitionMap.put(word, newconf);
+			}
+		}
+	}
+
 	/**
 	 * This method takes into consideration the fact that 0 and 1 are often
 	 * misrecognized as O and I, respectively. This method thus simplifies the
@@ -3,6 +3,8 @@
  * 
  * Revision History:<br>
  * Jan 13, 2009 bde - File created
+ * Oct 18, 2026 - Batch character recognition across worker threads
+ * Oct 18, 2026 - Get the models from the ModelRegistry when first needed
  * 
  * <p>
  * 
@@ -36,13 +38,24 @@
 
 package org.ladder.recognition.handwriting;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import org.apache.log4j.Logger;
 import org.ladder.core.config.LadderConfig;
+import org.ladder.core.config.WorkerPool;
 import org.ladder.core.logging.LadderLogger;
 import org.ladder.core.sketch.IShape;
 import org.ladder.core.sketch.ISketch;
@@ -50,13 +63,13 @@ import org.ladder.core.sketch.IStroke;
 import org.ladder.core.sketch.Shape;
 import org.ladder.core.sketch.Sketch;
 import org.ladder.recognition.grouping.HandwritingGrouper;
+import org.ladder.recognition.recognizer.ModelRegistry;
 import org.ladder.recognition.recognizer.OverTimeCheckHelper;
 import org.ladder.recognition.recognizer.OverTimeException;
 import org.ladder.util.lists.DisjointSet;
 
 import weka.classifiers.functions.MultilayerPerceptron;
 import weka.core.Attribute;
-import weka.core.Instance;
 import weka.core.Instances;
 
 public class HandwritingRecognizer {
@@ -88,29 +101,26 @@ public class HandwritingRecognizer {
 	private static Logger log = LadderLogger
 	        .getLogger(HandwritingRecognizer.class);
 	
+	/**
+	 * File, in the model directory, of the MLP for echelons
+	 */
+	public static final String S_ECHELON_MODEL = "2009-03-10-11.02-PixelCount11ECHELON500-1.model";
+	
+	/**
+	 * File, in the model directory, of the MLP for letters and numbers
+	 */
+	public static final String S_INNER_MODEL = "2009-03-14-11.19-PixelCount11INNER1000-1.model";
+	
+	/**
+	 * Classifiers for each model, so every worker has its own copy of the
+	 * model it is using. The models are shared by all recognizers, so the
+	 * classifiers are too.
+	 */
+	private static final Map<MultilayerPerceptron, ClassifierPool> S_CLASSIFIER_POOLS = new IdentityHashMap<MultilayerPerceptron, ClassifierPool>();
+	
 	
 	public HandwritingRecognizer() {
 		
-		try {
-			m_mlpEchelon = (MultilayerPerceptron) weka.core.SerializationHelper
-			        .read(LadderConfig
-			                .getProperty(LadderConfig.MODEL_CONFIG_KEY)
-			              + "/2009-03-10-11.02-PixelCount11ECHELON500-1.model");
-		}
-		catch (Exception e) {
-			log.error(e.toString());
-		}
-		
-		try {
-			m_mlpInner = (MultilayerPerceptron) weka.core.SerializationHelper
-			        .read(LadderConfig
-			                .getProperty(LadderConfig.MODEL_CONFIG_KEY)
-			              + "/2009-03-14-11.19-PixelCount11INNER1000-1.model");
-		}
-		catch (Exception e) {
-			log.error(e.toString());
-		}
-		
 		m_targetInnerAttribute = BuildTargetAttribute
 		        .buildUppercaseLetterAttribute();
 		
@@ -124,52 +134,110 @@ public class HandwritingRecognizer {
 	}
 	
 
+	/**
+	 * Start loading the handwriting models in the background, so the first
+	 * recognizer to need them does not have to wait as long.
+	 */
+	public static void warmUpModels() {
+		ModelRegistry.warmUpMultilayerPerceptron(ModelRegistry
+		        .getModelFile(S_ECHELON_MODEL));
+		ModelRegistry.warmUpMultilayerPerceptron(ModelRegistry
+		        .getModelFile(S_INNER_MODEL));
+	}
+	
+
 	public Character characterRecognizer(List<IStroke> strokes, long maxTime)
 	        throws OverTimeException {
 		
 		// Store the start time
 		long startTime = System.currentTimeMillis();
 		
-		ISketch holderSketch = new Sketch();
-		
-		holderSketch.setStrokes(strokes);
-		
-		double[] distribution = null;
-		
-		Instance characterInstance = StrokePixelator.getInstance(holderSketch,
-		        PIXELCOUNT, m_dataSet);
+		return getClassifierPool().classify(strokes, startTime, maxTime);
+	}
+	
+
+	/**
+	 * Recognize many groups of strokes, each as a single character, with the
+	 * current model. The groups are independent of each other, so they are
+	 * spread over the {@link WorkerPool} threads. Each worker uses its own copy
+	 * of the model and its own pixel buffer.
+	 * 
+	 * @param groups
+	 *            Groups of strokes, one per character
+	 * @param maxTime
+	 *            Max time we have to recognize all the groups in
+	 * @return The characters, in the same order as the groups
+	 * @throws OverTimeException
+	 *             If recognition of all the groups takes more than maxTime.
+	 *             Groups that have not been started by then are cancelled.
+	 */
+	public List<Character> recognizeCharacters(List<List<IStroke>> groups,
+	        long maxTime) throws OverTimeException {
 		
-		Attribute strokeCountAtt = m_dataSet.attribute("StrokeCount");
+		// Store the start time
+		final long startTime = System.currentTimeMillis();
+		final long maxTimeFinal = maxTime;
 		
-		Attribute bbRatio = m_dataSet.attribute("BoundingBoxRatio");
+		final ClassifierPool classifiers = getClassifierPool();
+		List<Character> characters = new ArrayList<Character>(groups.size());
 		
-		characterInstance.setValue(strokeCountAtt, strokes.size());
+		// not worth handing off to the workers
+		if (WorkerPool.runInline(groups.size())) {
+			for (List<IStroke> group : groups) {
+				characters.add(classifiers.classify(group, startTime, maxTime));
+			}
+			return characters;
+		}
 		
-		characterInstance.setValue(bbRatio,
-		        holderSketch.getBoundingBox().height
-		                / holderSketch.getBoundingBox().width);
+		List<Future<Character>> futures = new ArrayList<Future<Character>>(
+		        groups.size());
+		for (final List<IStroke> group : groups) {
+			futures.add(WorkerPool.submit(new Callable<Character>() {
+				
+				public Character call() throws Exception {
+					return classifiers.classify(group, startTime, maxTimeFinal);
+				}
+			}));
+		}
 		
+		// collect in submission order so the results line up with the groups
 		try {
-			distribution = m_mlp.distributionForInstance(characterInstance);
-			OverTimeCheckHelper.overTimeCheck(startTime, maxTime, log);
+			for (Future<Character> future : futures) {
+				long remaining = OverTimeCheckHelper.timeRemaining(startTime,
+				        maxTime);
+				characters.add(future.get(Math.max(remaining, 0),
+				        TimeUnit.MILLISECONDS));
+			}
 		}
-		catch (OverTimeException ote) {
-			// Don't log it
+		catch (TimeoutException e) {
+			cancelAll(futures);
+			log.info("Ran out of time during character recognition at "
+			         + (System.currentTimeMillis() - startTime)
+			         + " ms. Exceeded the allotted " + maxTime + " ms.");
+			throw new OverTimeException(OverTimeException.DEFAULT_MESSAGE, e);
 		}
-		catch (Exception e) {
-			log.error(e);
+		catch (InterruptedException e) {
+			cancelAll(futures);
+			Thread.currentThread().interrupt();
+			throw new OverTimeException(
+			        "Interrupted during character recognition", e);
 		}
-		
-		List<ResultConfidencePairing> rcp = new ArrayList<ResultConfidencePairing>();
-		
-		for (int i = 0; i < distribution.length; i++) {
-			rcp.add(new ResultConfidencePairing(m_targetAttribute.value(i),
-			        distribution[i]));
-			OverTimeCheckHelper.overTimeCheck(startTime, maxTime, log);
+		catch (ExecutionException e) {
+			cancelAll(futures);
+			Throwable cause = e.getCause();
+			if (cause instanceof OverTimeException) {
+				throw (OverTimeException) cause;
+			}
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new RuntimeException(cause);
 		}
 		
-		return new Character(rcp, strokes);
-		
+		return characters;
 	}
 	
 
@@ -200,9 +268,7 @@ public class HandwritingRecognizer {
 		// Store the start time
 		long startTime = System.currentTimeMillis();
 		
-		m_mlp = m_mlpInner;
-		m_targetAttribute = m_targetInnerAttribute;
-		m_dataSet = m_innerDataSet;
+		selectModel(HWRType.INNER);
 		Character c = characterRecognizer(list, OverTimeCheckHelper.timeRemaining(
 		        startTime, maxTime));
 		IShape s = new Shape();
@@ -225,63 +291,37 @@ public class HandwritingRecognizer {
 		// first pregroup
 		List<List<IStroke>> groupings = this.pregroupStrokes(list);
 		
-		ArrayList<ArrayList<Integer>> what = AllPossibleGroupings
-		        .computepossibiliites(groupings.size());
+		TextSegmenter segmenter = new TextSegmenter(groupings.size());
 		OverTimeCheckHelper.overTimeCheck(startTime, maxTime, log);
 		
-		log.debug("Number Of Possible Groupings : " + what.size());
-		
-		HandwritingInterpretations hi = new HandwritingInterpretations(
-		        m_dictionaryType);
-		
-		boolean submitted = false;
-		for (ArrayList<Integer> aLI : what) {
-			CharacterGroup characters = new CharacterGroup();
-			int start = 0;
-			int end = 0;
-			boolean jumpOut = false;
-			
-			for (Integer i : aLI) {
-				end += i;
-				List<IStroke> chargroup = new ArrayList<IStroke>();
-				for (int groupCount = start; groupCount < end; groupCount++) {
-					chargroup.addAll(groupings.get(groupCount));
-				}
-
-				Character c = characterRecognizer(chargroup, OverTimeCheckHelper
-				        .timeRemaining(startTime, maxTime));
-				log.debug("Integer " + i + " Character " + c.getBestResult()
-				          + " Confidence " + c.getHighestConfidence());
-				int size = characters.m_characters.size();
-				Character prevChar = null;
-				if (size > 0) {
-					prevChar = characters.m_characters.get(size - 1);
-				}
-				characters.add(c);
-				if (prevChar != null) {
-					double maxXPrev = prevChar.getBoundingBox().getMaxX();
-					double centerCur = c.getBoundingBox().getCenterX();
-					if (centerCur < maxXPrev) {
-						jumpOut = true;
-						break;
-					}
-				}
-				start += i;
+		log.debug("Number Of Possible Characters : "
+		          + segmenter.getSpans().size());
+		
+		// Every grouping is built from the same spans of pregroups, so
+		// recognize each span once, all in one batch, and let the segmenter
+		// find the best groupings from them
+		List<List<IStroke>> chargroups = new ArrayList<List<IStroke>>();
+		for (int[] span : segmenter.getSpans()) {
+			List<IStroke> chargroup = new ArrayList<IStroke>();
+			for (int groupCount = span[0]; groupCount < span[1]; groupCount++) {
+				chargroup.addAll(groupings.get(groupCount));
 			}
-			
-			if (!jumpOut) {
-				hi.submitCharacters(characters);
-				submitted = true;
-			}
-			else {
-				log.debug("Cancelling");
-			}
-
+			chargroups.add(chargroup);
 		}
-		if (!submitted) {
-			hi.submitCharacters(new CharacterGroup());
+		segmenter.setCharacters(recognizeCharacters(chargroups,
+		        OverTimeCheckHelper.timeRemaining(startTime, maxTime)));
+		
+		if (log.isDebugEnabled()) {
+			for (TextSegmenter.Segmentation segmentation : segmenter
+			        .getBestSegmentations(3)) {
+				log.debug("Segmentation " + segmentation);
+			}
 		}
 		
+		HandwritingInterpretations hi = new HandwritingInterpretations(
+		        m_dictionaryType);
+		hi.submitSegmentations(segmenter);
+		
 		IShape builtshape = new Shape();
 		builtshape.setLabel("Text");
 		builtshape.setStrokes(list);
@@ -304,29 +344,7 @@ public class HandwritingRecognizer {
 		// Store the start time
 		long startTime = System.currentTimeMillis();
 		
-		switch (m_dictionaryType) {
-			
-			case ECHELON:
-				m_mlp = m_mlpEchelon;
-				m_targetAttribute = m_targetEchelonAttribute;
-				m_dataSet = m_echelonDataSet;
-				break;
-			case INNER:
-				m_mlp = m_mlpInner;
-				m_targetAttribute = m_targetInnerAttribute;
-				m_dataSet = m_innerDataSet;
-				break;
-			case DECISIONGRAPHIC:
-				m_mlp = m_mlpInner;
-				m_targetAttribute = m_targetInnerAttribute;
-				m_dataSet = m_innerDataSet;
-				break;
-			case UNIQUEDESIGNATOR:
-				m_mlp = m_mlpInner;
-				m_targetAttribute = m_targetInnerAttribute;
-				m_dataSet = m_innerDataSet;
-				break;
-		}
+		selectModel(m_dictionaryType);
 		
 		HandwritingGrouper hg = new HandwritingGrouper();
 		
@@ -396,10 +414,13 @@ public class HandwritingRecognizer {
 					CharacterGroup characters = new CharacterGroup();
 					List<IStroke> list = new ArrayList<IStroke>();
 					
+					List<List<IStroke>> chargroups = new ArrayList<List<IStroke>>();
 					for (IShape shape : newGroups) {
 						list.addAll(shape.getStrokes());
-						Character c = characterRecognizer(shape.getStrokes(),
-						        OverTimeCheckHelper.timeRemaining(startTime, maxTime));
+						chargroups.add(shape.getStrokes());
+					}
+					for (Character c : recognizeCharacters(chargroups,
+					        OverTimeCheckHelper.timeRemaining(startTime, maxTime))) {
 						characters.add(c);
 					}
 					HandwritingInterpretations hi = new HandwritingInterpretations(
@@ -640,4 +661,241 @@ public class HandwritingRecognizer {
 	{
 		return m_strokesSubmitted;
 	}
+	
+
+	/**
+	 * Make the model for the given type of text the current model
+	 * 
+	 * @param type
+	 *            Type of text to recognize
+	 */
+	private void selectModel(HWRType type) {
+		
+		if (type == HWRType.ECHELON) {
+			if (m_mlpEchelon == null) {
+				m_mlpEchelon = loadModel(S_ECHELON_MODEL);
+			}
+		}
+		else if (m_mlpInner == null) {
+			m_mlpInner = loadModel(S_INNER_MODEL);
+		}
+		
+		switch (type) {
+			
+			case ECHELON:
+				m_mlp = m_mlpEchelon;
+				m_targetAttribute = m_targetEchelonAttribute;
+				m_dataSet = m_echelonDataSet;
+				break;
+			case INNER:
+				m_mlp = m_mlpInner;
+				m_targetAttribute = m_targetInnerAttribute;
+				m_dataSet = m_innerDataSet;
+				break;
+			case DECISIONGRAPHIC:
+				m_mlp = m_mlpInner;
+				m_targetAttribute = m_targetInnerAttribute;
+				m_dataSet = m_innerDataSet;
+				break;
+			case UNIQUEDESIGNATOR:
+				m_mlp = m_mlpInner;
+				m_targetAttribute = m_targetInnerAttribute;
+				m_dataSet = m_innerDataSet;
+				break;
+		}
+	}
+	
+
+	/**
+	 * Get a model from the {@link ModelRegistry}
+	 * 
+	 * @param fileName
+	 *            File of the model, in the model directory
+	 * @return The shared model, or null if it cannot be loaded
+	 */
+	private static MultilayerPerceptron loadModel(String fileName) {
+		try {
+			return ModelRegistry.getMultilayerPerceptron(ModelRegistry
+			        .getModelFile(fileName));
+		}
+		catch (IOException e) {
+			log.error(e.toString());
+			return null;
+		}
+	}
+	
+
+	/**
+	 * Get the classifiers for the current model, selecting the model for the
+	 * current type of text if none has been selected yet.
+	 * 
+	 * @return Classifiers for the current model
+	 */
+	private ClassifierPool getClassifierPool() {
+		
+		if (m_mlp == null) {
+			selectModel(m_dictionaryType);
+		}
+		if (m_mlp == null) {
+			throw new IllegalStateException("No handwriting model loaded for "
+			                                + m_dictionaryType);
+		}
+		
+		synchronized (S_CLASSIFIER_POOLS) {
+			ClassifierPool classifiers = S_CLASSIFIER_POOLS.get(m_mlp);
+			if (classifiers == null) {
+				classifiers = new ClassifierPool(m_mlp, m_targetAttribute,
+				        m_dataSet, PIXELCOUNT);
+				S_CLASSIFIER_POOLS.put(m_mlp, classifiers);
+			}
+			return classifiers;
+		}
+	}
+	
+
+
+	/**
+	 * Cancel all the futures that have not finished yet
+	 * 
+	 * @param futures
+	 *            Futures to cancel
+	 */
+	private static void cancelAll(List<Future<Character>> futures) {
+		for (Future<Character> future : futures) {
+			future.cancel(false);
+		}
+	}
+	
+
+	/**
+	 * Character classifiers for one model that are not in use. The first
+	 * classifier uses the loaded model, later ones use copies of it, so no two
+	 * threads ever run the same MLP.
+	 */
+	private static class ClassifierPool {
+		
+		/**
+		 * The loaded model
+		 */
+		private final MultilayerPerceptron m_model;
+		
+		/**
+		 * Class attribute naming the outputs of the model
+		 */
+		private final Attribute m_targetAttribute;
+		
+		/**
+		 * Data set the model was trained on
+		 */
+		private final Instances m_dataSet;
+		
+		/**
+		 * Number of pixels on a side of the pixel map, minus one
+		 */
+		private final int m_pixelCount;
+		
+		/**
+		 * Classifiers not currently in use
+		 */
+		private final BlockingQueue<CharacterClassifier> m_idleClassifiers = new LinkedBlockingQueue<CharacterClassifier>();
+		
+		/**
+		 * Whether a classifier already uses the loaded model
+		 */
+		private boolean m_modelLent = false;
+		
+		/**
+		 * The loaded model, serialized before its first use, to copy from
+		 */
+		private byte[] m_modelBytes = null;
+		
+		
+		/**
+		 * Create a pool of classifiers for a model
+		 * 
+		 * @param model
+		 *            The loaded model
+		 * @param targetAttribute
+		 *            Class attribute naming the outputs of the model
+		 * @param dataSet
+		 *            Data set the model was trained on
+		 * @param pixelCount
+		 *            Number of pixels on a side of the pixel map, minus one
+		 */
+		public ClassifierPool(MultilayerPerceptron model,
+		        Attribute targetAttribute, Instances dataSet, int pixelCount) {
+			m_model = model;
+			m_targetAttribute = targetAttribute;
+			m_dataSet = dataSet;
+			m_pixelCount = pixelCount;
+		}
+		
+
+		/**
+		 * Classify a group of strokes with a classifier no other thread is
+		 * using.
+		 * 
+		 * @param strokes
+		 *            Strokes of the character
+		 * @param startTime
+		 *            Time recognition started at
+		 * @param maxTime
+		 *            Max time we have to recognize in
+		 * @return The character
+		 * @throws OverTimeException
+		 *             If we run out of time
+		 */
+		public Character classify(List<IStroke> strokes, long startTime,
+		        long maxTime) throws OverTimeException {
+			CharacterClassifier classifier = m_idleClassifiers.poll();
+			if (classifier == null) {
+				classifier = newClassifier();
+			}
+			
+			try {
+				return classifier.classify(strokes, startTime, maxTime);
+			}
+			finally {
+				m_idleClassifiers.offer(classifier);
+			}
+		}
+		
+
+		/**
+		 * Create a new classifier. The loaded model is serialized before it is
+		 * first lent out, while nothing is running it, when more than one
+		 * thread may recognize characters.
+		 * 
+		 * @return A classifier over a model no other classifier uses
+		 */
+		private synchronized CharacterClassifier newClassifier() {
+			try {
+				if (!m_modelLent) {
+					if (LadderConfig.getNumRecognitionThreads() > 1) {
+						m_modelBytes = CharacterClassifier
+						        .serializeModel(m_model);
+					}
+					m_modelLent = true;
+					return new CharacterClassifier(m_model, m_targetAttribute,
+					        m_dataSet, m_pixelCount);
+				}
+				
+				if (m_modelBytes == null) {
+					m_modelBytes = CharacterClassifier.serializeModel(m_model);
+				}
+				return new CharacterClassifier(m_modelBytes,
+				        m_targetAttribute, m_dataSet, m_pixelCount);
+			}
+			catch (IOException e) {
+				log.error("Could not copy handwriting model: " + e);
+				throw new IllegalStateException(
+				        "Could not copy handwriting model", e);
+			}
+			catch (ClassNotFoundException e) {
+				log.error("Could not copy handwriting model: " + e);
+				throw new IllegalStateException(
+				        "Could not copy handwriting model", e);
+			}
+		}
+	}
 }
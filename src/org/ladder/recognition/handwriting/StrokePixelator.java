@@ -3,6 +3,7 @@
  * 
  * Revision History:<br>
  * Jan 13, 2009 bde - File created
+ * Oct 18, 2026 - Reuse pixel buffers and double points in place
  * 
  * <p>
  * 
@@ -36,14 +37,15 @@
 
 package org.ladder.recognition.handwriting;
 
+import java.util.Arrays;
+
 import org.apache.log4j.Logger;
 import org.ladder.core.logging.LadderLogger;
 import org.ladder.core.sketch.BoundingBox;
 import org.ladder.core.sketch.IPoint;
 import org.ladder.core.sketch.ISketch;
 import org.ladder.core.sketch.IStroke;
-import org.ladder.core.sketch.Point;
-import org.ladder.core.sketch.Stroke;
+import org.ladder.core.sketch.StrokeArrays;
 
 import weka.core.Instance;
 import weka.core.Instances;
@@ -63,38 +65,68 @@ public class StrokePixelator {
 	 * @param heightWidth
 	 * @return
 	 */
-
-	
 	public static int[][] pixelizeSketch(ISketch sk, int heightWidth) {
+		return pixelizeSketch(sk, heightWidth, null);
+	}
+	
 
-		int[][] pixels = new int[heightWidth + 1][heightWidth + 1];
-
+	/**
+	 * Creates an int array pixel map of a sketch, drawing into the given
+	 * buffer when it is the right size. The buffer is cleared first, so it
+	 * can be reused from character to character.
+	 * 
+	 * @param sk
+	 *            Sketch to pixelize
+	 * @param heightWidth
+	 *            Number of pixels on a side, minus one
+	 * @param pixels
+	 *            Buffer to draw into, may be null
+	 * @return The pixel map, which is pixels if it could be reused
+	 */
+	public static int[][] pixelizeSketch(ISketch sk, int heightWidth,
+	        int[][] pixels) {
+		
+		if (pixels == null || pixels.length != heightWidth + 1
+		    || pixels[0].length != heightWidth + 1) {
+			pixels = new int[heightWidth + 1][heightWidth + 1];
+		}
+		else {
+			for (int[] column : pixels) {
+				Arrays.fill(column, 0);
+			}
+		}
+		
 		BoundingBox bb = sk.getBoundingBox();
-
+		
 		double skWidthHeight = Math.max(bb.height, bb.width);
 		
 		IPoint centerPoint = bb.getCenterPoint();
-
-		double shiftX = 0 - (centerPoint.getX()-skWidthHeight/2);
-
-		double shiftY = 0 - (centerPoint.getY()-skWidthHeight/2);
-
+		
+		double shiftX = 0 - (centerPoint.getX() - skWidthHeight / 2);
+		
+		double shiftY = 0 - (centerPoint.getY() - skWidthHeight / 2);
+		
 		double normalizeWidthHeight = heightWidth / skWidthHeight;
-
+		
 		for (IStroke st : sk.getStrokes()) {
-			IStroke dbStroke = doublePoint(st);
-			dbStroke = doublePoint(dbStroke);
-			dbStroke = doublePoint(dbStroke);
+			if (st.getNumPoints() == 0) {
+				continue;
+			}
+			
+			StrokeArrays arrays = new StrokeArrays(st);
+			double[] x = doubleValues(doubleValues(doubleValues(arrays.getX())));
+			double[] y = doubleValues(doubleValues(doubleValues(arrays.getY())));
 			
-			for (IPoint pt : dbStroke.getPoints()) {
-				Double xValue = (pt.getX() + shiftX) * normalizeWidthHeight;
-				Double yValue = (pt.getY() + shiftY) * normalizeWidthHeight;
-				pixels[xValue.intValue()][yValue.intValue()] = 1;
+			for (int i = 0; i < x.length; i++) {
+				int xValue = (int) ((x[i] + shiftX) * normalizeWidthHeight);
+				int yValue = (int) ((y[i] + shiftY) * normalizeWidthHeight);
+				pixels[xValue][yValue] = 1;
 			}
 		}
-
+		
 		return pixels;
 	}
+	
 
 	/**
 	 * Returns a Weka instance of a sketch (using the pixelize function))
@@ -105,8 +137,30 @@ public class StrokePixelator {
 	 */
 	public static Instance getInstance(ISketch sk, int heightWidth,
 			Instances dataSet) {
+		return getInstance(sk, heightWidth, dataSet, null);
+	}
+	
 
-		int[][] pixels = pixelizeSketch(sk, heightWidth);
+	/**
+	 * Returns a Weka instance of a sketch, pixelizing into the given buffer
+	 * when it is the right size (see
+	 * {@link #pixelizeSketch(ISketch, int, int[][])}).
+	 * 
+	 * @param sk
+	 *            Sketch to pixelize
+	 * @param heightWidth
+	 *            Number of pixels on a side, minus one
+	 * @param dataSet
+	 *            Data set the instance belongs to
+	 * @param pixels
+	 *            Buffer to pixelize into, may be null
+	 * @return The Weka instance for the sketch
+	 */
+	public static Instance getInstance(ISketch sk, int heightWidth,
+	        Instances dataSet, int[][] pixels) {
+		
+		pixels = pixelizeSketch(sk, heightWidth, pixels);
+		boolean debug = log.isDebugEnabled();
 
 		Instance inst = new Instance((int) (Math.pow((heightWidth + 1), 2) + 4));
 
@@ -119,40 +173,45 @@ public class StrokePixelator {
 		int count = 2;
 
 		for (int i = 0; i < pixels.length; i++) {
-			String holder = "";
+			StringBuilder holder = debug ? new StringBuilder() : null;
 			for (int j = 0; j < pixels.length; j++) {
 					if(pixels[j][i] == 1) 
 						inst.setValue(count, 1);
 					else
 						inst.setValue(count, -1);
-				holder += String.valueOf(pixels[j][i]);
+				if (debug) {
+					holder.append(pixels[j][i]);
+				}
 				count++;
 			}
-			log.debug(holder);
+			if (debug) {
+				log.debug(holder.toString());
+			}
 		}
 		return inst;
 	}
 	
-	private static IStroke doublePoint(IStroke sk) {
-		IStroke doubledStroke = new Stroke();
-		
-		for(int i=0 ; i < sk.getNumPoints() - 1; i++){
-			doubledStroke.addPoint(sk.getPoint(i));
-			
-			long timeOfNewPoint = (long) ((sk.getPoint(i).getTime() + sk.getPoint(i+1).getTime())/2.0); 
-			
-			double xValue = (sk.getPoint(i).getX() + sk.getPoint(i+1).getX())/2.0;
-			
-			double yValue = (sk.getPoint(i).getY() + sk.getPoint(i+1).getY())/2.0;
-			
-			IPoint pt = new Point(xValue, yValue, timeOfNewPoint);
-			
-			doubledStroke.addPoint(pt);
+	/**
+	 * Put the midpoint between each pair of neighboring values in between
+	 * them, the same way for x and y.
+	 * 
+	 * @param values
+	 *            Coordinates along a stroke
+	 * @return The values with midpoints added, 2n - 1 long
+	 */
+	private static double[] doubleValues(double[] values) {
+		if (values.length < 2) {
+			return values;
 		}
 		
-		doubledStroke.addPoint(sk.getLastPoint());
+		double[] doubled = new double[2 * values.length - 1];
+		for (int i = 0; i < values.length - 1; i++) {
+			doubled[2 * i] = values[i];
+			doubled[2 * i + 1] = (values[i] + values[i + 1]) / 2.0;
+		}
+		doubled[doubled.length - 1] = values[values.length - 1];
 		
-		return doubledStroke;
+		return doubled;
 	}
 
 }
@@ -0,0 +1,556 @@
+/**
+ * TextSegmenter.java
+ * 
+ * Revision History:<br>
+ * Oct 18, 2026 - File created
+ * 
+ * <p>
+ * 
+ * <pre>
+ * This work is released under the BSD License:
+ * (C) 2008 Sketch Recognition Lab, Texas A&amp;M University (hereafter SRL @ TAMU)
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the Sketch Recognition Lab, Texas A&amp;M University 
+ *       nor the names of its contributors may be used to endorse or promote 
+ *       products derived from this software without specific prior written 
+ *       permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY SRL @ TAMU ``AS IS'' AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL SRL @ TAMU BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ * </pre>
+ */
+package org.ladder.recognition.handwriting;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import org.ladder.core.sketch.BoundingBox;
+
+/**
+ * Finds the best ways to split a row of stroke groups into characters. Each
+ * span of groups that could be a character is recognized once, and the best
+ * segmentations are built from the spans by dynamic programming, instead of
+ * listing every grouping as {@link AllPossibleGroupings} does. The number of
+ * groupings grows exponentially with the number of groups, while the work here
+ * grows linearly.
+ * <p>
+ * Segmentations follow the same rules as
+ * {@link AllPossibleGroupings#computepossibiliites(int)}: a character takes at
+ * most {@link #S_MAX_GROUPS_PER_CHARACTER} groups, there are at most
+ * {@link #S_MAX_CHARACTERS} characters, and, as in
+ * {@link HandwritingRecognizer#recognizeOneText(List, long)}, no character may
+ * be centered left of the right edge of the character before it.
+ * 
+ * @see HandwritingInterpretations#submitSegmentations(TextSegmenter)
+ */
+public class TextSegmenter {
+	
+	/**
+	 * Default most groups in one character
+	 */
+	public static final int S_MAX_GROUPS_PER_CHARACTER = 5;
+	
+	/**
+	 * Default most characters in one segmentation
+	 */
+	public static final int S_MAX_CHARACTERS = 7;
+	
+	/**
+	 * Orders partial segmentations from highest to lowest score
+	 */
+	private static final Comparator<Partial> S_BEST_FIRST = new Comparator<Partial>() {
+		
+		public int compare(Partial p1, Partial p2) {
+			return Double.compare(p2.m_score, p1.m_score);
+		}
+	};
+	
+	/**
+	 * Number of groups to split into characters
+	 */
+	private int m_numGroups;
+	
+	/**
+	 * Most groups in one character
+	 */
+	private int m_maxGroupsPerCharacter;
+	
+	/**
+	 * Most characters in one segmentation
+	 */
+	private int m_maxCharacters;
+	
+	/**
+	 * Spans that can be a character in some segmentation, each {start, end}
+	 */
+	private List<int[]> m_spans = new ArrayList<int[]>();
+	
+	/**
+	 * Character recognized for each span, by [start][end - start - 1]
+	 */
+	private Character[][] m_characters;
+	
+	/**
+	 * Right edge of each span's character, by [start][end - start - 1]
+	 */
+	private double[][] m_maxX;
+	
+	/**
+	 * Horizontal center of each span's character, by [start][end - start - 1]
+	 */
+	private double[][] m_centerX;
+	
+	/**
+	 * Whether there is a segmentation with each number of characters, worked
+	 * out the first time it is needed
+	 */
+	private boolean[] m_possible = null;
+	
+	
+	/**
+	 * Create a segmenter with the default limits
+	 * 
+	 * @param numGroups
+	 *            Number of groups to split into characters
+	 */
+	public TextSegmenter(int numGroups) {
+		this(numGroups, S_MAX_GROUPS_PER_CHARACTER, S_MAX_CHARACTERS);
+	}
+	
+
+	/**
+	 * Create a segmenter
+	 * 
+	 * @param numGroups
+	 *            Number of groups to split into characters
+	 * @param maxGroupsPerCharacter
+	 *            Most groups in one character
+	 * @param maxCharacters
+	 *            Most characters in one segmentation
+	 */
+	public TextSegmenter(int numGroups, int maxGroupsPerCharacter,
+	        int maxCharacters) {
+		m_numGroups = numGroups;
+		m_maxGroupsPerCharacter = maxGroupsPerCharacter;
+		m_maxCharacters = maxCharacters;
+		m_characters = new Character[numGroups][maxGroupsPerCharacter];
+		m_maxX = new double[numGroups][maxGroupsPerCharacter];
+		m_centerX = new double[numGroups][maxGroupsPerCharacter];
+		
+		for (int start = 0; start < numGroups; start++) {
+			for (int end = start + 1; end <= numGroups
+			                          && end - start <= maxGroupsPerCharacter; end++) {
+				
+				// the groups on either side must fit in the characters left
+				if (minCharacters(start) + 1 + minCharacters(numGroups - end) <= maxCharacters) {
+					m_spans.add(new int[] { start, end });
+				}
+			}
+		}
+	}
+	
+
+	/**
+	 * Get the spans of groups that can be a character in some segmentation.
+	 * These are the spans that need recognizing.
+	 * 
+	 * @return Each span as {start, end}, where end is one past the last group
+	 */
+	public List<int[]> getSpans() {
+		return m_spans;
+	}
+	
+
+	/**
+	 * Set the character recognized for each span
+	 * 
+	 * @param characters
+	 *            Characters in the same order as {@link #getSpans()}
+	 */
+	public void setCharacters(List<Character> characters) {
+		for (int i = 0; i < m_spans.size(); i++) {
+			int start = m_spans.get(i)[0];
+			int length = m_spans.get(i)[1] - start;
+			Character c = characters.get(i);
+			BoundingBox bb = c.getBoundingBox();
+			m_characters[start][length - 1] = c;
+			m_maxX[start][length - 1] = bb.getMaxX();
+			m_centerX[start][length - 1] = bb.getCenterX();
+		}
+		m_possible = null;
+	}
+	
+
+	/**
+	 * Get the character recognized for a span
+	 * 
+	 * @param start
+	 *            First group in the span
+	 * @param end
+	 *            One past the last group in the span
+	 * @return The character, or null if the span is not a possible character
+	 */
+	public Character getCharacter(int start, int end) {
+		if (start < 0 || end > m_numGroups || end - start < 1
+		    || end - start > m_maxGroupsPerCharacter) {
+			return null;
+		}
+		return m_characters[start][end - start - 1];
+	}
+	
+
+	/**
+	 * Get the most characters in one segmentation
+	 * 
+	 * @return Most characters in one segmentation
+	 */
+	public int getMaxCharacters() {
+		return m_maxCharacters;
+	}
+	
+
+	/**
+	 * Is there a segmentation with the given number of characters?
+	 * 
+	 * @param numCharacters
+	 *            Number of characters
+	 * @return True if the groups can be split into that many characters
+	 */
+	public boolean hasSegmentation(int numCharacters) {
+		if (m_possible == null) {
+			m_possible = new boolean[m_maxCharacters + 1];
+			for (int n = 1; n <= m_maxCharacters; n++) {
+				m_possible[n] = !best(n, null, 1).isEmpty();
+			}
+		}
+		return numCharacters > 0 && numCharacters <= m_maxCharacters
+		       && m_possible[numCharacters];
+	}
+	
+
+	/**
+	 * Get the highest average confidence with which some segmentation spells
+	 * out the given word
+	 * 
+	 * @param word
+	 *            Word to spell, one character per segment
+	 * @return The average confidence of the word's characters, or negative
+	 *         infinity if no segmentation has as many characters as the word
+	 */
+	public double getWordConfidence(String word) {
+		List<Segmentation> best = getBestSegmentations(word, 1);
+		if (best.isEmpty()) {
+			return Double.NEGATIVE_INFINITY;
+		}
+		return best.get(0).getConfidence();
+	}
+	
+
+	/**
+	 * Get the segmentations that best spell out the given word
+	 * 
+	 * @param word
+	 *            Word to spell, one character per segment
+	 * @param k
+	 *            Most segmentations to return
+	 * @return Up to k segmentations, best first, scored by the average
+	 *         confidence of the word's characters
+	 */
+	public List<Segmentation> getBestSegmentations(String word, int k) {
+		if (word.length() < 1 || word.length() > m_maxCharacters) {
+			return new ArrayList<Segmentation>();
+		}
+		return best(word.length(), word, k);
+	}
+	
+
+	/**
+	 * Get the best segmentations with any number of characters
+	 * 
+	 * @param k
+	 *            Most segmentations to return
+	 * @return Up to k segmentations, best first, scored by the average
+	 *         confidence of each character's best result
+	 */
+	public List<Segmentation> getBestSegmentations(int k) {
+		List<Segmentation> segmentations = new ArrayList<Segmentation>();
+		for (int n = 1; n <= m_maxCharacters; n++) {
+			segmentations.addAll(best(n, null, k));
+		}
+		Collections.sort(segmentations, new Comparator<Segmentation>() {
+			
+			public int compare(Segmentation s1, Segmentation s2) {
+				return Double.compare(s2.getConfidence(), s1.getConfidence());
+			}
+		});
+		if (segmentations.size() > k) {
+			segmentations = new ArrayList<Segmentation>(segmentations.subList(
+			        0, k));
+		}
+		return segmentations;
+	}
+	
+
+	/**
+	 * Find the best segmentations with a given number of characters. Works
+	 * through the characters in order, keeping the best k partial
+	 * segmentations that end with each span. The scores are added up from the
+	 * left, the same way {@link CharacterGroup#getConfidence(String)} does.
+	 * 
+	 * @param numCharacters
+	 *            Number of characters
+	 * @param word
+	 *            Word to score the characters against, or null to score each
+	 *            character by its best result
+	 * @param k
+	 *            Most segmentations to return
+	 * @return Up to k segmentations, best first
+	 */
+	private List<Segmentation> best(int numCharacters, String word, int k) {
+		List<Segmentation> segmentations = new ArrayList<Segmentation>();
+		if (k < 1 || numCharacters < 1 || m_numGroups == 0) {
+			return segmentations;
+		}
+		
+		// partial segmentations ending with each span, by [start][length - 1]
+		List<List<List<Partial>>> ending = null;
+		for (int position = 0; position < numCharacters; position++) {
+			List<List<List<Partial>>> next = newTable();
+			for (int[] span : m_spans) {
+				int start = span[0];
+				int end = span[1];
+				Character c = m_characters[start][end - start - 1];
+				double score = (word == null) ? c.getHighestConfidence() : c
+				        .getConfidence(word.charAt(position));
+				List<Partial> partials = next.get(start).get(end - start - 1);
+				
+				if (position == 0) {
+					if (start == 0) {
+						partials.add(new Partial(score, start, end, null));
+					}
+					continue;
+				}
+				
+				for (int prev = Math.max(0, start - m_maxGroupsPerCharacter); prev < start; prev++) {
+					List<Partial> before = ending.get(prev).get(start - prev - 1);
+					if (before.isEmpty()
+					    || m_centerX[start][end - start - 1] < m_maxX[prev][start
+					                                                        - prev
+					                                                        - 1]) {
+						continue;
+					}
+					for (Partial p : before) {
+						partials.add(new Partial(p.m_score + score, start, end,
+						        p));
+					}
+				}
+				keepBest(partials, k);
+			}
+			ending = next;
+		}
+		
+		List<Partial> complete = new ArrayList<Partial>();
+		for (int start = Math.max(0, m_numGroups - m_maxGroupsPerCharacter); start < m_numGroups; start++) {
+			complete.addAll(ending.get(start).get(m_numGroups - start - 1));
+		}
+		keepBest(complete, k);
+		for (Partial p : complete) {
+			segmentations.add(new Segmentation(p, numCharacters));
+		}
+		return segmentations;
+	}
+	
+
+	/**
+	 * Make an empty list of partial segmentations for each span
+	 * 
+	 * @return Lists by [start][length - 1]
+	 */
+	private List<List<List<Partial>>> newTable() {
+		List<List<List<Partial>>> table = new ArrayList<List<List<Partial>>>(
+		        m_numGroups);
+		for (int start = 0; start < m_numGroups; start++) {
+			List<List<Partial>> row = new ArrayList<List<Partial>>(
+			        m_maxGroupsPerCharacter);
+			for (int length = 1; length <= m_maxGroupsPerCharacter; length++) {
+				row.add(new ArrayList<Partial>(0));
+			}
+			table.add(row);
+		}
+		return table;
+	}
+	
+
+	/**
+	 * Sort partial segmentations best first and drop all but the best k
+	 * 
+	 * @param partials
+	 *            Partial segmentations
+	 * @param k
+	 *            Number to keep
+	 */
+	private static void keepBest(List<Partial> partials, int k) {
+		Collections.sort(partials, S_BEST_FIRST);
+		while (partials.size() > k) {
+			partials.remove(partials.size() - 1);
+		}
+	}
+	
+
+	/**
+	 * Fewest characters that can hold the given number of groups
+	 * 
+	 * @param numGroups
+	 *            Number of groups
+	 * @return Fewest characters
+	 */
+	private int minCharacters(int numGroups) {
+		return (numGroups + m_maxGroupsPerCharacter - 1)
+		       / m_maxGroupsPerCharacter;
+	}
+	
+	/**
+	 * The start of a segmentation, ending with one span
+	 */
+	private static class Partial {
+		
+		/**
+		 * Total score of the characters so far
+		 */
+		private double m_score;
+		
+		/**
+		 * First group of the last span
+		 */
+		private int m_start;
+		
+		/**
+		 * One past the last group of the last span
+		 */
+		private int m_end;
+		
+		/**
+		 * The segmentation before the last span, or null if this is the first
+		 */
+		private Partial m_prev;
+		
+		
+		/**
+		 * Create a partial segmentation
+		 * 
+		 * @param score
+		 *            Total score of the characters so far
+		 * @param start
+		 *            First group of the last span
+		 * @param end
+		 *            One past the last group of the last span
+		 * @param prev
+		 *            The segmentation before the last span
+		 */
+		public Partial(double score, int start, int end, Partial prev) {
+			m_score = score;
+			m_start = start;
+			m_end = end;
+			m_prev = prev;
+		}
+	}
+	
+	/**
+	 * One way of splitting the groups into characters
+	 */
+	public class Segmentation {
+		
+		/**
+		 * Spans of the characters, each {start, end}, left to right
+		 */
+		private List<int[]> m_segments = new ArrayList<int[]>();
+		
+		/**
+		 * Average score of the characters
+		 */
+		private double m_confidence;
+		
+		
+		/**
+		 * Create a segmentation from the last step of a partial one
+		 * 
+		 * @param last
+		 *            Partial segmentation ending with the last span
+		 * @param numCharacters
+		 *            Number of characters
+		 */
+		private Segmentation(Partial last, int numCharacters) {
+			for (Partial p = last; p != null; p = p.m_prev) {
+				m_segments.add(0, new int[] { p.m_start, p.m_end });
+			}
+			m_confidence = last.m_score / numCharacters;
+		}
+		
+
+		/**
+		 * Get the spans of the characters
+		 * 
+		 * @return Each span as {start, end}, left to right
+		 */
+		public List<int[]> getSegments() {
+			return m_segments;
+		}
+		
+
+		/**
+		 * Get the average score of the characters
+		 * 
+		 * @return Average score
+		 */
+		public double getConfidence() {
+			return m_confidence;
+		}
+		
+
+		/**
+		 * Get the characters, left to right
+		 * 
+		 * @return The characters as a group
+		 */
+		public CharacterGroup getCharacters() {
+			CharacterGroup characters = new CharacterGroup();
+			for (int[] segment : m_segments) {
+				characters.add(getCharacter(segment[0], segment[1]));
+			}
+			return characters;
+		}
+		
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see java.lang.Object#toString()
+		 */
+		@Override
+		public String toString() {
+			StringBuilder text = new StringBuilder();
+			for (int[] segment : m_segments) {
+				text.append(getCharacter(segment[0], segment[1])
+				        .getBestResult());
+			}
+			return text + " (" + m_confidence + ")";
+		}
+	}
+}
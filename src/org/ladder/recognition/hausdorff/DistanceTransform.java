@@ -0,0 +1,307 @@
+/**
+ * DistanceTransform.java
+ * 
+ * Revision History:<br>
+ * Oct 18, 2026 - File created
+ * 
+ * <p>
+ * 
+ * <pre>
+ * This work is released under the BSD License:
+ * (C) 2008 Sketch Recognition Lab, Texas A&amp;M University (hereafter SRL @ TAMU)
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the Sketch Recognition Lab, Texas A&amp;M University 
+ *       nor the names of its contributors may be used to endorse or promote 
+ *       products derived from this software without specific prior written 
+ *       permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY SRL @ TAMU ``AS IS'' AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL SRL @ TAMU BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ * </pre>
+ */
+package org.ladder.recognition.hausdorff;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.ladder.core.sketch.IPoint;
+
+/**
+ * Euclidean distance transform of a set of points rasterized onto a pixel
+ * grid: for every pixel, the distance to the closest pixel containing a point.
+ * Computed with the linear time lower envelope algorithm of Felzenszwalb and
+ * Huttenlocher, so the distance from any location to the point set is a single
+ * look up afterwards.
+ * <p>
+ * Nothing outside the grid is stored. Points and query locations outside it
+ * are clamped to the closest border pixel, so a query outside the grid gets
+ * the distance from that border pixel, which can be smaller than the distance
+ * from the location itself by up to how far the location is outside the grid.
+ * Use {@link #isInGrid(double, double)} to tell whether a location was
+ * clamped and {@link #distanceFromGrid(double, double)} for how far it was
+ * moved.
+ */
+public class DistanceTransform {
+	
+	/**
+	 * Squared distance used for pixels with no point in their row or column
+	 * yet (larger than any real squared distance on a grid)
+	 */
+	private static final double S_FAR = 1e20;
+	
+	/**
+	 * Width of the grid
+	 */
+	private int m_width;
+	
+	/**
+	 * Height of the grid
+	 */
+	private int m_height;
+	
+	/**
+	 * Distance from each pixel to the closest point, indexed by x * height + y
+	 */
+	private double[] m_distances;
+	
+	/**
+	 * Largest distance in the grid
+	 */
+	private double m_maxDistance;
+	
+	
+	/**
+	 * Compute the distance transform of the points on a grid of the given
+	 * size. Each point falls in the pixel it rounds to. Points outside the grid
+	 * are moved to the closest border pixel rather than dropped.
+	 * 
+	 * @param width
+	 *            Width of the grid
+	 * @param height
+	 *            Height of the grid
+	 * @param points
+	 *            Points to compute the distances to
+	 */
+	public DistanceTransform(int width, int height, List<IPoint> points) {
+		if (width <= 0 || height <= 0)
+			throw new IllegalArgumentException("Grid must not be empty");
+		
+		m_width = width;
+		m_height = height;
+		m_distances = new double[width * height];
+		Arrays.fill(m_distances, S_FAR);
+		for (IPoint p : points)
+			m_distances[index(p.getX(), p.getY())] = 0.0;
+		
+		// Squared distances along the columns, then along the rows
+		int n = Math.max(width, height);
+		double[] f = new double[n];
+		double[] d = new double[n];
+		int[] v = new int[n];
+		double[] z = new double[n + 1];
+		
+		for (int x = 0; x < width; x++) {
+			for (int y = 0; y < height; y++)
+				f[y] = m_distances[x * height + y];
+			transform1D(f, height, d, v, z);
+			for (int y = 0; y < height; y++)
+				m_distances[x * height + y] = d[y];
+		}
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++)
+				f[x] = m_distances[x * height + y];
+			transform1D(f, width, d, v, z);
+			for (int x = 0; x < width; x++)
+				m_distances[x * height + y] = d[x];
+		}
+		
+		m_maxDistance = 0.0;
+		for (int i = 0; i < m_distances.length; i++) {
+			if (m_distances[i] >= S_FAR)
+				m_distances[i] = Double.POSITIVE_INFINITY;
+			else
+				m_distances[i] = Math.sqrt(m_distances[i]);
+			m_maxDistance = Math.max(m_maxDistance, m_distances[i]);
+		}
+	}
+	
+
+	/**
+	 * Get the width of the grid
+	 * 
+	 * @return Grid width
+	 */
+	public int getWidth() {
+		return m_width;
+	}
+	
+
+	/**
+	 * Get the height of the grid
+	 * 
+	 * @return Grid height
+	 */
+	public int getHeight() {
+		return m_height;
+	}
+	
+
+	/**
+	 * Get the distance from the pixel a location rounds to to the closest
+	 * point. For locations in the grid this is within half a pixel diagonal of
+	 * the distance from the location itself. Locations outside the grid are
+	 * clamped to the closest border pixel without any warning, so their
+	 * distance can be too small; see {@link #isInGrid(double, double)}.
+	 * 
+	 * @param x
+	 *            X location
+	 * @param y
+	 *            Y location
+	 * @return Distance to the closest point, or positive infinity if there are
+	 *         no points
+	 */
+	public double getDistance(double x, double y) {
+		return m_distances[index(x, y)];
+	}
+	
+
+	/**
+	 * Check whether a location rounds to a pixel in the grid, so that
+	 * {@link #getDistance(double, double)} does not clamp it
+	 * 
+	 * @param x
+	 *            X location
+	 * @param y
+	 *            Y location
+	 * @return True if the location is in the grid
+	 */
+	public boolean isInGrid(double x, double y) {
+		long px = Math.round(x);
+		long py = Math.round(y);
+		return px >= 0 && px < m_width && py >= 0 && py < m_height;
+	}
+	
+
+	/**
+	 * Get how far a location is from the pixel
+	 * {@link #getDistance(double, double)} clamps it to. The true distance
+	 * from a location outside the grid to the closest point is at least the
+	 * distance from that pixel, and at most that plus this.
+	 * 
+	 * @param x
+	 *            X location
+	 * @param y
+	 *            Y location
+	 * @return Distance to the border pixel, or 0 if the location is in the
+	 *         grid
+	 */
+	public double distanceFromGrid(double x, double y) {
+		if (isInGrid(x, y))
+			return 0.0;
+		
+		double px = Math.min(Math.max(Math.round(x), 0), m_width - 1);
+		double py = Math.min(Math.max(Math.round(y), 0), m_height - 1);
+		return Math.sqrt((x - px) * (x - px) + (y - py) * (y - py));
+	}
+	
+
+	/**
+	 * Get the largest distance from any pixel in the grid to the closest point
+	 * 
+	 * @return Largest distance in the grid
+	 */
+	public double getMaxDistance() {
+		return m_maxDistance;
+	}
+	
+
+	/**
+	 * Get the index of the pixel a location rounds to. Locations outside the
+	 * grid are clamped to the closest border pixel.
+	 * 
+	 * @param x
+	 *            X location
+	 * @param y
+	 *            Y location
+	 * @return Index into the distances
+	 */
+	private int index(double x, double y) {
+		int px = Math.min(Math.max((int) Math.round(x), 0), m_width - 1);
+		int py = Math.min(Math.max((int) Math.round(y), 0), m_height - 1);
+		return px * m_height + py;
+	}
+	
+
+	/**
+	 * One dimensional squared distance transform of a sampled function: d[q]
+	 * = min over p of (q - p)^2 + f[p]
+	 * 
+	 * @param f
+	 *            Sampled function
+	 * @param n
+	 *            Number of samples
+	 * @param d
+	 *            Output distances
+	 * @param v
+	 *            Work array for the locations of the parabolas in the lower
+	 *            envelope
+	 * @param z
+	 *            Work array for the boundaries between the parabolas
+	 */
+	private static void transform1D(double[] f, int n, double[] d, int[] v,
+	        double[] z) {
+		int k = 0;
+		v[0] = 0;
+		z[0] = Double.NEGATIVE_INFINITY;
+		z[1] = Double.POSITIVE_INFINITY;
+		for (int q = 1; q < n; q++) {
+			double s = intersection(f, q, v[k]);
+			while (s <= z[k]) {
+				k--;
+				s = intersection(f, q, v[k]);
+			}
+			k++;
+			v[k] = q;
+			z[k] = s;
+			z[k + 1] = Double.POSITIVE_INFINITY;
+		}
+		
+		k = 0;
+		for (int q = 0; q < n; q++) {
+			while (z[k + 1] < q)
+				k++;
+			d[q] = (q - v[k]) * (q - v[k]) + f[v[k]];
+		}
+	}
+	
+
+	/**
+	 * Location where the parabolas rooted at q and p intersect
+	 * 
+	 * @param f
+	 *            Sampled function
+	 * @param q
+	 *            Location of the first parabola
+	 * @param p
+	 *            Location of the second parabola
+	 * @return Intersection location
+	 */
+	private static double intersection(double[] f, int q, int p) {
+		return ((f[q] + q * q) - (f[p] + p * p)) / (2.0 * q - 2.0 * p);
+	}
+}
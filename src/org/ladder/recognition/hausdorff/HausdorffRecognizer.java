@@ -3,11 +3,12 @@ package org.ladder.recognition.hausdorff;
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
 
+import org.ladder.core.config.WorkerPool;
 import org.ladder.core.sketch.IPoint;
 import org.ladder.core.sketch.IShape;
 import org.ladder.core.sketch.IStroke;
@@ -25,16 +26,20 @@ import org.ladder.recognition.recognizer.VisionRecognizer;
 public class HausdorffRecognizer extends VisionRecognizer {
 	
 	/**
-	 * Rank to use in the Hausdorff distance algorithm. This rank chooses the
-	 * Kth largest Hausdorff distance value, instead of the largest, to help
-	 * account for outliers.
+	 * How many shapes to return
 	 */
-	private static final double S_RANK = 0.90;
+	private static final int N = 5;
 	
 	/**
-	 * How many shapes to return
+	 * Number of templates above which matching is spread over the recognition
+	 * threads
 	 */
-	private static final int N = 5;
+	private static final int S_MIN_PARALLEL_TEMPLATES = 64;
+	
+	/**
+	 * Distance returned for a template that was given up on part way through
+	 */
+	private static final double S_ABANDONED = -1.0;
 	
 	/**
 	 * Directory of the templates in the current domain
@@ -194,38 +199,29 @@ public class HausdorffRecognizer extends VisionRecognizer {
 			return null;
 		}
 		
-		// Save the distances in a map
-		Map<Double, String> hausdorffDistances = new HashMap<Double, String>();
+		// Scale the points in the strokes, and find the distance from every
+		// pixel to them
+		StrokePoints points = new StrokePoints(Template
+		        .scale(m_strokesToRecognize));
 		
-		// Scale the points in the strokes
-		List<IPoint> scaledPoints = Template.scale(m_strokesToRecognize);
-		
-		// Compute the Hausdorff distance between the strokes and all templates
-		for (Template t : m_templates) {
-			hausdorffDistances.put(modifiedHausdorffDistance(scaledPoints, t
-			        .getImagePixels()), t.getName());
-		}
-		
-		// Sort distances ascendingly
-		List<Double> sortedHDs = new ArrayList<Double>();
-		sortedHDs.addAll(hausdorffDistances.keySet());
-		Collections.sort(sortedHDs);
+		// Compute the Hausdorff distance between the strokes and all
+		// templates, keeping the smallest ones
+		Ranking ranking = rankTemplates(points);
 		
 		// Create a confidence scaling factor
-		double worstConfidence = sortedHDs.get(sortedHDs.size() - 1);
+		double worstConfidence = ranking.m_worst;
 		
 		// Initialize an n-best list
-		int n = Math.min(N, sortedHDs.size());
 		List<IShape> nBestList = new ArrayList<IShape>();
 		
 		// The n-minimum distances are created into shapes, with a confidence
 		// metric associated with the shapes
-		for (int i = 0; i < n; i++) {
+		for (Map.Entry<Double, String> entry : ranking.m_best.entrySet()) {
 			
 			IShape shape = new Shape(m_strokesToRecognize,
 			        new ArrayList<IShape>());
-			shape.setLabel(hausdorffDistances.get(sortedHDs.get(i)));
-			shape.setConfidence((worstConfidence - sortedHDs.get(i))
+			shape.setLabel(entry.getValue());
+			shape.setConfidence((worstConfidence - entry.getKey())
 			                    / worstConfidence);
 			
 			nBestList.add(shape);
@@ -236,68 +232,295 @@ public class HausdorffRecognizer extends VisionRecognizer {
 	
 
 	/**
-	 * Compute the modified Hausdorff distance between two groups of points, A
-	 * and B.
+	 * Rank all of the templates by their distance to the scaled points,
+	 * spreading the templates over the recognition threads when there are
+	 * many of them
+	 * 
+	 * @param points
+	 *            Scaled points of the strokes
+	 * @return The closest templates and the largest distance
+	 */
+	private Ranking rankTemplates(final StrokePoints points) {
+		
+		int numChunks = Math.min(WorkerPool.getNumThreads(), m_templates
+		        .size());
+		if (m_templates.size() < S_MIN_PARALLEL_TEMPLATES
+		    || WorkerPool.runInline(numChunks)) {
+			return rankTemplates(m_templates, points);
+		}
+		
+		// Each thread ranks a contiguous run of templates
+		List<Callable<Ranking>> tasks = new ArrayList<Callable<Ranking>>();
+		for (int c = 0; c < numChunks; c++) {
+			int from = c * m_templates.size() / numChunks;
+			int to = (c + 1) * m_templates.size() / numChunks;
+			final List<Template> chunk = m_templates.subList(from, to);
+			tasks.add(new Callable<Ranking>() {
+				
+				public Ranking call() {
+					return rankTemplates(chunk, points);
+				}
+			});
+		}
+		
+		// Merge in template order, so ties go the same way as one thread
+		Ranking ranking = new Ranking();
+		for (Ranking chunkRanking : WorkerPool.invokeAll(tasks))
+			ranking.addAll(chunkRanking);
+		
+		return ranking;
+	}
+	
+
+	/**
+	 * Rank the given templates by their distance to the scaled points
+	 * 
+	 * @param templates
+	 *            Templates to rank
+	 * @param points
+	 *            Scaled points of the strokes
+	 * @return The closest templates and the largest distance
+	 */
+	private static Ranking rankTemplates(List<Template> templates,
+	        StrokePoints points) {
+		
+		Ranking ranking = new Ranking();
+		for (Template t : templates) {
+			double distance = modifiedHausdorffDistance(points, t, ranking
+			        .getNthBest(), ranking.m_worst);
+			if (distance != S_ABANDONED)
+				ranking.add(distance, t.getName());
+		}
+		
+		return ranking;
+	}
+	
+
+	/**
+	 * Compute the modified Hausdorff distance between the scaled points, A,
+	 * and the pixels of a template, B: the larger of the average distance from
+	 * a point in A to the closest point in B and the average distance from a
+	 * point in B to the closest point in A. Distances are looked up in the
+	 * distance transforms, except for the scaled points that fall outside the
+	 * grid, which the transforms would clamp to the border. Those are measured
+	 * against every point of the other set.
+	 * <p>
+	 * Gives up as soon as the distance is known to be larger than the n-th
+	 * best distance while not being larger than the worst distance, since the
+	 * template then changes neither the n-best list nor the confidences.
 	 * 
 	 * @param A
-	 *            First group of points
-	 * @param B
-	 *            Second group of points
-	 * @return The Hausdorff distance between the two point sets
+	 *            Scaled points of the strokes
+	 * @param template
+	 *            Template whose pixels are B
+	 * @param nthBest
+	 *            N-th smallest distance so far
+	 * @param worst
+	 *            Largest distance so far
+	 * @return The Hausdorff distance between the two point sets, or
+	 *         {@link #S_ABANDONED} if it was given up on
 	 */
-	private double modifiedHausdorffDistance(List<IPoint> A, List<IPoint> B) {
-		double distanceAB = rankedHDist(A, B, S_RANK);
-		double distanceBA = rankedHDist(B, A, S_RANK);
+	private static double modifiedHausdorffDistance(StrokePoints A,
+	        Template template, double nthBest, double worst) {
+		
+		DistanceTransform distancesA = A.m_distances;
+		DistanceTransform distancesB = template.getDistanceTransform();
+		List<IPoint> B = template.getImagePixels();
+		int sizeA = A.m_points.size();
+		double maxA = distancesA.getMaxDistance();
+		double maxB = distancesB.getMaxDistance();
+		
+		// Directed distance from A to B
+		double sumAB = 0.0;
+		for (int i = 0; i < sizeA; i++) {
+			IPoint a = A.m_points.get(i);
+			if (A.m_isOutside[i])
+				sumAB += closestDistance(a, B, Double.POSITIVE_INFINITY);
+			else
+				sumAB += distancesB.getDistance(a.getX(), a.getY());
+			
+			// A point is at most the largest distance in the grid plus how
+			// far it is outside the grid from B. B to A is at most the
+			// largest distance to A.
+			double lower = sumAB / sizeA;
+			double upper = Math.max((sumAB + (sizeA - i - 1) * maxB
+			                         + A.m_outsideAfter[i + 1])
+			                        / sizeA, maxA);
+			if (lower > nthBest && upper <= worst)
+				return S_ABANDONED;
+		}
+		double distanceAB = sumAB / sizeA;
+		
+		// Directed distance from B to A
+		double sumBA = 0.0;
+		for (int i = 0; i < B.size(); i++) {
+			IPoint b = B.get(i);
+			sumBA += closestDistance(b, A.m_outside, distancesA.getDistance(b
+			        .getX(), b.getY()));
+			
+			double lower = Math.max(distanceAB, sumBA / B.size());
+			double upper = Math.max(distanceAB,
+			        (sumBA + (B.size() - i - 1) * maxA) / B.size());
+			if (lower > nthBest && upper <= worst)
+				return S_ABANDONED;
+		}
+		double distanceBA = sumBA / B.size();
 		
 		return Math.max(distanceAB, distanceBA);
 	}
 	
 
 	/**
-	 * Computes the directed distance between the set of points A and B.
+	 * Get the distance from a point to the closest of the given points
 	 * 
-	 * @param A
-	 *            First group of points
-	 * @param B
-	 *            Second group of points
-	 * @param rank
-	 *            Rank, which chooses the Kth largest value instead of the
-	 *            largest to return.
-	 * @return Kth maximum distance of the minimum found distances between the
-	 *         points
+	 * @param p
+	 *            Point to measure from
+	 * @param points
+	 *            Points to measure to
+	 * @param closest
+	 *            Distance to beat
+	 * @return The smaller of the closest distance and the distance to beat
 	 */
-	private double rankedHDist(List<IPoint> A, List<IPoint> B, double rank) {
-		List<Double> minDists = new ArrayList<Double>();
+	private static double closestDistance(IPoint p, List<IPoint> points,
+	        double closest) {
+		for (IPoint q : points)
+			closest = Math.min(closest, p.distance(q));
+		
+		return closest;
+	}
+	
+
+	/**
+	 * The scaled points of the strokes and their distance transform. Scaling
+	 * can put points past the edge of the grid, so those are kept out of the
+	 * distance transform and measured directly.
+	 */
+	private static class StrokePoints {
+		
+		/**
+		 * Scaled points of the strokes
+		 */
+		private final List<IPoint> m_points;
+		
+		/**
+		 * Distance transform of the scaled points in the grid
+		 */
+		private DistanceTransform m_distances;
+		
+		/**
+		 * Scaled points outside the grid
+		 */
+		private final List<IPoint> m_outside = new ArrayList<IPoint>();
+		
+		/**
+		 * Whether each scaled point is outside the grid
+		 */
+		private final boolean[] m_isOutside;
 		
-		for (int i = 0; i < A.size(); i++) {
-			IPoint a = A.get(i);
-			double minDist = Double.MAX_VALUE;
+		/**
+		 * How far the points from each index on are outside the grid, in
+		 * total
+		 */
+		private final double[] m_outsideAfter;
+		
+		
+		/**
+		 * Split the scaled points into those in the grid and those outside it
+		 * 
+		 * @param points
+		 *            Scaled points of the strokes
+		 */
+		public StrokePoints(List<IPoint> points) {
+			m_points = points;
 			
-			for (int j = 0; j < B.size(); j++) {
-				double dist = a.distance(B.get(j));
-				
-				if (dist < minDist) {
-					minDist = dist;
+			int width = (int) Template.S_IMGSIZE.getWidth();
+			int height = (int) Template.S_IMGSIZE.getHeight();
+			m_distances = new DistanceTransform(width, height, points);
+			
+			// Strokes with no width or height scale to infinitely far points,
+			// which are left on the border
+			List<IPoint> inside = new ArrayList<IPoint>();
+			m_isOutside = new boolean[points.size()];
+			m_outsideAfter = new double[points.size() + 1];
+			for (int i = points.size() - 1; i >= 0; i--) {
+				IPoint p = points.get(i);
+				double outside = m_distances.distanceFromGrid(p.getX(), p
+				        .getY());
+				m_isOutside[i] = outside > 0.0 && !Double.isInfinite(outside);
+				if (m_isOutside[i]) {
+					m_outside.add(p);
+					m_outsideAfter[i] = m_outsideAfter[i + 1] + outside;
+				}
+				else {
+					inside.add(p);
+					m_outsideAfter[i] = m_outsideAfter[i + 1];
 				}
 			}
 			
-			minDists.add(minDist);
+			// the transform would have moved the outside points to the border
+			if (!m_outside.isEmpty())
+				m_distances = new DistanceTransform(width, height, inside);
 		}
+	}
+	
+
+	/**
+	 * The n templates closest to the strokes (one per distinct distance, the
+	 * later template winning a tie) along with the largest distance seen
+	 */
+	private static class Ranking {
+		
+		/**
+		 * Closest templates, bounded to n entries
+		 */
+		private TreeMap<Double, String> m_best = new TreeMap<Double, String>();
+		
+		/**
+		 * Largest distance seen
+		 */
+		private double m_worst = Double.NEGATIVE_INFINITY;
 		
-		// Sort the distances in ascending order and pick the maximum distance
-		// (in the set of minimum distances) that is at the specified rank.
-		// Collections.sort(minDists);
-		// double bestRanked = minDists.get((int) (rank * (minDists.size() -
-		// 1)));
 		
-		double sumMinDists = 0.0;
-		for (int i = 0; i < minDists.size(); i++) {
-			sumMinDists += minDists.get(i);
+		/**
+		 * Add the distance of a template
+		 * 
+		 * @param distance
+		 *            Distance between the strokes and the template
+		 * @param name
+		 *            Template name
+		 */
+		public void add(double distance, String name) {
+			m_best.put(distance, name);
+			if (m_best.size() > N)
+				m_best.remove(m_best.lastKey());
+			m_worst = Math.max(m_worst, distance);
 		}
 		
-		double avgMinDists = sumMinDists / A.size();
+
+		/**
+		 * Add the templates of a ranking of later templates
+		 * 
+		 * @param other
+		 *            Ranking to add
+		 */
+		public void addAll(Ranking other) {
+			for (Map.Entry<Double, String> entry : other.m_best.entrySet())
+				add(entry.getKey(), entry.getValue());
+			m_worst = Math.max(m_worst, other.m_worst);
+		}
 		
-		return avgMinDists;
+
+		/**
+		 * Get the n-th smallest distance, which a template has to beat to make
+		 * the list
+		 * 
+		 * @return N-th smallest distance, or positive infinity if there are
+		 *         fewer than n templates
+		 */
+		public double getNthBest() {
+			return m_best.size() < N ? Double.POSITIVE_INFINITY : m_best
+			        .lastKey();
+		}
 	}
 	
 
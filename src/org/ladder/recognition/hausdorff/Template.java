@@ -42,6 +42,11 @@ public class Template {
 	 */
 	private List<IPoint> m_imagePixels = null;
 	
+	/**
+	 * Distance from each pixel of the image to the closest image pixel
+	 */
+	private DistanceTransform m_distanceTransform = null;
+	
 	
 	/**
 	 * Constructor that takes in the template's name and image file location.
@@ -166,8 +171,19 @@ public class Template {
 	
 
 	/**
-	 * Get all of the black pixels in the image. Assumes that the image is
-	 * already at the scaled image size.
+	 * Get the distance transform of the black pixels in the image, computed
+	 * when the image is loaded
+	 * 
+	 * @return Distance from each pixel to the closest black pixel
+	 */
+	public DistanceTransform getDistanceTransform() {
+		return m_distanceTransform;
+	}
+	
+
+	/**
+	 * Get all of the black pixels in the image, and their distance transform.
+	 * Assumes that the image is already at the scaled image size.
 	 */
 	private void grabImagePixels() {
 		
@@ -191,6 +207,10 @@ public class Template {
 				}
 			}
 		}
+		
+		// Precompute the distances to the dark pixels
+		m_distanceTransform = new DistanceTransform(m_image.getWidth(),
+		        m_image.getHeight(), m_imagePixels);
 	}
 	
 
@@ -38,7 +38,6 @@
 package org.ladder.recognition.onedollar;
 
 import java.io.File;
-import java.util.ArrayList;
 import java.util.List;
 
 import org.apache.log4j.Logger;
@@ -51,7 +50,9 @@ import org.ladder.recognition.IRecognitionResult;
 import org.ladder.recognition.recognizer.IRecognizer;
 
 /**
- * Recognizer for using one dollar.
+ * Recognizer for using one dollar. Templates are matched with a
+ * {@link ProtractorMatcher}, which finds the best rotation in closed form
+ * rather than searching for it.
  * 
  * @author jbjohns
  */
@@ -66,27 +67,28 @@ public class OneDollarRecognizer implements
 	
 	/**
 	 * Templates for recognition, the "dictionary" or "database" of shapes that
-	 * we can classify to.
+	 * we can classify to, already vectorized for matching.
 	 */
-	private List<OneDollarStroke> m_templates;
+	private ProtractorMatcher m_templates;
 	
 	/**
-	 * The stroke that we want to recognize
+	 * Results of recognizing the last stroke submitted
 	 */
-	private OneDollarStroke m_toRecognize;
+	private IRecognitionResult m_recognitionResults;
 	
 	
 	/**
 	 * Create a new one dollar recognizer with an empty set of templates
 	 */
 	public OneDollarRecognizer() {
-		m_templates = new ArrayList<OneDollarStroke>();
+		m_templates = new ProtractorMatcher();
 	}
 	
 
 	/**
 	 * Look in the given directory for SketchML files, and use the FIRST stroke
-	 * in each sketch as a new $1 template
+	 * in each sketch as a new $1 template. Each template is vectorized as it is
+	 * loaded, so nothing is left to compute per template when recognizing.
 	 * 
 	 * @param templateDirectory
 	 *            The directory to look for template strokes saved in SketchML
@@ -105,10 +107,7 @@ public class OneDollarRecognizer implements
 					templateName = templateName.substring(0, templateName
 					        .indexOf('.'));
 					
-					OneDollarStroke template = new OneDollarStroke(sketch
-					        .getStrokes().get(0), templateName);
-					
-					this.addTemplate(template);
+					this.addTemplate(sketch.getStrokes().get(0), templateName);
 				}
 				catch (Exception e) {
 					log.error("Cannot load One Dollar Template from file: "
@@ -137,7 +136,7 @@ public class OneDollarRecognizer implements
 	 *         templates
 	 */
 	public boolean isEmpty() {
-		return m_templates.isEmpty();
+		return m_templates.size() == 0;
 	}
 	
 
@@ -150,7 +149,7 @@ public class OneDollarRecognizer implements
 	 *            The name of the template
 	 */
 	public void addTemplate(IStroke stroke, String name) {
-		m_templates.add(new OneDollarStroke(stroke, name));
+		m_templates.addTemplate(name, stroke.getPoints());
 	}
 	
 
@@ -161,7 +160,7 @@ public class OneDollarRecognizer implements
 	 *            The template to add
 	 */
 	public void addTemplate(OneDollarStroke template) {
-		m_templates.add(template);
+		m_templates.addTemplate(template.getName(), template.getPoints());
 	}
 	
 
@@ -172,7 +171,8 @@ public class OneDollarRecognizer implements
 	 *            The templates to add
 	 */
 	public void addTemplates(List<OneDollarStroke> templates) {
-		m_templates.addAll(templates);
+		for (OneDollarStroke template : templates)
+			addTemplate(template);
 	}
 	
 
@@ -183,7 +183,7 @@ public class OneDollarRecognizer implements
 	 */
 	@Override
 	public IRecognitionResult recognize() {
-		return m_toRecognize.getRecognitionResults();
+		return m_recognitionResults;
 	}
 	
 
@@ -196,8 +196,8 @@ public class OneDollarRecognizer implements
 	 */
 	@Override
 	public void submitForRecognition(IStroke submission) {
-		m_toRecognize = new OneDollarStroke(submission);
-		m_toRecognize.recognize(m_templates);
+		m_recognitionResults = m_templates.recognize(submission.getPoints(),
+		        OneDollarStroke.S_NUM_NBEST_RESULTS);
 	}
 	
 }
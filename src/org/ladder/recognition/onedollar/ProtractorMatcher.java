@@ -0,0 +1,519 @@
+/**
+ * ProtractorMatcher.java
+ * 
+ * Revision History:<br>
+ * Oct 18, 2026 - File created
+ * 
+ * <p>
+ * 
+ * <pre>
+ * This work is released under the BSD License:
+ * (C) 2008 Sketch Recognition Lab, Texas A&amp;M University (hereafter SRL @ TAMU)
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the Sketch Recognition Lab, Texas A&amp;M University 
+ *       nor the names of its contributors may be used to endorse or promote 
+ *       products derived from this software without specific prior written 
+ *       permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY SRL @ TAMU ``AS IS'' AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL SRL @ TAMU BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ * </pre>
+ */
+package org.ladder.recognition.onedollar;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.Callable;
+
+import org.ladder.core.config.WorkerPool;
+import org.ladder.core.sketch.IPoint;
+import org.ladder.core.sketch.IShape;
+import org.ladder.core.sketch.Shape;
+import org.ladder.recognition.IRecognitionResult;
+import org.ladder.recognition.RecognitionResult;
+
+/**
+ * Template matcher for $1 style gestures using the closed form rotation of
+ * Protractor (Yang Li). Every stroke is resampled, rotated to its indicative
+ * angle, centered, and flattened into a unit length vector of x, y pairs. The
+ * similarity between a template and a query is the cosine of the angle between
+ * their vectors with the query rotated by the best angle within
+ * {@link OneDollarStroke#MAX_DEGREE}, which is found directly instead of by a
+ * golden section search.
+ * <p>
+ * All template vectors are kept back to back in one array. Before a template
+ * is matched fully, a bound on its similarity is checked after each block of
+ * points, and it is dropped once it cannot make the n-best list. Large template
+ * libraries are matched on the recognition threads.
+ */
+public class ProtractorMatcher {
+	
+	/**
+	 * Default number of points each stroke is resampled to
+	 */
+	public static final int S_DEFAULT_NUM_POINTS = 16;
+	
+	/**
+	 * Number of points between similarity bound checks
+	 */
+	private static final int S_BLOCK_POINTS = 4;
+	
+	/**
+	 * Slack on the similarity bound, so rounding never drops a tie
+	 */
+	private static final double S_BOUND_SLACK = 1e-9;
+	
+	/**
+	 * Number of templates above which matching is spread over the recognition
+	 * threads
+	 */
+	private static final int S_MIN_PARALLEL_TEMPLATES = 256;
+	
+	/**
+	 * Number of points each stroke is resampled to
+	 */
+	private int m_numPoints;
+	
+	/**
+	 * Number of blocks of points in a vector
+	 */
+	private int m_numBlocks;
+	
+	/**
+	 * Template names, in the order they were added
+	 */
+	private List<String> m_names;
+	
+	/**
+	 * Template vectors, 2 * numPoints values per template
+	 */
+	private double[] m_vectors;
+	
+	/**
+	 * Length of the part of each template vector from the start of each block
+	 * to the end, numBlocks + 1 values per template
+	 */
+	private double[] m_suffixNorms;
+	
+	
+	/**
+	 * Create an empty matcher that resamples strokes to
+	 * {@link #S_DEFAULT_NUM_POINTS} points
+	 */
+	public ProtractorMatcher() {
+		this(S_DEFAULT_NUM_POINTS);
+	}
+	
+
+	/**
+	 * Create an empty matcher
+	 * 
+	 * @param numPoints
+	 *            Number of points each stroke is resampled to
+	 */
+	public ProtractorMatcher(int numPoints) {
+		if (numPoints < 2)
+			throw new IllegalArgumentException(
+			        "Need at least two points per stroke");
+		m_numPoints = numPoints;
+		m_numBlocks = (numPoints + S_BLOCK_POINTS - 1) / S_BLOCK_POINTS;
+		m_names = new ArrayList<String>();
+		m_vectors = new double[0];
+		m_suffixNorms = new double[0];
+	}
+	
+
+	/**
+	 * Add a template, computing its vector once
+	 * 
+	 * @param name
+	 *            Name of the template
+	 * @param points
+	 *            Points of the template stroke
+	 */
+	public void addTemplate(String name, List<IPoint> points) {
+		int t = m_names.size();
+		int stride = 2 * m_numPoints;
+		int suffixStride = m_numBlocks + 1;
+		if ((t + 1) * stride > m_vectors.length) {
+			int capacity = Math.max(16, 2 * t);
+			double[] vectors = new double[capacity * stride];
+			System.arraycopy(m_vectors, 0, vectors, 0, t * stride);
+			m_vectors = vectors;
+			double[] suffixNorms = new double[capacity * suffixStride];
+			System.arraycopy(m_suffixNorms, 0, suffixNorms, 0,
+			        t * suffixStride);
+			m_suffixNorms = suffixNorms;
+		}
+		
+		double[] vector = vectorize(points);
+		System.arraycopy(vector, 0, m_vectors, t * stride, stride);
+		System.arraycopy(suffixNorms(vector), 0, m_suffixNorms,
+		        t * suffixStride, suffixStride);
+		m_names.add(name);
+	}
+	
+
+	/**
+	 * Get the number of templates
+	 * 
+	 * @return The number of templates
+	 */
+	public int size() {
+		return m_names.size();
+	}
+	
+
+	/**
+	 * Get the name of a template
+	 * 
+	 * @param index
+	 *            Index of the template, in the order they were added
+	 * @return The name of the template
+	 */
+	public String getName(int index) {
+		return m_names.get(index);
+	}
+	
+
+	/**
+	 * Resample, rotate, center and normalize the points of a stroke into a
+	 * vector of x, y pairs
+	 * 
+	 * @param points
+	 *            Points of the stroke
+	 * @return Unit length vector, or all zeros if the stroke has no extent
+	 */
+	public double[] vectorize(List<IPoint> points) {
+		double[] v = resample(points, m_numPoints);
+		
+		// Center on the centroid
+		double cx = 0.0, cy = 0.0;
+		for (int i = 0; i < v.length; i += 2) {
+			cx += v[i];
+			cy += v[i + 1];
+		}
+		cx /= m_numPoints;
+		cy /= m_numPoints;
+		for (int i = 0; i < v.length; i += 2) {
+			v[i] -= cx;
+			v[i + 1] -= cy;
+		}
+		
+		// Rotate so the first point lies on the negative x axis, the same
+		// indicative angle as OneDollarStroke
+		double theta = Math.atan2(-v[1], -v[0]);
+		double cos = Math.cos(-theta), sin = Math.sin(-theta);
+		double norm = 0.0;
+		for (int i = 0; i < v.length; i += 2) {
+			double x = v[i] * cos - v[i + 1] * sin;
+			double y = v[i] * sin + v[i + 1] * cos;
+			v[i] = x;
+			v[i + 1] = y;
+			norm += x * x + y * y;
+		}
+		
+		norm = Math.sqrt(norm);
+		if (norm > 0.0)
+			for (int i = 0; i < v.length; i++)
+				v[i] /= norm;
+		return v;
+	}
+	
+
+	/**
+	 * Get the similarity between a template vector and a query vector: the
+	 * cosine of the angle between them, with the query rotated by the best
+	 * angle within {@link OneDollarStroke#MAX_DEGREE}
+	 * 
+	 * @param template
+	 *            Template vector
+	 * @param query
+	 *            Query vector
+	 * @return Similarity, 1 for a perfect match
+	 */
+	public static double getSimilarity(double[] template, double[] query) {
+		double a = 0.0, b = 0.0;
+		for (int i = 0; i < template.length; i += 2) {
+			a += template[i] * query[i] + template[i + 1] * query[i + 1];
+			b += template[i + 1] * query[i] - template[i] * query[i + 1];
+		}
+		return similarity(a, b);
+	}
+	
+
+	/**
+	 * Match a stroke against every template
+	 * 
+	 * @param points
+	 *            Points of the stroke
+	 * @param n
+	 *            Number of interpretations to keep
+	 * @return The n most similar templates, with the similarity as the
+	 *         confidence
+	 */
+	public IRecognitionResult recognize(List<IPoint> points, final int n) {
+		if (n <= 0 || size() == 0)
+			return new RecognitionResult();
+		
+		final double[] query = vectorize(points);
+		final double[] querySuffixNorms = suffixNorms(query);
+		
+		List<Match> matches;
+		int numChunks = Math.min(WorkerPool.getNumThreads(), size());
+		if (size() < S_MIN_PARALLEL_TEMPLATES
+		    || WorkerPool.runInline(numChunks)) {
+			matches = match(query, querySuffixNorms, 0, size(), n);
+		}
+		else {
+			// Each thread matches a contiguous run of templates
+			List<Callable<List<Match>>> tasks = new ArrayList<Callable<List<Match>>>();
+			for (int c = 0; c < numChunks; c++) {
+				final int from = c * size() / numChunks;
+				final int to = (c + 1) * size() / numChunks;
+				tasks.add(new Callable<List<Match>>() {
+					
+					public List<Match> call() {
+						return match(query, querySuffixNorms, from, to, n);
+					}
+				});
+			}
+			
+			matches = new ArrayList<Match>();
+			for (List<Match> chunkMatches : WorkerPool.invokeAll(tasks))
+				matches.addAll(chunkMatches);
+		}
+		
+		// Matches are in template order, as if every template were added
+		IRecognitionResult result = new RecognitionResult();
+		for (Match match : matches) {
+			IShape shape = new Shape();
+			shape.setLabel(m_names.get(match.m_index));
+			shape.setConfidence(new Double(match.m_similarity));
+			result.addShapeToNBestList(shape);
+		}
+		result.trimToNInterpretations(n);
+		
+		return result;
+	}
+	
+
+	/**
+	 * Match a query against a run of templates, dropping the templates that
+	 * are less similar than n others
+	 * 
+	 * @param query
+	 *            Query vector
+	 * @param querySuffixNorms
+	 *            Suffix lengths of the query vector
+	 * @param from
+	 *            First template (inclusive)
+	 * @param to
+	 *            Last template (exclusive)
+	 * @param n
+	 *            Number of interpretations to keep
+	 * @return The templates that may be among the n most similar, in template
+	 *         order
+	 */
+	private List<Match> match(double[] query, double[] querySuffixNorms,
+	        int from, int to, int n) {
+		int stride = 2 * m_numPoints;
+		int suffixStride = m_numBlocks + 1;
+		
+		// Smallest of the n best similarities so far at the head
+		PriorityQueue<Double> best = new PriorityQueue<Double>();
+		List<Match> matches = new ArrayList<Match>();
+		
+		for (int t = from; t < to; t++) {
+			double threshold = best.size() < n ? Double.NEGATIVE_INFINITY
+			        : best.peek() - S_BOUND_SLACK;
+			int offset = t * stride;
+			int suffixOffset = t * suffixStride;
+			
+			double a = 0.0, b = 0.0;
+			boolean pruned = false;
+			for (int block = 0; block < m_numBlocks && !pruned; block++) {
+				int end = Math.min(stride, (block + 1) * 2 * S_BLOCK_POINTS);
+				for (int i = block * 2 * S_BLOCK_POINTS; i < end; i += 2) {
+					double tx = m_vectors[offset + i];
+					double ty = m_vectors[offset + i + 1];
+					a += tx * query[i] + ty * query[i + 1];
+					b += ty * query[i] - tx * query[i + 1];
+				}
+				
+				// Cauchy-Schwarz on the rest of the vectors
+				double bound = Math.sqrt(a * a + b * b)
+				               + m_suffixNorms[suffixOffset + block + 1]
+				               * querySuffixNorms[block + 1];
+				pruned = bound < threshold;
+			}
+			if (pruned)
+				continue;
+			
+			double similarity = similarity(a, b);
+			if (similarity >= threshold) {
+				matches.add(new Match(t, similarity));
+				best.add(similarity);
+				if (best.size() > n)
+					best.poll();
+			}
+		}
+		
+		// Drop the matches that fell out of the n best later on
+		if (best.size() >= n && n > 0) {
+			double threshold = best.peek() - S_BOUND_SLACK;
+			List<Match> kept = new ArrayList<Match>();
+			for (Match match : matches)
+				if (match.m_similarity >= threshold)
+					kept.add(match);
+			matches = kept;
+		}
+		
+		return matches;
+	}
+	
+
+	/**
+	 * Get the similarity for the rotation sums a = sum(t . q) and b = sum(t x
+	 * q), rotating by the angle maximizing a cos(theta) + b sin(theta), within
+	 * {@link OneDollarStroke#MAX_DEGREE}
+	 * 
+	 * @param a
+	 *            Sum of the dot products of the template and query points
+	 * @param b
+	 *            Sum of the cross products of the template and query points
+	 * @return Similarity
+	 */
+	private static double similarity(double a, double b) {
+		double theta = Math.atan2(b, a);
+		if (Math.abs(theta) <= OneDollarStroke.MAX_DEGREE)
+			return Math.sqrt(a * a + b * b);
+		theta = Math.signum(theta) * OneDollarStroke.MAX_DEGREE;
+		return a * Math.cos(theta) + b * Math.sin(theta);
+	}
+	
+
+	/**
+	 * Get the length of the part of a vector from the start of each block to
+	 * the end
+	 * 
+	 * @param vector
+	 *            Vector of x, y pairs
+	 * @return numBlocks + 1 suffix lengths, the last one 0
+	 */
+	private double[] suffixNorms(double[] vector) {
+		double[] norms = new double[m_numBlocks + 1];
+		double sum = 0.0;
+		for (int block = m_numBlocks - 1; block >= 0; block--) {
+			int end = Math.min(vector.length, (block + 1) * 2 * S_BLOCK_POINTS);
+			for (int i = block * 2 * S_BLOCK_POINTS; i < end; i++)
+				sum += vector[i] * vector[i];
+			norms[block] = Math.sqrt(sum);
+		}
+		return norms;
+	}
+	
+
+	/**
+	 * Resample points to a number of points evenly spaced along the path
+	 * 
+	 * @param points
+	 *            Points to resample
+	 * @param n
+	 *            Number of points to resample to
+	 * @return Resampled x, y pairs
+	 */
+	private static double[] resample(List<IPoint> points, int n) {
+		double[] v = new double[2 * n];
+		
+		double length = 0.0;
+		for (int i = 1; i < points.size(); i++)
+			length += points.get(i - 1).distance(points.get(i));
+		double interval = length / (n - 1);
+		
+		double px = points.get(0).getX();
+		double py = points.get(0).getY();
+		v[0] = px;
+		v[1] = py;
+		int count = 1;
+		double D = 0.0;
+		int i = 1;
+		while (i < points.size() && count < n && interval > 0.0) {
+			double qx = points.get(i).getX();
+			double qy = points.get(i).getY();
+			double d = Math.sqrt((qx - px) * (qx - px) + (qy - py) * (qy - py));
+			if (D + d >= interval) {
+				
+				// The new point starts the next segment
+				px += ((interval - D) / d) * (qx - px);
+				py += ((interval - D) / d) * (qy - py);
+				v[2 * count] = px;
+				v[2 * count + 1] = py;
+				count++;
+				D = 0.0;
+			}
+			else {
+				D += d;
+				px = qx;
+				py = qy;
+				i++;
+			}
+		}
+		
+		// Rounding can leave the last point off
+		IPoint last = points.get(points.size() - 1);
+		for (; count < n; count++) {
+			v[2 * count] = last.getX();
+			v[2 * count + 1] = last.getY();
+		}
+		
+		return v;
+	}
+	
+
+	/**
+	 * Similarity of a template to the query
+	 */
+	private static class Match {
+		
+		/**
+		 * Index of the template
+		 */
+		private int m_index;
+		
+		/**
+		 * Similarity to the query
+		 */
+		private double m_similarity;
+		
+		
+		/**
+		 * Constructor
+		 * 
+		 * @param index
+		 *            Index of the template
+		 * @param similarity
+		 *            Similarity to the query
+		 */
+		public Match(int index, double similarity) {
+			m_index = index;
+			m_similarity = similarity;
+		}
+	}
+}
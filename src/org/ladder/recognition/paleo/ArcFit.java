@@ -340,9 +340,11 @@ public class ArcFit extends Fit implements IThresholds, ICircularFit {
 	 */
 	protected void calcAvgCenter() {
 		double avgX = 0, avgY = 0;
+		double[] x = m_features.getArrays().getX();
+		double[] y = m_features.getArrays().getY();
 		for (int i = 0; i < m_features.getNumPoints(); i++) {
-			avgX += m_features.getPoints().get(i).getX();
-			avgY += m_features.getPoints().get(i).getY();
+			avgX += x[i];
+			avgY += y[i];
 		}
 		avgX /= m_features.getNumPoints();
 		avgY /= m_features.getNumPoints();
@@ -357,7 +359,7 @@ public class ArcFit extends Fit implements IThresholds, ICircularFit {
 	protected void calcRadius() {
 		double sum = 0.0;
 		for (int i = 0; i < m_features.getNumPoints(); i++)
-			sum += m_features.getPoints().get(i).distance(m_center.getX(),
+			sum += m_features.getArrays().distance(i, m_center.getX(),
 			        m_center.getY());
 		if (m_features.getNumPoints() == 0)
 			m_radius = 0.0;
@@ -372,7 +374,8 @@ public class ArcFit extends Fit implements IThresholds, ICircularFit {
 	 * @return feature area of the arc fit
 	 */
 	protected double calcFeatureArea() {
-		double err1 = FeatureArea.toPoint(m_features.getPoints(), m_center);
+		double err1 = FeatureArea.toPoint(m_features.getArrays().getX(),
+		        m_features.getArrays().getY(), m_center);
 		err1 /= (Math.PI * m_radius * m_radius * m_features.numRevolutions());
 		err1 = Math.abs(1.0 - err1);
 		if (Double.isInfinite(err1) || Double.isNaN(err1))
@@ -247,7 +247,7 @@ public class CircleFit extends Fit implements IThresholds, ICircularFit {
 		m_radius = 0.0;
 		if (m_ellipseFit.getCenter() != null) {
 			for (int i = 0; i < m_features.getNumPoints(); i++)
-				m_radius += m_features.getPoints().get(i).distance(
+				m_radius += m_features.getArrays().distance(i,
 				        m_ellipseFit.getCenter().getX(),
 				        m_ellipseFit.getCenter().getY());
 			m_radius /= m_features.getNumPoints();
@@ -261,8 +261,8 @@ public class CircleFit extends Fit implements IThresholds, ICircularFit {
 	 * @return feature area error of the circle
 	 */
 	protected double calcFeatureArea() {
-		double err1 = FeatureArea.toPoint(m_features.getPoints(), m_ellipseFit
-		        .getCenter());
+		double err1 = FeatureArea.toPoint(m_features.getArrays().getX(),
+		        m_features.getArrays().getY(), m_ellipseFit.getCenter());
 		err1 /= (Math.PI * m_radius * m_radius);
 		err1 = Math.abs(1.0 - err1);
 		if (Double.isInfinite(err1) || Double.isNaN(err1))
@@ -344,8 +344,8 @@ public class CurveFit extends Fit implements IThresholds {
 				x += m_P[j].getX() * b;
 				y += m_P[j].getY() * b;
 			}
-			err += (m_features.getPoints().get(i).distance(x, y) * m_features
-			        .getPoints().get(i).distance(x, y));
+			double dist = m_features.getArrays().distance(i, x, y);
+			err += (dist * dist);
 		}
 		return Math.sqrt(err) / m_features.getStrokeLength();
 	}
@@ -401,7 +401,8 @@ public class EllipseFit extends Fit implements IThresholds {
 	 * @return feature area error
 	 */
 	protected double calcFeatureArea() {
-		double err1 = FeatureArea.toPoint(m_features.getPoints(), m_center);
+		double err1 = FeatureArea.toPoint(m_features.getArrays().getX(),
+		        m_features.getArrays().getY(), m_center);
 		err1 /= (Math.PI * (m_minorAxisLength / 2.0) * (m_majorAxisLength / 2.0));
 		err1 = Math.abs(1.0 - err1);
 		if (Double.isInfinite(err1) || Double.isNaN(err1))
@@ -143,12 +143,13 @@ public class HelixFit extends Fit implements IThresholds {
 	 */
 	protected void calcAvgRadius() {
 		double sum = 0.0;
-		for (int i = 0; i < m_features.getPoints().size(); i++) {
+		double[] x = m_features.getArrays().getX();
+		double[] y = m_features.getArrays().getY();
+		for (int i = 0; i < x.length; i++) {
 			sum += m_spiralFit.getCircleFit().getEllipseFit().getMajorAxis()
-			        .ptSegDist(m_features.getPoints().get(i).getX(),
-			                m_features.getPoints().get(i).getY());
+			        .ptSegDist(x[i], y[i]);
 		}
-		m_avgRadius = sum / m_features.getPoints().size();
+		m_avgRadius = sum / x.length;
 	}
 	
 
@@ -113,7 +113,8 @@ public class LineFit extends Fit implements IThresholds {
 		
 		// test 1: least squares error between the stroke points and the line
 		// formed by the endpoints
-		m_lsqe = LeastSquares.error(m_features.getPoints(), (Line2D) m_shape);
+		m_lsqe = LeastSquares.error(m_features.getArrays().getX(), m_features
+		        .getArrays().getY(), (Line2D) m_shape);
 		m_ratio = m_features.getEndptStrokeLengthRatio();
 		if (m_features.getStrokeLength() > 25.0) {
 			if (m_lsqe / m_features.getStrokeLength() > 1.4) {
@@ -151,7 +152,8 @@ public class LineFit extends Fit implements IThresholds {
 		}
 		
 		// test 3: test feature area (use as error for fit)
-		m_err = FeatureArea.toLine(m_features.getPoints(), (Line2D) m_shape)
+		m_err = FeatureArea.toLine(m_features.getArrays().getX(), m_features
+		        .getArrays().getY(), (Line2D) m_shape)
 		        / m_features.getStrokeLength();
 		if (m_err > M_LINE_FEATURE_AREA) {
 			m_passed = false;
@@ -5,6 +5,7 @@
  * Jun 23, 2008 bpaulson - File created <br>
  * Oct 04, 2008 jbjohns - Recognize() returns List<RecognitionResult> <br>
  * Oct 09, 2008 jbjohns - recognize() sets shape recognition time <br>
+ * Oct 18, 2026 - Optional parallel evaluation of the fits <br>
  * 
  * <p>
  * 
@@ -37,10 +38,13 @@
  */
 package org.ladder.recognition.paleo;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
 
+import org.ladder.core.config.WorkerPool;
 import org.ladder.core.sketch.ISegmentation;
 import org.ladder.core.sketch.IShape;
 import org.ladder.core.sketch.IStroke;
@@ -214,6 +218,12 @@ public class OrigPaleoSketchRecognizer implements IThresholds,
 	 */
 	private Map<String, Double> m_monitoredValues = new HashMap<String, Double>();
 	
+	/**
+	 * Flag denoting if the fits should be computed as worker pool tasks rather
+	 * than one after another
+	 */
+	private boolean m_parallelFits = false;
+	
 	
 	/**
 	 * Default constructor. Every fit is on, and no stroke is loaded.
@@ -441,6 +451,10 @@ public class OrigPaleoSketchRecognizer implements IThresholds,
 	 * Calculates all of the various shape fits
 	 */
 	protected void calculateAllFits() {
+		if (m_parallelFits) {
+			calculateAllFitsParallel();
+			return;
+		}
 		if (m_config.isLineTestOn())
 			calcLineFit();
 		if (m_config.isArcTestOn())
@@ -482,6 +496,172 @@ public class OrigPaleoSketchRecognizer implements IThresholds,
 	}
 	
 
+	/**
+	 * Calculates the same fits as {@link #calculateAllFits()}, but runs the
+	 * independent ones on the {@link WorkerPool} threads. Fits that need
+	 * another fit are chained behind it in a single task, so every calcXFit()
+	 * method still finds the fits it depends on already computed. The corner
+	 * finding segmentation is shared (and the polyline fit may rewrite its list
+	 * of substrokes), so arrow, polyline, polygon and diamond run in one chain
+	 * in the sequential order, and rectangle, square and gull are only
+	 * started once that chain and the ellipse chain are done. All tasks are
+	 * joined before returning, so {@link #orderFits()} sees exactly the fits
+	 * it would in sequential mode.
+	 */
+	protected void calculateAllFitsParallel() {
+		List<Callable<Object>> tasks = new ArrayList<Callable<Object>>();
+		
+		// fits that only read the stroke features
+		if (m_config.isLineTestOn())
+			tasks.add(new Callable<Object>() {
+				
+				public Object call() {
+					calcLineFit();
+					return null;
+				}
+			});
+		if (m_config.isArcTestOn())
+			tasks.add(new Callable<Object>() {
+				
+				public Object call() {
+					calcArcFit();
+					return null;
+				}
+			});
+		if (m_config.isCurveTestOn())
+			tasks.add(new Callable<Object>() {
+				
+				public Object call() {
+					calcCurveFit();
+					return null;
+				}
+			});
+		if (m_config.isDotTestOn())
+			tasks.add(new Callable<Object>() {
+				
+				public Object call() {
+					calcDotFit();
+					return null;
+				}
+			});
+		if (m_config.isBlobTestOn())
+			tasks.add(new Callable<Object>() {
+				
+				public Object call() {
+					calcBlobFit();
+					return null;
+				}
+			});
+		if (m_config.isInfinityTestOn())
+			tasks.add(new Callable<Object>() {
+				
+				public Object call() {
+					calcInfinityFit();
+					return null;
+				}
+			});
+		
+		// ellipse -> circle -> spiral -> helix
+		if (m_config.isEllipseTestOn() || m_config.isCircleTestOn()
+		    || m_config.isSpiralTestOn() || m_config.isHelixTestOn())
+			tasks.add(new Callable<Object>() {
+				
+				public Object call() {
+					if (m_config.isEllipseTestOn())
+						calcEllipseFit();
+					if (m_config.isCircleTestOn())
+						calcCircleFit();
+					if (m_config.isSpiralTestOn())
+						calcSpiralFit();
+					if (m_config.isHelixTestOn())
+						calcHelixFit();
+					return null;
+				}
+			});
+		
+		// corner finding segmentation -> arrow -> polyline -> polygon, diamond
+		if (m_config.isArrowTestOn() || m_config.isPolylineTestOn()
+		    || m_config.isPolygonTestOn() || m_config.isDiamondTestOn())
+			tasks.add(new Callable<Object>() {
+				
+				public Object call() {
+					if (m_config.isArrowTestOn())
+						calcArrowFit();
+					if (m_config.isPolylineTestOn())
+						calcPolylineFit();
+					if (m_config.isPolygonTestOn())
+						calcPolygonFit();
+					if (m_config.isDiamondTestOn())
+						calcDiamondFit();
+					return null;
+				}
+			});
+		
+		// wave segmentation -> wave, NBC
+		if (m_config.isWaveTestOn() || m_config.isNBCTestOn())
+			tasks.add(new Callable<Object>() {
+				
+				public Object call() {
+					if (m_config.isWaveTestOn())
+						calcWaveFit();
+					if (m_config.isNBCTestOn())
+						calcNBCFit();
+					return null;
+				}
+			});
+		
+		WorkerPool.invokeAll(tasks);
+		
+		// fits that need the results of more than one of the chains above
+		tasks.clear();
+		if (m_config.isRectangleTestOn() || m_config.isSquareTestOn())
+			tasks.add(new Callable<Object>() {
+				
+				public Object call() {
+					if (m_config.isRectangleTestOn())
+						calcRectangleFit();
+					if (m_config.isSquareTestOn())
+						calcSquareFit();
+					return null;
+				}
+			});
+		if (m_config.isGullTestOn())
+			tasks.add(new Callable<Object>() {
+				
+				public Object call() {
+					calcGullFit();
+					return null;
+				}
+			});
+		
+		WorkerPool.invokeAll(tasks);
+	}
+	
+
+	/**
+	 * Determines if the fits are computed in parallel
+	 * 
+	 * @return true if the fits are computed as worker pool tasks; false if
+	 *         they are computed one after another
+	 */
+	public boolean isParallelFitsOn() {
+		return m_parallelFits;
+	}
+	
+
+	/**
+	 * Turn parallel fit evaluation on or off. The recognition results are the
+	 * same either way; only the time taken to compute them changes.
+	 * 
+	 * @param flag
+	 *            true to compute the fits as worker pool tasks; false to
+	 *            compute them one after another
+	 */
+	public void setParallelFitsOn(boolean flag) {
+		m_parallelFits = flag;
+	}
+	
+
 	/**
 	 * Get a fit by its string name
 	 * 
@@ -196,7 +196,7 @@ public class PaleoFeatureExtractor {
 	 * List of possible class labels (a dataset must have been previously built
 	 * for this to be populated)
 	 */
-	protected static FastVector m_classLabels;
+	protected static volatile FastVector m_classLabels;
 
 	/**
 	 * Constructor for feature extractor
@@ -230,12 +230,16 @@ public class PaleoFeatureExtractor {
 	 * @return class labels
 	 */
 	public FastVector getClassLabels() {
-		if (m_classLabels == null) {
-			m_classLabels = new FastVector();
+		// build the labels before publishing them, since Paleo may be running
+		// on several threads
+		FastVector classLabels = m_classLabels;
+		if (classLabels == null) {
+			classLabels = new FastVector();
 			for (int j = 0; j < m_config.getShapesTurnedOn().size(); j++)
-				m_classLabels.addElement(m_config.getShapesTurnedOn().get(j));
+				classLabels.addElement(m_config.getShapesTurnedOn().get(j));
+			m_classLabels = classLabels;
 		}
-		return m_classLabels;
+		return classLabels;
 	}
 
 	/**
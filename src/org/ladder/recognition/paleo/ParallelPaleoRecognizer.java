@@ -0,0 +1,373 @@
+/**
+ * ParallelPaleoRecognizer.java
+ * 
+ * Revision History:<br>
+ * Oct 18, 2026 - File created
+ * 
+ * <p>
+ * 
+ * <pre>
+ * This work is released under the BSD License:
+ * (C) 2008 Sketch Recognition Lab, Texas A&amp;M University (hereafter SRL @ TAMU)
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the Sketch Recognition Lab, Texas A&amp;M University 
+ *       nor the names of its contributors may be used to endorse or promote 
+ *       products derived from this software without specific prior written 
+ *       permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY SRL @ TAMU ``AS IS'' AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL SRL @ TAMU BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ * </pre>
+ */
+package org.ladder.recognition.paleo;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.apache.log4j.Logger;
+import org.ladder.core.config.LadderConfig;
+import org.ladder.core.config.WorkerPool;
+import org.ladder.core.logging.LadderLogger;
+import org.ladder.core.sketch.IShape;
+import org.ladder.core.sketch.IStroke;
+import org.ladder.core.sketch.Shape;
+import org.ladder.recognition.IRecognitionResult;
+import org.ladder.recognition.recognizer.OverTimeCheckHelper;
+import org.ladder.recognition.recognizer.OverTimeException;
+
+/**
+ * Runs PaleoSketch on a batch of strokes using the shared {@link WorkerPool}
+ * threads. The primitive fit of one stroke does not depend on any other
+ * stroke, so the strokes are recognized independently. A
+ * {@link PaleoSketchRecognizer} keeps state for the stroke it is working on,
+ * so no two threads ever share a recognizer. Recognizers are created only as
+ * threads need them and are reused from batch to batch. Results are
+ * always returned in the same order as the strokes were given, no matter
+ * which worker finishes first.
+ * <p>
+ * This class is thread safe. Call {@link #shutdown()} when you're done with it
+ * to let go of the idle recognizers.
+ */
+public class ParallelPaleoRecognizer {
+	
+	/**
+	 * Logger for this class
+	 */
+	private static final Logger log = LadderLogger
+	        .getLogger(ParallelPaleoRecognizer.class);
+	
+	/**
+	 * Paleo configuration for the recognizers
+	 */
+	private final PaleoConfig m_config;
+	
+	/**
+	 * Most worker threads one batch is spread over
+	 */
+	private final int m_numThreads;
+	
+	/**
+	 * Recognizers not currently in use by a worker
+	 */
+	private final BlockingQueue<PaleoSketchRecognizer> m_idleRecognizers = new LinkedBlockingQueue<PaleoSketchRecognizer>();
+	
+	
+	/**
+	 * Create a parallel recognizer with the number of threads given by
+	 * {@link LadderConfig#getNumRecognitionThreads()}
+	 * 
+	 * @param config
+	 *            Paleo configuration to use
+	 */
+	public ParallelPaleoRecognizer(PaleoConfig config) {
+		this(config, LadderConfig.getNumRecognitionThreads());
+	}
+	
+
+	/**
+	 * Create a parallel recognizer with the given number of threads
+	 * 
+	 * @param config
+	 *            Paleo configuration to use
+	 * @param numThreads
+	 *            Most worker threads one batch is spread over, must be > 0. A
+	 *            batch never uses more threads than the {@link WorkerPool}
+	 *            has.
+	 */
+	public ParallelPaleoRecognizer(PaleoConfig config, int numThreads) {
+		if (config == null) {
+			throw new NullPointerException("Paleo config cannot be null");
+		}
+		if (numThreads <= 0) {
+			throw new IllegalArgumentException(
+			        "Number of threads must be > 0");
+		}
+		
+		m_config = config;
+		m_numThreads = numThreads;
+	}
+	
+
+	/**
+	 * @return The most worker threads one batch is spread over
+	 */
+	public int getNumThreads() {
+		return m_numThreads;
+	}
+	
+
+	/**
+	 * Recognize all the strokes without any time limit.
+	 * 
+	 * @param strokes
+	 *            The strokes to recognize, none can be null
+	 * @return The Paleo results, in the same order as the strokes
+	 */
+	public List<IRecognitionResult> recognize(List<IStroke> strokes) {
+		List<IRecognitionResult> results = null;
+		try {
+			results = recognizeTimed(strokes, -1);
+		}
+		catch (OverTimeException e) {
+			// ignore, should not happen
+		}
+		return results;
+	}
+	
+
+	/**
+	 * Recognize all the strokes in the given time. If recognition of all the
+	 * strokes is not done in maxTime milliseconds, throw an
+	 * {@link OverTimeException}. Strokes that have not been started by then
+	 * are cancelled.
+	 * 
+	 * @param strokes
+	 *            The strokes to recognize, none can be null
+	 * @param maxTime
+	 *            The max time we have to recognize in, negative means no
+	 *            limit
+	 * @return The Paleo results, in the same order as the strokes
+	 * @throws OverTimeException
+	 *             If recognition takes more than maxTime
+	 */
+	public List<IRecognitionResult> recognizeTimed(List<IStroke> strokes,
+	        long maxTime) throws OverTimeException {
+		if (strokes == null) {
+			throw new NullPointerException("List of strokes cannot be null");
+		}
+		
+		final long startTime = System.currentTimeMillis();
+		final long maxTimeFinal = maxTime;
+		
+		// not worth handing off to the workers
+		int numChunks = Math.min(Math.min(m_numThreads, WorkerPool
+		        .getNumThreads()), strokes.size());
+		if (WorkerPool.runInline(numChunks)) {
+			List<IRecognitionResult> results = recognizeStrokes(strokes,
+			        startTime, maxTime);
+			renumberShapes(results);
+			return results;
+		}
+		
+		// each worker takes a run of strokes, so the runs concatenate in
+		// stroke order
+		List<Future<List<IRecognitionResult>>> futures = new ArrayList<Future<List<IRecognitionResult>>>(
+		        numChunks);
+		for (int c = 0; c < numChunks; c++) {
+			int from = c * strokes.size() / numChunks;
+			int to = (c + 1) * strokes.size() / numChunks;
+			final List<IStroke> chunk = strokes.subList(from, to);
+			futures.add(WorkerPool
+			        .submit(new Callable<List<IRecognitionResult>>() {
+				        
+				        public List<IRecognitionResult> call()
+				                throws OverTimeException {
+					        return recognizeStrokes(chunk, startTime,
+					                maxTimeFinal);
+				        }
+			        }));
+		}
+		
+		List<IRecognitionResult> results = new ArrayList<IRecognitionResult>(
+		        strokes.size());
+		try {
+			for (Future<List<IRecognitionResult>> future : futures) {
+				if (maxTime >= 0) {
+					long remaining = OverTimeCheckHelper.timeRemaining(
+					        startTime, maxTime);
+					results.addAll(future.get(Math.max(remaining, 0),
+					        TimeUnit.MILLISECONDS));
+				}
+				else {
+					results.addAll(future.get());
+				}
+			}
+		}
+		catch (TimeoutException e) {
+			log.info("Ran out of time during parallel Paleo at "
+			         + (System.currentTimeMillis() - startTime)
+			         + " ms. Exceeded the allotted " + maxTime + " ms.");
+			throw new OverTimeException(OverTimeException.DEFAULT_MESSAGE, e);
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new OverTimeException("Interrupted during parallel Paleo", e);
+		}
+		catch (ExecutionException e) {
+			if (e.getCause() instanceof OverTimeException) {
+				throw (OverTimeException) e.getCause();
+			}
+			throw WorkerPool.unwrap(e);
+		}
+		finally {
+			cancelAll(futures);
+		}
+		
+		renumberShapes(results);
+		return results;
+	}
+	
+
+	/**
+	 * Renumber the shapes in the results in stroke order. The workers create
+	 * shapes at the same time, so their counter IDs interleave differently
+	 * from run to run, and anything sorting the shapes (eg. a ShapePool)
+	 * would see a different order each time. The sequential path is
+	 * renumbered too, so the order doesn't depend on the number of threads.
+	 * 
+	 * @param results
+	 *            The Paleo results, in stroke order
+	 */
+	private static void renumberShapes(List<IRecognitionResult> results) {
+		Set<IShape> seen = Collections
+		        .newSetFromMap(new IdentityHashMap<IShape, Boolean>());
+		for (IRecognitionResult result : results) {
+			if (result != null) {
+				for (IShape shape : result.getNBestList()) {
+					renumberShape(shape, seen);
+				}
+			}
+		}
+	}
+	
+
+	/**
+	 * Renumber a shape and then its sub-shapes, skipping any shape already
+	 * renumbered
+	 * 
+	 * @param shape
+	 *            Shape to renumber
+	 * @param seen
+	 *            Shapes already renumbered
+	 */
+	private static void renumberShape(IShape shape, Set<IShape> seen) {
+		if (shape == null || !seen.add(shape)) {
+			return;
+		}
+		if (shape instanceof Shape) {
+			((Shape) shape).renumber();
+		}
+		for (IShape sub : shape.getSubShapes()) {
+			renumberShape(sub, seen);
+		}
+	}
+	
+
+	/**
+	 * Recognize a run of strokes, one after the other, on the calling thread
+	 * 
+	 * @param strokes
+	 *            The strokes to recognize
+	 * @param startTime
+	 *            When recognition of the whole batch started
+	 * @param maxTime
+	 *            The max time we have to recognize the batch in, negative
+	 *            means no limit
+	 * @return The Paleo results, in the same order as the strokes
+	 * @throws OverTimeException
+	 *             If recognition takes more than maxTime
+	 */
+	private List<IRecognitionResult> recognizeStrokes(List<IStroke> strokes,
+	        long startTime, long maxTime) throws OverTimeException {
+		List<IRecognitionResult> results = new ArrayList<IRecognitionResult>(
+		        strokes.size());
+		for (IStroke stroke : strokes) {
+			results.add(recognizeStroke(stroke));
+			if (maxTime >= 0) {
+				OverTimeCheckHelper.overTimeCheck(startTime, maxTime, log);
+			}
+		}
+		return results;
+	}
+	
+
+	/**
+	 * Let go of the idle recognizers. The worker threads are shared, so they
+	 * are left running.
+	 */
+	public void shutdown() {
+		m_idleRecognizers.clear();
+	}
+	
+
+	/**
+	 * Recognize one stroke with a recognizer that no other thread is using.
+	 * 
+	 * @param stroke
+	 *            Stroke to recognize
+	 * @return The Paleo result for the stroke
+	 */
+	private IRecognitionResult recognizeStroke(IStroke stroke) {
+		PaleoSketchRecognizer paleo = m_idleRecognizers.poll();
+		if (paleo == null) {
+			paleo = new PaleoSketchRecognizer(m_config);
+		}
+		
+		try {
+			paleo.submitForRecognition(stroke);
+			return paleo.recognize();
+		}
+		finally {
+			m_idleRecognizers.offer(paleo);
+		}
+	}
+	
+
+	/**
+	 * Cancel all the futures that have not finished yet
+	 * 
+	 * @param futures
+	 *            Futures to cancel
+	 */
+	private static void cancelAll(
+	        List<Future<List<IRecognitionResult>>> futures) {
+		for (Future<List<IRecognitionResult>> future : futures) {
+			future.cancel(false);
+		}
+	}
+}
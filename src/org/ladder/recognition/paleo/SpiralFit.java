@@ -376,7 +376,7 @@ public class SpiralFit extends Fit implements IThresholds {
 	protected void calcAvgRadius() {
 		m_avgRadius = 0;
 		for (int i = 0; i < m_features.getNumPoints(); i++)
-			m_avgRadius += m_features.getPoints().get(i).distance(
+			m_avgRadius += m_features.getArrays().distance(i,
 			        m_center.getX(), m_center.getY());
 		m_avgRadius /= m_features.getNumPoints();
 	}
@@ -3,6 +3,8 @@
  * 
  * Revision History:<br>
  * Jun 23, 2008 bpaulson - File created
+ * Oct 18, 2026 - Compute features from point arrays, build points on demand
+ * Oct 18, 2026 - Skip intersection scans for lines outside the bounds
  * 
  * <p>
  * 
@@ -47,8 +49,10 @@ import org.ladder.core.sketch.ISegmentation;
 import org.ladder.core.sketch.IStroke;
 import org.ladder.core.sketch.Point;
 import org.ladder.core.sketch.Stroke;
+import org.ladder.core.sketch.StrokeArrays;
 import org.ladder.math.Filtering;
 import org.ladder.math.LeastSquares;
+import org.ladder.math.SegmentIntersection;
 import org.ladder.segmentation.paleo.RevolutionSegmenter;
 
 import Jama.Matrix;
@@ -68,9 +72,28 @@ public class StrokeFeatures implements IThresholds {
 	
 	/**
 	 * Points of the stroke (these may be modified to remove duplicates); for
-	 * list of original points, use m_stroke.getPoints();
+	 * list of original points, use m_stroke.getPoints(). Only built when
+	 * {@link #getPoints()} is first called; the features themselves are
+	 * computed from {@link #m_arrays}.
 	 */
-	protected List<IPoint> m_points;
+	protected volatile List<IPoint> m_points;
+	
+	/**
+	 * Values of the cleaned stroke points, in the same order as
+	 * {@link #getPoints()}
+	 */
+	protected StrokeArrays m_arrays;
+	
+	/**
+	 * Index in the original stroke of each cleaned point
+	 */
+	private int[] m_origIndex;
+	
+	/**
+	 * Whether the time of each cleaned point was changed from the original
+	 * point's time while removing duplicates
+	 */
+	private boolean[] m_retimed;
 	
 	/**
 	 * Boolean specifying whether or not the stroke is a single point
@@ -279,24 +302,24 @@ public class StrokeFeatures implements IThresholds {
 	protected double m_perimStrokeLengthRatio;
 	
 	/**
-	 * Left most point of stroke
+	 * Index of the left most point of stroke
 	 */
-	protected IPoint m_leftMostPoint;
+	protected int m_leftMostIndex;
 	
 	/**
-	 * Right most point of stroke
+	 * Index of the right most point of stroke
 	 */
-	protected IPoint m_rightMostPoint;
+	protected int m_rightMostIndex;
 	
 	/**
-	 * Bottom most point of stroke
+	 * Index of the bottom most point of stroke
 	 */
-	protected IPoint m_bottomMostPoint;
+	protected int m_bottomMostIndex;
 	
 	/**
-	 * Top most point of stroke
+	 * Index of the top most point of stroke
 	 */
-	protected IPoint m_topMostPoint;
+	protected int m_topMostIndex;
 	
 	
 	/**
@@ -312,13 +335,16 @@ public class StrokeFeatures implements IThresholds {
 		m_stroke = stroke;
 		m_smoothing = smoothDirGraph;
 		
-		// copy stroke points
-		m_points = new ArrayList<IPoint>();
-		for (int i = 0; i < m_stroke.getNumPoints(); i++)
-			m_points.add((IPoint) m_stroke.getPoints().get(i).clone());
+		// copy stroke point values; the points themselves are only copied if
+		// someone asks for them
+		m_arrays = new StrokeArrays(m_stroke);
+		m_origIndex = new int[m_arrays.size()];
+		for (int i = 0; i < m_origIndex.length; i++)
+			m_origIndex[i] = i;
+		m_retimed = new boolean[m_arrays.size()];
 		
 		// check for single point instance
-		if (m_points.size() <= 1) {
+		if (m_arrays.size() <= 1) {
 			m_isPoint = true;
 		}
 		
@@ -357,7 +383,72 @@ public class StrokeFeatures implements IThresholds {
 	 * @return points of the stroke
 	 */
 	public List<IPoint> getPoints() {
-		return m_points;
+		List<IPoint> points = m_points;
+		if (points == null) {
+			synchronized (this) {
+				if (m_points == null) {
+					m_points = buildPoints();
+				}
+				points = m_points;
+			}
+		}
+		return points;
+	}
+	
+
+	/**
+	 * Get the x, y, and time values of the points of the stroke (after
+	 * duplicates and hooks have been removed). The arrays must not be
+	 * modified.
+	 * 
+	 * @return values of the stroke points, in the order of
+	 *         {@link #getPoints()}
+	 */
+	public StrokeArrays getArrays() {
+		return m_arrays;
+	}
+	
+
+	/**
+	 * Build the cleaned points: copies of the original points, except where
+	 * removing duplicates changed a point's time.
+	 * 
+	 * @return the cleaned points
+	 */
+	private List<IPoint> buildPoints() {
+		List<IPoint> points = new ArrayList<IPoint>(m_origIndex.length);
+		List<IPoint> origPoints = m_stroke.getPoints();
+		for (int i = 0; i < m_origIndex.length; i++) {
+			if (m_retimed[i])
+				points.add(new Point(m_arrays.getX()[i], m_arrays.getY()[i],
+				        m_arrays.getTime()[i]));
+			else
+				points.add((IPoint) origPoints.get(m_origIndex[i]).clone());
+		}
+		return points;
+	}
+	
+
+	/**
+	 * Keep only the cleaned points at the given indices
+	 * 
+	 * @param indices
+	 *            indices into the current cleaned points
+	 * @param times
+	 *            new time values for the kept points
+	 * @param retimed
+	 *            whether each kept point's time was changed
+	 */
+	private void keepPoints(int[] indices, long[] times, boolean[] retimed) {
+		StrokeArrays kept = m_arrays.select(indices);
+		m_arrays = new StrokeArrays(kept.getX(), kept.getY(), times, kept
+		        .getPressure());
+		int[] origIndex = new int[indices.length];
+		for (int i = 0; i < indices.length; i++)
+			origIndex[i] = m_origIndex[indices[i]];
+		m_origIndex = origIndex;
+		m_retimed = retimed;
+		m_points = null;
 	}
 	
 
@@ -417,7 +508,7 @@ public class StrokeFeatures implements IThresholds {
 	 * @return number of stroke points (after duplicates have been removed)
 	 */
 	public int getNumPoints() {
-		return m_points.size();
+		return m_arrays.size();
 	}
 	
 
@@ -580,9 +671,10 @@ public class StrokeFeatures implements IThresholds {
 	 * Print points out to System.out
 	 */
 	public void printPoints() {
-		for (int i = 0; i < m_points.size(); i++)
-			System.out.println(m_points.get(i).getX() + ","
-			                   + m_points.get(i).getY());
+		double[] x = m_arrays.getX();
+		double[] y = m_arrays.getY();
+		for (int i = 0; i < x.length; i++)
+			System.out.println(x[i] + "," + y[i]);
 	}
 	
 
@@ -616,22 +708,23 @@ public class StrokeFeatures implements IThresholds {
 	 */
 	public ArrayList<Point2D> getIntersection(Line2D.Double line) {
 		ArrayList<Point2D> intersectionPts = new ArrayList<Point2D>();
+		if (m_bounds != null && !SegmentIntersection.mayIntersect(m_bounds, line))
+			return intersectionPts;
 		Point2D intersect = null;
+		double[] x = m_arrays.getX();
+		double[] y = m_arrays.getY();
 		for (int i = 0; i < getNumPoints() - 1; i++) {
-			IPoint p1 = m_points.get(i);
-			IPoint p2 = m_points.get(i + 1);
-			if (line.intersectsLine(p1.getX(), p1.getY(), p2.getX(), p2.getY())) {
-				intersect = getIntersectionPt(line, new Line2D.Double(
-				        p1.getX(), p1.getY(), p2.getX(), p2.getY()));
+			if (line.intersectsLine(x[i], y[i], x[i + 1], y[i + 1])) {
+				intersect = getIntersectionPt(line, new Line2D.Double(x[i],
+				        y[i], x[i + 1], y[i + 1]));
 				intersectionPts.add(intersect);
 			}
 		}
 		if (intersectionPts.size() < 2) {
-			IPoint p1 = m_points.get(0);
-			IPoint p2 = m_points.get(getNumPoints() - 1);
-			if (line.intersectsLine(p1.getX(), p1.getY(), p2.getX(), p2.getY())) {
-				intersect = getIntersectionPt(line, new Line2D.Double(
-				        p1.getX(), p1.getY(), p2.getX(), p2.getY()));
+			int last = getNumPoints() - 1;
+			if (line.intersectsLine(x[0], y[0], x[last], y[last])) {
+				intersect = getIntersectionPt(line, new Line2D.Double(x[0],
+				        y[0], x[last], y[last]));
 				intersectionPts.add(intersect);
 			}
 		}
@@ -717,43 +810,54 @@ public class StrokeFeatures implements IThresholds {
 	 * between the two surrounding points.
 	 */
 	protected void removeDuplicates() {
-		List<IPoint> newPoints = new ArrayList<IPoint>();
-		newPoints.add(m_points.get(0));
+		double[] x = m_arrays.getX();
+		double[] y = m_arrays.getY();
+		long[] t = m_arrays.getTime();
+		int[] keep = new int[getNumPoints()];
+		long[] newTimes = new long[getNumPoints()];
+		boolean[] retimed = new boolean[getNumPoints()];
+		int size = 0;
+		keep[size] = 0;
+		newTimes[size] = t[0];
+		retimed[size] = m_retimed[0];
+		size++;
 		
 		// add non-duplicates to new point list
 		for (int i = 1; i < getNumPoints(); i++) {
 			
 			// same x and y value so the point is not added to the new list
-			if (m_points.get(i - 1).getX() == m_points.get(i).getX()
-			    && m_points.get(i - 1).getY() == m_points.get(i).getY()) {
+			if (x[i - 1] == x[i] && y[i - 1] == y[i]) {
 				// do nothing
 			}
 			else {
 				// add point to new list
-				newPoints.add(m_points.get(i));
+				keep[size] = i;
+				newTimes[size] = t[i];
+				retimed[size] = m_retimed[i];
+				size++;
 				
 				// check for same time value
-				if (newPoints.size() > 1
-				    && newPoints.get(newPoints.size() - 1).getTime() == newPoints
-				            .get(newPoints.size() - 2).getTime()) {
-					if (newPoints.size() == 2) {
-						newPoints.set(newPoints.size() - 1, new Point(newPoints
-						        .get(newPoints.size() - 1).getX(), newPoints
-						        .get(newPoints.size() - 1).getY(), newPoints
-						        .get(newPoints.size() - 1).getTime() + 1));
+				if (size > 1 && newTimes[size - 1] == newTimes[size - 2]) {
+					if (size == 2) {
+						newTimes[size - 1] = newTimes[size - 1] + 1;
+						retimed[size - 1] = true;
 					}
 					else {
-						newPoints.set(newPoints.size() - 2, new Point(newPoints
-						        .get(newPoints.size() - 2).getX(), newPoints
-						        .get(newPoints.size() - 2).getY(),
-						        newPoints.get(newPoints.size() - 3).getTime()
-						                + newPoints.get(newPoints.size() - 1)
-						                        .getTime() / 2));
+						newTimes[size - 2] = newTimes[size - 3]
+						                     + newTimes[size - 1] / 2;
+						retimed[size - 2] = true;
 					}
 				}
 			}
 		}
-		m_points = newPoints;
+		
+		int[] indices = new int[size];
+		long[] times = new long[size];
+		boolean[] isRetimed = new boolean[size];
+		System.arraycopy(keep, 0, indices, 0, size);
+		System.arraycopy(newTimes, 0, times, 0, size);
+		System.arraycopy(retimed, 0, isRetimed, 0, size);
+		keepPoints(indices, times, isRetimed);
 	}
 	
 
@@ -781,25 +885,17 @@ public class StrokeFeatures implements IThresholds {
 		m_max_curv_index = 0;
 		
 		// compute direction graph
+		double[] x = m_arrays.getX();
+		double[] y = m_arrays.getY();
 		for (int i = 0; i < getNumPoints() - 1; i++) {
-			m_dir[i] = Math.atan2(m_points.get(i + 1).getY()
-			                      - m_points.get(i).getY(), m_points.get(i + 1)
-			        .getX()
-			                                                - m_points.get(i)
-			                                                        .getX());
+			m_dir[i] = Math.atan2(y[i + 1] - y[i], x[i + 1] - x[i]);
 			m_dirNoShift[i] = m_dir[i];
 			while ((i > 0) && (m_dir[i] - m_dir[i - 1] > Math.PI))
 				m_dir[i] = m_dir[i] - 2 * Math.PI;
 			while ((i > 0) && (m_dir[i - 1] - m_dir[i] > Math.PI))
 				m_dir[i] = m_dir[i] + 2 * Math.PI;
-			m_segLength[i] = Math.sqrt((m_points.get(i + 1).getY() - m_points
-			        .get(i).getY())
-			                           * (m_points.get(i + 1).getY() - m_points
-			                                   .get(i).getY())
-			                           + (m_points.get(i + 1).getX() - m_points
-			                                   .get(i).getX())
-			                           * (m_points.get(i + 1).getX() - m_points
-			                                   .get(i).getX()));
+			m_segLength[i] = Math.sqrt((y[i + 1] - y[i]) * (y[i + 1] - y[i])
+			                           + (x[i + 1] - x[i]) * (x[i + 1] - x[i]));
 			if (i == 0)
 				m_lengthSoFar[i] = m_segLength[i];
 			else
@@ -905,10 +1001,15 @@ public class StrokeFeatures implements IThresholds {
 			endindex = getNumPoints();
 		
 		// update size, x, y, and time values with tails removed
-		List<IPoint> newPoints = new ArrayList<IPoint>();
-		for (int i = startindex; i < endindex; i++)
-			newPoints.add(m_points.get(i));
-		m_points = newPoints;
+		int[] indices = new int[endindex - startindex];
+		long[] times = new long[indices.length];
+		boolean[] retimed = new boolean[indices.length];
+		for (int i = startindex; i < endindex; i++) {
+			indices[i - startindex] = i;
+			times[i - startindex] = m_arrays.getTime()[i];
+			retimed[i - startindex] = m_retimed[i];
+		}
+		keepPoints(indices, times, retimed);
 	}
 	
 
@@ -932,32 +1033,34 @@ public class StrokeFeatures implements IThresholds {
 	 * Calculates the bounding box of the stroke
 	 */
 	protected void calcBounds() {
-		if (m_points.size() == 0)
+		if (getNumPoints() == 0)
 			return;
-		double maxX = m_points.get(0).getX();
-		double minX = m_points.get(0).getX();
-		double maxY = m_points.get(0).getY();
-		double minY = m_points.get(0).getY();
-		m_leftMostPoint = m_points.get(0);
-		m_rightMostPoint = m_points.get(0);
-		m_bottomMostPoint = m_points.get(0);
-		m_topMostPoint = m_points.get(0);
-		for (int i = 1; i < m_points.size(); i++) {
-			if (m_points.get(i).getX() > maxX) {
-				maxX = m_points.get(i).getX();
-				m_rightMostPoint = m_points.get(i);
+		double[] x = m_arrays.getX();
+		double[] y = m_arrays.getY();
+		double maxX = x[0];
+		double minX = x[0];
+		double maxY = y[0];
+		double minY = y[0];
+		m_leftMostIndex = 0;
+		m_rightMostIndex = 0;
+		m_bottomMostIndex = 0;
+		m_topMostIndex = 0;
+		for (int i = 1; i < x.length; i++) {
+			if (x[i] > maxX) {
+				maxX = x[i];
+				m_rightMostIndex = i;
 			}
-			if (m_points.get(i).getX() < minX) {
-				minX = m_points.get(i).getX();
-				m_leftMostPoint = m_points.get(i);
+			if (x[i] < minX) {
+				minX = x[i];
+				m_leftMostIndex = i;
 			}
-			if (m_points.get(i).getY() > maxY) {
-				maxY = m_points.get(i).getY();
-				m_topMostPoint = m_points.get(i);
+			if (y[i] > maxY) {
+				maxY = y[i];
+				m_topMostIndex = i;
 			}
-			if (m_points.get(i).getY() < minY) {
-				minY = m_points.get(i).getY();
-				m_bottomMostPoint = m_points.get(i);
+			if (y[i] < minY) {
+				minY = y[i];
+				m_bottomMostIndex = i;
 			}
 		}
 		m_bounds = new BoundingBox(minX, minY, maxX, maxY);
@@ -971,11 +1074,13 @@ public class StrokeFeatures implements IThresholds {
 	protected void calcTotalRotation() {
 		double sum = 0;
 		double deltaX, deltaY, deltaX1, deltaY1;
-		for (int i = 1; i < m_points.size() - 1; i++) {
-			deltaX = m_points.get(i + 1).getX() - m_points.get(i).getX();
-			deltaY = m_points.get(i + 1).getY() - m_points.get(i).getY();
-			deltaX1 = m_points.get(i).getX() - m_points.get(i - 1).getX();
-			deltaY1 = m_points.get(i).getY() - m_points.get(i - 1).getY();
+		double[] x = m_arrays.getX();
+		double[] y = m_arrays.getY();
+		for (int i = 1; i < x.length - 1; i++) {
+			deltaX = x[i + 1] - x[i];
+			deltaY = y[i + 1] - y[i];
+			deltaX1 = x[i] - x[i - 1];
+			deltaY1 = y[i] - y[i - 1];
 			
 			// check for divide by zero; add or subtract PI/2 accordingly (this
 			// is the limit of atan as it approaches infinity)
@@ -1132,12 +1237,14 @@ public class StrokeFeatures implements IThresholds {
 		
 		// calculate sum of the x values, y values, x^2 values, y^2 values and
 		// x*y values (those needed to compute least squares line)
-		for (int i = 0; i < m_points.size(); i++) {
-			sx += m_points.get(i).getX();
-			sx2 += Math.pow(m_points.get(i).getX(), 2);
-			sy += m_points.get(i).getY();
-			sy2 += Math.pow(m_points.get(i).getY(), 2);
-			sxy += m_points.get(i).getX() * m_points.get(i).getY();
+		double[] x = m_arrays.getX();
+		double[] y = m_arrays.getY();
+		for (int i = 0; i < x.length; i++) {
+			sx += x[i];
+			sx2 += Math.pow(x[i], 2);
+			sy += y[i];
+			sy2 += Math.pow(y[i], 2);
+			sxy += x[i] * y[i];
 		}
 		Line2D l1 = new Line2D.Double();
 		Line2D l2 = new Line2D.Double();
@@ -1145,17 +1252,15 @@ public class StrokeFeatures implements IThresholds {
 		double err2 = Double.MAX_VALUE;
 		try {
 			// compute least squares line and error in the x direction
-			l1 = LeastSquares.bestFitLine(sx, sx2, sy, sxy, m_points.size(),
-			        m_bounds);
-			err1 = LeastSquares.error(m_points, l1);
+			l1 = LeastSquares.bestFitLine(sx, sx2, sy, sxy, x.length, m_bounds);
+			err1 = LeastSquares.error(x, y, l1);
 		}
 		catch (Exception e) {
 		}
 		try {
 			// compute least squares line and error in the y direction
-			l2 = LeastSquares.bestFitLine(sy, sy2, sx, sxy, m_points.size(),
-			        m_bounds);
-			err2 = LeastSquares.error(m_points, l2);
+			l2 = LeastSquares.bestFitLine(sy, sy2, sx, sxy, x.length, m_bounds);
+			err2 = LeastSquares.error(x, y, l2);
 		}
 		catch (Exception e) {
 		}
@@ -1293,6 +1398,9 @@ public class StrokeFeatures implements IThresholds {
 	public static ArrayList<Point2D> getIntersection(IStroke stroke,
 	        Line2D.Double line) {
 		ArrayList<Point2D> intersectionPts = new ArrayList<Point2D>();
+		if (stroke.getNumPoints() > 0
+		    && !SegmentIntersection.mayIntersect(stroke.getBoundingBox(), line))
+			return intersectionPts;
 		Point2D intersect = null;
 		for (int i = 0; i < stroke.getNumPoints() - 1; i++) {
 			IPoint p1 = stroke.getPoints().get(i);
@@ -1350,14 +1458,15 @@ public class StrokeFeatures implements IThresholds {
 	 */
 	public IStroke getSubStroke(int start, int end) {
 		IStroke s = new Stroke();
+		List<IPoint> points = getPoints();
 		if (start > end) {
-			s.addPoint(m_points.get(start));
-			s.addPoint(m_points.get(end));
+			s.addPoint(points.get(start));
+			s.addPoint(points.get(end));
 		}
 		else {
-			for (int j = 0; j < m_points.size(); j++) {
+			for (int j = 0; j < points.size(); j++) {
 				if (j >= start && j <= end)
-					s.addPoint(m_points.get(j));
+					s.addPoint(points.get(j));
 			}
 		}
 		return s;
@@ -1476,21 +1585,21 @@ public class StrokeFeatures implements IThresholds {
 	protected void calcMajorAxis() {
 		double maxDistance = Double.MIN_VALUE;
 		int max1 = 0, max2 = 0;
+		// distance is symmetric, and the first farthest pair always has i < j,
+		// so only half of the pairs need checking
 		for (int i = 0; i < getNumPoints(); i++) {
-			for (int j = 0; j < getNumPoints(); j++) {
-				if (i != j) {
-					double d = getPoints().get(i).distance(getPoints().get(j));
-					if (d > maxDistance) {
-						maxDistance = d;
-						max1 = i;
-						max2 = j;
-					}
+			for (int j = i + 1; j < getNumPoints(); j++) {
+				double d = m_arrays.distance(i, j);
+				if (d > maxDistance) {
+					maxDistance = d;
+					max1 = i;
+					max2 = j;
 				}
 			}
 		}
-		m_majorAxis = new Line2D.Double(getPoints().get(max1).getX(),
-		        getPoints().get(max1).getY(), getPoints().get(max2).getX(),
-		        getPoints().get(max2).getY());
+		double[] x = m_arrays.getX();
+		double[] y = m_arrays.getY();
+		m_majorAxis = new Line2D.Double(x[max1], y[max1], x[max2], y[max2]);
 		m_majorAxisLength = m_majorAxis.getP1().distance(m_majorAxis.getP2());
 		m_majorAxisAngle = Math.atan2(
 		        m_majorAxis.getY2() - m_majorAxis.getY1(), m_majorAxis.getX2()
@@ -1658,7 +1767,7 @@ public class StrokeFeatures implements IThresholds {
 	 * @return left most point
 	 */
 	public IPoint getLeftMostPoint() {
-		return m_leftMostPoint;
+		return getPoints().get(m_leftMostIndex);
 	}
 	
 
@@ -1668,7 +1777,7 @@ public class StrokeFeatures implements IThresholds {
 	 * @return right most point
 	 */
 	public IPoint getRightMostPoint() {
-		return m_rightMostPoint;
+		return getPoints().get(m_rightMostIndex);
 	}
 	
 
@@ -1678,7 +1787,7 @@ public class StrokeFeatures implements IThresholds {
 	 * @return top most point
 	 */
 	public IPoint getTopMostPoint() {
-		return m_topMostPoint;
+		return getPoints().get(m_topMostIndex);
 	}
 	
 
@@ -1688,6 +1797,6 @@ public class StrokeFeatures implements IThresholds {
 	 * @return bottom most point
 	 */
 	public IPoint getBottomMostPoint() {
-		return m_bottomMostPoint;
+		return getPoints().get(m_bottomMostIndex);
 	}
 }
@@ -0,0 +1,295 @@
+/**
+ * EndpointIndex.java
+ * 
+ * Revision History:<br>
+ * Oct 18, 2026 - File created
+ * 
+ * <p>
+ * 
+ * <pre>
+ * This work is released under the BSD License:
+ * (C) 2008 Sketch Recognition Lab, Texas A&amp;M University (hereafter SRL @ TAMU)
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the Sketch Recognition Lab, Texas A&amp;M University 
+ *       nor the names of its contributors may be used to endorse or promote 
+ *       products derived from this software without specific prior written 
+ *       permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY SRL @ TAMU ``AS IS'' AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL SRL @ TAMU BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ * </pre>
+ */
+package org.ladder.recognition.paleo.multistroke;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.ladder.core.sketch.IPoint;
+import org.ladder.core.sketch.IStroke;
+
+/**
+ * Uniform grid over stroke endpoints, used to find the strokes whose endpoints
+ * could be close enough to connect to a new stroke without testing every
+ * stroke seen so far. Each stroke covers a square around both of its endpoints
+ * whose half width is its reach (see {@link #getReach(IStroke)}); two strokes
+ * are returned as candidates for each other whenever their squares share a
+ * cell, so any pair of endpoints closer than the sum of the two reaches is
+ * always found.
+ */
+public class EndpointIndex {
+	
+	/**
+	 * Default width (and height) of a grid cell
+	 */
+	public static final double DEFAULT_CELL_SIZE = 32.0;
+	
+	/**
+	 * Width (and height) of a grid cell
+	 */
+	private double m_cellSize;
+	
+	/**
+	 * Smallest reach a stroke can have
+	 */
+	private double m_minReach;
+	
+	/**
+	 * Fraction of the larger bounding box dimension a stroke reaches
+	 */
+	private double m_sizeFraction;
+	
+	/**
+	 * Strokes covering each grid cell
+	 */
+	private Map<Long, List<IStroke>> m_cells;
+	
+	/**
+	 * Grid cells covered by each indexed stroke
+	 */
+	private Map<IStroke, Set<Long>> m_strokeCells;
+	
+	/**
+	 * Order in which the indexed strokes were added
+	 */
+	private Map<IStroke, Integer> m_order;
+	
+	/**
+	 * Number of strokes added so far (used for ordering)
+	 */
+	private int m_numAdded;
+	
+	
+	/**
+	 * Constructor
+	 * 
+	 * @param minReach
+	 *            smallest reach a stroke can have
+	 * @param sizeFraction
+	 *            fraction of the larger bounding box dimension a stroke
+	 *            reaches
+	 */
+	public EndpointIndex(double minReach, double sizeFraction) {
+		this(minReach, sizeFraction, DEFAULT_CELL_SIZE);
+	}
+	
+
+	/**
+	 * Constructor
+	 * 
+	 * @param minReach
+	 *            smallest reach a stroke can have
+	 * @param sizeFraction
+	 *            fraction of the larger bounding box dimension a stroke
+	 *            reaches
+	 * @param cellSize
+	 *            width (and height) of a grid cell
+	 */
+	public EndpointIndex(double minReach, double sizeFraction, double cellSize) {
+		if (cellSize <= 0)
+			throw new IllegalArgumentException("Cell size must be positive");
+		m_minReach = minReach;
+		m_sizeFraction = sizeFraction;
+		m_cellSize = cellSize;
+		clear();
+	}
+	
+
+	/**
+	 * Get the distance from its endpoints within which a stroke may connect
+	 * with another stroke: the larger of the minimum reach and the given
+	 * fraction of the larger bounding box dimension
+	 * 
+	 * @param stroke
+	 *            stroke
+	 * @return reach of the stroke
+	 */
+	public double getReach(IStroke stroke) {
+		double maxDim = Math.max(stroke.getBoundingBox().height, stroke
+		        .getBoundingBox().width);
+		return Math.max(m_minReach, maxDim * m_sizeFraction);
+	}
+	
+
+	/**
+	 * Add a stroke to the index (a stroke already in the index is re-indexed)
+	 * 
+	 * @param stroke
+	 *            stroke to add
+	 */
+	public void add(IStroke stroke) {
+		remove(stroke);
+		Set<Long> cells = getCells(stroke);
+		for (Long key : cells) {
+			List<IStroke> cell = m_cells.get(key);
+			if (cell == null) {
+				cell = new ArrayList<IStroke>();
+				m_cells.put(key, cell);
+			}
+			cell.add(stroke);
+		}
+		m_strokeCells.put(stroke, cells);
+		m_order.put(stroke, m_numAdded++);
+	}
+	
+
+	/**
+	 * Remove a stroke from the index
+	 * 
+	 * @param stroke
+	 *            stroke to remove
+	 * @return true if the stroke was in the index
+	 */
+	public boolean remove(IStroke stroke) {
+		Set<Long> cells = m_strokeCells.remove(stroke);
+		if (cells == null)
+			return false;
+		for (Long key : cells) {
+			List<IStroke> cell = m_cells.get(key);
+			cell.remove(stroke);
+			if (cell.isEmpty())
+				m_cells.remove(key);
+		}
+		m_order.remove(stroke);
+		return true;
+	}
+	
+
+	/**
+	 * Checks to see if the stroke is in the index
+	 * 
+	 * @param stroke
+	 *            stroke
+	 * @return true if found
+	 */
+	public boolean contains(IStroke stroke) {
+		return m_strokeCells.containsKey(stroke);
+	}
+	
+
+	/**
+	 * Get the number of strokes in the index
+	 * 
+	 * @return number of strokes
+	 */
+	public int size() {
+		return m_strokeCells.size();
+	}
+	
+
+	/**
+	 * Get the indexed strokes that have an endpoint within the sum of the two
+	 * reaches of an endpoint of the given stroke (plus some strokes that are
+	 * further away), in the order they were added to the index. The stroke
+	 * itself does not need to be in the index, and is returned if it is.
+	 * 
+	 * @param stroke
+	 *            stroke to find neighbors of
+	 * @return candidate strokes, oldest first
+	 */
+	public List<IStroke> getCandidates(IStroke stroke) {
+		Set<IStroke> found = new LinkedHashSet<IStroke>();
+		for (Long key : getCells(stroke)) {
+			List<IStroke> cell = m_cells.get(key);
+			if (cell != null)
+				found.addAll(cell);
+		}
+		List<IStroke> candidates = new ArrayList<IStroke>(found);
+		Collections.sort(candidates, new Comparator<IStroke>() {
+			
+			public int compare(IStroke s1, IStroke s2) {
+				return m_order.get(s1).compareTo(m_order.get(s2));
+			}
+		});
+		return candidates;
+	}
+	
+
+	/**
+	 * Remove all strokes from the index
+	 */
+	public void clear() {
+		m_cells = new HashMap<Long, List<IStroke>>();
+		m_strokeCells = new HashMap<IStroke, Set<Long>>();
+		m_order = new HashMap<IStroke, Integer>();
+		m_numAdded = 0;
+	}
+	
+
+	/**
+	 * Get the keys of the grid cells covered by the squares around both
+	 * endpoints of a stroke
+	 * 
+	 * @param stroke
+	 *            stroke
+	 * @return cell keys
+	 */
+	private Set<Long> getCells(IStroke stroke) {
+		Set<Long> cells = new LinkedHashSet<Long>();
+		double reach = getReach(stroke);
+		addCells(stroke.getFirstPoint(), reach, cells);
+		addCells(stroke.getLastPoint(), reach, cells);
+		return cells;
+	}
+	
+
+	/**
+	 * Add the keys of the grid cells covered by the square around a point
+	 * 
+	 * @param p
+	 *            center of the square
+	 * @param reach
+	 *            half width of the square
+	 * @param cells
+	 *            set to add the keys to
+	 */
+	private void addCells(IPoint p, double reach, Set<Long> cells) {
+		int minX = (int) Math.floor((p.getX() - reach) / m_cellSize);
+		int maxX = (int) Math.floor((p.getX() + reach) / m_cellSize);
+		int minY = (int) Math.floor((p.getY() - reach) / m_cellSize);
+		int maxY = (int) Math.floor((p.getY() + reach) / m_cellSize);
+		for (int x = minX; x <= maxX; x++)
+			for (int y = minY; y <= maxY; y++)
+				cells.add(((long) x << 32) | (y & 0xffffffffL));
+	}
+}
@@ -41,10 +41,14 @@ import java.awt.Color;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.UUID;
 
 import org.ladder.core.sketch.IPoint;
 import org.ladder.core.sketch.ISegmentation;
@@ -100,6 +104,11 @@ public class MultiStrokePaleoRecognizer implements IThresholds,
 	 */
 	private final static double THRESHOLD = 0.1;
 	
+	/**
+	 * Endpoints closer than this are always connected
+	 */
+	private final static double MIN_DISTANCE = 8.0;
+	
 	/**
 	 * Low-level (PaleoSketch) recognizer
 	 */
@@ -110,6 +119,26 @@ public class MultiStrokePaleoRecognizer implements IThresholds,
 	 */
 	private Map<IStroke, IRecognitionResult> m_recognitionMap;
 	
+	/**
+	 * Endpoint grid over the strokes in the recognition map, used to find the
+	 * strokes a new stroke may connect to
+	 */
+	private EndpointIndex m_endpointIndex = new EndpointIndex(MIN_DISTANCE,
+	        THRESHOLD / 1.5);
+	
+	/**
+	 * Combined strokes (and their low-level recognition results) of the
+	 * cycles already tried, keyed by the IDs of the cycle strokes in order
+	 */
+	private Map<List<UUID>, Combination> m_combinationCache;
+	
+	/**
+	 * Strokes added to the graph (or next to a stroke removed from it) since
+	 * cycles were last processed; only cycles through one of these can have
+	 * changed
+	 */
+	private Set<IStroke> m_touchedStrokes;
+	
 	/**
 	 * Stroke counter (used for naming purposes)
 	 */
@@ -214,12 +243,80 @@ public class MultiStrokePaleoRecognizer implements IThresholds,
 	private void removeNodes(IStroke s, Graph graph) {
 		for (int i = graph.getNodes().size() - 1; i >= 0; i--) {
 			GraphNode n = graph.getNodes().get(i);
-			if (n.getStroke().equals(s))
+			if (n.getStroke().equals(s)) {
+				// cycles through the neighbors may have changed
+				List<GraphNode> adjacent = graph.getAdjacentNodes(n);
+				if (adjacent != null)
+					for (GraphNode adj : adjacent)
+						if (!adj.getStroke().equals(s))
+							m_touchedStrokes.add(adj.getStroke());
 				graph.removeNode(n);
+			}
 		}
 	}
 	
 
+	/**
+	 * Put a recognition result in the recognition map and index the endpoints
+	 * of its stroke
+	 * 
+	 * @param stroke
+	 *            stroke
+	 * @param result
+	 *            recognition result of the stroke
+	 */
+	private void putResult(IStroke stroke, IRecognitionResult result) {
+		removeResult(stroke);
+		m_recognitionMap.put(stroke, result);
+		m_endpointIndex.add(stroke);
+	}
+	
+
+	/**
+	 * Remove a stroke from the recognition map and the endpoint index, along
+	 * with the cached combinations that contain it
+	 * 
+	 * @param stroke
+	 *            stroke
+	 * @return the old recognition result of the stroke, or null if there was
+	 *         none
+	 */
+	private IRecognitionResult removeResult(IStroke stroke) {
+		if (m_endpointIndex.remove(stroke)) {
+			UUID id = stroke.getID();
+			for (Iterator<List<UUID>> it = m_combinationCache.keySet()
+			        .iterator(); it.hasNext();)
+				if (it.next().contains(id))
+					it.remove();
+		}
+		return m_recognitionMap.remove(stroke);
+	}
+	
+
+	/**
+	 * Combine the strokes of a cycle into a single stroke and recognize it
+	 * with the low-level recognizer, reusing the result of an earlier call
+	 * with the same strokes in the same order
+	 * 
+	 * @param strokes
+	 *            ordered cycle strokes
+	 * @return combined stroke and its recognition result
+	 */
+	private Combination combine(List<IStroke> strokes) {
+		List<UUID> key = new ArrayList<UUID>(strokes.size());
+		for (IStroke s : strokes)
+			key.add(s.getID());
+		Combination combination = m_combinationCache.get(key);
+		if (combination == null) {
+			IStroke str = combineStrokes(strokes);
+			m_paleo.submitForRecognition(str);
+			combination = new Combination(str, m_paleo.recognize());
+			m_combinationCache.put(key, combination);
+		}
+		return combination;
+	}
+	
+
 	/**
 	 * Checks to see if stroke s is found in the given graph
 	 * 
@@ -281,8 +378,7 @@ public class MultiStrokePaleoRecognizer implements IThresholds,
 				}
 			}
 			
-			m_recognitionMap.remove(st);
-			m_recognitionMap.put(st, shs);
+			putResult(st, shs);
 			
 			// key set copy - needed to avoid concurrent modification in arrow
 			// check
@@ -301,10 +397,28 @@ public class MultiStrokePaleoRecognizer implements IThresholds,
 				List<GraphCycle> gc = TarjanAlgorithm.findCycles(getGraph());
 				Collections.sort(gc);
 				
+				// strokes touched from here on are handled on the next pass
+				Set<IStroke> touched = m_touchedStrokes;
+				m_touchedStrokes = new HashSet<IStroke>();
+				
 				for (int i = 0; i < gc.size(); i++) {
 					if (M_DEBUG)
 						System.out.print(i + ": " + gc.get(i));
 					
+					// cycles made only of untouched strokes were already tried
+					boolean touchedStroke = false;
+					for (IStroke s : gc.get(i).getStrokes()) {
+						if (touched.contains(s)) {
+							touchedStroke = true;
+							break;
+						}
+					}
+					if (!touchedStroke) {
+						if (M_DEBUG)
+							System.out.println(" skipped - already tried");
+						continue;
+					}
+					
 					// make sure graph still contains nodes
 					boolean missingStroke = false;
 					for (IStroke s : gc.get(i).getStrokes()) {
@@ -324,9 +438,9 @@ public class MultiStrokePaleoRecognizer implements IThresholds,
 					    && largestClosed.getBoundingBox().getArea() < 10.0)
 						largestClosed = null;
 					List<IShape> origShapes = getShapes(gc.get(i));
-					IStroke str = combineStrokes(gc.get(i).getStrokes());
-					m_paleo.submitForRecognition(str);
-					IRecognitionResult shapes = m_paleo.recognize();
+					Combination combination = combine(gc.get(i).getStrokes());
+					IStroke str = combination.m_stroke;
+					IRecognitionResult shapes = combination.m_result;
 					List<IShape> subshapes = new ArrayList<IShape>();
 					for (IShape sh : shapes.getNBestList()) {
 						sh.setSubShapes(subshapes);
@@ -481,7 +595,7 @@ public class MultiStrokePaleoRecognizer implements IThresholds,
 					// add strokes to recognized map and remove from queue
 					for (IStroke s : gc.get(i).getStrokes()) {
 						// remove old recognition results from map
-						IRecognitionResult old = m_recognitionMap.remove(s);
+						IRecognitionResult old = removeResult(s);
 						
 						// add old shape as a subshape to new shape
 						if (old != null)
@@ -498,7 +612,7 @@ public class MultiStrokePaleoRecognizer implements IThresholds,
 					}
 					
 					// add new result
-					m_recognitionMap.put(str, shapes);
+					putResult(str, shapes);
 					addStroke(str);
 				}
 			}
@@ -575,8 +689,7 @@ public class MultiStrokePaleoRecognizer implements IThresholds,
 							for (IStroke s1 : strList) {
 								
 								// remove old recognition results from map
-								IRecognitionResult old = m_recognitionMap
-								        .remove(s1);
+								IRecognitionResult old = removeResult(s1);
 								
 								// add old shape as a subshape to new shape
 								if (old != null)
@@ -593,7 +706,7 @@ public class MultiStrokePaleoRecognizer implements IThresholds,
 							}
 							
 							// add new result
-							m_recognitionMap.put(c, shapes);
+							putResult(c, shapes);
 							addStroke(c);
 						}
 					}
@@ -678,8 +791,7 @@ public class MultiStrokePaleoRecognizer implements IThresholds,
 							for (IStroke s1 : strList) {
 								
 								// remove old recognition results from map
-								IRecognitionResult old = m_recognitionMap
-								        .remove(s1);
+								IRecognitionResult old = removeResult(s1);
 								
 								// add old shape as a subshape to new shape
 								if (old != null)
@@ -696,7 +808,7 @@ public class MultiStrokePaleoRecognizer implements IThresholds,
 							}
 							
 							// add new result
-							m_recognitionMap.put(c, shapes);
+							putResult(c, shapes);
 							addStroke(c);
 						}
 					}
@@ -1051,10 +1163,12 @@ public class MultiStrokePaleoRecognizer implements IThresholds,
 			m_strokeNum++;
 		}
 		
-		// step 2: add to graph if connected
+		// step 2: add to graph if connected (only strokes with an endpoint
+		// nearby can be)
+		m_touchedStrokes.add(stroke);
 		List<IStroke> allStrokes = new ArrayList<IStroke>();
 		allStrokes.add(stroke);
-		allStrokes.addAll(m_recognitionMap.keySet());
+		allStrokes.addAll(m_endpointIndex.getCandidates(stroke));
 		for (int i = 0; i < allStrokes.size(); i++) {
 			IStroke str = allStrokes.get(i);
 			double pathLength = (stroke.getPathLength() + str.getPathLength()) / 2.0;
@@ -1070,7 +1184,7 @@ public class MultiStrokePaleoRecognizer implements IThresholds,
 			
 			// distances between all sets of endpoints
 			double dis = stroke.getFirstPoint().distance(str.getFirstPoint());
-			if (dis < threshold && dis < threshold2 || dis < 8.0) {
+			if (dis < threshold && dis < threshold2 || dis < MIN_DISTANCE) {
 				if (M_DEBUG)
 					System.out.println("dis: " + dis + " thresh: " + threshold
 					                   + "thresh2: " + threshold2 + " pl: "
@@ -1080,7 +1194,7 @@ public class MultiStrokePaleoRecognizer implements IThresholds,
 				        (Point) str.getLastPoint(), m_graph);
 			}
 			dis = stroke.getFirstPoint().distance(str.getLastPoint());
-			if (dis < threshold && dis < threshold2 || dis < 8.0) {
+			if (dis < threshold && dis < threshold2 || dis < MIN_DISTANCE) {
 				if (M_DEBUG)
 					System.out.println("dis: " + dis + " thresh: " + threshold
 					                   + "thresh2: " + threshold2 + " pl: "
@@ -1090,7 +1204,7 @@ public class MultiStrokePaleoRecognizer implements IThresholds,
 				        (Point) str.getFirstPoint(), m_graph);
 			}
 			dis = stroke.getLastPoint().distance(str.getFirstPoint());
-			if (dis < threshold && dis < threshold2 || dis < 8.0) {
+			if (dis < threshold && dis < threshold2 || dis < MIN_DISTANCE) {
 				if (M_DEBUG)
 					System.out.println("dis: " + dis + " thresh: " + threshold
 					                   + "thresh2: " + threshold2 + " pl: "
@@ -1100,7 +1214,7 @@ public class MultiStrokePaleoRecognizer implements IThresholds,
 				        (Point) str.getLastPoint(), m_graph);
 			}
 			dis = stroke.getLastPoint().distance(str.getLastPoint());
-			if (dis < threshold && dis < threshold2 || dis < 8.0) {
+			if (dis < threshold && dis < threshold2 || dis < MIN_DISTANCE) {
 				if (M_DEBUG)
 					System.out.println("dis: " + dis + " thresh: " + threshold
 					                   + "thresh2: " + threshold2 + " pl: "
@@ -1149,7 +1263,10 @@ public class MultiStrokePaleoRecognizer implements IThresholds,
 		m_strokeQueue = new ArrayList<IStroke>();
 		m_graph = new Graph();
 		m_arrowGraph = new Graph();
-		m_recognitionMap = new HashMap<IStroke, IRecognitionResult>();
+		m_recognitionMap = new LinkedHashMap<IStroke, IRecognitionResult>();
+		m_endpointIndex.clear();
+		m_combinationCache = new HashMap<List<UUID>, Combination>();
+		m_touchedStrokes = new HashSet<IStroke>();
 		if (m_paleo instanceof PaleoNNRecognizer)
 			((PaleoNNRecognizer) m_paleo).clear();
 	}
@@ -1317,4 +1434,35 @@ public class MultiStrokePaleoRecognizer implements IThresholds,
 			return true;
 		return false;
 	}
+	
+
+	/**
+	 * Combined stroke of a cycle along with its low-level recognition result
+	 */
+	private static class Combination {
+		
+		/**
+		 * Combined stroke
+		 */
+		private IStroke m_stroke;
+		
+		/**
+		 * Recognition result of the combined stroke
+		 */
+		private IRecognitionResult m_result;
+		
+		
+		/**
+		 * Constructor
+		 * 
+		 * @param stroke
+		 *            combined stroke
+		 * @param result
+		 *            recognition result of the combined stroke
+		 */
+		public Combination(IStroke stroke, IRecognitionResult result) {
+			m_stroke = stroke;
+			m_result = result;
+		}
+	}
 }
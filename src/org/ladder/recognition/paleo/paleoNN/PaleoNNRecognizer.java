@@ -3,6 +3,7 @@
  * 
  * Revision History:<br>
  * Feb 18, 2009 bpaulson - File created
+ * Oct 18, 2026 - Share the neural net through the ModelRegistry
  * 
  * <p>
  * 
@@ -37,11 +38,20 @@
  */
 package org.ladder.recognition.paleo.paleoNN;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
 
 import org.ladder.core.config.LadderConfig;
+
 import org.ladder.core.sketch.IShape;
 import org.ladder.core.sketch.IStroke;
 import org.ladder.core.sketch.Shape;
@@ -56,6 +66,7 @@ import org.ladder.recognition.paleo.PaleoConfig;
 import org.ladder.recognition.paleo.PaleoFeatureExtractor;
 import org.ladder.recognition.paleo.StrokeFeatures;
 import org.ladder.recognition.recognizer.IRecognizer;
+import org.ladder.recognition.recognizer.ModelRegistry;
 
 import weka.classifiers.functions.MultilayerPerceptron;
 import weka.core.Instance;
@@ -69,7 +80,19 @@ public class PaleoNNRecognizer extends Classifier implements
         IRecognizer<IStroke, IRecognitionResult> {
 	
 	/**
-	 * Neural net
+	 * File, in the model directory, of the neural net
+	 */
+	public static final String S_MODEL = "paleoDG.model";
+	
+	/**
+	 * Pools of copies of the neural nets, keyed by the loaded net they copy.
+	 * The loaded nets are shared by all recognizers, so the pools are too.
+	 */
+	private static final Map<MultilayerPerceptron, NetPool> S_NET_POOLS = new IdentityHashMap<MultilayerPerceptron, NetPool>();
+	
+	/**
+	 * Neural net, shared with every other recognizer, loaded when first
+	 * needed. It is only run through its {@link NetPool}.
 	 */
 	private MultilayerPerceptron m_nn;
 	
@@ -116,11 +139,20 @@ public class PaleoNNRecognizer extends Classifier implements
 	 *            paleo config file
 	 */
 	public PaleoNNRecognizer(PaleoConfig config) {
-		resetNN();
 		m_config = config;
 	}
 	
 
+	/**
+	 * Start loading the neural net in the background, so the first recognizer
+	 * to need it does not have to wait as long.
+	 */
+	public static void warmUpModel() {
+		ModelRegistry.warmUpMultilayerPerceptron(ModelRegistry
+		        .getModelFile(S_MODEL));
+	}
+	
+
 	/**
 	 * Set the stroke features
 	 * 
@@ -139,14 +171,13 @@ public class PaleoNNRecognizer extends Classifier implements
 	
 
 	/**
-	 * Resets the neural network
+	 * Resets the neural network to the shared one in the
+	 * {@link ModelRegistry}
 	 */
 	private void resetNN() {
 		try {
-			m_nn = (MultilayerPerceptron) weka.core.SerializationHelper
-			        .read(LadderConfig
-			                .getProperty(LadderConfig.MODEL_CONFIG_KEY)
-			              + "/paleoDG.model");
+			m_nn = ModelRegistry.getMultilayerPerceptron(ModelRegistry
+			        .getModelFile(S_MODEL));
 		}
 		catch (Exception e) {
 			e.printStackTrace();
@@ -154,6 +185,23 @@ public class PaleoNNRecognizer extends Classifier implements
 	}
 	
 
+	/**
+	 * Get the pool of copies of the current neural net
+	 * 
+	 * @return Pool of copies of the net
+	 */
+	private NetPool getNetPool() {
+		synchronized (S_NET_POOLS) {
+			NetPool nets = S_NET_POOLS.get(m_nn);
+			if (nets == null) {
+				nets = new NetPool(m_nn);
+				S_NET_POOLS.put(m_nn, nets);
+			}
+			return nets;
+		}
+	}
+	
+
 	/*
 	 * (non-Javadoc)
 	 * 
@@ -161,7 +209,11 @@ public class PaleoNNRecognizer extends Classifier implements
 	 */
 	@Override
 	public IRecognitionResult recognize() {
-		if (m_nn == null || m_stroke == null)
+		if (m_stroke == null)
+			return null;
+		if (m_nn == null)
+			resetNN();
+		if (m_nn == null)
 			return null;
 		
 		// see if this stroke has been recognized before
@@ -178,7 +230,8 @@ public class PaleoNNRecognizer extends Classifier implements
 		IRecognitionResult r = new RecognitionResult();
 		try {
 			Instance testInstance = m_pfe.getInstance(null);
-			double[] results = m_nn.distributionForInstance(testInstance);
+			double[] results;
+			results = getNetPool().distributionForInstance(testInstance);
 			for (int i = 0; i < results.length; i++) {
 				String name = (String) m_pfe.getClassLabels().elementAt(i);
 				Fit f = m_pfe.getFit(name);
@@ -410,4 +463,129 @@ public class PaleoNNRecognizer extends Classifier implements
 		// TODO Auto-generated method stub
 		
 	}
+
+
+	/**
+	 * Copies of one loaded neural net that are not in use. A net keeps the
+	 * values of its last forward pass in its nodes, so no two threads can run
+	 * the same one. The first net lent out is the loaded one, later ones are
+	 * copies of it, so each thread running Paleo at once gets its own net
+	 * instead of waiting on a lock.
+	 */
+	private static class NetPool {
+		
+		/**
+		 * The loaded net
+		 */
+		private final MultilayerPerceptron m_model;
+		
+		/**
+		 * Nets not currently in use
+		 */
+		private final BlockingQueue<MultilayerPerceptron> m_idleNets = new LinkedBlockingQueue<MultilayerPerceptron>();
+		
+		/**
+		 * Whether the loaded net has been lent out
+		 */
+		private boolean m_modelLent = false;
+		
+		/**
+		 * The loaded net, serialized before its first use, to copy from
+		 */
+		private byte[] m_modelBytes = null;
+		
+		
+		/**
+		 * Create a pool of copies of a net
+		 * 
+		 * @param model
+		 *            The loaded net
+		 */
+		public NetPool(MultilayerPerceptron model) {
+			m_model = model;
+		}
+		
+
+		/**
+		 * Run an instance through a net no other thread is using
+		 * 
+		 * @param instance
+		 *            Instance to classify
+		 * @return The output of the net for each class
+		 * @throws Exception
+		 *             If the net cannot classify the instance
+		 */
+		public double[] distributionForInstance(Instance instance)
+		        throws Exception {
+			MultilayerPerceptron net = m_idleNets.poll();
+			if (net == null) {
+				net = newNet();
+			}
+			
+			try {
+				return net.distributionForInstance(instance);
+			}
+			finally {
+				m_idleNets.offer(net);
+			}
+		}
+		
+
+		/**
+		 * Get a net no one else has. The loaded net is serialized before it is
+		 * first lent out, while nothing is running it, when more than one
+		 * thread may run Paleo.
+		 * 
+		 * @return A net no other thread uses
+		 * @throws IOException
+		 *             If the net cannot be copied
+		 * @throws ClassNotFoundException
+		 *             If the net cannot be copied
+		 */
+		private synchronized MultilayerPerceptron newNet() throws IOException,
+		        ClassNotFoundException {
+			if (!m_modelLent) {
+				if (LadderConfig.getNumRecognitionThreads() > 1) {
+					m_modelBytes = serialize(m_model);
+				}
+				m_modelLent = true;
+				return m_model;
+			}
+			
+			if (m_modelBytes == null) {
+				m_modelBytes = serialize(m_model);
+			}
+			ObjectInputStream in = new ObjectInputStream(
+			        new ByteArrayInputStream(m_modelBytes));
+			try {
+				return (MultilayerPerceptron) in.readObject();
+			}
+			finally {
+				in.close();
+			}
+		}
+		
+
+		/**
+		 * Serialize a net, to be read back as a copy
+		 * 
+		 * @param net
+		 *            Net to serialize
+		 * @return The serialized net
+		 * @throws IOException
+		 *             If the net cannot be serialized
+		 */
+		private static byte[] serialize(MultilayerPerceptron net)
+		        throws IOException {
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			ObjectOutputStream out = new ObjectOutputStream(bytes);
+			try {
+				out.writeObject(net);
+			}
+			finally {
+				out.close();
+			}
+			return bytes.toByteArray();
+		}
+	}
 }
@@ -0,0 +1,698 @@
+/**
+ * ModelRegistry.java
+ * 
+ * Revision History:<br>
+ * Oct 18, 2026 - File created
+ * 
+ * <p>
+ * 
+ * <pre>
+ * This work is released under the BSD License:
+ * (C) 2008 Sketch Recognition Lab, Texas A&amp;M University (hereafter SRL @ TAMU)
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the Sketch Recognition Lab, Texas A&amp;M University 
+ *       nor the names of its contributors may be used to endorse or promote 
+ *       products derived from this software without specific prior written 
+ *       permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY SRL @ TAMU ``AS IS'' AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL SRL @ TAMU BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ * </pre>
+ */
+package org.ladder.recognition.recognizer;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import libsvm.svm;
+import libsvm.svm_model;
+
+import org.apache.log4j.Logger;
+import org.ladder.core.config.LadderConfig;
+import org.ladder.core.logging.LadderLogger;
+
+import weka.classifiers.functions.MultilayerPerceptron;
+
+/**
+ * Process-wide cache of trained models. Each model is loaded once, the first
+ * time any recognizer asks for it, and then shared by every recognizer on
+ * every thread. Models are looked up by a key, which is usually the model's
+ * file name. Threads asking for a model while it is loading wait for that one
+ * load instead of starting their own. If a load fails, nothing is cached and
+ * the next request tries again.
+ * <p>
+ * Shared models must be treated as read only. A Weka
+ * {@link MultilayerPerceptron} keeps the values of its last forward pass in
+ * its nodes, so callers must either synchronize on it or run their own copy.
+ * <p>
+ * Models can be loaded ahead of time on a background thread with the
+ * warm-up methods. The load time of each model is logged. It and the
+ * approximate size of the model, which is only estimated the first time it
+ * is asked for, are available from {@link #getStats(String)}.
+ */
+public class ModelRegistry {
+	
+	/**
+	 * Logger for this class
+	 */
+	private static final Logger log = LadderLogger
+	        .getLogger(ModelRegistry.class);
+	
+	/**
+	 * How long the idle warm-up thread hangs around before going away, in
+	 * seconds
+	 */
+	private static final long S_WORKER_KEEP_ALIVE = 60;
+	
+	/**
+	 * Key prefix for Weka MLPs
+	 */
+	private static final String S_MLP_PREFIX = "mlp:";
+	
+	/**
+	 * Key prefix for libsvm models
+	 */
+	private static final String S_SVM_PREFIX = "svm:";
+	
+	/**
+	 * The models, loaded or loading, by key
+	 */
+	private static final ConcurrentMap<String, ModelEntry> S_MODELS = new ConcurrentHashMap<String, ModelEntry>();
+	
+	/**
+	 * Background thread that warms up models, created the first time it is
+	 * needed
+	 */
+	private static ThreadPoolExecutor S_WARM_UP_POOL = null;
+	
+	
+	/**
+	 * All the methods are static
+	 */
+	private ModelRegistry() {
+		// nothing to do
+	}
+	
+
+	/**
+	 * Get the model with the given key, loading it with the loader if it is
+	 * not loaded yet. If another thread is already loading the model, wait
+	 * for it. If a load started by another thread, eg. a warm-up, fails, the
+	 * model is loaded once more on this thread before giving up.
+	 * 
+	 * @param <T>
+	 *            The type of model
+	 * @param key
+	 *            Key of the model. The same key must always be used for the
+	 *            same type of model.
+	 * @param loader
+	 *            Loads the model, only used if the model is not loaded yet
+	 * @return The shared model
+	 * @throws IOException
+	 *             If the model cannot be loaded. The cause is the exception
+	 *             thrown by the loader.
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> T getModel(String key, IModelLoader<T> loader)
+	        throws IOException {
+		for (boolean retried = false;; retried = true) {
+			ModelEntry entry = getEntry(key, loader);
+			
+			// loads in this thread unless the load is already started
+			entry.m_task.run();
+			
+			try {
+				return (T) entry.m_task.get();
+			}
+			catch (ExecutionException e) {
+				// forget the failure so the next request tries again
+				S_MODELS.remove(key, entry);
+				
+				// someone else's load failed, try it ourselves
+				if (!retried && !entry.isLoadedBy(Thread.currentThread())) {
+					log.info("Loading model " + key + " again");
+					continue;
+				}
+				
+				Throwable cause = e.getCause();
+				if (cause instanceof IOException) {
+					throw (IOException) cause;
+				}
+				IOException ioe = new IOException("Cannot load model " + key);
+				ioe.initCause(cause);
+				throw ioe;
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new InterruptedIOException("Interrupted loading model "
+				                                 + key);
+			}
+		}
+	}
+	
+
+	/**
+	 * Start loading the model with the given key on a background thread, if
+	 * it is not loaded or loading yet. Returns right away.
+	 * 
+	 * @param <T>
+	 *            The type of model
+	 * @param key
+	 *            Key of the model
+	 * @param loader
+	 *            Loads the model
+	 */
+	public static <T> void warmUp(String key, IModelLoader<T> loader) {
+		ModelEntry entry = getEntry(key, loader);
+		if (!entry.m_task.isDone()) {
+			getWarmUpPool().execute(entry.m_task);
+		}
+	}
+	
+
+	/**
+	 * Get the shared Weka MLP serialized in the given file.
+	 * 
+	 * @param fileName
+	 *            File the MLP was serialized to
+	 * @return The shared MLP
+	 * @throws IOException
+	 *             If the MLP cannot be loaded
+	 */
+	public static MultilayerPerceptron getMultilayerPerceptron(String fileName)
+	        throws IOException {
+		return getModel(S_MLP_PREFIX + fileName, mlpLoader(fileName));
+	}
+	
+
+	/**
+	 * Start loading the Weka MLP serialized in the given file in the
+	 * background.
+	 * 
+	 * @param fileName
+	 *            File the MLP was serialized to
+	 */
+	public static void warmUpMultilayerPerceptron(String fileName) {
+		warmUp(S_MLP_PREFIX + fileName, mlpLoader(fileName));
+	}
+	
+
+	/**
+	 * Get the shared libsvm model saved in the given file.
+	 * 
+	 * @param fileName
+	 *            File the SVM model was saved to
+	 * @return The shared SVM model
+	 * @throws IOException
+	 *             If the model cannot be loaded
+	 */
+	public static svm_model getSVMModel(final String fileName)
+	        throws IOException {
+		return getModel(S_SVM_PREFIX + fileName, new IModelLoader<svm_model>() {
+			
+			public svm_model load() throws Exception {
+				return svm.svm_load_model(fileName);
+			}
+		});
+	}
+	
+
+	/**
+	 * Get the path of a file in the model directory given by
+	 * {@link LadderConfig#MODEL_CONFIG_KEY}.
+	 * 
+	 * @param name
+	 *            Name of the file in the model directory
+	 * @return Path of the file
+	 */
+	public static String getModelFile(String name) {
+		return LadderConfig.getProperty(LadderConfig.MODEL_CONFIG_KEY) + "/"
+		       + name;
+	}
+	
+
+	/**
+	 * Get the load statistics for the model with the given key.
+	 * 
+	 * @param key
+	 *            Key of the model
+	 * @return The statistics, or null if the model has never been asked for
+	 */
+	public static ModelStats getStats(String key) {
+		ModelEntry entry = S_MODELS.get(key);
+		return (entry == null) ? null : entry.getStats();
+	}
+	
+
+	/**
+	 * Get the load statistics for every model that has been asked for, sorted
+	 * by key.
+	 * 
+	 * @return The statistics of all the models
+	 */
+	public static List<ModelStats> getAllStats() {
+		List<ModelStats> stats = new ArrayList<ModelStats>();
+		for (ModelEntry entry : S_MODELS.values()) {
+			stats.add(entry.getStats());
+		}
+		Collections.sort(stats, new Comparator<ModelStats>() {
+			
+			public int compare(ModelStats s1, ModelStats s2) {
+				return s1.getKey().compareTo(s2.getKey());
+			}
+		});
+		return stats;
+	}
+	
+
+	/**
+	 * Forget the model with the given key, so it is loaded again the next
+	 * time it is asked for. Recognizers already holding the model keep it.
+	 * 
+	 * @param key
+	 *            Key of the model
+	 */
+	public static void remove(String key) {
+		S_MODELS.remove(key);
+	}
+	
+
+	/**
+	 * Forget all the models
+	 */
+	public static void clear() {
+		S_MODELS.clear();
+	}
+	
+
+	/**
+	 * Get the entry for the key, adding a new one that will use the loader if
+	 * there is none.
+	 * 
+	 * @param key
+	 *            Key of the model
+	 * @param loader
+	 *            Loads the model
+	 * @return The entry for the key
+	 */
+	private static ModelEntry getEntry(String key, IModelLoader<?> loader) {
+		if (key == null) {
+			throw new NullPointerException("Model key cannot be null");
+		}
+		
+		ModelEntry entry = S_MODELS.get(key);
+		if (entry == null) {
+			ModelEntry newEntry = new ModelEntry(key, loader);
+			entry = S_MODELS.putIfAbsent(key, newEntry);
+			if (entry == null) {
+				entry = newEntry;
+			}
+		}
+		return entry;
+	}
+	
+
+	/**
+	 * Loader for a Weka MLP serialized to a file
+	 * 
+	 * @param fileName
+	 *            File the MLP was serialized to
+	 * @return The loader
+	 */
+	private static IModelLoader<MultilayerPerceptron> mlpLoader(
+	        final String fileName) {
+		return new IModelLoader<MultilayerPerceptron>() {
+			
+			public MultilayerPerceptron load() throws Exception {
+				return (MultilayerPerceptron) weka.core.SerializationHelper
+				        .read(fileName);
+			}
+		};
+	}
+	
+
+	/**
+	 * Background thread for warming up models, created the first time it is
+	 * needed.
+	 * 
+	 * @return The warm-up thread pool
+	 */
+	private static synchronized ThreadPoolExecutor getWarmUpPool() {
+		if (S_WARM_UP_POOL == null) {
+			S_WARM_UP_POOL = new ThreadPoolExecutor(1, 1, S_WORKER_KEEP_ALIVE,
+			        TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(),
+			        new ThreadFactory() {
+				        
+				        public Thread newThread(Runnable r) {
+					        Thread thread = new Thread(r, "ModelWarmUp");
+					        thread.setDaemon(true);
+					        return thread;
+				        }
+			        });
+			S_WARM_UP_POOL.allowCoreThreadTimeOut(true);
+		}
+		return S_WARM_UP_POOL;
+	}
+	
+
+	/**
+	 * Estimate how much memory a model takes. Serializable models are
+	 * measured by the size of their serialized form, which means writing the
+	 * whole model out once. Others are measured by how much the heap grew
+	 * while they loaded, which is only a rough guess when other threads are
+	 * busy.
+	 * 
+	 * @param model
+	 *            The loaded model
+	 * @param heapGrowth
+	 *            How much the heap grew while the model loaded
+	 * @return Approximate size of the model, in bytes
+	 */
+	private static long estimateSize(Object model, long heapGrowth) {
+		if (model instanceof Serializable) {
+			CountingOutputStream counter = new CountingOutputStream();
+			try {
+				ObjectOutputStream out = new ObjectOutputStream(counter);
+				out.writeObject(model);
+				out.close();
+				return counter.m_count;
+			}
+			catch (IOException e) {
+				// fall back to the heap
+			}
+		}
+		return Math.max(0, heapGrowth);
+	}
+	
+
+	/**
+	 * @return Bytes of heap currently in use
+	 */
+	private static long usedHeap() {
+		Runtime runtime = Runtime.getRuntime();
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+	
+
+	/**
+	 * Load statistics for one model
+	 */
+	public static class ModelStats {
+		
+		/**
+		 * Key of the model
+		 */
+		private final String m_key;
+		
+		/**
+		 * Whether the model is loaded
+		 */
+		private final boolean m_loaded;
+		
+		/**
+		 * Time it took to load the model, in milliseconds
+		 */
+		private final long m_loadTime;
+		
+		/**
+		 * Approximate size of the model, in bytes
+		 */
+		private final long m_size;
+		
+		
+		/**
+		 * Create the statistics for a model
+		 * 
+		 * @param key
+		 *            Key of the model
+		 * @param loaded
+		 *            Whether the model is loaded
+		 * @param loadTime
+		 *            Load time, in milliseconds
+		 * @param size
+		 *            Approximate size, in bytes
+		 */
+		private ModelStats(String key, boolean loaded, long loadTime,
+		        long size) {
+			m_key = key;
+			m_loaded = loaded;
+			m_loadTime = loadTime;
+			m_size = size;
+		}
+		
+
+		/**
+		 * @return Key of the model
+		 */
+		public String getKey() {
+			return m_key;
+		}
+		
+
+		/**
+		 * @return True if the model has finished loading
+		 */
+		public boolean isLoaded() {
+			return m_loaded;
+		}
+		
+
+		/**
+		 * @return Time it took to load the model in milliseconds, -1 if it is
+		 *         not loaded
+		 */
+		public long getLoadTime() {
+			return m_loadTime;
+		}
+		
+
+		/**
+		 * @return Approximate size of the model in bytes, -1 if it is not
+		 *         loaded
+		 */
+		public long getSize() {
+			return m_size;
+		}
+		
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see java.lang.Object#toString()
+		 */
+		@Override
+		public String toString() {
+			if (!m_loaded) {
+				return m_key + ": not loaded";
+			}
+			return m_key + ": " + m_loadTime + " ms, " + m_size + " bytes";
+		}
+	}
+	
+
+	/**
+	 * A model that is loaded or loading. The load runs at most once, on
+	 * whichever thread gets to it first.
+	 */
+	private static class ModelEntry {
+		
+		/**
+		 * Key of the model
+		 */
+		private final String m_key;
+		
+		/**
+		 * Loads the model
+		 */
+		private final FutureTask<Object> m_task;
+		
+		/**
+		 * Load time, in milliseconds, -1 until loaded
+		 */
+		private volatile long m_loadTime = -1;
+		
+		/**
+		 * How much the heap grew during the load, in bytes
+		 */
+		private volatile long m_heapGrowth = -1;
+		
+		/**
+		 * Approximate size, in bytes, -1 until first asked for
+		 */
+		private volatile long m_size = -1;
+		
+		/**
+		 * Thread that ran the load, null until the load starts
+		 */
+		private volatile Thread m_loadThread = null;
+		
+		
+		/**
+		 * Create an entry that will load the model with the loader
+		 * 
+		 * @param key
+		 *            Key of the model
+		 * @param loader
+		 *            Loads the model
+		 */
+		public ModelEntry(final String key, final IModelLoader<?> loader) {
+			m_key = key;
+			m_task = new FutureTask<Object>(new Callable<Object>() {
+				
+				public Object call() throws Exception {
+					return load(loader);
+				}
+			});
+		}
+		
+
+		/**
+		 * Load the model and record how long it took. Its size is only
+		 * estimated when the stats are asked for.
+		 * 
+		 * @param loader
+		 *            Loads the model
+		 * @return The model
+		 * @throws Exception
+		 *             If the model cannot be loaded
+		 */
+		private Object load(IModelLoader<?> loader) throws Exception {
+			m_loadThread = Thread.currentThread();
+			long heapBefore = usedHeap();
+			long startTime = System.currentTimeMillis();
+			
+			Object model;
+			try {
+				model = loader.load();
+				if (model == null) {
+					throw new IOException("Loader returned no model");
+				}
+			}
+			catch (Exception e) {
+				log.error("Cannot load model " + m_key + ": " + e);
+				throw e;
+			}
+			
+			long loadTime = System.currentTimeMillis() - startTime;
+			m_heapGrowth = usedHeap() - heapBefore;
+			m_loadTime = loadTime;
+			m_loadThread = null;
+			
+			log.info("Loaded model " + m_key + " in " + loadTime + " ms");
+			return model;
+		}
+		
+
+		/**
+		 * Check whether the given thread ran the load of this model
+		 * 
+		 * @param thread
+		 *            Thread to check
+		 * @return True if the thread is running the load, or ran it and it
+		 *         failed
+		 */
+		public boolean isLoadedBy(Thread thread) {
+			return m_loadThread == thread;
+		}
+		
+
+		/**
+		 * Get the load statistics of the model. The size of a loaded model is
+		 * estimated the first time the stats are asked for.
+		 * 
+		 * @return The load statistics of the model
+		 */
+		public ModelStats getStats() {
+			long loadTime = m_loadTime;
+			boolean loaded = loadTime >= 0;
+			return new ModelStats(m_key, loaded, loadTime, loaded ? getSize()
+			        : -1);
+		}
+		
+
+		/**
+		 * Estimate the size of the loaded model, once
+		 * 
+		 * @return Approximate size, in bytes
+		 */
+		private long getSize() {
+			long size = m_size;
+			if (size < 0) {
+				try {
+					size = estimateSize(m_task.get(), m_heapGrowth);
+				}
+				catch (Exception e) {
+					// loaded, so the task cannot fail or block
+					size = Math.max(0, m_heapGrowth);
+				}
+				m_size = size;
+			}
+			return size;
+		}
+	}
+	
+
+	/**
+	 * Output stream that only counts the bytes written to it
+	 */
+	private static class CountingOutputStream extends OutputStream {
+		
+		/**
+		 * Bytes written so far
+		 */
+		private long m_count = 0;
+		
+		
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see java.io.OutputStream#write(int)
+		 */
+		@Override
+		public void write(int b) {
+			m_count++;
+		}
+		
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see java.io.OutputStream#write(byte[], int, int)
+		 */
+		@Override
+		public void write(byte[] b, int off, int len) {
+			m_count += len;
+		}
+	}
+}
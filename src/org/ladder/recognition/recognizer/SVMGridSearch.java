@@ -0,0 +1,349 @@
+/**
+ * SVMGridSearch.java
+ * 
+ * Revision History:<br>
+ * Oct 18, 2026 - File created
+ * 
+ * <p>
+ * 
+ * <pre>
+ * This work is released under the BSD License:
+ * (C) 2008 Sketch Recognition Lab, Texas A&amp;M University (hereafter SRL @ TAMU)
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the Sketch Recognition Lab, Texas A&amp;M University 
+ *       nor the names of its contributors may be used to endorse or promote 
+ *       products derived from this software without specific prior written 
+ *       permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY SRL @ TAMU ``AS IS'' AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL SRL @ TAMU BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ * </pre>
+ */
+package org.ladder.recognition.recognizer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+
+import libsvm.svm;
+import libsvm.svm_model;
+import libsvm.svm_node;
+import libsvm.svm_parameter;
+import libsvm.svm_problem;
+
+import org.apache.log4j.Logger;
+import org.ladder.core.config.WorkerPool;
+import org.ladder.core.logging.LadderLogger;
+
+/**
+ * Cross-validated grid search over the {@code C} and {@code gamma} parameters
+ * of an RBF SVM. Every (C, gamma, fold) combination is trained and tested on
+ * the shared {@link WorkerPool}.
+ * <p>
+ * Folds are stratified by class and shuffled with a seeded generator, and
+ * the results are added up after every job is done, so the same problem and
+ * seed always pick the same parameters. Ties go to the combination that comes
+ * first in the grid. The search trains without probability estimates, since
+ * only the predicted class is scored.
+ */
+public class SVMGridSearch {
+	
+	/**
+	 * Default number of cross-validation folds
+	 */
+	public static final int S_DEFAULT_NUM_FOLDS = 5;
+	
+	/**
+	 * Logger for this class
+	 */
+	private static final Logger log = LadderLogger
+	        .getLogger(SVMGridSearch.class);
+	
+	/**
+	 * Values of C to try
+	 */
+	private double[] m_cValues;
+	
+	/**
+	 * Values of gamma to try
+	 */
+	private double[] m_gammaValues;
+	
+	/**
+	 * Number of cross-validation folds
+	 */
+	private int m_numFolds = S_DEFAULT_NUM_FOLDS;
+	
+	/**
+	 * Seed for shuffling the examples into folds
+	 */
+	private long m_seed = 0;
+	
+	/**
+	 * Cross-validation accuracy of each (C, gamma) pair from the last search
+	 */
+	private double[][] m_accuracies;
+	
+	
+	/**
+	 * Create a grid search
+	 * 
+	 * @param cValues
+	 *            Values of C to try
+	 * @param gammaValues
+	 *            Values of gamma to try
+	 */
+	public SVMGridSearch(double[] cValues, double[] gammaValues) {
+		m_cValues = cValues.clone();
+		m_gammaValues = gammaValues.clone();
+	}
+	
+
+	/**
+	 * Get a grid of values spread evenly on a log scale around a center
+	 * value: center * factor^i for i from -steps to steps
+	 * 
+	 * @param center
+	 *            Value in the middle of the grid
+	 * @param factor
+	 *            Ratio between neighboring values
+	 * @param steps
+	 *            Number of values on each side of the center
+	 * @return The grid values, smallest first
+	 */
+	public static double[] around(double center, double factor, int steps) {
+		double[] values = new double[2 * steps + 1];
+		for (int i = -steps; i <= steps; i++) {
+			values[i + steps] = center * Math.pow(factor, i);
+		}
+		return values;
+	}
+	
+
+	/**
+	 * Set the number of cross-validation folds. The default is
+	 * {@link #S_DEFAULT_NUM_FOLDS}.
+	 * 
+	 * @param numFolds
+	 *            Number of folds, at least 2
+	 */
+	public void setNumFolds(int numFolds) {
+		m_numFolds = numFolds;
+	}
+	
+
+	/**
+	 * Set the seed for shuffling the examples into folds. The default is 0.
+	 * 
+	 * @param seed
+	 *            Seed for shuffling the examples
+	 */
+	public void setSeed(long seed) {
+		m_seed = seed;
+	}
+	
+
+	/**
+	 * Get the cross-validation accuracy of each (C, gamma) pair from the last
+	 * search, indexed by the positions of C and gamma in the grid
+	 * 
+	 * @return Accuracies, or null if nothing has been searched yet
+	 */
+	public double[][] getAccuracies() {
+		return m_accuracies;
+	}
+	
+
+	/**
+	 * Find the C and gamma with the best cross-validation accuracy on the
+	 * problem
+	 * 
+	 * @param prob
+	 *            Training problem
+	 * @param params
+	 *            Parameters to search from. Not changed.
+	 * @return A copy of the parameters with the best C and gamma
+	 */
+	public svm_parameter search(final svm_problem prob, svm_parameter params) {
+		
+		final svm_parameter searchParams = (svm_parameter) params.clone();
+		searchParams.probability = 0;
+		
+		final int[] folds = assignFolds(prob);
+		int numFolds = 0;
+		for (int fold : folds) {
+			numFolds = Math.max(numFolds, fold + 1);
+		}
+		
+		// Correct predictions of each job, added up once they are all done
+		final int numGamma = m_gammaValues.length;
+		final int[][] correct = new int[m_cValues.length * numGamma][numFolds];
+		
+		List<Callable<Object>> jobs = new ArrayList<Callable<Object>>();
+		for (int c = 0; c < m_cValues.length; c++) {
+			for (int g = 0; g < numGamma; g++) {
+				for (int f = 0; f < numFolds; f++) {
+					final int cell = c * numGamma + g;
+					final int fold = f;
+					final double cValue = m_cValues[c];
+					final double gammaValue = m_gammaValues[g];
+					jobs.add(new Callable<Object>() {
+						
+						public Object call() {
+							svm_parameter jobParams = (svm_parameter) searchParams
+							        .clone();
+							jobParams.C = cValue;
+							jobParams.gamma = gammaValue;
+							correct[cell][fold] = testFold(prob, folds, fold,
+							        jobParams);
+							return null;
+						}
+					});
+				}
+			}
+		}
+		
+		long start = System.currentTimeMillis();
+		WorkerPool.invokeAll(jobs);
+		
+		m_accuracies = new double[m_cValues.length][numGamma];
+		int bestC = 0;
+		int bestGamma = 0;
+		for (int c = 0; c < m_cValues.length; c++) {
+			for (int g = 0; g < numGamma; g++) {
+				int total = 0;
+				for (int f = 0; f < numFolds; f++) {
+					total += correct[c * numGamma + g][f];
+				}
+				m_accuracies[c][g] = prob.l > 0 ? (double) total / prob.l : 0;
+				if (m_accuracies[c][g] > m_accuracies[bestC][bestGamma]) {
+					bestC = c;
+					bestGamma = g;
+				}
+			}
+		}
+		
+		log.debug("Searched " + jobs.size() + " SVM fits in "
+		          + (System.currentTimeMillis() - start) + " ms, best C = "
+		          + m_cValues[bestC] + ", gamma = " + m_gammaValues[bestGamma]
+		          + ", accuracy = " + m_accuracies[bestC][bestGamma]);
+		
+		svm_parameter best = (svm_parameter) params.clone();
+		best.C = m_cValues[bestC];
+		best.gamma = m_gammaValues[bestGamma];
+		return best;
+	}
+	
+
+	/**
+	 * Put each example in a fold. Examples are shuffled, grouped by class and
+	 * dealt out to the folds in turn, so each fold gets about the same share
+	 * of every class.
+	 * 
+	 * @param prob
+	 *            Training problem
+	 * @return Fold of each example
+	 */
+	private int[] assignFolds(final svm_problem prob) {
+		
+		List<Integer> order = new ArrayList<Integer>();
+		for (int i = 0; i < prob.l; i++) {
+			order.add(i);
+		}
+		Collections.shuffle(order, new Random(m_seed));
+		
+		// Stable, so the shuffle survives within each class
+		Collections.sort(order, new Comparator<Integer>() {
+			
+			public int compare(Integer i1, Integer i2) {
+				return Double.compare(prob.y[i1], prob.y[i2]);
+			}
+		});
+		
+		int numFolds = Math.max(1, Math.min(m_numFolds, prob.l));
+		int[] folds = new int[prob.l];
+		for (int i = 0; i < order.size(); i++) {
+			folds[order.get(i)] = i % numFolds;
+		}
+		
+		return folds;
+	}
+	
+
+	/**
+	 * Train on every fold but one and count the correct predictions on the
+	 * fold left out
+	 * 
+	 * @param prob
+	 *            Training problem
+	 * @param folds
+	 *            Fold of each example
+	 * @param fold
+	 *            Fold to leave out
+	 * @param params
+	 *            Parameters to train with
+	 * @return Number of examples in the fold predicted correctly
+	 */
+	private static int testFold(svm_problem prob, int[] folds, int fold,
+	        svm_parameter params) {
+		
+		int numTrain = 0;
+		for (int f : folds) {
+			if (f != fold) {
+				numTrain++;
+			}
+		}
+		
+		// With one fold there is nothing left to train on but itself
+		boolean testOnTraining = numTrain == 0;
+		if (testOnTraining) {
+			numTrain = prob.l;
+		}
+		
+		svm_problem train = new svm_problem();
+		train.l = numTrain;
+		train.x = new svm_node[numTrain][];
+		train.y = new double[numTrain];
+		int t = 0;
+		for (int i = 0; i < prob.l; i++) {
+			if (testOnTraining || folds[i] != fold) {
+				train.x[t] = prob.x[i];
+				train.y[t] = prob.y[i];
+				t++;
+			}
+		}
+		
+		svm_model model = svm.svm_train(train, params);
+		
+		int correct = 0;
+		for (int i = 0; i < prob.l; i++) {
+			if (folds[i] == fold
+			    && svm.svm_predict(model, prob.x[i]) == prob.y[i]) {
+				correct++;
+			}
+		}
+		
+		return correct;
+	}
+	
+
+
+}
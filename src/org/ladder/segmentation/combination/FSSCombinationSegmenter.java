@@ -3,17 +3,27 @@ package org.ladder.segmentation.combination;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
-
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.apache.log4j.Logger;
+import org.ladder.core.config.WorkerPool;
+import org.ladder.core.logging.LadderLogger;
 import org.ladder.core.sketch.ISegmentation;
 import org.ladder.core.sketch.ISegmenter;
 import org.ladder.core.sketch.IStroke;
 import org.ladder.core.sketch.InvalidParametersException;
 import org.ladder.segmentation.AbstractSegmenter;
+import org.ladder.segmentation.combination.objectiveFunctions.IIncrementalObjectiveFunction;
 import org.ladder.segmentation.combination.objectiveFunctions.IObjectiveFunction;
 import org.ladder.segmentation.combination.objectiveFunctions.PolylineMSEObjectiveFunction;
 import org.ladder.segmentation.douglaspeucker.DouglasPeuckerSegmenter;
 import org.ladder.segmentation.kimSquared.KimSquaredSegmenter;
-import org.ladder.segmentation.mergecf.MergeCFSegmenter;
 import org.ladder.segmentation.paleo.PaleoSegmenter;
 import org.ladder.segmentation.sezgin.SezginSegmenter;
 import org.ladder.segmentation.shortstraw.ShortStrawSegmenter;
@@ -21,6 +31,12 @@ import org.ladder.segmentation.shortstraw.ShortStrawSegmenter;
 /**
  * Feature subset selection corner finding combination algorithm. Uses corners
  * as features with five possible algorithms: SFS, SBS, SFFS, and SBFS.
+ * <p>
+ * The initial corners come from an ensemble of corner finders that run in
+ * parallel on the {@link WorkerPool} threads. By default every finder runs to
+ * completion, so the corners do not depend on the number of threads. If an
+ * ensemble time budget is set, finders that haven't completed when it runs
+ * out are cancelled, and the corners found so far are used.
  * 
  * @author awolin
  */
@@ -56,11 +72,23 @@ public class FSSCombinationSegmenter extends AbstractSegmenter implements
 		SBFS
 	}
 
+	/**
+	 * Logger for this class
+	 */
+	private static final Logger log = LadderLogger
+			.getLogger(FSSCombinationSegmenter.class);
+
 	/**
 	 * Segmenter name
 	 */
 	private static final String S_SEGMENTER_NAME = "FSS Combination Segmenter";
 
+	/**
+	 * Default time budget for finding the initial corners, in milliseconds.
+	 * Negative means no limit.
+	 */
+	public static final long S_DEFAULT_ENSEMBLE_TIME_BUDGET = -1;
+
 	/**
 	 * SBFS threshold
 	 */
@@ -111,6 +139,12 @@ public class FSSCombinationSegmenter extends AbstractSegmenter implements
 	 */
 	private boolean m_useSmoothing;
 
+	/**
+	 * Time budget for finding the initial corners, in milliseconds. Negative
+	 * means no limit.
+	 */
+	private long m_ensembleTimeBudget = S_DEFAULT_ENSEMBLE_TIME_BUDGET;
+
 	/**
 	 * Default constructor
 	 */
@@ -201,6 +235,26 @@ public class FSSCombinationSegmenter extends AbstractSegmenter implements
 		m_stroke = stroke;
 	}
 
+	/**
+	 * Get the time budget for finding the initial corners
+	 * 
+	 * @return Time budget in milliseconds, negative for no limit
+	 */
+	public long getEnsembleTimeBudget() {
+		return m_ensembleTimeBudget;
+	}
+
+	/**
+	 * Set the time budget for finding the initial corners. Corner finders that
+	 * have not finished when the budget runs out are cancelled.
+	 * 
+	 * @param ensembleTimeBudget
+	 *            Time budget in milliseconds, negative for no limit
+	 */
+	public void setEnsembleTimeBudget(long ensembleTimeBudget) {
+		m_ensembleTimeBudget = ensembleTimeBudget;
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * 
@@ -268,61 +322,142 @@ public class FSSCombinationSegmenter extends AbstractSegmenter implements
 
 	/**
 	 * Gets a set of initial corners to use in conjunction with the FSS
-	 * algorithm.
+	 * algorithm. The corner finders in the ensemble run on the shared worker
+	 * pool, and their corners are merged in ensemble order.
 	 * 
-	 * @return an initial corner set
+	 * @return an initial corner set, sorted and without duplicates
 	 * @throws InvalidParametersException
 	 *             if a segmenter has not received the proper input.
 	 */
 	private List<Integer> getInitialCorners() throws InvalidParametersException {
 
-		List<Integer> allCorners = new ArrayList<Integer>();
-
-		ISegmenter segmenter;
-
-		// ShortStraw
-		segmenter = new ShortStrawSegmenter(m_stroke);
-		List<ISegmentation> shortStrawSegs = segmenter.getSegmentations();
-		allCorners.addAll(getCornersFromSegmentations(shortStrawSegs));
-
-		// MergeCF
-		segmenter = new MergeCFSegmenter(m_stroke);
-		List<ISegmentation> mergeCFSegs = segmenter.getSegmentations();
-		//allCorners.addAll(getCornersFromSegmentations(mergeCFSegs));
-
-		// Douglas-Peucker
-		segmenter = new DouglasPeuckerSegmenter(m_stroke);
-		List<ISegmentation> dpSegs = segmenter.getSegmentations();
-		allCorners.addAll(getCornersFromSegmentations(dpSegs));
-
-		// Paleo
-		segmenter = new PaleoSegmenter(m_useSmoothing);
-		segmenter.setStroke(m_stroke);
-		List<ISegmentation> paleoSegs = segmenter.getSegmentations();
-		allCorners.addAll(getCornersFromSegmentations(paleoSegs));
-
-		// Sezgin
-		segmenter = new SezginSegmenter();
-		segmenter.setStroke(m_stroke);
-		List<ISegmentation> sezginSegs = segmenter.getSegmentations();
-		allCorners.addAll(getCornersFromSegmentations(sezginSegs));
-
-		// Kim
-		segmenter = new KimSquaredSegmenter();
-		segmenter.setStroke(m_stroke);
-		List<ISegmentation> kimSegs = segmenter.getSegmentations();
-		allCorners.addAll(getCornersFromSegmentations(kimSegs));
-
-		// Remove overlapping corners
-		Collections.sort(allCorners);
-		for (int i = 1; i < allCorners.size(); i++) {
-			if (allCorners.get(i).equals(allCorners.get(i - 1))) {
-				allCorners.remove(i);
-				i--;
+		SortedSet<Integer> allCorners = new TreeSet<Integer>();
+		List<ISegmenter> ensemble = getEnsemble();
+		long startTime = System.currentTimeMillis();
+
+		// not worth handing off to the workers
+		if (WorkerPool.runInline(ensemble.size())) {
+			for (ISegmenter segmenter : ensemble) {
+				if (isOverBudget(startTime)) {
+					log.info("Ran out of time finding initial corners after "
+							+ (System.currentTimeMillis() - startTime)
+							+ " ms, skipping " + segmenter.getName());
+					break;
+				}
+				allCorners.addAll(getCornersFromSegmentations(segmenter
+						.getSegmentations()));
+			}
+		} else {
+			// the stroke caches its bounding box and path length the first
+			// time they are asked for. Fill them before the workers share it.
+			m_stroke.getBoundingBox();
+			m_stroke.getPathLength();
+
+			List<Future<List<ISegmentation>>> futures = new ArrayList<Future<List<ISegmentation>>>(
+					ensemble.size());
+			for (final ISegmenter segmenter : ensemble) {
+				futures.add(WorkerPool
+						.submit(new Callable<List<ISegmentation>>() {
+
+							public List<ISegmentation> call()
+									throws InvalidParametersException {
+								return segmenter.getSegmentations();
+							}
+						}));
+			}
+
+			// collect in ensemble order. Once out of time, the finders that
+			// are already done are still used.
+			int numUsed = 0;
+			try {
+				for (Future<List<ISegmentation>> future : futures) {
+					List<ISegmentation> segmentations;
+					if (m_ensembleTimeBudget < 0) {
+						segmentations = future.get();
+					} else {
+						long remaining = m_ensembleTimeBudget
+								- (System.currentTimeMillis() - startTime);
+						try {
+							segmentations = future.get(Math.max(remaining, 0),
+									TimeUnit.MILLISECONDS);
+						} catch (TimeoutException e) {
+							continue;
+						}
+					}
+
+					allCorners.addAll(getCornersFromSegmentations(segmentations));
+					numUsed++;
+				}
+			} catch (InterruptedException e) {
+				// use what we have, but let the caller know
+				Thread.currentThread().interrupt();
+			} catch (ExecutionException e) {
+				if (e.getCause() instanceof InvalidParametersException) {
+					throw (InvalidParametersException) e.getCause();
+				}
+				throw WorkerPool.unwrap(e);
+			} finally {
+				for (Future<List<ISegmentation>> future : futures) {
+					future.cancel(true);
+				}
+			}
+
+			if (numUsed < futures.size()) {
+				log.info("Ran out of time finding initial corners after "
+						+ (System.currentTimeMillis() - startTime)
+						+ " ms, using " + numUsed + " of " + futures.size()
+						+ " corner finders");
 			}
 		}
 
-		return allCorners;
+		// nothing finished in time, fall back to the endpoints
+		if (allCorners.isEmpty()) {
+			allCorners.add(0);
+			allCorners.add(m_stroke.getNumPoints() - 1);
+		}
+
+		return new ArrayList<Integer>(allCorners);
+	}
+
+	/**
+	 * Get the corner finders whose corners are combined, each set up with the
+	 * stroke. MergeCF used to be run as well, but its corners were never
+	 * merged, so it is left out.
+	 * 
+	 * @return The corner finders to run
+	 */
+	private List<ISegmenter> getEnsemble() {
+
+		List<ISegmenter> ensemble = new ArrayList<ISegmenter>();
+
+		ensemble.add(new ShortStrawSegmenter(m_stroke));
+		ensemble.add(new DouglasPeuckerSegmenter(m_stroke));
+
+		ISegmenter paleo = new PaleoSegmenter(m_useSmoothing);
+		paleo.setStroke(m_stroke);
+		ensemble.add(paleo);
+
+		ISegmenter sezgin = new SezginSegmenter();
+		sezgin.setStroke(m_stroke);
+		ensemble.add(sezgin);
+
+		ISegmenter kim = new KimSquaredSegmenter();
+		kim.setStroke(m_stroke);
+		ensemble.add(kim);
+
+		return ensemble;
+	}
+
+	/**
+	 * Has finding the initial corners used up its time budget?
+	 * 
+	 * @param startTime
+	 *            Time the ensemble started
+	 * @return True if there is a budget and it has run out
+	 */
+	private boolean isOverBudget(long startTime) {
+		return m_ensembleTimeBudget >= 0
+				&& System.currentTimeMillis() - startTime >= m_ensembleTimeBudget;
 	}
 
 	/**
@@ -692,15 +827,28 @@ public class FSSCombinationSegmenter extends AbstractSegmenter implements
 		List<Double> errorValues = new ArrayList<Double>();
 		Collections.sort(cornerSubset);
 
+		// Score each added corner from the kept segment errors when we can
+		IIncrementalObjectiveFunction incremental = null;
+		if (objFunction instanceof IIncrementalObjectiveFunction) {
+			incremental = (IIncrementalObjectiveFunction) objFunction;
+		}
+
 		for (int i = 0; i < corners.size(); i++) {
 			Integer currCorner = corners.get(i);
 
-			if (!cornerSubset.contains(currCorner)) {
+			if (Collections.binarySearch(cornerSubset, currCorner) < 0) {
 
-				List<Integer> tempSubset = new ArrayList<Integer>(cornerSubset);
-				tempSubset.add(currCorner);
+				double value;
+				if (incremental != null) {
+					value = incremental.solveWithCorner(cornerSubset,
+							currCorner, stroke);
+				} else {
+					List<Integer> tempSubset = new ArrayList<Integer>(
+							cornerSubset);
+					tempSubset.add(currCorner);
 
-				double value = objFunction.solve(tempSubset, stroke);
+					value = objFunction.solve(tempSubset, stroke);
+				}
 				errorValues.add(value);
 			} else {
 				errorValues.add(Double.MAX_VALUE);
@@ -736,15 +884,28 @@ public class FSSCombinationSegmenter extends AbstractSegmenter implements
 		List<Double> errorValues = new ArrayList<Double>();
 		Collections.sort(cornerSubset);
 
+		// Score each removed corner from the kept segment errors when we can
+		IIncrementalObjectiveFunction incremental = null;
+		if (objFunction instanceof IIncrementalObjectiveFunction) {
+			incremental = (IIncrementalObjectiveFunction) objFunction;
+		}
+
 		for (int i = 0; i < cornerSubset.size(); i++) {
 			Integer currCorner = cornerSubset.get(i);
 
 			if (currCorner != 0 && currCorner != stroke.getNumPoints() - 1) {
 
-				List<Integer> tempSubset = new ArrayList<Integer>(cornerSubset);
-				tempSubset.remove(currCorner);
+				double value;
+				if (incremental != null) {
+					value = incremental.solveWithoutCorner(cornerSubset, i,
+							stroke);
+				} else {
+					List<Integer> tempSubset = new ArrayList<Integer>(
+							cornerSubset);
+					tempSubset.remove(currCorner);
 
-				double value = objFunction.solve(tempSubset, stroke);
+					value = objFunction.solve(tempSubset, stroke);
+				}
 				errorValues.add(value);
 			} else {
 				errorValues.add(Double.MAX_VALUE);
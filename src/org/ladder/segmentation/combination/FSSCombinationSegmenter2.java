@@ -9,6 +9,7 @@ import org.ladder.core.sketch.ISegmenter;
 import org.ladder.core.sketch.IStroke;
 import org.ladder.core.sketch.InvalidParametersException;
 import org.ladder.segmentation.AbstractSegmenter;
+import org.ladder.segmentation.combination.objectiveFunctions.IIncrementalObjectiveFunction;
 import org.ladder.segmentation.combination.objectiveFunctions.IObjectiveFunction;
 import org.ladder.segmentation.combination.objectiveFunctions.PolylineMSEObjectiveFunction;
 import org.ladder.segmentation.douglaspeucker.DouglasPeuckerSegmenter;
@@ -722,15 +723,29 @@ public class FSSCombinationSegmenter2 extends AbstractSegmenter implements
 		List<Double> errorValues = new ArrayList<Double>();
 		Collections.sort(cornerSubset);
 		
+		// Score each added corner from the kept segment errors when we can
+		IIncrementalObjectiveFunction incremental = null;
+		if (objFunction instanceof IIncrementalObjectiveFunction) {
+			incremental = (IIncrementalObjectiveFunction) objFunction;
+		}
+		
 		for (int i = 0; i < corners.size(); i++) {
 			Integer currCorner = corners.get(i);
 			
-			if (!cornerSubset.contains(currCorner)) {
-				
-				List<Integer> tempSubset = new ArrayList<Integer>(cornerSubset);
-				tempSubset.add(currCorner);
+			if (Collections.binarySearch(cornerSubset, currCorner) < 0) {
 				
-				double value = objFunction.solve(tempSubset, stroke);
+				double value;
+				if (incremental != null) {
+					value = incremental.solveWithCorner(cornerSubset,
+					        currCorner, stroke);
+				}
+				else {
+					List<Integer> tempSubset = new ArrayList<Integer>(
+					        cornerSubset);
+					tempSubset.add(currCorner);
+					
+					value = objFunction.solve(tempSubset, stroke);
+				}
 				errorValues.add(value);
 			}
 			else {
@@ -768,15 +783,29 @@ public class FSSCombinationSegmenter2 extends AbstractSegmenter implements
 		List<Double> errorValues = new ArrayList<Double>();
 		Collections.sort(cornerSubset);
 		
+		// Score each removed corner from the kept segment errors when we can
+		IIncrementalObjectiveFunction incremental = null;
+		if (objFunction instanceof IIncrementalObjectiveFunction) {
+			incremental = (IIncrementalObjectiveFunction) objFunction;
+		}
+		
 		for (int i = 0; i < cornerSubset.size(); i++) {
 			Integer currCorner = cornerSubset.get(i);
 			
 			if (currCorner != 0 && currCorner != stroke.getNumPoints() - 1) {
 				
-				List<Integer> tempSubset = new ArrayList<Integer>(cornerSubset);
-				tempSubset.remove(currCorner);
-				
-				double value = objFunction.solve(tempSubset, stroke);
+				double value;
+				if (incremental != null) {
+					value = incremental.solveWithoutCorner(cornerSubset, i,
+					        stroke);
+				}
+				else {
+					List<Integer> tempSubset = new ArrayList<Integer>(
+					        cornerSubset);
+					tempSubset.remove(currCorner);
+					
+					value = objFunction.solve(tempSubset, stroke);
+				}
 				errorValues.add(value);
 			}
 			else {
@@ -0,0 +1,246 @@
+package org.ladder.segmentation.combination.objectiveFunctions;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.ladder.core.sketch.IStroke;
+
+/**
+ * Objective function that sums an error over the segments between
+ * consecutive corners. The error of each segment only depends on its two
+ * corners, so it is computed once per stroke and kept. Adding or removing a
+ * corner changes at most two segments, and scoring the new subset costs the
+ * error of the new segments plus a lookup for each of the others.
+ * <p>
+ * Segment errors are added up in corner order, the same as scoring each
+ * subset from scratch, so the values do not change.
+ * <p>
+ * The kept errors are dropped when a different stroke, or a stroke with a
+ * different number of points, is solved. This class is not thread safe.
+ */
+public abstract class AbstractSegmentObjectiveFunction implements
+        IIncrementalObjectiveFunction {
+	
+	/**
+	 * Stroke the segment errors are for
+	 */
+	private IStroke m_stroke = null;
+	
+	/**
+	 * Number of points in the stroke when the segment errors were computed
+	 */
+	private int m_numPoints = -1;
+	
+	/**
+	 * Error of each segment computed so far, keyed by
+	 * {@link #segmentKey(int, int)}
+	 */
+	private Map<Long, Double> m_segmentErrors = new HashMap<Long, Double>();
+	
+	/**
+	 * Corners being scored, reused between calls
+	 */
+	private int[] m_sequence = new int[0];
+	
+	
+	/**
+	 * Compute the error of the segment of the stroke between two corners
+	 * 
+	 * @param stroke
+	 *            Stroke that contains the segment
+	 * @param start
+	 *            Index of the first corner
+	 * @param end
+	 *            Index of the second corner
+	 * @return Error of the segment
+	 */
+	protected abstract double segmentError(IStroke stroke, int start, int end);
+	
+
+	/**
+	 * Turn the summed segment errors into the value of the objective
+	 * function. By default the sum is the value.
+	 * 
+	 * @param totalError
+	 *            Sum of the segment errors
+	 * @param numSegmentPoints
+	 *            Number of points in the segments, not counting the last
+	 *            corner
+	 * @param stroke
+	 *            Stroke that contains the segments
+	 * @return Value of the objective function
+	 */
+	protected double normalize(double totalError, int numSegmentPoints,
+	        IStroke stroke) {
+		return totalError;
+	}
+	
+
+	/**
+	 * Called when segment errors start being computed for a new stroke, to set
+	 * up anything the errors need. Does nothing by default.
+	 * 
+	 * @param stroke
+	 *            The new stroke
+	 */
+	protected void prepare(IStroke stroke) {
+		// Do nothing
+	}
+	
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * org.ladder.segmentation.combination.objectiveFunctions.IObjectiveFunction
+	 * #solve(java.util.List, org.ladder.core.sketch.IStroke)
+	 */
+	public double solve(List<Integer> corners, IStroke stroke) {
+		
+		Collections.sort(corners);
+		useStroke(stroke);
+		
+		int[] sequence = getSequence(corners.size());
+		for (int c = 0; c < corners.size(); c++) {
+			sequence[c] = corners.get(c);
+		}
+		
+		return solveSequence(corners.size());
+	}
+	
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @seeorg.ladder.segmentation.combination.objectiveFunctions.
+	 * IIncrementalObjectiveFunction#solveWithCorner(java.util.List, int,
+	 * org.ladder.core.sketch.IStroke)
+	 */
+	public double solveWithCorner(List<Integer> corners, int corner,
+	        IStroke stroke) {
+		
+		useStroke(stroke);
+		
+		int[] sequence = getSequence(corners.size() + 1);
+		int s = 0;
+		boolean added = false;
+		for (int c = 0; c < corners.size(); c++) {
+			int next = corners.get(c);
+			if (!added && corner < next) {
+				sequence[s++] = corner;
+				added = true;
+			}
+			sequence[s++] = next;
+		}
+		if (!added) {
+			sequence[s++] = corner;
+		}
+		
+		return solveSequence(s);
+	}
+	
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @seeorg.ladder.segmentation.combination.objectiveFunctions.
+	 * IIncrementalObjectiveFunction#solveWithoutCorner(java.util.List, int,
+	 * org.ladder.core.sketch.IStroke)
+	 */
+	public double solveWithoutCorner(List<Integer> corners, int index,
+	        IStroke stroke) {
+		
+		useStroke(stroke);
+		
+		int[] sequence = getSequence(corners.size());
+		int s = 0;
+		for (int c = 0; c < corners.size(); c++) {
+			if (c != index) {
+				sequence[s++] = corners.get(c);
+			}
+		}
+		
+		return solveSequence(s);
+	}
+	
+
+	/**
+	 * Sum the errors of the segments between the first corners in the
+	 * sequence
+	 * 
+	 * @param length
+	 *            Number of corners in the sequence
+	 * @return Value of the objective function
+	 */
+	private double solveSequence(int length) {
+		
+		double totalError = 0.0;
+		int numSegmentPoints = 0;
+		
+		for (int c = 1; c < length; c++) {
+			int start = m_sequence[c - 1];
+			int end = m_sequence[c];
+			
+			long key = segmentKey(start, end);
+			Double error = m_segmentErrors.get(key);
+			if (error == null) {
+				error = segmentError(m_stroke, start, end);
+				m_segmentErrors.put(key, error);
+			}
+			
+			totalError += error;
+			numSegmentPoints += end - start;
+		}
+		
+		return normalize(totalError, numSegmentPoints, m_stroke);
+	}
+	
+
+	/**
+	 * Start keeping segment errors for the stroke, dropping the old ones if it
+	 * is a different stroke
+	 * 
+	 * @param stroke
+	 *            Stroke being solved
+	 */
+	private void useStroke(IStroke stroke) {
+		if (stroke != m_stroke || stroke.getNumPoints() != m_numPoints) {
+			m_stroke = stroke;
+			m_numPoints = stroke.getNumPoints();
+			m_segmentErrors.clear();
+			prepare(stroke);
+		}
+	}
+	
+
+	/**
+	 * Get the reused corner sequence, big enough for the given number of
+	 * corners
+	 * 
+	 * @param length
+	 *            Number of corners
+	 * @return The corner sequence
+	 */
+	private int[] getSequence(int length) {
+		if (m_sequence.length < length) {
+			m_sequence = new int[length];
+		}
+		return m_sequence;
+	}
+	
+
+	/**
+	 * Key for the segment between two corners
+	 * 
+	 * @param start
+	 *            Index of the first corner
+	 * @param end
+	 *            Index of the second corner
+	 * @return Key unique to the segment
+	 */
+	private static long segmentKey(int start, int end) {
+		return ((long) start << 32) | (end & 0xffffffffL);
+	}
+}
@@ -0,0 +1,49 @@
+package org.ladder.segmentation.combination.objectiveFunctions;
+
+import java.util.List;
+
+import org.ladder.core.sketch.IStroke;
+
+/**
+ * Objective function that can score a corner subset with one corner added or
+ * removed without scoring the whole subset from scratch. The subset searches
+ * in the FSS segmenters only ever move one corner at a time, so they ask for
+ * these instead of building each neighboring subset and calling
+ * {@link #solve(List, IStroke)}.
+ * <p>
+ * Both methods must return exactly what {@link #solve(List, IStroke)} would
+ * return for the changed subset.
+ */
+public interface IIncrementalObjectiveFunction extends IObjectiveFunction {
+	
+	/**
+	 * Solve the objective function for the corners with one more corner
+	 * 
+	 * @param corners
+	 *            Corner indices of the stroke, sorted in ascending order. Not
+	 *            changed.
+	 * @param corner
+	 *            Corner index to add, not already in the corners
+	 * @param stroke
+	 *            Stroke to segment
+	 * @return Value of the objective function with the corner added
+	 */
+	public double solveWithCorner(List<Integer> corners, int corner,
+	        IStroke stroke);
+	
+
+	/**
+	 * Solve the objective function for the corners with one corner taken out
+	 * 
+	 * @param corners
+	 *            Corner indices of the stroke, sorted in ascending order. Not
+	 *            changed.
+	 * @param index
+	 *            Position in the corners of the corner to take out
+	 * @param stroke
+	 *            Stroke to segment
+	 * @return Value of the objective function with the corner removed
+	 */
+	public double solveWithoutCorner(List<Integer> corners, int index,
+	        IStroke stroke);
+}
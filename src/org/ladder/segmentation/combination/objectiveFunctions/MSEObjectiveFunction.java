@@ -2,7 +2,6 @@ package org.ladder.segmentation.combination.objectiveFunctions;
 
 import java.awt.geom.Line2D;
 import java.awt.geom.Rectangle2D;
-import java.util.Collections;
 import java.util.List;
 
 import org.ladder.core.sketch.IPoint;
@@ -19,13 +18,18 @@ import Jama.Matrix;
  * 
  * @author awolin
  */
-public class MSEObjectiveFunction implements IObjectiveFunction {
+public class MSEObjectiveFunction extends AbstractSegmentObjectiveFunction {
 
 	/**
 	 * Threshold for line tests
 	 */
 	private static final double S_LINETHRESHOLD = 0.95;
 
+	/**
+	 * Path length up to each point of the stroke being solved
+	 */
+	private double[] m_pathLengths;
+
 	/**
 	 * Default constructor
 	 */
@@ -57,50 +61,62 @@ public class MSEObjectiveFunction implements IObjectiveFunction {
 	/*
 	 * (non-Javadoc)
 	 * 
-	 * @see
-	 * org.ladder.segmentation.combination.objectiveFunctions.IObjectiveFunction
-	 * #solve(java.util.List, org.ladder.core.sketch.IStroke)
+	 * @seeorg.ladder.segmentation.combination.objectiveFunctions.
+	 * AbstractSegmentObjectiveFunction#prepare(org.ladder.core.sketch.IStroke)
 	 */
-	public double solve(List<Integer> corners, IStroke stroke) {
-
-		Collections.sort(corners);
-		double[] pathLengths = calcPathLengths(stroke);
-		double totalError = 0.0;
-
-		for (int c = 1; c < corners.size(); c++) {
+	@Override
+	protected void prepare(IStroke stroke) {
+		m_pathLengths = calcPathLengths(stroke);
+	}
 
-			List<IPoint> actualSegment = stroke.getPoints().subList(
-					corners.get(c - 1), corners.get(c));
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @seeorg.ladder.segmentation.combination.objectiveFunctions.
+	 * AbstractSegmentObjectiveFunction#segmentError(org.ladder.core.sketch.IStroke,
+	 * int, int)
+	 */
+	@Override
+	protected double segmentError(IStroke stroke, int start, int end) {
 
-			double err = 0.0;
+		List<IPoint> actualSegment = stroke.getPoints().subList(start, end);
 
-			if (isLine(corners.get(c - 1), corners.get(c), stroke, pathLengths,
-					S_LINETHRESHOLD)) {
+		double err = 0.0;
 
-				IPoint corner1 = stroke.getPoint(corners.get(c - 1));
-				IPoint corner2 = stroke.getPoint(corners.get(c));
+		if (isLine(start, end, stroke, m_pathLengths, S_LINETHRESHOLD)) {
 
-				Line2D.Double optimalLine = new Line2D.Double();
-				optimalLine.setLine(corner1.getX(), corner1.getY(), corner2
-						.getX(), corner2.getY());
+			IPoint corner1 = stroke.getPoint(start);
+			IPoint corner2 = stroke.getPoint(end);
 
-				double lineErr = LeastSquares.error(actualSegment, optimalLine);
+			Line2D.Double optimalLine = new Line2D.Double();
+			optimalLine.setLine(corner1.getX(), corner1.getY(), corner2
+					.getX(), corner2.getY());
 
-				err = lineErr;
-			} else {
+			double lineErr = LeastSquares.error(actualSegment, optimalLine);
 
-				double curveErr = curveFitError(actualSegment, 4);
-				double arcErr = arcOrthogonalDistanceSquared(actualSegment);
+			err = lineErr;
+		} else {
 
-				err = Math.min(curveErr, arcErr);
-			}
+			double curveErr = curveFitError(actualSegment, 4);
+			double arcErr = arcOrthogonalDistanceSquared(actualSegment);
 
-			totalError += err;
+			err = Math.min(curveErr, arcErr);
 		}
 
-		totalError = totalError / stroke.getNumPoints();
-		
-		return totalError;
+		return err;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @seeorg.ladder.segmentation.combination.objectiveFunctions.
+	 * AbstractSegmentObjectiveFunction#normalize(double, int,
+	 * org.ladder.core.sketch.IStroke)
+	 */
+	@Override
+	protected double normalize(double totalError, int numSegmentPoints,
+			IStroke stroke) {
+		return totalError / stroke.getNumPoints();
 	}
 
 	/**
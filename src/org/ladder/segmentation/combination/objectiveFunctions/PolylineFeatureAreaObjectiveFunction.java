@@ -1,7 +1,6 @@
 package org.ladder.segmentation.combination.objectiveFunctions;
 
 import java.awt.geom.Line2D;
-import java.util.Collections;
 import java.util.List;
 
 import org.ladder.core.sketch.IPoint;
@@ -14,7 +13,8 @@ import org.ladder.math.FeatureArea;
  * 
  * @author awolin
  */
-public class PolylineFeatureAreaObjectiveFunction implements IObjectiveFunction {
+public class PolylineFeatureAreaObjectiveFunction extends
+        AbstractSegmentObjectiveFunction {
 	
 	/**
 	 * Default constructor
@@ -27,30 +27,22 @@ public class PolylineFeatureAreaObjectiveFunction implements IObjectiveFunction
 	/*
 	 * (non-Javadoc)
 	 * 
-	 * @see
-	 * org.ladder.segmentation.combination.objectiveFunctions.IObjectiveFunction
-	 * #solve(java.util.List, org.ladder.core.sketch.IStroke)
+	 * @seeorg.ladder.segmentation.combination.objectiveFunctions.
+	 * AbstractSegmentObjectiveFunction#segmentError(org.ladder.core.sketch.IStroke,
+	 * int, int)
 	 */
-	public double solve(List<Integer> corners, IStroke stroke) {
+	@Override
+	protected double segmentError(IStroke stroke, int start, int end) {
 		
-		Collections.sort(corners);
-		double totalError = 0.0;
+		IPoint corner1 = stroke.getPoint(start);
+		IPoint corner2 = stroke.getPoint(end);
 		
-		for (int c = 1; c < corners.size(); c++) {
-			
-			IPoint corner1 = stroke.getPoint(corners.get(c - 1));
-			IPoint corner2 = stroke.getPoint(corners.get(c));
-			
-			Line2D.Double optimalLine = new Line2D.Double();
-			optimalLine.setLine(corner1.getX(), corner1.getY(), corner2.getX(),
-			        corner2.getY());
-			
-			List<IPoint> actualSegment = stroke.getPoints().subList(
-			        corners.get(c - 1), corners.get(c));
-			
-			totalError += FeatureArea.toLine(actualSegment, optimalLine);
-		}
+		Line2D.Double optimalLine = new Line2D.Double();
+		optimalLine.setLine(corner1.getX(), corner1.getY(), corner2.getX(),
+		        corner2.getY());
 		
-		return totalError;
+		List<IPoint> actualSegment = stroke.getPoints().subList(start, end);
+		
+		return FeatureArea.toLine(actualSegment, optimalLine);
 	}
 }
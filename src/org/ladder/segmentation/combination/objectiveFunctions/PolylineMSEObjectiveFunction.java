@@ -1,7 +1,6 @@
 package org.ladder.segmentation.combination.objectiveFunctions;
 
 import java.awt.geom.Line2D;
-import java.util.Collections;
 import java.util.List;
 
 import org.ladder.core.sketch.IPoint;
@@ -14,7 +13,8 @@ import org.ladder.math.LeastSquares;
  * 
  * @author awolin
  */
-public class PolylineMSEObjectiveFunction implements IObjectiveFunction {
+public class PolylineMSEObjectiveFunction extends
+        AbstractSegmentObjectiveFunction {
 	
 	/**
 	 * Default constructor
@@ -28,32 +28,37 @@ public class PolylineMSEObjectiveFunction implements IObjectiveFunction {
 	/*
 	 * (non-Javadoc)
 	 * 
-	 * @see
-	 * org.ladder.segmentation.combination.objectiveFunctions.IObjectiveFunction
-	 * #solve(java.util.List, org.ladder.core.sketch.IStroke)
+	 * @seeorg.ladder.segmentation.combination.objectiveFunctions.
+	 * AbstractSegmentObjectiveFunction#segmentError(org.ladder.core.sketch.IStroke,
+	 * int, int)
 	 */
-	public double solve(List<Integer> corners, IStroke stroke) {
+	@Override
+	protected double segmentError(IStroke stroke, int start, int end) {
 		
-		Collections.sort(corners);
-		double totalError = 0.0;
-		double numPoints = 0.0;
+		IPoint corner1 = stroke.getPoint(start);
+		IPoint corner2 = stroke.getPoint(end);
 		
-		for (int c = 1; c < corners.size(); c++) {
-			
-			IPoint corner1 = stroke.getPoint(corners.get(c - 1));
-			IPoint corner2 = stroke.getPoint(corners.get(c));
-			
-			Line2D.Double optimalLine = new Line2D.Double();
-			optimalLine.setLine(corner1.getX(), corner1.getY(), corner2.getX(),
-			        corner2.getY());
-			
-			List<IPoint> actualSegment = stroke.getPoints().subList(
-			        corners.get(c - 1), corners.get(c));
-			numPoints += actualSegment.size();
-			
-			totalError += LeastSquares.squaredError(actualSegment, optimalLine);
-			// totalError += LeastSquares.error(actualSegment, optimalLine);
-		}
+		Line2D.Double optimalLine = new Line2D.Double();
+		optimalLine.setLine(corner1.getX(), corner1.getY(), corner2.getX(),
+		        corner2.getY());
+		
+		List<IPoint> actualSegment = stroke.getPoints().subList(start, end);
+		
+		return LeastSquares.squaredError(actualSegment, optimalLine);
+		// return LeastSquares.error(actualSegment, optimalLine);
+	}
+	
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @seeorg.ladder.segmentation.combination.objectiveFunctions.
+	 * AbstractSegmentObjectiveFunction#normalize(double, int,
+	 * org.ladder.core.sketch.IStroke)
+	 */
+	@Override
+	protected double normalize(double totalError, int numSegmentPoints,
+	        IStroke stroke) {
 		
 		// Abs err threshold:
 		// Average threshold = 2.349464086146307
@@ -62,7 +67,7 @@ public class PolylineMSEObjectiveFunction implements IObjectiveFunction {
 		// Accuracy using unbiased threshold on entire dataset =
 		// 0.8703703703703703
 		
-		totalError = totalError / numPoints;
+		totalError = totalError / numSegmentPoints;
 		
 		// totalError = Math.sqrt(totalError);
 		
@@ -11,6 +11,7 @@ import org.ladder.core.sketch.IStroke;
 import org.ladder.core.sketch.InvalidParametersException;
 import org.ladder.core.sketch.Point;
 import org.ladder.core.sketch.Stroke;
+import org.ladder.segmentation.combination.objectiveFunctions.IIncrementalObjectiveFunction;
 import org.ladder.segmentation.combination.objectiveFunctions.IObjectiveFunction;
 import org.ladder.segmentation.combination.objectiveFunctions.PolylineMSEObjectiveFunction;
 import org.ladder.segmentation.sezgin.SezginSegmenter;
@@ -890,15 +891,28 @@ public class FSSSegmenter extends SezginSegmenter {
 		List<Double> errorValues = new ArrayList<Double>();
 		Collections.sort(cornerSubset);
 
+		// Score each added corner from the kept segment errors when we can
+		IIncrementalObjectiveFunction incremental = null;
+		if (objFunction instanceof IIncrementalObjectiveFunction) {
+			incremental = (IIncrementalObjectiveFunction) objFunction;
+		}
+
 		for (int i = 0; i < corners.size(); i++) {
 			Integer currCorner = corners.get(i);
 
-			if (!cornerSubset.contains(currCorner)) {
+			if (Collections.binarySearch(cornerSubset, currCorner) < 0) {
 
-				List<Integer> tempSubset = new ArrayList<Integer>(cornerSubset);
-				tempSubset.add(currCorner);
+				double value;
+				if (incremental != null) {
+					value = incremental.solveWithCorner(cornerSubset,
+							currCorner, stroke);
+				} else {
+					List<Integer> tempSubset = new ArrayList<Integer>(
+							cornerSubset);
+					tempSubset.add(currCorner);
 
-				double value = objFunction.solve(tempSubset, stroke);
+					value = objFunction.solve(tempSubset, stroke);
+				}
 				errorValues.add(value);
 			} else {
 				errorValues.add(Double.MAX_VALUE);
@@ -934,15 +948,28 @@ public class FSSSegmenter extends SezginSegmenter {
 		List<Double> errorValues = new ArrayList<Double>();
 		Collections.sort(cornerSubset);
 
+		// Score each removed corner from the kept segment errors when we can
+		IIncrementalObjectiveFunction incremental = null;
+		if (objFunction instanceof IIncrementalObjectiveFunction) {
+			incremental = (IIncrementalObjectiveFunction) objFunction;
+		}
+
 		for (int i = 0; i < cornerSubset.size(); i++) {
 			Integer currCorner = cornerSubset.get(i);
 
 			if (currCorner != 0 && currCorner != stroke.getNumPoints() - 1) {
 
-				List<Integer> tempSubset = new ArrayList<Integer>(cornerSubset);
-				tempSubset.remove(currCorner);
+				double value;
+				if (incremental != null) {
+					value = incremental.solveWithoutCorner(cornerSubset, i,
+							stroke);
+				} else {
+					List<Integer> tempSubset = new ArrayList<Integer>(
+							cornerSubset);
+					tempSubset.remove(currCorner);
 
-				double value = objFunction.solve(tempSubset, stroke);
+					value = objFunction.solve(tempSubset, stroke);
+				}
 				errorValues.add(value);
 			} else {
 				errorValues.add(Double.MAX_VALUE);
@@ -0,0 +1,225 @@
+/**
+ * BenchmarkData.java
+ * 
+ * Revision History:<br>
+ * Oct 18, 2026 - File created
+ * 
+ * <p>
+ * 
+ * <pre>
+ * This work is released under the BSD License:
+ * (C) 2008 Sketch Recognition Lab, Texas A&amp;M University (hereafter SRL @ TAMU)
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the Sketch Recognition Lab, Texas A&amp;M University 
+ *       nor the names of its contributors may be used to endorse or promote 
+ *       products derived from this software without specific prior written 
+ *       permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY SRL @ TAMU ``AS IS'' AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL SRL @ TAMU BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ * </pre>
+ */
+package test.benchmark.ladder;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.log4j.Logger;
+import org.ladder.core.config.LadderConfig;
+import org.ladder.core.logging.LadderLogger;
+import org.ladder.core.sketch.IShape;
+import org.ladder.core.sketch.ISketch;
+import org.ladder.core.sketch.IStroke;
+import org.ladder.io.DOMInput;
+import org.ladder.recognition.IRecognitionResult;
+import org.ladder.recognition.constraint.domains.DomainDefinition;
+import org.ladder.recognition.constraint.domains.compiler.DomainDefinitionCompiler;
+import org.ladder.recognition.constraint.domains.io.DomainDefinitionInputDOM;
+import org.ladder.recognition.paleo.OrigPaleoSketchRecognizer;
+import org.ladder.recognition.paleo.PaleoConfig;
+
+/**
+ * Loads the sketches and the domain the benchmarks run on. Sketches are read
+ * from every SRL XML file under the directories named by the
+ * {@link #SKETCH_DIRS_PROPERTY} system property (separated by the path
+ * separator), or under {@link #S_DEFAULT_SKETCH_DIRS} if it is not set. Files
+ * that are not sketches are skipped. The domain is the default domain from
+ * {@link LadderConfig}.
+ */
+public class BenchmarkData {
+	
+	/**
+	 * Logger for this class
+	 */
+	private static final Logger log = LadderLogger
+	        .getLogger(BenchmarkData.class);
+	
+	/**
+	 * System property naming the directories to read sketches from
+	 */
+	public static final String SKETCH_DIRS_PROPERTY = "benchmark.sketchDirs";
+	
+	/**
+	 * Directories sketches are read from by default
+	 */
+	public static final String[] S_DEFAULT_SKETCH_DIRS = { "testFiles",
+	        "deepGreenFiles", "collectionFiles" };
+	
+	
+	/**
+	 * All the methods are static
+	 */
+	private BenchmarkData() {
+		// nothing to do
+	}
+	
+
+	/**
+	 * Load every sketch under the sketch directories.
+	 * 
+	 * @return The sketches, never empty
+	 * @throws IllegalStateException
+	 *             If no sketches are found
+	 */
+	public static List<ISketch> loadSketches() {
+		String[] dirNames = S_DEFAULT_SKETCH_DIRS;
+		String prop = System.getProperty(SKETCH_DIRS_PROPERTY);
+		if (prop != null && prop.trim().length() > 0) {
+			dirNames = prop.trim().split(File.pathSeparator);
+		}
+		
+		List<File> files = new ArrayList<File>();
+		for (String dirName : dirNames) {
+			findSketchFiles(new File(dirName), files);
+		}
+		
+		DOMInput input = new DOMInput();
+		List<ISketch> sketches = new ArrayList<ISketch>();
+		for (File file : files) {
+			try {
+				ISketch sketch = input.parseDocument(file);
+				if (sketch != null && !sketch.getStrokes().isEmpty()) {
+					sketches.add(sketch);
+				}
+			}
+			catch (Exception e) {
+				log.debug("Skipping " + file + ", not a sketch: " + e);
+			}
+		}
+		
+		if (sketches.isEmpty()) {
+			throw new IllegalStateException("No sketches found under "
+			                                + Arrays.toString(dirNames));
+		}
+		log.info("Benchmarking on " + sketches.size() + " sketches");
+		return sketches;
+	}
+	
+
+	/**
+	 * Get the strokes of all the sketches
+	 * 
+	 * @param sketches
+	 *            The sketches
+	 * @return All the strokes with at least one point, in order
+	 */
+	public static List<IStroke> getStrokes(List<ISketch> sketches) {
+		List<IStroke> strokes = new ArrayList<IStroke>();
+		for (ISketch sketch : sketches) {
+			for (IStroke stroke : sketch.getStrokes()) {
+				if (stroke.getNumPoints() > 0) {
+					strokes.add(stroke);
+				}
+			}
+		}
+		return strokes;
+	}
+	
+
+	/**
+	 * Load and compile the default domain given by
+	 * {@link LadderConfig#DEFAULT_LOAD_DOMAIN_KEY}.
+	 * 
+	 * @return The compiled domain
+	 * @throws Exception
+	 *             If the domain cannot be read or compiled
+	 */
+	public static DomainDefinition loadDomain() throws Exception {
+		File domainFile = new File(LadderConfig
+		        .getProperty(LadderConfig.DOMAIN_DESC_LOC_KEY)
+		                           + LadderConfig
+		                                   .getProperty(LadderConfig.DEFAULT_LOAD_DOMAIN_KEY));
+		DomainDefinition domain = new DomainDefinitionInputDOM()
+		        .readDomainDefinitionFromFile(domainFile);
+		new DomainDefinitionCompiler(domain).compile();
+		return domain;
+	}
+	
+
+	/**
+	 * Recognize each stroke of the sketch with Paleo, to get the primitives
+	 * the high-level recognizers work on.
+	 * 
+	 * @param sketch
+	 *            The sketch
+	 * @return The best Paleo interpretation of each stroke
+	 */
+	public static List<IShape> recognizePrimitives(ISketch sketch) {
+		OrigPaleoSketchRecognizer paleo = new OrigPaleoSketchRecognizer(
+		        PaleoConfig.deepGreenConfig());
+		List<IShape> primitives = new ArrayList<IShape>();
+		for (IStroke stroke : sketch.getStrokes()) {
+			if (stroke.getNumPoints() == 0) {
+				continue;
+			}
+			paleo.submitForRecognition(stroke);
+			IRecognitionResult result = paleo.recognize();
+			if (result != null && result.getBestShape() != null) {
+				primitives.add(result.getBestShape());
+			}
+		}
+		return primitives;
+	}
+	
+
+	/**
+	 * Add all the XML files under the directory to the list
+	 * 
+	 * @param dir
+	 *            Directory to search
+	 * @param files
+	 *            List to add the files to
+	 */
+	private static void findSketchFiles(File dir, List<File> files) {
+		File[] children = dir.listFiles();
+		if (children == null) {
+			return;
+		}
+		Arrays.sort(children);
+		for (File child : children) {
+			if (child.isDirectory()) {
+				findSketchFiles(child, files);
+			}
+			else if (child.getName().toLowerCase().endsWith(".xml")) {
+				files.add(child);
+			}
+		}
+	}
+}
@@ -0,0 +1,129 @@
+/**
+ * CALVINBenchmark.java
+ * 
+ * Revision History:<br>
+ * Oct 18, 2026 - File created
+ * 
+ * <p>
+ * 
+ * <pre>
+ * This work is released under the BSD License:
+ * (C) 2008 Sketch Recognition Lab, Texas A&amp;M University (hereafter SRL @ TAMU)
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the Sketch Recognition Lab, Texas A&amp;M University 
+ *       nor the names of its contributors may be used to endorse or promote 
+ *       products derived from this software without specific prior written 
+ *       permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY SRL @ TAMU ``AS IS'' AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL SRL @ TAMU BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ * </pre>
+ */
+package test.benchmark.ladder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.ladder.core.sketch.IShape;
+import org.ladder.core.sketch.ISketch;
+import org.ladder.recognition.IRecognitionResult;
+import org.ladder.recognition.constraint.CALVIN;
+import org.ladder.recognition.recognizer.OverTimeException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Time for {@link CALVIN#recognizeTimed(long)} on one sketch. Before each
+ * operation the shape pools are cleared and the Paleo primitives of the next
+ * benchmark sketch are submitted, outside the timed part.
+ */
+@State(Scope.Thread)
+public class CALVINBenchmark {
+	
+	/**
+	 * Time CALVIN is allowed, in milliseconds. Sketches that run out of time
+	 * count as done at that point.
+	 */
+	@Param( { "60000" })
+	public long maxTime;
+	
+	/**
+	 * Paleo primitives of each sketch
+	 */
+	private List<List<IShape>> m_primitives;
+	
+	/**
+	 * Index of the next sketch
+	 */
+	private int m_next = 0;
+	
+	/**
+	 * The recognizer
+	 */
+	private CALVIN m_calvin;
+	
+	
+	/**
+	 * Load the domain, create CALVIN, and recognize the primitives of every
+	 * sketch
+	 * 
+	 * @throws Exception
+	 *             If the domain cannot be loaded
+	 */
+	@Setup
+	public void setUp() throws Exception {
+		m_calvin = new CALVIN(BenchmarkData.loadDomain());
+		m_primitives = new ArrayList<List<IShape>>();
+		for (ISketch sketch : BenchmarkData.loadSketches()) {
+			m_primitives.add(BenchmarkData.recognizePrimitives(sketch));
+		}
+	}
+	
+
+	/**
+	 * Submit the primitives of the next sketch
+	 */
+	@Setup(Level.Invocation)
+	public void submitSketch() {
+		m_calvin.clearShapes();
+		for (IShape primitive : m_primitives.get(m_next)) {
+			m_calvin.submitForRecognition(primitive);
+		}
+		m_next = (m_next + 1) % m_primitives.size();
+	}
+	
+
+	/**
+	 * Recognize the submitted sketch
+	 * 
+	 * @return The results, or null if CALVIN ran out of time
+	 */
+	@Benchmark
+	public List<IRecognitionResult> recognizeTimed() {
+		try {
+			return m_calvin.recognizeTimed(maxTime);
+		}
+		catch (OverTimeException e) {
+			return null;
+		}
+	}
+}
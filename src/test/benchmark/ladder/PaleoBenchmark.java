@@ -0,0 +1,96 @@
+/**
+ * PaleoBenchmark.java
+ * 
+ * Revision History:<br>
+ * Oct 18, 2026 - File created
+ * 
+ * <p>
+ * 
+ * <pre>
+ * This work is released under the BSD License:
+ * (C) 2008 Sketch Recognition Lab, Texas A&amp;M University (hereafter SRL @ TAMU)
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the Sketch Recognition Lab, Texas A&amp;M University 
+ *       nor the names of its contributors may be used to endorse or promote 
+ *       products derived from this software without specific prior written 
+ *       permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY SRL @ TAMU ``AS IS'' AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL SRL @ TAMU BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ * </pre>
+ */
+package test.benchmark.ladder;
+
+import java.util.List;
+
+import org.ladder.core.sketch.IStroke;
+import org.ladder.recognition.IRecognitionResult;
+import org.ladder.recognition.paleo.OrigPaleoSketchRecognizer;
+import org.ladder.recognition.paleo.PaleoConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Time for {@link OrigPaleoSketchRecognizer#recognize()} on one stroke, with
+ * the Deep Green configuration. Each operation takes the next stroke of the
+ * benchmark sketches.
+ */
+@State(Scope.Thread)
+public class PaleoBenchmark {
+	
+	/**
+	 * Strokes of the benchmark sketches
+	 */
+	private List<IStroke> m_strokes;
+	
+	/**
+	 * Index of the next stroke
+	 */
+	private int m_next = 0;
+	
+	/**
+	 * The recognizer
+	 */
+	private OrigPaleoSketchRecognizer m_paleo;
+	
+	
+	/**
+	 * Load the strokes and create the recognizer
+	 */
+	@Setup
+	public void setUp() {
+		m_strokes = BenchmarkData.getStrokes(BenchmarkData.loadSketches());
+		m_paleo = new OrigPaleoSketchRecognizer(PaleoConfig.deepGreenConfig());
+	}
+	
+
+	/**
+	 * Recognize the next stroke
+	 * 
+	 * @return The Paleo result
+	 */
+	@Benchmark
+	public IRecognitionResult recognize() {
+		IStroke stroke = m_strokes.get(m_next);
+		m_next = (m_next + 1) % m_strokes.size();
+		m_paleo.submitForRecognition(stroke);
+		return m_paleo.recognize();
+	}
+}
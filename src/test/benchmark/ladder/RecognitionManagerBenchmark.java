@@ -0,0 +1,125 @@
+/**
+ * RecognitionManagerBenchmark.java
+ * 
+ * Revision History:<br>
+ * Oct 18, 2026 - File created
+ * 
+ * <p>
+ * 
+ * <pre>
+ * This work is released under the BSD License:
+ * (C) 2008 Sketch Recognition Lab, Texas A&amp;M University (hereafter SRL @ TAMU)
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the Sketch Recognition Lab, Texas A&amp;M University 
+ *       nor the names of its contributors may be used to endorse or promote 
+ *       products derived from this software without specific prior written 
+ *       permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY SRL @ TAMU ``AS IS'' AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL SRL @ TAMU BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ * </pre>
+ */
+package test.benchmark.ladder;
+
+import java.util.List;
+
+import org.ladder.core.sketch.ISketch;
+import org.ladder.core.sketch.IStroke;
+import org.ladder.recognition.IRecognitionResult;
+import org.ladder.recognition.RecognitionManager;
+import org.ladder.recognition.recognizer.OverTimeException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Time for the whole recognition pipeline,
+ * {@link RecognitionManager#recognizeTimed(long)}, on one sketch. Before each
+ * operation the manager is cleared and the strokes of the next benchmark
+ * sketch are added, outside the timed part.
+ */
+@State(Scope.Thread)
+public class RecognitionManagerBenchmark {
+	
+	/**
+	 * Time recognition is allowed, in milliseconds. Sketches that run out of
+	 * time count as done at that point.
+	 */
+	@Param( { "60000" })
+	public long maxTime;
+	
+	/**
+	 * The benchmark sketches
+	 */
+	private List<ISketch> m_sketches;
+	
+	/**
+	 * Index of the next sketch
+	 */
+	private int m_next = 0;
+	
+	/**
+	 * The recognition manager
+	 */
+	private RecognitionManager m_manager;
+	
+	
+	/**
+	 * Load the domain and the sketches, and create the manager
+	 * 
+	 * @throws Exception
+	 *             If the domain cannot be loaded
+	 */
+	@Setup
+	public void setUp() throws Exception {
+		m_manager = new RecognitionManager(BenchmarkData.loadDomain());
+		m_sketches = BenchmarkData.loadSketches();
+	}
+	
+
+	/**
+	 * Add the strokes of the next sketch
+	 */
+	@Setup(Level.Invocation)
+	public void addSketch() {
+		m_manager.clear();
+		for (IStroke stroke : m_sketches.get(m_next).getStrokes()) {
+			m_manager.addStroke(stroke);
+		}
+		m_next = (m_next + 1) % m_sketches.size();
+	}
+	
+
+	/**
+	 * Recognize the added sketch
+	 * 
+	 * @return The results, or null if recognition ran out of time
+	 */
+	@Benchmark
+	public List<IRecognitionResult> recognizeTimed() {
+		try {
+			return m_manager.recognizeTimed(maxTime);
+		}
+		catch (OverTimeException e) {
+			return null;
+		}
+	}
+}
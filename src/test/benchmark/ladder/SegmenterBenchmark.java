@@ -0,0 +1,151 @@
+/**
+ * SegmenterBenchmark.java
+ * 
+ * Revision History:<br>
+ * Oct 18, 2026 - File created
+ * 
+ * <p>
+ * 
+ * <pre>
+ * This work is released under the BSD License:
+ * (C) 2008 Sketch Recognition Lab, Texas A&amp;M University (hereafter SRL @ TAMU)
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the Sketch Recognition Lab, Texas A&amp;M University 
+ *       nor the names of its contributors may be used to endorse or promote 
+ *       products derived from this software without specific prior written 
+ *       permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY SRL @ TAMU ``AS IS'' AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL SRL @ TAMU BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ * </pre>
+ */
+package test.benchmark.ladder;
+
+import java.lang.reflect.Constructor;
+import java.util.List;
+
+import org.ladder.core.sketch.ISegmentation;
+import org.ladder.core.sketch.ISegmenter;
+import org.ladder.core.sketch.IStroke;
+import org.ladder.recognition.paleo.StrokeFeatures;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Time for {@link ISegmenter#getSegmentations()} on one stroke, for each
+ * segmenter. Each operation takes the next stroke of the benchmark sketches.
+ * Segmenters that can only be built from {@link StrokeFeatures} have the
+ * feature computation included in their time.
+ * {@link org.ladder.segmentation.paleo.ComplexShapeSegmenterNN} is left out
+ * because it needs a trained recognizer.
+ */
+@State(Scope.Thread)
+public class SegmenterBenchmark {
+	
+	/**
+	 * Segmenter to time
+	 */
+	@Param( { "org.ladder.segmentation.douglaspeucker.DouglasPeuckerSegmenter",
+	        "org.ladder.segmentation.kimSquared.KimSquaredSegmenter",
+	        "org.ladder.segmentation.raySquared.RaySquaredSegmenter",
+	        "org.ladder.segmentation.shortstraw.ShortStrawSegmenter",
+	        "org.ladder.segmentation.sezgin.SezginSegmenter",
+	        "org.ladder.segmentation.stahovich.StahovichSegmenter",
+	        "org.ladder.segmentation.fssSegmenter.FSSSegmenter",
+	        "org.ladder.segmentation.mergecf.MergeCFSegmenter",
+	        "org.ladder.segmentation.mergecf.MergeCF_WithCurvesSegmenter",
+	        "org.ladder.segmentation.paleo.PaleoSegmenter",
+	        "org.ladder.segmentation.paleo.ComplexShapeSegmenter",
+	        "org.ladder.segmentation.paleo.GullSegmenter",
+	        "org.ladder.segmentation.paleo.RevolutionSegmenter",
+	        "org.ladder.segmentation.paleo.VSegmenter",
+	        "org.ladder.segmentation.paleo.WaveSegmenter",
+	        "org.ladder.segmentation.combination.FSSCombinationSegmenter",
+	        "org.ladder.segmentation.combination.FSSCombinationSegmenter2",
+	        "org.ladder.segmentation.combination.KDECombinationSegmenter",
+	        "org.ladder.segmentation.combination.KDEMergeSegmenter",
+	        "org.ladder.segmentation.combination.PolylineCombinationSegmenter" })
+	public String segmenter;
+	
+	/**
+	 * Strokes of the benchmark sketches
+	 */
+	private List<IStroke> m_strokes;
+	
+	/**
+	 * Index of the next stroke
+	 */
+	private int m_next = 0;
+	
+	/**
+	 * The segmenter, if it has a no-argument constructor
+	 */
+	private ISegmenter m_segmenter;
+	
+	/**
+	 * Constructor taking stroke features, if it has no no-argument one
+	 */
+	private Constructor<? extends ISegmenter> m_featuresConstructor;
+	
+	
+	/**
+	 * Load the strokes and find how to build the segmenter
+	 * 
+	 * @throws Exception
+	 *             If the segmenter cannot be built
+	 */
+	@Setup
+	public void setUp() throws Exception {
+		m_strokes = BenchmarkData.getStrokes(BenchmarkData.loadSketches());
+		
+		Class<? extends ISegmenter> segmenterClass = Class.forName(segmenter)
+		        .asSubclass(ISegmenter.class);
+		try {
+			m_segmenter = segmenterClass.getConstructor().newInstance();
+		}
+		catch (NoSuchMethodException e) {
+			m_featuresConstructor = segmenterClass
+			        .getConstructor(StrokeFeatures.class);
+		}
+	}
+	
+
+	/**
+	 * Segment the next stroke
+	 * 
+	 * @return The segmentations
+	 * @throws Exception
+	 *             If the segmenter fails
+	 */
+	@Benchmark
+	public List<ISegmentation> segment() throws Exception {
+		IStroke stroke = m_strokes.get(m_next);
+		m_next = (m_next + 1) % m_strokes.size();
+		
+		ISegmenter segmenter = m_segmenter;
+		if (segmenter == null) {
+			segmenter = m_featuresConstructor.newInstance(new StrokeFeatures(
+			        stroke, false));
+		}
+		segmenter.setStroke(stroke);
+		return segmenter.getSegmentations();
+	}
+}
@@ -0,0 +1,129 @@
+/**
+ * ShapeBuilderBenchmark.java
+ * 
+ * Revision History:<br>
+ * Oct 18, 2026 - File created
+ * 
+ * <p>
+ * 
+ * <pre>
+ * This work is released under the BSD License:
+ * (C) 2008 Sketch Recognition Lab, Texas A&amp;M University (hereafter SRL @ TAMU)
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the Sketch Recognition Lab, Texas A&amp;M University 
+ *       nor the names of its contributors may be used to endorse or promote 
+ *       products derived from this software without specific prior written 
+ *       permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY SRL @ TAMU ``AS IS'' AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL SRL @ TAMU BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ * </pre>
+ */
+package test.benchmark.ladder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.ladder.core.sketch.IShape;
+import org.ladder.core.sketch.ISketch;
+import org.ladder.recognition.constraint.builders.BuiltShape;
+import org.ladder.recognition.constraint.builders.ShapeBuildFailureException;
+import org.ladder.recognition.constraint.builders.ShapeBuilderTreeSearch;
+import org.ladder.recognition.constraint.domains.ShapeDefinition;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Time for {@link ShapeBuilderTreeSearch#buildShape(List, ShapeDefinition)}.
+ * Each operation tries to build the next shape definition of the domain from
+ * the Paleo primitives of one benchmark sketch, going through every
+ * definition for a sketch before moving on to the next sketch. Failed builds
+ * are part of the workload, as they are in CALVIN.
+ */
+@State(Scope.Thread)
+public class ShapeBuilderBenchmark {
+	
+	/**
+	 * Paleo primitives of each sketch
+	 */
+	private List<List<IShape>> m_pools;
+	
+	/**
+	 * Shape definitions of the domain
+	 */
+	private List<ShapeDefinition> m_shapeDefs;
+	
+	/**
+	 * Index of the next sketch
+	 */
+	private int m_nextPool = 0;
+	
+	/**
+	 * Index of the next shape definition
+	 */
+	private int m_nextShapeDef = 0;
+	
+	/**
+	 * The shape builder
+	 */
+	private ShapeBuilderTreeSearch m_builder;
+	
+	
+	/**
+	 * Load the domain, and recognize the primitives of every sketch
+	 * 
+	 * @throws Exception
+	 *             If the domain cannot be loaded
+	 */
+	@Setup
+	public void setUp() throws Exception {
+		m_shapeDefs = BenchmarkData.loadDomain().getShapeDefinitions();
+		m_pools = new ArrayList<List<IShape>>();
+		for (ISketch sketch : BenchmarkData.loadSketches()) {
+			m_pools.add(BenchmarkData.recognizePrimitives(sketch));
+		}
+		m_builder = new ShapeBuilderTreeSearch();
+	}
+	
+
+	/**
+	 * Try to build the next shape definition
+	 * 
+	 * @return The built shape, or null if it could not be built
+	 */
+	@Benchmark
+	public BuiltShape buildShape() {
+		List<IShape> pool = m_pools.get(m_nextPool);
+		ShapeDefinition shapeDef = m_shapeDefs.get(m_nextShapeDef);
+		
+		m_nextShapeDef++;
+		if (m_nextShapeDef == m_shapeDefs.size()) {
+			m_nextShapeDef = 0;
+			m_nextPool = (m_nextPool + 1) % m_pools.size();
+		}
+		
+		try {
+			return m_builder.buildShape(pool, shapeDef);
+		}
+		catch (ShapeBuildFailureException e) {
+			return null;
+		}
+	}
+}
@@ -1,8 +1,8 @@
 /**
- * ConstraintCache.java
+ * StrokeFeaturesBenchmark.java
  * 
  * Revision History:<br>
- * Sep 3, 2008 srl - File created
+ * Oct 18, 2026 - File created
  * 
  * <p>
  * 
@@ -10,7 +10,6 @@
  * This work is released under the BSD License:
  * (C) 2008 Sketch Recognition Lab, Texas A&amp;M University (hereafter SRL @ TAMU)
  * All rights reserved.
- * 
  * Redistribution and use in source and binary forms, with or without
  * modification, are permitted provided that the following conditions are met:
  *     * Redistributions of source code must retain the above copyright
@@ -35,56 +34,60 @@
  * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
  * </pre>
  */
-package org.ladder.recognition.constraint.builders;
+package test.benchmark.ladder;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.List;
 
-import org.ladder.core.sketch.IShape;
-import org.ladder.recognition.constraint.IConstraint;
+import org.ladder.core.sketch.IStroke;
+import org.ladder.recognition.paleo.StrokeFeatures;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
 
-public class ShapeConstraintCache {
-	private Map<IShape, Map<String, Double>> binaryConstraints = new HashMap<IShape, Map<String, Double>>();
-	private Map<String, Double> unaryConstraints = new HashMap<String, Double>();
-	
-	public ShapeConstraintCache() {
-		
-	}
-	
-	public double getConstraint(IShape s, String c) {
-		return binaryConstraints.get(s).get(c);
-	}
+/**
+ * Time to compute the {@link StrokeFeatures} of one stroke. Each operation
+ * takes the next stroke of the benchmark sketches.
+ */
+@State(Scope.Thread)
+public class StrokeFeaturesBenchmark {
 	
-	public double getConstraint(String c) {
-		return unaryConstraints.get(c);
-	}
+	/**
+	 * Whether the strokes are smoothed first
+	 */
+	@Param( { "false", "true" })
+	public boolean smooth;
 	
-	public void addConstraint(String c, double conf) {
-		unaryConstraints.put(c, conf);
-	}
+	/**
+	 * Strokes of the benchmark sketches
+	 */
+	private List<IStroke> m_strokes;
 	
-	public void addConstraint(IShape s, String c, double conf) {
-		if (binaryConstraints.containsKey(s)) {
-			binaryConstraints.get(s).put(c, conf);
-		} else {
-			binaryConstraints.put(s, new HashMap<String, Double>());
-			binaryConstraints.get(s).put(c, conf);
-		}
-	}
+	/**
+	 * Index of the next stroke
+	 */
+	private int m_next = 0;
 	
-	public boolean contains(String c) {
-		return unaryConstraints.containsKey(c);
-	}
 	
-	public boolean contains(IShape s) {
-		return binaryConstraints.containsKey(s);
+	/**
+	 * Load the strokes
+	 */
+	@Setup
+	public void setUp() {
+		m_strokes = BenchmarkData.getStrokes(BenchmarkData.loadSketches());
 	}
 	
-	public boolean contains(IShape s, String c) {
-		if (contains(s)) {
-			Map<String, Double> map = binaryConstraints.get(s);
-			return map.containsKey(c);
-		}
-		return false;
+
+	/**
+	 * Compute the features of the next stroke
+	 * 
+	 * @return The features
+	 */
+	@Benchmark
+	public StrokeFeatures strokeFeatures() {
+		IStroke stroke = m_strokes.get(m_next);
+		m_next = (m_next + 1) % m_strokes.size();
+		return new StrokeFeatures(stroke, smooth);
 	}
 }
@@ -0,0 +1,211 @@
+/**
+ * StrokeGrouperTest.java
+ * 
+ * Revision History:<br>
+ * Oct 18, 2026 - File created
+ * 
+ * <p>
+ * 
+ * <pre>
+ * This work is released under the BSD License:
+ * (C) 2008 Sketch Recognition Lab, Texas A&amp;M University (hereafter SRL @ TAMU)
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the Sketch Recognition Lab, Texas A&amp;M University 
+ *       nor the names of its contributors may be used to endorse or promote 
+ *       products derived from this software without specific prior written 
+ *       permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY SRL @ TAMU ``AS IS'' AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL SRL @ TAMU BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ * </pre>
+ */
+package test.unit.deepgreen;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+import org.ladder.core.sketch.IPoint;
+import org.ladder.core.sketch.IStroke;
+import org.ladder.core.sketch.Point;
+import org.ladder.core.sketch.Stroke;
+
+import test.unit.SlothTest;
+import edu.tamu.deepGreen.recognition.StrokeGrouper;
+
+/**
+ * Tests for {@link StrokeGrouper}.
+ */
+public class StrokeGrouperTest extends SlothTest {
+	
+	/**
+	 * Get a stroke through the given (x, y) pairs, starting at the given time
+	 * with 10 ms between points.
+	 */
+	private static IStroke stroke(long startTime, double... xy) {
+		List<IPoint> points = new ArrayList<IPoint>();
+		long time = startTime;
+		for (int i = 0; i + 3 < xy.length; i += 2) {
+			for (int j = 0; j < 10; j++) {
+				double t = j / 10.0;
+				double x = xy[i] + t * (xy[i + 2] - xy[i]);
+				double y = xy[i + 1] + t * (xy[i + 3] - xy[i + 1]);
+				points.add(new Point(x, y, time));
+				time += 10;
+			}
+		}
+		points.add(new Point(xy[xy.length - 2], xy[xy.length - 1], time));
+		return new Stroke(points);
+	}
+	
+
+	/**
+	 * Get a closed rectangular stroke
+	 */
+	private static IStroke rectangle(long startTime, double x, double y,
+	        double w, double h) {
+		return stroke(startTime, x, y, x + w, y, x + w, y + h, x, y + h, x, y);
+	}
+	
+
+	/**
+	 * Strokes drawn one after the other in the same place form one group.
+	 */
+	@Test
+	public void testTemporalGrouping() {
+		List<IStroke> strokes = new ArrayList<IStroke>();
+		strokes.add(stroke(0, 0, 0, 100, 0));
+		strokes.add(stroke(1000, 100, 5, 100, 100));
+		strokes.add(stroke(2000, 100, 105, 0, 105));
+		
+		List<List<IStroke>> groups = new StrokeGrouper().group(strokes);
+		
+		assertEquals(1, groups.size());
+		assertEquals(strokes, groups.get(0));
+	}
+	
+
+	/**
+	 * A long pause splits strokes, even if they are close.
+	 */
+	@Test
+	public void testPauseSplits() {
+		List<IStroke> strokes = new ArrayList<IStroke>();
+		strokes.add(stroke(0, 0, 0, 100, 0));
+		strokes.add(stroke(10000, 100, 5, 100, 100));
+		
+		assertEquals(2, new StrokeGrouper().group(strokes).size());
+	}
+	
+
+	/**
+	 * Text inside a closed frame is grouped with it, no matter when it was
+	 * written, but separate symbols are not grouped.
+	 */
+	@Test
+	public void testContainment() {
+		IStroke frame1 = rectangle(0, 0, 0, 200, 100);
+		IStroke frame2 = rectangle(1000, 1000, 0, 200, 100);
+		IStroke x1a = stroke(60000, 20, 20, 180, 80);
+		IStroke x1b = stroke(120000, 20, 80, 180, 20);
+		IStroke x2 = stroke(180000, 1020, 20, 1180, 80);
+		
+		List<IStroke> strokes = new ArrayList<IStroke>();
+		strokes.add(x2);
+		strokes.add(frame1);
+		strokes.add(x1a);
+		strokes.add(frame2);
+		strokes.add(x1b);
+		
+		List<List<IStroke>> groups = new StrokeGrouper().group(strokes);
+		
+		// ordered by the first stroke drawn, strokes kept in input order
+		assertEquals(2, groups.size());
+		assertEquals(3, groups.get(0).size());
+		assertEquals(frame1, groups.get(0).get(0));
+		assertEquals(x1a, groups.get(0).get(1));
+		assertEquals(x1b, groups.get(0).get(2));
+		assertEquals(2, groups.get(1).size());
+		assertEquals(x2, groups.get(1).get(0));
+		assertEquals(frame2, groups.get(1).get(1));
+	}
+	
+
+	/**
+	 * An open stroke drawn later across a symbol does not pull the symbol into
+	 * its group.
+	 */
+	@Test
+	public void testOpenStrokeDoesNotContain() {
+		List<IStroke> strokes = new ArrayList<IStroke>();
+		strokes.add(rectangle(0, 100, 100, 50, 30));
+		strokes.add(stroke(60000, 0, 0, 400, 300));
+		
+		assertEquals(2, new StrokeGrouper().group(strokes).size());
+	}
+	
+
+	/**
+	 * Every stroke ends up in exactly one group.
+	 */
+	@Test
+	public void testPartition() {
+		List<IStroke> strokes = new ArrayList<IStroke>();
+		for (int i = 0; i < 50; i++) {
+			double x = rand.nextDouble() * 2000;
+			double y = rand.nextDouble() * 2000;
+			double w = rand.nextDouble() * 100;
+			double h = rand.nextDouble() * 100;
+			strokes.add(stroke(i * 700, x, y, x + w, y + h));
+		}
+		
+		List<List<IStroke>> groups = new StrokeGrouper().group(strokes);
+		
+		List<IStroke> grouped = new ArrayList<IStroke>();
+		for (List<IStroke> group : groups) {
+			assertTrue(group.size() > 0);
+			grouped.addAll(group);
+		}
+		assertEquals(strokes.size(), grouped.size());
+		assertTrue(grouped.containsAll(strokes));
+	}
+	
+
+	/**
+	 * No strokes give no groups.
+	 */
+	@Test
+	public void testEmpty() {
+		List<List<IStroke>> groups = new StrokeGrouper()
+		        .group(new ArrayList<IStroke>());
+		
+		assertTrue(groups.isEmpty());
+	}
+	
+
+	/**
+	 * Null lists are not allowed.
+	 */
+	@Test(expected = NullPointerException.class)
+	public void testNull() {
+		new StrokeGrouper().group(null);
+	}
+}
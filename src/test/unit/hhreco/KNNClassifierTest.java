@@ -0,0 +1,383 @@
+/**
+ * KNNClassifierTest.java
+ * 
+ * Revision History:<br>
+ * Oct 18, 2026 - File created
+ * 
+ * <p>
+ * 
+ * <pre>
+ * This work is released under the BSD License:
+ * (C) 2008 Sketch Recognition Lab, Texas A&amp;M University (hereafter SRL @ TAMU)
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the Sketch Recognition Lab, Texas A&amp;M University 
+ *       nor the names of its contributors may be used to endorse or promote 
+ *       products derived from this software without specific prior written 
+ *       permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY SRL @ TAMU ``AS IS'' AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL SRL @ TAMU BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ * </pre>
+ */
+package test.unit.hhreco;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import hhreco.classification.Classification;
+import hhreco.classification.ClassifierException;
+import hhreco.classification.FeatureSet;
+import hhreco.classification.KNNClassifier;
+import hhreco.classification.TrainingSet;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+import test.unit.SlothTest;
+
+/**
+ * Test that the KD-tree search in {@link KNNClassifier} finds the same
+ * neighbors as comparing the query against every training example
+ */
+public class KNNClassifierTest extends SlothTest {
+	
+	/**
+	 * Relative tolerance on distances, the classifier keeps running means and
+	 * variances while the brute force search computes them in two passes
+	 */
+	private static final double S_TOLERANCE = 1e-9;
+	
+	/**
+	 * Number of features of the examples
+	 */
+	private static final int S_NUM_FEATURES = 4;
+	
+	
+	/**
+	 * Test random continuous data, with enough examples per type to split the
+	 * trees several times
+	 * 
+	 * @throws ClassifierException
+	 *             if the classifier cannot train or classify
+	 */
+	@Test
+	public void testMatchesBruteForce() throws ClassifierException {
+		Random random = new Random(19);
+		TrainingSet set = new TrainingSet();
+		Map<String, List<double[]>> data = new LinkedHashMap<String, List<double[]>>();
+		addExamples(set, data, random, 3, 200, false);
+		
+		for (int k : new int[] { 1, 5, 20 }) {
+			KNNClassifier knn = new KNNClassifier(k);
+			knn.train(set, S_NUM_FEATURES);
+			for (int q = 0; q < 50; q++) {
+				double[] query = randomExample(random, false);
+				assertSameNeighbors(bruteForce(data, query),
+				        knn.classify(new FeatureSet(query)), k);
+			}
+		}
+	}
+	
+
+	/**
+	 * Test data on a small grid, so that many examples are duplicates or at
+	 * the same distance from the query
+	 * 
+	 * @throws ClassifierException
+	 *             if the classifier cannot train or classify
+	 */
+	@Test
+	public void testTies() throws ClassifierException {
+		Random random = new Random(20);
+		TrainingSet set = new TrainingSet();
+		Map<String, List<double[]>> data = new LinkedHashMap<String, List<double[]>>();
+		addExamples(set, data, random, 3, 100, true);
+		
+		for (int k : new int[] { 1, 7, 40 }) {
+			KNNClassifier knn = new KNNClassifier(k);
+			knn.train(set, S_NUM_FEATURES);
+			for (int q = 0; q < 50; q++) {
+				double[] query = randomExample(random, true);
+				assertSameNeighbors(bruteForce(data, query),
+				        knn.classify(new FeatureSet(query)), k);
+			}
+		}
+	}
+	
+
+	/**
+	 * Test that asking for more neighbors than there are examples returns
+	 * every example
+	 * 
+	 * @throws ClassifierException
+	 *             if the classifier cannot train or classify
+	 */
+	@Test
+	public void testKLargerThanTrainingSet() throws ClassifierException {
+		Random random = new Random(21);
+		TrainingSet set = new TrainingSet();
+		Map<String, List<double[]>> data = new LinkedHashMap<String, List<double[]>>();
+		addExamples(set, data, random, 2, 3, false);
+		
+		KNNClassifier knn = new KNNClassifier(10);
+		knn.train(set, S_NUM_FEATURES);
+		for (int q = 0; q < 10; q++) {
+			double[] query = randomExample(random, false);
+			Classification c = knn.classify(new FeatureSet(query));
+			assertEquals(6, c.getTypeCount());
+			assertSameNeighbors(bruteForce(data, query), c, 10);
+		}
+	}
+	
+
+	/**
+	 * Test that training again with the same set after adding examples gives
+	 * the same neighbors as searching all of them, and that classifying many
+	 * examples at once gives the same answers as one at a time
+	 * 
+	 * @throws ClassifierException
+	 *             if the classifier cannot train or classify
+	 */
+	@Test
+	public void testIncrementalTraining() throws ClassifierException {
+		Random random = new Random(22);
+		TrainingSet set = new TrainingSet();
+		Map<String, List<double[]>> data = new LinkedHashMap<String, List<double[]>>();
+		addExamples(set, data, random, 2, 40, false);
+		
+		KNNClassifier knn = new KNNClassifier(5);
+		knn.train(set, S_NUM_FEATURES);
+		addExamples(set, data, random, 3, 60, false);
+		knn.train(set, S_NUM_FEATURES);
+		
+		FeatureSet[] queries = new FeatureSet[30];
+		for (int q = 0; q < queries.length; q++) {
+			queries[q] = new FeatureSet(randomExample(random, false));
+		}
+		Classification[] all = knn.classify(queries);
+		for (int q = 0; q < queries.length; q++) {
+			List<Neighbor> expected = bruteForce(data, queries[q]
+			        .getFeatures());
+			assertSameNeighbors(expected, knn.classify(queries[q]), 5);
+			assertSameNeighbors(expected, all[q], 5);
+		}
+	}
+	
+
+	/**
+	 * Add random examples of types "t0", "t1", ... to the training set and to
+	 * the brute force data. The last feature is the same for every example so
+	 * that it does not vary.
+	 * 
+	 * @param set
+	 *            Training set to add to
+	 * @param data
+	 *            Examples of each type, for the brute force search
+	 * @param random
+	 *            Source of the feature values
+	 * @param numTypes
+	 *            Number of types
+	 * @param count
+	 *            Number of examples to add to each type
+	 * @param grid
+	 *            Whether to use small whole numbers for the features
+	 */
+	private static void addExamples(TrainingSet set,
+	        Map<String, List<double[]>> data, Random random, int numTypes,
+	        int count, boolean grid) {
+		for (int t = 0; t < numTypes; t++) {
+			String type = "t" + t;
+			List<double[]> examples = data.get(type);
+			if (examples == null) {
+				examples = new ArrayList<double[]>();
+				data.put(type, examples);
+			}
+			for (int i = 0; i < count; i++) {
+				double[] ex = randomExample(random, grid);
+				// spread the types apart a little in the first feature
+				ex[0] += t;
+				examples.add(ex);
+				set.addPositiveExample(type, new FeatureSet(ex.clone()));
+			}
+		}
+	}
+	
+
+	/**
+	 * Return random feature values
+	 * 
+	 * @param random
+	 *            Source of the values
+	 * @param grid
+	 *            Whether to use small whole numbers
+	 * @return The feature values, the last of which is always 5
+	 */
+	private static double[] randomExample(Random random, boolean grid) {
+		double[] ex = new double[S_NUM_FEATURES];
+		for (int i = 0; i < S_NUM_FEATURES - 1; i++) {
+			ex[i] = grid ? random.nextInt(4) : random.nextDouble() * 100;
+		}
+		ex[S_NUM_FEATURES - 1] = 5;
+		return ex;
+	}
+	
+
+	/**
+	 * Find the k nearest examples by comparing the query against every
+	 * example, normalizing each type by the variance of its features
+	 * 
+	 * @param data
+	 *            Examples of each type
+	 * @param query
+	 *            Feature values to search around
+	 * @return Every example, nearest first
+	 */
+	private static List<Neighbor> bruteForce(Map<String, List<double[]>> data,
+	        double[] query) {
+		List<Neighbor> all = new ArrayList<Neighbor>();
+		for (Map.Entry<String, List<double[]>> entry : data.entrySet()) {
+			List<double[]> examples = entry.getValue();
+			int n = examples.size();
+			double[] weights = new double[S_NUM_FEATURES];
+			for (int f = 0; f < S_NUM_FEATURES; f++) {
+				double mean = 0;
+				for (double[] ex : examples) {
+					mean += ex[f];
+				}
+				mean /= n;
+				double var = 0;
+				for (double[] ex : examples) {
+					var += (ex[f] - mean) * (ex[f] - mean);
+				}
+				var /= n;
+				weights[f] = var > 0 ? 1 / var : 0;
+			}
+			for (double[] ex : examples) {
+				double sum = 0;
+				for (int f = 0; f < S_NUM_FEATURES; f++) {
+					double diff = query[f] - ex[f];
+					sum += diff * diff * weights[f];
+				}
+				all.add(new Neighbor(entry.getKey(), Math.sqrt(sum)));
+			}
+		}
+		Collections.sort(all, new Comparator<Neighbor>() {
+			
+			public int compare(Neighbor o1, Neighbor o2) {
+				return Double.compare(o1.m_dist, o2.m_dist);
+			}
+		});
+		return all;
+	}
+	
+
+	/**
+	 * Assert the classification holds the k nearest of the expected
+	 * neighbors. Neighbors at the same distance may come in any order, and
+	 * when k cuts through a group of them any of the group may be kept.
+	 * 
+	 * @param expected
+	 *            Every example, nearest first
+	 * @param actual
+	 *            Classification from the KD-tree search
+	 * @param k
+	 *            Number of neighbors asked for
+	 */
+	private static void assertSameNeighbors(List<Neighbor> expected,
+	        Classification actual, int k) {
+		int size = Math.min(k, expected.size());
+		assertEquals(size, actual.getTypeCount());
+		for (int i = 0; i < size; i++) {
+			double dist = expected.get(i).m_dist;
+			assertEquals(dist, actual.getConfidence(i), S_TOLERANCE
+			                                            * Math.max(1, dist));
+		}
+		
+		int start = 0;
+		while (start < size) {
+			double dist = expected.get(start).m_dist;
+			int end = start + 1;
+			while (end < expected.size()
+			       && expected.get(end).m_dist - dist <= S_TOLERANCE
+			                                             * Math.max(1, dist)) {
+				end++;
+			}
+			
+			List<String> expectedTypes = new ArrayList<String>();
+			List<String> actualTypes = new ArrayList<String>();
+			for (int i = start; i < end; i++) {
+				expectedTypes.add(expected.get(i).m_type);
+				if (i < size) {
+					actualTypes.add(actual.getType(i));
+				}
+			}
+			if (end > size) {
+				// the group may go on past k; whatever was kept must be in it
+				List<String> remaining = new ArrayList<String>(expectedTypes);
+				for (String type : actualTypes) {
+					assertTrue("Unexpected neighbor " + type + " at distance "
+					           + dist, remaining.remove(type));
+				}
+			}
+			else {
+				Collections.sort(expectedTypes);
+				Collections.sort(actualTypes);
+				assertEquals(expectedTypes, actualTypes);
+			}
+			start = end;
+		}
+	}
+	
+	
+	/**
+	 * A training example found by the brute force search
+	 */
+	private static class Neighbor {
+		
+		/**
+		 * Type of the example
+		 */
+		private String m_type;
+		
+		/**
+		 * Distance from the query
+		 */
+		private double m_dist;
+		
+		
+		/**
+		 * Create a neighbor
+		 * 
+		 * @param type
+		 *            Type of the example
+		 * @param dist
+		 *            Distance from the query
+		 */
+		public Neighbor(String type, double dist) {
+			m_type = type;
+			m_dist = dist;
+		}
+	}
+}
@@ -0,0 +1,152 @@
+/**
+ * ZernikeMomentsTest.java
+ * 
+ * Revision History:<br>
+ * Oct 18, 2026 - File created
+ * 
+ * <p>
+ * 
+ * <pre>
+ * This work is released under the BSD License:
+ * (C) 2008 Sketch Recognition Lab, Texas A&amp;M University (hereafter SRL @ TAMU)
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the Sketch Recognition Lab, Texas A&amp;M University 
+ *       nor the names of its contributors may be used to endorse or promote 
+ *       products derived from this software without specific prior written 
+ *       permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY SRL @ TAMU ``AS IS'' AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL SRL @ TAMU BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ * </pre>
+ */
+package test.unit.hhreco;
+
+import static org.junit.Assert.assertEquals;
+
+import hhreco.recognition.ZernikeMoments;
+import hhreco.recognition.ZernikeMoments.Complex;
+import hhreco.recognition.ZernikeMoments.Table;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import test.unit.SlothTest;
+
+/**
+ * Test that the table of Zernike basis coefficients gives the same moments
+ * as computing each basis function directly with
+ * {@link ZernikeMoments#zer_mom(double[], double[], int, double, double, double, double, int, int)}
+ */
+public class ZernikeMomentsTest extends SlothTest {
+	
+	/**
+	 * Relative tolerance, the two sum the same terms in a different order
+	 */
+	private static final double S_TOLERANCE = 1e-9;
+	
+	
+	/**
+	 * Test every moment of the table against zer_mom, for several orders and
+	 * point sets
+	 */
+	@Test
+	public void testTableMatchesZerMom() {
+		Random random = new Random(18);
+		
+		for (int order = 0; order <= 12; order++) {
+			Table table = Table.forOrder(order);
+			assertEquals(order, table.getOrder());
+			
+			for (int t = 0; t < 5; t++) {
+				int npoints = 10 + random.nextInt(200);
+				double[] xvals = new double[npoints];
+				double[] yvals = new double[npoints];
+				for (int i = 0; i < npoints; i++) {
+					xvals[i] = 10 + random.nextDouble() * 300;
+					yvals[i] = 10 + random.nextDouble() * 100;
+				}
+				
+				// a box that leaves some points outside the unit circle
+				double ww = 200;
+				double hh = 60;
+				double cx = 150;
+				double cy = 60;
+				
+				double[] re = new double[table.getMomentCount()];
+				double[] im = new double[table.getMomentCount()];
+				table.moments(xvals, yvals, npoints, ww, hh, cx, cy, re, im);
+				
+				int j = 0;
+				for (int n = 0; n <= order; n++) {
+					for (int m = n % 2; m <= n; m += 2) {
+						Complex expected = ZernikeMoments.zer_mom(xvals,
+						        yvals, npoints, ww, hh, cx, cy, n, m);
+						assertClose(expected.getRE(), re[j]);
+						assertClose(expected.getIM(), im[j]);
+						j++;
+					}
+				}
+				assertEquals(table.getMomentCount(), j);
+			}
+		}
+	}
+	
+
+	/**
+	 * Test that zer_mmts finds the same box around the points as zer_mom
+	 */
+	@Test
+	public void testMmtsMatchesZerMom() {
+		Random random = new Random(19);
+		int order = 8;
+		int npoints = 100;
+		double[] xvals = new double[npoints];
+		double[] yvals = new double[npoints];
+		for (int i = 0; i < npoints; i++) {
+			xvals[i] = 5 + random.nextDouble() * 50;
+			yvals[i] = 5 + random.nextDouble() * 80;
+		}
+		
+		Complex[] mmts = ZernikeMoments.zer_mmts(order, xvals, yvals, npoints);
+		int j = 0;
+		for (int n = 0; n <= order; n++) {
+			for (int m = n % 2; m <= n; m += 2) {
+				Complex expected = ZernikeMoments.zer_mom(xvals, yvals,
+				        npoints, n, m);
+				assertClose(expected.getRE(), mmts[j].getRE());
+				assertClose(expected.getIM(), mmts[j].getIM());
+				j++;
+			}
+		}
+	}
+	
+
+	/**
+	 * Assert the values are the same up to rounding
+	 * 
+	 * @param expected
+	 *            Value from zer_mom
+	 * @param actual
+	 *            Value from the table
+	 */
+	private static void assertClose(double expected, double actual) {
+		assertEquals(expected, actual, S_TOLERANCE
+		                               * Math.max(1, Math.abs(expected)));
+	}
+}
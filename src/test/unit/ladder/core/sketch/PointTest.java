@@ -163,6 +163,41 @@ public class PointTest extends SlothTest {
 	}
 	
 
+	/**
+	 * Copies made before the original has an ID get the same ID as the
+	 * original, whichever is asked first.
+	 */
+	@Test
+	public void testCopyBeforeID() {
+		Point p = new Point(rand.nextDouble(), rand.nextDouble());
+		Point copy = new Point(p);
+		Point copyOfCopy = new Point((IPoint) copy);
+		
+		assertEquals(copyOfCopy.getID(), p.getID());
+		assertEquals(p.getID(), copy.getID());
+		assertEquals(p, copyOfCopy);
+		
+		Point other = new Point(p.getX(), p.getY());
+		assertFalse(other.getID().equals(p.getID()));
+	}
+	
+
+	/**
+	 * Changing the ID of the original after copying it does not change the
+	 * ID of the copy.
+	 */
+	@Test
+	public void testSetIDAfterCopy() {
+		Point p = new Point(rand.nextDouble(), rand.nextDouble());
+		Point copy = new Point(p);
+		UUID id = p.getID();
+		
+		p.setID(UUID.randomUUID());
+		assertEquals(id, copy.getID());
+		assertFalse(copy.getID().equals(p.getID()));
+	}
+	
+
 	/**
 	 * Test method for
 	 * {@link org.ladder.core.sketch.Point#Point(org.ladder.core.sketch.Point)}.
@@ -0,0 +1,174 @@
+/**
+ * StrokeArraysTest.java
+ * 
+ * Revision History:<br>
+ * Oct 18, 2026 - File created
+ * 
+ * <p>
+ * 
+ * <pre>
+ * This work is released under the BSD License:
+ * (C) 2008 Sketch Recognition Lab, Texas A&amp;M University (hereafter SRL @ TAMU)
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the Sketch Recognition Lab, Texas A&amp;M University 
+ *       nor the names of its contributors may be used to endorse or promote 
+ *       products derived from this software without specific prior written 
+ *       permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY SRL @ TAMU ``AS IS'' AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL SRL @ TAMU BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ * </pre>
+ */
+package test.unit.ladder.core.sketch;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+import org.ladder.core.sketch.IPoint;
+import org.ladder.core.sketch.Point;
+import org.ladder.core.sketch.Stroke;
+import org.ladder.core.sketch.StrokeArrays;
+
+import test.unit.SlothTest;
+
+/**
+ * Test the array view of a stroke
+ */
+public class StrokeArraysTest extends SlothTest {
+	
+	/**
+	 * Get a stroke of random points, with pressure if asked
+	 */
+	private Stroke randomStroke(int numPoints, boolean withPressure) {
+		List<IPoint> points = new ArrayList<IPoint>();
+		for (int i = 0; i < numPoints; i++) {
+			Point p = new Point(rand.nextDouble() * 100,
+			        rand.nextDouble() * 100, i * 10);
+			if (withPressure) {
+				p.setPressure(rand.nextDouble());
+			}
+			points.add(p);
+		}
+		return new Stroke(points);
+	}
+	
+
+	/**
+	 * The arrays hold the values of the stroke points, in order
+	 */
+	@Test
+	public void testStrokeArrays() {
+		Stroke stroke = randomStroke(50, true);
+		StrokeArrays arrays = new StrokeArrays(stroke);
+		
+		assertEquals(stroke.getNumPoints(), arrays.size());
+		assertTrue(arrays.hasPressure());
+		for (int i = 0; i < arrays.size(); i++) {
+			Point p = (Point) stroke.getPoints().get(i);
+			assertEquals(p.getX(), arrays.getX()[i], S_DEFAULT_DELTA);
+			assertEquals(p.getY(), arrays.getY()[i], S_DEFAULT_DELTA);
+			assertEquals(p.getTime(), arrays.getTime()[i]);
+			assertEquals(p.getPressure().doubleValue(),
+			        arrays.getPressure()[i], S_DEFAULT_DELTA);
+		}
+	}
+	
+
+	/**
+	 * Pressure is dropped unless every point has one
+	 */
+	@Test
+	public void testMissingPressure() {
+		Stroke stroke = randomStroke(10, true);
+		((Point) stroke.getPoints().get(5)).setPressure(null);
+		
+		StrokeArrays arrays = new StrokeArrays(stroke);
+		assertFalse(arrays.hasPressure());
+		assertNull(arrays.getPressure());
+		assertFalse(new StrokeArrays(randomStroke(10, false)).hasPressure());
+	}
+	
+
+	/**
+	 * Distances match the ones computed by the points
+	 */
+	@Test
+	public void testDistance() {
+		Stroke stroke = randomStroke(20, false);
+		StrokeArrays arrays = new StrokeArrays(stroke);
+		for (int i = 0; i < arrays.size(); i++) {
+			IPoint p = stroke.getPoints().get(i);
+			for (int j = 0; j < arrays.size(); j++) {
+				assertEquals(p.distance(stroke.getPoints().get(j)), arrays
+				        .distance(i, j), S_DEFAULT_DELTA);
+			}
+			assertEquals(p.distance(50, 25), arrays.distance(i, 50, 25), 0);
+		}
+	}
+	
+
+	/**
+	 * Selecting points keeps only those points, in the given order
+	 */
+	@Test
+	public void testSelect() {
+		StrokeArrays arrays = new StrokeArrays(randomStroke(20, true));
+		int[] indices = new int[] { 3, 0, 19, 7 };
+		StrokeArrays selected = arrays.select(indices);
+		
+		assertEquals(indices.length, selected.size());
+		for (int i = 0; i < indices.length; i++) {
+			assertEquals(arrays.getX()[indices[i]], selected.getX()[i], 0);
+			assertEquals(arrays.getY()[indices[i]], selected.getY()[i], 0);
+			assertEquals(arrays.getTime()[indices[i]], selected.getTime()[i]);
+			assertEquals(arrays.getPressure()[indices[i]],
+			        selected.getPressure()[i], 0);
+		}
+	}
+	
+
+	/**
+	 * Points built from the arrays have the same values
+	 */
+	@Test
+	public void testToPoints() {
+		Stroke stroke = randomStroke(20, false);
+		List<IPoint> points = new StrokeArrays(stroke).toPoints();
+		
+		assertEquals(stroke.getNumPoints(), points.size());
+		for (int i = 0; i < points.size(); i++) {
+			assertTrue(points.get(i).equalsXYTime(stroke.getPoints().get(i)));
+		}
+	}
+	
+
+	/**
+	 * Arrays of different lengths are rejected
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void testMismatchedArrays() {
+		new StrokeArrays(new double[2], new double[2], new long[3], null);
+	}
+	
+}
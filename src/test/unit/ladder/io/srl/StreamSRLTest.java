@@ -0,0 +1,192 @@
+/**
+ * StreamSRLTest.java
+ * 
+ * Revision History:<br>
+ * Oct 18, 2026 - File created
+ * 
+ * <p>
+ * 
+ * <pre>
+ * This work is released under the BSD License:
+ * (C) 2008 Sketch Recognition Lab, Texas A&amp;M University (hereafter SRL @ TAMU)
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the Sketch Recognition Lab, Texas A&amp;M University 
+ *       nor the names of its contributors may be used to endorse or promote 
+ *       products derived from this software without specific prior written 
+ *       permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY SRL @ TAMU ``AS IS'' AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL SRL @ TAMU BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ * </pre>
+ */
+package test.unit.ladder.io.srl;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.awt.Color;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.junit.Test;
+import org.ladder.core.sketch.Alias;
+import org.ladder.core.sketch.Author;
+import org.ladder.core.sketch.IStroke;
+import org.ladder.core.sketch.Pen;
+import org.ladder.core.sketch.Point;
+import org.ladder.core.sketch.Segmentation;
+import org.ladder.core.sketch.Shape;
+import org.ladder.core.sketch.Sketch;
+import org.ladder.core.sketch.Stroke;
+import org.ladder.io.srl.DOMOutputSRL;
+import org.ladder.io.srl.StreamInputSRL;
+import org.ladder.io.srl.StreamOutputSRL;
+
+import test.unit.SlothTest;
+
+/**
+ */
+public class StreamSRLTest extends SlothTest {
+	
+	/**
+	 * Get a sketch with some of everything the SRL format holds
+	 */
+	private static Sketch fullSketch() {
+		Sketch sketch = new Sketch();
+		sketch.setStudy("study & \"quotes\"");
+		sketch.setUnits(Sketch.SpaceUnits.PIXEL);
+		sketch.setAttribute("note", "<misc>");
+		
+		Author author = new Author("author", 96.0, null);
+		sketch.addAuthor(author);
+		Pen pen = new Pen("pen", "brand", "a long pen description to wrap");
+		sketch.addPen(pen);
+		
+		long time = 1000;
+		for (int s = 0; s < 5; s++) {
+			Stroke stroke = new Stroke();
+			for (int i = 0; i < 1 + rand.nextInt(20); i++) {
+				Point p = new Point(rand.nextDouble() * 100,
+				        rand.nextDouble() * 100, time++);
+				p.setPressure(rand.nextDouble());
+				p.setTiltX(0.0);
+				p.setTiltY(0.0);
+				stroke.addPoint(p);
+			}
+			stroke.setAuthor(author);
+			stroke.setPen(pen);
+			stroke.setColor(new Color(rand.nextInt(0xffffff)));
+			stroke.setVisible(rand.nextBoolean());
+			sketch.addStroke(stroke);
+		}
+		
+		IStroke first = sketch.getStroke(0);
+		Segmentation seg = new Segmentation();
+		seg.setSegmenterName("segmenter");
+		seg.addSegmentedStroke(first);
+		first.addSegmentation(seg);
+		
+		Shape sub = new Shape();
+		sub.setLabel("sub");
+		sub.addStroke(sketch.getStroke(1));
+		Shape shape = new Shape();
+		shape.setLabel("shape");
+		shape.setConfidence(rand.nextDouble());
+		shape.addStroke(first);
+		shape.addSubShape(sub);
+		shape.addAlias(new Alias("start", first.getFirstPoint()));
+		sketch.addShape(sub);
+		sketch.addShape(shape);
+		
+		return sketch;
+	}
+	
+
+	/**
+	 * Read a whole file
+	 */
+	private static byte[] read(File file) throws IOException {
+		byte[] bytes = new byte[(int) file.length()];
+		InputStream in = new FileInputStream(file);
+		try {
+			int read = 0;
+			while (read < bytes.length)
+				read += in.read(bytes, read, bytes.length - read);
+		}
+		finally {
+			in.close();
+		}
+		return bytes;
+	}
+	
+
+	/**
+	 * The streaming output writes the same bytes as the DOM output
+	 */
+	@Test
+	public void testSameAsDOMOutput() throws Exception {
+		File dom = File.createTempFile("dom", ".xml");
+		File stream = File.createTempFile("stream", ".xml");
+		dom.deleteOnExit();
+		stream.deleteOnExit();
+		
+		for (int i = 0; i < 10; i++) {
+			Sketch sketch = fullSketch();
+			new DOMOutputSRL().toFile(sketch, dom);
+			new StreamOutputSRL().toFile(sketch, stream);
+			assertArrayEquals(read(dom), read(stream));
+		}
+	}
+	
+
+	/**
+	 * Reading a sketch back in gives the same sketch
+	 */
+	@Test
+	public void testRoundTrip() throws Exception {
+		File first = File.createTempFile("first", ".xml");
+		File second = File.createTempFile("second", ".xml");
+		first.deleteOnExit();
+		second.deleteOnExit();
+		
+		Sketch sketch = fullSketch();
+		new StreamOutputSRL().toFile(sketch, first);
+		Sketch in = new StreamInputSRL().parseDocument(first);
+		
+		assertEquals(sketch.getID(), in.getID());
+		assertEquals(sketch.getNumStrokes(), in.getNumStrokes());
+		assertEquals(sketch.getNumShapes(), in.getNumShapes());
+		for (int s = 0; s < sketch.getNumStrokes(); s++) {
+			IStroke expected = sketch.getStroke(s);
+			IStroke actual = in.getStroke(s);
+			assertEquals(expected.getID(), actual.getID());
+			assertEquals(expected.getPoints(), actual.getPoints());
+		}
+		assertEquals(1, in.getStroke(0).getSegmentations().size());
+		assertEquals("segmenter", ((Segmentation) in.getStroke(0)
+		        .getSegmentations().get(0)).getSegmenterName());
+		assertEquals(in.getShape(0), in.getShape(1).getSubShapes().get(0));
+		assertEquals(in.getStroke(0).getFirstPoint(), in.getShape(1)
+		        .getAliases().iterator().next().getPoint());
+		
+		new StreamOutputSRL().toFile(in, second);
+		assertArrayEquals(read(first), read(second));
+	}
+}
@@ -0,0 +1,158 @@
+/**
+ * KMeansTest.java
+ * 
+ * Revision History:<br>
+ * Oct 18, 2026 - File created
+ * 
+ * <p>
+ * 
+ * <pre>
+ * This work is released under the BSD License:
+ * (C) 2008 Sketch Recognition Lab, Texas A&amp;M University (hereafter SRL @ TAMU)
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the Sketch Recognition Lab, Texas A&amp;M University 
+ *       nor the names of its contributors may be used to endorse or promote 
+ *       products derived from this software without specific prior written 
+ *       permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY SRL @ TAMU ``AS IS'' AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL SRL @ TAMU BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ * </pre>
+ */
+package test.unit.ladder.math;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+import org.ladder.math.KMeans;
+
+import test.unit.SlothTest;
+
+/**
+ * Test that {@link KMeans} finds well separated clusters and is repeatable.
+ */
+public class KMeansTest extends SlothTest {
+	
+	/**
+	 * Centers of the test blobs
+	 */
+	private static final double[][] S_BLOB_CENTERS = { { 0, 0 }, { 10, 0 },
+	        { 0, 10 }, { 10, 10 } };
+	
+	
+	/**
+	 * Test that each blob gets its own center, with full batches and with
+	 * mini-batches
+	 */
+	@Test
+	public void testFindsBlobs() {
+		List<double[]> points = blobs(1500, new Random(3));
+		
+		for (int batchSize : new int[] { 0, 200 }) {
+			KMeans kMeans = new KMeans(4, KMeans.S_SQUARED_EUCLIDEAN);
+			kMeans.setBatchSize(batchSize);
+			double[][] centers = kMeans.cluster(points);
+			
+			assertEquals(4, centers.length);
+			for (double[] blob : S_BLOB_CENTERS) {
+				double nearest = Double.POSITIVE_INFINITY;
+				for (double[] center : centers) {
+					nearest = Math.min(nearest, KMeans.S_SQUARED_EUCLIDEAN
+					        .distance(blob, center));
+				}
+				assertTrue(nearest < 0.5);
+			}
+			
+			// Points of the same blob end up together
+			int[] assignments = kMeans.getAssignments();
+			for (int i = 0; i < points.size(); i++) {
+				assertEquals(assignments[i % 4], assignments[i]);
+			}
+		}
+	}
+	
+
+	/**
+	 * Test that the same seed gives the same centers
+	 */
+	@Test
+	public void testRepeatable() {
+		List<double[]> points = blobs(2000, new Random(5));
+		
+		KMeans first = new KMeans(7, KMeans.S_SQUARED_EUCLIDEAN);
+		first.setSeed(42);
+		double[][] firstCenters = first.cluster(points);
+		
+		KMeans second = new KMeans(7, KMeans.S_SQUARED_EUCLIDEAN);
+		second.setSeed(42);
+		double[][] secondCenters = second.cluster(points);
+		
+		assertEquals(firstCenters.length, secondCenters.length);
+		for (int c = 0; c < firstCenters.length; c++) {
+			assertTrue(Arrays.equals(firstCenters[c], secondCenters[c]));
+		}
+		assertTrue(Arrays.equals(first.getAssignments(), second
+		        .getAssignments()));
+	}
+	
+
+	/**
+	 * Test that asking for more clusters than there are distinct points gives
+	 * one center per distinct point
+	 */
+	@Test
+	public void testFewDistinctPoints() {
+		List<double[]> points = new ArrayList<double[]>();
+		for (int i = 0; i < 30; i++) {
+			points.add(S_BLOB_CENTERS[i % 3].clone());
+		}
+		
+		KMeans kMeans = new KMeans(10, KMeans.S_SQUARED_EUCLIDEAN);
+		double[][] centers = kMeans.cluster(points);
+		
+		assertEquals(3, centers.length);
+		assertEquals(0, new KMeans(3, KMeans.S_SQUARED_EUCLIDEAN).cluster(
+		        new ArrayList<double[]>()).length);
+	}
+	
+
+	/**
+	 * Build points around the blob centers, taking the blobs in turn
+	 * 
+	 * @param numPoints
+	 *            Number of points
+	 * @param random
+	 *            Source of the noise
+	 * @return The points
+	 */
+	private List<double[]> blobs(int numPoints, Random random) {
+		List<double[]> points = new ArrayList<double[]>();
+		for (int i = 0; i < numPoints; i++) {
+			double[] center = S_BLOB_CENTERS[i % S_BLOB_CENTERS.length];
+			points.add(new double[] { center[0] + random.nextGaussian() * 0.5,
+			        center[1] + random.nextGaussian() * 0.5 });
+		}
+		return points;
+	}
+}
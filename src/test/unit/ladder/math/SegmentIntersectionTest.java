@@ -0,0 +1,300 @@
+/**
+ * SegmentIntersectionTest.java
+ * 
+ * Revision History:<br>
+ * Oct 18, 2026 - File created
+ * 
+ * <p>
+ * 
+ * <pre>
+ * This work is released under the BSD License:
+ * (C) 2008 Sketch Recognition Lab, Texas A&amp;M University (hereafter SRL @ TAMU)
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the Sketch Recognition Lab, Texas A&amp;M University 
+ *       nor the names of its contributors may be used to endorse or promote 
+ *       products derived from this software without specific prior written 
+ *       permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY SRL @ TAMU ``AS IS'' AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL SRL @ TAMU BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ * </pre>
+ */
+package test.unit.ladder.math;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.awt.geom.Line2D;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+import org.ladder.core.sketch.BoundingBox;
+import org.ladder.core.sketch.IPoint;
+import org.ladder.core.sketch.IStroke;
+import org.ladder.core.sketch.Point;
+import org.ladder.core.sketch.Stroke;
+import org.ladder.math.SegmentIntersection;
+
+import test.unit.SlothTest;
+
+/**
+ * Test that the sweeps in {@link SegmentIntersection} give the same answers as
+ * testing every pair of segments or points.
+ */
+public class SegmentIntersectionTest extends SlothTest {
+	
+	/**
+	 * Test crossing, touching, parallel and disjoint segments
+	 */
+	@Test
+	public void testSegmentsIntersect() {
+		assertTrue(SegmentIntersection.segmentsIntersect(0, 0, 10, 10, 0, 10,
+		        10, 0));
+		assertTrue(SegmentIntersection.segmentsIntersect(0, 0, 10, 0, 10, 0,
+		        10, 10));
+		assertFalse(SegmentIntersection.segmentsIntersect(0, 0, 10, 0, 0, 1,
+		        10, 1));
+		assertFalse(SegmentIntersection.segmentsIntersect(0, 0, 10, 0, 0, 0,
+		        10, 0));
+		assertFalse(SegmentIntersection.segmentsIntersect(0, 0, 1, 1, 5, 0, 6,
+		        -1));
+	}
+	
+
+	/**
+	 * Test two polylines against every pair of their segments
+	 */
+	@Test
+	public void testIntersects() {
+		for (int t = 0; t < 200; t++) {
+			List<IPoint> points1 = randomPolyline(2 + rand.nextInt(40));
+			List<IPoint> points2 = randomPolyline(2 + rand.nextInt(40));
+			
+			boolean expected = bruteForceIntersects(points1, points2);
+			assertEquals(expected, SegmentIntersection.intersects(points1,
+			        points2));
+			assertEquals(expected, SegmentIntersection.intersects(new Stroke(
+			        points1), new Stroke(points2)));
+		}
+	}
+	
+
+	/**
+	 * Test self-intersection counts against every pair of segments
+	 */
+	@Test
+	public void testCountSelfIntersections() {
+		List<IPoint> square = new ArrayList<IPoint>();
+		square.add(new Point(0, 0));
+		square.add(new Point(10, 10));
+		square.add(new Point(10, 0));
+		square.add(new Point(0, 10));
+		assertEquals(1, SegmentIntersection.countSelfIntersections(square));
+		
+		for (int t = 0; t < 100; t++) {
+			List<IPoint> points = randomPolyline(rand.nextInt(60));
+			
+			int expected = 0;
+			for (int i = 0; i < points.size() - 1; i++) {
+				for (int j = i + 2; j < points.size() - 1; j++) {
+					if (intersects(points, i, points, j)) {
+						expected++;
+					}
+				}
+			}
+			
+			assertEquals(expected, SegmentIntersection
+			        .countSelfIntersections(points));
+		}
+	}
+	
+
+	/**
+	 * Test the intersecting pairs of a set of strokes against testing every
+	 * pair of strokes
+	 */
+	@Test
+	public void testIntersectingPairs() {
+		for (int t = 0; t < 20; t++) {
+			List<IStroke> strokes = new ArrayList<IStroke>();
+			for (int i = 0; i < 15; i++) {
+				strokes.add(new Stroke(randomPolyline(1 + rand.nextInt(10))));
+			}
+			
+			List<int[]> expected = new ArrayList<int[]>();
+			for (int i = 0; i < strokes.size(); i++) {
+				for (int j = i + 1; j < strokes.size(); j++) {
+					if (bruteForceIntersects(strokes.get(i).getPoints(),
+					        strokes.get(j).getPoints())) {
+						expected.add(new int[] { i, j });
+					}
+				}
+			}
+			
+			List<int[]> pairs = SegmentIntersection.intersectingPairs(strokes);
+			assertEquals(expected.size(), pairs.size());
+			for (int p = 0; p < pairs.size(); p++) {
+				assertEquals(expected.get(p)[0], pairs.get(p)[0]);
+				assertEquals(expected.get(p)[1], pairs.get(p)[1]);
+			}
+			
+			boolean anyExpected = false;
+			for (int[] pair : expected) {
+				anyExpected |= pair[0] == 0;
+			}
+			assertEquals(anyExpected, SegmentIntersection.intersectsAny(
+			        strokes.get(0), strokes.subList(1, strokes.size())));
+		}
+	}
+	
+
+	/**
+	 * Test point proximity against every pair of points
+	 */
+	@Test
+	public void testWithinDistance() {
+		for (int t = 0; t < 200; t++) {
+			IStroke stroke1 = new Stroke(randomPolyline(1 + rand.nextInt(30)));
+			IStroke stroke2 = new Stroke(randomPolyline(1 + rand.nextInt(30)));
+			double distance = rand.nextDouble() * 20.0;
+			
+			boolean expected = false;
+			for (IPoint p1 : stroke1.getPoints()) {
+				for (IPoint p2 : stroke2.getPoints()) {
+					expected |= p1.distance(p2) < distance;
+				}
+			}
+			
+			assertEquals(expected, SegmentIntersection.withinDistance(stroke1,
+			        stroke2, distance));
+			
+			List<IStroke> others = new ArrayList<IStroke>();
+			others.add(stroke2);
+			assertEquals(expected, SegmentIntersection.anyWithinDistance(
+			        stroke1, others, distance));
+		}
+	}
+	
+
+	/**
+	 * Test that lines are only ruled out when they are outside the bounds
+	 */
+	@Test
+	public void testMayIntersect() {
+		IStroke stroke = new Stroke(randomPolyline(20));
+		
+		for (int t = 0; t < 200; t++) {
+			Line2D.Double line = new Line2D.Double(rand.nextDouble() * 300,
+			        rand.nextDouble() * 300, rand.nextDouble() * 300, rand
+			                .nextDouble() * 300);
+			
+			boolean crosses = false;
+			List<IPoint> points = stroke.getPoints();
+			for (int i = 0; i < points.size() - 1; i++) {
+				crosses |= line.intersectsLine(points.get(i).getX(), points
+				        .get(i).getY(), points.get(i + 1).getX(), points.get(
+				        i + 1).getY());
+			}
+			
+			if (crosses) {
+				assertTrue(SegmentIntersection.mayIntersect(stroke
+				        .getBoundingBox(), line));
+			}
+		}
+		
+		// a line below and to the left of the box never touches it
+		BoundingBox bb = stroke.getBoundingBox();
+		assertFalse(SegmentIntersection.mayIntersect(bb, new Line2D.Double(bb
+		        .getMinX() - 10, bb.getMinY() - 10, bb.getMinX() - 5, bb
+		        .getMinY() - 20)));
+	}
+	
+
+	/**
+	 * Build a random polyline, with some points snapped to a grid so that
+	 * segments touch and overlap
+	 * 
+	 * @param numPoints
+	 *            Number of points
+	 * @return Points of the polyline
+	 */
+	private List<IPoint> randomPolyline(int numPoints) {
+		List<IPoint> points = new ArrayList<IPoint>();
+		double x = rand.nextDouble() * 200;
+		double y = rand.nextDouble() * 200;
+		for (int i = 0; i < numPoints; i++) {
+			x += rand.nextGaussian() * 15;
+			y += rand.nextGaussian() * 15;
+			if (rand.nextInt(4) == 0) {
+				points.add(new Point(Math.round(x / 10) * 10,
+				        Math.round(y / 10) * 10));
+			}
+			else {
+				points.add(new Point(x, y));
+			}
+		}
+		return points;
+	}
+	
+
+	/**
+	 * Test every pair of segments of two polylines
+	 * 
+	 * @param points1
+	 *            First polyline
+	 * @param points2
+	 *            Second polyline
+	 * @return True if any pair intersects
+	 */
+	private boolean bruteForceIntersects(List<IPoint> points1,
+	        List<IPoint> points2) {
+		for (int i = 0; i < points1.size() - 1; i++) {
+			for (int j = 0; j < points2.size() - 1; j++) {
+				if (intersects(points1, i, points2, j)) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+	
+
+	/**
+	 * Test one segment of each polyline
+	 * 
+	 * @param points1
+	 *            First polyline
+	 * @param i
+	 *            Segment of the first polyline
+	 * @param points2
+	 *            Second polyline
+	 * @param j
+	 *            Segment of the second polyline
+	 * @return True if the segments intersect
+	 */
+	private boolean intersects(List<IPoint> points1, int i,
+	        List<IPoint> points2, int j) {
+		return SegmentIntersection.segmentsIntersect(points1.get(i).getX(),
+		        points1.get(i).getY(), points1.get(i + 1).getX(), points1.get(
+		                i + 1).getY(), points2.get(j).getX(), points2.get(j)
+		                .getY(), points2.get(j + 1).getX(), points2.get(j + 1)
+		                .getY());
+	}
+}
@@ -0,0 +1,197 @@
+/**
+ * VPTreeTest.java
+ * 
+ * Revision History:<br>
+ * Oct 18, 2026 - File created
+ * 
+ * <p>
+ * 
+ * <pre>
+ * This work is released under the BSD License:
+ * (C) 2008 Sketch Recognition Lab, Texas A&amp;M University (hereafter SRL @ TAMU)
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the Sketch Recognition Lab, Texas A&amp;M University 
+ *       nor the names of its contributors may be used to endorse or promote 
+ *       products derived from this software without specific prior written 
+ *       permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY SRL @ TAMU ``AS IS'' AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL SRL @ TAMU BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ * </pre>
+ */
+package test.unit.ladder.math;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+import org.ladder.math.VPTree;
+
+import test.unit.SlothTest;
+
+/**
+ * Test that {@link VPTree} finds the same neighbors as comparing against every
+ * point
+ */
+public class VPTreeTest extends SlothTest {
+	
+	/**
+	 * Number of points in the trees
+	 */
+	private static final int S_NUM_POINTS = 300;
+	
+	/**
+	 * Length of the points
+	 */
+	private static final int S_DIMENSIONS = 6;
+	
+	
+	/**
+	 * Test the nearest point against a linear scan
+	 */
+	@Test
+	public void testNearest() {
+		List<double[]> points = clusteredPoints(S_NUM_POINTS);
+		VPTree tree = new VPTree(points, VPTree.S_SQUARED_EUCLIDEAN);
+		assertEquals(S_NUM_POINTS, tree.size());
+		
+		for (double[] query : clusteredPoints(100)) {
+			int expected = -1;
+			double best = Double.POSITIVE_INFINITY;
+			for (int i = 0; i < points.size(); i++) {
+				double d = distance(points.get(i), query);
+				if (d < best) {
+					best = d;
+					expected = i;
+				}
+			}
+			assertEquals(expected, tree.nearest(query));
+		}
+		
+		// Exact match, and ties go to the first copy
+		points.add(points.get(17).clone());
+		tree = new VPTree(points, VPTree.S_SQUARED_EUCLIDEAN);
+		assertEquals(17, tree.nearest(points.get(17)));
+	}
+	
+
+	/**
+	 * Test the nearest distance to each point against a linear scan
+	 */
+	@Test
+	public void testNearestDistances() {
+		List<double[]> points = clusteredPoints(S_NUM_POINTS);
+		VPTree tree = new VPTree(points, VPTree.S_SQUARED_EUCLIDEAN);
+		List<double[]> queries = clusteredPoints(40);
+		
+		double[] nearest = new double[points.size()];
+		Arrays.fill(nearest, -1);
+		assertSame(nearest, tree.nearestDistances(queries, nearest));
+		
+		for (int i = 0; i < points.size(); i++) {
+			double expected = Double.POSITIVE_INFINITY;
+			for (double[] query : queries) {
+				expected = Math.min(expected, distance(points.get(i), query));
+			}
+			assertEquals(expected, nearest[i], 0.0);
+		}
+		
+		double[] none = tree.nearestDistances(new ArrayList<double[]>(), null);
+		assertEquals(Double.POSITIVE_INFINITY, none[0], 0.0);
+	}
+	
+
+	/**
+	 * Test the points within a distance against a linear scan
+	 */
+	@Test
+	public void testForEachWithin() {
+		final List<double[]> points = clusteredPoints(S_NUM_POINTS);
+		VPTree tree = new VPTree(points, VPTree.S_SQUARED_EUCLIDEAN);
+		
+		for (final double[] query : clusteredPoints(50)) {
+			final double limit = rand.nextDouble() * 4;
+			final boolean[] found = new boolean[points.size()];
+			tree.forEachWithin(query, limit, new VPTree.IVisitor() {
+				
+				public void visit(int index, double distance) {
+					assertEquals(distance(points.get(index), query), distance,
+					        0.0);
+					found[index] = true;
+				}
+			});
+			
+			for (int i = 0; i < points.size(); i++) {
+				assertEquals(distance(points.get(i), query) <= limit, found[i]);
+			}
+		}
+	}
+	
+
+	/**
+	 * Test that an empty tree finds nothing
+	 */
+	@Test
+	public void testEmpty() {
+		VPTree tree = new VPTree(new ArrayList<double[]>(),
+		        VPTree.S_SQUARED_EUCLIDEAN);
+		assertEquals(-1, tree.nearest(new double[S_DIMENSIONS]));
+		assertEquals(0, tree.nearestDistances(clusteredPoints(3), null).length);
+	}
+	
+
+	/**
+	 * Squared Euclidean distance, computed in full
+	 * 
+	 * @param a
+	 *            First point
+	 * @param b
+	 *            Second point
+	 * @return Distance between the points
+	 */
+	private static double distance(double[] a, double[] b) {
+		return VPTree.S_SQUARED_EUCLIDEAN.distance(a, b,
+		        Double.POSITIVE_INFINITY);
+	}
+	
+
+	/**
+	 * Build random points around a few centers, so whole branches of the tree
+	 * can be skipped
+	 * 
+	 * @param numPoints
+	 *            Number of points
+	 * @return The points
+	 */
+	private List<double[]> clusteredPoints(int numPoints) {
+		List<double[]> points = new ArrayList<double[]>();
+		for (int i = 0; i < numPoints; i++) {
+			double[] point = new double[S_DIMENSIONS];
+			int cluster = i % 5;
+			for (int d = 0; d < S_DIMENSIONS; d++) {
+				point[d] = cluster * 3 + rand.nextGaussian();
+			}
+			points.add(point);
+		}
+		return points;
+	}
+}
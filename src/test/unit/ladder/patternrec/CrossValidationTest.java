@@ -0,0 +1,282 @@
+/**
+ * CrossValidationTest.java
+ * 
+ * Revision History:<br>
+ * Oct 18, 2026 - File created
+ * 
+ * <p>
+ * 
+ * <pre>
+ * This work is released under the BSD License:
+ * (C) 2008 Sketch Recognition Lab, Texas A&amp;M University (hereafter SRL @ TAMU)
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the Sketch Recognition Lab, Texas A&amp;M University 
+ *       nor the names of its contributors may be used to endorse or promote 
+ *       products derived from this software without specific prior written 
+ *       permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY SRL @ TAMU ``AS IS'' AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL SRL @ TAMU BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ * </pre>
+ */
+package test.unit.ladder.patternrec;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+import org.ladder.patternrec.classifiers.core.CResult;
+import org.ladder.patternrec.classifiers.core.Classifiable;
+import org.ladder.patternrec.classifiers.core.Classifier;
+import org.ladder.patternrec.classifiers.core.DataSet;
+import org.ladder.patternrec.classifiers.core.ExampleSet;
+import org.ladder.patternrec.classifiers.core.FVector;
+import org.ladder.patternrec.classifiers.core.crossvalidation.BootStrapValidation;
+import org.ladder.patternrec.classifiers.core.crossvalidation.CrossValidation;
+import org.ladder.patternrec.classifiers.core.crossvalidation.IFoldListener;
+import org.ladder.patternrec.classifiers.core.crossvalidation.LeaveOneOutUserValidation;
+import org.ladder.patternrec.classifiers.core.crossvalidation.RandomSubSampling;
+
+import test.unit.SlothTest;
+
+/**
+ * Test that the cross validations are repeatable and report each fold.
+ */
+public class CrossValidationTest extends SlothTest {
+	
+	/**
+	 * Centers of the test classes
+	 */
+	private static final double[][] S_CLASS_CENTERS = { { 0, 0 }, { 10, 0 },
+	        { 0, 10 } };
+	
+	/**
+	 * Number of users the examples are split between
+	 */
+	private static final int S_NUM_USERS = 4;
+	
+	
+	/**
+	 * Test that the same seed gives the same folds
+	 */
+	@Test
+	public void testRepeatable() {
+		DataSet data = classes(40, new Random(11));
+		
+		for (boolean fullyRandom : new boolean[] { false, true }) {
+			CrossValidation first = new RandomSubSampling(data,
+			        new NearestMean(), 8, 0.6, fullyRandom);
+			first.setSeed(42);
+			first.run();
+			
+			CrossValidation second = new RandomSubSampling(data,
+			        new NearestMean(), 8, 0.6, fullyRandom);
+			second.setSeed(42);
+			second.run();
+			
+			assertEquals(8, first.getAcc().size());
+			assertEquals(first.getAcc(), second.getAcc());
+			assertEquals(first.getPerClassAcc(), second.getPerClassAcc());
+			for (int i = 0; i < data.size(); i++) {
+				for (int j = 0; j < data.size(); j++) {
+					assertEquals(first.getConfusion().get(i, j), second
+					        .getConfusion().get(i, j), 0.0);
+				}
+			}
+			assertTrue(first.getAvgAcc() > 0.95);
+		}
+	}
+	
+
+	/**
+	 * Test that the listeners hear about every fold once
+	 */
+	@Test
+	public void testFoldListener() {
+		DataSet data = classes(30, new Random(13));
+		CrossValidation validation = new BootStrapValidation(data,
+		        new NearestMean(), 0.7, 6);
+		
+		final List<Integer> folds = new ArrayList<Integer>();
+		final List<Integer> finished = new ArrayList<Integer>();
+		validation.addFoldListener(new IFoldListener() {
+			
+			public void foldFinished(CrossValidation v, int fold,
+			        double accuracy, int numFinished, int numFolds) {
+				assertEquals(6, numFolds);
+				folds.add(fold);
+				finished.add(numFinished);
+			}
+		});
+		validation.run();
+		
+		assertEquals(6, folds.size());
+		for (int i = 0; i < 6; i++) {
+			assertTrue(folds.contains(i));
+			assertEquals(i + 1, finished.get(i).intValue());
+		}
+	}
+	
+
+	/**
+	 * Test that each row of the confusion matrix sums to 1, for bootstrap
+	 * validation too
+	 */
+	@Test
+	public void testConfusionRowsSumToOne() {
+		DataSet data = classes(30, new Random(17));
+		CrossValidation validation = new BootStrapValidation(data,
+		        new NearestMean(), 0.7, 5);
+		validation.run();
+		
+		for (int i = 0; i < data.size(); i++) {
+			double sum = 0.0;
+			for (int j = 0; j < data.size(); j++) {
+				sum += validation.getConfusion().get(i, j);
+			}
+			assertEquals(1.0, sum, S_DEFAULT_DELTA);
+		}
+	}
+	
+
+	/**
+	 * Test leaving out each user in turn
+	 */
+	@Test
+	public void testLeaveOneOutUser() {
+		DataSet data = classes(40, new Random(17));
+		LeaveOneOutUserValidation validation = new LeaveOneOutUserValidation(
+		        data, new NearestMean());
+		validation.run();
+		
+		assertEquals(S_NUM_USERS, validation.getAcc().size());
+		assertEquals(S_NUM_USERS, validation.getPerUserPerClassAccuracy()
+		        .size());
+		for (int u = 0; u < S_NUM_USERS; u++) {
+			for (double acc : validation.getPerUserPerClassAccuracy().get(u)) {
+				assertEquals(1.0, acc, S_DEFAULT_DELTA);
+			}
+		}
+	}
+	
+
+	/**
+	 * Build a data set with well separated classes, with the examples of each
+	 * class shared out between the users
+	 * 
+	 * @param perClass
+	 *            Number of examples of each class
+	 * @param random
+	 *            Source of the noise
+	 * @return The data set
+	 */
+	private DataSet classes(int perClass, Random random) {
+		DataSet data = new DataSet();
+		for (double[] center : S_CLASS_CENTERS) {
+			ExampleSet set = new ExampleSet();
+			set.setLabel(center[0] + "," + center[1]);
+			for (int i = 0; i < perClass; i++) {
+				FVector v = new FVector();
+				v.getFeatures().add(center[0] + random.nextGaussian() * 0.5);
+				v.getFeatures().add(center[1] + random.nextGaussian() * 0.5);
+				v.setUserNum(i % S_NUM_USERS);
+				set.add(v);
+			}
+			data.add(set);
+		}
+		return data;
+	}
+	
+	/**
+	 * Classifies each example as the class with the nearest mean
+	 */
+	private static class NearestMean extends Classifier {
+		
+		/**
+		 * Mean of each class
+		 */
+		private List<double[]> m_means = new ArrayList<double[]>();
+		
+		
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see org.ladder.patternrec.classifiers.core.Classifier#clone()
+		 */
+		@Override
+		public NearestMean clone() {
+			NearestMean copy = (NearestMean) super.clone();
+			copy.m_means = new ArrayList<double[]>();
+			return copy;
+		}
+		
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see org.ladder.patternrec.classifiers.core.Classifier#train()
+		 */
+		@Override
+		public void train() {
+			m_means.clear();
+			for (int c = 0; c < m_train.size(); c++) {
+				double[] mean = new double[m_numFeatures];
+				for (int i = 0; i < m_numFeatures; i++)
+					mean[i] = m_train.get(c).getFeatureMean(i);
+				m_means.add(mean);
+			}
+		}
+		
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see
+		 * org.ladder.patternrec.classifiers.core.Classifier#classify(org.ladder
+		 * .patternrec.classifiers.core.Classifiable)
+		 */
+		@Override
+		public List<CResult> classify(Classifiable query) {
+			List<CResult> results = new ArrayList<CResult>();
+			for (int c = 0; c < m_means.size(); c++) {
+				double dist = 0;
+				for (int i = 0; i < m_numFeatures; i++)
+					dist += Math.pow(query.getFeature(i) - m_means.get(c)[i], 2);
+				results.add(new CResult(c, dist));
+			}
+			Collections.sort(results);
+			return results;
+		}
+		
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see org.ladder.patternrec.classifiers.core.Classifier#toString()
+		 */
+		@Override
+		public String toString() {
+			return "Nearest mean";
+		}
+	}
+}
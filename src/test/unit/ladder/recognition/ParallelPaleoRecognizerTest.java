@@ -0,0 +1,211 @@
+/**
+ * ParallelPaleoRecognizerTest.java
+ * 
+ * Revision History:<br>
+ * Oct 18, 2026 - File created
+ * 
+ * <p>
+ * 
+ * <pre>
+ * This work is released under the BSD License:
+ * (C) 2008 Sketch Recognition Lab, Texas A&amp;M University (hereafter SRL @ TAMU)
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the Sketch Recognition Lab, Texas A&amp;M University 
+ *       nor the names of its contributors may be used to endorse or promote 
+ *       products derived from this software without specific prior written 
+ *       permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY SRL @ TAMU ``AS IS'' AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL SRL @ TAMU BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ * </pre>
+ */
+package test.unit.ladder.recognition;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.ladder.core.config.LadderConfig;
+import org.ladder.core.sketch.IPoint;
+import org.ladder.core.sketch.IShape;
+import org.ladder.core.sketch.IStroke;
+import org.ladder.core.sketch.Point;
+import org.ladder.core.sketch.Stroke;
+import org.ladder.recognition.IRecognitionResult;
+import org.ladder.recognition.paleo.PaleoConfig;
+import org.ladder.recognition.paleo.PaleoSketchRecognizer;
+import org.ladder.recognition.paleo.ParallelPaleoRecognizer;
+import org.ladder.recognition.recognizer.OverTimeException;
+
+import test.unit.SlothTest;
+
+/**
+ * Test that {@link ParallelPaleoRecognizer} gives the same results as running
+ * {@link PaleoSketchRecognizer} on one stroke at a time.
+ */
+public class ParallelPaleoRecognizerTest extends SlothTest {
+	
+	/**
+	 * Recognizer under test
+	 */
+	private ParallelPaleoRecognizer m_parallel;
+	
+	/**
+	 * Number of recognition threads before the test
+	 */
+	private String m_oldNumThreads;
+	
+	
+	/**
+	 * Set up a recognizer with a few threads
+	 */
+	@Before
+	public void setup() {
+		m_oldNumThreads = LadderConfig
+		        .getProperty(LadderConfig.RECOGNITION_THREADS_KEY);
+		LadderConfig.setProperty(LadderConfig.RECOGNITION_THREADS_KEY, "4");
+		m_parallel = new ParallelPaleoRecognizer(PaleoConfig.deepGreenConfig(),
+		        4);
+	}
+	
+
+	/**
+	 * Let go of the idle recognizers and put back the number of threads
+	 */
+	@After
+	public void tearDown() {
+		m_parallel.shutdown();
+		LadderConfig.setProperty(LadderConfig.RECOGNITION_THREADS_KEY,
+		        m_oldNumThreads != null ? m_oldNumThreads
+		                : LadderConfig.RECOGNITION_THREADS_DEFAULT_VALUE);
+	}
+	
+
+	/**
+	 * Get a stroke sampled from a line
+	 */
+	private static IStroke lineStroke(double x1, double y1, double x2,
+	        double y2) {
+		List<IPoint> points = new ArrayList<IPoint>();
+		for (int i = 0; i <= 50; i++) {
+			double t = i / 50.0;
+			points.add(new Point(x1 + t * (x2 - x1), y1 + t * (y2 - y1), i * 10));
+		}
+		return new Stroke(points);
+	}
+	
+
+	/**
+	 * Get a stroke sampled from a circle
+	 */
+	private static IStroke circleStroke(double cx, double cy, double r) {
+		List<IPoint> points = new ArrayList<IPoint>();
+		for (int i = 0; i <= 60; i++) {
+			double theta = 2 * Math.PI * i / 60.0;
+			points.add(new Point(cx + r * Math.cos(theta), cy + r
+			                                               * Math.sin(theta),
+			        i * 10));
+		}
+		return new Stroke(points);
+	}
+	
+
+	/**
+	 * Results must match the sequential recognizer, in stroke order.
+	 */
+	@Test
+	public void testSameAsSequential() {
+		List<IStroke> strokes = new ArrayList<IStroke>();
+		for (int i = 0; i < 6; i++) {
+			strokes.add(lineStroke(0, 10 * i, 100, 10 * i + 5 * i));
+			strokes.add(circleStroke(200 + 50 * i, 200, 20 + i));
+		}
+		
+		List<IRecognitionResult> parallel = m_parallel.recognize(strokes);
+		assertEquals(strokes.size(), parallel.size());
+		
+		PaleoSketchRecognizer sequential = new PaleoSketchRecognizer(
+		        PaleoConfig.deepGreenConfig());
+		for (int i = 0; i < strokes.size(); i++) {
+			sequential.submitForRecognition(strokes.get(i));
+			IRecognitionResult expected = sequential.recognize();
+			
+			assertEquals(expected.getBestShape().getLabel(), parallel.get(i)
+			        .getBestShape().getLabel());
+			assertEquals(expected.getBestShape().getConfidence(), parallel
+			        .get(i).getBestShape().getConfidence(), S_DEFAULT_DELTA);
+		}
+	}
+	
+
+	/**
+	 * Recognizing the same batch twice should sort the shapes the same way,
+	 * in stroke order, no matter how the workers were scheduled.
+	 */
+	@Test
+	public void testSameShapeOrder() {
+		List<IStroke> strokes = new ArrayList<IStroke>();
+		for (int i = 0; i < 12; i++) {
+			strokes.add(lineStroke(0, 10 * i, 100, 10 * i + 5 * i));
+			strokes.add(circleStroke(200 + 50 * i, 200, 20 + i));
+		}
+		
+		List<IStroke> first = sortedStrokes(m_parallel.recognize(strokes));
+		List<IStroke> second = sortedStrokes(m_parallel.recognize(strokes));
+		assertEquals(strokes, first);
+		assertEquals(first, second);
+	}
+	
+
+	/**
+	 * Sort the best shape of each result, the way a shape pool would, and
+	 * get the stroke of each shape in that order
+	 */
+	private static List<IStroke> sortedStrokes(List<IRecognitionResult> results) {
+		SortedSet<IShape> sorted = new TreeSet<IShape>();
+		for (IRecognitionResult result : results) {
+			sorted.add(result.getBestShape());
+		}
+		List<IStroke> strokes = new ArrayList<IStroke>();
+		for (IShape shape : sorted) {
+			strokes.add(shape.getStrokes().get(0));
+		}
+		return strokes;
+	}
+	
+
+	/**
+	 * No time at all should go over time.
+	 * 
+	 * @throws OverTimeException
+	 */
+	@Test(expected = OverTimeException.class)
+	public void testOverTime() throws OverTimeException {
+		List<IStroke> strokes = new ArrayList<IStroke>();
+		for (int i = 0; i < 20; i++) {
+			strokes.add(circleStroke(50 * i, 200, 20 + i));
+		}
+		m_parallel.recognizeTimed(strokes, 0);
+	}
+}
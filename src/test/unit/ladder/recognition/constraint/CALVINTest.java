@@ -0,0 +1,216 @@
+/**
+ * CALVINTest.java
+ * 
+ * Revision History:<br>
+ * Oct 18, 2026 - File created
+ * 
+ * <p>
+ * 
+ * <pre>
+ * This work is released under the BSD License:
+ * (C) 2008 Sketch Recognition Lab, Texas A&amp;M University (hereafter SRL @ TAMU)
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the Sketch Recognition Lab, Texas A&amp;M University 
+ *       nor the names of its contributors may be used to endorse or promote 
+ *       products derived from this software without specific prior written 
+ *       permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY SRL @ TAMU ``AS IS'' AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL SRL @ TAMU BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ * </pre>
+ */
+package test.unit.ladder.recognition.constraint;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+import org.ladder.core.sketch.IPoint;
+import org.ladder.core.sketch.IShape;
+import org.ladder.core.sketch.IStroke;
+import org.ladder.core.sketch.Point;
+import org.ladder.core.sketch.Shape;
+import org.ladder.core.sketch.Stroke;
+import org.ladder.recognition.constraint.CALVIN;
+import org.ladder.recognition.constraint.domains.ComponentDefinition;
+import org.ladder.recognition.constraint.domains.ConstraintDefinition;
+import org.ladder.recognition.constraint.domains.ConstraintParameter;
+import org.ladder.recognition.constraint.domains.DomainDefinition;
+import org.ladder.recognition.constraint.domains.ShapeDefinition;
+
+import test.unit.SlothTest;
+
+/**
+ * Test that {@link CALVIN} does not build a shape definition again until the
+ * shapes it failed on have changed.
+ */
+public class CALVINTest extends SlothTest {
+	
+	/**
+	 * Get a domain with a single mid-level shape made of two intersecting
+	 * lines
+	 */
+	private static DomainDefinition crossDomain() {
+		ShapeDefinition cross = new ShapeDefinition();
+		cross.setName("Cross");
+		cross.addIsA("MidLevelShape");
+		cross.addComponentDefinition(new ComponentDefinition("a", "Line"));
+		cross.addComponentDefinition(new ComponentDefinition("b", "Line"));
+		
+		ConstraintDefinition intersects = new ConstraintDefinition("Intersects");
+		intersects.addParameter(new ConstraintParameter("a"));
+		intersects.addParameter(new ConstraintParameter("b"));
+		cross.addConstraintDefinition(intersects);
+		
+		DomainDefinition domain = new DomainDefinition("Cross");
+		domain.addShapeDefinition(cross);
+		return domain;
+	}
+	
+
+	/**
+	 * Get a primitive line shape between the two points
+	 */
+	private static IShape line(double x1, double y1, double x2, double y2) {
+		List<IPoint> points = new ArrayList<IPoint>();
+		points.add(new Point(x1, y1, 0));
+		points.add(new Point(x2, y2, 10));
+		List<IStroke> strokes = new ArrayList<IStroke>();
+		strokes.add(new Stroke(points));
+		
+		Shape line = new Shape(strokes, new ArrayList<IShape>());
+		line.setLabel("Line");
+		return line;
+	}
+	
+
+	/**
+	 * A second pass over the same lines should not build the cross again
+	 */
+	@Test
+	public void testSkipsKnownFailures() throws Exception {
+		CALVIN calvin = new CALVIN(crossDomain());
+		calvin.submitForRecognition(line(0, 0, 50, 0));
+		calvin.submitForRecognition(line(100, 0, 150, 0));
+		
+		calvin.recognizeTimed(Long.MAX_VALUE);
+		assertEquals(1, calvin.getNumBuildsRun());
+		assertEquals(0, calvin.getNumBuildsSkipped());
+		
+		calvin.recognizeTimed(Long.MAX_VALUE);
+		assertEquals(1, calvin.getNumBuildsRun());
+		assertEquals(1, calvin.getNumBuildsSkipped());
+	}
+	
+
+	/**
+	 * A new line changes the candidates, so the cross is built again
+	 */
+	@Test
+	public void testRebuildsOnNewShape() throws Exception {
+		CALVIN calvin = new CALVIN(crossDomain());
+		calvin.submitForRecognition(line(0, 0, 50, 0));
+		calvin.recognizeTimed(Long.MAX_VALUE);
+		
+		calvin.submitForRecognition(line(100, 0, 150, 0));
+		calvin.recognizeTimed(Long.MAX_VALUE);
+		assertEquals(2, calvin.getNumBuildsRun());
+		assertEquals(0, calvin.getNumBuildsSkipped());
+	}
+	
+
+	/**
+	 * A shape that is not a component of the cross does not change its
+	 * candidates, so the cross is not built again
+	 */
+	@Test
+	public void testSkipsWithUnrelatedShape() throws Exception {
+		CALVIN calvin = new CALVIN(crossDomain());
+		calvin.submitForRecognition(line(0, 0, 50, 0));
+		calvin.submitForRecognition(line(100, 0, 150, 0));
+		calvin.recognizeTimed(Long.MAX_VALUE);
+		
+		IShape arc = line(0, 100, 50, 150);
+		arc.setLabel("Arc");
+		calvin.submitForRecognition(arc);
+		calvin.recognizeTimed(Long.MAX_VALUE);
+		assertEquals(1, calvin.getNumBuildsRun());
+		assertEquals(1, calvin.getNumBuildsSkipped());
+	}
+	
+
+	/**
+	 * The tree search builder matches labels ignoring case, so a new "line"
+	 * changes the candidates and the cross is built again
+	 */
+	@Test
+	public void testRebuildsOnDifferentCaseShape() throws Exception {
+		CALVIN calvin = new CALVIN(crossDomain());
+		calvin.setTreeSearch(true);
+		calvin.submitForRecognition(line(0, 0, 50, 0));
+		calvin.recognizeTimed(Long.MAX_VALUE);
+		assertEquals(1, calvin.getNumBuildsRun());
+		
+		IShape lowerCase = line(0, 100, 50, 100);
+		lowerCase.setLabel("line");
+		calvin.submitForRecognition(lowerCase);
+		calvin.recognizeTimed(Long.MAX_VALUE);
+		assertTrue(calvin.getNumBuildsRun() > 1);
+		assertEquals(0, calvin.getNumBuildsSkipped());
+	}
+	
+
+	/**
+	 * Removing a line invalidates the failure it was part of
+	 */
+	@Test
+	public void testRebuildsOnRemovedShape() throws Exception {
+		CALVIN calvin = new CALVIN(crossDomain());
+		IShape removed = line(200, 0, 250, 0);
+		calvin.submitForRecognition(line(0, 0, 50, 0));
+		calvin.submitForRecognition(line(100, 0, 150, 0));
+		calvin.submitForRecognition(removed);
+		calvin.recognizeTimed(Long.MAX_VALUE);
+		
+		calvin.removeStroke(removed.getStrokes().get(0));
+		calvin.recognizeTimed(Long.MAX_VALUE);
+		assertEquals(2, calvin.getNumBuildsRun());
+		assertEquals(0, calvin.getNumBuildsSkipped());
+	}
+	
+
+	/**
+	 * With incremental recognition off, every pass builds every definition
+	 */
+	@Test
+	public void testNotIncremental() throws Exception {
+		CALVIN calvin = new CALVIN(crossDomain());
+		calvin.setIncremental(false);
+		calvin.submitForRecognition(line(0, 0, 50, 0));
+		calvin.submitForRecognition(line(100, 0, 150, 0));
+		
+		calvin.recognizeTimed(Long.MAX_VALUE);
+		calvin.recognizeTimed(Long.MAX_VALUE);
+		assertEquals(2, calvin.getNumBuildsRun());
+		assertEquals(0, calvin.getNumBuildsSkipped());
+	}
+	
+}
@@ -0,0 +1,186 @@
+/**
+ * ConstraintCacheTest.java
+ * 
+ * Revision History:<br>
+ * Oct 18, 2026 - File created
+ * 
+ * <p>
+ * 
+ * <pre>
+ * This work is released under the BSD License:
+ * (C) 2008 Sketch Recognition Lab, Texas A&amp;M University (hereafter SRL @ TAMU)
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the Sketch Recognition Lab, Texas A&amp;M University 
+ *       nor the names of its contributors may be used to endorse or promote 
+ *       products derived from this software without specific prior written 
+ *       permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY SRL @ TAMU ``AS IS'' AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL SRL @ TAMU BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ * </pre>
+ */
+package test.unit.ladder.recognition.constraint.builders;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Test;
+import org.ladder.core.sketch.IShape;
+import org.ladder.core.sketch.Shape;
+import org.ladder.recognition.constraint.ConstraintFactory;
+import org.ladder.recognition.constraint.IConstraint;
+import org.ladder.recognition.constraint.builders.ConstraintCache;
+import org.ladder.recognition.constraint.domains.ComponentSubPart;
+
+import test.unit.SlothTest;
+
+/**
+ * Test the keys, invalidation, and statistics of {@link ConstraintCache}
+ */
+public class ConstraintCacheTest extends SlothTest {
+	
+	/**
+	 * Confidences are kept apart by constraint, threshold, shapes, their
+	 * order, and sub-parts
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public void testKeys() throws Exception {
+		ConstraintCache cache = new ConstraintCache();
+		IConstraint horizontal = ConstraintFactory.getConstraint("Horizontal");
+		IConstraint looseHorizontal = ConstraintFactory
+		        .getConstraint("Horizontal");
+		looseHorizontal.multiplyThreshold(2);
+		IConstraint above = ConstraintFactory.getConstraint("Above");
+		IShape a = new Shape();
+		IShape b = new Shape();
+		
+		cache.put(horizontal, a, 0.25);
+		assertEquals(0.25, cache.get(horizontal, a), S_DEFAULT_DELTA);
+		assertEquals(0.25, cache.get(ConstraintFactory
+		        .getConstraint("Horizontal"), a), S_DEFAULT_DELTA);
+		assertNull(cache.get(looseHorizontal, a));
+		assertNull(cache.get(horizontal, b));
+		
+		IShape[] ab = { a, b };
+		IShape[] ba = { b, a };
+		ComponentSubPart[] whole = { null, null };
+		ComponentSubPart[] ends = { ComponentSubPart.End1,
+		        ComponentSubPart.End2 };
+		cache.put(above, ab, whole, 0.75);
+		assertEquals(0.75, cache.get(above, ab, whole), S_DEFAULT_DELTA);
+		assertNull(cache.get(above, ba, whole));
+		assertNull(cache.get(above, ab, ends));
+		
+		assertEquals(2, cache.size());
+	}
+	
+
+	/**
+	 * Confidences solved on constrainables built different ways are kept
+	 * apart, and the default kind is the factory's
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public void testKinds() throws Exception {
+		ConstraintCache cache = new ConstraintCache();
+		IConstraint above = ConstraintFactory.getConstraint("Above");
+		IShape[] ab = { new Shape(), new Shape() };
+		ComponentSubPart[] whole = { null, null };
+		
+		cache.put(above, ab, whole, 0.5);
+		cache.put("other", above, ab, whole, 0.25);
+		assertEquals(0.5, cache.get(ConstraintCache.FACTORY_CONSTRAINABLES,
+		        above, ab, whole), S_DEFAULT_DELTA);
+		assertEquals(0.25, cache.get("other", above, ab, whole),
+		        S_DEFAULT_DELTA);
+		assertNull(cache.get("another", above, ab, whole));
+		
+		cache.removeShape(ab[0]);
+		assertNull(cache.get(above, ab, whole));
+		assertNull(cache.get("other", above, ab, whole));
+		assertEquals(0, cache.size());
+	}
+	
+
+	/**
+	 * Removing a shape drops every confidence it was used in, and nothing else
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public void testRemoveShape() throws Exception {
+		ConstraintCache cache = new ConstraintCache();
+		IConstraint horizontal = ConstraintFactory.getConstraint("Horizontal");
+		IConstraint above = ConstraintFactory.getConstraint("Above");
+		IShape a = new Shape();
+		IShape b = new Shape();
+		IShape c = new Shape();
+		ComponentSubPart[] whole = { null, null };
+		
+		cache.put(horizontal, a, 0.1);
+		cache.put(horizontal, b, 0.2);
+		cache.put(above, new IShape[] { a, b }, whole, 0.3);
+		cache.put(above, new IShape[] { b, c }, whole, 0.4);
+		
+		cache.removeShape(a);
+		assertNull(cache.get(horizontal, a));
+		assertNull(cache.get(above, new IShape[] { a, b }, whole));
+		assertEquals(0.2, cache.get(horizontal, b), S_DEFAULT_DELTA);
+		assertEquals(0.4, cache.get(above, new IShape[] { b, c }, whole),
+		        S_DEFAULT_DELTA);
+		assertEquals(2, cache.size());
+		
+		cache.removeShape(c);
+		assertEquals(1, cache.size());
+		
+		cache.clear();
+		assertEquals(0, cache.size());
+	}
+	
+
+	/**
+	 * Every lookup counts as a hit or a miss
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public void testStatistics() throws Exception {
+		ConstraintCache cache = new ConstraintCache();
+		IConstraint horizontal = ConstraintFactory.getConstraint("Horizontal");
+		IShape a = new Shape();
+		assertEquals(0, cache.getHitRate(), S_DEFAULT_DELTA);
+		
+		assertNull(cache.get(horizontal, a));
+		cache.put(horizontal, a, 0.5);
+		cache.get(horizontal, a);
+		cache.get(horizontal, a);
+		cache.get(horizontal, a);
+		
+		assertEquals(3, cache.getHits());
+		assertEquals(1, cache.getMisses());
+		assertEquals(0.75, cache.getHitRate(), S_DEFAULT_DELTA);
+		
+		cache.resetStatistics();
+		assertEquals(0, cache.getHits());
+		assertEquals(0, cache.getMisses());
+		assertEquals(1, cache.size());
+	}
+}
@@ -0,0 +1,250 @@
+/**
+ * ShapeBuilderTreeSearchTest.java
+ * 
+ * Revision History:<br>
+ * Oct 18, 2026 - File created
+ * 
+ * <p>
+ * 
+ * <pre>
+ * This work is released under the BSD License:
+ * (C) 2008 Sketch Recognition Lab, Texas A&amp;M University (hereafter SRL @ TAMU)
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the Sketch Recognition Lab, Texas A&amp;M University 
+ *       nor the names of its contributors may be used to endorse or promote 
+ *       products derived from this software without specific prior written 
+ *       permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY SRL @ TAMU ``AS IS'' AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL SRL @ TAMU BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ * </pre>
+ */
+package test.unit.ladder.recognition.constraint.builders;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+import org.ladder.core.sketch.IPoint;
+import org.ladder.core.sketch.IShape;
+import org.ladder.core.sketch.IStroke;
+import org.ladder.core.sketch.Point;
+import org.ladder.core.sketch.Shape;
+import org.ladder.core.sketch.Stroke;
+import org.ladder.recognition.constraint.builders.BuiltShape;
+import org.ladder.recognition.constraint.builders.ConstraintCache;
+import org.ladder.recognition.constraint.builders.ShapeBuilderTreeSearch;
+import org.ladder.recognition.constraint.domains.ComponentDefinition;
+import org.ladder.recognition.constraint.domains.ComponentSubPart;
+import org.ladder.recognition.constraint.domains.ConstraintDefinition;
+import org.ladder.recognition.constraint.domains.ConstraintParameter;
+import org.ladder.recognition.constraint.domains.ShapeDefinition;
+
+import test.unit.SlothTest;
+
+/**
+ * Test the branch-and-bound search in {@link ShapeBuilderTreeSearch} against
+ * the exhaustive search.
+ */
+public class ShapeBuilderTreeSearchTest extends SlothTest {
+	
+	/**
+	 * Build a rectangle out of four line components
+	 * 
+	 * @return The rectangle shape definition
+	 */
+	private static ShapeDefinition getRectangleDef() {
+		ShapeDefinition def = new ShapeDefinition("Rectangle");
+		String[] lines = { "top", "right", "bottom", "left" };
+		for (String line : lines) {
+			def.addComponentDefinition(new ComponentDefinition(line, "Line"));
+		}
+		
+		addConstraint(def, "Horizontal", "top");
+		addConstraint(def, "Horizontal", "bottom");
+		addConstraint(def, "Vertical", "left");
+		addConstraint(def, "Vertical", "right");
+		addConstraint(def, "Above", "top", "bottom");
+		addConstraint(def, "LeftOf", "left", "right");
+		
+		ConstraintDefinition coincident = new ConstraintDefinition("Coincident");
+		coincident.addParameter(new ConstraintParameter("top",
+		        ComponentSubPart.RightMostEnd));
+		coincident.addParameter(new ConstraintParameter("right",
+		        ComponentSubPart.TopMostEnd));
+		def.addConstraintDefinition(coincident);
+		
+		return def;
+	}
+	
+
+	/**
+	 * Add a constraint on whole components to the shape definition
+	 * 
+	 * @param def
+	 *            Shape definition to add to
+	 * @param name
+	 *            Name of the constraint
+	 * @param components
+	 *            The component parameters
+	 */
+	private static void addConstraint(ShapeDefinition def, String name,
+	        String... components) {
+		ConstraintDefinition constraint = new ConstraintDefinition(name);
+		for (String component : components) {
+			constraint.addParameter(new ConstraintParameter(component));
+		}
+		def.addConstraintDefinition(constraint);
+	}
+	
+
+	/**
+	 * Get a line shape between the two points
+	 * 
+	 * @return The line
+	 */
+	private static IShape line(double x1, double y1, double x2, double y2) {
+		List<IPoint> points = new ArrayList<IPoint>();
+		points.add(new Point(x1, y1));
+		points.add(new Point(x2, y2));
+		List<IStroke> strokes = new ArrayList<IStroke>();
+		strokes.add(new Stroke(points));
+		Shape shape = new Shape(strokes, new ArrayList<IShape>());
+		shape.setLabel("Line");
+		return shape;
+	}
+	
+
+	/**
+	 * Get a pool with a noisy rectangle and random lines
+	 * 
+	 * @param random
+	 *            Seeded random number generator
+	 * @param numDistractors
+	 *            Number of random lines to add
+	 * @return The pool of lines
+	 */
+	private static List<IShape> getPool(Random random, int numDistractors) {
+		List<IShape> pool = new ArrayList<IShape>();
+		for (int i = 0; i < numDistractors; i++) {
+			pool.add(line(100 * random.nextDouble(), 100 * random.nextDouble(),
+			        100 * random.nextDouble(), 100 * random.nextDouble()));
+		}
+		
+		double[] noise = new double[4];
+		for (int i = 0; i < noise.length; i++) {
+			noise[i] = 2 * random.nextDouble();
+		}
+		IShape[] rectangle = { line(10, 50 + noise[0], 50, 50),
+		        line(50, 50, 50 + noise[1], 10),
+		        line(10, 10, 50, 10 + noise[2]),
+		        line(10 + noise[3], 10, 10, 50) };
+		for (IShape side : rectangle) {
+			pool.add(random.nextInt(pool.size() + 1), side);
+		}
+		
+		return pool;
+	}
+	
+
+	/**
+	 * The branch-and-bound search must build the same shape as the exhaustive
+	 * search, and should expand fewer nodes doing it.
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public void testBranchAndBoundMatchesExhaustive() throws Exception {
+		ShapeDefinition rectangle = getRectangleDef();
+		Random random = new Random(1234);
+		
+		ShapeBuilderTreeSearch exhaustive = new ShapeBuilderTreeSearch();
+		exhaustive.setUseBranchAndBound(false);
+		ShapeBuilderTreeSearch branchAndBound = new ShapeBuilderTreeSearch();
+		assertTrue(branchAndBound.isUseBranchAndBound());
+		
+		for (int trial = 0; trial < 5; trial++) {
+			List<IShape> pool = getPool(random, 4);
+			
+			BuiltShape expected = exhaustive.buildShape(pool, rectangle);
+			BuiltShape actual = branchAndBound.buildShape(pool, rectangle);
+			
+			assertEquals(expected.getConfidence(), actual.getConfidence(),
+			        S_DEFAULT_DELTA);
+			for (ComponentDefinition comp : rectangle
+			        .getComponentDefinitions()) {
+				assertSame(expected.getComponent(comp.getName()), actual
+				        .getComponent(comp.getName()));
+			}
+			
+			assertEquals(0, exhaustive.getNumNodesPruned());
+			assertTrue(branchAndBound.getNumNodesPruned() > 0);
+			assertTrue(branchAndBound.getNumNodesExpanded() < exhaustive
+			        .getNumNodesExpanded());
+		}
+	}
+	
+
+	/**
+	 * Building with a constraint cache must give the same shape as building
+	 * without one, and building again on the same pool must not solve any
+	 * constraint twice
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public void testConstraintCache() throws Exception {
+		ShapeDefinition rectangle = getRectangleDef();
+		Random random = new Random(4321);
+		
+		ShapeBuilderTreeSearch uncached = new ShapeBuilderTreeSearch();
+		assertNull(uncached.getConstraintCache());
+		ConstraintCache cache = new ConstraintCache();
+		ShapeBuilderTreeSearch cached = new ShapeBuilderTreeSearch();
+		cached.setConstraintCache(cache);
+		
+		for (int trial = 0; trial < 4; trial++) {
+			List<IShape> pool = getPool(random, 4);
+			// alternate between the branch-and-bound and exhaustive searches
+			cached.setUseBranchAndBound(trial % 2 == 0);
+			
+			BuiltShape expected = uncached.buildShape(pool, rectangle);
+			BuiltShape actual = cached.buildShape(pool, rectangle);
+			assertEquals(expected.getConfidence(), actual.getConfidence(),
+			        S_DEFAULT_DELTA);
+			for (ComponentDefinition comp : rectangle
+			        .getComponentDefinitions()) {
+				assertSame(expected.getComponent(comp.getName()), actual
+				        .getComponent(comp.getName()));
+			}
+			
+			cache.resetStatistics();
+			BuiltShape again = cached.buildShape(pool, rectangle);
+			assertEquals(actual.getConfidence(), again.getConfidence(),
+			        S_DEFAULT_DELTA);
+			assertEquals(0, cache.getMisses());
+			assertTrue(cache.getHits() > 0);
+		}
+	}
+}
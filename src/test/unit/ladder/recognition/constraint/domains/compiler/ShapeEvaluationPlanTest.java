@@ -0,0 +1,307 @@
+/**
+ * ShapeEvaluationPlanTest.java
+ * 
+ * Revision History:<br>
+ * Oct 18, 2026 - File created
+ * 
+ * <p>
+ * 
+ * <pre>
+ * This work is released under the BSD License:
+ * (C) 2008 Sketch Recognition Lab, Texas A&amp;M University (hereafter SRL @ TAMU)
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the Sketch Recognition Lab, Texas A&amp;M University 
+ *       nor the names of its contributors may be used to endorse or promote 
+ *       products derived from this software without specific prior written 
+ *       permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY SRL @ TAMU ``AS IS'' AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL SRL @ TAMU BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ * </pre>
+ */
+package test.unit.ladder.recognition.constraint.domains.compiler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+import org.ladder.core.sketch.IPoint;
+import org.ladder.core.sketch.IShape;
+import org.ladder.core.sketch.IStroke;
+import org.ladder.core.sketch.Point;
+import org.ladder.core.sketch.Shape;
+import org.ladder.core.sketch.Stroke;
+import org.ladder.recognition.constraint.ConstraintFactory;
+import org.ladder.recognition.constraint.IConstrainable;
+import org.ladder.recognition.constraint.IConstraint;
+import org.ladder.recognition.constraint.builders.ConstraintCache;
+import org.ladder.recognition.constraint.builders.ShapePlanEvaluator;
+import org.ladder.recognition.constraint.constrainable.ConstrainableFactory;
+import org.ladder.recognition.constraint.domains.ComponentDefinition;
+import org.ladder.recognition.constraint.domains.ComponentSubPart;
+import org.ladder.recognition.constraint.domains.ConstraintDefinition;
+import org.ladder.recognition.constraint.domains.ConstraintParameter;
+import org.ladder.recognition.constraint.domains.DomainDefinition;
+import org.ladder.recognition.constraint.domains.ShapeDefinition;
+import org.ladder.recognition.constraint.domains.compiler.DomainDefinitionCompiler;
+import org.ladder.recognition.constraint.domains.compiler.ShapeEvaluationPlan;
+
+import test.unit.SlothTest;
+
+/**
+ * Test that {@link ShapeEvaluationPlan} resolves constraint parameters the
+ * way the shape builders did, and that {@link ShapePlanEvaluator} scores
+ * constraints the same as solving them directly.
+ */
+public class ShapeEvaluationPlanTest extends SlothTest {
+	
+	/**
+	 * An arrow-ish shape: a shaft, a head meeting the shaft's right end, and a
+	 * text label
+	 * 
+	 * @return The shape definition
+	 */
+	private static ShapeDefinition getLabeledArrowDef() {
+		ShapeDefinition def = new ShapeDefinition();
+		def.setName("LabeledArrow");
+		def.addComponentDefinition(new ComponentDefinition("shaft", "Line"));
+		def.addComponentDefinition(new ComponentDefinition("head", "Line"));
+		def.addComponentDefinition(new ComponentDefinition("label", "Text"));
+		
+		ConstraintDefinition horizontal = new ConstraintDefinition(
+		        "Horizontal");
+		horizontal.addParameter(new ConstraintParameter("shaft"));
+		def.addConstraintDefinition(horizontal);
+		
+		ConstraintDefinition coincident = new ConstraintDefinition(
+		        "Coincident");
+		coincident.addParameter(new ConstraintParameter("shaft",
+		        ComponentSubPart.RightMostEnd));
+		coincident.addParameter(new ConstraintParameter("head",
+		        ComponentSubPart.End1));
+		coincident.setThresholdMultiplier(2);
+		def.addConstraintDefinition(coincident);
+		
+		ConstraintDefinition text = new ConstraintDefinition("ContainsText");
+		text.addParameter(new ConstraintParameter("label"));
+		text.addParameter(new ConstraintParameter("AA"));
+		def.addConstraintDefinition(text);
+		
+		return def;
+	}
+	
+
+	/**
+	 * Get a line shape between the two points
+	 * 
+	 * @return The line
+	 */
+	private static IShape line(double x1, double y1, double x2, double y2) {
+		List<IPoint> points = new ArrayList<IPoint>();
+		points.add(new Point(x1, y1));
+		points.add(new Point(x2, y2));
+		List<IStroke> strokes = new ArrayList<IStroke>();
+		strokes.add(new Stroke(points));
+		Shape shape = new Shape(strokes, new ArrayList<IShape>());
+		shape.setLabel("Line");
+		return shape;
+	}
+	
+
+	/**
+	 * Slots, sub-parts, literals, and ready depths are resolved from the
+	 * definition
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public void testResolve() throws Exception {
+		ShapeEvaluationPlan plan = new ShapeEvaluationPlan(
+		        getLabeledArrowDef());
+		
+		assertEquals("LabeledArrow", plan.getShapeName());
+		assertEquals(3, plan.getNumComponents());
+		assertEquals(3, plan.getNumConstraints());
+		
+		assertEquals(1, plan.getNumParameters(0));
+		assertEquals(0, plan.getSlot(0, 0));
+		assertNull(plan.getSubPart(0, 0));
+		assertEquals(1, plan.getReadyDepth(0));
+		assertTrue(plan.hasOnlyComponents(0));
+		
+		assertEquals(0, plan.getSlot(1, 0));
+		assertEquals(1, plan.getSlot(1, 1));
+		assertEquals(ComponentSubPart.RightMostEnd, plan.getSubPart(1, 0));
+		assertEquals(ComponentSubPart.End1, plan.getSubPart(1, 1));
+		assertEquals(2, plan.getReadyDepth(1));
+		
+		assertEquals(2, plan.getSlot(2, 0));
+		assertEquals(ShapeEvaluationPlan.LITERAL_SLOT, plan.getSlot(2, 1));
+		assertEquals("AA", plan.getLiteral(2, 1));
+		assertNull(plan.getLiteral(2, 0));
+		assertEquals(3, plan.getReadyDepth(2));
+		assertFalse(plan.hasOnlyComponents(2));
+		
+		for (int c = 0; c < plan.getNumConstraints(); c++) {
+			assertTrue(plan.isResolved(c));
+		}
+	}
+	
+
+	/**
+	 * A parameter naming a missing component leaves its constraint
+	 * unresolved
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public void testUnresolved() throws Exception {
+		ShapeDefinition def = getLabeledArrowDef();
+		ConstraintDefinition above = new ConstraintDefinition("Above");
+		above.addParameter(new ConstraintParameter("head"));
+		above.addParameter(new ConstraintParameter("tail"));
+		def.addConstraintDefinition(above);
+		
+		ShapeEvaluationPlan plan = new ShapeEvaluationPlan(def);
+		assertTrue(plan.isResolved(2));
+		assertFalse(plan.isResolved(3));
+		assertEquals(1, plan.getSlot(3, 0));
+		assertEquals(ShapeEvaluationPlan.UNRESOLVED_SLOT, plan.getSlot(3, 1));
+	}
+	
+
+	/**
+	 * Each constraint made by the plan is a new instance with the threshold
+	 * from its definition
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public void testNewConstraint() throws Exception {
+		ShapeDefinition def = getLabeledArrowDef();
+		ShapeEvaluationPlan plan = new ShapeEvaluationPlan(def);
+		
+		for (int c = 0; c < plan.getNumConstraints(); c++) {
+			IConstraint expected = ConstraintFactory.getConstraint(def
+			        .getConstraintDefinitions().get(c));
+			IConstraint first = plan.newConstraint(c);
+			IConstraint second = plan.newConstraint(c);
+			
+			assertNotSame(first, second);
+			assertEquals(expected.getName(), first.getName());
+			assertEquals(expected.getThreshold(), first.getThreshold(),
+			        S_DEFAULT_DELTA);
+			assertEquals(expected.getThreshold(), second.getThreshold(),
+			        S_DEFAULT_DELTA);
+		}
+	}
+	
+
+	/**
+	 * Plans are attached when the domain is compiled, reused, and remade when
+	 * the shape definition changes
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public void testForShape() throws Exception {
+		DomainDefinition domain = new DomainDefinition();
+		domain.addShapeDefinition(getLabeledArrowDef());
+		DomainDefinition compiled = new DomainDefinitionCompiler(domain)
+		        .compile();
+		
+		ShapeDefinition def = compiled.getShapeDefinitions().get(0);
+		ShapeEvaluationPlan plan = def.getEvaluationPlan();
+		assertNotNull(plan);
+		assertTrue(plan.isPlanFor(def));
+		assertSame(plan, ShapeEvaluationPlan.forShape(def));
+		
+		ConstraintDefinition vertical = new ConstraintDefinition("Vertical");
+		vertical.addParameter(new ConstraintParameter("head"));
+		def.addConstraintDefinition(vertical);
+		assertFalse(plan.isPlanFor(def));
+		
+		ShapeEvaluationPlan newPlan = ShapeEvaluationPlan.forShape(def);
+		assertNotSame(plan, newPlan);
+		assertEquals(4, newPlan.getNumConstraints());
+		assertSame(newPlan, def.getEvaluationPlan());
+	}
+	
+
+	/**
+	 * The evaluator gives the same confidences as building the constrainables
+	 * and solving the constraints directly, with and without a cache
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public void testEvaluator() throws Exception {
+		ShapeDefinition def = getLabeledArrowDef();
+		ShapeEvaluationPlan plan = new ShapeEvaluationPlan(def);
+		ShapePlanEvaluator evaluator = new ShapePlanEvaluator(plan);
+		ConstraintCache cache = new ConstraintCache();
+		
+		for (int trial = 0; trial < 20; trial++) {
+			IShape[] assignment = {
+			        line(100 * rand.nextDouble(), 100 * rand.nextDouble(),
+			                100 * rand.nextDouble(), 100 * rand.nextDouble()),
+			        line(100 * rand.nextDouble(), 100 * rand.nextDouble(),
+			                100 * rand.nextDouble(), 100 * rand.nextDouble()),
+			        null };
+			
+			for (int c = 0; c < 2; c++) {
+				ConstraintDefinition constraintDef = def
+				        .getConstraintDefinitions().get(c);
+				List<IConstrainable> args = new ArrayList<IConstrainable>();
+				for (ConstraintParameter param : constraintDef.getParameters()) {
+					IConstrainable arg = ConstrainableFactory
+					        .buildConstrainable(assignment[def
+					                .getComponentIndex(param.getComponent())]);
+					if (param.containsSubPart()) {
+						arg = ConstrainableFactory.getConstrainableSubPart(
+						        arg, param.getComponentSubPart());
+					}
+					args.add(arg);
+				}
+				double expected = ConstraintFactory.getConstraint(
+				        constraintDef).solve(args);
+				
+				evaluator.setConstraintCache(null);
+				assertEquals(expected, evaluator.solve(c, assignment),
+				        S_DEFAULT_DELTA);
+				evaluator.setConstraintCache(cache);
+				assertEquals(expected, evaluator.solve(c, assignment),
+				        S_DEFAULT_DELTA);
+				assertEquals(expected, evaluator.solve(c, assignment),
+				        S_DEFAULT_DELTA);
+			}
+			evaluator.clearConstrainables();
+		}
+		
+		assertEquals(40, cache.getMisses());
+		assertEquals(40, cache.getHits());
+	}
+}
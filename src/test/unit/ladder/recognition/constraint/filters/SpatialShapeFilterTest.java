@@ -0,0 +1,281 @@
+/**
+ * SpatialShapeFilterTest.java
+ * 
+ * Revision History:<br>
+ * Oct 18, 2026 - File created
+ * 
+ * <p>
+ * 
+ * <pre>
+ * This work is released under the BSD License:
+ * (C) 2008 Sketch Recognition Lab, Texas A&amp;M University (hereafter SRL @ TAMU)
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the Sketch Recognition Lab, Texas A&amp;M University 
+ *       nor the names of its contributors may be used to endorse or promote 
+ *       products derived from this software without specific prior written 
+ *       permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY SRL @ TAMU ``AS IS'' AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL SRL @ TAMU BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ * </pre>
+ */
+package test.unit.ladder.recognition.constraint.filters;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+import org.junit.Test;
+import org.ladder.core.sketch.BoundingBox;
+import org.ladder.core.sketch.IPoint;
+import org.ladder.core.sketch.IShape;
+import org.ladder.core.sketch.IStroke;
+import org.ladder.core.sketch.Point;
+import org.ladder.core.sketch.Shape;
+import org.ladder.core.sketch.Stroke;
+import org.ladder.recognition.constraint.filters.SpatialShapeFilter;
+
+import test.unit.SlothTest;
+
+/**
+ * Test the queries of {@link SpatialShapeFilter} against a scan of every shape
+ */
+public class SpatialShapeFilterTest extends SlothTest {
+	
+	/**
+	 * Number of random shapes to index
+	 */
+	private static final int S_NUM_SHAPES = 200;
+	
+	/**
+	 * Number of random queries to run
+	 */
+	private static final int S_NUM_QUERIES = 100;
+	
+	
+	/**
+	 * Get a shape whose bounding box is the given box
+	 */
+	private static IShape boxShape(double minX, double minY, double maxX,
+	        double maxY) {
+		List<IPoint> points = new ArrayList<IPoint>();
+		points.add(new Point(minX, minY, 0));
+		points.add(new Point(maxX, maxY, 10));
+		List<IStroke> strokes = new ArrayList<IStroke>();
+		strokes.add(new Stroke(points));
+		return new Shape(strokes, new ArrayList<IShape>());
+	}
+	
+
+	/**
+	 * Get a random box in a 1000 x 1000 sketch
+	 */
+	private BoundingBox randomBox(double maxSize) {
+		double x = rand.nextDouble() * 1000;
+		double y = rand.nextDouble() * 1000;
+		double width = rand.nextDouble() * maxSize;
+		double height = rand.nextDouble() * maxSize;
+		return new BoundingBox(x, y, x + width, y + height);
+	}
+	
+
+	/**
+	 * Get a filter holding random shapes, and fill the given list with them
+	 */
+	private SpatialShapeFilter randomFilter(List<IShape> shapes) {
+		SpatialShapeFilter filter = new SpatialShapeFilter(50);
+		for (int i = 0; i < S_NUM_SHAPES; i++) {
+			BoundingBox box = randomBox(100);
+			IShape shape = boxShape(box.getMinX(), box.getMinY(), box
+			        .getMaxX(), box.getMaxY());
+			shapes.add(shape);
+			filter.addShape(shape);
+		}
+		return filter;
+	}
+	
+
+	/**
+	 * Gap between two boxes, 0 if they touch
+	 */
+	private static double gap(BoundingBox b1, BoundingBox b2) {
+		double dx = Math.max(b1.getMinX() - b2.getMaxX(), b2.getMinX()
+		                                                   - b1.getMaxX());
+		double dy = Math.max(b1.getMinY() - b2.getMaxY(), b2.getMinY()
+		                                                   - b1.getMaxY());
+		dx = Math.max(0, dx);
+		dy = Math.max(0, dy);
+		return Math.sqrt(dx * dx + dy * dy);
+	}
+	
+
+	/**
+	 * Range queries match a scan of every shape
+	 */
+	@Test
+	public void testGetShapesInRange() {
+		List<IShape> shapes = new ArrayList<IShape>();
+		SpatialShapeFilter filter = randomFilter(shapes);
+		
+		for (int q = 0; q < S_NUM_QUERIES; q++) {
+			BoundingBox region = randomBox(300);
+			SortedSet<IShape> expected = new TreeSet<IShape>();
+			for (IShape shape : shapes) {
+				if (gap(shape.getBoundingBox(), region) == 0) {
+					expected.add(shape);
+				}
+			}
+			assertEquals(expected, filter.getShapesInRange(region));
+		}
+	}
+	
+
+	/**
+	 * Containment queries match a scan of every shape
+	 */
+	@Test
+	public void testGetShapesContainedIn() {
+		List<IShape> shapes = new ArrayList<IShape>();
+		SpatialShapeFilter filter = randomFilter(shapes);
+		
+		for (int q = 0; q < S_NUM_QUERIES; q++) {
+			BoundingBox region = randomBox(400);
+			SortedSet<IShape> expected = new TreeSet<IShape>();
+			for (IShape shape : shapes) {
+				BoundingBox box = shape.getBoundingBox();
+				if (box.getMinX() >= region.getMinX()
+				    && box.getMaxX() <= region.getMaxX()
+				    && box.getMinY() >= region.getMinY()
+				    && box.getMaxY() <= region.getMaxY()) {
+					expected.add(shape);
+				}
+			}
+			assertEquals(expected, filter.getShapesContainedIn(region));
+		}
+	}
+	
+
+	/**
+	 * Nearest queries return the k smallest distances, in order
+	 */
+	@Test
+	public void testGetNearestShapes() {
+		List<IShape> shapes = new ArrayList<IShape>();
+		SpatialShapeFilter filter = randomFilter(shapes);
+		
+		for (int q = 0; q < S_NUM_QUERIES; q++) {
+			BoundingBox region = randomBox(20);
+			int k = 1 + rand.nextInt(10);
+			
+			List<Double> all = new ArrayList<Double>();
+			for (IShape shape : shapes) {
+				all.add(gap(shape.getBoundingBox(), region));
+			}
+			Collections.sort(all);
+			
+			List<IShape> nearest = filter.getNearestShapes(region, k);
+			assertEquals(k, nearest.size());
+			for (int i = 0; i < k; i++) {
+				assertEquals(all.get(i), gap(nearest.get(i).getBoundingBox(),
+				        region), S_DEFAULT_DELTA);
+			}
+		}
+	}
+	
+
+	/**
+	 * Regions larger than every shape, far away from all of them, or out at
+	 * the limits of the grid still give the k smallest distances
+	 */
+	@Test
+	public void testGetNearestShapesOutsideShapes() {
+		List<IShape> shapes = new ArrayList<IShape>();
+		SpatialShapeFilter filter = randomFilter(shapes);
+		
+		BoundingBox[] regions = new BoundingBox[] {
+		        new BoundingBox(-1e6, -1e6, 1e6, 1e6),
+		        new BoundingBox(-Double.MAX_VALUE, -Double.MAX_VALUE,
+		                Double.MAX_VALUE, Double.MAX_VALUE),
+		        new BoundingBox(1e7, 1e7, 1e7 + 5, 1e7 + 5),
+		        new BoundingBox(-1e9, 500, -1e9 + 5, 505),
+		        new BoundingBox(1e300, 1e300, 1e300, 1e300),
+		        new BoundingBox(-5000, -5000, 5000, -4000) };
+		for (BoundingBox region : regions) {
+			for (int k : new int[] { 1, 7, S_NUM_SHAPES, S_NUM_SHAPES + 10 }) {
+				assertNearest(shapes, filter, region, k);
+			}
+		}
+	}
+	
+
+	/**
+	 * Assert a nearest query matches the k smallest distances of a scan of
+	 * every shape
+	 */
+	private static void assertNearest(List<IShape> shapes,
+	        SpatialShapeFilter filter, BoundingBox region, int k) {
+		List<Double> all = new ArrayList<Double>();
+		for (IShape shape : shapes) {
+			all.add(gap(shape.getBoundingBox(), region));
+		}
+		Collections.sort(all);
+		
+		List<IShape> nearest = filter.getNearestShapes(region, k);
+		assertEquals(Math.min(k, shapes.size()), nearest.size());
+		for (int i = 0; i < nearest.size(); i++) {
+			double expected = all.get(i);
+			assertEquals(expected, gap(nearest.get(i).getBoundingBox(), region),
+			        S_DEFAULT_DELTA * Math.max(1, expected));
+		}
+	}
+	
+
+	/**
+	 * Removed shapes are no longer returned, and a far away region still finds
+	 * the nearest shape
+	 */
+	@Test
+	public void testRemoveShape() {
+		SpatialShapeFilter filter = new SpatialShapeFilter(10);
+		IShape near = boxShape(0, 0, 5, 0);
+		IShape far = boxShape(500, 500, 505, 500);
+		filter.addShape(near);
+		filter.addShape(far);
+		assertEquals(2, filter.size());
+		
+		BoundingBox origin = new BoundingBox(-1, -1, 1, 1);
+		assertEquals(near, filter.getNearestShapes(origin, 1).get(0));
+		assertTrue(filter.getShapesInRange(origin).contains(near));
+		
+		filter.removeShape(near);
+		assertEquals(1, filter.size());
+		assertTrue(filter.getShapesInRange(origin).isEmpty());
+		assertEquals(far, filter.getNearestShapes(origin, 1).get(0));
+		assertEquals(1, filter.getNearestShapes(origin, 5).size());
+		
+		filter.clear();
+		assertEquals(0, filter.size());
+		assertTrue(filter.getNearestShapes(origin, 1).isEmpty());
+	}
+	
+}
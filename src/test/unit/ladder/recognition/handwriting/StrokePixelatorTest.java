@@ -0,0 +1,155 @@
+/**
+ * StrokePixelatorTest.java
+ * 
+ * Revision History:<br>
+ * Oct 18, 2026 - File created
+ * 
+ * <p>
+ * 
+ * <pre>
+ * This work is released under the BSD License:
+ * (C) 2008 Sketch Recognition Lab, Texas A&amp;M University (hereafter SRL @ TAMU)
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the Sketch Recognition Lab, Texas A&amp;M University 
+ *       nor the names of its contributors may be used to endorse or promote 
+ *       products derived from this software without specific prior written 
+ *       permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY SRL @ TAMU ``AS IS'' AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL SRL @ TAMU BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ * </pre>
+ */
+package test.unit.ladder.recognition.handwriting;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+import org.ladder.core.sketch.IPoint;
+import org.ladder.core.sketch.IStroke;
+import org.ladder.core.sketch.Point;
+import org.ladder.core.sketch.Sketch;
+import org.ladder.core.sketch.Stroke;
+import org.ladder.recognition.handwriting.StrokePixelator;
+
+import test.unit.SlothTest;
+
+/**
+ * Test the pixel maps used by the handwriting recognizer
+ */
+public class StrokePixelatorTest extends SlothTest {
+	
+	/**
+	 * Number of pixels on a side, minus one
+	 */
+	private static final int S_PIXEL_COUNT = 11;
+	
+	
+	/**
+	 * Get a sketch of random strokes
+	 */
+	private Sketch randomSketch(int numStrokes) {
+		List<IStroke> strokes = new ArrayList<IStroke>();
+		for (int s = 0; s < numStrokes; s++) {
+			List<IPoint> points = new ArrayList<IPoint>();
+			int numPoints = 1 + rand.nextInt(30);
+			for (int i = 0; i < numPoints; i++) {
+				points.add(new Point(rand.nextDouble() * 200,
+				        rand.nextDouble() * 100, i * 10));
+			}
+			strokes.add(new Stroke(points));
+		}
+		
+		Sketch sketch = new Sketch();
+		sketch.setStrokes(strokes);
+		return sketch;
+	}
+	
+
+	/**
+	 * A reused buffer is cleared and gives the same pixels as a new one
+	 */
+	@Test
+	public void testReuseBuffer() {
+		int[][] buffer = new int[S_PIXEL_COUNT + 1][S_PIXEL_COUNT + 1];
+		for (int i = 0; i < 50; i++) {
+			for (int[] column : buffer) {
+				Arrays.fill(column, 1);
+			}
+			Sketch sketch = randomSketch(1 + rand.nextInt(4));
+			
+			int[][] expected = StrokePixelator.pixelizeSketch(sketch,
+			        S_PIXEL_COUNT);
+			int[][] actual = StrokePixelator.pixelizeSketch(sketch,
+			        S_PIXEL_COUNT, buffer);
+			
+			assertSame(buffer, actual);
+			for (int x = 0; x < expected.length; x++) {
+				assertArrayEquals(expected[x], actual[x]);
+			}
+		}
+	}
+	
+
+	/**
+	 * A buffer of the wrong size is not used
+	 */
+	@Test
+	public void testWrongSizeBuffer() {
+		int[][] buffer = new int[S_PIXEL_COUNT][S_PIXEL_COUNT];
+		int[][] pixels = StrokePixelator.pixelizeSketch(randomSketch(2),
+		        S_PIXEL_COUNT, buffer);
+		
+		assertEquals(S_PIXEL_COUNT + 1, pixels.length);
+		assertEquals(S_PIXEL_COUNT + 1, pixels[0].length);
+	}
+	
+
+	/**
+	 * Seven points are added between each pair of stroke points, all along
+	 * the line between them
+	 */
+	@Test
+	public void testDiagonal() {
+		List<IPoint> points = new ArrayList<IPoint>();
+		points.add(new Point(0, 0, 0));
+		points.add(new Point(99.9, 99.9, 10));
+		List<IStroke> strokes = new ArrayList<IStroke>();
+		strokes.add(new Stroke(points));
+		Sketch sketch = new Sketch();
+		sketch.setStrokes(strokes);
+		
+		int[][] pixels = StrokePixelator.pixelizeSketch(sketch, S_PIXEL_COUNT);
+		
+		int numOn = 0;
+		for (int x = 0; x < pixels.length; x++) {
+			for (int y = 0; y < pixels.length; y++) {
+				if (x != y) {
+					assertEquals(0, pixels[x][y]);
+				}
+				numOn += pixels[x][y];
+			}
+		}
+		assertEquals(9, numOn);
+	}
+}
@@ -0,0 +1,218 @@
+/**
+ * TextSegmenterTest.java
+ * 
+ * Revision History:<br>
+ * Oct 18, 2026 - File created
+ * 
+ * <p>
+ * 
+ * <pre>
+ * This work is released under the BSD License:
+ * (C) 2008 Sketch Recognition Lab, Texas A&amp;M University (hereafter SRL @ TAMU)
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the Sketch Recognition Lab, Texas A&amp;M University 
+ *       nor the names of its contributors may be used to endorse or promote 
+ *       products derived from this software without specific prior written 
+ *       permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY SRL @ TAMU ``AS IS'' AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL SRL @ TAMU BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ * </pre>
+ */
+package test.unit.ladder.recognition.handwriting;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+import org.ladder.core.sketch.IStroke;
+import org.ladder.core.sketch.Point;
+import org.ladder.core.sketch.Stroke;
+import org.ladder.recognition.handwriting.Character;
+import org.ladder.recognition.handwriting.ResultConfidencePairing;
+import org.ladder.recognition.handwriting.TextSegmenter;
+
+import test.unit.SlothTest;
+
+/**
+ * Test that the text segmenter finds the same best segmentations as trying
+ * every one
+ */
+public class TextSegmenterTest extends SlothTest {
+	
+	/**
+	 * Characters the test spans are recognized as
+	 */
+	private static final String S_ALPHABET = "ABC1";
+	
+	
+	/**
+	 * Test the best segmentations against every segmentation
+	 */
+	@Test
+	public void testBestSegmentations() {
+		Random random = new Random(7);
+		for (int trial = 0; trial < 40; trial++) {
+			int numGroups = 1 + random.nextInt(9);
+			TextSegmenter segmenter = segmenter(numGroups, random);
+			
+			List<Double> all = new ArrayList<Double>();
+			List<Double> spelled = new ArrayList<Double>();
+			allSegmentations(segmenter, numGroups, 0, -1, -1, "", 0.0, 0.0,
+			        all, spelled);
+			Collections.sort(all, Collections.reverseOrder());
+			Collections.sort(spelled, Collections.reverseOrder());
+			
+			List<TextSegmenter.Segmentation> best = segmenter
+			        .getBestSegmentations(4);
+			assertEquals(Math.min(4, all.size()), best.size());
+			for (int i = 0; i < best.size(); i++) {
+				assertEquals(all.get(i), best.get(i).getConfidence(),
+				        S_DEFAULT_DELTA);
+			}
+			
+			if (spelled.isEmpty()) {
+				assertEquals(Double.NEGATIVE_INFINITY, segmenter
+				        .getWordConfidence("AB1"), 0.0);
+				assertFalse(segmenter.hasSegmentation(3));
+			}
+			else {
+				assertEquals(spelled.get(0), segmenter.getWordConfidence("AB1"),
+				        S_DEFAULT_DELTA);
+				assertTrue(segmenter.hasSegmentation(3));
+			}
+		}
+	}
+	
+
+	/**
+	 * Test that nothing is found when there are too many groups
+	 */
+	@Test
+	public void testTooManyGroups() {
+		int numGroups = TextSegmenter.S_MAX_CHARACTERS
+		                * TextSegmenter.S_MAX_GROUPS_PER_CHARACTER + 1;
+		TextSegmenter segmenter = new TextSegmenter(numGroups);
+		assertTrue(segmenter.getSpans().isEmpty());
+		segmenter.setCharacters(new ArrayList<Character>());
+		for (int n = 0; n <= TextSegmenter.S_MAX_CHARACTERS; n++) {
+			assertFalse(segmenter.hasSegmentation(n));
+		}
+		assertTrue(segmenter.getBestSegmentations(3).isEmpty());
+	}
+	
+
+	/**
+	 * Build a segmenter over groups laid out left to right, with some overlap,
+	 * and random characters for each span
+	 * 
+	 * @param numGroups
+	 *            Number of groups
+	 * @param random
+	 *            Source of the layout and confidences
+	 * @return The segmenter, with its characters set
+	 */
+	private TextSegmenter segmenter(int numGroups, Random random) {
+		List<IStroke> groups = new ArrayList<IStroke>();
+		double x = 0;
+		for (int g = 0; g < numGroups; g++) {
+			double width = 1 + random.nextDouble() * 4;
+			Stroke stroke = new Stroke();
+			stroke.addPoint(new Point(x, 0));
+			stroke.addPoint(new Point(x + width, 5));
+			groups.add(stroke);
+			x += width * (random.nextDouble() * 1.2 - 0.1);
+		}
+		
+		TextSegmenter segmenter = new TextSegmenter(numGroups);
+		List<Character> characters = new ArrayList<Character>();
+		for (int[] span : segmenter.getSpans()) {
+			List<ResultConfidencePairing> results = new ArrayList<ResultConfidencePairing>();
+			for (int c = 0; c < S_ALPHABET.length(); c++) {
+				results.add(new ResultConfidencePairing(String
+				        .valueOf(S_ALPHABET.charAt(c)), random.nextDouble()));
+			}
+			characters.add(new Character(results, groups.subList(span[0],
+			        span[1])));
+		}
+		segmenter.setCharacters(characters);
+		return segmenter;
+	}
+	
+
+	/**
+	 * Score every segmentation of the groups from start on, checking the
+	 * characters are in order left to right
+	 * 
+	 * @param segmenter
+	 *            Segmenter holding the characters
+	 * @param numGroups
+	 *            Number of groups
+	 * @param start
+	 *            First group left to segment
+	 * @param prevStart
+	 *            First group of the previous character, or -1
+	 * @param prevEnd
+	 *            One past the last group of the previous character
+	 * @param prefix
+	 *            Spelled word so far
+	 * @param best
+	 *            Total best-result confidence so far
+	 * @param word
+	 *            Total confidence of spelling "AB1" so far
+	 * @param all
+	 *            Average confidence of every complete segmentation
+	 * @param spelled
+	 *            Average confidence of every segmentation spelling "AB1"
+	 */
+	private void allSegmentations(TextSegmenter segmenter, int numGroups,
+	        int start, int prevStart, int prevEnd, String prefix, double best,
+	        double word, List<Double> all, List<Double> spelled) {
+		if (start == numGroups) {
+			all.add(best / prefix.length());
+			if (prefix.length() == 3) {
+				spelled.add(word / 3);
+			}
+			return;
+		}
+		if (prefix.length() == TextSegmenter.S_MAX_CHARACTERS) {
+			return;
+		}
+		for (int end = start + 1; end <= numGroups
+		                          && end - start <= TextSegmenter.S_MAX_GROUPS_PER_CHARACTER; end++) {
+			Character c = segmenter.getCharacter(start, end);
+			if (prevStart >= 0
+			    && c.getBoundingBox().getCenterX() < segmenter.getCharacter(
+			            prevStart, prevEnd).getBoundingBox().getMaxX()) {
+				continue;
+			}
+			double wordConf = prefix.length() < 3 ? c.getConfidence("AB1"
+			        .charAt(prefix.length())) : 0;
+			allSegmentations(segmenter, numGroups, end, start, end, prefix
+			        + c.getBestResult(), best + c.getHighestConfidence(), word
+			                                                          + wordConf,
+			        all, spelled);
+		}
+	}
+}
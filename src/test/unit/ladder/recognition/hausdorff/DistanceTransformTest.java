@@ -0,0 +1,158 @@
+/**
+ * DistanceTransformTest.java
+ * 
+ * Revision History:<br>
+ * Oct 18, 2026 - File created
+ * 
+ * <p>
+ * 
+ * <pre>
+ * This work is released under the BSD License:
+ * (C) 2008 Sketch Recognition Lab, Texas A&amp;M University (hereafter SRL @ TAMU)
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the Sketch Recognition Lab, Texas A&amp;M University 
+ *       nor the names of its contributors may be used to endorse or promote 
+ *       products derived from this software without specific prior written 
+ *       permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY SRL @ TAMU ``AS IS'' AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL SRL @ TAMU BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ * </pre>
+ */
+package test.unit.ladder.recognition.hausdorff;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+import org.ladder.core.sketch.IPoint;
+import org.ladder.core.sketch.Point;
+import org.ladder.recognition.hausdorff.DistanceTransform;
+
+import test.unit.SlothTest;
+
+/**
+ * Unit tests for the DistanceTransform class
+ */
+public class DistanceTransformTest extends SlothTest {
+	
+	/**
+	 * Every pixel should hold the distance to the closest point
+	 */
+	@Test
+	public void testDistances() {
+		for (int trial = 0; trial < 20; trial++) {
+			int width = 1 + rand.nextInt(40);
+			int height = 1 + rand.nextInt(40);
+			List<IPoint> points = new ArrayList<IPoint>();
+			int numPoints = 1 + rand.nextInt(8);
+			for (int i = 0; i < numPoints; i++)
+				points.add(new Point(rand.nextInt(width), rand.nextInt(height)));
+			
+			DistanceTransform dt = new DistanceTransform(width, height, points);
+			double max = 0.0;
+			for (int x = 0; x < width; x++) {
+				for (int y = 0; y < height; y++) {
+					double closest = Double.MAX_VALUE;
+					for (IPoint p : points)
+						closest = Math.min(closest, Math.hypot(p.getX() - x,
+						        p.getY() - y));
+					assertEquals(closest, dt.getDistance(x, y),
+					        S_DEFAULT_DELTA);
+					max = Math.max(max, closest);
+				}
+			}
+			assertEquals(max, dt.getMaxDistance(), S_DEFAULT_DELTA);
+		}
+	}
+	
+
+	/**
+	 * Locations round to the nearest pixel, clamped to the grid
+	 */
+	@Test
+	public void testRoundingAndClamping() {
+		List<IPoint> points = new ArrayList<IPoint>();
+		points.add(new Point(0, 0));
+		DistanceTransform dt = new DistanceTransform(10, 10, points);
+		
+		assertEquals(0.0, dt.getDistance(0.4, 0.4), S_DEFAULT_DELTA);
+		assertEquals(1.0, dt.getDistance(0.6, 0.4), S_DEFAULT_DELTA);
+		assertEquals(0.0, dt.getDistance(-5.0, -5.0), S_DEFAULT_DELTA);
+		assertEquals(Math.hypot(9, 9), dt.getDistance(100.0, 100.0),
+		        S_DEFAULT_DELTA);
+	}
+	
+
+	/**
+	 * Points outside the grid are moved to the border, and locations outside
+	 * the grid get the distance of the border pixel they clamp to, which is no
+	 * more than their real distance
+	 */
+	@Test
+	public void testOutsideGrid() {
+		List<IPoint> points = new ArrayList<IPoint>();
+		points.add(new Point(4, 25));
+		DistanceTransform dt = new DistanceTransform(10, 20, points);
+		
+		// the point is stored at (4, 19)
+		assertEquals(0.0, dt.getDistance(4, 19), S_DEFAULT_DELTA);
+		assertEquals(1.0, dt.getDistance(4, 18), S_DEFAULT_DELTA);
+		
+		assertTrue(dt.isInGrid(0, 0));
+		assertTrue(dt.isInGrid(9.4, 19.4));
+		assertTrue(dt.isInGrid(-0.4, -0.4));
+		assertTrue(!dt.isInGrid(9.6, 0));
+		assertTrue(!dt.isInGrid(0, 19.6));
+		assertTrue(!dt.isInGrid(-1, 5));
+		assertTrue(!dt.isInGrid(Double.MAX_VALUE, 5));
+		
+		for (int i = 0; i < 100; i++) {
+			double x = -50 + rand.nextDouble() * 110;
+			double y = -50 + rand.nextDouble() * 120;
+			long px = Math.min(Math.max(Math.round(x), 0), 9);
+			long py = Math.min(Math.max(Math.round(y), 0), 19);
+			assertEquals(dt.isInGrid(x, y), px == Math.round(x)
+			                                && py == Math.round(y));
+			
+			double border = Math.hypot(px - 4, py - 19);
+			assertEquals(border, dt.getDistance(x, y), S_DEFAULT_DELTA);
+			assertTrue(border <= Math.hypot(Math.round(x) - 4,
+			        Math.round(y) - 25));
+			
+			double fromGrid = dt.isInGrid(x, y) ? 0.0 : Math.hypot(x - px, y
+			                                                               - py);
+			assertEquals(fromGrid, dt.distanceFromGrid(x, y), S_DEFAULT_DELTA);
+		}
+	}
+	
+
+	/**
+	 * With no points every distance is infinite
+	 */
+	@Test
+	public void testNoPoints() {
+		DistanceTransform dt = new DistanceTransform(5, 7,
+		        new ArrayList<IPoint>());
+		assertTrue(Double.isInfinite(dt.getDistance(2, 3)));
+		assertTrue(Double.isInfinite(dt.getMaxDistance()));
+	}
+}
@@ -0,0 +1,195 @@
+/**
+ * HausdorffRecognizerTest.java
+ * 
+ * Revision History:<br>
+ * Oct 18, 2026 - File created
+ * 
+ * <p>
+ * 
+ * <pre>
+ * This work is released under the BSD License:
+ * (C) 2008 Sketch Recognition Lab, Texas A&amp;M University (hereafter SRL @ TAMU)
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the Sketch Recognition Lab, Texas A&amp;M University 
+ *       nor the names of its contributors may be used to endorse or promote 
+ *       products derived from this software without specific prior written 
+ *       permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY SRL @ TAMU ``AS IS'' AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL SRL @ TAMU BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ * </pre>
+ */
+package test.unit.ladder.recognition.hausdorff;
+
+import static org.junit.Assert.assertEquals;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.imageio.ImageIO;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.ladder.core.sketch.IPoint;
+import org.ladder.core.sketch.IShape;
+import org.ladder.core.sketch.IStroke;
+import org.ladder.core.sketch.Point;
+import org.ladder.core.sketch.Stroke;
+import org.ladder.recognition.IRecognitionResult;
+import org.ladder.recognition.hausdorff.HausdorffRecognizer;
+import org.ladder.recognition.hausdorff.Template;
+
+import test.unit.SlothTest;
+
+/**
+ * Test that {@link HausdorffRecognizer} ranks templates by the modified
+ * Hausdorff distance, even for strokes that scale past the template grid.
+ */
+public class HausdorffRecognizerTest extends SlothTest {
+	
+	/**
+	 * Directory holding the template images
+	 */
+	private File m_templateDirectory;
+	
+	
+	/**
+	 * Draw a few line templates into a new directory
+	 * 
+	 * @throws IOException
+	 */
+	@Before
+	public void setup() throws IOException {
+		m_templateDirectory = File.createTempFile("hausdorff", "");
+		m_templateDirectory.delete();
+		m_templateDirectory.mkdir();
+		
+		writeTemplate("horizontal", 10, 64, 118, 64);
+		writeTemplate("vertical", 64, 10, 64, 118);
+		writeTemplate("diagonal", 10, 10, 118, 118);
+	}
+	
+
+	/**
+	 * Delete the template images
+	 */
+	@After
+	public void tearDown() {
+		for (File f : m_templateDirectory.listFiles()) {
+			f.delete();
+		}
+		m_templateDirectory.delete();
+	}
+	
+
+	/**
+	 * Write a template image of a black line on white
+	 */
+	private void writeTemplate(String name, int x1, int y1, int x2, int y2)
+	        throws IOException {
+		int width = (int) Template.S_IMGSIZE.getWidth();
+		int height = (int) Template.S_IMGSIZE.getHeight();
+		BufferedImage image = new BufferedImage(width, height,
+		        BufferedImage.TYPE_INT_RGB);
+		Graphics2D g = image.createGraphics();
+		g.setColor(Color.WHITE);
+		g.fillRect(0, 0, width, height);
+		g.setColor(Color.BLACK);
+		g.drawLine(x1, y1, x2, y2);
+		g.dispose();
+		ImageIO.write(image, "png", new File(m_templateDirectory, name
+		                                                          + ".png"));
+	}
+	
+
+	/**
+	 * Get a stroke sampled from a line
+	 */
+	private static IStroke lineStroke(double x1, double y1, double x2,
+	        double y2) {
+		List<IPoint> points = new ArrayList<IPoint>();
+		for (int i = 0; i <= 40; i++) {
+			double t = i / 40.0;
+			points.add(new Point(x1 + t * (x2 - x1), y1 + t * (y2 - y1), i * 10));
+		}
+		return new Stroke(points);
+	}
+	
+
+	/**
+	 * Average distance from each point of A to the closest point of B
+	 */
+	private static double directedDistance(List<IPoint> A, List<IPoint> B) {
+		double sum = 0.0;
+		for (IPoint a : A) {
+			double closest = Double.POSITIVE_INFINITY;
+			for (IPoint b : B) {
+				closest = Math.min(closest, a.distance(b));
+			}
+			sum += closest;
+		}
+		return sum / A.size();
+	}
+	
+
+	/**
+	 * A nearly vertical stroke less than two pixels wide scales far past the
+	 * right edge of the grid. Its confidences must still come from the real
+	 * distances to the templates.
+	 * 
+	 * @throws IOException
+	 */
+	@Test
+	public void testStrokeOutsideGrid() throws IOException {
+		List<IStroke> strokes = new ArrayList<IStroke>();
+		strokes.add(lineStroke(100, 100, 101.9, 160));
+		
+		List<IPoint> scaled = Template.scale(strokes);
+		Map<String, Double> expected = new HashMap<String, Double>();
+		double worst = 0.0;
+		for (File f : m_templateDirectory.listFiles()) {
+			String name = f.getName().substring(0, f.getName().indexOf('.'));
+			List<IPoint> pixels = new Template(name, f.getPath())
+			        .getImagePixels();
+			double distance = Math.max(directedDistance(scaled, pixels),
+			        directedDistance(pixels, scaled));
+			expected.put(name, distance);
+			worst = Math.max(worst, distance);
+		}
+		
+		HausdorffRecognizer recognizer = new HausdorffRecognizer(
+		        m_templateDirectory);
+		recognizer.submitForRecognition(strokes);
+		IRecognitionResult result = recognizer.recognize();
+		
+		assertEquals(expected.size(), result.getNBestList().size());
+		for (IShape shape : result.getNBestList()) {
+			double confidence = (worst - expected.get(shape.getLabel()))
+			                    / worst;
+			assertEquals(confidence, shape.getConfidence(), 0.02);
+		}
+	}
+}
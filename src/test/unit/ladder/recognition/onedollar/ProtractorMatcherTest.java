@@ -0,0 +1,150 @@
+/**
+ * ProtractorMatcherTest.java
+ * 
+ * Revision History:<br>
+ * Oct 18, 2026 - File created
+ * 
+ * <p>
+ * 
+ * <pre>
+ * This work is released under the BSD License:
+ * (C) 2008 Sketch Recognition Lab, Texas A&amp;M University (hereafter SRL @ TAMU)
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the Sketch Recognition Lab, Texas A&amp;M University 
+ *       nor the names of its contributors may be used to endorse or promote 
+ *       products derived from this software without specific prior written 
+ *       permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY SRL @ TAMU ``AS IS'' AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL SRL @ TAMU BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ * </pre>
+ */
+package test.unit.ladder.recognition.onedollar;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+import org.ladder.core.sketch.IPoint;
+import org.ladder.core.sketch.Point;
+import org.ladder.recognition.IRecognitionResult;
+import org.ladder.recognition.onedollar.ProtractorMatcher;
+
+import test.unit.SlothTest;
+
+/**
+ * Unit tests for the ProtractorMatcher class
+ */
+public class ProtractorMatcherTest extends SlothTest {
+	
+	/**
+	 * Get a random polyline with 2 to 6 corners
+	 */
+	private static List<IPoint> randGesture() {
+		List<IPoint> points = new ArrayList<IPoint>();
+		int corners = 2 + rand.nextInt(5);
+		double x = rand.nextDouble() * 100, y = rand.nextDouble() * 100;
+		for (int c = 1; c < corners; c++) {
+			double nx = rand.nextDouble() * 100, ny = rand.nextDouble() * 100;
+			for (int i = 0; i < 10; i++)
+				points.add(new Point(x + (nx - x) * i / 10.0,
+				        y + (ny - y) * i / 10.0));
+			x = nx;
+			y = ny;
+		}
+		points.add(new Point(x, y));
+		return points;
+	}
+	
+
+	/**
+	 * Rotate, scale and move points
+	 */
+	private static List<IPoint> transform(List<IPoint> points, double theta,
+	        double scale, double dx, double dy) {
+		List<IPoint> moved = new ArrayList<IPoint>();
+		for (IPoint p : points) {
+			double x = p.getX() * Math.cos(theta) - p.getY() * Math.sin(theta);
+			double y = p.getX() * Math.sin(theta) + p.getY() * Math.cos(theta);
+			moved.add(new Point(x * scale + dx, y * scale + dy));
+		}
+		return moved;
+	}
+	
+
+	/**
+	 * A template matches itself after rotating, scaling and moving it
+	 */
+	@Test
+	public void testInvariance() {
+		ProtractorMatcher matcher = new ProtractorMatcher();
+		List<IPoint> gesture = randGesture();
+		matcher.addTemplate("gesture", gesture);
+		
+		IRecognitionResult result = matcher.recognize(transform(gesture, 1.3,
+		        2.5, 40, -70), 5);
+		assertEquals(1, result.getNumInterpretations());
+		assertEquals("gesture", result.getBestShape().getLabel());
+		assertEquals(1.0, result.getBestShape().getConfidence(), 1e-6);
+	}
+	
+
+	/**
+	 * The n-best list holds the most similar templates, with or without
+	 * pruning and worker threads
+	 */
+	@Test
+	public void testNBestList() {
+		ProtractorMatcher matcher = new ProtractorMatcher();
+		List<double[]> vectors = new ArrayList<double[]>();
+		for (int t = 0; t < 600; t++) {
+			List<IPoint> gesture = randGesture();
+			matcher.addTemplate("t" + t, gesture);
+			vectors.add(matcher.vectorize(gesture));
+		}
+		
+		for (int q = 0; q < 20; q++) {
+			List<IPoint> query = randGesture();
+			double[] queryVector = matcher.vectorize(query);
+			List<Double> similarities = new ArrayList<Double>();
+			for (double[] vector : vectors)
+				similarities.add(ProtractorMatcher.getSimilarity(vector,
+				        queryVector));
+			Collections.sort(similarities);
+			Collections.reverse(similarities);
+			
+			IRecognitionResult result = matcher.recognize(query, 5);
+			result.sortNBestList();
+			assertEquals(5, result.getNumInterpretations());
+			for (int i = 0; i < 5; i++) {
+				double confidence = result.getNBestList().get(i)
+				        .getConfidence();
+				assertEquals(similarities.get(i), confidence, 1e-9);
+				int t = Integer.parseInt(result.getNBestList().get(i)
+				        .getLabel().substring(1));
+				assertEquals(confidence, ProtractorMatcher.getSimilarity(
+				        vectors.get(t), queryVector), 1e-9);
+			}
+			assertTrue(result.getBestShape().getConfidence() <= 1.0 + 1e-9);
+		}
+	}
+}
@@ -0,0 +1,162 @@
+/**
+ * OrigPaleoSketchRecognizerTest.java
+ * 
+ * Revision History:<br>
+ * Oct 18, 2026 - File created
+ * 
+ * <p>
+ * 
+ * <pre>
+ * This work is released under the BSD License:
+ * (C) 2008 Sketch Recognition Lab, Texas A&amp;M University (hereafter SRL @ TAMU)
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the Sketch Recognition Lab, Texas A&amp;M University 
+ *       nor the names of its contributors may be used to endorse or promote 
+ *       products derived from this software without specific prior written 
+ *       permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY SRL @ TAMU ``AS IS'' AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL SRL @ TAMU BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ * </pre>
+ */
+package test.unit.ladder.recognition.paleo;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+import org.ladder.core.sketch.IPoint;
+import org.ladder.core.sketch.IShape;
+import org.ladder.core.sketch.IStroke;
+import org.ladder.core.sketch.Point;
+import org.ladder.core.sketch.Stroke;
+import org.ladder.recognition.paleo.OrigPaleoSketchRecognizer;
+import org.ladder.recognition.paleo.PaleoConfig;
+
+import test.unit.SlothTest;
+
+/**
+ * Test that computing the fits of {@link OrigPaleoSketchRecognizer} in
+ * parallel gives the same interpretations as computing them sequentially.
+ */
+public class OrigPaleoSketchRecognizerTest extends SlothTest {
+	
+	/**
+	 * Get a stroke through the given (x, y) pairs, with evenly spaced points
+	 * between each pair
+	 */
+	private static IStroke polylineStroke(double... xy) {
+		List<IPoint> points = new ArrayList<IPoint>();
+		long time = 0;
+		for (int i = 0; i + 3 < xy.length; i += 2) {
+			for (int j = 0; j < 20; j++) {
+				double t = j / 20.0;
+				points.add(new Point(xy[i] + t * (xy[i + 2] - xy[i]), xy[i + 1]
+				                                                      + t
+				                                                      * (xy[i + 3] - xy[i + 1]),
+				        time));
+				time += 10;
+			}
+		}
+		points.add(new Point(xy[xy.length - 2], xy[xy.length - 1], time));
+		return new Stroke(points);
+	}
+	
+
+	/**
+	 * Get a stroke sampled from a spiral with the given number of revolutions
+	 */
+	private static IStroke spiralStroke(double cx, double cy, double r,
+	        double revs, double growth) {
+		List<IPoint> points = new ArrayList<IPoint>();
+		int n = (int) (60 * revs);
+		for (int i = 0; i <= n; i++) {
+			double theta = 2 * Math.PI * i / 60.0;
+			double rad = r + growth * theta;
+			points.add(new Point(cx + rad * Math.cos(theta), cy + rad
+			                                                 * Math.sin(theta),
+			        i * 10));
+		}
+		return new Stroke(points);
+	}
+	
+
+	/**
+	 * Strokes covering most of the fits
+	 */
+	private static List<IStroke> strokes() {
+		List<IStroke> strokes = new ArrayList<IStroke>();
+		strokes.add(polylineStroke(0, 0, 100, 50));
+		strokes.add(polylineStroke(0, 0, 100, 0, 100, 60, 0, 60, 0, 0));
+		strokes.add(polylineStroke(0, 0, 50, 50, 0, 100, -50, 50, 0, 0));
+		strokes.add(polylineStroke(0, 0, 20, 40, 40, 0, 60, 40, 80, 0, 100,
+		        40));
+		strokes.add(polylineStroke(0, 0, 80, 0, 70, -10, 80, 0, 70, 10));
+		strokes.add(spiralStroke(100, 100, 40, 1, 0));
+		strokes.add(spiralStroke(100, 100, 40, 3, 0));
+		strokes.add(spiralStroke(100, 100, 5, 3, 6));
+		return strokes;
+	}
+	
+
+	/**
+	 * Check that both modes give the same interpretations, in the same order
+	 */
+	private void assertSameFits(PaleoConfig config) {
+		OrigPaleoSketchRecognizer sequential = new OrigPaleoSketchRecognizer(
+		        config);
+		OrigPaleoSketchRecognizer parallel = new OrigPaleoSketchRecognizer(
+		        config);
+		parallel.setParallelFitsOn(true);
+		
+		for (IStroke stroke : strokes()) {
+			sequential.setStroke(stroke);
+			parallel.setStroke(stroke);
+			List<IShape> expected = sequential.recognizeShape();
+			List<IShape> actual = parallel.recognizeShape();
+			
+			assertEquals(expected.size(), actual.size());
+			for (int i = 0; i < expected.size(); i++) {
+				assertEquals(expected.get(i).getLabel(), actual.get(i)
+				        .getLabel());
+				assertEquals(expected.get(i).getConfidence(), actual.get(i)
+				        .getConfidence(), S_DEFAULT_DELTA);
+			}
+		}
+	}
+	
+
+	/**
+	 * Every fit turned on
+	 */
+	@Test
+	public void testParallelFitsAllOn() {
+		assertSameFits(PaleoConfig.allOn());
+	}
+	
+
+	/**
+	 * Configuration used by the deep green recognizer
+	 */
+	@Test
+	public void testParallelFitsDeepGreen() {
+		assertSameFits(PaleoConfig.deepGreenConfig());
+	}
+}
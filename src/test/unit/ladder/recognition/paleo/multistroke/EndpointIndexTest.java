@@ -0,0 +1,139 @@
+/**
+ * EndpointIndexTest.java
+ * 
+ * Revision History:<br>
+ * Oct 18, 2026 - File created
+ * 
+ * <p>
+ * 
+ * <pre>
+ * This work is released under the BSD License:
+ * (C) 2008 Sketch Recognition Lab, Texas A&amp;M University (hereafter SRL @ TAMU)
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the Sketch Recognition Lab, Texas A&amp;M University 
+ *       nor the names of its contributors may be used to endorse or promote 
+ *       products derived from this software without specific prior written 
+ *       permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY SRL @ TAMU ``AS IS'' AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL SRL @ TAMU BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ * </pre>
+ */
+package test.unit.ladder.recognition.paleo.multistroke;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+import org.ladder.core.sketch.IPoint;
+import org.ladder.core.sketch.IStroke;
+import org.ladder.core.sketch.Point;
+import org.ladder.core.sketch.Stroke;
+import org.ladder.recognition.paleo.multistroke.EndpointIndex;
+
+import test.unit.SlothTest;
+
+/**
+ * Unit tests for the EndpointIndex class
+ */
+public class EndpointIndexTest extends SlothTest {
+	
+	/**
+	 * Get a straight stroke between two random points, at most the given
+	 * length apart in each direction
+	 */
+	private static IStroke randLine(double maxLength) {
+		double x = rand.nextDouble() * 500;
+		double y = rand.nextDouble() * 500;
+		List<IPoint> points = new ArrayList<IPoint>();
+		points.add(new Point(x, y, 0));
+		double dx = (rand.nextDouble() - 0.5) * maxLength;
+		double dy = (rand.nextDouble() - 0.5) * maxLength;
+		points.add(new Point(x + dx, y + dy, 10));
+		return new Stroke(points);
+	}
+	
+
+	/**
+	 * Get the smallest distance between an endpoint of one stroke and an
+	 * endpoint of another
+	 */
+	private static double endpointDistance(IStroke s1, IStroke s2) {
+		double dis = s1.getFirstPoint().distance(s2.getFirstPoint());
+		dis = Math.min(dis, s1.getFirstPoint().distance(s2.getLastPoint()));
+		dis = Math.min(dis, s1.getLastPoint().distance(s2.getFirstPoint()));
+		return Math.min(dis, s1.getLastPoint().distance(s2.getLastPoint()));
+	}
+	
+
+	/**
+	 * Every stroke within reach must be a candidate, in the order it was added
+	 */
+	@Test
+	public void testGetCandidates() {
+		EndpointIndex index = new EndpointIndex(8.0, 0.1 / 1.5, 16.0);
+		List<IStroke> strokes = new ArrayList<IStroke>();
+		for (int i = 0; i < 300; i++) {
+			IStroke stroke = randLine(i % 10 == 0 ? 400 : 60);
+			
+			List<IStroke> candidates = index.getCandidates(stroke);
+			double reach = index.getReach(stroke);
+			int last = -1;
+			for (IStroke other : strokes) {
+				double dis = endpointDistance(stroke, other);
+				if (dis < reach + index.getReach(other)) {
+					int pos = candidates.indexOf(other);
+					assertTrue(pos > last);
+					last = pos;
+				}
+			}
+			
+			index.add(stroke);
+			strokes.add(stroke);
+		}
+		assertEquals(strokes.size(), index.size());
+	}
+	
+
+	/**
+	 * Removed strokes are no longer candidates
+	 */
+	@Test
+	public void testRemove() {
+		EndpointIndex index = new EndpointIndex(8.0, 0.1 / 1.5);
+		IStroke stroke = randLine(50);
+		index.add(stroke);
+		assertTrue(index.contains(stroke));
+		assertTrue(index.getCandidates(stroke).contains(stroke));
+		
+		// adding again re-indexes rather than duplicating
+		index.add(stroke);
+		assertEquals(1, index.size());
+		assertEquals(1, index.getCandidates(stroke).size());
+		
+		assertTrue(index.remove(stroke));
+		assertFalse(index.remove(stroke));
+		assertFalse(index.contains(stroke));
+		assertTrue(index.getCandidates(stroke).isEmpty());
+		assertEquals(0, index.size());
+	}
+}
@@ -0,0 +1,232 @@
+/**
+ * ModelRegistryTest.java
+ * 
+ * Revision History:<br>
+ * Oct 18, 2026 - File created
+ * 
+ * <p>
+ * 
+ * <pre>
+ * This work is released under the BSD License:
+ * (C) 2008 Sketch Recognition Lab, Texas A&amp;M University (hereafter SRL @ TAMU)
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the Sketch Recognition Lab, Texas A&amp;M University 
+ *       nor the names of its contributors may be used to endorse or promote 
+ *       products derived from this software without specific prior written 
+ *       permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY SRL @ TAMU ``AS IS'' AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL SRL @ TAMU BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ * </pre>
+ */
+package test.unit.ladder.recognition.recognizer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Test;
+import org.ladder.recognition.recognizer.IModelLoader;
+import org.ladder.recognition.recognizer.ModelRegistry;
+import org.ladder.recognition.recognizer.ModelRegistry.ModelStats;
+
+import test.unit.SlothTest;
+
+/**
+ * Test the process-wide model cache
+ */
+public class ModelRegistryTest extends SlothTest {
+	
+	/**
+	 * Key used by the tests
+	 */
+	private static final String S_KEY = "test:" + ModelRegistryTest.class;
+	
+	
+	/**
+	 * Loader that counts how many times it loads, and can fail on purpose
+	 */
+	private static class CountingLoader implements
+	        IModelLoader<ArrayList<Double>> {
+		
+		/**
+		 * Number of loads
+		 */
+		private final AtomicInteger m_loads = new AtomicInteger();
+		
+		/**
+		 * Number of loads that should fail before one succeeds
+		 */
+		private final AtomicInteger m_failures;
+		
+		/**
+		 * How long a load takes, in milliseconds
+		 */
+		private final long m_delay;
+		
+		
+		/**
+		 * @param failures
+		 *            Number of loads that fail before one succeeds
+		 * @param delay
+		 *            How long a load takes, in milliseconds
+		 */
+		public CountingLoader(int failures, long delay) {
+			m_failures = new AtomicInteger(failures);
+			m_delay = delay;
+		}
+		
+
+		public ArrayList<Double> load() throws Exception {
+			m_loads.incrementAndGet();
+			Thread.sleep(m_delay);
+			if (m_failures.getAndDecrement() > 0) {
+				throw new IllegalStateException("failed on purpose");
+			}
+			ArrayList<Double> model = new ArrayList<Double>();
+			for (int i = 0; i < 100; i++) {
+				model.add(Double.valueOf(i));
+			}
+			return model;
+		}
+	}
+	
+	
+	/**
+	 * Forget the test model
+	 */
+	@After
+	public void tearDown() {
+		ModelRegistry.remove(S_KEY);
+	}
+	
+
+	/**
+	 * A model is loaded once and then shared
+	 */
+	@Test
+	public void testLoadsOnce() throws Exception {
+		CountingLoader loader = new CountingLoader(0, 0);
+		ArrayList<Double> first = ModelRegistry.getModel(S_KEY, loader);
+		ArrayList<Double> second = ModelRegistry.getModel(S_KEY, loader);
+		
+		assertSame(first, second);
+		assertEquals(1, loader.m_loads.get());
+	}
+	
+
+	/**
+	 * Threads asking for a model at the same time wait for a single load
+	 */
+	@Test
+	public void testConcurrentLoadsOnce() throws Exception {
+		final CountingLoader loader = new CountingLoader(0, 50);
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<ArrayList<Double>>> futures = new ArrayList<Future<ArrayList<Double>>>();
+			for (int i = 0; i < 8; i++) {
+				futures.add(executor.submit(new Callable<ArrayList<Double>>() {
+					
+					public ArrayList<Double> call() throws Exception {
+						return ModelRegistry.getModel(S_KEY, loader);
+					}
+				}));
+			}
+			
+			ArrayList<Double> model = futures.get(0).get();
+			for (Future<ArrayList<Double>> future : futures) {
+				assertSame(model, future.get());
+			}
+			assertEquals(1, loader.m_loads.get());
+		}
+		finally {
+			executor.shutdown();
+		}
+	}
+	
+
+	/**
+	 * A failed load is not cached, so the next request tries again
+	 */
+	@Test
+	public void testFailureNotCached() throws Exception {
+		CountingLoader loader = new CountingLoader(1, 0);
+		try {
+			ModelRegistry.getModel(S_KEY, loader);
+			fail("Load should have failed");
+		}
+		catch (IOException e) {
+			assertTrue(e.getCause() instanceof IllegalStateException);
+		}
+		assertNull(ModelRegistry.getStats(S_KEY));
+		
+		assertEquals(100, ModelRegistry.getModel(S_KEY, loader).size());
+		assertEquals(2, loader.m_loads.get());
+	}
+	
+
+	/**
+	 * A failed warm-up is not handed to the first request, which loads the
+	 * model again
+	 */
+	@Test
+	public void testFailedWarmUpRetried() throws Exception {
+		CountingLoader loader = new CountingLoader(1, 50);
+		ModelRegistry.warmUp(S_KEY, loader);
+		while (loader.m_loads.get() == 0) {
+			Thread.sleep(1);
+		}
+		
+		assertEquals(100, ModelRegistry.getModel(S_KEY, loader).size());
+		assertEquals(2, loader.m_loads.get());
+	}
+	
+
+	/**
+	 * A warmed up model is loaded in the background and reports its stats
+	 */
+	@Test
+	public void testWarmUp() throws Exception {
+		assertNull(ModelRegistry.getStats(S_KEY));
+		
+		CountingLoader loader = new CountingLoader(0, 20);
+		ModelRegistry.warmUp(S_KEY, loader);
+		ArrayList<Double> model = ModelRegistry.getModel(S_KEY, loader);
+		
+		assertEquals(100, model.size());
+		assertEquals(1, loader.m_loads.get());
+		
+		ModelStats stats = ModelRegistry.getStats(S_KEY);
+		assertTrue(stats.isLoaded());
+		assertTrue(stats.getLoadTime() >= 0);
+		assertTrue(stats.getSize() > 0);
+		assertTrue(ModelRegistry.getAllStats().size() >= 1);
+	}
+}
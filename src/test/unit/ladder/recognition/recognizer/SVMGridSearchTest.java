@@ -0,0 +1,133 @@
+/**
+ * SVMGridSearchTest.java
+ * 
+ * Revision History:<br>
+ * Oct 18, 2026 - File created
+ * 
+ * <p>
+ * 
+ * <pre>
+ * This work is released under the BSD License:
+ * (C) 2008 Sketch Recognition Lab, Texas A&amp;M University (hereafter SRL @ TAMU)
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the Sketch Recognition Lab, Texas A&amp;M University 
+ *       nor the names of its contributors may be used to endorse or promote 
+ *       products derived from this software without specific prior written 
+ *       permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY SRL @ TAMU ``AS IS'' AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL SRL @ TAMU BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ * </pre>
+ */
+package test.unit.ladder.recognition.recognizer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import libsvm.svm_node;
+import libsvm.svm_parameter;
+import libsvm.svm_problem;
+
+import org.junit.Test;
+import org.ladder.recognition.recognizer.SVMGridSearch;
+
+import test.unit.SlothTest;
+
+/**
+ * Test that {@link SVMGridSearch} picks the best point on its grid
+ */
+public class SVMGridSearchTest extends SlothTest {
+	
+	/**
+	 * Test that the chosen C and gamma have the best cross-validation accuracy
+	 * and that the search is repeatable
+	 */
+	@Test
+	public void testSearch() {
+		svm_problem prob = twoClassProblem(60, new Random(11));
+		
+		svm_parameter params = new svm_parameter();
+		params.svm_type = svm_parameter.C_SVC;
+		params.kernel_type = svm_parameter.RBF;
+		params.cache_size = 20;
+		params.eps = 0.001;
+		params.C = 1;
+		params.gamma = 1;
+		params.probability = 1;
+		
+		SVMGridSearch search = new SVMGridSearch(SVMGridSearch.around(1, 10,
+		        1), SVMGridSearch.around(1, 10, 1));
+		search.setNumFolds(3);
+		svm_parameter best = search.search(prob, params);
+		double[][] accuracies = search.getAccuracies();
+		
+		assertEquals(3, accuracies.length);
+		assertEquals(1, params.probability);
+		assertEquals(1, best.probability);
+		
+		double bestAccuracy = 0;
+		double chosenAccuracy = -1;
+		double[] grid = SVMGridSearch.around(1, 10, 1);
+		for (int c = 0; c < grid.length; c++) {
+			for (int g = 0; g < grid.length; g++) {
+				bestAccuracy = Math.max(bestAccuracy, accuracies[c][g]);
+				if (grid[c] == best.C && grid[g] == best.gamma) {
+					chosenAccuracy = accuracies[c][g];
+				}
+			}
+		}
+		assertEquals(bestAccuracy, chosenAccuracy, 0.0);
+		assertTrue(bestAccuracy > 0.9);
+		
+		SVMGridSearch again = new SVMGridSearch(grid, grid);
+		again.setNumFolds(3);
+		svm_parameter repeat = again.search(prob, params);
+		assertEquals(best.C, repeat.C, 0.0);
+		assertEquals(best.gamma, repeat.gamma, 0.0);
+	}
+	
+
+	/**
+	 * Build a problem with two well separated classes in the plane
+	 * 
+	 * @param numExamples
+	 *            Number of examples
+	 * @param random
+	 *            Source of the noise
+	 * @return The problem
+	 */
+	private svm_problem twoClassProblem(int numExamples, Random random) {
+		svm_problem prob = new svm_problem();
+		prob.l = numExamples;
+		prob.y = new double[numExamples];
+		prob.x = new svm_node[numExamples][];
+		for (int i = 0; i < numExamples; i++) {
+			prob.y[i] = i % 2;
+			prob.x[i] = new svm_node[2];
+			for (int d = 0; d < 2; d++) {
+				prob.x[i][d] = new svm_node();
+				prob.x[i][d].index = d + 1;
+				prob.x[i][d].value = prob.y[i] * 2 - 1 + random.nextGaussian()
+				        * 0.2;
+			}
+		}
+		return prob;
+	}
+}
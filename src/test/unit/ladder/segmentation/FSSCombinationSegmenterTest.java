@@ -0,0 +1,162 @@
+/**
+ * FSSCombinationSegmenterTest.java
+ * 
+ * Revision History:<br>
+ * Oct 18, 2026 - File created
+ * 
+ * <p>
+ * 
+ * <pre>
+ * This work is released under the BSD License:
+ * (C) 2008 Sketch Recognition Lab, Texas A&amp;M University (hereafter SRL @ TAMU)
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the Sketch Recognition Lab, Texas A&amp;M University 
+ *       nor the names of its contributors may be used to endorse or promote 
+ *       products derived from this software without specific prior written 
+ *       permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY SRL @ TAMU ``AS IS'' AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL SRL @ TAMU BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ * </pre>
+ */
+package test.unit.ladder.segmentation;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.ladder.core.config.LadderConfig;
+import org.ladder.core.sketch.IPoint;
+import org.ladder.core.sketch.ISegmentation;
+import org.ladder.core.sketch.IStroke;
+import org.ladder.core.sketch.InvalidParametersException;
+import org.ladder.core.sketch.Point;
+import org.ladder.core.sketch.Stroke;
+import org.ladder.segmentation.combination.FSSCombinationSegmenter;
+
+import test.unit.SlothTest;
+
+/**
+ * Test that {@link FSSCombinationSegmenter} finds the same corners whether its
+ * ensemble of corner finders runs on one thread or on the worker threads.
+ */
+public class FSSCombinationSegmenterTest extends SlothTest {
+	
+	/**
+	 * Number of recognition threads configured before the test
+	 */
+	private String m_oldNumThreads;
+	
+	
+	/**
+	 * Remember the configured number of recognition threads
+	 */
+	@Before
+	public void setup() {
+		m_oldNumThreads = LadderConfig
+		        .getProperty(LadderConfig.RECOGNITION_THREADS_KEY);
+	}
+	
+
+	/**
+	 * Put back the configured number of recognition threads
+	 */
+	@After
+	public void tearDown() {
+		LadderConfig.setProperty(LadderConfig.RECOGNITION_THREADS_KEY,
+		        m_oldNumThreads != null ? m_oldNumThreads
+		                : LadderConfig.RECOGNITION_THREADS_DEFAULT_VALUE);
+	}
+	
+
+	/**
+	 * Test that the parallel and sequential ensembles give the same
+	 * segmentation of a fixed zig-zag stroke
+	 */
+	@Test
+	public void testParallelMatchesSequential() throws Exception {
+		IStroke stroke = zigZag();
+		
+		LadderConfig.setProperty(LadderConfig.RECOGNITION_THREADS_KEY, "1");
+		List<List<Integer>> sequential = segment(stroke);
+		
+		LadderConfig.setProperty(LadderConfig.RECOGNITION_THREADS_KEY, "4");
+		List<List<Integer>> parallel = segment(stroke);
+		
+		assertEquals(sequential, parallel);
+	}
+	
+
+	/**
+	 * Segment the stroke with a new FSS segmenter
+	 * 
+	 * @param stroke
+	 *            Stroke to segment
+	 * @return The number of points in each substroke, for each segmentation
+	 */
+	private static List<List<Integer>> segment(IStroke stroke)
+	        throws InvalidParametersException {
+		FSSCombinationSegmenter fss = new FSSCombinationSegmenter();
+		fss.setStroke(stroke);
+		
+		List<List<Integer>> sizes = new ArrayList<List<Integer>>();
+		for (ISegmentation segmentation : fss.getSegmentations()) {
+			List<Integer> substrokes = new ArrayList<Integer>();
+			for (IStroke substroke : segmentation.getSegmentedStrokes()) {
+				substrokes.add(substroke.getNumPoints());
+			}
+			sizes.add(substrokes);
+		}
+		return sizes;
+	}
+	
+
+	/**
+	 * Get a zig-zag stroke with five sharp corners and a little wobble along
+	 * each side
+	 * 
+	 * @return The stroke
+	 */
+	private static IStroke zigZag() {
+		double[][] vertices = { { 0, 0 }, { 60, 90 }, { 120, 0 }, { 180, 90 },
+		        { 240, 0 }, { 300, 90 }, { 360, 0 } };
+		
+		List<IPoint> points = new ArrayList<IPoint>();
+		long time = 0;
+		for (int v = 0; v + 1 < vertices.length; v++) {
+			for (int i = 0; i < 25; i++) {
+				double t = i / 25.0;
+				double wobble = 0.5 * Math.sin(i * 1.3);
+				points.add(new Point(vertices[v][0] + t
+				                     * (vertices[v + 1][0] - vertices[v][0])
+				                     + wobble, vertices[v][1] + t
+				                               * (vertices[v + 1][1] - vertices[v][1]),
+				        time));
+				time += 10;
+			}
+		}
+		double[] last = vertices[vertices.length - 1];
+		points.add(new Point(last[0], last[1], time));
+		
+		return new Stroke(points);
+	}
+}
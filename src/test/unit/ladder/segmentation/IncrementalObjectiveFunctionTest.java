@@ -0,0 +1,300 @@
+/**
+ * IncrementalObjectiveFunctionTest.java
+ * 
+ * Revision History:<br>
+ * Oct 18, 2026 - File created
+ * 
+ * <p>
+ * 
+ * <pre>
+ * This work is released under the BSD License:
+ * (C) 2008 Sketch Recognition Lab, Texas A&amp;M University (hereafter SRL @ TAMU)
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the Sketch Recognition Lab, Texas A&amp;M University 
+ *       nor the names of its contributors may be used to endorse or promote 
+ *       products derived from this software without specific prior written 
+ *       permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY SRL @ TAMU ``AS IS'' AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL SRL @ TAMU BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ * </pre>
+ */
+package test.unit.ladder.segmentation;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import org.junit.Test;
+import org.ladder.core.sketch.IPoint;
+import org.ladder.core.sketch.ISegmentation;
+import org.ladder.core.sketch.IStroke;
+import org.ladder.core.sketch.Point;
+import org.ladder.core.sketch.Stroke;
+import org.ladder.segmentation.combination.FSSCombinationSegmenter;
+import org.ladder.segmentation.combination.FSSCombinationSegmenter.SubsetSelectionAlgorithm;
+import org.ladder.segmentation.combination.objectiveFunctions.IIncrementalObjectiveFunction;
+import org.ladder.segmentation.combination.objectiveFunctions.IObjectiveFunction;
+import org.ladder.segmentation.combination.objectiveFunctions.MSEObjectiveFunction;
+import org.ladder.segmentation.combination.objectiveFunctions.PolylineFeatureAreaObjectiveFunction;
+import org.ladder.segmentation.combination.objectiveFunctions.PolylineMSEObjectiveFunction;
+
+import test.unit.SlothTest;
+
+/**
+ * Test that scoring a corner subset incrementally, from the kept segment
+ * errors, gives the same values as scoring it from scratch.
+ */
+public class IncrementalObjectiveFunctionTest extends SlothTest {
+	
+	/**
+	 * Number of random strokes to try
+	 */
+	private static final int S_NUM_STROKES = 20;
+	
+	
+	/**
+	 * Test that adding or removing one corner gives the same value as solving
+	 * the changed subset with a new objective function, for every objective
+	 * function that keeps segment errors
+	 */
+	@Test
+	public void testIncrementalMatchesFull() {
+		Random random = new Random(14);
+		
+		for (int s = 0; s < S_NUM_STROKES; s++) {
+			IStroke stroke = randomStroke(random, 40 + random.nextInt(60));
+			List<Integer> corners = randomCorners(random, stroke);
+			
+			for (int f = 0; f < 3; f++) {
+				IIncrementalObjectiveFunction incremental = newFunction(f);
+				
+				for (int c = 1; c < stroke.getNumPoints() - 1; c++) {
+					if (corners.contains(c)) {
+						continue;
+					}
+					List<Integer> added = new ArrayList<Integer>(corners);
+					added.add(c);
+					assertEquals(newFunction(f).solve(added, stroke),
+					        incremental.solveWithCorner(corners, c, stroke),
+					        S_DEFAULT_DELTA);
+				}
+				
+				for (int i = 1; i < corners.size() - 1; i++) {
+					List<Integer> removed = new ArrayList<Integer>(corners);
+					removed.remove(i);
+					assertEquals(newFunction(f).solve(removed, stroke),
+					        incremental.solveWithoutCorner(corners, i, stroke),
+					        S_DEFAULT_DELTA);
+				}
+				
+				assertEquals(newFunction(f).solve(
+				        new ArrayList<Integer>(corners), stroke), incremental
+				        .solve(new ArrayList<Integer>(corners), stroke),
+				        S_DEFAULT_DELTA);
+			}
+		}
+	}
+	
+
+	/**
+	 * Test that the kept segment errors are dropped when the objective
+	 * function moves on to another stroke
+	 */
+	@Test
+	public void testNewStroke() {
+		Random random = new Random(15);
+		
+		for (int f = 0; f < 3; f++) {
+			IIncrementalObjectiveFunction incremental = newFunction(f);
+			
+			for (int s = 0; s < S_NUM_STROKES; s++) {
+				// same length, so only the stroke tells them apart
+				IStroke stroke = randomStroke(random, 50);
+				List<Integer> corners = randomCorners(random, stroke);
+				
+				assertEquals(newFunction(f).solve(
+				        new ArrayList<Integer>(corners), stroke), incremental
+				        .solve(new ArrayList<Integer>(corners), stroke),
+				        S_DEFAULT_DELTA);
+			}
+		}
+	}
+	
+
+	/**
+	 * Test that the floating searches pick the same corners when the
+	 * objective function can only be solved from scratch
+	 */
+	@Test
+	public void testSearchesMatchFull() throws Exception {
+		Random random = new Random(16);
+		
+		for (int s = 0; s < S_NUM_STROKES / 2; s++) {
+			IStroke stroke = randomStroke(random, 40 + random.nextInt(60));
+			
+			for (SubsetSelectionAlgorithm fssType : SubsetSelectionAlgorithm
+			        .values()) {
+				assertEquals(fssType.toString(), segment(stroke, fssType,
+				        new PolylineMSEObjectiveFunction()), segment(stroke,
+				        fssType, new FullObjectiveFunction(
+				                new PolylineMSEObjectiveFunction())));
+			}
+		}
+	}
+	
+
+	/**
+	 * Segment the stroke with a new FSS segmenter
+	 * 
+	 * @param stroke
+	 *            Stroke to segment
+	 * @param fssType
+	 *            Subset selection algorithm to use
+	 * @param objFunction
+	 *            Objective function to use
+	 * @return The number of points in each substroke, for each segmentation
+	 */
+	private static List<List<Integer>> segment(IStroke stroke,
+	        SubsetSelectionAlgorithm fssType, IObjectiveFunction objFunction)
+	        throws Exception {
+		FSSCombinationSegmenter fss = new FSSCombinationSegmenter(fssType,
+		        objFunction, false);
+		fss.setStroke(stroke);
+		
+		List<List<Integer>> sizes = new ArrayList<List<Integer>>();
+		for (ISegmentation segmentation : fss.getSegmentations()) {
+			List<Integer> substrokes = new ArrayList<Integer>();
+			for (IStroke substroke : segmentation.getSegmentedStrokes()) {
+				substrokes.add(substroke.getNumPoints());
+			}
+			sizes.add(substrokes);
+		}
+		return sizes;
+	}
+	
+
+	/**
+	 * Get a new objective function that keeps segment errors
+	 * 
+	 * @param f
+	 *            Which one, 0 to 2
+	 * @return The objective function
+	 */
+	private static IIncrementalObjectiveFunction newFunction(int f) {
+		switch (f) {
+			case 0:
+				return new PolylineMSEObjectiveFunction();
+			case 1:
+				return new PolylineFeatureAreaObjectiveFunction();
+			default:
+				return new MSEObjectiveFunction();
+		}
+	}
+	
+
+	/**
+	 * Get a random walk stroke
+	 * 
+	 * @param random
+	 *            Random numbers to use
+	 * @param numPoints
+	 *            Number of points in the stroke
+	 * @return The stroke
+	 */
+	private static IStroke randomStroke(Random random, int numPoints) {
+		List<IPoint> points = new ArrayList<IPoint>();
+		double x = 0;
+		double y = 0;
+		double angle = random.nextDouble() * 2 * Math.PI;
+		for (int i = 0; i < numPoints; i++) {
+			points.add(new Point(x, y, i * 10));
+			
+			// mostly straight, with the odd sharp turn
+			if (random.nextInt(10) == 0) {
+				angle += (random.nextDouble() - 0.5) * Math.PI * 1.5;
+			}
+			else {
+				angle += (random.nextDouble() - 0.5) * 0.2;
+			}
+			double step = 2 + random.nextDouble() * 3;
+			x += step * Math.cos(angle);
+			y += step * Math.sin(angle);
+		}
+		return new Stroke(points);
+	}
+	
+
+	/**
+	 * Get a random sorted subset of corners that always has the end points of
+	 * the stroke
+	 * 
+	 * @param random
+	 *            Random numbers to use
+	 * @param stroke
+	 *            Stroke the corners are on
+	 * @return The corners
+	 */
+	private static List<Integer> randomCorners(Random random, IStroke stroke) {
+		int last = stroke.getNumPoints() - 1;
+		TreeSet<Integer> corners = new TreeSet<Integer>();
+		corners.add(0);
+		corners.add(last);
+		int numCorners = random.nextInt(8);
+		for (int c = 0; c < numCorners; c++) {
+			corners.add(1 + random.nextInt(last - 1));
+		}
+		return new ArrayList<Integer>(corners);
+	}
+	
+	/**
+	 * Hides whether an objective function can be solved incrementally, so
+	 * the searches have to solve every subset from scratch
+	 */
+	private static class FullObjectiveFunction implements IObjectiveFunction {
+		
+		/**
+		 * Objective function that does the work
+		 */
+		private final IObjectiveFunction m_objFunction;
+		
+		
+		/**
+		 * @param objFunction
+		 *            Objective function that does the work
+		 */
+		public FullObjectiveFunction(IObjectiveFunction objFunction) {
+			m_objFunction = objFunction;
+		}
+		
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see
+		 * org.ladder.segmentation.combination.objectiveFunctions.IObjectiveFunction
+		 * #solve(java.util.List, org.ladder.core.sketch.IStroke)
+		 */
+		public double solve(List<Integer> corners, IStroke stroke) {
+			return m_objFunction.solve(corners, stroke);
+		}
+	}
+}